@@ -0,0 +1,82 @@
+package com.mb.conitrack.carga;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Datos de entrada de cada flujo, leídos del manifiesto que escribe el generador de dataset (conitrack.dataset
+ * .candidatos). Los candidatos de cuarentena y muestreo se consumen una sola vez; los de venta se reusan mientras les
+ * queden trazas. Devolución y reverso se alimentan de las ventas que hace la propia corrida.
+ */
+final class Candidatos {
+
+    final List<Long> proveedores = new ArrayList<>();
+
+    final List<Ingreso> ingresos = new ArrayList<>();
+
+    final ConcurrentLinkedDeque<String> cuarentenas = new ConcurrentLinkedDeque<>();
+
+    final ConcurrentLinkedDeque<Muestreo> muestreos = new ConcurrentLinkedDeque<>();
+
+    final List<Venta> ventas = new ArrayList<>();
+
+    final ConcurrentLinkedDeque<Vendido> vendidos = new ConcurrentLinkedDeque<>();
+
+    static Candidatos leer(final Path manifiesto, final Random random) throws IOException {
+        final Candidatos candidatos = new Candidatos();
+        final List<String> cuarentenas = new ArrayList<>();
+        final List<Muestreo> muestreos = new ArrayList<>();
+        for (String linea : Files.readAllLines(manifiesto, StandardCharsets.UTF_8)) {
+            final String[] campos = linea.split(";");
+            switch (campos[0]) {
+                case "PROVEEDOR" -> candidatos.proveedores.add(Long.valueOf(campos[1]));
+                case "INGRESO" -> candidatos.ingresos.add(new Ingreso(Long.parseLong(campos[1]), campos[2]));
+                case "CUARENTENA" -> cuarentenas.add(campos[1]);
+                case "MUESTREO" -> muestreos.add(
+                    new Muestreo(campos[1], campos[2], Integer.parseInt(campos[3]), campos[4], campos[5]));
+                case "VENTA" -> candidatos.ventas.add(
+                    new Venta(campos[1], Integer.parseInt(campos[2]), new AtomicLong(Long.parseLong(campos[3]))));
+                default -> {
+                }
+            }
+        }
+        // Mezclados para no concentrar la carga en los lotes más viejos del dataset
+        Collections.shuffle(cuarentenas, random);
+        Collections.shuffle(muestreos, random);
+        candidatos.cuarentenas.addAll(cuarentenas);
+        candidatos.muestreos.addAll(muestreos);
+        if (candidatos.proveedores.isEmpty() || candidatos.ingresos.isEmpty()) {
+            throw new IllegalStateException("El manifiesto " + manifiesto + " no tiene proveedores o productos de compra");
+        }
+        return candidatos;
+    }
+
+    /** Producto de compra (no UNIDAD_VENTA) con su unidad de medida. */
+    record Ingreso(long productoId, String unidad) {
+
+    }
+
+    /** Bulto con stock de un lote en CUARENTENA no trazado. */
+    record Muestreo(String codigoLote, String nroAnalisis, int nroBulto, String cantidadActual, String unidad) {
+
+    }
+
+    /** Bulto de un lote LIBERADO trazado; disponibles se descuenta a medida que la corrida vende. */
+    record Venta(String codigoLote, int nroBulto, AtomicLong disponibles) {
+
+    }
+
+    /** Venta hecha durante la corrida, candidata a devolución o reverso. */
+    record Vendido(String codigoLote, String codigoMovimiento, int nroBulto, List<Long> nroTrazas) {
+
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.mb.conitrack.carga;
+
+import java.util.Locale;
+
+/** Flujos de CU que reproduce el driver de carga, con la clave que se usa en la mezcla (--mezcla=venta=40,...). */
+enum Flujo {
+
+    /** CU1: alta de ingreso de compra. */
+    INGRESO,
+
+    /** CU2: dictamen de cuarentena de un lote RECIBIDO. */
+    CUARENTENA,
+
+    /** CU3: muestreo de un bulto de un lote en cuarentena. */
+    MUESTREO,
+
+    /** CU22: venta por pedido JSON de trazas de un lote liberado. */
+    VENTA,
+
+    /** CU23: devolución de una venta hecha durante la corrida. */
+    DEVOLUCION,
+
+    /** CU25: reverso de una venta hecha durante la corrida. */
+    REVERSO;
+
+    String clave() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    static Flujo deClave(final String clave) {
+        for (Flujo flujo : values()) {
+            if (flujo.clave().equals(clave.trim().toLowerCase(Locale.ROOT))) {
+                return flujo;
+            }
+        }
+        throw new IllegalArgumentException("Flujo desconocido en la mezcla: " + clave);
+    }
+
+}
@@ -0,0 +1,479 @@
+package com.mb.conitrack.carga;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Driver de carga: reproduce una mezcla configurable de flujos de CU contra la aplicación levantada, con un hilo por
+ * sesión, y reporta throughput y percentiles de latencia por flujo. Los requests del calentamiento no se miden.
+ *
+ * <p>Opciones (--clave=valor): url, usuario, password, hilos, duracion, calentamiento (ISO-8601 o segundos),
+ * mezcla (flujo=peso separados por coma), candidatos (manifiesto del generador de dataset) y semilla.
+ *
+ * <p>Resultado de cada request: OK si el formulario redirige a "-ok" o el pedido JSON se aplica; RECHAZADA si la
+ * aplicación valida y rechaza (el formulario se vuelve a mostrar o el pedido responde 422); ERROR en cualquier otro
+ * caso (5xx, 403, sesión vencida, timeout).
+ */
+public final class ReplayCarga {
+
+    private static final String MEZCLA_DEFAULT =
+        "ingreso=10,cuarentena=10,muestreo=15,venta=45,devolucion=10,reverso=10";
+
+    private static final Pattern CODIGO_MOVIMIENTO = Pattern.compile("\"codigoMovimiento\"\\s*:\\s*\"([^\"]+)\"");
+
+    private static final Pattern NRO_TRAZAS = Pattern.compile("\"nroTrazas\"\\s*:\\s*\\[([^]]*)]");
+
+    /** Intentos de tomar un candidato de venta con trazas disponibles antes de dar el flujo por agotado. */
+    private static final int INTENTOS_VENTA = 20;
+
+    /** Elecciones seguidas sin candidatos a partir de las cuales un hilo termina antes de tiempo. */
+    private static final int MAX_SIN_CANDIDATO = 1_000;
+
+    private ReplayCarga() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final Map<String, String> opciones = opciones(args);
+        final String url = opciones.getOrDefault("url", "http://localhost:8080");
+        final String usuario = opciones.getOrDefault("usuario", "admin");
+        final String password = opciones.getOrDefault("password", "abc");
+        final int hilos = Integer.parseInt(opciones.getOrDefault("hilos", "8"));
+        final Duration duracion = duracion(opciones.getOrDefault("duracion", "PT2M"));
+        final Duration calentamiento = duracion(opciones.getOrDefault("calentamiento", "PT30S"));
+        final Map<Flujo, Integer> mezcla = mezcla(opciones.getOrDefault("mezcla", MEZCLA_DEFAULT));
+        final Path manifiesto = Path.of(opciones.getOrDefault("candidatos", "build/dataset/candidatos.csv"));
+        final long semilla = Long.parseLong(opciones.getOrDefault("semilla", "42"));
+
+        final Candidatos candidatos = Candidatos.leer(manifiesto, new Random(semilla));
+        System.out.printf(Locale.ROOT, "Candidatos: %d cuarentenas, %d muestreos, %d bultos para venta%n",
+            candidatos.cuarentenas.size(), candidatos.muestreos.size(), candidatos.ventas.size());
+        System.out.printf(Locale.ROOT, "Corriendo %d hilos contra %s: %d s de calentamiento y %d s medidos, mezcla %s%n",
+            hilos, url, calentamiento.toSeconds(), duracion.toSeconds(), mezcla);
+
+        final long inicioMedicion = System.nanoTime() + calentamiento.toNanos();
+        final long fin = inicioMedicion + duracion.toNanos();
+        final ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        final List<Future<Map<Flujo, Registro>>> futuros = new ArrayList<>();
+        for (int i = 0; i < hilos; i++) {
+            final Trabajador trabajador = new Trabajador(i, url, candidatos, mezcla, inicioMedicion, fin,
+                new Random(semilla + i + 1));
+            futuros.add(executor.submit(() -> trabajador.correr(usuario, password)));
+        }
+        final Map<Flujo, Registro> total = new EnumMap<>(Flujo.class);
+        for (Future<Map<Flujo, Registro>> futuro : futuros) {
+            futuro.get().forEach((flujo, registro) -> total.computeIfAbsent(flujo, f -> new Registro()).sumar(registro));
+        }
+        executor.shutdown();
+        System.out.print(reporte(total, duracion));
+    }
+
+    static String reporte(final Map<Flujo, Registro> registros, final Duration duracion) {
+        final double segundos = Math.max(1, duracion.toMillis()) / 1000.0;
+        final StringBuilder reporte = new StringBuilder(String.format(Locale.ROOT,
+            "%n%-12s %8s %11s %8s %9s %8s %8s %8s %8s%n",
+            "Flujo", "OK", "Rechazadas", "Errores", "Req/s", "p50 ms", "p90 ms", "p99 ms", "Máx ms"));
+        final Registro total = new Registro();
+        for (Map.Entry<Flujo, Registro> entry : registros.entrySet()) {
+            reporte.append(fila(entry.getKey().clave(), entry.getValue(), segundos));
+            total.sumar(entry.getValue());
+        }
+        reporte.append(fila("total", total, segundos));
+        registros.forEach((flujo, registro) -> {
+            if (registro.primerError != null) {
+                reporte.append(String.format("Primer error de %s: %s%n", flujo.clave(), registro.primerError));
+            }
+        });
+        return reporte.toString();
+    }
+
+    private static String fila(final String nombre, final Registro registro, final double segundos) {
+        final long[] latencias = registro.latenciasOrdenadas();
+        return String.format(Locale.ROOT, "%-12s %8d %11d %8d %9.1f %8.1f %8.1f %8.1f %8.1f%n",
+            nombre, registro.ok, registro.rechazadas, registro.errores, latencias.length / segundos,
+            percentil(latencias, 50), percentil(latencias, 90), percentil(latencias, 99), percentil(latencias, 100));
+    }
+
+    /** Percentil por rango más cercano, en milisegundos. */
+    static double percentil(final long[] ordenadas, final int percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        final int rango = (int) Math.ceil(percentil / 100.0 * ordenadas.length);
+        return ordenadas[Math.max(0, rango - 1)] / 1_000_000.0;
+    }
+
+    static Map<String, String> opciones(final String[] args) {
+        final Map<String, String> opciones = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Opción inválida (se espera --clave=valor): " + arg);
+            }
+            final int igual = arg.indexOf('=');
+            opciones.put(arg.substring(2, igual), arg.substring(igual + 1));
+        }
+        return opciones;
+    }
+
+    static Duration duracion(final String valor) {
+        return valor.chars().allMatch(Character::isDigit)
+            ? Duration.ofSeconds(Long.parseLong(valor))
+            : Duration.parse(valor);
+    }
+
+    static Map<Flujo, Integer> mezcla(final String valor) {
+        final Map<Flujo, Integer> mezcla = new EnumMap<>(Flujo.class);
+        for (String parte : valor.split(",")) {
+            final String[] flujoPeso = parte.split("=");
+            final int peso = Integer.parseInt(flujoPeso[1].trim());
+            if (peso > 0) {
+                mezcla.put(Flujo.deClave(flujoPeso[0]), peso);
+            }
+        }
+        if (mezcla.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla no tiene ningún flujo con peso positivo: " + valor);
+        }
+        return mezcla;
+    }
+
+    private enum Resultado {
+        OK, RECHAZADA, ERROR, SIN_CANDIDATO
+    }
+
+    /** Contadores y latencias de un flujo; cada hilo tiene los suyos y se suman al final. */
+    static final class Registro {
+
+        private long ok;
+
+        private long rechazadas;
+
+        private long errores;
+
+        private long[] latencias = new long[1024];
+
+        private int cantidad;
+
+        private String primerError;
+
+        void registrar(final Resultado resultado, final long nanos, final String error) {
+            switch (resultado) {
+                case OK -> ok++;
+                case RECHAZADA -> rechazadas++;
+                default -> {
+                    errores++;
+                    if (primerError == null) {
+                        primerError = error;
+                    }
+                }
+            }
+            if (cantidad == latencias.length) {
+                latencias = Arrays.copyOf(latencias, cantidad * 2);
+            }
+            latencias[cantidad++] = nanos;
+        }
+
+        void sumar(final Registro otro) {
+            ok += otro.ok;
+            rechazadas += otro.rechazadas;
+            errores += otro.errores;
+            if (primerError == null) {
+                primerError = otro.primerError;
+            }
+            latencias = Arrays.copyOf(latencias, Math.max(latencias.length, cantidad + otro.cantidad));
+            System.arraycopy(otro.latencias, 0, latencias, cantidad, otro.cantidad);
+            cantidad += otro.cantidad;
+        }
+
+        long[] latenciasOrdenadas() {
+            final long[] ordenadas = Arrays.copyOf(latencias, cantidad);
+            Arrays.sort(ordenadas);
+            return ordenadas;
+        }
+
+    }
+
+    /** Un hilo con su propia sesión que elige flujos según la mezcla hasta que termina la corrida. */
+    private static final class Trabajador {
+
+        private final int nro;
+
+        private final SesionHttp sesion;
+
+        private final Candidatos candidatos;
+
+        private final Flujo[] flujos;
+
+        private final int[] pesosAcumulados;
+
+        private final long inicioMedicion;
+
+        private final long fin;
+
+        private final Random random;
+
+        private final Map<Flujo, Registro> registros = new EnumMap<>(Flujo.class);
+
+        private long secuencia;
+
+        private String error;
+
+        private Trabajador(
+            final int nro,
+            final String url,
+            final Candidatos candidatos,
+            final Map<Flujo, Integer> mezcla,
+            final long inicioMedicion,
+            final long fin,
+            final Random random) {
+            this.nro = nro;
+            this.sesion = new SesionHttp(url);
+            this.candidatos = candidatos;
+            this.inicioMedicion = inicioMedicion;
+            this.fin = fin;
+            this.random = random;
+            this.flujos = mezcla.keySet().toArray(new Flujo[0]);
+            this.pesosAcumulados = new int[flujos.length];
+            int acumulado = 0;
+            for (int i = 0; i < flujos.length; i++) {
+                acumulado += mezcla.get(flujos[i]);
+                pesosAcumulados[i] = acumulado;
+            }
+        }
+
+        Map<Flujo, Registro> correr(final String usuario, final String password) throws Exception {
+            sesion.login(usuario, password);
+            int sinCandidato = 0;
+            while (System.nanoTime() < fin && sinCandidato < MAX_SIN_CANDIDATO) {
+                final Flujo flujo = elegir();
+                final long inicio = System.nanoTime();
+                error = null;
+                Resultado resultado;
+                try {
+                    resultado = ejecutar(flujo);
+                } catch (IOException e) {
+                    error = e.toString();
+                    resultado = Resultado.ERROR;
+                }
+                final long nanos = System.nanoTime() - inicio;
+                if (resultado == Resultado.SIN_CANDIDATO) {
+                    sinCandidato++;
+                    continue;
+                }
+                sinCandidato = 0;
+                if (inicio >= inicioMedicion && inicio < fin) {
+                    registros.computeIfAbsent(flujo, f -> new Registro()).registrar(resultado, nanos, error);
+                }
+                if (error != null && error.contains("/login")) {
+                    sesion.login(usuario, password);
+                }
+            }
+            return registros;
+        }
+
+        private Flujo elegir() {
+            final int valor = random.nextInt(pesosAcumulados[pesosAcumulados.length - 1]);
+            for (int i = 0; i < flujos.length; i++) {
+                if (valor < pesosAcumulados[i]) {
+                    return flujos[i];
+                }
+            }
+            throw new IllegalStateException("Peso fuera de rango: " + valor);
+        }
+
+        private Resultado ejecutar(final Flujo flujo) throws IOException, InterruptedException {
+            return switch (flujo) {
+                case INGRESO -> ingreso();
+                case CUARENTENA -> cuarentena();
+                case MUESTREO -> muestreo();
+                case VENTA -> venta();
+                case DEVOLUCION -> devolucion();
+                case REVERSO -> reverso();
+            };
+        }
+
+        /** CU1: compra de 1 a 3 bultos de un producto y proveedor al azar. */
+        private Resultado ingreso() throws IOException, InterruptedException {
+            final Candidatos.Ingreso producto = alAzar(candidatos.ingresos);
+            final String id = identificador();
+            final int bultos = 1 + random.nextInt(3);
+            final List<Map.Entry<String, String>> parametros = new ArrayList<>();
+            BigDecimal total = BigDecimal.ZERO;
+            for (int i = 0; i < bultos; i++) {
+                final BigDecimal cantidad = "UNIDAD".equals(producto.unidad())
+                    ? BigDecimal.valueOf(10 + random.nextInt(500))
+                    : BigDecimal.valueOf(10 + random.nextInt(5000), 1);
+                total = total.add(cantidad);
+                if (bultos > 1) {
+                    parametros.add(Map.entry("cantidadesBultos[" + i + "]", cantidad.toPlainString()));
+                    parametros.add(Map.entry("unidadMedidaBultos[" + i + "]", producto.unidad()));
+                }
+            }
+            final LocalDate hoy = LocalDate.now();
+            parametros.addAll(List.of(
+                Map.entry("fechaIngreso", hoy.toString()),
+                Map.entry("productoId", String.valueOf(producto.productoId())),
+                Map.entry("cantidadInicial", total.toPlainString()),
+                Map.entry("unidadMedida", producto.unidad()),
+                Map.entry("bultosTotales", String.valueOf(bultos)),
+                Map.entry("proveedorId", String.valueOf(alAzar(candidatos.proveedores))),
+                Map.entry("loteProveedor", "LP-" + id),
+                Map.entry("nroRemito", "R-" + id),
+                Map.entry("paisOrigen", "Argentina"),
+                Map.entry("fechaReanalisisProveedor", hoy.plusYears(1).toString()),
+                Map.entry("fechaVencimientoProveedor", hoy.plusYears(2).toString())));
+            return formulario(sesion.postForm("/compras/alta/ingreso-compra", parametros));
+        }
+
+        /** CU2: cuarentena de un lote RECIBIDO del dataset, con un análisis nuevo. */
+        private Resultado cuarentena() throws IOException, InterruptedException {
+            final String codigoLote = candidatos.cuarentenas.poll();
+            if (codigoLote == null) {
+                return Resultado.SIN_CANDIDATO;
+            }
+            return formulario(sesion.postForm("/calidad/dictamen/cuarentena", List.of(
+                Map.entry("codigoLote", codigoLote),
+                Map.entry("nroAnalisis", "CG-" + identificador()),
+                Map.entry("fechaMovimiento", LocalDate.now().toString()))));
+        }
+
+        /** CU3: muestreo de un 5% del stock de un bulto en cuarentena (una unidad si se mide en unidades). */
+        private Resultado muestreo() throws IOException, InterruptedException {
+            final Candidatos.Muestreo muestreo = candidatos.muestreos.poll();
+            if (muestreo == null) {
+                return Resultado.SIN_CANDIDATO;
+            }
+            final BigDecimal actual = new BigDecimal(muestreo.cantidadActual());
+            BigDecimal cantidad = "UNIDAD".equals(muestreo.unidad())
+                ? BigDecimal.ONE
+                : actual.multiply(new BigDecimal("0.05")).setScale(4, RoundingMode.HALF_UP);
+            if (cantidad.signum() == 0 || cantidad.compareTo(actual) > 0) {
+                cantidad = actual;
+            }
+            return formulario(sesion.postForm("/calidad/baja/muestreo-trazable", List.of(
+                Map.entry("codigoLote", muestreo.codigoLote()),
+                Map.entry("nroAnalisis", muestreo.nroAnalisis()),
+                Map.entry("nroBulto", String.valueOf(muestreo.nroBulto())),
+                Map.entry("cantidad", cantidad.toPlainString()),
+                Map.entry("unidadMedida", muestreo.unidad()),
+                Map.entry("fechaMovimiento", LocalDate.now().toString()))));
+        }
+
+        /**
+         * CU22: pedido JSON de 1 a 3 unidades de un bulto liberado; las trazas asignadas por la aplicación quedan como
+         * candidatas a devolución o reverso.
+         */
+        private Resultado venta() throws IOException, InterruptedException {
+            for (int intento = 0; intento < INTENTOS_VENTA && !candidatos.ventas.isEmpty(); intento++) {
+                final Candidatos.Venta venta = alAzar(candidatos.ventas);
+                final int pedidas = 1 + random.nextInt(3);
+                final AtomicLong disponibles = venta.disponibles();
+                final long antes = disponibles.getAndUpdate(d -> Math.max(0, d - pedidas));
+                final long unidades = Math.min(antes, pedidas);
+                if (unidades == 0) {
+                    continue;
+                }
+                final String pedido = String.format(Locale.ROOT,
+                    "{\"fechaEgreso\":\"%s\",\"lineas\":[{\"codigoLote\":\"%s\",\"nroBulto\":%d,\"cantidad\":%d}]}",
+                    LocalDate.now(), venta.codigoLote(), venta.nroBulto(), unidades);
+                final HttpResponse<String> response = sesion.postJson("/ventas/baja/venta-producto/pedido", pedido);
+                if (response.statusCode() == 422) {
+                    return Resultado.RECHAZADA;
+                }
+                if (response.statusCode() != 200) {
+                    return error(response);
+                }
+                final Matcher codigo = CODIGO_MOVIMIENTO.matcher(response.body());
+                final Matcher trazas = NRO_TRAZAS.matcher(response.body());
+                if (codigo.find() && trazas.find() && !trazas.group(1).isBlank()) {
+                    candidatos.vendidos.add(new Candidatos.Vendido(venta.codigoLote(), codigo.group(1),
+                        venta.nroBulto(), Arrays.stream(trazas.group(1).split(","))
+                        .map(String::trim)
+                        .map(Long::valueOf)
+                        .toList()));
+                }
+                return Resultado.OK;
+            }
+            return Resultado.SIN_CANDIDATO;
+        }
+
+        /** CU23: devolución de parte de las trazas de una venta de la corrida. */
+        private Resultado devolucion() throws IOException, InterruptedException {
+            final Candidatos.Vendido vendido = candidatos.vendidos.poll();
+            if (vendido == null) {
+                return Resultado.SIN_CANDIDATO;
+            }
+            final List<Map.Entry<String, String>> parametros = new ArrayList<>(List.of(
+                Map.entry("codigoLote", vendido.codigoLote()),
+                Map.entry("codigoMovimientoOrigen", vendido.codigoMovimiento()),
+                Map.entry("fechaMovimiento", LocalDate.now().toString())));
+            final int devueltas = 1 + random.nextInt(vendido.nroTrazas().size());
+            for (int i = 0; i < devueltas; i++) {
+                parametros.add(Map.entry("trazaDTOs[" + i + "].nroBulto", String.valueOf(vendido.nroBulto())));
+                parametros.add(Map.entry("trazaDTOs[" + i + "].nroTraza", String.valueOf(vendido.nroTrazas().get(i))));
+            }
+            return formulario(sesion.postForm("/ventas/alta/devolucion-venta", parametros));
+        }
+
+        /** CU25: reverso de una venta de la corrida. */
+        private Resultado reverso() throws IOException, InterruptedException {
+            final Candidatos.Vendido vendido = candidatos.vendidos.poll();
+            if (vendido == null) {
+                return Resultado.SIN_CANDIDATO;
+            }
+            return formulario(sesion.postForm("/contingencias/reverso-movimiento", List.of(
+                Map.entry("codigoLote", vendido.codigoLote()),
+                Map.entry("codigoMovimientoOrigen", vendido.codigoMovimiento()),
+                Map.entry("fechaMovimiento", LocalDate.now().toString()))));
+        }
+
+        private Resultado formulario(final HttpResponse<String> response) {
+            if (response.statusCode() == 302 && destino(response).contains("-ok")) {
+                return Resultado.OK;
+            }
+            if (response.statusCode() == 200) {
+                return Resultado.RECHAZADA;
+            }
+            return error(response);
+        }
+
+        private Resultado error(final HttpResponse<String> response) {
+            error = "HTTP " + response.statusCode() + " " + response.request().method() + " "
+                + response.uri().getPath() + (response.statusCode() == 302 ? " -> " + destino(response) : "");
+            return Resultado.ERROR;
+        }
+
+        private static String destino(final HttpResponse<String> response) {
+            return response.headers().firstValue("Location").orElse("");
+        }
+
+        /** Identificador corto y único en la corrida para lotes de proveedor, remitos y análisis. */
+        private String identificador() {
+            return Long.toString(System.currentTimeMillis() % 100_000_000L, 36).toUpperCase(Locale.ROOT)
+                + "-" + nro + "-" + ++secuencia;
+        }
+
+        private <T> T alAzar(final List<T> lista) {
+            return lista.get(random.nextInt(lista.size()));
+        }
+
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.mb.conitrack.carga;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Sesión autenticada contra la aplicación: cookies propias (JSESSIONID y XSRF-TOKEN) y el token CSRF vigente.
+ * El token se toma del HTML (input hidden o meta _csrf) porque el repositorio de cookies lo enmascara por request.
+ * No sigue redirects: el 302 a "-ok" es la señal de éxito de los formularios.
+ */
+final class SesionHttp {
+
+    /** Input hidden o meta del token, con los atributos en cualquier orden dentro del tag. */
+    private static final Pattern CSRF = Pattern.compile(
+        "<(?:input|meta)(?=[^>]*name=\"_csrf\")[^>]*(?:value|content)=\"([^\"]+)\"");
+
+    private static final Pattern CSRF_HEADER = Pattern.compile(
+        "<meta(?=[^>]*name=\"_csrf_header\")[^>]*content=\"([^\"]+)\"");
+
+    /** Página con formulario que se usa para renovar el token CSRF después del login. */
+    private static final String PAGINA_CSRF = "/compras/alta/ingreso-compra";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+
+    private final String url;
+
+    private String csrf;
+
+    /** Header del token para los POST JSON; CookieCsrfTokenRepository usa X-XSRF-TOKEN. */
+    private String csrfHeader = "X-XSRF-TOKEN";
+
+    SesionHttp(final String url) {
+        this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        this.client = HttpClient.newBuilder()
+            .cookieHandler(new CookieManager())
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(TIMEOUT)
+            .build();
+    }
+
+    /** Hace el login por formulario y deja cargado el token CSRF de la sesión autenticada. */
+    void login(final String usuario, final String password) throws IOException, InterruptedException {
+        csrf = extraerCsrf(get("/login").body());
+        final HttpResponse<String> login = postForm("/login", List.of(
+            Map.entry("username", usuario),
+            Map.entry("password", password)));
+        final String destino = login.headers().firstValue("Location").orElse("");
+        if (login.statusCode() != 302 || destino.contains("error")) {
+            throw new IllegalStateException("Login rechazado para " + usuario + " (HTTP " + login.statusCode() + ")");
+        }
+        final String pagina = get(PAGINA_CSRF).body();
+        csrf = extraerCsrf(pagina);
+        final Matcher header = CSRF_HEADER.matcher(pagina);
+        if (header.find()) {
+            csrfHeader = header.group(1);
+        }
+    }
+
+    HttpResponse<String> get(final String ruta) throws IOException, InterruptedException {
+        return client.send(request(ruta).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /** POST de formulario; los parámetros van como lista para admitir claves indexadas (cantidadesBultos[0]). */
+    HttpResponse<String> postForm(final String ruta, final List<Map.Entry<String, String>> parametros)
+        throws IOException, InterruptedException {
+        final String cuerpo = parametros.stream()
+            .map(p -> codificar(p.getKey()) + "=" + codificar(p.getValue()))
+            .collect(Collectors.joining("&", "_csrf=" + codificar(csrf) + "&", ""));
+        return client.send(request(ruta)
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+            .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    HttpResponse<String> postJson(final String ruta, final String json) throws IOException, InterruptedException {
+        return client.send(request(ruta)
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json")
+            .header(csrfHeader, csrf)
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(final String ruta) {
+        return HttpRequest.newBuilder(URI.create(url + ruta)).timeout(TIMEOUT);
+    }
+
+    private static String extraerCsrf(final String html) {
+        final Matcher matcher = CSRF.matcher(html);
+        if (matcher.find()) {
+            return matcher.group(1);
+        }
+        throw new IllegalStateException("No se encontró el token CSRF en la página");
+    }
+
+    private static String codificar(final String valor) {
+        return URLEncoder.encode(valor, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.mb.conitrack.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.MovimientoDTO;
+import com.mb.conitrack.entity.Bulto;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.service.cu.validator.CantidadValidator;
+import com.mb.conitrack.utils.UnidadMedidaUtils;
+
+import static com.mb.conitrack.testdata.TestDataBuilder.unLoteDTO;
+
+/**
+ * Conversión entre unidades de medida y validaciones de cantidades de CantidadValidator sobre lotes a granel.
+ * Las entradas son válidas y se verifican en el setup: se mide el camino completo, no un rechazo temprano.
+ * Los benchmarks *Double y *UnoPorUno reproducen la conversión anterior con factores double y la suma bulto por bulto,
+ * como referencia para comparar con la matriz de factores exactos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CantidadBenchmark {
+
+    private static final UnidadMedidaEnum[][] CONVERSIONES = {
+        { UnidadMedidaEnum.KILOGRAMO, UnidadMedidaEnum.GRAMO },
+        { UnidadMedidaEnum.GRAMO, UnidadMedidaEnum.MILIGRAMO },
+        { UnidadMedidaEnum.MILIGRAMO, UnidadMedidaEnum.KILOGRAMO },
+        { UnidadMedidaEnum.MICROGRAMO, UnidadMedidaEnum.GRAMO },
+        { UnidadMedidaEnum.LITRO, UnidadMedidaEnum.MILILITRO },
+        { UnidadMedidaEnum.MICROLITRO, UnidadMedidaEnum.CENTILITRO },
+        { UnidadMedidaEnum.METRO_CUADRADO, UnidadMedidaEnum.CENTIMETRO_CUADRADO },
+        { UnidadMedidaEnum.PORCENTAJE, UnidadMedidaEnum.PARTES_POR_MILLON } };
+
+    private static final BigDecimal CANTIDAD = new BigDecimal("12.3456");
+
+    @Param({ "1", "10", "50" })
+    private int bultos;
+
+    private Lote lote;
+
+    /** Alta con bultos alternando kilogramos y gramos, para validarSumaBultosConvertida. */
+    private LoteDTO alta;
+
+    /** Consumo de un bulto de cada tanto, en gramos, para validarCantidadesPorMedidas. */
+    private LoteDTO consumo;
+
+    private MovimientoDTO movimiento;
+
+    @Setup
+    public void setUp() {
+        lote = LoteFixtures.lote(bultos, new BigDecimal("25"), UnidadMedidaEnum.KILOGRAMO, 1);
+
+        final List<BigDecimal> cantidades = new ArrayList<>();
+        final List<UnidadMedidaEnum> unidades = new ArrayList<>();
+        for (int i = 0; i < bultos; i++) {
+            cantidades.add(i % 2 == 0 ? new BigDecimal("0.5") : new BigDecimal("500"));
+            unidades.add(i % 2 == 0 ? UnidadMedidaEnum.KILOGRAMO : UnidadMedidaEnum.GRAMO);
+        }
+        alta = unLoteDTO()
+            .withUnidadMedida(UnidadMedidaEnum.KILOGRAMO)
+            .withBultosTotales(bultos)
+            .withCantidadInicial(new BigDecimal("0.5").multiply(BigDecimal.valueOf(bultos)))
+            .withCantidadesBultos(cantidades)
+            .withUnidadMedidaBultos(unidades)
+            .build();
+
+        consumo = unLoteDTO().build();
+        for (int nro = 1; nro <= bultos; nro++) {
+            consumo.getNroBultoList().add(nro);
+            consumo.getCantidadesBultos().add(nro % 3 == 0 ? BigDecimal.ZERO : new BigDecimal("1250"));
+            consumo.getUnidadMedidaBultos().add(UnidadMedidaEnum.GRAMO);
+        }
+
+        movimiento = new MovimientoDTO();
+        movimiento.setCantidad(new BigDecimal("750"));
+        movimiento.setUnidadMedida(UnidadMedidaEnum.GRAMO);
+
+        if (!validarSumaBultosConvertida() || !validarCantidadesPorMedidas()) {
+            throw new IllegalStateException("Los datos del benchmark deben pasar las validaciones");
+        }
+    }
+
+    @Benchmark
+    public void convertirCantidadEntreUnidades(final Blackhole blackhole) {
+        for (UnidadMedidaEnum[] conversion : CONVERSIONES) {
+            blackhole.consume(UnidadMedidaUtils.convertirCantidadEntreUnidades(conversion[0], CANTIDAD, conversion[1]));
+        }
+    }
+
+    @Benchmark
+    public void convertirCantidadEntreUnidadesDouble(final Blackhole blackhole) {
+        for (UnidadMedidaEnum[] conversion : CONVERSIONES) {
+            blackhole.consume(CANTIDAD.multiply(
+                BigDecimal.valueOf(conversion[0].getFactorConversion() / conversion[1].getFactorConversion())));
+        }
+    }
+
+    @Benchmark
+    public BigDecimal sumarCantidadesConvertidas() {
+        return UnidadMedidaUtils.sumarCantidadesConvertidas(
+            alta.getCantidadesBultos(), alta.getUnidadMedidaBultos(), UnidadMedidaEnum.KILOGRAMO);
+    }
+
+    @Benchmark
+    public BigDecimal sumarCantidadesConvertidasUnoPorUno() {
+        BigDecimal suma = BigDecimal.ZERO;
+        for (int i = 0; i < bultos; i++) {
+            suma = suma.add(UnidadMedidaUtils.convertirCantidadEntreUnidades(
+                alta.getUnidadMedidaBultos().get(i), alta.getCantidadesBultos().get(i), UnidadMedidaEnum.KILOGRAMO));
+        }
+        return suma;
+    }
+
+    @Benchmark
+    public boolean validarSumaBultosConvertida() {
+        return CantidadValidator.validarSumaBultosConvertida(alta, bindingResult(alta, "loteDTO"));
+    }
+
+    @Benchmark
+    public boolean validarCantidadesPorMedidas() {
+        return CantidadValidator.validarCantidadesPorMedidas(consumo, lote, bindingResult(consumo, "loteDTO"));
+    }
+
+    @Benchmark
+    public void validarCantidadesMovimiento(final Blackhole blackhole) {
+        final BindingResult bindingResult = bindingResult(movimiento, "movimientoDTO");
+        for (Bulto bulto : lote.getBultos()) {
+            blackhole.consume(CantidadValidator.validarCantidadesMovimiento(movimiento, bulto, bindingResult));
+        }
+    }
+
+    private static BindingResult bindingResult(final Object target, final String nombre) {
+        return new BeanPropertyBindingResult(target, nombre);
+    }
+
+}
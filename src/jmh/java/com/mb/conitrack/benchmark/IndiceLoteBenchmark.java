@@ -0,0 +1,99 @@
+package com.mb.conitrack.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.mb.conitrack.entity.Bulto;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.Traza;
+import com.mb.conitrack.enums.EstadoEnum;
+
+/**
+ * Búsquedas por número sobre lotes grandes, como las hacen los CU de venta, devolución y recall al recorrer el
+ * detalle del DTO: cada bulto del lote por nroBulto y cada traza de cada bulto por nroTraza.
+ * <p>
+ * loteNuevo arma el lote en cada invocación, así que incluye el armado de los índices (primera búsqueda); el resto
+ * reutiliza el lote con los índices ya armados.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IndiceLoteBenchmark {
+
+    /** Unidades a tomar por bulto, como en una venta de CU22. */
+    private static final int TRAZAS_A_TOMAR = 10;
+
+    @Param({ "10", "100", "500" })
+    private int bultos;
+
+    @Param({ "100", "1000" })
+    private int trazasPorBulto;
+
+    private Lote lote;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lote = LoteFixtures.loteTrazado(bultos, trazasPorBulto, 1);
+    }
+
+    @Benchmark
+    public void bultoByNro(final Blackhole blackhole) {
+        for (int nro = 1; nro <= bultos; nro++) {
+            blackhole.consume(lote.getBultoByNro(nro));
+        }
+    }
+
+    @Benchmark
+    public void trazaByNro(final Blackhole blackhole) {
+        buscarTodas(lote, blackhole);
+    }
+
+    @Benchmark
+    public void firstAvailableTrazaList(final Blackhole blackhole) {
+        for (int nro = 1; nro <= bultos; nro++) {
+            blackhole.consume(lote.getBultoByNro(nro).getFirstAvailableTrazaList(TRAZAS_A_TOMAR));
+        }
+    }
+
+    /** Venta sobre el lote: toma las primeras disponibles de cada bulto y las marca vendidas, luego las repone. */
+    @Benchmark
+    public void venderYReponer(final Blackhole blackhole) {
+        for (Bulto bulto : lote.getBultos()) {
+            final var tomadas = bulto.getFirstAvailableTrazaList(TRAZAS_A_TOMAR);
+            for (Traza traza : tomadas) {
+                traza.setEstado(EstadoEnum.VENDIDO);
+            }
+            blackhole.consume(bulto.getFirstAvailableTrazaList(TRAZAS_A_TOMAR));
+            for (Traza traza : tomadas) {
+                traza.setEstado(EstadoEnum.DISPONIBLE);
+            }
+        }
+    }
+
+    @Benchmark
+    public void loteNuevo(final Blackhole blackhole) {
+        buscarTodas(LoteFixtures.loteTrazado(bultos, trazasPorBulto, 1), blackhole);
+    }
+
+    private void buscarTodas(final Lote lote, final Blackhole blackhole) {
+        long nroTraza = 1;
+        for (int nro = 1; nro <= bultos; nro++) {
+            final Bulto bulto = lote.getBultoByNro(nro);
+            for (int i = 0; i < trazasPorBulto; i++) {
+                blackhole.consume(bulto.getTrazaByNro(nroTraza++));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.mb.conitrack.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.mapper.LoteMapper;
+import com.mb.conitrack.entity.Bulto;
+import com.mb.conitrack.entity.Lote;
+
+/**
+ * Lectura del agregado Lote ya cargado: mapeo a DTO, fecha de vencimiento vigente y selección de trazas disponibles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoteBenchmark {
+
+    /** Unidades a tomar por bulto, como en una venta o muestreo de CU22/CU3. */
+    private static final int TRAZAS_A_TOMAR = 10;
+
+    @Param({ "1", "10", "50" })
+    private int bultos;
+
+    @Param({ "0", "100", "1000" })
+    private int trazasPorBulto;
+
+    @Param({ "1", "5", "20" })
+    private int analisis;
+
+    private Lote lote;
+
+    @Setup
+    public void setUp() {
+        lote = LoteFixtures.loteTrazado(bultos, trazasPorBulto, analisis);
+    }
+
+    @Benchmark
+    public LoteDTO loteMapperFromEntity() {
+        return LoteMapper.fromEntity(lote);
+    }
+
+    @Benchmark
+    public LoteDTO loteMapperFromEntitySinTrazas() {
+        return LoteMapper.fromEntity(lote, false);
+    }
+
+    @Benchmark
+    public LocalDate fechaVencimientoVigente() {
+        return lote.getFechaVencimientoVigente();
+    }
+
+    @Benchmark
+    public void firstAvailableTrazaList(final Blackhole blackhole) {
+        for (Bulto bulto : lote.getBultos()) {
+            blackhole.consume(bulto.getFirstAvailableTrazaList(TRAZAS_A_TOMAR));
+        }
+    }
+
+}
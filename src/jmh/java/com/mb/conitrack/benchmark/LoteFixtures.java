@@ -0,0 +1,107 @@
+package com.mb.conitrack.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+import com.mb.conitrack.entity.Analisis;
+import com.mb.conitrack.entity.Bulto;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.Traza;
+import com.mb.conitrack.enums.DictamenEnum;
+import com.mb.conitrack.enums.EstadoEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+
+import static com.mb.conitrack.testdata.TestDataBuilder.unFabricante;
+import static com.mb.conitrack.testdata.TestDataBuilder.unLote;
+import static com.mb.conitrack.testdata.TestDataBuilder.unProducto;
+import static com.mb.conitrack.testdata.TestDataBuilder.unProveedor;
+
+/**
+ * Arma lotes en memoria para los benchmarks sobre los fixtures de TestDataBuilder, sin base de datos.
+ * Los lotes quedan con bultos numerados desde 1 y con la relación bidireccional lote-bulto-traza completa, como los
+ * devuelve Hibernate con las colecciones inicializadas.
+ */
+final class LoteFixtures {
+
+    private LoteFixtures() {
+    }
+
+    /**
+     * Lote de UNIDAD con trazasPorBulto unidades por bulto, sin trazas creadas.
+     * Con trazasPorBulto en 0 cada bulto queda con una unidad.
+     */
+    static Lote loteUnidades(final int bultos, final int trazasPorBulto, final int analisis) {
+        return lote(bultos, BigDecimal.valueOf(Math.max(trazasPorBulto, 1)), UnidadMedidaEnum.UNIDAD, analisis);
+    }
+
+    /** Lote de UNIDAD con trazasPorBulto trazas por bulto; una de cada cuatro ya vendida. */
+    static Lote loteTrazado(final int bultos, final int trazasPorBulto, final int analisis) {
+        final Lote lote = loteUnidades(bultos, trazasPorBulto, analisis);
+        long nroTraza = 1;
+        for (Bulto bulto : lote.getBultos()) {
+            for (int i = 0; i < trazasPorBulto; i++) {
+                final Traza traza = new Traza();
+                traza.setNroTraza(nroTraza++);
+                traza.setLote(lote);
+                traza.setBulto(bulto);
+                traza.setProducto(lote.getProducto());
+                traza.setFechaYHoraCreacion(lote.getFechaYHoraCreacion());
+                traza.setEstado(i % 4 == 0 ? EstadoEnum.VENDIDO : EstadoEnum.DISPONIBLE);
+                traza.setActivo(true);
+                bulto.getTrazas().add(traza);
+                lote.getTrazas().add(traza);
+            }
+        }
+        lote.setTrazado(trazasPorBulto > 0);
+        return lote;
+    }
+
+    /** Lote a granel con cantidadPorBulto en la unidad indicada en cada bulto. */
+    static Lote lote(
+        final int bultos,
+        final BigDecimal cantidadPorBulto,
+        final UnidadMedidaEnum unidadMedida,
+        final int analisis) {
+        final Lote lote = unLote()
+            .withProducto(unProducto().withUnidadMedida(unidadMedida).build())
+            .withProveedor(unProveedor().build())
+            .withFabricante(unFabricante().build())
+            .withUnidadMedida(unidadMedida)
+            .withCantidadInicial(cantidadPorBulto.multiply(BigDecimal.valueOf(bultos)))
+            .withBultosTotales(bultos)
+            .build();
+        lote.setFechaVencimientoProveedor(LocalDate.now().plusYears(2));
+        lote.setFechaReanalisisProveedor(LocalDate.now().plusMonths(6));
+        lote.setTrazado(false);
+
+        for (int nro = 1; nro <= bultos; nro++) {
+            final Bulto bulto = new Bulto();
+            bulto.setLote(lote);
+            bulto.setNroBulto(nro);
+            bulto.setCantidadInicial(cantidadPorBulto);
+            bulto.setCantidadActual(cantidadPorBulto);
+            bulto.setUnidadMedida(unidadMedida);
+            bulto.setEstado(EstadoEnum.NUEVO);
+            bulto.setActivo(true);
+            lote.getBultos().add(bulto);
+        }
+
+        // Historial de reanálisis aprobados; solo el último informa fecha de vencimiento
+        final OffsetDateTime creacion = lote.getFechaYHoraCreacion();
+        for (int i = 1; i <= analisis; i++) {
+            final Analisis a = new Analisis();
+            a.setLote(lote);
+            a.setNroAnalisis("AN-%04d".formatted(i));
+            a.setFechaYHoraCreacion(creacion.plusDays(i));
+            a.setFechaRealizado(creacion.toLocalDate().plusDays(i));
+            a.setFechaReanalisis(LocalDate.now().plusMonths(6 + i));
+            a.setFechaVencimiento(i == analisis ? LocalDate.now().plusYears(1) : null);
+            a.setDictamen(DictamenEnum.APROBADO);
+            a.setActivo(true);
+            lote.getAnalisisList().add(a);
+        }
+        return lote;
+    }
+
+}
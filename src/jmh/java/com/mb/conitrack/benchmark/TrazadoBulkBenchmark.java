@@ -0,0 +1,159 @@
+package com.mb.conitrack.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mb.conitrack.ConitrackApplication;
+import com.mb.conitrack.entity.Bulto;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.entity.maestro.Proveedor;
+import com.mb.conitrack.enums.DictamenEnum;
+import com.mb.conitrack.enums.EstadoEnum;
+import com.mb.conitrack.enums.TipoProductoEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.repository.LoteRepository;
+import com.mb.conitrack.repository.maestro.ProductoRepository;
+import com.mb.conitrack.repository.maestro.ProveedorRepository;
+import com.mb.conitrack.service.TrazadoBulkService;
+
+/**
+ * CU28: trazado masivo por JDBC (TrazadoBulkService.trazarLote) de un lote de dos bultos contra H2 en memoria,
+ * con la misma configuración que TrazadoBulkServiceIntegrationTest.
+ * Cada invocación traza un lote recién creado y lo borra al terminar; el contexto de Spring se levanta una vez.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class TrazadoBulkBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    private int trazas;
+
+    private ConfigurableApplicationContext context;
+
+    private TrazadoBulkService trazadoBulkService;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private Lote lote;
+
+    @Setup(Level.Trial)
+    public void iniciarContexto() {
+        context = new SpringApplicationBuilder(ConitrackApplication.class)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:trazadobench",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.sql.init.mode=never",
+                "spring.jpa.defer-datasource-initialization=false",
+                "conitrack.trazado.chunk-size=1000",
+                "conitrack.trazado.rangos-habilitados=true",
+                "server.port=0",
+                "spring.main.banner-mode=off")
+            .run();
+        trazadoBulkService = context.getBean(TrazadoBulkService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrarContexto() {
+        context.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void crearLote() {
+        lote = loteSinTrazar(trazas / 2, trazas - trazas / 2);
+    }
+
+    @TearDown(Level.Invocation)
+    public void borrarLote() {
+        jdbcTemplate.update("delete from traza_rangos where lote_id = ?", lote.getId());
+        jdbcTemplate.update("delete from trazas where lote_id = ?", lote.getId());
+        jdbcTemplate.update("delete from bultos where lote_id = ?", lote.getId());
+        jdbcTemplate.update("delete from lotes where id = ?", lote.getId());
+        jdbcTemplate.update("delete from productos where id = ?", lote.getProducto().getId());
+        jdbcTemplate.update("delete from proveedores where id = ?", lote.getProveedor().getId());
+    }
+
+    @Benchmark
+    public long trazarLote() {
+        return trazadoBulkService.trazarLote(lote, 1L, OffsetDateTime.now());
+    }
+
+    private Lote loteSinTrazar(final int... cantidadesBultos) {
+        final String codigo = "BENCH-" + System.nanoTime();
+
+        Producto producto = new Producto();
+        producto.setCodigoProducto("QC-" + codigo);
+        producto.setNombreGenerico("Producto " + codigo);
+        producto.setTipoProducto(TipoProductoEnum.UNIDAD_VENTA);
+        producto.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        producto.setActivo(true);
+        producto = context.getBean(ProductoRepository.class).save(producto);
+
+        Proveedor proveedor = new Proveedor();
+        proveedor.setRazonSocial("Proveedor " + codigo);
+        proveedor.setCuit("20-" + codigo);
+        proveedor.setDireccion("Calle 1");
+        proveedor.setCiudad("Buenos Aires");
+        proveedor.setPais("Argentina");
+        proveedor.setActivo(true);
+        proveedor = context.getBean(ProveedorRepository.class).save(proveedor);
+
+        int total = 0;
+        for (int cantidad : cantidadesBultos) {
+            total += cantidad;
+        }
+
+        Lote nuevo = new Lote();
+        nuevo.setFechaYHoraCreacion(OffsetDateTime.now());
+        nuevo.setCodigoLote("L-" + codigo);
+        nuevo.setProducto(producto);
+        nuevo.setProveedor(proveedor);
+        nuevo.setFechaIngreso(LocalDate.now());
+        nuevo.setLoteProveedor("LP-" + codigo);
+        nuevo.setFechaReanalisisProveedor(LocalDate.now().plusYears(1));
+        nuevo.setFechaVencimientoProveedor(LocalDate.now().plusYears(2));
+        nuevo.setEstado(EstadoEnum.DISPONIBLE);
+        nuevo.setDictamen(DictamenEnum.APROBADO);
+        nuevo.setBultosTotales(cantidadesBultos.length);
+        nuevo.setCantidadInicial(BigDecimal.valueOf(total));
+        nuevo.setCantidadActual(BigDecimal.valueOf(total));
+        nuevo.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        nuevo.setTrazado(false);
+        nuevo.setActivo(true);
+        for (int i = 0; i < cantidadesBultos.length; i++) {
+            Bulto bulto = new Bulto();
+            bulto.setLote(nuevo);
+            bulto.setNroBulto(i + 1);
+            bulto.setCantidadInicial(BigDecimal.valueOf(cantidadesBultos[i]));
+            bulto.setCantidadActual(BigDecimal.valueOf(cantidadesBultos[i]));
+            bulto.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+            bulto.setEstado(EstadoEnum.DISPONIBLE);
+            bulto.setActivo(true);
+            nuevo.getBultos().add(bulto);
+        }
+        return context.getBean(LoteRepository.class).save(nuevo);
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.mb.conitrack.benchmark;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.mb.conitrack.dto.MovimientoDTO;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.utils.LoteEntityUtils;
+
+/**
+ * CU28: creación y distribución de trazas entre bultos (LoteEntityUtils.createTrazas vía addTrazasToLote).
+ * Cada invocación arma un lote nuevo sin trazas; armarLote mide ese costo por separado para poder descontarlo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TrazasBenchmark {
+
+    @Param({ "1", "10", "50" })
+    private int bultos;
+
+    @Param({ "10", "100", "1000" })
+    private int trazasPorBulto;
+
+    private MovimientoDTO movimiento;
+
+    @Setup
+    public void setUp() {
+        movimiento = new MovimientoDTO();
+        movimiento.setTrazaInicial(1L);
+        movimiento.setFechaYHoraCreacion(OffsetDateTime.now());
+    }
+
+    @Benchmark
+    public Lote armarLote() {
+        return LoteFixtures.loteUnidades(bultos, trazasPorBulto, 0);
+    }
+
+    @Benchmark
+    public Lote addTrazasToLote() {
+        final Lote lote = LoteFixtures.loteUnidades(bultos, trazasPorBulto, 0);
+        LoteEntityUtils.addTrazasToLote(lote, movimiento);
+        return lote;
+    }
+
+}
@@ -0,0 +1,213 @@
+package com.mb.conitrack.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.mb.conitrack.ConitrackApplication;
+import com.mb.conitrack.dto.LineaVentaDTO;
+import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.PedidoVentaDTO;
+import com.mb.conitrack.dto.ResultadoPedidoVentaDTO;
+import com.mb.conitrack.entity.Bulto;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.entity.maestro.Proveedor;
+import com.mb.conitrack.entity.maestro.Role;
+import com.mb.conitrack.entity.maestro.User;
+import com.mb.conitrack.enums.DictamenEnum;
+import com.mb.conitrack.enums.EstadoEnum;
+import com.mb.conitrack.enums.RoleEnum;
+import com.mb.conitrack.enums.TipoProductoEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.repository.LoteRepository;
+import com.mb.conitrack.repository.maestro.ProductoRepository;
+import com.mb.conitrack.repository.maestro.ProveedorRepository;
+import com.mb.conitrack.repository.maestro.RoleRepository;
+import com.mb.conitrack.repository.maestro.UserRepository;
+import com.mb.conitrack.service.cu.BajaVentaProductoService;
+
+/**
+ * CU22: venta de N lotes (una unidad de un bulto por lote) contra H2 en memoria, como un pedido en una sola
+ * transacción (bajaVentaPedido) y como N ventas por lote, una transacción cada una (bajaVentaProducto).
+ * El contador auxiliar "lineas" da las líneas vendidas por segundo de cada variante.
+ * Los lotes se crean una vez por parámetro con stock de sobra para todas las iteraciones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class VentaPedidoBenchmark {
+
+    private static final BigDecimal STOCK_BULTO = new BigDecimal("100000000");
+
+    @Param({ "10", "100", "500" })
+    private int lineas;
+
+    private ConfigurableApplicationContext context;
+
+    private BajaVentaProductoService ventaService;
+
+    private final List<String> codigosLote = new ArrayList<>();
+
+    /** Los movimientos toman su código de la fecha de creación: cada venta usa un instante distinto. */
+    private final AtomicLong secuencia = new AtomicLong();
+
+    private OffsetDateTime base;
+
+    /** Líneas vendidas en la iteración; JMH lo informa como tasa por segundo. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Contador {
+
+        public long lineas;
+
+        @Setup(Level.Iteration)
+        public void reiniciar() {
+            lineas = 0;
+        }
+
+    }
+
+    @Setup(Level.Trial)
+    public void cargarLotes() {
+        context = new SpringApplicationBuilder(ConitrackApplication.class)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:ventabench" + lineas,
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.sql.init.mode=never",
+                "spring.jpa.defer-datasource-initialization=false",
+                "server.port=0",
+                "spring.main.banner-mode=off")
+            .run();
+        ventaService = context.getBean(BajaVentaProductoService.class);
+        base = OffsetDateTime.now();
+
+        // El hilo de medición puede no ser el del setup
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        final Role role = context.getBean(RoleRepository.class).save(Role.fromEnum(RoleEnum.ADMIN));
+        final User user = context.getBean(UserRepository.class).save(new User("bench-venta", "password", role));
+        SecurityContextHolder.getContext().setAuthentication(
+            UsernamePasswordAuthenticationToken.authenticated(user.getUsername(), null, List.of()));
+
+        Producto producto = new Producto();
+        producto.setCodigoProducto("QC-VENTA-BENCH");
+        producto.setNombreGenerico("Producto venta benchmark");
+        producto.setTipoProducto(TipoProductoEnum.UNIDAD_VENTA);
+        producto.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        producto.setActivo(true);
+        producto = context.getBean(ProductoRepository.class).save(producto);
+
+        Proveedor proveedor = new Proveedor();
+        proveedor.setRazonSocial("Proveedor venta benchmark");
+        proveedor.setCuit("20-VENTA-BENCH");
+        proveedor.setDireccion("Calle 1");
+        proveedor.setCiudad("Buenos Aires");
+        proveedor.setPais("Argentina");
+        proveedor.setActivo(true);
+        proveedor = context.getBean(ProveedorRepository.class).save(proveedor);
+
+        final LoteRepository loteRepository = context.getBean(LoteRepository.class);
+        for (int i = 0; i < lineas; i++) {
+            codigosLote.add(loteRepository.save(loteLiberado("L-VENTA-BENCH-" + i, producto, proveedor))
+                .getCodigoLote());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrarContexto() {
+        SecurityContextHolder.clearContext();
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_THREADLOCAL);
+        context.close();
+    }
+
+    @Benchmark
+    public ResultadoPedidoVentaDTO pedido(final Contador contador) {
+        final PedidoVentaDTO pedido = new PedidoVentaDTO();
+        pedido.setFechaEgreso(LocalDate.now());
+        pedido.setFechaYHoraCreacion(siguienteInstante());
+        for (String codigoLote : codigosLote) {
+            pedido.getLineas().add(new LineaVentaDTO(codigoLote, 1, BigDecimal.ONE, new ArrayList<>()));
+        }
+        final ResultadoPedidoVentaDTO resultado = ventaService.bajaVentaPedido(pedido);
+        if (!resultado.isAplicado()) {
+            throw new IllegalStateException("Pedido rechazado: " + resultado.getLineas());
+        }
+        contador.lineas += lineas;
+        return resultado;
+    }
+
+    @Benchmark
+    public LoteDTO porLote(final Contador contador) {
+        LoteDTO ultimo = null;
+        for (String codigoLote : codigosLote) {
+            final LoteDTO dto = new LoteDTO();
+            dto.setCodigoLote(codigoLote);
+            dto.setFechaEgreso(LocalDate.now());
+            dto.setFechaYHoraCreacion(siguienteInstante());
+            dto.setNroBultoList(new ArrayList<>(List.of(1)));
+            dto.setCantidadesBultos(new ArrayList<>(List.of(BigDecimal.ONE)));
+            ultimo = ventaService.bajaVentaProducto(dto);
+        }
+        contador.lineas += lineas;
+        return ultimo;
+    }
+
+    private OffsetDateTime siguienteInstante() {
+        return base.plusNanos(secuencia.incrementAndGet() * 1000L);
+    }
+
+    private static Lote loteLiberado(final String codigo, final Producto producto, final Proveedor proveedor) {
+        Lote lote = new Lote();
+        lote.setFechaYHoraCreacion(OffsetDateTime.now());
+        lote.setCodigoLote(codigo);
+        lote.setProducto(producto);
+        lote.setProveedor(proveedor);
+        lote.setFechaIngreso(LocalDate.now().minusDays(1));
+        lote.setLoteProveedor("LP-" + codigo);
+        lote.setFechaReanalisisProveedor(LocalDate.now().plusYears(1));
+        lote.setFechaVencimientoProveedor(LocalDate.now().plusYears(2));
+        lote.setEstado(EstadoEnum.DISPONIBLE);
+        lote.setDictamen(DictamenEnum.LIBERADO);
+        lote.setBultosTotales(1);
+        lote.setCantidadInicial(STOCK_BULTO);
+        lote.setCantidadActual(STOCK_BULTO);
+        lote.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        lote.setTrazado(false);
+        lote.setActivo(true);
+        Bulto bulto = new Bulto();
+        bulto.setLote(lote);
+        bulto.setNroBulto(1);
+        bulto.setCantidadInicial(STOCK_BULTO);
+        bulto.setCantidadActual(STOCK_BULTO);
+        bulto.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        bulto.setEstado(EstadoEnum.DISPONIBLE);
+        bulto.setActivo(true);
+        lote.getBultos().add(bulto);
+        return lote;
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.mb.conitrack.config;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestMatcherDelegatingAuthorizationManager;
+
+import static com.mb.conitrack.config.AutorizacionCasoUsoFixtures.cadenaPorCasoUso;
+import static com.mb.conitrack.config.AutorizacionCasoUsoFixtures.compilado;
+import static com.mb.conitrack.config.AutorizacionCasoUsoFixtures.decidir;
+import static com.mb.conitrack.config.AutorizacionCasoUsoFixtures.rutas;
+import static com.mb.conitrack.config.AutorizacionCasoUsoFixtures.usuario;
+
+/**
+ * Autorización de todas las rutas de casos de uso (más rutas vecinas y libres) para un usuario: matriz precompilada
+ * de SecurityConfig contra la cadena anterior de un matcher por caso de uso, como referencia.
+ * Está en el paquete config porque casoUsoRequestMatcher y autorizarCasoUso son de paquete.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AutorizacionCasoUsoBenchmark {
+
+    @Param({ "ADMIN", "ANALISTA_PLANTA", "AUDITOR" })
+    private String rol;
+
+    private RequestMatcherDelegatingAuthorizationManager matriz;
+
+    private RequestMatcherDelegatingAuthorizationManager porCasoUso;
+
+    private Authentication authentication;
+
+    private List<MockHttpServletRequest> requests;
+
+    @Setup
+    public void setUp() {
+        matriz = compilado();
+        porCasoUso = cadenaPorCasoUso();
+        authentication = usuario(rol);
+        requests = rutas().stream().map(AutorizacionCasoUsoFixtures::request).toList();
+        for (MockHttpServletRequest request : requests) {
+            if (decidir(matriz, authentication, request) != decidir(porCasoUso, authentication, request)) {
+                throw new IllegalStateException("Las variantes difieren en " + request.getServletPath());
+            }
+        }
+    }
+
+    @Benchmark
+    public void matrizPrecompilada(final Blackhole blackhole) {
+        autorizarTodas(matriz, blackhole);
+    }
+
+    @Benchmark
+    public void matcherPorCasoUso(final Blackhole blackhole) {
+        autorizarTodas(porCasoUso, blackhole);
+    }
+
+    private void autorizarTodas(final RequestMatcherDelegatingAuthorizationManager manager, final Blackhole blackhole) {
+        for (MockHttpServletRequest request : requests) {
+            blackhole.consume(decidir(manager, authentication, request));
+        }
+    }
+
+}
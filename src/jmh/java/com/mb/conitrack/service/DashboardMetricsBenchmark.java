@@ -0,0 +1,120 @@
+package com.mb.conitrack.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mb.conitrack.ConitrackApplication;
+import com.mb.conitrack.dto.DashboardMetricsDTO;
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.entity.maestro.Proveedor;
+import com.mb.conitrack.enums.TipoProductoEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.repository.maestro.ProductoRepository;
+import com.mb.conitrack.repository.maestro.ProveedorRepository;
+
+/**
+ * Cálculo completo de las métricas del dashboard (DashboardService.calcularMetricas, sin snapshot) contra H2 en
+ * memoria con 10k/100k/1M lotes, un movimiento por lote repartido en los últimos 30 días y un análisis cada
+ * diez lotes. Los datos se generan una vez por parámetro con INSERT ... SELECT sobre SYSTEM_RANGE.
+ * Está en el paquete service porque calcularMetricas es de paquete.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DashboardMetricsBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    private int lotes;
+
+    private ConfigurableApplicationContext context;
+
+    private DashboardService dashboardService;
+
+    @Setup(Level.Trial)
+    public void cargarDatos() {
+        context = new SpringApplicationBuilder(ConitrackApplication.class)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:dashboardbench" + lotes,
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.sql.init.mode=never",
+                "spring.jpa.defer-datasource-initialization=false",
+                "server.port=0",
+                "spring.main.banner-mode=off")
+            .run();
+        dashboardService = context.getBean(DashboardService.class);
+        final JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        Producto producto = new Producto();
+        producto.setCodigoProducto("QC-BENCH");
+        producto.setNombreGenerico("Producto benchmark");
+        producto.setTipoProducto(TipoProductoEnum.UNIDAD_VENTA);
+        producto.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        producto.setActivo(true);
+        producto = context.getBean(ProductoRepository.class).save(producto);
+
+        Proveedor proveedor = new Proveedor();
+        proveedor.setRazonSocial("Proveedor benchmark");
+        proveedor.setCuit("20-BENCH");
+        proveedor.setDireccion("Calle 1");
+        proveedor.setCiudad("Buenos Aires");
+        proveedor.setPais("Argentina");
+        proveedor.setActivo(true);
+        proveedor = context.getBean(ProveedorRepository.class).save(proveedor);
+
+        // Uno de cada cinco lotes en cuarentena, uno de cada veinte inactivo, vencimientos en los próximos dos años
+        jdbcTemplate.update("""
+            insert into lotes (version, fecha_creacion, codigo_lote, producto_id, proveedor_id, fecha_ingreso,
+                bultos_totales, lote_proveedor, fecha_reanal_prov, fecha_vto_prov, estado, dictamen, activo,
+                cantidad_inicial, cantidad_actual, unidad_medida)
+            select 0, current_timestamp, 'L-BENCH-' || x, ?, ?, current_date,
+                1, 'LP-' || x, dateadd('DAY', mod(x, 365), current_date), dateadd('DAY', mod(x, 730), current_date),
+                'DISPONIBLE', case when mod(x, 5) = 0 then 'CUARENTENA' else 'APROBADO' end, mod(x, 20) <> 0,
+                100, mod(x, 100), 'UNIDAD'
+            from system_range(1, ?)
+            """, producto.getId(), proveedor.getId(), lotes);
+        jdbcTemplate.update("""
+            insert into movimientos (codigo_movimiento, fecha_creacion, fecha, tipo_movimiento, motivo, lote_id,
+                dictamen_inicial, dictamen_final, activo)
+            select 'M-BENCH-' || l.id, current_timestamp, dateadd('DAY', -mod(l.id, 30), current_date),
+                'MODIFICACION', 'ANALISIS', l.id, 'APROBADO', 'APROBADO', true
+            from lotes l
+            """);
+        jdbcTemplate.update("""
+            insert into analisis (fecha_creacion, nro_analisis, lote_id, dictamen, activo)
+            select current_timestamp, 'A-BENCH-' || l.id, l.id,
+                case when mod(l.id, 20) = 0 then null when mod(l.id, 20) = 10 then 'CUARENTENA' else 'APROBADO' end,
+                true
+            from lotes l
+            where mod(l.id, 10) = 0
+            """);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrarContexto() {
+        context.close();
+    }
+
+    @Benchmark
+    public DashboardMetricsDTO calcularMetricas() {
+        return dashboardService.calcularMetricas();
+    }
+
+}
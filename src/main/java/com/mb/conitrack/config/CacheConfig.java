@@ -0,0 +1,105 @@
+package com.mb.conitrack.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Caché de datos de referencia (productos, proveedores y roles) como caché de segundo nivel de Hibernate.
+ * Hibernate guarda el estado desarmado de cada entidad y arma una instancia nueva por sesión, de modo que ninguna
+ * petición comparte ni modifica la instancia de otra y las asociaciones lazy (Role.users) se cargan en la sesión
+ * que las pide. Las entidades se marcan con @Cache y los listados con la hint de query cacheable; Hibernate
+ * actualiza la entrada de la entidad al confirmar un save e invalida los listados de su tabla.
+ * Las regiones son Caffeine (JCache) de tamaño acotado, con vencimiento y estadísticas, creadas aquí: una región
+ * que falte es un error de arranque y no una caché sin límite.
+ * Con conitrack.cache.referencia.habilitada=false (tests) la caché de segundo nivel queda desactivada.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String PRODUCTOS = "productos";
+
+    public static final String PRODUCTOS_LISTAS = "productos-listas";
+
+    public static final String PROVEEDORES = "proveedores";
+
+    public static final String PROVEEDORES_LISTAS = "proveedores-listas";
+
+    public static final String ROLES = "roles";
+
+    public static final String ROLES_LISTAS = "roles-listas";
+
+    /** Región de Hibernate para consultas cacheadas sin región propia. */
+    static final String CONSULTAS = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+
+    /** Marcas de modificación por tabla que validan los listados; no debe perder entradas. */
+    static final String MARCAS_MODIFICACION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    @Value("${conitrack.cache.referencia.habilitada:true}")
+    private boolean habilitada;
+
+    @Value("${conitrack.cache.referencia.maximo-entradas:1000}")
+    private long maximoEntradas;
+
+    @Value("${conitrack.cache.referencia.vencimiento:PT10M}")
+    private Duration vencimiento;
+
+    /** Un CacheManager por contexto (URI propia) para que dos contextos en la misma JVM no compartan regiones. */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "conitrack.cache.referencia", name = "habilitada", havingValue = "true",
+        matchIfMissing = true)
+    public CacheManager referenciaCacheManager() {
+        final CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(URI.create("conitrack:referencia:" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : new String[] {
+            PRODUCTOS, PRODUCTOS_LISTAS, PROVEEDORES, PROVEEDORES_LISTAS, ROLES, ROLES_LISTAS, CONSULTAS }) {
+            cacheManager.createCache(region, acotada());
+        }
+        cacheManager.createCache(MARCAS_MODIFICACION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(ObjectProvider<CacheManager> referenciaCacheManager) {
+        return propiedades -> {
+            // Desactivada explícitamente: con hibernate-jcache en el classpath Hibernate la activaría por defecto
+            propiedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, habilitada);
+            propiedades.put(AvailableSettings.USE_QUERY_CACHE, habilitada);
+            if (!habilitada) {
+                return;
+            }
+            propiedades.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            propiedades.put(ConfigSettings.CACHE_MANAGER, referenciaCacheManager.getObject());
+            propiedades.put(ConfigSettings.MISSING_CACHE_STRATEGY,
+                MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    private CaffeineConfiguration<Object, Object> acotada() {
+        final CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        configuracion.setMaximumSize(OptionalLong.of(maximoEntradas));
+        // El vencimiento cubre cambios hechos por fuera de la aplicación
+        configuracion.setExpireAfterWrite(OptionalLong.of(vencimiento.toNanos()));
+        configuracion.setStatisticsEnabled(true);
+        return configuracion;
+    }
+
+}
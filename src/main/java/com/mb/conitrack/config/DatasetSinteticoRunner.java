@@ -0,0 +1,29 @@
+package com.mb.conitrack.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.mb.conitrack.service.dataset.GeneradorDatasetService;
+
+/**
+ * Genera el dataset sintético de volumen de producción al iniciar la aplicación.
+ *
+ * Se activa con conitrack.dataset.generar=true (por ejemplo --conitrack.dataset.generar=true en la línea de comandos)
+ * contra una base H2 o PostgreSQL local; los volúmenes se configuran en conitrack.dataset.*. No usar en producción.
+ */
+@Component
+@ConditionalOnProperty(prefix = "conitrack.dataset", name = "generar", havingValue = "true")
+public class DatasetSinteticoRunner implements ApplicationRunner {
+
+    @Autowired
+    private GeneradorDatasetService generadorDatasetService;
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        generadorDatasetService.generar();
+    }
+
+}
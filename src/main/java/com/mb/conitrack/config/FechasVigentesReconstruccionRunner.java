@@ -0,0 +1,29 @@
+package com.mb.conitrack.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.mb.conitrack.service.FechaVigenteService;
+
+/**
+ * Reconstruye las fechas vigentes materializadas de los lotes al iniciar la aplicación.
+ *
+ * Se activa con conitrack.fechas-vigentes.reconstruir=true (por ejemplo
+ * --conitrack.fechas-vigentes.reconstruir=true en la línea de comandos) tras una migración o corrección de datos.
+ */
+@Component
+@ConditionalOnProperty(prefix = "conitrack.fechas-vigentes", name = "reconstruir", havingValue = "true")
+public class FechasVigentesReconstruccionRunner implements ApplicationRunner {
+
+    @Autowired
+    private FechaVigenteService fechaVigenteService;
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        fechaVigenteService.reconstruir();
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.mb.conitrack.config;
+
+import org.hibernate.Interceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.mb.conitrack.interceptor.EstadisticasHibernateInterceptor;
+import com.mb.conitrack.service.AuditoriaAccesoWriter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Métricas propias de la aplicación, además de las que registra Actuator (HikariCP, JVM, HTTP, Hibernate con su
+ * caché de segundo nivel, repositorios de Spring Data).
+ *
+ * - Cola y lotes del escritor asíncrono de auditoría de accesos
+ * - Hooks de Hibernate para contar sentencias y entidades cargadas por petición
+ *
+ * Los timers por caso de uso los registra CasoUsoMetricsAspect.
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public MeterBinder auditoriaAccesoMetricas(AuditoriaAccesoWriter auditoriaAccesoWriter) {
+        return registry -> {
+            Gauge.builder("conitrack.auditoria.pendientes", auditoriaAccesoWriter, AuditoriaAccesoWriter::getPendientes)
+                .description("Registros de auditoría encolados pendientes de escritura")
+                .register(registry);
+            FunctionCounter.builder("conitrack.auditoria.escritos", auditoriaAccesoWriter,
+                    AuditoriaAccesoWriter::getEscritos)
+                .description("Registros de auditoría escritos en la base")
+                .register(registry);
+            FunctionCounter.builder("conitrack.auditoria.descartados", auditoriaAccesoWriter,
+                    AuditoriaAccesoWriter::getDescartados)
+                .description("Registros de auditoría descartados con la cola llena")
+                .register(registry);
+            FunctionCounter.builder("conitrack.auditoria.fallidos", auditoriaAccesoWriter,
+                    AuditoriaAccesoWriter::getFallidos)
+                .description("Registros de auditoría que no se pudieron escribir")
+                .register(registry);
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer estadisticasPorPeticion() {
+        return propiedades -> {
+            propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                EstadisticasHibernateInterceptor.registrarConsulta();
+                return sql;
+            });
+            propiedades.put(AvailableSettings.INTERCEPTOR, new Interceptor() {
+
+                @Override
+                public boolean onLoad(
+                    Object entity,
+                    Object id,
+                    Object[] state,
+                    String[] propertyNames,
+                    Type[] types) {
+                    EstadisticasHibernateInterceptor.registrarEntidadCargada();
+                    return false;
+                }
+            });
+        };
+    }
+
+}
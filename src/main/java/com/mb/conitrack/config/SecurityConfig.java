@@ -1,15 +1,30 @@
 package com.mb.conitrack.config;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
 import com.mb.conitrack.enums.PermisosCasoUsoEnum;
+import com.mb.conitrack.enums.RoleEnum;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.util.UrlPathHelper;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 /**
  * Configuración de Spring Security con soporte para jerarquía de usuarios y permisos por caso de uso.
@@ -19,12 +34,40 @@ import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
  * - AUDITOR: solo acceso a consultas y reportes (read-only)
  * - ADMIN: acceso total incluyendo ABM de usuarios
  * - Cada rol tiene acceso solo a sus casos de uso asignados
+ *
+ * Los casos de uso se resuelven con un único matcher sobre la matriz precompilada de PermisosCasoUsoEnum
+ * (árbol de prefijos de URL + bits por rol) en lugar de un matcher por cada constante del enum.
  */
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
 
+    private static final Map<String, RoleEnum> ROL_POR_AUTHORITY = new HashMap<>();
+
+    static {
+        for (RoleEnum rol : RoleEnum.values()) {
+            ROL_POR_AUTHORITY.put("ROLE_" + rol.name(), rol);
+        }
+    }
+
+    /**
+     * Endpoints de Actuator: health abierto, el resto (métricas Prometheus) solo ADMIN.
+     * Acepta HTTP Basic para que el scraper no dependa del formulario de login.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/actuator/**")
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/actuator/health").permitAll()
+                .anyRequest().hasRole("ADMIN")
+            )
+            .httpBasic(Customizer.withDefaults());
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -40,11 +83,9 @@ public class SecurityConfig {
                     .requestMatchers("/error").permitAll();
 
                 // ===== CASOS DE USO - Configuración desde enum =====
-                // Aplicar permisos para cada caso de uso definido
-                for (PermisosCasoUsoEnum permiso : PermisosCasoUsoEnum.values()) {
-                    auth.requestMatchers(permiso.getUrlPatternWithWildcard())
-                        .hasAnyRole(permiso.getRolesAsStringArray());
-                }
+                // Un solo matcher resuelve el caso de uso de la ruta y la matriz decide por el rol
+                auth.requestMatchers(casoUsoRequestMatcher())
+                    .access(SecurityConfig::autorizarCasoUso);
 
                 // ===== ABM USUARIOS - Solo ADMIN =====
                 auth.requestMatchers("/admin/users/**").hasRole("ADMIN")
@@ -106,6 +147,37 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Matcher de las rutas que pertenecen a algún caso de uso de PermisosCasoUsoEnum.
+     */
+    static RequestMatcher casoUsoRequestMatcher() {
+        return request -> PermisosCasoUsoEnum.deRuta(ruta(request)) != null;
+    }
+
+    /**
+     * Concede el acceso si alguno de los roles del usuario tiene permiso sobre el caso de uso de la ruta.
+     * Equivale a hasAnyRole(roles del caso de uso); los roles que no están en RoleEnum (ej: ANONYMOUS) no suman.
+     */
+    static AuthorizationDecision autorizarCasoUso(
+        Supplier<Authentication> authentication,
+        RequestAuthorizationContext context) {
+        PermisosCasoUsoEnum casoUso = PermisosCasoUsoEnum.deRuta(ruta(context.getRequest()));
+        Authentication auth = authentication.get();
+        if (casoUso == null || auth == null || !auth.isAuthenticated()) {
+            return new AuthorizationDecision(false);
+        }
+        for (GrantedAuthority authority : auth.getAuthorities()) {
+            if (casoUso.tienePermiso(ROL_POR_AUTHORITY.get(authority.getAuthority()))) {
+                return new AuthorizationDecision(true);
+            }
+        }
+        return new AuthorizationDecision(false);
+    }
+
+    private static String ruta(HttpServletRequest request) {
+        return UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
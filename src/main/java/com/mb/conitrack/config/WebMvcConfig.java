@@ -6,12 +6,14 @@ import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import com.mb.conitrack.interceptor.AuditorAccessInterceptor;
+import com.mb.conitrack.interceptor.EstadisticasHibernateInterceptor;
 
 /**
  * Configuración de Spring MVC para registrar interceptors.
  *
  * Registra el AuditorAccessInterceptor para logging automático
- * de accesos de usuarios AUDITOR.
+ * de accesos de usuarios AUDITOR, y el EstadisticasHibernateInterceptor
+ * que mide sentencias SQL y entidades cargadas por petición.
  */
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
@@ -19,6 +21,9 @@ public class WebMvcConfig implements WebMvcConfigurer {
     @Autowired
     private AuditorAccessInterceptor auditorAccessInterceptor;
 
+    @Autowired
+    private EstadisticasHibernateInterceptor estadisticasHibernateInterceptor;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(auditorAccessInterceptor)
@@ -29,5 +34,8 @@ public class WebMvcConfig implements WebMvcConfigurer {
                     "/js/**",
                     "/img/**"
                 );
+
+        registry.addInterceptor(estadisticasHibernateInterceptor)
+                .excludePathPatterns("/css/**", "/js/**", "/img/**", "/actuator/**");
     }
 }
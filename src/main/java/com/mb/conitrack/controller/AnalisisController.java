@@ -1,5 +1,7 @@
 package com.mb.conitrack.controller;
 
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
@@ -7,10 +9,14 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import com.mb.conitrack.dto.AnalisisDTO;
 import com.mb.conitrack.dto.DTOUtils;
 import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.datatables.DataTablesRequest;
+import com.mb.conitrack.dto.datatables.DataTablesResponse;
 import com.mb.conitrack.entity.Analisis;
 import com.mb.conitrack.service.AnalisisService;
 
@@ -28,10 +34,17 @@ public class AnalisisController {
 
     @GetMapping("/list-analisis")
     public String listAnalisis(Model model) {
-        model.addAttribute("analisisDTOs", analisisService.findAllAnalisis());
+        // Las filas se piden por AJAX a /list-analisis/datos, de a una página
+        model.addAttribute("paginadoServidor", true);
         return "analisis/list-analisis"; //.html
     }
 
+    @GetMapping("/list-analisis/datos")
+    @ResponseBody
+    public DataTablesResponse<AnalisisDTO> listAnalisisDatos(@RequestParam Map<String, String> params) {
+        return analisisService.findPaginaAnalisis(DataTablesRequest.from(params));
+    }
+
     @GetMapping("/codigoLote/{codigoLote}")
     @Transactional(readOnly = true)
     public String listAnalisisPorLote(@PathVariable("codigoLote") String codigoLote, Model model) {
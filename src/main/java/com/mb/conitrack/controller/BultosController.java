@@ -1,5 +1,7 @@
 package com.mb.conitrack.controller;
 
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
@@ -7,7 +9,12 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
+import com.mb.conitrack.dto.BultoDTO;
+import com.mb.conitrack.dto.datatables.DataTablesRequest;
+import com.mb.conitrack.dto.datatables.DataTablesResponse;
 import com.mb.conitrack.service.BultoService;
 
 @Controller
@@ -24,10 +31,17 @@ public class BultosController {
 
     @GetMapping("/list-bultos")
     public String listBultos(Model model) {
-        model.addAttribute("bultoDTOs", bultoService.findAllBultos());
+        // Las filas se piden por AJAX a /list-bultos/datos, de a una página
+        model.addAttribute("paginadoServidor", true);
         return "bultos/list-bultos";
     }
 
+    @GetMapping("/list-bultos/datos")
+    @ResponseBody
+    public DataTablesResponse<BultoDTO> listBultosDatos(@RequestParam Map<String, String> params) {
+        return bultoService.findPaginaBultos(DataTablesRequest.from(params));
+    }
+
     @GetMapping("/codigoLote/{codigoLote}")
     @Transactional(readOnly = true)
     public String listBultosPorLote(@PathVariable("codigoLote") String codigoLote, Model model) {
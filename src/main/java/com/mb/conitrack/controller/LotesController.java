@@ -1,6 +1,7 @@
 package com.mb.conitrack.controller;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -8,9 +9,13 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 import com.mb.conitrack.dto.BultoDTO;
+import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.datatables.DataTablesRequest;
+import com.mb.conitrack.dto.datatables.DataTablesResponse;
 import com.mb.conitrack.service.LoteService;
 
 @Controller
@@ -27,10 +32,17 @@ public class LotesController {
 
     @GetMapping("/list-lotes")
     public String listLotes(Model model) {
-        model.addAttribute("loteDTOs", loteService.findAllLotes());
+        // Las filas se piden por AJAX a /list-lotes/datos, de a una página
+        model.addAttribute("paginadoServidor", true);
         return "lotes/list-lotes";
     }
 
+    @GetMapping("/list-lotes/datos")
+    @ResponseBody
+    public DataTablesResponse<LoteDTO> listLotesDatos(@RequestParam Map<String, String> params) {
+        return loteService.findPaginaLotes(DataTablesRequest.from(params));
+    }
+
     @GetMapping("/list-fechas-lotes")
     public String listFechasLotes(Model model) {
         model.addAttribute("loteDTOs", loteService.findLotesDictaminadosConStock());
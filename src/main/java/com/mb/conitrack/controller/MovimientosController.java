@@ -1,6 +1,7 @@
 package com.mb.conitrack.controller;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -10,9 +11,12 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 import com.mb.conitrack.dto.MovimientoDTO;
+import com.mb.conitrack.dto.datatables.DataTablesRequest;
+import com.mb.conitrack.dto.datatables.DataTablesResponse;
 import com.mb.conitrack.service.MovimientoService;
 
 @Controller
@@ -30,10 +34,17 @@ public class MovimientosController {
     @GetMapping("/list-movimientos")
     @Transactional(readOnly = true)
     public String listMovimientos(Model model) {
-        model.addAttribute("movimientoDTOs", movimientoService.findAllMovimientos());
+        // Las filas se piden por AJAX a /list-movimientos/datos, de a una página
+        model.addAttribute("paginadoServidor", true);
         return "movimientos/list-movimientos";
     }
 
+    @GetMapping("/list-movimientos/datos")
+    @ResponseBody
+    public DataTablesResponse<MovimientoDTO> listMovimientosDatos(@RequestParam Map<String, String> params) {
+        return movimientoService.findPaginaMovimientos(DataTablesRequest.from(params));
+    }
+
     @GetMapping("/codigoLote/{codigoLote}")
     @Transactional(readOnly = true)
     public String listBultosPorLote(@PathVariable("codigoLote") String codigoLote, Model model) {
@@ -1,23 +1,36 @@
 package com.mb.conitrack.controller;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.time.OffsetDateTime;
-import java.util.List;
+import java.time.ZoneId;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.mb.conitrack.entity.Lote;
-import com.mb.conitrack.entity.Movimiento;
+import com.mb.conitrack.dto.LoteReporteDTO;
+import com.mb.conitrack.dto.MovimientoReporteDTO;
+import com.mb.conitrack.dto.ReportePageDTO;
+import com.mb.conitrack.dto.StockHistoricoDTO;
+import com.mb.conitrack.entity.SaldoCheckpoint.Nivel;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.repository.LoteRepository;
-import com.mb.conitrack.repository.MovimientoRepository;
 import com.mb.conitrack.service.AuditorAccessLogger;
+import com.mb.conitrack.service.ReportesService;
+import com.mb.conitrack.service.ReportesService.FormatoExportacion;
+import com.mb.conitrack.service.SaldoHistoricoService;
 import com.mb.conitrack.service.SecurityContextService;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -32,6 +45,8 @@ import lombok.extern.slf4j.Slf4j;
  * - Acceso restringido por Spring Security
  * - Logging automático de todos los accesos
  * - Retorna datos incluyendo registros con baja lógica (activo=false)
+ * - Listados paginados por clave (afterId/size) y exportación en streaming (NDJSON/CSV)
+ * - Proyecciones planas en lugar de entidades serializadas
  */
 @RestController
 @RequestMapping("/api/reportes")
@@ -42,7 +57,10 @@ public class ReportesController {
     private LoteRepository loteRepository;
 
     @Autowired
-    private MovimientoRepository movimientoRepository;
+    private ReportesService reportesService;
+
+    @Autowired
+    private SaldoHistoricoService saldoHistoricoService;
 
     @Autowired
     private SecurityContextService securityContextService;
@@ -51,12 +69,15 @@ public class ReportesController {
     private AuditorAccessLogger auditorAccessLogger;
 
     /**
-     * Obtiene todos los lotes (incluye bajas lógicas).
+     * Obtiene los lotes (incluye bajas lógicas), paginados por id.
      * Endpoint de solo lectura para auditores.
      */
     @GetMapping("/lotes")
     @PreAuthorize("hasAnyRole('AUDITOR', 'ADMIN', 'DT', 'GERENTE_GARANTIA_CALIDAD', 'GERENTE_CONTROL_CALIDAD', 'SUPERVISOR_PLANTA', 'ANALISTA_CONTROL_CALIDAD', 'ANALISTA_PLANTA')")
-    public ResponseEntity<List<Lote>> getAllLotes(HttpServletRequest request) {
+    public ResponseEntity<ReportePageDTO<LoteReporteDTO>> getAllLotes(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer size,
+            HttpServletRequest request) {
         User currentUser = securityContextService.getCurrentUser();
 
         // Log de acceso
@@ -65,8 +86,7 @@ public class ReportesController {
         log.info("Usuario {} consultó todos los lotes", currentUser.getUsername());
 
         // Retorna TODOS los lotes, incluyendo los con activo=false
-        List<Lote> lotes = loteRepository.findAll();
-        return ResponseEntity.ok(lotes);
+        return ResponseEntity.ok(reportesService.findLotes(afterId, size, false));
     }
 
     /**
@@ -74,7 +94,7 @@ public class ReportesController {
      */
     @GetMapping("/lotes/{id}")
     @PreAuthorize("hasAnyRole('AUDITOR', 'ADMIN', 'DT', 'GERENTE_GARANTIA_CALIDAD', 'GERENTE_CONTROL_CALIDAD', 'SUPERVISOR_PLANTA', 'ANALISTA_CONTROL_CALIDAD', 'ANALISTA_PLANTA')")
-    public ResponseEntity<Lote> getLoteById(
+    public ResponseEntity<LoteReporteDTO> getLoteById(
             @PathVariable Long id,
             HttpServletRequest request) {
 
@@ -84,33 +104,56 @@ public class ReportesController {
 
         log.info("Usuario {} consultó lote con ID {}", currentUser.getUsername(), id);
 
-        return loteRepository.findById(id)
+        return reportesService.findLoteById(id)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
 
     /**
-     * Obtiene todos los movimientos (incluye bajas lógicas).
+     * Exporta los lotes en streaming (NDJSON o CSV), sin paginar.
+     */
+    @GetMapping("/lotes/export")
+    @PreAuthorize("hasAnyRole('AUDITOR', 'ADMIN', 'DT', 'GERENTE_GARANTIA_CALIDAD', 'GERENTE_CONTROL_CALIDAD', 'SUPERVISOR_PLANTA', 'ANALISTA_CONTROL_CALIDAD', 'ANALISTA_PLANTA')")
+    public ResponseEntity<StreamingResponseBody> exportLotes(
+            @RequestParam(defaultValue = "ndjson") String formato,
+            @RequestParam(defaultValue = "false") boolean soloActivos,
+            HttpServletRequest request) {
+        User currentUser = securityContextService.getCurrentUser();
+        auditorAccessLogger.logReporteAccess(currentUser, "Exportación de lotes (" + formato + ")", request);
+
+        log.info("Usuario {} exportó lotes en formato {}", currentUser.getUsername(), formato);
+
+        final FormatoExportacion formatoExportacion = FormatoExportacion.from(formato);
+        return streaming(formatoExportacion, "lotes",
+            out -> reportesService.exportarLotes(out, formatoExportacion, soloActivos));
+    }
+
+    /**
+     * Obtiene los movimientos (incluye bajas lógicas), paginados por id.
      */
     @GetMapping("/movimientos")
     @PreAuthorize("hasAnyRole('AUDITOR', 'ADMIN', 'DT', 'GERENTE_GARANTIA_CALIDAD', 'GERENTE_CONTROL_CALIDAD', 'SUPERVISOR_PLANTA', 'ANALISTA_CONTROL_CALIDAD', 'ANALISTA_PLANTA')")
-    public ResponseEntity<List<Movimiento>> getAllMovimientos(HttpServletRequest request) {
+    public ResponseEntity<ReportePageDTO<MovimientoReporteDTO>> getAllMovimientos(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer size,
+            HttpServletRequest request) {
         User currentUser = securityContextService.getCurrentUser();
         auditorAccessLogger.logReporteAccess(currentUser, "Consulta todos los movimientos", request);
 
         log.info("Usuario {} consultó todos los movimientos", currentUser.getUsername());
 
-        List<Movimiento> movimientos = movimientoRepository.findAll();
-        return ResponseEntity.ok(movimientos);
+        return ResponseEntity.ok(reportesService.findMovimientos(afterId, size));
     }
 
     /**
-     * Obtiene movimientos de un lote específico.
+     * Obtiene movimientos de un lote específico, paginados por id.
      */
     @GetMapping("/movimientos/lote/{loteId}")
     @PreAuthorize("hasAnyRole('AUDITOR', 'ADMIN', 'DT', 'GERENTE_GARANTIA_CALIDAD', 'GERENTE_CONTROL_CALIDAD', 'SUPERVISOR_PLANTA', 'ANALISTA_CONTROL_CALIDAD', 'ANALISTA_PLANTA')")
-    public ResponseEntity<List<Movimiento>> getMovimientosByLote(
+    public ResponseEntity<ReportePageDTO<MovimientoReporteDTO>> getMovimientosByLote(
             @PathVariable Long loteId,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer size,
             HttpServletRequest request) {
 
         User currentUser = securityContextService.getCurrentUser();
@@ -120,39 +163,70 @@ public class ReportesController {
         log.info("Usuario {} consultó movimientos del lote ID {}",
             currentUser.getUsername(), loteId);
 
-        return loteRepository.findById(loteId)
-            .map(lote -> {
-                // Filtrar movimientos del lote
-                List<Movimiento> movimientos = movimientoRepository.findAll().stream()
-                    .filter(m -> m.getLote() != null && m.getLote().getId().equals(loteId))
-                    .toList();
-                return ResponseEntity.ok(movimientos);
-            })
-            .orElse(ResponseEntity.notFound().build());
+        if (!loteRepository.existsById(loteId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(reportesService.findMovimientosByLote(loteId, afterId, size));
     }
 
     /**
-     * Obtiene todos los movimientos (sin filtro de fecha - simplificado).
-     * Para filtros avanzados se pueden agregar métodos adicionales según necesidad.
+     * Exporta los movimientos en streaming (NDJSON o CSV), opcionalmente de un solo lote.
      */
+    @GetMapping("/movimientos/export")
+    @PreAuthorize("hasAnyRole('AUDITOR', 'ADMIN', 'DT', 'GERENTE_GARANTIA_CALIDAD', 'GERENTE_CONTROL_CALIDAD', 'SUPERVISOR_PLANTA', 'ANALISTA_CONTROL_CALIDAD', 'ANALISTA_PLANTA')")
+    public ResponseEntity<StreamingResponseBody> exportMovimientos(
+            @RequestParam(defaultValue = "ndjson") String formato,
+            @RequestParam(required = false) Long loteId,
+            HttpServletRequest request) {
+        User currentUser = securityContextService.getCurrentUser();
+        auditorAccessLogger.logReporteAccess(currentUser,
+            "Exportación de movimientos (" + formato + ")" + (loteId != null ? " del lote ID: " + loteId : ""),
+            request);
+
+        log.info("Usuario {} exportó movimientos en formato {}", currentUser.getUsername(), formato);
+
+        final FormatoExportacion formatoExportacion = FormatoExportacion.from(formato);
+        return streaming(formatoExportacion, "movimientos",
+            out -> reportesService.exportarMovimientos(out, formatoExportacion, loteId));
+    }
 
     /**
-     * Obtiene lotes activos (filtro por activo=true).
-     * Nota: findAll() ya retorna todos, este endpoint filtra por activo=true
+     * Obtiene lotes activos (filtro por activo=true), paginados por id.
      */
     @GetMapping("/lotes/activos")
     @PreAuthorize("hasAnyRole('AUDITOR', 'ADMIN', 'DT', 'GERENTE_GARANTIA_CALIDAD', 'GERENTE_CONTROL_CALIDAD', 'SUPERVISOR_PLANTA', 'ANALISTA_CONTROL_CALIDAD', 'ANALISTA_PLANTA')")
-    public ResponseEntity<List<Lote>> getLotesActivos(HttpServletRequest request) {
+    public ResponseEntity<ReportePageDTO<LoteReporteDTO>> getLotesActivos(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer size,
+            HttpServletRequest request) {
         User currentUser = securityContextService.getCurrentUser();
         auditorAccessLogger.logReporteAccess(currentUser, "Consulta lotes activos", request);
 
         log.info("Usuario {} consultó lotes activos", currentUser.getUsername());
 
-        // Filtrar en memoria (alternativa simple sin agregar método al repository)
-        List<Lote> lotes = loteRepository.findAll().stream()
-            .filter(l -> Boolean.TRUE.equals(l.getActivo()))
-            .toList();
-        return ResponseEntity.ok(lotes);
+        return ResponseEntity.ok(reportesService.findLotes(afterId, size, true));
+    }
+
+    /**
+     * Stock de un bulto, lote o producto al cierre del día indicado, reconstruido desde los movimientos.
+     */
+    @GetMapping("/stock-historico/{nivel}/{id}")
+    @PreAuthorize("hasAnyRole('AUDITOR', 'ADMIN', 'DT', 'GERENTE_GARANTIA_CALIDAD', 'GERENTE_CONTROL_CALIDAD', 'SUPERVISOR_PLANTA', 'ANALISTA_CONTROL_CALIDAD', 'ANALISTA_PLANTA')")
+    public ResponseEntity<StockHistoricoDTO> getStockHistorico(
+            @PathVariable String nivel,
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            HttpServletRequest request) {
+        User currentUser = securityContextService.getCurrentUser();
+        auditorAccessLogger.logReporteAccess(currentUser,
+            "Consulta stock histórico de " + nivel + " ID: " + id + " al " + fecha, request);
+
+        log.info("Usuario {} consultó stock histórico de {} ID {} al {}", currentUser.getUsername(), nivel, id, fecha);
+
+        final OffsetDateTime finDelDia = fecha.atTime(LocalTime.MAX).atZone(ZoneId.systemDefault()).toOffsetDateTime();
+        return saldoHistoricoService.consultarStock(Nivel.from(nivel), id, finDelDia)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
     }
 
     /**
@@ -175,4 +249,21 @@ public class ReportesController {
 
         return ResponseEntity.ok(resumen);
     }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleFormatoInvalido(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    private static ResponseEntity<StreamingResponseBody> streaming(
+            FormatoExportacion formato,
+            String nombre,
+            StreamingResponseBody body) {
+        final boolean csv = formato == FormatoExportacion.CSV;
+        return ResponseEntity.ok()
+            .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + nombre + (csv ? ".csv" : ".ndjson") + "\"")
+            .body(body);
+    }
 }
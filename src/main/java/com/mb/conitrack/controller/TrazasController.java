@@ -1,6 +1,7 @@
 package com.mb.conitrack.controller;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -8,10 +9,18 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import com.mb.conitrack.dto.EscaneoTrazaDTO;
+import com.mb.conitrack.dto.ResultadoEscaneosDTO;
 import com.mb.conitrack.dto.TrazaDTO;
+import com.mb.conitrack.dto.datatables.DataTablesRequest;
+import com.mb.conitrack.dto.datatables.DataTablesResponse;
+import com.mb.conitrack.service.EscaneoTrazaService;
 import com.mb.conitrack.service.TrazaService;
 
 @Controller
@@ -21,6 +30,9 @@ public class TrazasController {
     @Autowired
     private TrazaService trazaService;
 
+    @Autowired
+    private EscaneoTrazaService escaneoTrazaService;
+
     @GetMapping("/cancelar")
     public String cancelar() {
         return "redirect:/";
@@ -28,10 +40,17 @@ public class TrazasController {
 
     @GetMapping("/list-trazas")
     public String listTrazasActivas(Model model) {
-        model.addAttribute("trazaDTOs", trazaService.findAllByActivoTrue());
+        // Las filas se piden por AJAX a /list-trazas/datos, de a una página
+        model.addAttribute("paginadoServidor", true);
         return "trazas/list-trazas";
     }
 
+    @GetMapping("/list-trazas/datos")
+    @ResponseBody
+    public DataTablesResponse<TrazaDTO> listTrazasActivasDatos(@RequestParam Map<String, String> params) {
+        return trazaService.findPaginaTrazas(DataTablesRequest.from(params));
+    }
+
     @GetMapping("/codigoLote/{codigoLote}")
     public String listTrazasActivasPorLote(@PathVariable("codigoLote") String codigoLote, Model model) {
         model.addAttribute("trazaDTOs", trazaService.findByCodigoLoteAndActivo(codigoLote));
@@ -62,6 +81,13 @@ public class TrazasController {
         return trazaService.getTrazasByCodigoLoteAndNroBulto(codigoLote, nroBulto);
      }
 
+    /** Resuelve un lote de escaneos (producto, número de traza) y los agrupa por lote, bulto y estado. */
+    @PostMapping("/escaneos")
+    @ResponseBody
+    public ResultadoEscaneosDTO resolverEscaneos(@RequestBody List<EscaneoTrazaDTO> escaneos) {
+        return escaneoTrazaService.resolver(escaneos);
+    }
+
 }
 
 
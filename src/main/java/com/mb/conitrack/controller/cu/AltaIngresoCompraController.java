@@ -1,9 +1,12 @@
 package com.mb.conitrack.controller.cu;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -12,15 +15,21 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.Arrays;
 import java.util.stream.Collectors;
 
 import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.ResultadoImportacionDTO;
 import com.mb.conitrack.dto.validation.AltaCompra;
 import com.mb.conitrack.enums.TipoProductoEnum;
 import com.mb.conitrack.service.cu.AltaIngresoCompraService;
+import com.mb.conitrack.service.cu.IngresoCompraImportService;
+import com.mb.conitrack.service.cu.IngresoCompraImportService.FormatoImportacion;
 
 /** CU1 - Controller para alta de lote por ingreso de compra externa. */
 @Controller
@@ -30,6 +39,9 @@ public class AltaIngresoCompraController extends AbstractCuController {
     @Autowired
     private AltaIngresoCompraService ingresoCompraService;
 
+    @Autowired
+    private IngresoCompraImportService ingresoCompraImportService;
+
     /** Cancela operación y redirige a home. */
     @GetMapping("/cancelar")
     public String cancelar() {
@@ -82,6 +94,27 @@ public class AltaIngresoCompraController extends AbstractCuController {
         return "redirect:/compras/alta/ingreso-compra-ok";
     }
 
+    /**
+     * Importación masiva de ingresos desde un archivo CSV (con encabezado) o JSON lines (formato=jsonl).
+     * Devuelve los lotes creados y el error de cada fila rechazada.
+     */
+    @PostMapping("/ingreso-compra/importar")
+    @ResponseBody
+    public ResponseEntity<ResultadoImportacionDTO> importarIngresosCompra(
+        @RequestParam("archivo") MultipartFile archivo,
+        @RequestParam(name = "formato", defaultValue = "csv") String formato) throws IOException {
+
+        final FormatoImportacion formatoImportacion;
+        try {
+            formatoImportacion = FormatoImportacion.from(formato);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        try (InputStream in = archivo.getInputStream()) {
+            return ResponseEntity.ok(ingresoCompraImportService.importar(in, formatoImportacion));
+        }
+    }
+
     /** Resuelve nombres de producto, proveedor y fabricante desde IDs para mostrar en confirmación. */
     void resolverNombresParaConfirmacion(LoteDTO loteDTO) {
         // Resolver nombre del producto
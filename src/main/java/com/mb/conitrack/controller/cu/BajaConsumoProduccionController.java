@@ -16,6 +16,8 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.mb.conitrack.dto.LoteDTO;
 import com.mb.conitrack.dto.validation.BajaProduccion;
+import com.mb.conitrack.exception.StockInsuficienteException;
+import com.mb.conitrack.service.ReintentoOptimista;
 import com.mb.conitrack.service.cu.BajaConsumoProduccionService;
 
 @Controller
@@ -25,6 +27,9 @@ public class BajaConsumoProduccionController extends AbstractCuController {
     @Autowired
     private BajaConsumoProduccionService consumoProduccionService;
 
+    @Autowired
+    private ReintentoOptimista reintentoOptimista;
+
     @GetMapping("/cancelar")
     public String cancelar() {
         return "redirect:/";
@@ -50,7 +55,13 @@ public class BajaConsumoProduccionController extends AbstractCuController {
             return "produccion/baja/consumo-produccion";
         }
 
-        procesarConsumoProduccion(loteDTO, redirectAttributes);
+        try {
+            procesarConsumoProduccion(loteDTO, redirectAttributes);
+        } catch (StockInsuficienteException e) {
+            bindingResult.rejectValue("cantidadesBultos", "", e.getMessage());
+            initModelConsumoProduccion(loteDTO, model);
+            return "produccion/baja/consumo-produccion";
+        }
         return "redirect:/produccion/baja/consumo-produccion-ok";
     }
 
@@ -69,7 +80,8 @@ public class BajaConsumoProduccionController extends AbstractCuController {
     void procesarConsumoProduccion(final LoteDTO loteDTO, final RedirectAttributes redirectAttributes) {
 
         loteDTO.setFechaYHoraCreacion(OffsetDateTime.now());
-        final LoteDTO resultDTO = consumoProduccionService.bajaConsumoProduccion(loteDTO);
+        final LoteDTO resultDTO = reintentoOptimista.ejecutar(
+            "CU7 consumo de producción", () -> consumoProduccionService.bajaConsumoProduccion(loteDTO));
 
         redirectAttributes.addFlashAttribute("loteDTO", resultDTO);
         redirectAttributes.addFlashAttribute(
@@ -15,6 +15,8 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.mb.conitrack.dto.LoteDTO;
 import com.mb.conitrack.dto.MovimientoDTO;
+import com.mb.conitrack.exception.StockInsuficienteException;
+import com.mb.conitrack.service.ReintentoOptimista;
 import com.mb.conitrack.service.cu.BajaMuestreoBultoService;
 
 import jakarta.validation.Valid;
@@ -26,6 +28,9 @@ public class BajaMuestreoBultoController extends AbstractCuController {
     @Autowired
     private BajaMuestreoBultoService muestreoBultoService;
 
+    @Autowired
+    private ReintentoOptimista reintentoOptimista;
+
     @GetMapping("/cancelar")
     public String cancelar() {
         return "redirect:/";
@@ -51,7 +56,13 @@ public class BajaMuestreoBultoController extends AbstractCuController {
             return "calidad/baja/muestreo-trazable";
         }
 
-        procesarMuestreoTrazable(movimientoDTO, redirectAttributes);
+        try {
+            procesarMuestreoTrazable(movimientoDTO, redirectAttributes);
+        } catch (StockInsuficienteException e) {
+            bindingResult.rejectValue("nroBulto", "", e.getMessage());
+            initModelMuestreoTrazable(movimientoDTO, model);
+            return "calidad/baja/muestreo-trazable";
+        }
         return "redirect:/calidad/baja/muestreo-trazable-ok";
     }
 
@@ -134,7 +145,8 @@ public class BajaMuestreoBultoController extends AbstractCuController {
         final RedirectAttributes redirectAttributes) {
 
         movimientoDTO.setFechaYHoraCreacion(OffsetDateTime.now());
-        final LoteDTO loteDTO = muestreoBultoService.bajaMuestreoTrazable(movimientoDTO);
+        final LoteDTO loteDTO = reintentoOptimista.ejecutar(
+            "CU3 muestreo trazable", () -> muestreoBultoService.bajaMuestreoTrazable(movimientoDTO));
 
         redirectAttributes.addFlashAttribute("loteDTO", loteDTO);
         redirectAttributes.addFlashAttribute("bultoMuestreo", movimientoDTO.getNroBulto());
@@ -5,17 +5,27 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.mb.conitrack.dto.EscaneoVentaDTO;
 import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.PedidoVentaDTO;
+import com.mb.conitrack.dto.ResultadoEscaneosDTO;
+import com.mb.conitrack.dto.ResultadoPedidoVentaDTO;
 import com.mb.conitrack.dto.TrazaDTO;
+import com.mb.conitrack.exception.StockInsuficienteException;
+import com.mb.conitrack.service.EscaneoTrazaService;
+import com.mb.conitrack.service.ReintentoOptimista;
 import com.mb.conitrack.service.cu.BajaVentaProductoService;
 
 import jakarta.validation.Valid;
@@ -27,6 +37,12 @@ public class BajaVentaProductoController extends AbstractCuController {
     @Autowired
     private BajaVentaProductoService ventaProductoService;
 
+    @Autowired
+    private EscaneoTrazaService escaneoTrazaService;
+
+    @Autowired
+    private ReintentoOptimista reintentoOptimista;
+
     @GetMapping("/cancelar")
     public String cancelar() {
         return "redirect:/";
@@ -52,7 +68,13 @@ public class BajaVentaProductoController extends AbstractCuController {
             return "ventas/baja/venta-producto";
         }
 
-        procesarVentaProducto(loteDTO, redirectAttributes);
+        try {
+            procesarVentaProducto(loteDTO, redirectAttributes);
+        } catch (StockInsuficienteException e) {
+            bindingResult.rejectValue("cantidadesBultos", "", e.getMessage());
+            initModelVentaProducto(loteDTO, model);
+            return "ventas/baja/venta-producto";
+        }
         return "redirect:/ventas/baja/venta-producto-ok";
     }
 
@@ -62,6 +84,41 @@ public class BajaVentaProductoController extends AbstractCuController {
         return "ventas/baja/venta-producto-ok";
     }
 
+    /**
+     * Pedido de venta con líneas de varios lotes, aplicado en una sola transacción.
+     * Responde 422 con el error de cada línea rechazada si el pedido no se aplicó.
+     */
+    @PostMapping("/venta-producto/pedido")
+    @ResponseBody
+    public ResponseEntity<ResultadoPedidoVentaDTO> ventaPedido(@Valid @RequestBody PedidoVentaDTO pedido) {
+        pedido.setFechaYHoraCreacion(OffsetDateTime.now());
+        final ResultadoPedidoVentaDTO resultado;
+        try {
+            resultado = reintentoOptimista.ejecutar(
+                "CU22 pedido de venta", () -> ventaProductoService.bajaVentaPedido(pedido));
+        } catch (StockInsuficienteException e) {
+            return ResponseEntity.unprocessableEntity().body(ventaProductoService.pedidoRechazado(pedido, e));
+        }
+        return resultado.isAplicado()
+            ? ResponseEntity.ok(resultado)
+            : ResponseEntity.unprocessableEntity().body(resultado);
+    }
+
+    /**
+     * Venta de las trazas escaneadas en la línea de despacho, agrupadas por lote y bulto.
+     * Responde 422 con el motivo de cada escaneo rechazado si la venta no se aplicó.
+     */
+    @PostMapping("/venta-producto/escaneos")
+    @ResponseBody
+    public ResponseEntity<ResultadoEscaneosDTO> ventaEscaneos(@Valid @RequestBody EscaneoVentaDTO venta) {
+        venta.setFechaYHoraCreacion(OffsetDateTime.now());
+        final ResultadoEscaneosDTO resultado = reintentoOptimista.ejecutar(
+            "CU22 venta por escaneos", () -> escaneoTrazaService.venderEscaneos(venta));
+        return Boolean.TRUE.equals(resultado.getAplicado())
+            ? ResponseEntity.ok(resultado)
+            : ResponseEntity.unprocessableEntity().body(resultado);
+    }
+
     Map<Integer, List<Long>> getTrazaPorBultoDTOs(final LoteDTO loteDTO) {
         Map<Integer, List<Long>> trazasVentaPorBulto =
             loteDTO.getTrazaDTOs().stream()
@@ -89,7 +146,8 @@ public class BajaVentaProductoController extends AbstractCuController {
 
     void procesarVentaProducto(final LoteDTO loteDTO, final RedirectAttributes redirectAttributes) {
         loteDTO.setFechaYHoraCreacion(OffsetDateTime.now());
-        final LoteDTO resultDTO = ventaProductoService.bajaVentaProducto(loteDTO);
+        final LoteDTO resultDTO = reintentoOptimista.ejecutar(
+            "CU22 venta de producto", () -> ventaProductoService.bajaVentaProducto(loteDTO));
 
         redirectAttributes.addFlashAttribute("loteDTO", resultDTO);
         redirectAttributes.addFlashAttribute("trazaVentaDTOs", getTrazaPorBultoDTOs(loteDTO));
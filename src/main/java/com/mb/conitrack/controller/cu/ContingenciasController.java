@@ -2,6 +2,8 @@ package com.mb.conitrack.controller.cu;
 
 import com.mb.conitrack.dto.LoteDTO;
 import com.mb.conitrack.dto.MovimientoDTO;
+import com.mb.conitrack.exception.StockInsuficienteException;
+import com.mb.conitrack.service.ReintentoOptimista;
 import com.mb.conitrack.service.cu.BajaAjusteStockService;
 import com.mb.conitrack.service.cu.ModifReversoMovimientoService;
 import jakarta.validation.Valid;
@@ -27,6 +29,9 @@ public class ContingenciasController extends AbstractCuController {
     @Autowired
     private BajaAjusteStockService ajusteStockService;
 
+    @Autowired
+    private ReintentoOptimista reintentoOptimista;
+
     @GetMapping("/cancelar")
     public String cancelar() {
         return "redirect:/";
@@ -94,7 +99,13 @@ public class ContingenciasController extends AbstractCuController {
             return "contingencias/ajuste-stock";
         }
 
-        procesarAjusteStock(movimientoDTO, redirectAttributes);
+        try {
+            procesarAjusteStock(movimientoDTO, redirectAttributes);
+        } catch (StockInsuficienteException e) {
+            bindingResult.rejectValue("cantidad", "", e.getMessage());
+            initModelAjusteStock(movimientoDTO, model);
+            return "contingencias/ajuste-stock";
+        }
         return "redirect:/contingencias/ajuste-stock-ok";
     }
 
@@ -119,7 +130,8 @@ public class ContingenciasController extends AbstractCuController {
             final RedirectAttributes redirectAttributes) {
 
         movimientoDTO.setFechaYHoraCreacion(OffsetDateTime.now());
-        final LoteDTO loteDTO = ajusteStockService.bajaAjusteStock(movimientoDTO);
+        final LoteDTO loteDTO = reintentoOptimista.ejecutar(
+            "CU25 ajuste de stock", () -> ajusteStockService.bajaAjusteStock(movimientoDTO));
 
         redirectAttributes.addFlashAttribute("loteDTO", loteDTO);
         redirectAttributes.addFlashAttribute("bultoAjuste", movimientoDTO.getNroBulto());
@@ -20,6 +20,7 @@ import com.mb.conitrack.entity.maestro.Role;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.repository.maestro.RoleRepository;
 import com.mb.conitrack.repository.maestro.UserRepository;
+import com.mb.conitrack.service.SecurityContextService;
 
 import jakarta.validation.Valid;
 
@@ -36,10 +37,13 @@ public class ABMUsersController {
 
     private final RoleRepository roleRepository;
 
+    private final SecurityContextService securityContextService;
+
     public ABMUsersController(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
-        final RoleRepository roleRepository) {
+        final RoleRepository roleRepository,
+        final SecurityContextService securityContextService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.usernames = new ArrayList<>();
@@ -49,6 +53,7 @@ public class ABMUsersController {
         usernames.add("user1");
         usernames.add("user2");
         this.roleRepository = roleRepository;
+        this.securityContextService = securityContextService;
     }
 
     @GetMapping("/")
@@ -169,6 +174,8 @@ public class ABMUsersController {
         }
 
         userRepository.save(user);
+        // Las sesiones abiertas del usuario deben ver el nuevo rol y expiración
+        securityContextService.invalidarUsuario(user.getUsername());
 
         redirectAttributes.addFlashAttribute("success", "User updated successfully!");
         return "redirect:/users/list-users"; // Redirect back to the user list
@@ -183,6 +190,7 @@ public class ABMUsersController {
         }
 
         userRepository.deleteById(id);
+        securityContextService.invalidarUsuario(userOptional.get().getUsername());
         redirectAttributes.addFlashAttribute("success", "User deleted successfully!");
         return "redirect:/users/list-users";
     }
@@ -44,6 +44,7 @@ public class LoginController {
 
         // Agregar servicio de permisos para uso en el template
         model.addAttribute("permisosCasoUsoService", permisosCasoUsoService);
+        model.addAttribute("casosDeUso", permisosCasoUsoService.getCasosDeUsoActuales());
 
         // Información del sistema (versión, etc.)
         model.addAttribute("systemVersion", "v1.0.0");
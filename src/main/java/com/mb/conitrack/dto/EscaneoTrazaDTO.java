@@ -0,0 +1,21 @@
+package com.mb.conitrack.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Lectura de una unidad trazada en la línea de despacho: producto y número de serie. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EscaneoTrazaDTO {
+
+    @NotBlank(message = "El código de producto es obligatorio")
+    private String codigoProducto;
+
+    @NotNull(message = "El número de traza es obligatorio")
+    private Long nroTraza;
+
+}
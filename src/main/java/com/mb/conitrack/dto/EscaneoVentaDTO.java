@@ -0,0 +1,34 @@
+package com.mb.conitrack.dto;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Venta (CU22) a partir de un lote de escaneos de trazas. Las trazas se agrupan por lote y bulto y se aplican
+ * como un pedido de venta: un movimiento BAJA/VENTA por lote.
+ */
+@Data
+@NoArgsConstructor
+public class EscaneoVentaDTO {
+
+    @NotNull(message = "La fecha de egreso es obligatoria")
+    private LocalDate fechaEgreso;
+
+    private String observaciones;
+
+    /** Lo asigna el servidor al recibir los escaneos; es la fecha de creación de todos sus movimientos. */
+    private OffsetDateTime fechaYHoraCreacion;
+
+    @Valid
+    @NotEmpty(message = "Debe enviar al menos un escaneo")
+    private List<EscaneoTrazaDTO> escaneos = new ArrayList<>();
+
+}
@@ -0,0 +1,76 @@
+package com.mb.conitrack.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila de la importación masiva de ingresos por compra (CU1), en CSV o JSON lines.
+ * Identifica producto y proveedores por código y CUIT en lugar de por id; en CSV las listas por bulto se separan
+ * con '|'.
+ */
+@Data
+@NoArgsConstructor
+public class FilaIngresoCompraDTO {
+
+    private String codigoProducto;
+
+    private String cuitProveedor;
+
+    private String cuitFabricante;
+
+    private String paisOrigen;
+
+    private LocalDate fechaIngreso;
+
+    private String loteProveedor;
+
+    private String nroRemito;
+
+    private BigDecimal cantidadInicial;
+
+    private UnidadMedidaEnum unidadMedida;
+
+    private Integer bultosTotales;
+
+    private List<BigDecimal> cantidadesBultos = new ArrayList<>();
+
+    private List<UnidadMedidaEnum> unidadMedidaBultos = new ArrayList<>();
+
+    private LocalDate fechaReanalisisProveedor;
+
+    private LocalDate fechaVencimientoProveedor;
+
+    private String detalleConservacion;
+
+    private String observaciones;
+
+    /** DTO del formulario de ingreso con los ids ya resueltos, para reutilizar sus validaciones. */
+    public LoteDTO toLoteDTO(final Long productoId, final Long proveedorId, final Long fabricanteId) {
+        final LoteDTO dto = new LoteDTO();
+        dto.setProductoId(productoId);
+        dto.setProveedorId(proveedorId);
+        dto.setFabricanteId(fabricanteId);
+        dto.setPaisOrigen(paisOrigen);
+        dto.setFechaIngreso(fechaIngreso);
+        dto.setLoteProveedor(loteProveedor);
+        dto.setNroRemito(nroRemito);
+        dto.setCantidadInicial(cantidadInicial);
+        dto.setUnidadMedida(unidadMedida);
+        dto.setBultosTotales(bultosTotales);
+        dto.setCantidadesBultos(new ArrayList<>(cantidadesBultos));
+        dto.setUnidadMedidaBultos(new ArrayList<>(unidadMedidaBultos));
+        dto.setFechaReanalisisProveedor(fechaReanalisisProveedor);
+        dto.setFechaVencimientoProveedor(fechaVencimientoProveedor);
+        dto.setDetalleConservacion(detalleConservacion);
+        dto.setObservaciones(observaciones);
+        return dto;
+    }
+
+}
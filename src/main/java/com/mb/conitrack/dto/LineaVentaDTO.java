@@ -0,0 +1,33 @@
+package com.mb.conitrack.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Línea de un pedido de venta: unidades de un bulto de un lote. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LineaVentaDTO {
+
+    @NotBlank(message = "El código de lote es obligatorio")
+    private String codigoLote;
+
+    @NotNull(message = "El número de bulto es obligatorio")
+    private Integer nroBulto;
+
+    @NotNull(message = "La cantidad es obligatoria")
+    private BigDecimal cantidad;
+
+    /**
+     * Trazas a vender en lotes trazados, una por unidad. Vacío para tomar las primeras disponibles del bulto.
+     */
+    private List<Long> nroTrazas = new ArrayList<>();
+
+}
@@ -87,6 +87,14 @@ public class LoteDTO {
     @Future(message = "La fecha de vencimiento del proveedor debe ser futura", groups = { AltaCompra.class })
     private LocalDate fechaVencimientoProveedor;
 
+    //Fechas vigentes materializadas en el lote; solo se completan desde LoteResumen
+    private LocalDate fechaReanalisisEfectiva;
+
+    private LocalDate fechaVencimientoEfectiva;
+
+    //Último número de análisis sin cargar los análisis; solo se completa desde LoteListado
+    private String ultimoNroAnalisis;
+
     private String detalleConservacion;
 
     //Datos de BAJA Obligatorios
@@ -187,6 +195,9 @@ public class LoteDTO {
     }
 
     public LocalDate getFechaVencimientoVigente() {
+        if (fechaVencimientoEfectiva != null) {
+            return fechaVencimientoEfectiva;
+        }
         final List<AnalisisDTO> list = this.analisisDTOs.stream().filter(a -> a.getDictamen() != null)
             .filter(a -> a.getCodigoLote().equals(this.codigoLote)).filter(a -> a.getFechaVencimiento() != null).toList();
         if (list.isEmpty()) {
@@ -212,6 +223,9 @@ public class LoteDTO {
     }
 
     public LocalDate getFechaReanalisisVigente() {
+        if (fechaReanalisisEfectiva != null) {
+            return fechaReanalisisEfectiva;
+        }
         AnalisisDTO analisis = this.analisisDTOs.stream()
             .filter(a -> a.getDictamen() != null)
             .filter(a -> a.getFechaReanalisis() != null)
@@ -251,7 +265,7 @@ public class LoteDTO {
     public String getUltimoNroAnalisisDto() {
         final AnalisisDTO currentAnalisis = getUltimoAnalisisDto();
         if (currentAnalisis == null) {
-            return null;
+            return ultimoNroAnalisis;
         }
         return currentAnalisis.getNroAnalisis();
     }
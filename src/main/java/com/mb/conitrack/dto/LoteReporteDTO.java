@@ -0,0 +1,57 @@
+package com.mb.conitrack.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.mb.conitrack.enums.DictamenEnum;
+import com.mb.conitrack.enums.EstadoEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO plano de lote para reportes de auditoría.
+ * Se construye directamente desde la consulta (constructor expression), sin cargar el grafo de entidades.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoteReporteDTO {
+
+    private Long id;
+
+    private String codigoLote;
+
+    private String codigoProducto;
+
+    private String nombreProducto;
+
+    private String nombreProveedor;
+
+    private String loteProveedor;
+
+    private LocalDate fechaIngreso;
+
+    private LocalDate fechaVencimientoProveedor;
+
+    private LocalDate fechaReanalisisProveedor;
+
+    private DictamenEnum dictamen;
+
+    private EstadoEnum estado;
+
+    private BigDecimal cantidadInicial;
+
+    private BigDecimal cantidadActual;
+
+    private UnidadMedidaEnum unidadMedida;
+
+    private Integer bultosTotales;
+
+    private Boolean trazado;
+
+    private Boolean activo;
+
+}
@@ -0,0 +1,57 @@
+package com.mb.conitrack.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+import com.mb.conitrack.enums.DictamenEnum;
+import com.mb.conitrack.enums.MotivoEnum;
+import com.mb.conitrack.enums.TipoMovimientoEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO plano de movimiento para reportes de auditoría.
+ * Se construye directamente desde la consulta (constructor expression), sin cargar el grafo de entidades.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimientoReporteDTO {
+
+    private Long id;
+
+    private String codigoMovimiento;
+
+    private Long loteId;
+
+    private String codigoLote;
+
+    private LocalDate fecha;
+
+    private OffsetDateTime fechaYHoraCreacion;
+
+    private TipoMovimientoEnum tipoMovimiento;
+
+    private MotivoEnum motivo;
+
+    private BigDecimal cantidad;
+
+    private UnidadMedidaEnum unidadMedida;
+
+    private DictamenEnum dictamenInicial;
+
+    private DictamenEnum dictamenFinal;
+
+    private String nroAnalisis;
+
+    private String codigoMovimientoOrigen;
+
+    private String creadoPor;
+
+    private Boolean activo;
+
+}
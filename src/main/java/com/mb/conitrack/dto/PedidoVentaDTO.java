@@ -0,0 +1,34 @@
+package com.mb.conitrack.dto;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pedido de venta (CU22) con líneas de varios lotes y productos.
+ * Se valida y aplica completo en una única transacción: un movimiento BAJA/VENTA por lote.
+ */
+@Data
+@NoArgsConstructor
+public class PedidoVentaDTO {
+
+    @NotNull(message = "La fecha de egreso es obligatoria")
+    private LocalDate fechaEgreso;
+
+    private String observaciones;
+
+    /** Lo asigna el servidor al recibir el pedido; es la fecha de creación de todos sus movimientos. */
+    private OffsetDateTime fechaYHoraCreacion;
+
+    @Valid
+    @NotEmpty(message = "El pedido debe tener al menos una línea")
+    private List<LineaVentaDTO> lineas = new ArrayList<>();
+
+}
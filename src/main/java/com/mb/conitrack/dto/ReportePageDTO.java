@@ -0,0 +1,22 @@
+package com.mb.conitrack.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Página de un reporte paginado por clave (keyset).
+ * Para pedir la página siguiente se envía {@code afterId = nextAfterId}; si es null no hay más datos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportePageDTO<T> {
+
+    private List<T> items;
+
+    private Long nextAfterId;
+
+}
@@ -0,0 +1,67 @@
+package com.mb.conitrack.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.mb.conitrack.enums.EstadoEnum;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de un lote de escaneos: trazas agrupadas por lote, bulto y estado, y el motivo de cada escaneo
+ * rechazado. Los escaneos repetidos dentro del lote se cuentan una sola vez.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResultadoEscaneosDTO {
+
+    /** Solo en la venta: si se aplicó el movimiento. */
+    private Boolean aplicado;
+
+    private int escaneos;
+
+    private int duplicados;
+
+    private List<GrupoEscaneo> grupos = new ArrayList<>();
+
+    private List<EscaneoRechazado> rechazos = new ArrayList<>();
+
+    /** Solo en la venta: resultado del pedido generado a partir de los grupos. */
+    private List<ResultadoLineaVentaDTO> lineasVenta;
+
+    /** Trazas escaneadas de un mismo bulto y estado, ordenadas por número. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class GrupoEscaneo {
+
+        private String codigoProducto;
+
+        private String codigoLote;
+
+        private Integer nroBulto;
+
+        private EstadoEnum estado;
+
+        private List<Long> nroTrazas = new ArrayList<>();
+
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EscaneoRechazado {
+
+        private String codigoProducto;
+
+        private Long nroTraza;
+
+        private String motivo;
+
+    }
+
+}
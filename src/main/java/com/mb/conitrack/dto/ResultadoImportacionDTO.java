@@ -0,0 +1,37 @@
+package com.mb.conitrack.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Resultado de una importación masiva: lotes creados y error de cada fila rechazada. */
+@Data
+@NoArgsConstructor
+public class ResultadoImportacionDTO {
+
+    private int filasLeidas;
+
+    private List<String> codigosLote = new ArrayList<>();
+
+    private List<ErrorFila> errores = new ArrayList<>();
+
+    public void agregarError(final int fila, final String error) {
+        errores.add(new ErrorFila(fila, error));
+    }
+
+    /** Error de una fila; la fila es el número de línea en el archivo. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ErrorFila {
+
+        private int fila;
+
+        private String error;
+
+    }
+
+}
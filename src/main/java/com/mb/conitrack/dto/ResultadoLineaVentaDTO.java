@@ -0,0 +1,43 @@
+package com.mb.conitrack.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Resultado de una línea del pedido de venta: el movimiento que la registró o el motivo del rechazo. */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class ResultadoLineaVentaDTO {
+
+    /** Posición de la línea en el pedido, desde 1. */
+    private int linea;
+
+    private String codigoLote;
+
+    private Integer nroBulto;
+
+    private BigDecimal cantidad;
+
+    private String codigoMovimiento;
+
+    /** Stock del bulto luego de aplicar el pedido completo. */
+    private BigDecimal stockBulto;
+
+    private List<Long> nroTrazas = new ArrayList<>();
+
+    private String error;
+
+    public ResultadoLineaVentaDTO(final int linea, final LineaVentaDTO dto) {
+        this.linea = linea;
+        this.codigoLote = dto.getCodigoLote();
+        this.nroBulto = dto.getNroBulto();
+        this.cantidad = dto.getCantidad();
+    }
+
+}
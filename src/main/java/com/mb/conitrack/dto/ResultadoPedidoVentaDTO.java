@@ -0,0 +1,22 @@
+package com.mb.conitrack.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de un pedido de venta. Si alguna línea es rechazada no se aplica ninguna y se informa el error de
+ * cada línea rechazada.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoPedidoVentaDTO {
+
+    private boolean aplicado;
+
+    private List<ResultadoLineaVentaDTO> lineas;
+
+}
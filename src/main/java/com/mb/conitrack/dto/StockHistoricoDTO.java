@@ -0,0 +1,37 @@
+package com.mb.conitrack.dto;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+import com.mb.conitrack.entity.SaldoCheckpoint.Nivel;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock de un bulto, lote o producto a una fecha, reconstruido desde los movimientos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHistoricoDTO {
+
+    private Nivel nivel;
+
+    private Long entidadId;
+
+    private OffsetDateTime fecha;
+
+    private BigDecimal cantidad;
+
+    private UnidadMedidaEnum unidadMedida;
+
+    /** Corte del checkpoint desde el que se reconstruyó, o null si se recorrieron todos los movimientos. */
+    private OffsetDateTime fechaCheckpoint;
+
+    /** Detalles de movimiento aplicados sobre el checkpoint. */
+    private int movimientosAplicados;
+
+}
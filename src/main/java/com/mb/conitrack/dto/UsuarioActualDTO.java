@@ -0,0 +1,48 @@
+package com.mb.conitrack.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import com.mb.conitrack.entity.maestro.Role;
+import com.mb.conitrack.entity.maestro.User;
+import com.mb.conitrack.enums.RoleEnum;
+
+/**
+ * Instantánea inmutable del usuario autenticado.
+ * Viaja en el principal de la sesión para que los chequeos de rol y permisos no consulten la base en cada llamada.
+ * {@code cargado} indica cuándo se leyó de la base, para descartarla si el usuario fue modificado después.
+ */
+public record UsuarioActualDTO(
+    Long id,
+    String username,
+    Integer nivel,
+    RoleEnum roleEnum,
+    boolean auditor,
+    LocalDate fechaExpiracion,
+    Instant cargado) implements Serializable {
+
+    public static UsuarioActualDTO de(final User user) {
+        return de(user, Instant.now());
+    }
+
+    public static UsuarioActualDTO de(final User user, final Instant cargado) {
+        final Role role = user.getRole();
+        return new UsuarioActualDTO(
+            user.getId(),
+            user.getUsername(),
+            role != null ? role.getNivel() : null,
+            role != null ? role.getRoleEnum() : null,
+            user.isAuditor(),
+            user.getFechaExpiracion(),
+            cargado);
+    }
+
+    /**
+     * Nombre del rol tal como se guarda en la tabla roles, o null si el usuario no tiene rol.
+     */
+    public String nombreRol() {
+        return roleEnum != null ? roleEnum.name() : null;
+    }
+
+}
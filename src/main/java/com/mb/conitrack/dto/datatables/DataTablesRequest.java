@@ -0,0 +1,125 @@
+package com.mb.conitrack.dto.datatables;
+
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import lombok.Getter;
+
+/**
+ * Parámetros de una petición server-side de DataTables (draw, start, length, search[value], order y columns).
+ * Solo se considera el primer criterio de orden; la columna se traduce a una propiedad mediante una lista blanca,
+ * por lo que el cliente no puede ordenar por propiedades arbitrarias.
+ */
+@Getter
+public class DataTablesRequest {
+
+    /** Filas por página si el cliente no indica un valor válido. */
+    public static final int LARGO_POR_DEFECTO = 25;
+
+    /** Máximo de filas por página; también se aplica cuando DataTables pide todas (length = -1). */
+    public static final int LARGO_MAXIMO = 500;
+
+    private final int draw;
+
+    private final int start;
+
+    private final int length;
+
+    private final String search;
+
+    /** Nombre ("data") de la columna por la que se pide ordenar, o null. */
+    private final String ordenColumna;
+
+    private final Sort.Direction ordenDireccion;
+
+    DataTablesRequest(
+        final int draw,
+        final int start,
+        final int length,
+        final String search,
+        final String ordenColumna,
+        final Sort.Direction ordenDireccion) {
+        this.draw = draw;
+        this.start = start;
+        this.length = length;
+        this.search = search;
+        this.ordenColumna = ordenColumna;
+        this.ordenDireccion = ordenDireccion;
+    }
+
+    /**
+     * Construye la petición a partir de los parámetros planos que envía DataTables.
+     */
+    public static DataTablesRequest from(final Map<String, String> params) {
+        final int draw = Math.max(0, entero(params.get("draw"), 0));
+        final int start = Math.max(0, entero(params.get("start"), 0));
+        int length = entero(params.get("length"), LARGO_POR_DEFECTO);
+        if (length <= 0 || length > LARGO_MAXIMO) {
+            length = length == 0 ? LARGO_POR_DEFECTO : LARGO_MAXIMO;
+        }
+        final String search = params.get("search[value]");
+        final String indiceOrden = params.get("order[0][column]");
+        final String ordenColumna = indiceOrden != null ? params.get("columns[" + indiceOrden + "][data]") : null;
+        final Sort.Direction ordenDireccion = "desc".equalsIgnoreCase(params.get("order[0][dir]"))
+            ? Sort.Direction.DESC
+            : Sort.Direction.ASC;
+        return new DataTablesRequest(
+            draw,
+            start,
+            length,
+            search != null && !search.isBlank() ? search.trim() : null,
+            ordenColumna,
+            ordenDireccion);
+    }
+
+    public boolean tieneFiltro() {
+        return search != null;
+    }
+
+    /** Texto de búsqueda en minúsculas para un {@code like}, o null si no hay búsqueda. */
+    public String getFiltroLike() {
+        return search != null ? "%" + search.toLowerCase(Locale.ROOT) + "%" : null;
+    }
+
+    /** Texto de búsqueda como número, o null si no hay búsqueda o no es numérico. */
+    public Long getFiltroNumero() {
+        if (search == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(search);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Página pedida, ordenada por la columna solicitada si figura en la lista blanca y luego por el orden por defecto.
+     *
+     * @param columnasOrdenables nombre de columna de DataTables a propiedad de la consulta
+     * @param ordenPorDefecto orden estable que se aplica siempre al final
+     */
+    public Pageable toPageable(final Map<String, String> columnasOrdenables, final Sort ordenPorDefecto) {
+        final String propiedad = ordenColumna != null ? columnasOrdenables.get(ordenColumna) : null;
+        final Sort orden = propiedad != null
+            ? Sort.by(ordenDireccion, propiedad).and(ordenPorDefecto)
+            : ordenPorDefecto;
+        return PageRequest.of(start / length, length, orden);
+    }
+
+    private static int entero(final String valor, final int porDefecto) {
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            return porDefecto;
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.mb.conitrack.dto.datatables;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Page;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Respuesta del protocolo server-side de DataTables.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataTablesResponse<T> {
+
+    private int draw;
+
+    private long recordsTotal;
+
+    private long recordsFiltered;
+
+    private List<T> data;
+
+    /**
+     * Arma la respuesta para una página ya consultada.
+     *
+     * @param recordsTotal total de filas sin filtrar; si la petición no tiene búsqueda coincide con el de la página
+     */
+    public static <E, T> DataTablesResponse<T> of(
+        final DataTablesRequest request,
+        final Page<E> pagina,
+        final long recordsTotal,
+        final Function<E, T> mapper) {
+        return new DataTablesResponse<>(
+            request.getDraw(),
+            recordsTotal,
+            pagina.getTotalElements(),
+            pagina.getContent().stream().map(mapper).toList());
+    }
+
+}
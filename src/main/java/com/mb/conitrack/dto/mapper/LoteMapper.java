@@ -2,6 +2,8 @@ package com.mb.conitrack.dto.mapper;
 
 import com.mb.conitrack.dto.BultoDTO;
 import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.projection.LoteListado;
+import com.mb.conitrack.dto.projection.LoteResumen;
 import com.mb.conitrack.entity.Analisis;
 import com.mb.conitrack.entity.Bulto;
 import com.mb.conitrack.entity.Lote;
@@ -36,6 +38,15 @@ public class LoteMapper {
      * Convierte una entidad Lote a DTO con toda su información relacionada.
      */
     public static LoteDTO fromEntity(Lote loteEntity) {
+        return fromEntity(loteEntity, true);
+    }
+
+    /**
+     * Convierte una entidad Lote a DTO.
+     * Con incluirTrazas en false no se recorren las trazas del lote ni de sus bultos (trazaDTOs queda vacía y
+     * trazaInicial sin calcular), para lotes recién trazados en forma masiva.
+     */
+    public static LoteDTO fromEntity(Lote loteEntity, boolean incluirTrazas) {
         if (loteEntity == null) {
             return null;
         }
@@ -50,10 +61,14 @@ public class LoteMapper {
         addBultoDTOs(loteEntity, loteDTO);
         addMovimientoDTOs(loteEntity, loteDTO);
         addAnalisisDTOs(loteEntity, loteDTO);
-        addTrazaDTOs(loteEntity, loteDTO);
+        if (incluirTrazas) {
+            addTrazaDTOs(loteEntity, loteDTO);
+        } else {
+            loteDTO.setTrazado(loteEntity.getTrazado() != null && loteEntity.getTrazado());
+        }
 
         Long trazaInicial = null;
-        if (loteEntity.getFirstActiveTraza() != null) {
+        if (incluirTrazas && loteEntity.getFirstActiveTraza() != null) {
             trazaInicial = loteEntity.getFirstActiveTraza().getNroTraza();
         }
 
@@ -63,11 +78,12 @@ public class LoteMapper {
                 continue;
             }
 
-            if (bultoEntity.getFirstActiveTraza() != null) {
+            final Traza primeraTrazaBulto = incluirTrazas ? bultoEntity.getFirstActiveTraza() : null;
+            if (primeraTrazaBulto != null) {
                 if (trazaInicial == null) {
-                    trazaInicial = bultoEntity.getFirstActiveTraza().getNroTraza();
+                    trazaInicial = primeraTrazaBulto.getNroTraza();
                 } else {
-                    trazaInicial = Math.min(trazaInicial, bultoEntity.getFirstActiveTraza().getNroTraza());
+                    trazaInicial = Math.min(trazaInicial, primeraTrazaBulto.getNroTraza());
                 }
             }
 
@@ -90,6 +106,73 @@ public class LoteMapper {
         return loteDTO;
     }
 
+    /**
+     * Convierte una lista de proyecciones LoteResumen a DTOs.
+     */
+    public static List<LoteDTO> fromResumenes(final List<LoteResumen> resumenes) {
+        final List<LoteDTO> lotesDtos = new ArrayList<>();
+        for (LoteResumen resumen : resumenes) {
+            lotesDtos.add(fromResumen(resumen));
+        }
+        return lotesDtos;
+    }
+
+    /**
+     * Convierte una proyección LoteResumen a DTO.
+     * Solo completa los datos escalares: las listas de bultos, movimientos, análisis y trazas quedan vacías.
+     */
+    public static LoteDTO fromResumen(final LoteResumen resumen) {
+        if (resumen == null) {
+            return null;
+        }
+
+        LoteDTO loteDTO = new LoteDTO();
+        loteDTO.setFechaYHoraCreacion(resumen.getFechaYHoraCreacion());
+        loteDTO.setCodigoLote(resumen.getCodigoLote());
+        loteDTO.setFechaIngreso(resumen.getFechaIngreso());
+        loteDTO.setLoteProveedor(resumen.getLoteProveedor());
+        loteDTO.setFechaVencimientoProveedor(resumen.getFechaVencimientoProveedor());
+        loteDTO.setFechaReanalisisProveedor(resumen.getFechaReanalisisProveedor());
+        loteDTO.setFechaVencimientoEfectiva(resumen.getFechaVencimientoEfectiva());
+        loteDTO.setFechaReanalisisEfectiva(resumen.getFechaReanalisisEfectiva());
+        loteDTO.setDictamen(resumen.getDictamen());
+        loteDTO.setEstado(resumen.getEstado());
+        loteDTO.setTrazado(TRUE.equals(resumen.getTrazado()));
+        loteDTO.setTrazaInicial(resumen.getTrazaInicial());
+        loteDTO.setCantidadInicial(resumen.getCantidadInicial());
+        loteDTO.setCantidadActual(resumen.getCantidadActual());
+        loteDTO.setUnidadMedida(resumen.getUnidadMedida());
+        loteDTO.setBultosTotales(resumen.getBultosTotales());
+        loteDTO.setProductoId(resumen.getProductoId());
+        loteDTO.setCodigoProducto(resumen.getCodigoProducto());
+        loteDTO.setNombreProducto(resumen.getNombreProducto());
+        loteDTO.setTipoProducto(resumen.getTipoProducto());
+        loteDTO.setProveedorId(resumen.getProveedorId());
+        loteDTO.setNombreProveedor(resumen.getNombreProveedor());
+        return loteDTO;
+    }
+
+    /**
+     * Convierte una proyección LoteListado a DTO para el listado general paginado.
+     * Las listas quedan vacías; el último número de análisis se informa sin cargar los análisis.
+     */
+    public static LoteDTO fromListado(final LoteListado listado) {
+        if (listado == null) {
+            return null;
+        }
+
+        final LoteDTO loteDTO = fromResumen(listado);
+        loteDTO.setPaisOrigen(listado.getPaisOrigen());
+        loteDTO.setNroRemito(listado.getNroRemito());
+        loteDTO.setOrdenProduccion(listado.getOrdenProduccion());
+        loteDTO.setObservaciones(listado.getObservaciones());
+        loteDTO.setProductoDestino(listado.getProductoDestino());
+        loteDTO.setFabricanteId(listado.getFabricanteId());
+        loteDTO.setNombreFabricante(listado.getNombreFabricante());
+        loteDTO.setUltimoNroAnalisis(listado.getUltimoNroAnalisis());
+        return loteDTO;
+    }
+
     /**
      * Agrega análisis del lote y del lote origen (si existe) al DTO.
      */
@@ -2,6 +2,7 @@ package com.mb.conitrack.dto.mapper;
 
 import com.mb.conitrack.dto.TrazaDTO;
 import com.mb.conitrack.entity.Traza;
+import com.mb.conitrack.entity.TrazaRango;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -39,4 +40,24 @@ public class TrazaMapper {
         dto.setObservaciones(entity.getObservaciones());
         return dto;
     }
+
+    /**
+     * Expande rangos de trazas a un DTO por unidad, en orden de número de traza.
+     */
+    public static List<TrazaDTO> fromRangos(final List<TrazaRango> rangos) {
+        final List<TrazaDTO> trazaDTOs = new ArrayList<>();
+        for (TrazaRango rango : rangos) {
+            for (long nro = rango.getNroDesde(); nro <= rango.getNroHasta(); nro++) {
+                TrazaDTO dto = new TrazaDTO();
+                dto.setFechaYHoraCreacion(rango.getFechaYHoraCreacion());
+                dto.setCodigoProducto(rango.getProducto().getCodigoProducto());
+                dto.setCodigoLote(rango.getLote().getCodigoLote());
+                dto.setNroBulto(rango.getBulto().getNroBulto());
+                dto.setEstado(rango.getEstado());
+                dto.setNroTraza(nro);
+                trazaDTOs.add(dto);
+            }
+        }
+        return trazaDTOs;
+    }
 }
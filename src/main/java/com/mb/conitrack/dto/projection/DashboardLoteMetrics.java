@@ -0,0 +1,19 @@
+package com.mb.conitrack.dto.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección con los agregados de lotes que usa el dashboard.
+ * Se resuelve con una única consulta agregada sobre la tabla de lotes.
+ */
+public interface DashboardLoteMetrics {
+
+    Long getLotesActivos();
+
+    Long getLotesCuarentena();
+
+    BigDecimal getStockTotal();
+
+    Long getAlertasPendientes();
+
+}
@@ -0,0 +1,24 @@
+package com.mb.conitrack.dto.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Fechas materializadas de un lote, usadas para refrescar las fechas vigentes sin cargar la entidad.
+ */
+public interface LoteFechasVigentes {
+
+    Long getId();
+
+    LocalDate getFechaVencimientoProveedor();
+
+    LocalDate getFechaVencimientoAnalisis();
+
+    LocalDate getFechaVencimientoEfectiva();
+
+    LocalDate getFechaReanalisisProveedor();
+
+    LocalDate getFechaReanalisisAnalisis();
+
+    LocalDate getFechaReanalisisEfectiva();
+
+}
@@ -0,0 +1,25 @@
+package com.mb.conitrack.dto.projection;
+
+/**
+ * Proyección de un lote para el listado general paginado.
+ * Agrega a {@link LoteResumen} los datos de alta y el último análisis, sin cargar colecciones.
+ */
+public interface LoteListado extends LoteResumen {
+
+    String getPaisOrigen();
+
+    String getNroRemito();
+
+    String getOrdenProduccion();
+
+    String getObservaciones();
+
+    String getProductoDestino();
+
+    Long getFabricanteId();
+
+    String getNombreFabricante();
+
+    String getUltimoNroAnalisis();
+
+}
@@ -0,0 +1,64 @@
+package com.mb.conitrack.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+import com.mb.conitrack.enums.DictamenEnum;
+import com.mb.conitrack.enums.EstadoEnum;
+import com.mb.conitrack.enums.TipoProductoEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+
+/**
+ * Proyección plana de un lote para selectores y listados.
+ * Incluye los datos de producto/proveedor y la primera traza activa, sin cargar colecciones.
+ */
+public interface LoteResumen {
+
+    Long getId();
+
+    OffsetDateTime getFechaYHoraCreacion();
+
+    String getCodigoLote();
+
+    LocalDate getFechaIngreso();
+
+    String getLoteProveedor();
+
+    LocalDate getFechaVencimientoProveedor();
+
+    LocalDate getFechaReanalisisProveedor();
+
+    DictamenEnum getDictamen();
+
+    EstadoEnum getEstado();
+
+    Boolean getTrazado();
+
+    BigDecimal getCantidadInicial();
+
+    BigDecimal getCantidadActual();
+
+    UnidadMedidaEnum getUnidadMedida();
+
+    Integer getBultosTotales();
+
+    LocalDate getFechaVencimientoEfectiva();
+
+    LocalDate getFechaReanalisisEfectiva();
+
+    Long getProductoId();
+
+    String getCodigoProducto();
+
+    String getNombreProducto();
+
+    TipoProductoEnum getTipoProducto();
+
+    Long getProveedorId();
+
+    String getNombreProveedor();
+
+    Long getTrazaInicial();
+
+}
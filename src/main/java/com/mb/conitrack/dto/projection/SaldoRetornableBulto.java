@@ -0,0 +1,19 @@
+package com.mb.conitrack.dto.projection;
+
+import java.math.BigDecimal;
+
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+
+/**
+ * Saldo retornable de un bulto vendido: unidades de la venta que todavía pueden volver por devolución o recall.
+ * El saldo es null en detalles de venta que no pasaron por la migración del saldo.
+ */
+public interface SaldoRetornableBulto {
+
+    Integer getNroBulto();
+
+    BigDecimal getSaldoRetornable();
+
+    UnidadMedidaEnum getUnidadMedida();
+
+}
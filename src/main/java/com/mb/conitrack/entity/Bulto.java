@@ -1,25 +1,26 @@
 package com.mb.conitrack.entity;
 
 import java.math.BigDecimal;
-import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.hibernate.annotations.SQLDelete;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.mb.conitrack.enums.EstadoEnum;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 
 import static jakarta.persistence.CascadeType.MERGE;
@@ -32,7 +33,7 @@ import static jakarta.persistence.CascadeType.PERSIST;
 @Entity
 @Table(name = "bultos")
 @SQLDelete(sql = "UPDATE bultos SET activo = false WHERE id = ?")
-@ToString(exclude = { "lote", "trazas", "detalles" })
+@ToString(exclude = { "lote", "trazas", "detalles", "indiceTrazas" })
 public class Bulto {
 
     @Id
@@ -40,6 +41,12 @@ public class Bulto {
     @EqualsAndHashCode.Include
     private Long id;
 
+    /** Versión para control de concurrencia optimista: dos bajas sobre la misma fila no pueden pisarse el stock. */
+    @Version
+    @Column(name = "version", nullable = false)
+    @EqualsAndHashCode.Exclude
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "lote_id", nullable = false)
     @JsonBackReference
@@ -77,6 +84,14 @@ public class Bulto {
     @Column(nullable = false)
     private Boolean activo;
 
+    /** Índice de trazas del bulto cargado; no se persiste ni se serializa. */
+    @Transient
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private IndiceTrazas indiceTrazas;
+
     //****** DETALLES ******//
     public List<DetalleMovimiento> getActiveDetallesMov() {
             return this.detalles.stream()
@@ -89,9 +104,7 @@ public class Bulto {
         } else if (this.trazas.size() == 1) {
             return this.trazas.stream().filter(Traza::getActivo).findFirst().orElse(null);
         } else {
-            return this.trazas.stream()
-                .filter(Traza::getActivo).min(Comparator.comparing(Traza::getNroTraza))
-                .orElse(null);
+            return indiceTrazas().primeraActiva();
         }
     }
 
@@ -99,19 +112,10 @@ public class Bulto {
         if (trazas == null || trazas.isEmpty()) {
             return null;
         }
-
-        Stream<Traza> stream = trazas.stream();
-
         if (trazas.size() > size) {
-            stream = stream
-                .filter(Traza::getActivo)
-                .filter(t -> t.getEstado() == EstadoEnum.DISPONIBLE);
+            return indiceTrazas().primerasActivas(EstadoEnum.DISPONIBLE, size);
         }
-
-        return stream
-            .sorted(Comparator.comparing(Traza::getNroTraza)) // orden ascendente por nroTraza
-            .limit(size)                                      // máximo 'size' elementos
-            .collect(Collectors.toList());
+        return indiceTrazas().primeras(size);
     }
 
     public Traza getTrazaByNro(long nroTraza) {
@@ -122,11 +126,28 @@ public class Bulto {
             Traza unica = this.trazas.stream().filter(Traza::getActivo).findFirst().orElse(null);
             return (unica != null && unica.getNroTraza() == nroTraza) ? unica : null;
         }
-        return this.trazas.stream()
-            .filter(Traza::getActivo)
-            .filter(t -> t.getNroTraza() == nroTraza)
-            .findFirst()
-            .orElse(null);
+        return indiceTrazas().buscarActiva(nroTraza);
+    }
+
+    /** Aviso de {@link Traza}: una traza del bulto entró a su estado actual o volvió a estar activa. */
+    public void trazaModificada(final Traza traza) {
+        if (indiceTrazas != null) {
+            indiceTrazas.trazaModificada(traza);
+        }
+    }
+
+    /** Aviso de {@link Traza}: una traza del bulto pasó a otro bulto. */
+    public void trazaDesvinculada() {
+        if (indiceTrazas != null) {
+            indiceTrazas.trazaDesvinculada();
+        }
+    }
+
+    private IndiceTrazas indiceTrazas() {
+        if (indiceTrazas == null || !indiceTrazas.vigentePara(trazas)) {
+            indiceTrazas = new IndiceTrazas(trazas);
+        }
+        return indiceTrazas;
     }
 
 }
@@ -7,6 +7,7 @@ import java.util.Set;
 import org.hibernate.annotations.SQLDelete;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.mb.conitrack.enums.MotivoEnum;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
 
 import jakarta.persistence.*;
@@ -50,6 +51,13 @@ public class DetalleMovimiento {
     @Column(nullable = false)
     private Boolean activo;
 
+    /**
+     * Solo en detalles de VENTA: unidades del bulto vendido que todavía pueden volver por devolución (CU23) o recall
+     * (CU24). Lo mantienen los altas de devolución/recall y sus reversos con updates atómicos.
+     */
+    @Column(name = "saldo_retornable", precision = 12, scale = 4)
+    private BigDecimal saldoRetornable;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "trazas_detalles",
@@ -60,5 +68,12 @@ public class DetalleMovimiento {
     @Builder.Default
     private Set<Traza> trazas = new HashSet<>();
 
+    @PrePersist
+    void inicializarSaldoRetornable() {
+        if (saldoRetornable == null && movimiento != null && movimiento.getMotivo() == MotivoEnum.VENTA) {
+            saldoRetornable = cantidad;
+        }
+    }
+
 }
 
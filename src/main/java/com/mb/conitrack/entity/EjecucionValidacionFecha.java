@@ -0,0 +1,100 @@
+package com.mb.conitrack.entity;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidad: Ejecución del proceso nocturno de validación de fechas (CU9/CU10).
+ * Guarda el punto de avance (fase y último lote procesado) para reanudar tras una falla,
+ * y las métricas de la corrida.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "ejecuciones_validacion_fecha")
+public class EjecucionValidacionFecha {
+
+    /** Fases del proceso, en orden de ejecución. */
+    public enum Fase {
+        ANALISIS_EXPIRADO, VENCIMIENTO
+    }
+
+    public enum Estado {
+        EN_CURSO, COMPLETADA, FALLIDA
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Fecha de referencia con la que se evalúan los vencimientos. */
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    @Column(name = "fecha_inicio", nullable = false)
+    private OffsetDateTime fechaInicio;
+
+    @Column(name = "fecha_fin")
+    private OffsetDateTime fechaFin;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private Estado estado;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private Fase fase;
+
+    /** Último id de lote procesado en la fase actual (cursor por clave). */
+    @Column(name = "cursor_lote_id", nullable = false)
+    private Long cursorLoteId = 0L;
+
+    @Column(name = "lotes_evaluados", nullable = false)
+    private Long lotesEvaluados = 0L;
+
+    @Column(name = "lotes_analisis_expirado", nullable = false)
+    private Long lotesAnalisisExpirado = 0L;
+
+    @Column(name = "lotes_vencidos", nullable = false)
+    private Long lotesVencidos = 0L;
+
+    @Column(nullable = false)
+    private Integer chunks = 0;
+
+    /** Duración acumulada de todos los intentos de la ejecución. */
+    @Column(name = "duracion_ms", nullable = false)
+    private Long duracionMs = 0L;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    /** Registra un chunk confirmado: avanza el cursor y acumula métricas. */
+    public void registrarChunk(final Long ultimoLoteId, final int evaluados, final int modificados) {
+        this.cursorLoteId = ultimoLoteId;
+        this.lotesEvaluados += evaluados;
+        if (fase == Fase.ANALISIS_EXPIRADO) {
+            this.lotesAnalisisExpirado += modificados;
+        } else {
+            this.lotesVencidos += modificados;
+        }
+        this.chunks++;
+    }
+
+    /** Pasa a la fase siguiente reiniciando el cursor. */
+    public void avanzarFase(final Fase siguiente) {
+        this.fase = siguiente;
+        this.cursorLoteId = 0L;
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.mb.conitrack.entity;
+
+import java.util.List;
+
+import static java.lang.Boolean.TRUE;
+
+/**
+ * Índice en memoria de los bultos de un lote por número de bulto. Se arma en la primera búsqueda sobre el lote
+ * cargado y queda sin efecto si se reemplaza la lista o cambia su tamaño. Cada acierto se vuelve a comprobar
+ * (activo y número), así que una baja o renumeración no lo corrompe: el llamador recurre a la búsqueda lineal.
+ */
+final class IndiceBultos {
+
+    /** Lista indexada y su tamaño al armar el índice. */
+    private final List<Bulto> origen;
+
+    private final int tamanio;
+
+    /** Posición = nroBulto; los números sin bulto quedan en null. */
+    private final Bulto[] porNro;
+
+    IndiceBultos(final List<Bulto> bultos) {
+        this.origen = bultos;
+        this.tamanio = bultos.size();
+        int maximo = 0;
+        for (Bulto bulto : bultos) {
+            if (bulto.getNroBulto() != null) {
+                maximo = Math.max(maximo, bulto.getNroBulto());
+            }
+        }
+        this.porNro = new Bulto[maximo + 1];
+        for (Bulto bulto : bultos) {
+            final Integer nro = bulto.getNroBulto();
+            // Ante números repetidos gana el primer bulto activo, igual que en la búsqueda lineal
+            if (nro != null && nro > 0 && (porNro[nro] == null || !TRUE.equals(porNro[nro].getActivo()))) {
+                porNro[nro] = bulto;
+            }
+        }
+    }
+
+    boolean vigentePara(final List<Bulto> bultos) {
+        return origen == bultos && tamanio == bultos.size();
+    }
+
+    /** Bulto activo con el número indicado si el índice lo tiene vigente, o null si hay que buscarlo en la lista. */
+    Bulto buscarActivo(final int nroBulto) {
+        if (nroBulto <= 0 || nroBulto >= porNro.length) {
+            return null;
+        }
+        final Bulto bulto = porNro[nroBulto];
+        return bulto != null && TRUE.equals(bulto.getActivo()) && bulto.getNroBulto() == nroBulto ? bulto : null;
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.mb.conitrack.entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mb.conitrack.enums.EstadoEnum;
+
+import static java.lang.Boolean.TRUE;
+
+/**
+ * Índice en memoria de las trazas de un bulto: por número de traza, todas ordenadas por número y, por estado, las
+ * activas en ese estado también ordenadas. Se arma en la primera búsqueda sobre el bulto cargado; las listas por
+ * estado se arman recién cuando se consulta ese estado.
+ * <p>
+ * Las trazas avisan al bulto cuando cambian de estado, se reactivan o pasan a otro bulto (ver {@link Traza}), y el
+ * índice descarta solo la parte afectada. Salir de un estado o desactivarse no necesita aviso: las búsquedas
+ * vuelven a comprobar estado y activo de cada traza.
+ * </p>
+ */
+final class IndiceTrazas {
+
+    private static final Comparator<Traza> POR_NRO = Comparator.comparing(Traza::getNroTraza);
+
+    /** Colección indexada y su tamaño al armar el índice: un alta o baja en la colección lo deja sin efecto. */
+    private final Collection<Traza> origen;
+
+    private final int tamanio;
+
+    private final Map<Long, Traza> porNro;
+
+    private final Traza[] ordenadas;
+
+    private final Map<EstadoEnum, Traza[]> activasPorEstado = new EnumMap<>(EstadoEnum.class);
+
+    /** Primera posición de cada lista por estado que todavía puede estar en ese estado. */
+    private final Map<EstadoEnum, Integer> inicioPorEstado = new EnumMap<>(EstadoEnum.class);
+
+    IndiceTrazas(final Collection<Traza> trazas) {
+        this.origen = trazas;
+        this.tamanio = trazas.size();
+        this.ordenadas = trazas.toArray(new Traza[0]);
+        Arrays.sort(this.ordenadas, POR_NRO);
+        this.porNro = new HashMap<>(tamanio * 4 / 3 + 1);
+        for (Traza traza : ordenadas) {
+            indexarNro(traza);
+        }
+    }
+
+    boolean vigentePara(final Collection<Traza> trazas) {
+        return origen == trazas && tamanio == trazas.size();
+    }
+
+    /** Traza activa con el número indicado, o null si no hay. */
+    Traza buscarActiva(final long nroTraza) {
+        final Traza traza = porNro.get(nroTraza);
+        return traza != null && TRUE.equals(traza.getActivo()) ? traza : null;
+    }
+
+    /** Primera traza activa por número. */
+    Traza primeraActiva() {
+        for (Traza traza : ordenadas) {
+            if (TRUE.equals(traza.getActivo())) {
+                return traza;
+            }
+        }
+        return null;
+    }
+
+    /** Las primeras {@code cantidad} trazas activas en el estado indicado, por número ascendente. */
+    List<Traza> primerasActivas(final EstadoEnum estado, final int cantidad) {
+        final Traza[] candidatas = activasPorEstado.computeIfAbsent(estado, this::activasEn);
+        int inicio = inicioPorEstado.getOrDefault(estado, 0);
+        // Las que salieron del estado al principio de la lista se saltean una sola vez
+        while (inicio < candidatas.length && !sigueActiva(candidatas[inicio], estado)) {
+            inicio++;
+        }
+        inicioPorEstado.put(estado, inicio);
+
+        final List<Traza> resultado = new ArrayList<>(Math.max(0, Math.min(cantidad, candidatas.length - inicio)));
+        for (int i = inicio; i < candidatas.length && resultado.size() < cantidad; i++) {
+            if (sigueActiva(candidatas[i], estado)) {
+                resultado.add(candidatas[i]);
+            }
+        }
+        return resultado;
+    }
+
+    /** Las primeras {@code cantidad} trazas por número, sin filtrar. */
+    List<Traza> primeras(final int cantidad) {
+        final int hasta = Math.max(0, Math.min(cantidad, ordenadas.length));
+        return new ArrayList<>(Arrays.asList(ordenadas).subList(0, hasta));
+    }
+
+    /** La traza entró al estado que tiene ahora o volvió a estar activa. */
+    void trazaModificada(final Traza traza) {
+        if (TRUE.equals(traza.getActivo()) && indexada(traza)) {
+            indexarNro(traza);
+        }
+        descartarEstado(traza.getEstado());
+    }
+
+    /** La traza pasó a otro bulto: ya no avisa a este, así que ninguna lista por estado queda garantizada. */
+    void trazaDesvinculada() {
+        activasPorEstado.clear();
+        inicioPorEstado.clear();
+    }
+
+    private void descartarEstado(final EstadoEnum estado) {
+        if (estado != null) {
+            activasPorEstado.remove(estado);
+            inicioPorEstado.remove(estado);
+        }
+    }
+
+    /** Ante números repetidos gana la traza activa, igual que en la búsqueda lineal. */
+    private void indexarNro(final Traza traza) {
+        porNro.merge(traza.getNroTraza(), traza, (anterior, nueva) -> TRUE.equals(anterior.getActivo())
+            ? anterior
+            : nueva);
+    }
+
+    /** Si la traza es una de las indexadas (por identidad: el bulto de la traza puede no ser el de la colección). */
+    private boolean indexada(final Traza traza) {
+        final int posicion = Arrays.binarySearch(ordenadas, traza, POR_NRO);
+        if (posicion < 0) {
+            return false;
+        }
+        int desde = posicion;
+        while (desde > 0 && POR_NRO.compare(ordenadas[desde - 1], traza) == 0) {
+            desde--;
+        }
+        for (int i = desde; i < ordenadas.length && POR_NRO.compare(ordenadas[i], traza) == 0; i++) {
+            if (ordenadas[i] == traza) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Traza[] activasEn(final EstadoEnum estado) {
+        return Arrays.stream(ordenadas)
+            .filter(t -> sigueActiva(t, estado))
+            .toArray(Traza[]::new);
+    }
+
+    private static boolean sigueActiva(final Traza traza, final EstadoEnum estado) {
+        return TRUE.equals(traza.getActivo()) && traza.getEstado() == estado;
+    }
+
+}
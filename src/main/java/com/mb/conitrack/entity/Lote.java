@@ -8,11 +8,13 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 import org.hibernate.annotations.SQLDelete;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.mb.conitrack.entity.maestro.Producto;
 import com.mb.conitrack.entity.maestro.Proveedor;
@@ -21,10 +23,13 @@ import com.mb.conitrack.enums.EstadoEnum;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
@@ -41,7 +46,7 @@ import static jakarta.persistence.CascadeType.PERSIST;
 @SQLDelete(sql = "UPDATE lotes SET activo = false WHERE id = ?")
 @ToString(exclude = {
     "producto", "proveedor", "fabricante",
-    "bultos", "movimientos", "analisisList", "trazas"
+    "bultos", "movimientos", "analisisList", "trazas", "indiceBultos"
 })
 public class Lote {
 
@@ -50,6 +55,12 @@ public class Lote {
     @EqualsAndHashCode.Include
     private Long id;
 
+    /** Versión para control de concurrencia optimista: dos bajas sobre la misma fila no pueden pisarse el stock. */
+    @Version
+    @Column(name = "version", nullable = false)
+    @EqualsAndHashCode.Exclude
+    private Long version;
+
     @Column(name = "fecha_creacion", nullable = false)
     private OffsetDateTime fechaYHoraCreacion;
 
@@ -90,6 +101,22 @@ public class Lote {
     @Column(name = "fecha_vto_prov", nullable = false)
     private LocalDate fechaVencimientoProveedor;
 
+    /** Fecha de vencimiento del análisis dictaminado vigente (materializada desde analisisList). */
+    @Column(name = "fecha_vto_analisis")
+    private LocalDate fechaVencimientoAnalisis;
+
+    /** Menor fecha de reanálisis de los análisis dictaminados activos (materializada desde analisisList). */
+    @Column(name = "fecha_reanal_analisis")
+    private LocalDate fechaReanalisisAnalisis;
+
+    /** Fecha de vencimiento vigente al último refresco; ver {@link #getFechaVencimientoVigente()}. */
+    @Column(name = "fecha_vto_efectiva")
+    private LocalDate fechaVencimientoEfectiva;
+
+    /** Fecha de reanálisis vigente al último refresco; ver {@link #getFechaReanalisisVigente()}. */
+    @Column(name = "fecha_reanal_efectiva")
+    private LocalDate fechaReanalisisEfectiva;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "estado", nullable = false)
     private EstadoEnum estado;
@@ -155,6 +182,14 @@ public class Lote {
     @Column(name = "unidad_medida", nullable = false)
     private UnidadMedidaEnum unidadMedida;
 
+    /** Índice de bultos por número del lote cargado; no se persiste ni se serializa. */
+    @Transient
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private IndiceBultos indiceBultos;
+
     //****** BULTOS ******//
     public Bulto getBultoByNro(int nroBulto) {
         if (this.bultos == null || this.bultos.isEmpty()) {
@@ -164,6 +199,14 @@ public class Lote {
             Bulto unico = this.bultos.get(0);
             return (nroBulto == unico.getNroBulto() && unico.getActivo()) ? unico : null;
         }
+        if (indiceBultos == null || !indiceBultos.vigentePara(this.bultos)) {
+            indiceBultos = new IndiceBultos(this.bultos);
+        }
+        final Bulto indexado = indiceBultos.buscarActivo(nroBulto);
+        if (indexado != null) {
+            return indexado;
+        }
+        // Número ausente del índice o bulto dado de baja/renumerado después de armarlo
         return this.bultos.stream()
             .filter(Bulto::getActivo)
             .filter(b -> b.getNroBulto() == nroBulto)
@@ -189,14 +232,7 @@ public class Lote {
         if (list.isEmpty()) {
             return fechaVencimientoProveedor;
         } else if (list.size() == 1) {
-            LocalDate fechaAnalisis = list.get(0).getFechaVencimiento();
-            if (fechaAnalisis == null || fechaVencimientoProveedor == null) {
-                return fechaAnalisis != null ? fechaAnalisis : fechaVencimientoProveedor;
-            }
-            LocalDate hoy = LocalDate.now();
-            long diffProveedor = Math.abs(ChronoUnit.DAYS.between(hoy, fechaVencimientoProveedor));
-            long diffAnalisis = Math.abs(ChronoUnit.DAYS.between(hoy, fechaAnalisis));
-            return diffAnalisis <= diffProveedor ? fechaAnalisis : fechaVencimientoProveedor;
+            return fechaMasCercana(fechaVencimientoProveedor, list.get(0).getFechaVencimiento(), LocalDate.now());
         } else {
             throw new IllegalStateException("Hay más de un análisis activo con fecha de vencimiento");
         }
@@ -211,24 +247,64 @@ public class Lote {
     }
 
     public LocalDate getFechaReanalisisVigente() {
-        Analisis analisis = this.analisisList.stream()
-            .filter(Analisis::getActivo)
+        return fechaMasCercana(fechaReanalisisProveedor, getMenorFechaReanalisisAnalisis(), LocalDate.now());
+    }
+
+    /**
+     * Recalcula las fechas materializadas a partir de analisisList y las fechas del proveedor.
+     * Debe invocarse con la lista de análisis cargada, luego de crear, dictaminar o anular un análisis.
+     */
+    public void actualizarFechasVigentes() {
+        this.fechaVencimientoAnalisis = this.analisisList.stream()
+            .filter(a -> Boolean.TRUE.equals(a.getActivo()))
             .filter(a -> a.getDictamen() != null)
-            .filter(a -> a.getFechaReanalisis() != null)
-            .min(Comparator.comparing(Analisis::getFechaReanalisis))
+            .filter(a -> a.getFechaVencimiento() != null)
+            .max(Comparator.comparing(Analisis::getFechaYHoraCreacion,
+                Comparator.nullsFirst(Comparator.naturalOrder())))
+            .map(Analisis::getFechaVencimiento)
             .orElse(null);
-        if (analisis == null) {
-            return fechaReanalisisProveedor;
-        } else {
-            LocalDate fechaAnalisis = analisis.getFechaReanalisis();
-            if (fechaAnalisis == null || fechaReanalisisProveedor == null) {
-                return fechaAnalisis != null ? fechaAnalisis : fechaReanalisisProveedor;
-            }
-            LocalDate hoy = LocalDate.now();
-            long diffProveedor = Math.abs(ChronoUnit.DAYS.between(hoy, fechaReanalisisProveedor));
-            long diffAnalisis = Math.abs(ChronoUnit.DAYS.between(hoy, fechaAnalisis));
-            return diffAnalisis <= diffProveedor ? fechaAnalisis : fechaReanalisisProveedor;
+        this.fechaReanalisisAnalisis = getMenorFechaReanalisisAnalisis();
+        refrescarFechasEfectivas(LocalDate.now());
+    }
+
+    /**
+     * Recalcula las fechas vigentes materializadas con las fechas ya materializadas, sin recorrer analisisList.
+     * La fecha vigente depende del día (la más cercana a hoy), por eso se refresca diariamente.
+     */
+    public void refrescarFechasEfectivas(final LocalDate hoy) {
+        this.fechaVencimientoEfectiva = fechaMasCercana(fechaVencimientoProveedor, fechaVencimientoAnalisis, hoy);
+        this.fechaReanalisisEfectiva = fechaMasCercana(fechaReanalisisProveedor, fechaReanalisisAnalisis, hoy);
+    }
+
+    /**
+     * Entre la fecha del proveedor y la del análisis, devuelve la más cercana a hoy (ante empate, la del análisis).
+     * Si alguna es null devuelve la otra.
+     */
+    public static LocalDate fechaMasCercana(
+        final LocalDate fechaProveedor,
+        final LocalDate fechaAnalisis,
+        final LocalDate hoy) {
+        if (fechaAnalisis == null || fechaProveedor == null) {
+            return fechaAnalisis != null ? fechaAnalisis : fechaProveedor;
         }
+        long diffProveedor = Math.abs(ChronoUnit.DAYS.between(hoy, fechaProveedor));
+        long diffAnalisis = Math.abs(ChronoUnit.DAYS.between(hoy, fechaAnalisis));
+        return diffAnalisis <= diffProveedor ? fechaAnalisis : fechaProveedor;
+    }
+
+    @PrePersist
+    void inicializarFechasVigentes() {
+        actualizarFechasVigentes();
+    }
+
+    private LocalDate getMenorFechaReanalisisAnalisis() {
+        return this.analisisList.stream()
+            .filter(a -> Boolean.TRUE.equals(a.getActivo()))
+            .filter(a -> a.getDictamen() != null)
+            .map(Analisis::getFechaReanalisis)
+            .filter(Objects::nonNull)
+            .min(Comparator.naturalOrder())
+            .orElse(null);
     }
 
     public String getUltimoNroAnalisis() {
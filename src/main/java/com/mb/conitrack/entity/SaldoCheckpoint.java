@@ -0,0 +1,83 @@
+package com.mb.conitrack.entity;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidad: Saldo de stock de un bulto, lote o producto a una fecha de corte.
+ * Es un dato derivado de los movimientos: el stock a una fecha se obtiene partiendo del checkpoint más cercano
+ * anterior y aplicando solo los movimientos posteriores. Un checkpoint se escribe únicamente para las entidades
+ * con movimientos desde el corte anterior; para el resto sigue valiendo su último checkpoint.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "saldos_checkpoint", uniqueConstraints = @UniqueConstraint(
+    name = "uk_saldos_checkpoint", columnNames = { "nivel", "entidad_id", "fecha_corte" }))
+public class SaldoCheckpoint {
+
+    /** Nivel de agregación del saldo. */
+    public enum Nivel {
+        BULTO, LOTE, PRODUCTO;
+
+        public static Nivel from(final String valor) {
+            for (Nivel nivel : values()) {
+                if (nivel.name().equalsIgnoreCase(valor)) {
+                    return nivel;
+                }
+            }
+            throw new IllegalArgumentException("Nivel de saldo no soportado: " + valor);
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Nivel nivel;
+
+    /** Id del bulto, lote o producto según el nivel. */
+    @Column(name = "entidad_id", nullable = false)
+    private Long entidadId;
+
+    /** Incluye los movimientos creados hasta este instante, inclusive. */
+    @Column(name = "fecha_corte", nullable = false)
+    private OffsetDateTime fechaCorte;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal cantidad;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "unidad_medida", nullable = false, length = 50)
+    private UnidadMedidaEnum unidadMedida;
+
+    public SaldoCheckpoint(
+        final Nivel nivel,
+        final Long entidadId,
+        final OffsetDateTime fechaCorte,
+        final BigDecimal cantidad,
+        final UnidadMedidaEnum unidadMedida) {
+        this.nivel = nivel;
+        this.entidadId = entidadId;
+        this.fechaCorte = fechaCorte;
+        this.cantidad = cantidad;
+        this.unidadMedida = unidadMedida;
+    }
+
+}
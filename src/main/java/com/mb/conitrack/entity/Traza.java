@@ -4,6 +4,7 @@ import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.SQLDelete;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
@@ -71,4 +72,37 @@ public class Traza {
     @Column(nullable = false)
     private Boolean activo;
 
+    //****** AVISOS AL ÍNDICE DEL BULTO ******//
+    // Hibernate asigna los campos directamente al cargar: estos setters solo corren en los cambios de los CU.
+
+    public void setEstado(final EstadoEnum estado) {
+        final boolean cambio = this.estado != estado;
+        this.estado = estado;
+        if (cambio) {
+            avisarModificacion();
+        }
+    }
+
+    public void setActivo(final Boolean activo) {
+        final boolean reactivada = Boolean.TRUE.equals(activo) && !Boolean.TRUE.equals(this.activo);
+        this.activo = activo;
+        if (reactivada) {
+            avisarModificacion();
+        }
+    }
+
+    public void setBulto(final Bulto bulto) {
+        final Bulto anterior = this.bulto;
+        this.bulto = bulto;
+        if (anterior != null && anterior != bulto && Hibernate.isInitialized(anterior)) {
+            anterior.trazaDesvinculada();
+        }
+    }
+
+    private void avisarModificacion() {
+        if (bulto != null && Hibernate.isInitialized(bulto)) {
+            bulto.trazaModificada(this);
+        }
+    }
+
 }
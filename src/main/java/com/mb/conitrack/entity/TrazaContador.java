@@ -0,0 +1,26 @@
+package com.mb.conitrack.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Entidad: Último número de traza reservado por producto. Se bloquea por fila al reservar. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "traza_contadores")
+public class TrazaContador {
+
+    @Id
+    @Column(name = "producto_id")
+    private Long productoId;
+
+    @Column(name = "ultimo_nro", nullable = false)
+    private Long ultimoNro;
+
+}
@@ -0,0 +1,62 @@
+package com.mb.conitrack.entity;
+
+import java.time.OffsetDateTime;
+
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.enums.EstadoEnum;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Entidad: Rango contiguo de trazas activas de un bulto que comparten estado.
+ * Es una representación compacta derivada de {@code trazas}: cada cambio de estado parte, recorta o une solo los
+ * rangos afectados, por lo que la cantidad de filas crece con las transiciones de estado y no con las unidades.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "traza_rangos")
+@ToString(exclude = { "lote", "bulto", "producto" })
+public class TrazaRango {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "lote_id", nullable = false)
+    private Lote lote;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bulto_id", nullable = false)
+    private Bulto bulto;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producto_id", nullable = false)
+    private Producto producto;
+
+    @Column(name = "nro_desde", nullable = false)
+    private Long nroDesde;
+
+    @Column(name = "nro_hasta", nullable = false)
+    private Long nroHasta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false)
+    private EstadoEnum estado;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private OffsetDateTime fechaYHoraCreacion;
+
+    public long getCantidad() {
+        return nroHasta - nroDesde + 1;
+    }
+
+}
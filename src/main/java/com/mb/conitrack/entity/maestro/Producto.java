@@ -1,10 +1,14 @@
 package com.mb.conitrack.entity.maestro;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.SQLDelete;
 
+import com.mb.conitrack.config.CacheConfig;
 import com.mb.conitrack.enums.TipoProductoEnum;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -26,6 +30,8 @@ import lombok.NoArgsConstructor;
 @Table(name = "productos", uniqueConstraints = @UniqueConstraint(
     columnNames = { "nombre_generico", "codigo_producto", "tipo_producto" }
 ))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.PRODUCTOS)
 @SQLDelete(sql = "UPDATE productos SET activo = false WHERE id = ?")
 public class Producto {
 
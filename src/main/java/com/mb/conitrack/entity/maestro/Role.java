@@ -2,8 +2,13 @@ package com.mb.conitrack.entity.maestro;
 
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.mb.conitrack.config.CacheConfig;
 import com.mb.conitrack.enums.RoleEnum;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -20,6 +25,8 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @Table(name = "roles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.ROLES)
 public class Role {
 
     @Id
@@ -34,6 +41,7 @@ public class Role {
     @Column(nullable = false)
     private Integer nivel;
 
+    // Sin caché propia: se carga en la sesión que la recorre
     @OneToMany(mappedBy = "role", cascade = CascadeType.ALL)
     private List<User> users;
 
@@ -0,0 +1,110 @@
+package com.mb.conitrack.enums;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vista compilada de {@link PermisosCasoUsoEnum}, armada una sola vez al cargar la clase.
+ *
+ * - Matriz rol × caso de uso: un long por rol con un bit por caso de uso.
+ * - Conjunto inmutable de casos de uso habilitados por rol, para armar el menú sin evaluar cada entrada.
+ * - Árbol de prefijos por segmento de URL para resolver a qué caso de uso pertenece una ruta.
+ */
+final class MatrizPermisos {
+
+    private static final long[] BITS_POR_ROL = new long[RoleEnum.values().length];
+
+    private static final Map<RoleEnum, Set<PermisosCasoUsoEnum>> CASOS_POR_ROL;
+
+    private static final Nodo RAIZ = new Nodo();
+
+    static {
+        final PermisosCasoUsoEnum[] casos = PermisosCasoUsoEnum.values();
+        if (casos.length > Long.SIZE) {
+            throw new IllegalStateException("La matriz de permisos admite hasta " + Long.SIZE + " casos de uso");
+        }
+
+        final Map<RoleEnum, Set<PermisosCasoUsoEnum>> casosPorRol = new EnumMap<>(RoleEnum.class);
+        for (RoleEnum rol : RoleEnum.values()) {
+            casosPorRol.put(rol, EnumSet.noneOf(PermisosCasoUsoEnum.class));
+        }
+        for (PermisosCasoUsoEnum casoUso : casos) {
+            for (RoleEnum rol : casoUso.getRolesPermitidos()) {
+                BITS_POR_ROL[rol.ordinal()] |= 1L << casoUso.ordinal();
+                casosPorRol.get(rol).add(casoUso);
+            }
+            insertarRuta(casoUso);
+        }
+        casosPorRol.replaceAll((rol, casosRol) -> Collections.unmodifiableSet(casosRol));
+        CASOS_POR_ROL = Collections.unmodifiableMap(casosPorRol);
+    }
+
+    private MatrizPermisos() {
+    }
+
+    static boolean tienePermiso(final RoleEnum rol, final PermisosCasoUsoEnum casoUso) {
+        return rol != null && (BITS_POR_ROL[rol.ordinal()] & (1L << casoUso.ordinal())) != 0;
+    }
+
+    static Set<PermisosCasoUsoEnum> casosDeUso(final RoleEnum rol) {
+        return rol != null ? CASOS_POR_ROL.get(rol) : Collections.emptySet();
+    }
+
+    /**
+     * Caso de uso cuyo prefijo de URL es el más largo que contiene a la ruta, comparando por segmentos completos
+     * (equivale al patrón {@code urlPattern + "/**"}). Los segmentos vacíos se ignoran.
+     * @return el caso de uso, o null si la ruta no pertenece a ninguno
+     */
+    static PermisosCasoUsoEnum casoDeUsoDeRuta(final String ruta) {
+        if (ruta == null) {
+            return null;
+        }
+        Nodo nodo = RAIZ;
+        PermisosCasoUsoEnum encontrado = null;
+        int inicio = 0;
+        while (inicio < ruta.length()) {
+            int fin = ruta.indexOf('/', inicio);
+            if (fin < 0) {
+                fin = ruta.length();
+            }
+            if (fin > inicio) {
+                nodo = nodo.hijos.get(ruta.substring(inicio, fin));
+                if (nodo == null) {
+                    break;
+                }
+                if (nodo.casoUso != null) {
+                    encontrado = nodo.casoUso;
+                }
+            }
+            inicio = fin + 1;
+        }
+        return encontrado;
+    }
+
+    private static void insertarRuta(final PermisosCasoUsoEnum casoUso) {
+        Nodo nodo = RAIZ;
+        for (String segmento : casoUso.getUrlPattern().split("/")) {
+            if (!segmento.isEmpty()) {
+                nodo = nodo.hijos.computeIfAbsent(segmento, s -> new Nodo());
+            }
+        }
+        if (nodo.casoUso != null) {
+            throw new IllegalStateException(
+                "Los casos de uso " + nodo.casoUso + " y " + casoUso + " comparten la URL " + casoUso.getUrlPattern());
+        }
+        nodo.casoUso = casoUso;
+    }
+
+    private static final class Nodo {
+
+        private final Map<String, Nodo> hijos = new HashMap<>();
+
+        private PermisosCasoUsoEnum casoUso;
+
+    }
+
+}
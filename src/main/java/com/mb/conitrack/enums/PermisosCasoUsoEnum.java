@@ -2,6 +2,7 @@ package com.mb.conitrack.enums;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Define los permisos de acceso a cada caso de uso según el rol del usuario.
@@ -195,9 +196,26 @@ public enum PermisosCasoUsoEnum {
 
     /**
      * Verifica si un rol tiene permiso para acceder a este caso de uso.
+     * Consulta la matriz de permisos precompilada, sin recorrer la lista de roles.
      */
     public boolean tienePermiso(RoleEnum rol) {
-        return rolesPermitidos.contains(rol);
+        return MatrizPermisos.tienePermiso(rol, this);
+    }
+
+    /**
+     * Casos de uso habilitados para un rol (conjunto inmutable, vacío si el rol es null).
+     */
+    public static Set<PermisosCasoUsoEnum> casosDeUso(RoleEnum rol) {
+        return MatrizPermisos.casosDeUso(rol);
+    }
+
+    /**
+     * Resuelve el caso de uso al que pertenece una ruta (relativa a la aplicación).
+     * Ejemplo: "/compras/alta/ingreso-compra/confirmar" -> CU1_INGRESO_COMPRA
+     * @return el caso de uso, o null si la ruta no pertenece a ninguno
+     */
+    public static PermisosCasoUsoEnum deRuta(String ruta) {
+        return MatrizPermisos.casoDeUsoDeRuta(ruta);
     }
 
     /**
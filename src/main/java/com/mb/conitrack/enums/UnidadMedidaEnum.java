@@ -1,5 +1,6 @@
 package com.mb.conitrack.enums;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
@@ -7,37 +8,37 @@ import java.util.stream.Collectors;
 
 /** Unidades de medida con conversión automática (masa, volumen, superficie, longitud). */
 public enum UnidadMedidaEnum {
-    UNIDAD("Unidad", "Generica", "U", 1.0),
+    UNIDAD("Unidad", "Generica", "U", "1"),
 
     // Unidades de Masa
-    KILOGRAMO("Kilogramo", "Masa", "kg", 1000.0),
-    GRAMO("Gramo", "Masa", "g", 1.0),
-    MILIGRAMO("Miligramo", "Masa", "mg", 0.001),
-    MICROGRAMO("Microgramo", "Masa", "µg", 0.000001),
+    KILOGRAMO("Kilogramo", "Masa", "kg", "1000"),
+    GRAMO("Gramo", "Masa", "g", "1"),
+    MILIGRAMO("Miligramo", "Masa", "mg", "0.001"),
+    MICROGRAMO("Microgramo", "Masa", "µg", "0.000001"),
 
     // Unidades de Volumen
-    LITRO("Litro", "Volumen", "L", 1.0),
-    DECILITRO("Decilitro", "Volumen", "dL", 0.1),
-    CENTILITRO("Centilitro", "Volumen", "cL", 0.01),
-    MILILITRO("Mililitro", "Volumen", "mL", 0.001),
-    CENTIMETRO_CUBICO("Centimetro cubico", "Volumen", "cm3", 0.001),
-    MICROLITRO("Microlitro", "Volumen", "µL", 0.000001),
-    MILIMETRO_CUBICO("Milimetro cubico", "Volumen", "mm3", 0.000001),
+    LITRO("Litro", "Volumen", "L", "1"),
+    DECILITRO("Decilitro", "Volumen", "dL", "0.1"),
+    CENTILITRO("Centilitro", "Volumen", "cL", "0.01"),
+    MILILITRO("Mililitro", "Volumen", "mL", "0.001"),
+    CENTIMETRO_CUBICO("Centimetro cubico", "Volumen", "cm3", "0.001"),
+    MICROLITRO("Microlitro", "Volumen", "µL", "0.000001"),
+    MILIMETRO_CUBICO("Milimetro cubico", "Volumen", "mm3", "0.000001"),
 
     // Unidades de Superficie
-    METRO_CUADRADO("Metro cuadrado", "Superficie", "m2", 1.0),
-    CENTIMETRO_CUADRADO("Centimetro cuadrado", "Superficie", "cm2", 0.0001),
-    MILIMETRO_CUADRADO("Milimetro cuadrado", "Superficie", "mm2", 0.000001),
+    METRO_CUADRADO("Metro cuadrado", "Superficie", "m2", "1"),
+    CENTIMETRO_CUADRADO("Centimetro cuadrado", "Superficie", "cm2", "0.0001"),
+    MILIMETRO_CUADRADO("Milimetro cuadrado", "Superficie", "mm2", "0.000001"),
 
     // Unidades de Longitud
-    METRO("Metro", "Longitud", "m", 1.0),
-    CENTIMETRO("Centimetro", "Longitud", "cm", 0.01),
-    MILIMETRO("Milimetro", "Longitud", "mm", 0.001),
-    MICROMETRO("Micrometro", "Longitud", "µm", 0.000001),
+    METRO("Metro", "Longitud", "m", "1"),
+    CENTIMETRO("Centimetro", "Longitud", "cm", "0.01"),
+    MILIMETRO("Milimetro", "Longitud", "mm", "0.001"),
+    MICROMETRO("Micrometro", "Longitud", "µm", "0.000001"),
 
     // Unidades porcentuales
-    PORCENTAJE("Porcentaje", "Porcentaje", "%", 0.01),
-    PARTES_POR_MILLON("Partes por millon", "Porcentaje", "ppm", 0.000001);
+    PORCENTAJE("Porcentaje", "Porcentaje", "%", "0.01"),
+    PARTES_POR_MILLON("Partes por millon", "Porcentaje", "ppm", "0.000001");
 
     private final String nombre;
 
@@ -45,13 +46,18 @@ public enum UnidadMedidaEnum {
 
     private final String simbolo;
 
+    /** Factor exacto respecto de la unidad base del tipo; las conversiones usan este valor. */
+    private final BigDecimal factorConversionExacto;
+
+    /** Solo para ordenar y comparar unidades; no usar para convertir cantidades. */
     private final double factorConversion;
 
-    UnidadMedidaEnum(String nombre, String tipo, String simbolo, double factorConversion) {
+    UnidadMedidaEnum(String nombre, String tipo, String simbolo, String factorConversion) {
         this.nombre = nombre;
         this.tipo = tipo;
         this.simbolo = simbolo;
-        this.factorConversion = factorConversion;
+        this.factorConversionExacto = new BigDecimal(factorConversion);
+        this.factorConversion = factorConversionExacto.doubleValue();
     }
 
     public static List<UnidadMedidaEnum> getUnidadesConvertibles(UnidadMedidaEnum base) {
@@ -104,6 +110,10 @@ public enum UnidadMedidaEnum {
         return factorConversion;
     }
 
+    public BigDecimal getFactorConversionExacto() {
+        return factorConversionExacto;
+    }
+
     public String getNombre() {
         return nombre;
     }
@@ -0,0 +1,25 @@
+package com.mb.conitrack.exception;
+
+import lombok.Getter;
+
+/**
+ * Excepción lanzada cuando una baja dejaría stock negativo en un bulto o en su lote.
+ *
+ * La validación del formulario corre en otra transacción: si una baja concurrente confirmada en el medio consumió
+ * el stock validado, el CU la lanza al descontar. La transacción se revierte y el controlador la informa en el
+ * formulario (o como rechazo en los endpoints JSON), en lugar de dejarla llegar como error 500.
+ */
+@Getter
+public class StockInsuficienteException extends RuntimeException {
+
+    private final String codigoLote;
+
+    private final Integer nroBulto;
+
+    public StockInsuficienteException(final String codigoLote, final Integer nroBulto, final String message) {
+        super(message);
+        this.codigoLote = codigoLote;
+        this.nroBulto = nroBulto;
+    }
+
+}
@@ -45,10 +45,9 @@ public class AuditorAccessInterceptor implements HandlerInterceptor {
                 return true; // Dejar que Spring Security maneje la autenticación
             }
 
-            User currentUser = securityContextService.getCurrentUser();
-
-            // Si es AUDITOR, registrar el acceso
-            if (currentUser.isAuditor()) {
+            // Si es AUDITOR, registrar el acceso; para el resto alcanza con la instantánea, sin consultar la base
+            if (securityContextService.getUsuarioActual().auditor()) {
+                User currentUser = securityContextService.getCurrentUser();
                 String url = request.getRequestURI();
                 String method = request.getMethod();
 
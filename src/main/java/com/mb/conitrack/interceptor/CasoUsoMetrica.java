@@ -0,0 +1,22 @@
+package com.mb.conitrack.interceptor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.mb.conitrack.enums.UseCaseTag;
+
+/**
+ * Asocia un servicio de CU con su {@link UseCaseTag} para etiquetar las métricas de {@link CasoUsoMetricsAspect}.
+ * Los servicios sin anotar se miden igual, con la etiqueta caso_uso=NINGUNO.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CasoUsoMetrica {
+
+    UseCaseTag value();
+
+}
@@ -0,0 +1,71 @@
+package com.mb.conitrack.interceptor;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Mide cada punto de entrada público de los servicios de CU (service.cu.*Service).
+ *
+ * - conitrack.cu.duracion: timer por caso de uso, servicio y método (incluye el commit de la transacción)
+ * - conitrack.cu.errores: contador de excepciones por caso de uso, servicio, método y tipo de excepción
+ *
+ * Se ordena por fuera de @Transactional para que una falla al confirmar también cuente como error.
+ */
+@Aspect
+@Component
+@Order(0)
+public class CasoUsoMetricsAspect {
+
+    static final String TIMER = "conitrack.cu.duracion";
+
+    static final String ERRORES = "conitrack.cu.errores";
+
+    static final String SIN_CASO_USO = "NINGUNO";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.mb.conitrack.service.cu..*Service.*(..)) "
+        + "&& !within(com.mb.conitrack.service.cu.AbstractCuService)")
+    public Object medir(final ProceedingJoinPoint joinPoint) throws Throwable {
+        final Class<?> servicio = joinPoint.getTarget().getClass();
+        final String casoUso = casoUso(servicio);
+        final String metodo = joinPoint.getSignature().getName();
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            Counter.builder(ERRORES)
+                .description("Excepciones en servicios de casos de uso")
+                .tag("caso_uso", casoUso)
+                .tag("servicio", servicio.getSimpleName())
+                .tag("metodo", metodo)
+                .tag("excepcion", e.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TIMER)
+                .description("Duración de los servicios de casos de uso")
+                .tag("caso_uso", casoUso)
+                .tag("servicio", servicio.getSimpleName())
+                .tag("metodo", metodo)
+                .register(meterRegistry));
+        }
+    }
+
+    private static String casoUso(final Class<?> servicio) {
+        final CasoUsoMetrica anotacion = AnnotationUtils.findAnnotation(servicio, CasoUsoMetrica.class);
+        return anotacion != null ? anotacion.value().name() : SIN_CASO_USO;
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.mb.conitrack.interceptor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Cuenta las sentencias SQL y las entidades cargadas por Hibernate durante cada petición.
+ *
+ * Las estadísticas de Hibernate son globales y no distinguen peticiones concurrentes: los contadores se llevan por
+ * hilo, los incrementan los hooks registrados en MetricasConfig y se publican al terminar la petición como
+ * conitrack.peticion.consultas y conitrack.peticion.entidades, etiquetados con el patrón de la URL.
+ * Fuera de una petición (procesos programados, escritor de auditoría) los hooks no hacen nada.
+ */
+@Component
+public class EstadisticasHibernateInterceptor implements HandlerInterceptor {
+
+    private static final ThreadLocal<long[]> CONTADORES = new ThreadLocal<>();
+
+    private static final int CONSULTAS = 0;
+
+    private static final int ENTIDADES = 1;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public static void registrarConsulta() {
+        incrementar(CONSULTAS);
+    }
+
+    public static void registrarEntidadCargada() {
+        incrementar(ENTIDADES);
+    }
+
+    private static void incrementar(final int indice) {
+        final long[] contadores = CONTADORES.get();
+        if (contadores != null) {
+            contadores[indice]++;
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        CONTADORES.set(new long[2]);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        Object handler,
+        Exception ex) {
+        final long[] contadores = CONTADORES.get();
+        CONTADORES.remove();
+        if (contadores == null) {
+            return;
+        }
+        final Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        final String uri = patron != null ? patron.toString() : "UNKNOWN";
+        DistributionSummary.builder("conitrack.peticion.consultas")
+            .description("Sentencias SQL ejecutadas por petición")
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(contadores[CONSULTAS]);
+        DistributionSummary.builder("conitrack.peticion.entidades")
+            .description("Entidades cargadas por Hibernate por petición")
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(contadores[ENTIDADES]);
+    }
+
+}
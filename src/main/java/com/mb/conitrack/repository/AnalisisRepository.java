@@ -2,6 +2,8 @@ package com.mb.conitrack.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -14,6 +16,38 @@ public interface AnalisisRepository extends JpaRepository<Analisis, Long> {
 
     List<Analisis> findAllByActivoTrue();
 
+    long countByActivoTrue();
+
+    /** Página del listado general; :filtro es un patrón en minúsculas o null. */
+    @EntityGraph(attributePaths = { "lote", "lote.producto" })
+    @Query(
+        value = """
+            select a from Analisis a
+            join a.lote l
+            where a.activo = true
+              and (:filtro is null
+                or lower(a.nroAnalisis) like :filtro
+                or lower(l.codigoLote) like :filtro)
+        """,
+        countQuery = """
+            select count(a) from Analisis a
+            join a.lote l
+            where a.activo = true
+              and (:filtro is null
+                or lower(a.nroAnalisis) like :filtro
+                or lower(l.codigoLote) like :filtro)
+        """)
+    Page<Analisis> findPagina(@Param("filtro") String filtro, Pageable pageable);
+
+    //***********DASHBOARD***********
+    @Query("""
+            select count(a)
+            from Analisis a
+            where a.activo = true
+              and (a.dictamen is null or a.dictamen = com.mb.conitrack.enums.DictamenEnum.CUARENTENA)
+        """)
+    long countPendientes();
+
     @Query("""
           select a
           from Analisis a
@@ -12,7 +12,7 @@ import com.mb.conitrack.entity.AuditoriaAcceso;
  * Repositorio para acceder a registros de auditoría de accesos.
  */
 @Repository
-public interface AuditoriaAccesoRepository extends JpaRepository<AuditoriaAcceso, Long> {
+public interface AuditoriaAccesoRepository extends JpaRepository<AuditoriaAcceso, Long>, AuditoriaAccesoRepositoryCustom {
 
     /**
      * Busca accesos por username.
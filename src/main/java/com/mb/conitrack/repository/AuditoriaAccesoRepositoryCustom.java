@@ -0,0 +1,19 @@
+package com.mb.conitrack.repository;
+
+import java.util.List;
+
+import com.mb.conitrack.entity.AuditoriaAcceso;
+
+/**
+ * Escritura masiva de registros de auditoría, usada por el escritor asincrónico de accesos.
+ */
+public interface AuditoriaAccesoRepositoryCustom {
+
+    /**
+     * Inserta los registros en batches JDBC. Los ids generados no se asignan a las entidades recibidas.
+     *
+     * @return cantidad de registros insertados
+     */
+    int insertarBatch(List<AuditoriaAcceso> registros);
+
+}
@@ -0,0 +1,46 @@
+package com.mb.conitrack.repository;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mb.conitrack.entity.AuditoriaAcceso;
+
+/**
+ * Implementación JDBC de {@link AuditoriaAccesoRepositoryCustom}.
+ * AuditoriaAcceso usa IDENTITY, lo que impide el batching de inserts de Hibernate; aquí se envían en batches JDBC.
+ */
+public class AuditoriaAccesoRepositoryImpl implements AuditoriaAccesoRepositoryCustom {
+
+    /** Sentencias por batch JDBC. */
+    static final int FILAS_POR_BATCH = 500;
+
+    private static final String INSERT = """
+        insert into auditoria_accesos (user_id, username, role_name, accion, url, metodo_http, ip_address,
+            user_agent, fecha_hora)
+        values (?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertarBatch(final List<AuditoriaAcceso> registros) {
+        if (registros.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT, registros, FILAS_POR_BATCH, (ps, r) -> {
+            ps.setLong(1, r.getUser().getId());
+            ps.setString(2, r.getUsername());
+            ps.setString(3, r.getRoleName());
+            ps.setString(4, r.getAccion());
+            ps.setString(5, r.getUrl());
+            ps.setString(6, r.getMetodoHttp());
+            ps.setString(7, r.getIpAddress());
+            ps.setString(8, r.getUserAgent());
+            ps.setObject(9, r.getFechaHora());
+        });
+        return registros.size();
+    }
+
+}
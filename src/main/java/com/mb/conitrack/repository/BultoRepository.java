@@ -3,8 +3,12 @@ package com.mb.conitrack.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.mb.conitrack.entity.Bulto;
 import com.mb.conitrack.entity.Lote;
@@ -13,6 +17,25 @@ public interface BultoRepository extends JpaRepository<Bulto, Long> {
 
     List<Bulto> findAllByActivoTrue();
 
+    long countByActivoTrue();
+
+    /** Página del listado general; :filtro es un patrón en minúsculas o null. */
+    @EntityGraph(attributePaths = "lote")
+    @Query(
+        value = """
+            select b from Bulto b
+            join b.lote l
+            where b.activo = true
+              and (:filtro is null or lower(l.codigoLote) like :filtro)
+        """,
+        countQuery = """
+            select count(b) from Bulto b
+            join b.lote l
+            where b.activo = true
+              and (:filtro is null or lower(l.codigoLote) like :filtro)
+        """)
+    Page<Bulto> findPagina(@Param("filtro") String filtro, Pageable pageable);
+
     @Query("""
           select b
           from Bulto b
@@ -0,0 +1,16 @@
+package com.mb.conitrack.repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.mb.conitrack.entity.EjecucionValidacionFecha;
+
+public interface EjecucionValidacionFechaRepository extends JpaRepository<EjecucionValidacionFecha, Long> {
+
+    Optional<EjecucionValidacionFecha> findFirstByFechaOrderByIdDesc(LocalDate fecha);
+
+    Optional<EjecucionValidacionFecha> findFirstByOrderByIdDesc();
+
+}
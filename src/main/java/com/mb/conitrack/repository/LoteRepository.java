@@ -1,18 +1,79 @@
 package com.mb.conitrack.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import com.mb.conitrack.dto.LoteReporteDTO;
+import com.mb.conitrack.dto.projection.DashboardLoteMetrics;
+import com.mb.conitrack.dto.projection.LoteFechasVigentes;
+import com.mb.conitrack.dto.projection.LoteListado;
+import com.mb.conitrack.dto.projection.LoteResumen;
 import com.mb.conitrack.entity.Bulto;
 import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.Movimiento;
+
+import jakarta.persistence.QueryHint;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface LoteRepository extends JpaRepository<Lote, Long> {
 
+    /** Columnas de {@link LoteResumen}; las consultas que lo usan agregan sus propios filtros. */
+    String LOTE_RESUMEN_SELECT = """
+            select l.id as id,
+                   l.fechaYHoraCreacion as fechaYHoraCreacion,
+                   l.codigoLote as codigoLote,
+                   l.fechaIngreso as fechaIngreso,
+                   l.loteProveedor as loteProveedor,
+                   l.fechaVencimientoProveedor as fechaVencimientoProveedor,
+                   l.fechaReanalisisProveedor as fechaReanalisisProveedor,
+                   l.dictamen as dictamen,
+                   l.estado as estado,
+                   l.trazado as trazado,
+                   l.cantidadInicial as cantidadInicial,
+                   l.cantidadActual as cantidadActual,
+                   l.unidadMedida as unidadMedida,
+                   l.bultosTotales as bultosTotales,
+                   l.fechaVencimientoEfectiva as fechaVencimientoEfectiva,
+                   l.fechaReanalisisEfectiva as fechaReanalisisEfectiva,
+                   p.id as productoId,
+                   p.codigoProducto as codigoProducto,
+                   p.nombreGenerico as nombreProducto,
+                   p.tipoProducto as tipoProducto,
+                   pr.id as proveedorId,
+                   pr.razonSocial as nombreProveedor,
+                   (select min(t.nroTraza) from Traza t
+                    where t.lote = l and t.activo = true) as trazaInicial
+            from Lote l
+            join l.producto p
+            join l.proveedor pr
+        """;
+
+    /**
+     * Condición de venta de producto (CU22) sobre el alias l: la comparten la lista del formulario y la validación
+     * de los pedidos, para que el endpoint no acepte lotes que el formulario no ofrece.
+     */
+    String LOTE_VENDIBLE = """
+              l.activo = true
+              and l.dictamen = com.mb.conitrack.enums.DictamenEnum.LIBERADO
+              and l.estado <> com.mb.conitrack.enums.EstadoEnum.RECALL
+              and l.producto.tipoProducto = com.mb.conitrack.enums.TipoProductoEnum.UNIDAD_VENTA
+        """;
+
     List<Lote> findAllByActivoTrue();
 
     List<Lote> findAllByOrderByFechaIngresoAscCodigoLoteAsc();
@@ -21,6 +82,141 @@ public interface LoteRepository extends JpaRepository<Lote, Long> {
 
     Optional<Lote> findByCodigoLoteAndActivoTrue(String codigoLote);
 
+    /** Códigos de lote (activos o no) que comienzan con el prefijo; puede incluir falsos positivos de LIKE. */
+    @Query("select l.codigoLote from Lote l where l.codigoLote like concat(:prefijo, '%')")
+    List<String> findCodigosLoteByPrefijo(@Param("prefijo") String prefijo);
+
+    //***********LISTADO PAGINADO***********
+    /** Columnas de {@link LoteListado}: las de {@link LoteResumen} más los datos de alta del listado general. */
+    String LOTE_LISTADO_SELECT = """
+            select l.id as id,
+                   l.fechaYHoraCreacion as fechaYHoraCreacion,
+                   l.codigoLote as codigoLote,
+                   l.fechaIngreso as fechaIngreso,
+                   l.loteProveedor as loteProveedor,
+                   l.fechaVencimientoProveedor as fechaVencimientoProveedor,
+                   l.fechaReanalisisProveedor as fechaReanalisisProveedor,
+                   l.dictamen as dictamen,
+                   l.estado as estado,
+                   l.trazado as trazado,
+                   l.cantidadInicial as cantidadInicial,
+                   l.cantidadActual as cantidadActual,
+                   l.unidadMedida as unidadMedida,
+                   l.bultosTotales as bultosTotales,
+                   l.fechaVencimientoEfectiva as fechaVencimientoEfectiva,
+                   l.fechaReanalisisEfectiva as fechaReanalisisEfectiva,
+                   l.paisOrigen as paisOrigen,
+                   l.nroRemito as nroRemito,
+                   l.ordenProduccionOrigen as ordenProduccion,
+                   l.observaciones as observaciones,
+                   p.id as productoId,
+                   p.codigoProducto as codigoProducto,
+                   p.nombreGenerico as nombreProducto,
+                   p.tipoProducto as tipoProducto,
+                   p.productoDestino as productoDestino,
+                   pr.id as proveedorId,
+                   pr.razonSocial as nombreProveedor,
+                   f.id as fabricanteId,
+                   f.razonSocial as nombreFabricante,
+                   (select min(t.nroTraza) from Traza t
+                    where t.lote = l and t.activo = true) as trazaInicial,
+                   (select max(a.nroAnalisis) from Analisis a
+                    where a.lote = l and a.activo = true
+                      and a.fechaYHoraCreacion = (
+                          select max(a2.fechaYHoraCreacion) from Analisis a2
+                          where a2.lote = l and a2.activo = true)) as ultimoNroAnalisis
+            from Lote l
+            join l.producto p
+            join l.proveedor pr
+            left join l.fabricante f
+        """;
+
+    /** Filtro de búsqueda del listado paginado; :filtro es un patrón en minúsculas o null. */
+    String LOTE_LISTADO_WHERE = """
+            where l.activo = true
+              and (:filtro is null
+                or lower(l.codigoLote) like :filtro
+                or lower(l.loteProveedor) like :filtro
+                or lower(p.codigoProducto) like :filtro
+                or lower(p.nombreGenerico) like :filtro
+                or lower(pr.razonSocial) like :filtro)
+        """;
+
+    @Query(
+        value = LOTE_LISTADO_SELECT + LOTE_LISTADO_WHERE,
+        countQuery = """
+            select count(l)
+            from Lote l
+            join l.producto p
+            join l.proveedor pr
+        """ + LOTE_LISTADO_WHERE)
+    Page<LoteListado> findListadoPagina(@Param("filtro") String filtro, Pageable pageable);
+
+    long countByActivoTrue();
+
+    //***********DASHBOARD***********
+    @Query("""
+            select count(l) as lotesActivos,
+                   coalesce(sum(case when l.dictamen = com.mb.conitrack.enums.DictamenEnum.CUARENTENA
+                                     then 1 else 0 end), 0) as lotesCuarentena,
+                   coalesce(sum(l.cantidadActual), 0) as stockTotal,
+                   coalesce(sum(case when l.fechaVencimientoProveedor < :limiteAlerta
+                                     then 1 else 0 end), 0) as alertasPendientes
+            from Lote l
+            where l.activo = true
+        """)
+    DashboardLoteMetrics getDashboardLoteMetrics(@Param("limiteAlerta") LocalDate limiteAlerta);
+
+    //***********REPORTES***********
+    @Query("""
+            select new com.mb.conitrack.dto.LoteReporteDTO(
+                l.id, l.codigoLote, p.codigoProducto, p.nombreGenerico, pr.razonSocial, l.loteProveedor,
+                l.fechaIngreso, l.fechaVencimientoProveedor, l.fechaReanalisisProveedor,
+                l.dictamen, l.estado, l.cantidadInicial, l.cantidadActual, l.unidadMedida,
+                l.bultosTotales, l.trazado, l.activo)
+            from Lote l
+            join l.producto p
+            join l.proveedor pr
+            where l.id > :afterId
+              and (:soloActivos = false or l.activo = true)
+            order by l.id asc
+        """)
+    List<LoteReporteDTO> findReporteAfterId(
+        @Param("afterId") long afterId,
+        @Param("soloActivos") boolean soloActivos,
+        Pageable pageable);
+
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.mb.conitrack.dto.LoteReporteDTO(
+                l.id, l.codigoLote, p.codigoProducto, p.nombreGenerico, pr.razonSocial, l.loteProveedor,
+                l.fechaIngreso, l.fechaVencimientoProveedor, l.fechaReanalisisProveedor,
+                l.dictamen, l.estado, l.cantidadInicial, l.cantidadActual, l.unidadMedida,
+                l.bultosTotales, l.trazado, l.activo)
+            from Lote l
+            join l.producto p
+            join l.proveedor pr
+            where (:soloActivos = false or l.activo = true)
+            order by l.id asc
+        """)
+    Stream<LoteReporteDTO> streamReporte(@Param("soloActivos") boolean soloActivos);
+
+    @Query("""
+            select new com.mb.conitrack.dto.LoteReporteDTO(
+                l.id, l.codigoLote, p.codigoProducto, p.nombreGenerico, pr.razonSocial, l.loteProveedor,
+                l.fechaIngreso, l.fechaVencimientoProveedor, l.fechaReanalisisProveedor,
+                l.dictamen, l.estado, l.cantidadInicial, l.cantidadActual, l.unidadMedida,
+                l.bultosTotales, l.trazado, l.activo)
+            from Lote l
+            join l.producto p
+            join l.proveedor pr
+            where l.id = :id
+        """)
+    Optional<LoteReporteDTO> findReporteById(@Param("id") Long id);
+
     @Query("""
             select l
             from Lote l
@@ -71,9 +267,7 @@ public interface LoteRepository extends JpaRepository<Lote, Long> {
         """)
     List<Lote> findAllForMuestreoTrazable();
 
-    @Query("""
-            select l
-            from Lote l
+    @Query(LOTE_RESUMEN_SELECT + """
             where l.activo = true
               and exists (
                   select 1 from Bulto b
@@ -82,11 +276,9 @@ public interface LoteRepository extends JpaRepository<Lote, Long> {
             order by case when l.fechaIngreso is null then 1 else 0 end,
                      l.fechaIngreso asc, l.codigoLote asc
         """)
-    List<Lote> findAllForAjuste();
+    List<LoteResumen> findResumenForAjuste();
 
-    @Query("""
-            select l
-            from Lote l
+    @Query(LOTE_RESUMEN_SELECT + """
             where l.activo = true
               and l.dictamen in (
                   com.mb.conitrack.enums.DictamenEnum.RECIBIDO,
@@ -108,7 +300,7 @@ public interface LoteRepository extends JpaRepository<Lote, Long> {
             order by case when l.fechaIngreso is null then 1 else 0 end,
                      l.fechaIngreso asc, l.codigoLote asc
         """)
-    List<Lote> findAllForDevolucionCompra();
+    List<LoteResumen> findResumenForDevolucionCompra();
 
     @Query("""
             select l
@@ -190,41 +382,123 @@ public interface LoteRepository extends JpaRepository<Lote, Long> {
         """)
     List<Lote> findAllForMuestreoMultiBulto();
 
-    @EntityGraph(attributePaths = "analisisList") // evita N+1 al calcular la fecha vigente
+    //***********CU9/CU10 VALIDACION DE FECHAS***********
+    // Las fechas efectivas se refrescan antes de cada validación (FechaVigenteService),
+    // por lo que estos predicados son exactos y resuelven por rango sobre sus índices.
     @Query("""
-            select l
+            select l.id
             from Lote l
+            where l.fechaReanalisisEfectiva <= :hoy
+              and l.id > :afterId
+              and l.dictamen not in (
+                  com.mb.conitrack.enums.DictamenEnum.ANALISIS_EXPIRADO,
+                  com.mb.conitrack.enums.DictamenEnum.VENCIDO)
+              and exists (
+                  select 1 from Bulto b
+                  where b.lote = l and b.cantidadActual > 0
+              )
+            order by l.id asc
+        """)
+    List<Long> findIdsCandidatosAnalisisExpirado(
+        @Param("hoy") LocalDate hoy,
+        @Param("afterId") long afterId,
+        Pageable pageable);
+
+    @Query("""
+            select l.id
+            from Lote l
+            where l.fechaVencimientoEfectiva <= :hoy
+              and l.id > :afterId
+              and l.dictamen <> com.mb.conitrack.enums.DictamenEnum.VENCIDO
+              and exists (
+                  select 1 from Bulto b
+                  where b.lote = l and b.cantidadActual > 0
+              )
+            order by l.id asc
+        """)
+    List<Long> findIdsCandidatosVencimiento(
+        @Param("hoy") LocalDate hoy,
+        @Param("afterId") long afterId,
+        Pageable pageable);
+
+    @Query("""
+            select distinct l
+            from Lote l
+            left join fetch l.analisisList
+            where l.id in :ids
+            order by l.id asc
+        """)
+    List<Lote> findAllConAnalisisByIdIn(@Param("ids") Collection<Long> ids);
+
+    /** Lotes activos de un pedido de venta con sus bultos, en una sola consulta. */
+    @Query("""
+            select distinct l
+            from Lote l
+            left join fetch l.bultos
+            where l.codigoLote in :codigos
+              and l.activo = true
+        """)
+    List<Lote> findAllConBultosByCodigoLoteIn(@Param("codigos") Collection<String> codigos);
+
+    @Query(LOTE_RESUMEN_SELECT + """
             where exists (
                 select 1 from Bulto b
                 where b.lote = l and b.cantidadActual > 0
             )
+              and (l.fechaVencimientoEfectiva is not null or l.fechaReanalisisEfectiva is not null)
             order by l.fechaIngreso asc, l.codigoLote asc
         """)
-    List<Lote> findLotesConStockOrder();
+    List<LoteResumen> findResumenFechasConStock();
 
+    //***********FECHAS VIGENTES***********
     @Query("""
-          select distinct l
-          from Lote l
-          left join fetch l.analisisList aFetch
-          where exists (
-            select 1 from Bulto b
-            where b.lote = l and b.cantidadActual > 0
-          )
-          and (
-               l.fechaVencimientoProveedor is not null
-            or l.fechaReanalisisProveedor  is not null
-            or exists (
-                select 1
-                from Analisis a
-                where a.lote = l
-                  and a.activo = true
-                  and a.dictamen is not null
-                  and (a.fechaVencimiento is not null or a.fechaReanalisis is not null)
-            )
-          )
-          order by l.fechaIngreso asc, l.codigoLote asc
+            select l.id as id,
+                   l.fechaVencimientoProveedor as fechaVencimientoProveedor,
+                   l.fechaVencimientoAnalisis as fechaVencimientoAnalisis,
+                   l.fechaVencimientoEfectiva as fechaVencimientoEfectiva,
+                   l.fechaReanalisisProveedor as fechaReanalisisProveedor,
+                   l.fechaReanalisisAnalisis as fechaReanalisisAnalisis,
+                   l.fechaReanalisisEfectiva as fechaReanalisisEfectiva
+            from Lote l
+            where l.id > :afterId
+            order by l.id asc
         """)
-    List<Lote> findLotesDictaminadosConStock();
+    List<LoteFechasVigentes> findFechasVigentesAfterId(@Param("afterId") long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("""
+            update Lote l
+            set l.fechaVencimientoEfectiva = :fechaVencimiento,
+                l.fechaReanalisisEfectiva = :fechaReanalisis
+            where l.id = :id
+        """)
+    int actualizarFechasEfectivas(
+        @Param("id") Long id,
+        @Param("fechaVencimiento") LocalDate fechaVencimiento,
+        @Param("fechaReanalisis") LocalDate fechaReanalisis);
+
+    /**
+     * Recalcula las fechas de análisis materializadas desde la tabla analisis, con el mismo criterio que
+     * {@link Lote#actualizarFechasVigentes()}.
+     */
+    @Modifying
+    @Query(value = """
+            update lotes set
+                fecha_vto_analisis = (
+                    select a.fecha_vencimiento from analisis a
+                    where a.lote_id = lotes.id
+                      and a.activo = true
+                      and a.dictamen is not null
+                      and a.fecha_vencimiento is not null
+                    order by a.fecha_creacion desc
+                    limit 1),
+                fecha_reanal_analisis = (
+                    select min(a.fecha_reanalisis) from analisis a
+                    where a.lote_id = lotes.id
+                      and a.activo = true
+                      and a.dictamen is not null)
+        """, nativeQuery = true)
+    int reconstruirFechasAnalisis();
 
     @Query("""
             select l
@@ -263,10 +537,8 @@ public interface LoteRepository extends JpaRepository<Lote, Long> {
     @Query("""
             select l
             from Lote l
-            where l.activo = true
-              and l.dictamen = com.mb.conitrack.enums.DictamenEnum.LIBERADO
-              and l.estado <> com.mb.conitrack.enums.EstadoEnum.RECALL
-              and l.producto.tipoProducto = com.mb.conitrack.enums.TipoProductoEnum.UNIDAD_VENTA
+            where
+        """ + LOTE_VENDIBLE + """
               and exists (
                   select 1 from Bulto b
                   where b.lote = l and b.cantidadActual > 0
@@ -275,9 +547,16 @@ public interface LoteRepository extends JpaRepository<Lote, Long> {
         """)
     List<Lote> findAllForVentaProducto();
 
+    /** Códigos de los lotes indicados que cumplen la condición de venta de findAllForVentaProducto. */
     @Query("""
-          select l
-          from Lote l
+            select l.codigoLote
+            from Lote l
+            where l.codigoLote in :codigos
+              and
+        """ + LOTE_VENDIBLE)
+    Set<String> findCodigosVendiblesByCodigoLoteIn(@Param("codigos") Collection<String> codigos);
+
+    @Query(LOTE_RESUMEN_SELECT + """
           where l.activo = true
             and l.estado <> com.mb.conitrack.enums.EstadoEnum.RECALL
             and (
@@ -295,11 +574,9 @@ public interface LoteRepository extends JpaRepository<Lote, Long> {
             )
           order by l.fechaIngreso asc, l.codigoLote asc
         """)
-    List<Lote> findAllForDevolucion();
+    List<LoteResumen> findResumenForDevolucion();
 
-    @Query("""
-          select l
-          from Lote l
+    @Query(LOTE_RESUMEN_SELECT + """
           where l.activo = true
                and (
                  l.id in (
@@ -316,18 +593,16 @@ public interface LoteRepository extends JpaRepository<Lote, Long> {
             )
           order by l.fechaIngreso asc, l.codigoLote asc
         """)
-    List<Lote> findAllForRecall();
+    List<LoteResumen> findResumenForRecall();
 
 
-    @Query("""
-            select l
-            from Lote l
+    @Query(LOTE_RESUMEN_SELECT + """
             where l.activo = true
               and l.dictamen != com.mb.conitrack.enums.DictamenEnum.VENCIDO
               and l.dictamen != com.mb.conitrack.enums.DictamenEnum.ANALISIS_EXPIRADO
             order by l.fechaIngreso asc, l.codigoLote asc
         """)
-    List<Lote> findAllForReversoMovimiento();
+    List<LoteResumen> findResumenForReversoMovimiento();
 
     @Query("""
             select distinct b
@@ -372,4 +647,77 @@ public interface LoteRepository extends JpaRepository<Lote, Long> {
         """)
     List<Lote> findLotesByLoteOrigen(@Param("codigoLote") String codigoLote);
 
+    //***********CARGA EN LOTE DEL GRAFO PARA LISTADOS***********
+    // Cada consulta inicializa una sola colección de todos los lotes pedidos, evitando el N+1
+    // del mapeo completo a LoteDTO. Se ejecutan sobre lotes ya administrados por el contexto de persistencia.
+    @Query("""
+            select l
+            from Lote l
+            join fetch l.producto
+            join fetch l.proveedor
+            left join fetch l.fabricante
+            left join fetch l.loteOrigen lo
+            left join fetch lo.producto
+            where l.id in :ids
+        """)
+    List<Lote> fetchMaestrosByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select distinct l
+            from Lote l
+            left join fetch l.bultos
+            where l.id in :ids
+        """)
+    List<Lote> fetchBultosByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select distinct b
+            from Bulto b
+            left join fetch b.detalles d
+            left join fetch d.movimiento
+            where b.lote.id in :ids
+        """)
+    List<Bulto> fetchBultoDetallesByLoteIds(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select distinct b
+            from Bulto b
+            left join fetch b.trazas
+            where b.lote.id in :ids
+        """)
+    List<Bulto> fetchBultoTrazasByLoteIds(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select distinct l
+            from Lote l
+            left join fetch l.movimientos
+            where l.id in :ids
+        """)
+    List<Lote> fetchMovimientosByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select distinct m
+            from Movimiento m
+            left join fetch m.detalles
+            left join fetch m.movimientoOrigen
+            where m.lote.id in :ids
+        """)
+    List<Movimiento> fetchMovimientoDetallesByLoteIds(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select distinct l
+            from Lote l
+            left join fetch l.analisisList
+            where l.id in :ids
+        """)
+    List<Lote> fetchAnalisisByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select distinct l
+            from Lote l
+            left join fetch l.trazas
+            where l.id in :ids
+        """)
+    List<Lote> fetchTrazasByIds(@Param("ids") Collection<Long> ids);
+
 }
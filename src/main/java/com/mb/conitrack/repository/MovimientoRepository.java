@@ -1,18 +1,132 @@
 package com.mb.conitrack.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import com.mb.conitrack.dto.MovimientoReporteDTO;
+import com.mb.conitrack.dto.projection.SaldoRetornableBulto;
 import com.mb.conitrack.entity.Movimiento;
 
-public interface MovimientoRepository extends JpaRepository<Movimiento, Long> {
+import jakarta.persistence.QueryHint;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface MovimientoRepository extends JpaRepository<Movimiento, Long>, MovimientoRepositoryCustom {
 
     List<Movimiento> findAllByActivoTrue();
 
+    long countByActivoTrue();
+
+    /** Página del listado general; :filtro es un patrón en minúsculas o null. */
+    @EntityGraph(attributePaths = { "lote", "movimientoOrigen" })
+    @Query(
+        value = """
+            select m from Movimiento m
+            left join m.lote l
+            where m.activo = true
+              and (:filtro is null
+                or lower(m.codigoMovimiento) like :filtro
+                or lower(l.codigoLote) like :filtro
+                or lower(m.nroAnalisis) like :filtro)
+        """,
+        countQuery = """
+            select count(m) from Movimiento m
+            left join m.lote l
+            where m.activo = true
+              and (:filtro is null
+                or lower(m.codigoMovimiento) like :filtro
+                or lower(l.codigoLote) like :filtro
+                or lower(m.nroAnalisis) like :filtro)
+        """)
+    Page<Movimiento> findPagina(@Param("filtro") String filtro, Pageable pageable);
+
+    long countByFecha(LocalDate fecha);
+
+    //***********REPORTES***********
+    @Query("""
+            select new com.mb.conitrack.dto.MovimientoReporteDTO(
+                m.id, m.codigoMovimiento, l.id, l.codigoLote, m.fecha, m.fechaYHoraCreacion,
+                m.tipoMovimiento, m.motivo, m.cantidad, m.unidadMedida,
+                m.dictamenInicial, m.dictamenFinal, m.nroAnalisis,
+                mo.codigoMovimiento, u.username, m.activo)
+            from Movimiento m
+            join m.lote l
+            left join m.movimientoOrigen mo
+            left join m.creadoPor u
+            where m.id > :afterId
+            order by m.id asc
+        """)
+    List<MovimientoReporteDTO> findReporteAfterId(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("""
+            select new com.mb.conitrack.dto.MovimientoReporteDTO(
+                m.id, m.codigoMovimiento, l.id, l.codigoLote, m.fecha, m.fechaYHoraCreacion,
+                m.tipoMovimiento, m.motivo, m.cantidad, m.unidadMedida,
+                m.dictamenInicial, m.dictamenFinal, m.nroAnalisis,
+                mo.codigoMovimiento, u.username, m.activo)
+            from Movimiento m
+            join m.lote l
+            left join m.movimientoOrigen mo
+            left join m.creadoPor u
+            where l.id = :loteId
+              and m.id > :afterId
+            order by m.id asc
+        """)
+    List<MovimientoReporteDTO> findReporteByLoteIdAfterId(
+        @Param("loteId") Long loteId,
+        @Param("afterId") long afterId,
+        Pageable pageable);
+
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.mb.conitrack.dto.MovimientoReporteDTO(
+                m.id, m.codigoMovimiento, l.id, l.codigoLote, m.fecha, m.fechaYHoraCreacion,
+                m.tipoMovimiento, m.motivo, m.cantidad, m.unidadMedida,
+                m.dictamenInicial, m.dictamenFinal, m.nroAnalisis,
+                mo.codigoMovimiento, u.username, m.activo)
+            from Movimiento m
+            join m.lote l
+            left join m.movimientoOrigen mo
+            left join m.creadoPor u
+            order by m.id asc
+        """)
+    Stream<MovimientoReporteDTO> streamReporte();
+
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.mb.conitrack.dto.MovimientoReporteDTO(
+                m.id, m.codigoMovimiento, l.id, l.codigoLote, m.fecha, m.fechaYHoraCreacion,
+                m.tipoMovimiento, m.motivo, m.cantidad, m.unidadMedida,
+                m.dictamenInicial, m.dictamenFinal, m.nroAnalisis,
+                mo.codigoMovimiento, u.username, m.activo)
+            from Movimiento m
+            join m.lote l
+            left join m.movimientoOrigen mo
+            left join m.creadoPor u
+            where l.id = :loteId
+            order by m.id asc
+        """)
+    Stream<MovimientoReporteDTO> streamReporteByLoteId(@Param("loteId") Long loteId);
+
     @Query("""
           select m
           from Movimiento m
@@ -104,6 +218,71 @@ public interface MovimientoRepository extends JpaRepository<Movimiento, Long> {
         """)
     List<Movimiento> findByMovimientoOrigen(@Param("codigoMovimiento") String codigoMovimiento);
 
+    //***********SALDO RETORNABLE DE VENTAS (CU23/CU24)***********
+
+    /** Saldo retornable por bulto de la venta activa; usa los índices por código de movimiento y por movimiento. */
+    @Query("""
+        select b.nroBulto as nroBulto, d.saldoRetornable as saldoRetornable, d.unidadMedida as unidadMedida
+        from DetalleMovimiento d
+        join d.movimiento m
+        join d.bulto b
+        where m.codigoMovimiento = :codigoMovimiento
+        and m.activo = true
+        and m.motivo = com.mb.conitrack.enums.MotivoEnum.VENTA
+        """)
+    List<SaldoRetornableBulto> findSaldosRetornablesVenta(@Param("codigoMovimiento") String codigoMovimiento);
+
+    /**
+     * Carga el saldo de los detalles de la venta que no lo tienen (anteriores a la migración V9 o insertados por
+     * fuera de JPA): cantidad vendida menos lo retornado por devoluciones y recalls activos, como la carga inicial de
+     * la migración. Excluye el retorno en curso, que descuenta su propia cantidad a continuación.
+     */
+    @Modifying
+    @Query("""
+        update DetalleMovimiento d
+        set d.saldoRetornable = d.cantidad - coalesce((
+            select sum(r.cantidad)
+            from DetalleMovimiento r
+            where r.movimiento.movimientoOrigen.id = :ventaId
+            and r.movimiento.activo = true
+            and r.movimiento.tipoMovimiento = com.mb.conitrack.enums.TipoMovimientoEnum.ALTA
+            and (:retornoId is null or r.movimiento.id <> :retornoId)
+            and r.bulto.nroBulto = (select b.nroBulto from Bulto b where b.id = d.bulto.id)), 0)
+        where d.movimiento.id = :ventaId
+        and d.saldoRetornable is null
+        """)
+    int inicializarSaldoRetornable(@Param("ventaId") Long ventaId, @Param("retornoId") Long retornoId);
+
+    /**
+     * Descuenta del saldo del bulto vendido. No actualiza (devuelve 0) si el saldo no alcanza: el control y la
+     * escritura van en la misma sentencia para que dos retornos concurrentes no superen lo vendido.
+     */
+    @Modifying
+    @Query("""
+        update DetalleMovimiento d
+        set d.saldoRetornable = d.saldoRetornable - :cantidad
+        where d.movimiento.id = :ventaId
+        and d.saldoRetornable >= :cantidad
+        and exists (select 1 from Bulto b where b.id = d.bulto.id and b.nroBulto = :nroBulto)
+        """)
+    int descontarSaldoRetornable(
+        @Param("ventaId") Long ventaId,
+        @Param("nroBulto") Integer nroBulto,
+        @Param("cantidad") BigDecimal cantidad);
+
+    @Modifying
+    @Query("""
+        update DetalleMovimiento d
+        set d.saldoRetornable = d.saldoRetornable + :cantidad
+        where d.movimiento.id = :ventaId
+        and d.saldoRetornable is not null
+        and exists (select 1 from Bulto b where b.id = d.bulto.id and b.nroBulto = :nroBulto)
+        """)
+    int reponerSaldoRetornable(
+        @Param("ventaId") Long ventaId,
+        @Param("nroBulto") Integer nroBulto,
+        @Param("cantidad") BigDecimal cantidad);
+
 }
 
 
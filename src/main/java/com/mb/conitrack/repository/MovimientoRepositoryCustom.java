@@ -0,0 +1,79 @@
+package com.mb.conitrack.repository;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import com.mb.conitrack.entity.Movimiento;
+import com.mb.conitrack.entity.SaldoCheckpoint.Nivel;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+
+import static com.mb.conitrack.utils.UnidadMedidaUtils.convertirCantidadEntreUnidades;
+
+/**
+ * Operaciones masivas sobre movimientos que no pasan por el contexto de persistencia.
+ * Se usan en los procesos automáticos (CU9/CU10), que generan un movimiento por lote,
+ * y en la reconstrucción del stock a una fecha.
+ */
+public interface MovimientoRepositoryCustom {
+
+    /**
+     * Efecto de un detalle de movimiento sobre el stock de su bulto, con las unidades de cada nivel.
+     *
+     * @param cantidad cantidad con signo: positiva si ingresa stock, negativa si egresa
+     * @param unidadMedida unidad en la que está expresada la cantidad
+     */
+    record EfectoStock(
+        Long bultoId,
+        UnidadMedidaEnum unidadBulto,
+        Long loteId,
+        UnidadMedidaEnum unidadLote,
+        Long productoId,
+        UnidadMedidaEnum unidadProducto,
+        BigDecimal cantidad,
+        UnidadMedidaEnum unidadMedida) {
+
+        public Long entidadId(final Nivel nivel) {
+            return switch (nivel) {
+                case BULTO -> bultoId;
+                case LOTE -> loteId;
+                case PRODUCTO -> productoId;
+            };
+        }
+
+        public UnidadMedidaEnum unidad(final Nivel nivel) {
+            return switch (nivel) {
+                case BULTO -> unidadBulto;
+                case LOTE -> unidadLote;
+                case PRODUCTO -> unidadProducto;
+            };
+        }
+
+        /** Cantidad con signo expresada en la unidad del nivel indicado. */
+        public BigDecimal cantidadEn(final Nivel nivel) {
+            return convertirCantidadEntreUnidades(unidadMedida, cantidad, unidad(nivel));
+        }
+
+    }
+
+    /**
+     * Inserta movimientos sin detalles ni movimiento de origen, en batches JDBC.
+     * Los ids generados no se asignan a las entidades recibidas.
+     *
+     * @return cantidad de movimientos insertados
+     */
+    int insertarBatch(List<Movimiento> movimientos);
+
+    /**
+     * Efectos sobre el stock de los movimientos creados en el intervalo (desde, hasta].
+     * Cada detalle de un ALTA suma y cada detalle de una BAJA resta, estén o no reversados; un REVERSO aplica,
+     * a su propia fecha, el efecto opuesto de los detalles del movimiento que reversa.
+     *
+     * @param nivel nivel por el que se filtra, o null para todos los movimientos del intervalo
+     * @param entidadId id del bulto, lote o producto según el nivel
+     * @param desde inicio exclusivo del intervalo, o null para tomar desde el primer movimiento
+     * @param hasta fin inclusivo del intervalo
+     */
+    List<EfectoStock> findEfectosStock(Nivel nivel, Long entidadId, OffsetDateTime desde, OffsetDateTime hasta);
+
+}
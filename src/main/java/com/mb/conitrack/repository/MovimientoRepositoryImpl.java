@@ -0,0 +1,144 @@
+package com.mb.conitrack.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mb.conitrack.entity.Movimiento;
+import com.mb.conitrack.entity.SaldoCheckpoint.Nivel;
+import com.mb.conitrack.enums.TipoMovimientoEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+
+/**
+ * Implementación JDBC de {@link MovimientoRepositoryCustom}.
+ * Movimiento usa IDENTITY, lo que impide el batching de inserts de Hibernate; aquí se envían en batches JDBC.
+ */
+public class MovimientoRepositoryImpl implements MovimientoRepositoryCustom {
+
+    /** Sentencias por batch JDBC. */
+    static final int FILAS_POR_BATCH = 500;
+
+    private static final String INSERT = """
+        insert into movimientos (codigo_movimiento, fecha_creacion, fecha, tipo_movimiento, motivo, lote_id,
+            cantidad, unidad_medida, nro_analisis, dictamen_inicial, dictamen_final, observaciones,
+            creado_por_user_id, activo)
+        values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private static final String EFECTO_COLUMNAS = """
+        select b.id as bulto_id, b.unidad_medida as unidad_bulto, l.id as lote_id, l.unidad_medida as unidad_lote,
+               p.id as producto_id, p.unidad_medida as unidad_producto, d.cantidad, d.unidad_medida,
+               m.tipo_movimiento, %s as reverso
+        """;
+
+    private static final String EFECTO_JOINS = """
+        join bultos b on b.id = d.bulto_id
+        join lotes l on l.id = b.lote_id
+        join productos p on p.id = l.producto_id
+        """;
+
+    /** Detalles de ALTA y BAJA, a la fecha de su movimiento. */
+    private static final String EFECTOS_DIRECTOS = EFECTO_COLUMNAS.formatted("0") + """
+        from detalle_movimientos d
+        join movimientos m on m.id = d.movimiento_id
+        """ + EFECTO_JOINS + """
+        where m.tipo_movimiento in ('ALTA', 'BAJA')
+          and m.fecha_creacion <= ?
+        """;
+
+    /** Detalles de los movimientos reversados, a la fecha del REVERSO. */
+    private static final String EFECTOS_REVERSOS = EFECTO_COLUMNAS.formatted("1") + """
+        from movimientos r
+        join movimientos m on m.id = r.movimiento_origen_id
+        join detalle_movimientos d on d.movimiento_id = m.id
+        """ + EFECTO_JOINS + """
+        where r.motivo = 'REVERSO'
+          and m.tipo_movimiento in ('ALTA', 'BAJA')
+          and r.fecha_creacion <= ?
+        """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertarBatch(final List<Movimiento> movimientos) {
+        if (movimientos.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT, movimientos, FILAS_POR_BATCH, (ps, m) -> {
+            ps.setString(1, m.getCodigoMovimiento());
+            ps.setObject(2, m.getFechaYHoraCreacion());
+            ps.setObject(3, m.getFecha());
+            ps.setString(4, m.getTipoMovimiento().name());
+            ps.setString(5, m.getMotivo().name());
+            ps.setLong(6, m.getLote().getId());
+            ps.setBigDecimal(7, m.getCantidad());
+            ps.setString(8, m.getUnidadMedida() != null ? m.getUnidadMedida().name() : null);
+            ps.setString(9, m.getNroAnalisis());
+            ps.setString(10, m.getDictamenInicial() != null ? m.getDictamenInicial().name() : null);
+            ps.setString(11, m.getDictamenFinal() != null ? m.getDictamenFinal().name() : null);
+            ps.setString(12, m.getObservaciones());
+            if (m.getCreadoPor() != null && m.getCreadoPor().getId() != null) {
+                ps.setLong(13, m.getCreadoPor().getId());
+            } else {
+                ps.setNull(13, Types.BIGINT);
+            }
+            ps.setBoolean(14, m.getActivo() == null || m.getActivo());
+        });
+        return movimientos.size();
+    }
+
+    @Override
+    public List<EfectoStock> findEfectosStock(
+        final Nivel nivel,
+        final Long entidadId,
+        final OffsetDateTime desde,
+        final OffsetDateTime hasta) {
+
+        final StringBuilder filtro = new StringBuilder();
+        final List<Object> parametros = new ArrayList<>();
+        parametros.add(hasta);
+        if (desde != null) {
+            filtro.append("  and %s.fecha_creacion > ?\n");
+            parametros.add(desde);
+        }
+        if (nivel != null) {
+            filtro.append("  and ").append(columnaNivel(nivel)).append(" = ?\n");
+            parametros.add(entidadId);
+        }
+        final String sql = EFECTOS_DIRECTOS + filtro.toString().formatted("m")
+            + "union all\n"
+            + EFECTOS_REVERSOS + filtro.toString().formatted("r");
+        final List<Object> todos = new ArrayList<>(parametros);
+        todos.addAll(parametros);
+        return jdbcTemplate.query(sql, (rs, rowNum) -> efecto(rs), todos.toArray());
+    }
+
+    private static String columnaNivel(final Nivel nivel) {
+        return switch (nivel) {
+            case BULTO -> "b.id";
+            case LOTE -> "l.id";
+            case PRODUCTO -> "p.id";
+        };
+    }
+
+    private static EfectoStock efecto(final ResultSet rs) throws SQLException {
+        final boolean ingreso = TipoMovimientoEnum.valueOf(rs.getString("tipo_movimiento")) == TipoMovimientoEnum.ALTA;
+        final boolean reverso = rs.getInt("reverso") == 1;
+        return new EfectoStock(
+            rs.getLong("bulto_id"),
+            UnidadMedidaEnum.valueOf(rs.getString("unidad_bulto")),
+            rs.getLong("lote_id"),
+            UnidadMedidaEnum.valueOf(rs.getString("unidad_lote")),
+            rs.getLong("producto_id"),
+            UnidadMedidaEnum.valueOf(rs.getString("unidad_producto")),
+            ingreso != reverso ? rs.getBigDecimal("cantidad") : rs.getBigDecimal("cantidad").negate(),
+            UnidadMedidaEnum.valueOf(rs.getString("unidad_medida")));
+    }
+
+}
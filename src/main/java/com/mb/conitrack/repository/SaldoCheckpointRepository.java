@@ -0,0 +1,42 @@
+package com.mb.conitrack.repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.mb.conitrack.entity.SaldoCheckpoint;
+import com.mb.conitrack.entity.SaldoCheckpoint.Nivel;
+
+public interface SaldoCheckpointRepository extends JpaRepository<SaldoCheckpoint, Long> {
+
+    /** Checkpoint más cercano anterior (o igual) a la fecha indicada. */
+    Optional<SaldoCheckpoint> findFirstByNivelAndEntidadIdAndFechaCorteLessThanEqualOrderByFechaCorteDesc(
+        Nivel nivel,
+        Long entidadId,
+        OffsetDateTime fecha);
+
+    @Query("select max(c.fechaCorte) from SaldoCheckpoint c")
+    Optional<OffsetDateTime> findUltimoCorte();
+
+    /** Último checkpoint hasta la fecha indicada de cada una de las entidades. */
+    @Query("""
+            select c from SaldoCheckpoint c
+            where c.nivel = :nivel
+              and c.entidadId in :entidadIds
+              and c.fechaCorte = (
+                  select max(c2.fechaCorte) from SaldoCheckpoint c2
+                  where c2.nivel = c.nivel
+                    and c2.entidadId = c.entidadId
+                    and c2.fechaCorte <= :fecha)
+        """)
+    List<SaldoCheckpoint> findVigentes(
+        @Param("nivel") Nivel nivel,
+        @Param("entidadIds") Collection<Long> entidadIds,
+        @Param("fecha") OffsetDateTime fecha);
+
+}
@@ -0,0 +1,31 @@
+package com.mb.conitrack.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.mb.conitrack.entity.TrazaContador;
+
+import jakarta.persistence.LockModeType;
+
+public interface TrazaContadorRepository extends JpaRepository<TrazaContador, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+          select c
+          from TrazaContador c
+          where c.productoId = :productoId
+        """)
+    Optional<TrazaContador> findForUpdate(@Param("productoId") Long productoId);
+
+    /** Alta del contador con INSERT explícito: si ya existe falla por clave primaria en lugar de sobrescribirlo. */
+    @Modifying
+    @Query(value = "insert into traza_contadores (producto_id, ultimo_nro) values (:productoId, :ultimoNro)",
+        nativeQuery = true)
+    int insertar(@Param("productoId") Long productoId, @Param("ultimoNro") Long ultimoNro);
+
+}
@@ -0,0 +1,58 @@
+package com.mb.conitrack.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.mb.conitrack.entity.TrazaRango;
+import com.mb.conitrack.enums.EstadoEnum;
+
+public interface TrazaRangoRepository extends JpaRepository<TrazaRango, Long> {
+
+    @Query("""
+          select r
+          from TrazaRango r
+          where r.bulto.id = :bultoId
+            and r.estado = :estado
+          order by r.nroDesde asc
+        """)
+    List<TrazaRango> findByBultoIdAndEstado(@Param("bultoId") Long bultoId, @Param("estado") EstadoEnum estado);
+
+    @Query("""
+          select r
+          from TrazaRango r
+            join fetch r.lote l
+            join fetch r.bulto b
+            join fetch r.producto p
+          where l.codigoLote = :codigoLote
+            and b.nroBulto = :nroBulto
+            and r.estado = com.mb.conitrack.enums.EstadoEnum.DISPONIBLE
+          order by r.nroDesde asc
+        """)
+    List<TrazaRango> findDisponiblesByCodigoLoteAndNroBulto(
+        @Param("codigoLote") String codigoLote,
+        @Param("nroBulto") Integer nroBulto);
+
+    /** Rangos de los bultos, en cualquier estado, que se superponen con [desde, hasta]. */
+    @Query("""
+          select r
+          from TrazaRango r
+          where r.bulto.id in :bultoIds
+            and r.nroDesde <= :hasta
+            and r.nroHasta >= :desde
+          order by r.nroDesde asc
+        """)
+    List<TrazaRango> findSolapados(
+        @Param("bultoIds") Collection<Long> bultoIds,
+        @Param("desde") Long desde,
+        @Param("hasta") Long hasta);
+
+    Optional<TrazaRango> findByBultoIdAndEstadoAndNroHasta(Long bultoId, EstadoEnum estado, Long nroHasta);
+
+    Optional<TrazaRango> findByBultoIdAndEstadoAndNroDesde(Long bultoId, EstadoEnum estado, Long nroDesde);
+
+}
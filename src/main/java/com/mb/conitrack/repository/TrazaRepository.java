@@ -1,17 +1,51 @@
 package com.mb.conitrack.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.mb.conitrack.entity.Traza;
 
-public interface TrazaRepository extends JpaRepository<Traza, Long> {
+public interface TrazaRepository extends JpaRepository<Traza, Long>, TrazaRepositoryCustom {
 
     List<Traza> findAllByActivoTrue();
 
+    long countByActivoTrue();
+
+    /**
+     * Página del listado general; :filtro es un patrón en minúsculas o null y :nro el mismo texto como número
+     * de traza (null si no es numérico).
+     */
+    @EntityGraph(attributePaths = { "lote", "producto", "bulto" })
+    @Query(
+        value = """
+            select t from Traza t
+            join t.lote l
+            join t.producto p
+            where t.activo = true
+              and (:filtro is null
+                or t.nroTraza = :nro
+                or lower(l.codigoLote) like :filtro
+                or lower(p.codigoProducto) like :filtro)
+        """,
+        countQuery = """
+            select count(t) from Traza t
+            join t.lote l
+            join t.producto p
+            where t.activo = true
+              and (:filtro is null
+                or t.nroTraza = :nro
+                or lower(l.codigoLote) like :filtro
+                or lower(p.codigoProducto) like :filtro)
+        """)
+    Page<Traza> findPagina(@Param("filtro") String filtro, @Param("nro") Long nro, Pageable pageable);
+
     List<Traza> findByLoteCodigoLoteOrderByNroTrazaAsc(String codigoLote);
 
     List<Traza> findByLoteCodigoLoteAndActivoTrueOrderByNroTrazaAsc(String codigoLote);
@@ -70,4 +104,28 @@ public interface TrazaRepository extends JpaRepository<Traza, Long> {
     List<Traza> findDisponiblesByCodigoLoteAndNroBulto(@Param("codigoLote") String codigoLote,
         @Param("nroBulto") Integer nroBulto);
 
+    @Query("""
+        select t
+        from Traza t
+        where t.bulto.id = :bultoId
+          and t.nroTraza between :nroDesde and :nroHasta
+          and t.activo = true
+          and t.estado = com.mb.conitrack.enums.EstadoEnum.DISPONIBLE
+        order by t.nroTraza asc
+    """)
+    List<Traza> findDisponiblesByBultoIdAndNroTrazaBetween(@Param("bultoId") Long bultoId,
+        @Param("nroDesde") Long nroDesde, @Param("nroHasta") Long nroHasta);
+
+    @Query("""
+        select t
+        from Traza t
+        where t.bulto.id = :bultoId
+          and t.nroTraza in :nroTrazas
+          and t.activo = true
+          and t.estado = com.mb.conitrack.enums.EstadoEnum.DISPONIBLE
+        order by t.nroTraza asc
+    """)
+    List<Traza> findDisponiblesByBultoIdAndNroTrazaIn(@Param("bultoId") Long bultoId,
+        @Param("nroTrazas") Collection<Long> nroTrazas);
+
 }
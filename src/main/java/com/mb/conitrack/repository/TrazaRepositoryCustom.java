@@ -0,0 +1,71 @@
+package com.mb.conitrack.repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import com.mb.conitrack.enums.EstadoEnum;
+
+/**
+ * Operaciones masivas sobre trazas que no pasan por el contexto de persistencia.
+ * Se usan en el trazado de lotes grandes (CU28) y en la lectura de escaneos, donde materializar una entidad por
+ * unidad es prohibitivo.
+ */
+public interface TrazaRepositoryCustom {
+
+    /**
+     * Rango contiguo de números de traza asignado a un bulto.
+     *
+     * @param bultoId bulto al que pertenecen las trazas
+     * @param nroDesde primer número de traza del rango
+     * @param cantidad cantidad de trazas del rango
+     */
+    record RangoTraza(Long bultoId, long nroDesde, long cantidad) {
+
+        public long nroHasta() {
+            return nroDesde + cantidad - 1;
+        }
+
+    }
+
+    /**
+     * Traza leída por su número de serie en un escaneo, con el lote y bulto al que pertenece.
+     *
+     * @param codigoProducto producto de la traza
+     * @param nroTraza número de serie dentro del producto
+     * @param estado estado actual de la traza
+     * @param codigoLote lote de la traza
+     * @param nroBulto bulto de la traza dentro del lote
+     */
+    record TrazaEscaneada(String codigoProducto, long nroTraza, EstadoEnum estado, String codigoLote,
+                          Integer nroBulto) {
+
+    }
+
+    /**
+     * Trazas activas del producto con los números indicados, resueltas por el índice único
+     * (producto_id, nro_traza). Los números que no existen no se devuelven.
+     */
+    List<TrazaEscaneada> findEscaneadas(String codigoProducto, Collection<Long> nroTrazas);
+
+    /**
+     * Inserta las trazas de un rango con sentencias multi-fila por JDBC, en estado DISPONIBLE y activas.
+     *
+     * @return cantidad de trazas insertadas
+     */
+    long insertarRango(
+        Long loteId,
+        Long productoId,
+        String descripcionProducto,
+        OffsetDateTime fechaYHoraCreacion,
+        RangoTraza rango);
+
+    /**
+     * Elimina las trazas de un lote dentro del rango de números indicado.
+     * Se usa para compensar un trazado que no llegó a confirmarse.
+     *
+     * @return cantidad de trazas eliminadas
+     */
+    int eliminarRango(Long loteId, long nroDesde, long nroHasta);
+
+}
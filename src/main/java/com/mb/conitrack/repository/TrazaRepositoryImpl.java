@@ -0,0 +1,142 @@
+package com.mb.conitrack.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mb.conitrack.enums.EstadoEnum;
+
+/**
+ * Implementación JDBC de {@link TrazaRepositoryCustom}.
+ * Traza usa IDENTITY, lo que impide el batching de Hibernate; aquí se insertan varias filas por sentencia
+ * y la base asigna los ids.
+ */
+public class TrazaRepositoryImpl implements TrazaRepositoryCustom {
+
+    /** Filas por sentencia INSERT multi-fila (8 parámetros por fila). */
+    static final int FILAS_POR_SENTENCIA = 500;
+
+    private static final String INSERT_PREFIX = """
+        insert into trazas (fecha_creacion, lote_id, bulto_id, producto_id, nro_traza, estado, observaciones, activo)
+        values\s""";
+
+    /** Números de traza por consulta de escaneos: acota la cantidad de parámetros de cada sentencia. */
+    static final int TRAZAS_POR_CONSULTA = 1000;
+
+    private static final String ESCANEADAS_PREFIX = """
+        select p.codigo_producto, t.nro_traza, t.estado, l.codigo_lote, b.nro_bulto
+        from trazas t
+        join productos p on p.id = t.producto_id
+        join lotes l on l.id = t.lote_id
+        join bultos b on b.id = t.bulto_id
+        where p.codigo_producto = ?
+          and t.activo = true
+          and t.nro_traza in (""";
+
+    private static final String INSERT_FILA = "(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_COMPLETO = sqlInsert(FILAS_POR_SENTENCIA);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public long insertarRango(
+        final Long loteId,
+        final Long productoId,
+        final String descripcionProducto,
+        final OffsetDateTime fechaYHoraCreacion,
+        final RangoTraza rango) {
+
+        long insertadas = 0;
+        while (insertadas < rango.cantidad()) {
+            final int filas = (int)Math.min(FILAS_POR_SENTENCIA, rango.cantidad() - insertadas);
+            final long desde = rango.nroDesde() + insertadas;
+            final String sql = filas == FILAS_POR_SENTENCIA ? INSERT_COMPLETO : sqlInsert(filas);
+            jdbcTemplate.update(sql, ps -> {
+                int idx = 1;
+                for (int i = 0; i < filas; i++) {
+                    final long nroTraza = desde + i;
+                    idx = setFila(ps, idx, fechaYHoraCreacion, loteId, rango.bultoId(), productoId, nroTraza,
+                        "CU28 Traza: " + nroTraza + "\n - Producto: " + descripcionProducto);
+                }
+            });
+            insertadas += filas;
+        }
+        return insertadas;
+    }
+
+    @Override
+    public List<TrazaEscaneada> findEscaneadas(final String codigoProducto, final Collection<Long> nroTrazas) {
+        if (nroTrazas.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<Long> nros = new ArrayList<>(nroTrazas);
+        final List<TrazaEscaneada> trazas = new ArrayList<>(nros.size());
+        for (int desde = 0; desde < nros.size(); desde += TRAZAS_POR_CONSULTA) {
+            final List<Long> bloque = nros.subList(desde, Math.min(desde + TRAZAS_POR_CONSULTA, nros.size()));
+            final Object[] params = new Object[bloque.size() + 1];
+            params[0] = codigoProducto;
+            for (int i = 0; i < bloque.size(); i++) {
+                params[i + 1] = bloque.get(i);
+            }
+            trazas.addAll(jdbcTemplate.query(
+                ESCANEADAS_PREFIX + String.join(", ", Collections.nCopies(bloque.size(), "?")) + ")",
+                (rs, rowNum) -> new TrazaEscaneada(
+                    rs.getString(1),
+                    rs.getLong(2),
+                    EstadoEnum.valueOf(rs.getString(3)),
+                    rs.getString(4),
+                    rs.getInt(5)),
+                params));
+        }
+        return trazas;
+    }
+
+    @Override
+    public int eliminarRango(final Long loteId, final long nroDesde, final long nroHasta) {
+        return jdbcTemplate.update(
+            "delete from trazas where lote_id = ? and nro_traza between ? and ?",
+            loteId, nroDesde, nroHasta);
+    }
+
+    private static int setFila(
+        final PreparedStatement ps,
+        int idx,
+        final OffsetDateTime fechaYHoraCreacion,
+        final Long loteId,
+        final Long bultoId,
+        final Long productoId,
+        final long nroTraza,
+        final String observaciones) throws SQLException {
+        ps.setObject(idx++, fechaYHoraCreacion);
+        ps.setLong(idx++, loteId);
+        ps.setLong(idx++, bultoId);
+        ps.setLong(idx++, productoId);
+        ps.setLong(idx++, nroTraza);
+        ps.setString(idx++, EstadoEnum.DISPONIBLE.name());
+        ps.setString(idx++, observaciones);
+        ps.setBoolean(idx++, true);
+        return idx;
+    }
+
+    private static String sqlInsert(final int filas) {
+        final StringBuilder sb = new StringBuilder(INSERT_PREFIX.length() + filas * (INSERT_FILA.length() + 2));
+        sb.append(INSERT_PREFIX);
+        for (int i = 0; i < filas; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(INSERT_FILA);
+        }
+        return sb.toString();
+    }
+
+}
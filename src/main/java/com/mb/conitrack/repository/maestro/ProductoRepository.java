@@ -2,11 +2,21 @@ package com.mb.conitrack.repository.maestro;
 
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.mb.conitrack.entity.maestro.Producto;
 
+import jakarta.persistence.QueryHint;
+
+import static com.mb.conitrack.config.CacheConfig.PRODUCTOS_LISTAS;
+
+/**
+ * Productos: datos de referencia en la caché de segundo nivel (findById) y listados en la query cache; Hibernate
+ * invalida los listados al confirmar cualquier cambio en la tabla.
+ */
 public interface ProductoRepository extends JpaRepository<Producto, Long> {
 
     @Query("""
@@ -22,6 +32,10 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
               )
             order by p.codigoProducto asc
         """)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = PRODUCTOS_LISTAS)
+    })
     List<Producto> findProductosExternos();
 
     // Internos = todos los "SemiElab" + UNIDAD_VENTA
@@ -39,8 +53,16 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
               )
             order by p.codigoProducto asc
         """)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = PRODUCTOS_LISTAS)
+    })
     List<Producto> findProductosInternos();
 
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = PRODUCTOS_LISTAS)
+    })
     List<Producto> findByActivoTrueOrderByCodigoProductoAsc();
 
 }
@@ -3,11 +3,21 @@ package com.mb.conitrack.repository.maestro;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.mb.conitrack.entity.maestro.Proveedor;
 
+import jakarta.persistence.QueryHint;
+
+import static com.mb.conitrack.config.CacheConfig.PROVEEDORES_LISTAS;
+
+/**
+ * Proveedores: datos de referencia en la caché de segundo nivel (findById) y listados en la query cache;
+ * Hibernate invalida los listados al confirmar cualquier cambio en la tabla.
+ */
 public interface ProveedorRepository extends JpaRepository<Proveedor, Long> {
 
     @Query("""
@@ -16,8 +26,16 @@ public interface ProveedorRepository extends JpaRepository<Proveedor, Long> {
             where lower(p.razonSocial) like '%conifarma%'
             order by p.id asc
         """)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = PROVEEDORES_LISTAS)
+    })
     Optional<Proveedor> findConifarma();
 
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = PROVEEDORES_LISTAS)
+    })
     List<Proveedor> findAllByOrderByRazonSocialAsc();
 
     // 2) Externos = activos y razón social NO contiene "conifarma" (case-insensitive), sin parámetro
@@ -28,6 +46,10 @@ public interface ProveedorRepository extends JpaRepository<Proveedor, Long> {
               and lower(p.razonSocial) not like '%conifarma%'
             order by p.razonSocial asc
         """)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = PROVEEDORES_LISTAS)
+    })
     List<Proveedor> findProveedoresExternosOrderByRazonSocialAsc();
 
 }
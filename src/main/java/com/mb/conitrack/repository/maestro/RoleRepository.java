@@ -1,13 +1,32 @@
 package com.mb.conitrack.repository.maestro;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.mb.conitrack.entity.maestro.Role;
 
+import jakarta.persistence.QueryHint;
+
+import static com.mb.conitrack.config.CacheConfig.ROLES_LISTAS;
+
+/** Roles: fijos salvo el nivel, que se sincroniza al iniciar; búsquedas y listado en la query cache. */
 public interface RoleRepository extends JpaRepository<Role, Long> {
 
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ROLES_LISTAS)
+    })
     Optional<Role> findByName(String name);
 
+    @Override
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ROLES_LISTAS)
+    })
+    List<Role> findAll();
+
 }
@@ -1,12 +1,18 @@
 package com.mb.conitrack.service;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.mb.conitrack.dto.AnalisisDTO;
+import com.mb.conitrack.dto.datatables.DataTablesRequest;
+import com.mb.conitrack.dto.datatables.DataTablesResponse;
+import com.mb.conitrack.dto.mapper.AnalisisMapper;
 import com.mb.conitrack.entity.Analisis;
 import com.mb.conitrack.repository.AnalisisRepository;
 
@@ -15,6 +21,18 @@ import static com.mb.conitrack.dto.DTOUtils.fromAnalisisEntities;
 @Service
 public class AnalisisService {
 
+    /** Columnas del listado general que admiten orden, con su propiedad en la consulta paginada. */
+    static final Map<String, String> COLUMNAS_ORDENABLES = Map.of(
+        "nroAnalisis", "a.nroAnalisis",
+        "codigoLote", "l.codigoLote",
+        "fechaYHoraCreacion", "a.fechaYHoraCreacion",
+        "dictamen", "a.dictamen",
+        "fechaRealizado", "a.fechaRealizado",
+        "fechaReanalisis", "a.fechaReanalisis",
+        "fechaVencimiento", "a.fechaVencimiento");
+
+    static final Sort ORDEN_POR_DEFECTO = Sort.by("a.fechaYHoraCreacion", "a.id");
+
     @Autowired
     private AnalisisRepository analisisRepository;
 
@@ -23,6 +41,18 @@ public class AnalisisService {
         return fromAnalisisEntities(analisisRepository.findAllByActivoTrue());
     }
 
+    /**
+     * Página del listado general de análisis para DataTables server-side.
+     */
+    @Transactional(readOnly = true)
+    public DataTablesResponse<AnalisisDTO> findPaginaAnalisis(final DataTablesRequest request) {
+        final Page<Analisis> pagina = analisisRepository.findPagina(
+            request.getFiltroLike(),
+            request.toPageable(COLUMNAS_ORDENABLES, ORDEN_POR_DEFECTO));
+        final long total = request.tieneFiltro() ? analisisRepository.countByActivoTrue() : pagina.getTotalElements();
+        return DataTablesResponse.of(request, pagina, total, AnalisisMapper::fromEntity);
+    }
+
     @Transactional(readOnly = true)
     public List<AnalisisDTO> findAllEnCursoDTOs() {
         return fromAnalisisEntities(analisisRepository.findAllEnCurso());
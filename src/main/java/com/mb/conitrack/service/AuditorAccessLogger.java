@@ -2,12 +2,9 @@ package com.mb.conitrack.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 import com.mb.conitrack.entity.AuditoriaAcceso;
 import com.mb.conitrack.entity.maestro.User;
-import com.mb.conitrack.repository.AuditoriaAccesoRepository;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
@@ -16,24 +13,25 @@ import lombok.extern.slf4j.Slf4j;
  * Servicio para registrar accesos de auditores al sistema.
  * Implementa doble registro:
  * 1. Log en archivo de aplicación (vía @Slf4j)
- * 2. Registro en tabla de base de datos (auditoria_accesos)
+ * 2. Registro en tabla de base de datos (auditoria_accesos), encolado en {@link AuditoriaAccesoWriter}
+ *    para no sumar una escritura a la petición
  */
 @Service
 @Slf4j
 public class AuditorAccessLogger {
 
     @Autowired
-    private AuditoriaAccesoRepository auditoriaAccesoRepository;
+    private AuditoriaAccesoWriter auditoriaAccesoWriter;
 
     /**
      * Registra un acceso de auditor con información completa.
-     * Usa REQUIRES_NEW para garantizar que el log se persista incluso si hay rollback.
+     * Los datos de la petición se toman en el momento; la escritura en BD es asincrónica y en su propia
+     * transacción, por lo que se persiste incluso si la petición hace rollback.
      *
      * @param user Usuario que accede (debe ser AUDITOR)
      * @param accion Descripción de la acción realizada
      * @param request HttpServletRequest para obtener datos de la petición
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logAccess(User user, String accion, HttpServletRequest request) {
         if (user == null) {
             log.warn("Intento de log de acceso con usuario null");
@@ -64,12 +62,11 @@ public class AuditorAccessLogger {
                 .userAgent(userAgent)
                 .build();
 
-            auditoriaAccesoRepository.save(registro);
-            log.debug("Registro de auditoría guardado en BD: id={}", registro.getId());
+            auditoriaAccesoWriter.encolar(registro);
 
         } catch (Exception e) {
-            // No fallar si hay error al guardar en BD, al menos quedó el log
-            log.error("Error al guardar registro de auditoría en BD: {}", e.getMessage(), e);
+            // No fallar si hay error al encolar el registro, al menos quedó el log
+            log.error("Error al registrar auditoría en BD: {}", e.getMessage(), e);
         }
     }
 
@@ -77,7 +74,6 @@ public class AuditorAccessLogger {
      * Versión simplificada para casos donde no hay HttpServletRequest disponible.
      * Solo registra usuario y acción.
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logAccess(User user, String accion) {
         logAccess(user, accion, null);
     }
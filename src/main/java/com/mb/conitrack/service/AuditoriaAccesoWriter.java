@@ -0,0 +1,208 @@
+package com.mb.conitrack.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mb.conitrack.entity.AuditoriaAcceso;
+import com.mb.conitrack.repository.AuditoriaAccesoRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Escritura asincrónica y por batches de los registros de auditoría de accesos.
+ *
+ * Los registros se encolan en una cola acotada en memoria y un hilo de fondo los inserta en batches JDBC,
+ * cada batch en su propia transacción. Si un batch falla se reintenta registro por registro, de modo que solo se
+ * pierde y contabiliza como fallido el registro que causó el error. Garantías de durabilidad:
+ * - Al detener la aplicación se espera al hilo y se escribe sincrónicamente lo que quede en la cola.
+ * - Con la cola llena se aplica la política de desborde: SINCRONICO escribe el registro en el hilo que lo
+ *   genera (sin pérdida, con el costo de la escritura); DESCARTAR lo descarta y lo contabiliza.
+ * - Una caída abrupta del proceso pierde lo encolado y aún no escrito; el log de aplicación conserva cada acceso.
+ * Con conitrack.auditoria.asincronico=false cada registro se escribe en el momento, como antes.
+ */
+@Component
+@Slf4j
+public class AuditoriaAccesoWriter {
+
+    public enum PoliticaDesborde {
+        SINCRONICO,
+        DESCARTAR
+    }
+
+    @Autowired
+    private AuditoriaAccesoRepository auditoriaAccesoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${conitrack.auditoria.asincronico:true}")
+    private boolean asincronico = true;
+
+    @Value("${conitrack.auditoria.capacidad-cola:10000}")
+    private int capacidadCola = 10000;
+
+    @Value("${conitrack.auditoria.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${conitrack.auditoria.intervalo-ms:500}")
+    private long intervaloMs = 500;
+
+    @Value("${conitrack.auditoria.desborde:SINCRONICO}")
+    private PoliticaDesborde desborde = PoliticaDesborde.SINCRONICO;
+
+    private final AtomicLong escritos = new AtomicLong();
+
+    private final AtomicLong descartados = new AtomicLong();
+
+    private final AtomicLong fallidos = new AtomicLong();
+
+    private BlockingQueue<AuditoriaAcceso> cola;
+
+    private Thread escritor;
+
+    private volatile boolean activo;
+
+    @PostConstruct
+    void iniciar() {
+        cola = new ArrayBlockingQueue<>(capacidadCola);
+        if (!asincronico) {
+            return;
+        }
+        activo = true;
+        escritor = new Thread(this::procesarCola, "auditoria-accesos-writer");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    @PreDestroy
+    void detener() {
+        activo = false;
+        if (escritor != null) {
+            try {
+                escritor.join(intervaloMs + TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        vaciarCola();
+        log.info("Escritor de auditoría detenido: escritos={} descartados={} fallidos={}",
+            escritos.get(), descartados.get(), fallidos.get());
+    }
+
+    /**
+     * Encola un registro para su escritura. No bloquea: con la cola llena aplica la política de desborde.
+     */
+    public void encolar(final AuditoriaAcceso registro) {
+        if (!asincronico) {
+            escribir(List.of(registro));
+            return;
+        }
+        if (cola.offer(registro)) {
+            return;
+        }
+        if (desborde == PoliticaDesborde.SINCRONICO) {
+            log.warn("Cola de auditoría llena ({}): escritura sincrónica", capacidadCola);
+            escribir(List.of(registro));
+        } else {
+            descartados.incrementAndGet();
+            log.warn("Cola de auditoría llena ({}): registro descartado user={} action={}",
+                capacidadCola, registro.getUsername(), registro.getAccion());
+        }
+    }
+
+    /** Escribe sincrónicamente todo lo pendiente en la cola. */
+    void vaciarCola() {
+        final List<AuditoriaAcceso> batch = new ArrayList<>(batchSize);
+        while (cola.drainTo(batch, batchSize) > 0) {
+            escribir(batch);
+            batch.clear();
+        }
+    }
+
+    private void procesarCola() {
+        final List<AuditoriaAcceso> batch = new ArrayList<>(batchSize);
+        while (activo) {
+            try {
+                final AuditoriaAcceso primero = cola.poll(intervaloMs, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                batch.add(primero);
+                cola.drainTo(batch, batchSize - 1);
+                escribir(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void escribir(final List<AuditoriaAcceso> registros) {
+        try {
+            insertar(registros);
+            escritos.addAndGet(registros.size());
+            log.debug("Registros de auditoría guardados en BD: {}", registros.size());
+        } catch (Exception e) {
+            if (registros.size() == 1) {
+                registrarFallido(registros.get(0), e);
+                return;
+            }
+            log.warn("Batch de auditoría revertido ({} registros), se reintenta registro por registro: {}",
+                registros.size(), e.getMessage());
+            for (AuditoriaAcceso registro : registros) {
+                try {
+                    insertar(List.of(registro));
+                    escritos.incrementAndGet();
+                } catch (Exception errorRegistro) {
+                    registrarFallido(registro, errorRegistro);
+                }
+            }
+        }
+    }
+
+    private void insertar(final List<AuditoriaAcceso> registros) {
+        final TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        tx.executeWithoutResult(status -> auditoriaAccesoRepository.insertarBatch(registros));
+    }
+
+    private void registrarFallido(final AuditoriaAcceso registro, final Exception e) {
+        // No fallar si hay error al guardar en BD, al menos quedó el log
+        fallidos.incrementAndGet();
+        log.error("Error al guardar registro de auditoría en BD user={} action={}: {}",
+            registro.getUsername(), registro.getAccion(), e.getMessage(), e);
+    }
+
+    /** Registros encolados pendientes de escritura. */
+    public int getPendientes() {
+        return cola.size();
+    }
+
+    public long getEscritos() {
+        return escritos.get();
+    }
+
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    public long getFallidos() {
+        return fallidos.get();
+    }
+
+}
@@ -1,12 +1,19 @@
 package com.mb.conitrack.service;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.mb.conitrack.dto.BultoDTO;
+import com.mb.conitrack.dto.datatables.DataTablesRequest;
+import com.mb.conitrack.dto.datatables.DataTablesResponse;
+import com.mb.conitrack.dto.mapper.BultoMapper;
+import com.mb.conitrack.entity.Bulto;
 import com.mb.conitrack.repository.BultoRepository;
 
 import static com.mb.conitrack.dto.DTOUtils.fromBultoEntities;
@@ -14,6 +21,15 @@ import static com.mb.conitrack.dto.DTOUtils.fromBultoEntities;
 @Service
 public class BultoService {
 
+    /** Columnas del listado general que admiten orden, con su propiedad en la consulta paginada. */
+    static final Map<String, String> COLUMNAS_ORDENABLES = Map.of(
+        "codigoLote", "l.codigoLote",
+        "nroBulto", "b.nroBulto",
+        "cantidadActual", "b.cantidadActual",
+        "estado", "b.estado");
+
+    static final Sort ORDEN_POR_DEFECTO = Sort.by("l.codigoLote", "b.nroBulto");
+
     @Autowired
     private BultoRepository bultoRepository;
 
@@ -27,4 +43,16 @@ public class BultoService {
         return fromBultoEntities(bultoRepository.findAllByActivoTrue());
     }
 
+    /**
+     * Página del listado general de bultos para DataTables server-side.
+     */
+    @Transactional(readOnly = true)
+    public DataTablesResponse<BultoDTO> findPaginaBultos(final DataTablesRequest request) {
+        final Page<Bulto> pagina = bultoRepository.findPagina(
+            request.getFiltroLike(),
+            request.toPageable(COLUMNAS_ORDENABLES, ORDEN_POR_DEFECTO));
+        final long total = request.tieneFiltro() ? bultoRepository.countByActivoTrue() : pagina.getTotalElements();
+        return DataTablesResponse.of(request, pagina, total, BultoMapper::fromEntity);
+    }
+
 }
@@ -0,0 +1,67 @@
+package com.mb.conitrack.service;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.mb.conitrack.repository.LoteRepository;
+
+import static com.mb.conitrack.utils.LoteEntityUtils.codigoLoteBase;
+
+/**
+ * Genera códigos de lote únicos para los ingresos.
+ * El código tiene resolución de segundos, por lo que los lotes de un mismo producto creados en el mismo segundo
+ * (una importación, o dos usuarios a la vez) reciben un sufijo: L-{producto}-{timestamp}, -2, -3, ...
+ * El último sufijo de cada código base se consulta en la base la primera vez y luego se lleva en memoria, de modo
+ * que también cubre lotes aún no confirmados de esta instancia.
+ */
+@Component
+public class CodigoLoteGenerator {
+
+    static final String SEPARADOR_SUFIJO = "-";
+
+    /** Códigos base recordados; basta con los de los últimos segundos. */
+    private static final int MAX_BASES = 1000;
+
+    @Autowired
+    private LoteRepository loteRepository;
+
+    private final Map<String, Integer> ultimoSufijo = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Integer> eldest) {
+            return size() > MAX_BASES;
+        }
+    };
+
+    public synchronized String generar(final String codigoProducto, final OffsetDateTime fechaYHoraCreacion) {
+        final String base = codigoLoteBase(codigoProducto, fechaYHoraCreacion);
+        Integer ultimo = ultimoSufijo.get(base);
+        if (ultimo == null) {
+            ultimo = ultimoSufijoPersistido(base);
+        }
+        final int siguiente = ultimo + 1;
+        ultimoSufijo.put(base, siguiente);
+        return siguiente == 1 ? base : base + SEPARADOR_SUFIJO + siguiente;
+    }
+
+    /** Mayor sufijo ya usado para el código base: 0 si no existe, 1 si existe sin sufijo. */
+    private int ultimoSufijoPersistido(final String base) {
+        int ultimo = 0;
+        for (String codigo : loteRepository.findCodigosLoteByPrefijo(base)) {
+            if (codigo.equals(base)) {
+                ultimo = Math.max(ultimo, 1);
+            } else if (codigo.startsWith(base + SEPARADOR_SUFIJO)) {
+                try {
+                    ultimo = Math.max(ultimo, Integer.parseInt(codigo.substring(base.length() + 1)));
+                } catch (NumberFormatException e) {
+                    // Sufijo no numérico: no pertenece a la secuencia
+                }
+            }
+        }
+        return ultimo;
+    }
+
+}
@@ -0,0 +1,259 @@
+package com.mb.conitrack.service;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mb.conitrack.dto.DashboardMetricsDTO;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.Movimiento;
+import com.mb.conitrack.enums.DictamenEnum;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Snapshot en memoria de las métricas del dashboard.
+ * Los servicios de CU aplican deltas al confirmar un movimiento y DashboardService
+ * reconcilia periódicamente el snapshot contra la base de datos.
+ * El snapshot se descarta si supera la antigüedad máxima configurada o si cambia el día.
+ * <p>
+ * Snapshot y generación viven en la misma referencia atómica. Quien recalcula lee la generación antes de
+ * consultar la base y el snapshot solo se instala si la generación no cambió (CAS): un CU confirmado o una
+ * invalidación en el medio la incrementan y el cálculo se descarta, porque no se sabe si lo incluye.
+ */
+@Component
+@Slf4j
+public class DashboardMetricsCache {
+
+    /** Días hacia adelante que se consideran para alertas de vencimiento. */
+    public static final int DIAS_ALERTA_VENCIMIENTO = 30;
+
+    private final AtomicReference<Estado> estado = new AtomicReference<>(new Estado(null, 0L));
+
+    private final AtomicLong correccionesReconciliacion = new AtomicLong();
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    @Value("${conitrack.dashboard.max-staleness:PT10M}")
+    private Duration maxStaleness = Duration.ofMinutes(10);
+
+    /**
+     * Devuelve una copia de las métricas vigentes.
+     *
+     * @return métricas del snapshot o null si no hay snapshot utilizable
+     */
+    public DashboardMetricsDTO getVigente() {
+        final Snapshot actual = estado.get().snapshot();
+        if (actual == null) {
+            return null;
+        }
+        if (!actual.fecha.equals(LocalDate.now(clock))) {
+            return null;
+        }
+        if (Duration.between(actual.calculadoEn, clock.instant()).compareTo(maxStaleness) > 0) {
+            return null;
+        }
+        return copia(actual.metrics);
+    }
+
+    /**
+     * Generación actual del snapshot. Debe leerse antes de calcular las métricas que se pasan a
+     * {@link #actualizar} o {@link #reconciliar}.
+     */
+    public long getGeneracion() {
+        return estado.get().generacion();
+    }
+
+    /**
+     * Reemplaza el snapshot con métricas recién calculadas, salvo que la generación haya cambiado
+     * desde que se leyó.
+     *
+     * @param metrics métricas calculadas
+     * @param generacionLeida generación leída antes de calcular
+     * @return true si el snapshot se instaló
+     */
+    public boolean actualizar(final DashboardMetricsDTO metrics, final long generacionLeida) {
+        final Snapshot nuevo = nuevoSnapshot(metrics, generacionLeida);
+        final Estado resultado = estado.updateAndGet(
+            actual -> actual.generacion() == generacionLeida ? new Estado(nuevo, generacionLeida) : actual);
+        return resultado.snapshot() == nuevo;
+    }
+
+    /**
+     * Reemplaza el snapshot con el cálculo completo y cuenta una corrección si el snapshot
+     * mantenido por deltas se había desviado. Si la generación cambió desde que se leyó, el cálculo
+     * se descarta sin tocar el snapshot.
+     *
+     * @param calculadas métricas calculadas
+     * @param generacionLeida generación leída antes de calcular
+     * @return true si hubo que corregir el snapshot
+     */
+    public boolean reconciliar(final DashboardMetricsDTO calculadas, final long generacionLeida) {
+        final Estado nuevoEstado = new Estado(nuevoSnapshot(calculadas, generacionLeida), generacionLeida);
+        Estado previo;
+        do {
+            previo = estado.get();
+            if (previo.generacion() != generacionLeida) {
+                log.debug("Dashboard metrics reconciliation discarded: generation {} -> {}",
+                    generacionLeida, previo.generacion());
+                return false;
+            }
+        } while (!estado.compareAndSet(previo, nuevoEstado));
+
+        final Snapshot anterior = previo.snapshot();
+        if (anterior == null || !anterior.fecha.equals(LocalDate.now(clock))) {
+            return false;
+        }
+        if (!mismosValores(anterior.metrics, calculadas)) {
+            correccionesReconciliacion.incrementAndGet();
+            log.warn("Dashboard metrics drift corrected: snapshot={} calculado={}", anterior.metrics, calculadas);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Descarta el snapshot al confirmar la transacción actual; la próxima lectura recalcula.
+     * Incrementa la generación para que no se instale un cálculo hecho antes de la confirmación.
+     */
+    public void invalidar() {
+        alConfirmar(() -> estado.updateAndGet(actual -> new Estado(null, actual.generacion() + 1)));
+    }
+
+    /**
+     * Aplica al snapshot el delta de un movimiento, al confirmar la transacción actual.
+     * La generación se incrementa al registrar (antes del commit) y al confirmar: un cálculo que leyó la
+     * generación después del registro puede incluir o no el movimiento, por lo que al confirmar ese snapshot
+     * se descarta en lugar de aplicarle el delta; uno que la leyó antes ya no se puede instalar.
+     *
+     * @param movimiento movimiento persistido (cuenta para movimientos del día)
+     * @param antes contribución del lote antes del CU (null si el lote es nuevo)
+     * @param despues contribución del lote después del CU
+     */
+    public void registrarMovimiento(final Movimiento movimiento, final LoteMetricas antes, final LoteMetricas despues) {
+        final LoteMetricas previo = antes != null ? antes : LoteMetricas.VACIO;
+        final LoteMetricas posterior = despues != null ? despues : LoteMetricas.VACIO;
+        final long generacionCu = estado.updateAndGet(Estado::siguiente).generacion();
+        alConfirmar(() -> estado.updateAndGet(actual -> new Estado(
+            aplicarDelta(actual.snapshot(), generacionCu, movimiento, previo, posterior),
+            actual.generacion() + 1)));
+    }
+
+    /** Cantidad de veces que la reconciliación encontró el snapshot desviado. */
+    public long getCorreccionesReconciliacion() {
+        return correccionesReconciliacion.get();
+    }
+
+    void setClock(final Clock clock) {
+        this.clock = clock;
+    }
+
+    void setMaxStaleness(final Duration maxStaleness) {
+        this.maxStaleness = maxStaleness;
+    }
+
+    private Snapshot nuevoSnapshot(final DashboardMetricsDTO metrics, final long generacion) {
+        return new Snapshot(copia(metrics), LocalDate.now(clock), clock.instant(), generacion);
+    }
+
+    private Snapshot aplicarDelta(
+        final Snapshot actual,
+        final long generacionCu,
+        final Movimiento movimiento,
+        final LoteMetricas antes,
+        final LoteMetricas despues) {
+        if (actual == null || actual.generacion >= generacionCu) {
+            return null;
+        }
+        final DashboardMetricsDTO base = actual.metrics;
+        final DashboardMetricsDTO nuevas = copia(base);
+        nuevas.setLotesActivos(base.getLotesActivos() + despues.activo() - antes.activo());
+        nuevas.setLotesCuarentena(base.getLotesCuarentena() + despues.cuarentena() - antes.cuarentena());
+        nuevas.setAlertasPendientes(base.getAlertasPendientes() + despues.alerta() - antes.alerta());
+        nuevas.setStockTotal(base.getStockTotal() + despues.stock() - antes.stock());
+        if (movimiento != null && actual.fecha.equals(movimiento.getFecha())) {
+            nuevas.setMovimientosHoy(base.getMovimientosHoy() + 1);
+        }
+        return new Snapshot(nuevas, actual.fecha, actual.calculadoEn, actual.generacion);
+    }
+
+    private static void alConfirmar(final Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    private static boolean mismosValores(final DashboardMetricsDTO a, final DashboardMetricsDTO b) {
+        return Objects.equals(a.getLotesActivos(), b.getLotesActivos())
+            && Objects.equals(a.getLotesCuarentena(), b.getLotesCuarentena())
+            && Objects.equals(a.getAnalisisPendientes(), b.getAnalisisPendientes())
+            && Objects.equals(a.getMovimientosHoy(), b.getMovimientosHoy())
+            && Objects.equals(a.getAlertasPendientes(), b.getAlertasPendientes())
+            && Math.abs(a.getStockTotal() - b.getStockTotal()) < 0.0001;
+    }
+
+    private static DashboardMetricsDTO copia(final DashboardMetricsDTO m) {
+        return new DashboardMetricsDTO(
+            m.getLotesActivos(),
+            m.getAnalisisPendientes(),
+            m.getMovimientosHoy(),
+            m.getLotesCuarentena(),
+            m.getAlertasPendientes(),
+            m.getStockTotal());
+    }
+
+    /** Métricas con la generación leída antes de calcularlas. */
+    private record Snapshot(DashboardMetricsDTO metrics, LocalDate fecha, Instant calculadoEn, long generacion) {
+
+    }
+
+    private record Estado(Snapshot snapshot, long generacion) {
+
+        Estado siguiente() {
+            return new Estado(snapshot, generacion + 1);
+        }
+
+    }
+
+    /**
+     * Contribución de un lote a las métricas del dashboard.
+     * Se captura antes y después de un CU para obtener el delta.
+     */
+    public record LoteMetricas(long activo, long cuarentena, long alerta, double stock) {
+
+        public static final LoteMetricas VACIO = new LoteMetricas(0, 0, 0, 0.0);
+
+        public static LoteMetricas de(final Lote lote) {
+            if (lote == null || !Boolean.TRUE.equals(lote.getActivo())) {
+                return VACIO;
+            }
+            final LocalDate limiteAlerta = LocalDate.now().plusDays(DIAS_ALERTA_VENCIMIENTO);
+            final BigDecimal cantidad = lote.getCantidadActual();
+            return new LoteMetricas(
+                1,
+                lote.getDictamen() == DictamenEnum.CUARENTENA ? 1 : 0,
+                lote.getFechaVencimientoProveedor() != null
+                    && lote.getFechaVencimientoProveedor().isBefore(limiteAlerta) ? 1 : 0,
+                cantidad != null ? cantidad.doubleValue() : 0.0);
+        }
+
+    }
+
+}
@@ -1,15 +1,17 @@
 package com.mb.conitrack.service;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.mb.conitrack.dto.DashboardMetricsDTO;
 import com.mb.conitrack.dto.UserInfoDTO;
+import com.mb.conitrack.dto.projection.DashboardLoteMetrics;
 import com.mb.conitrack.entity.maestro.User;
-import com.mb.conitrack.enums.DictamenEnum;
 import com.mb.conitrack.repository.AnalisisRepository;
 import com.mb.conitrack.repository.LoteRepository;
 import com.mb.conitrack.repository.MovimientoRepository;
@@ -32,77 +34,79 @@ public class DashboardService {
     @Autowired
     private AnalisisRepository analisisRepository;
 
+    @Autowired
+    private DashboardMetricsCache dashboardMetricsCache;
+
     /**
      * Obtiene las métricas operativas para mostrar en el dashboard.
+     * Se sirven desde el snapshot en memoria mientras esté vigente; si no, se recalculan.
      *
      * @return DashboardMetricsDTO con las métricas del sistema
      */
     public DashboardMetricsDTO getDashboardMetrics() {
-        DashboardMetricsDTO metrics = new DashboardMetricsDTO();
+        final DashboardMetricsDTO vigente = dashboardMetricsCache.getVigente();
+        if (vigente != null) {
+            return vigente;
+        }
 
         try {
-            // Contar lotes activos
-            long lotesActivos = loteRepository.findAll().stream()
-                    .filter(lote -> Boolean.TRUE.equals(lote.getActivo()))
-                    .count();
-            metrics.setLotesActivos(lotesActivos);
-
-            // Contar lotes en cuarentena
-            long lotesCuarentena = loteRepository.findAll().stream()
-                    .filter(lote -> Boolean.TRUE.equals(lote.getActivo()) &&
-                            DictamenEnum.CUARENTENA.equals(lote.getDictamen()))
-                    .count();
-            metrics.setLotesCuarentena(lotesCuarentena);
-
-            // Contar análisis pendientes (sin dictamen o en cuarentena)
-            long analisisPendientes = analisisRepository.findAll().stream()
-                    .filter(analisis -> (analisis.getDictamen() == null ||
-                            DictamenEnum.CUARENTENA.equals(analisis.getDictamen())) &&
-                            Boolean.TRUE.equals(analisis.getActivo()))
-                    .count();
-            metrics.setAnalisisPendientes(analisisPendientes);
-
-            // Contar movimientos del día
-            LocalDate hoy = LocalDate.now();
-
-            long movimientosHoy = movimientoRepository.findAll().stream()
-                    .filter(mov -> mov.getFecha() != null &&
-                            mov.getFecha().equals(hoy))
-                    .count();
-            metrics.setMovimientosHoy(movimientosHoy);
-
-            // Calcular stock total (simplificado - suma de cantidades actuales de lotes activos)
-            double stockTotal = loteRepository.findAll().stream()
-                    .filter(lote -> Boolean.TRUE.equals(lote.getActivo()))
-                    .mapToDouble(lote -> lote.getCantidadActual() != null ? lote.getCantidadActual().doubleValue() : 0.0)
-                    .sum();
-            metrics.setStockTotal(stockTotal);
-
-            // Alertas pendientes (placeholder - puede implementarse según lógica de negocio)
-            // Por ahora: lotes próximos a vencer o en estado crítico
-            long alertas = loteRepository.findAll().stream()
-                    .filter(lote -> Boolean.TRUE.equals(lote.getActivo()) &&
-                            lote.getFechaVencimientoProveedor() != null &&
-                            lote.getFechaVencimientoProveedor().isBefore(LocalDate.now().plusDays(30)))
-                    .count();
-            metrics.setAlertasPendientes(alertas);
-
+            final long generacion = dashboardMetricsCache.getGeneracion();
+            final DashboardMetricsDTO metrics = calcularMetricas();
+            dashboardMetricsCache.actualizar(metrics, generacion);
             log.info("Dashboard metrics calculated: {}", metrics);
-
+            return metrics;
         } catch (Exception e) {
             log.error("Error calculating dashboard metrics", e);
             // Retornar métricas en 0 en caso de error
-            metrics.setLotesActivos(0L);
-            metrics.setLotesCuarentena(0L);
-            metrics.setAnalisisPendientes(0L);
-            metrics.setMovimientosHoy(0L);
-            metrics.setStockTotal(0.0);
-            metrics.setAlertasPendientes(0L);
+            return new DashboardMetricsDTO(0L, 0L, 0L, 0L, 0L, 0.0);
         }
+    }
 
+    /**
+     * Reconciliación periódica: recalcula las métricas contra la base y corrige el snapshot
+     * mantenido por deltas si se desvió.
+     */
+    @Scheduled(
+        fixedDelayString = "${conitrack.dashboard.reconciliacion-ms:300000}",
+        initialDelayString = "${conitrack.dashboard.reconciliacion-ms:300000}")
+    public void reconciliarMetricas() {
+        try {
+            final long generacion = dashboardMetricsCache.getGeneracion();
+            dashboardMetricsCache.reconciliar(calcularMetricas(), generacion);
+        } catch (Exception e) {
+            log.error("Error reconciling dashboard metrics", e);
+        }
+    }
+
+    /** Calcula las métricas completas con consultas agregadas. */
+    DashboardMetricsDTO calcularMetricas() {
+        final DashboardMetricsDTO metrics = new DashboardMetricsDTO();
+        final LocalDate hoy = LocalDate.now();
+
+        // Lotes activos, en cuarentena, stock total y alertas: una sola consulta agregada
+        // Alertas: lotes activos con vencimiento del proveedor dentro de los próximos 30 días
+        final DashboardLoteMetrics loteMetrics = loteRepository.getDashboardLoteMetrics(
+            hoy.plusDays(DashboardMetricsCache.DIAS_ALERTA_VENCIMIENTO));
+        metrics.setLotesActivos(valueOrZero(loteMetrics.getLotesActivos()));
+        metrics.setLotesCuarentena(valueOrZero(loteMetrics.getLotesCuarentena()));
+        metrics.setAlertasPendientes(valueOrZero(loteMetrics.getAlertasPendientes()));
+
+        // Stock total (simplificado - suma de cantidades actuales de lotes activos)
+        final BigDecimal stockTotal = loteMetrics.getStockTotal();
+        metrics.setStockTotal(stockTotal != null ? stockTotal.doubleValue() : 0.0);
+
+        // Análisis pendientes (sin dictamen o en cuarentena)
+        metrics.setAnalisisPendientes(analisisRepository.countPendientes());
+
+        // Movimientos del día
+        metrics.setMovimientosHoy(movimientoRepository.countByFecha(hoy));
         return metrics;
     }
 
+    private static long valueOrZero(final Long value) {
+        return value != null ? value : 0L;
+    }
+
     /**
      * Convierte un User entity a UserInfoDTO.
      *
@@ -0,0 +1,146 @@
+package com.mb.conitrack.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.mb.conitrack.dto.EscaneoTrazaDTO;
+import com.mb.conitrack.dto.EscaneoVentaDTO;
+import com.mb.conitrack.dto.LineaVentaDTO;
+import com.mb.conitrack.dto.PedidoVentaDTO;
+import com.mb.conitrack.dto.ResultadoEscaneosDTO;
+import com.mb.conitrack.dto.ResultadoEscaneosDTO.EscaneoRechazado;
+import com.mb.conitrack.dto.ResultadoEscaneosDTO.GrupoEscaneo;
+import com.mb.conitrack.dto.ResultadoPedidoVentaDTO;
+import com.mb.conitrack.enums.EstadoEnum;
+import com.mb.conitrack.exception.StockInsuficienteException;
+import com.mb.conitrack.repository.TrazaRepository;
+import com.mb.conitrack.repository.TrazaRepositoryCustom.TrazaEscaneada;
+import com.mb.conitrack.service.cu.BajaVentaProductoService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lectura de escaneos de trazas de la línea de despacho.
+ * Un lote de escaneos se resuelve con un índice en memoria producto+serie armado con una consulta por producto
+ * (cada 1000 números) sobre el índice único de trazas activas, en lugar de una consulta por escaneo. Las trazas
+ * resueltas se agrupan por lote, bulto y estado, que es como las consumen los CU de venta, devolución y recall.
+ * El índice vive solo durante el lote: el estado de las trazas lo cambian otros CU y no se cachea entre pedidos.
+ */
+@Service
+@Slf4j
+public class EscaneoTrazaService {
+
+    @Autowired
+    private TrazaRepository trazaRepository;
+
+    @Autowired
+    private BajaVentaProductoService bajaVentaProductoService;
+
+    /** Resuelve los escaneos a trazas y los agrupa por lote, bulto y estado, sin modificar nada. */
+    public ResultadoEscaneosDTO resolver(final List<EscaneoTrazaDTO> escaneos) {
+        final long inicio = System.nanoTime();
+        final ResultadoEscaneosDTO resultado = new ResultadoEscaneosDTO();
+        resultado.setEscaneos(escaneos.size());
+
+        // Números únicos por producto, en orden de lectura
+        final Map<String, Set<Long>> porProducto = new LinkedHashMap<>();
+        for (EscaneoTrazaDTO escaneo : escaneos) {
+            if (escaneo.getCodigoProducto() == null || escaneo.getCodigoProducto().isBlank()
+                || escaneo.getNroTraza() == null) {
+                resultado.getRechazos().add(new EscaneoRechazado(
+                    escaneo.getCodigoProducto(), escaneo.getNroTraza(), "Escaneo incompleto"));
+                continue;
+            }
+            if (!porProducto.computeIfAbsent(escaneo.getCodigoProducto().trim(), c -> new LinkedHashSet<>())
+                .add(escaneo.getNroTraza())) {
+                resultado.setDuplicados(resultado.getDuplicados() + 1);
+            }
+        }
+
+        final Map<ClaveGrupo, GrupoEscaneo> grupos = new LinkedHashMap<>();
+        for (Map.Entry<String, Set<Long>> entry : porProducto.entrySet()) {
+            final String codigoProducto = entry.getKey();
+            final Map<Long, TrazaEscaneada> indice = new HashMap<>();
+            for (TrazaEscaneada traza : trazaRepository.findEscaneadas(codigoProducto, entry.getValue())) {
+                indice.put(traza.nroTraza(), traza);
+            }
+            for (Long nroTraza : entry.getValue()) {
+                final TrazaEscaneada traza = indice.get(nroTraza);
+                if (traza == null) {
+                    resultado.getRechazos().add(new EscaneoRechazado(codigoProducto, nroTraza, "Traza no encontrada"));
+                    continue;
+                }
+                grupos.computeIfAbsent(
+                        new ClaveGrupo(traza.codigoLote(), traza.nroBulto(), traza.estado()),
+                        clave -> new GrupoEscaneo(
+                            codigoProducto, clave.codigoLote(), clave.nroBulto(), clave.estado(), new ArrayList<>()))
+                    .getNroTrazas()
+                    .add(nroTraza);
+            }
+        }
+        for (GrupoEscaneo grupo : grupos.values()) {
+            Collections.sort(grupo.getNroTrazas());
+        }
+        resultado.setGrupos(new ArrayList<>(grupos.values()));
+
+        final long micros = (System.nanoTime() - inicio) / 1_000;
+        log.info("Escaneos: {} lecturas de {} productos resueltas en {} ms ({} µs/lectura)",
+            escaneos.size(), porProducto.size(), micros / 1_000, escaneos.isEmpty() ? 0 : micros / escaneos.size());
+        return resultado;
+    }
+
+    /**
+     * CU22 - Vende las trazas escaneadas. Todas deben estar disponibles; si hay algún escaneo rechazado no se
+     * aplica nada. Los grupos se aplican como un pedido de venta: un movimiento por lote, un detalle por bulto y
+     * el cambio de estado de todas las trazas en un único lote de escrituras.
+     */
+    public ResultadoEscaneosDTO venderEscaneos(final EscaneoVentaDTO venta) {
+        final ResultadoEscaneosDTO resultado = resolver(venta.getEscaneos());
+        for (GrupoEscaneo grupo : resultado.getGrupos()) {
+            if (grupo.getEstado() != EstadoEnum.DISPONIBLE) {
+                for (Long nroTraza : grupo.getNroTrazas()) {
+                    resultado.getRechazos().add(new EscaneoRechazado(grupo.getCodigoProducto(), nroTraza,
+                        "La traza no está disponible (" + grupo.getEstado() + ")"));
+                }
+            }
+        }
+        if (!resultado.getRechazos().isEmpty()) {
+            resultado.setAplicado(false);
+            return resultado;
+        }
+
+        final PedidoVentaDTO pedido = new PedidoVentaDTO();
+        pedido.setFechaEgreso(venta.getFechaEgreso());
+        pedido.setObservaciones(venta.getObservaciones());
+        pedido.setFechaYHoraCreacion(venta.getFechaYHoraCreacion());
+        for (GrupoEscaneo grupo : resultado.getGrupos()) {
+            pedido.getLineas().add(new LineaVentaDTO(grupo.getCodigoLote(), grupo.getNroBulto(),
+                BigDecimal.valueOf(grupo.getNroTrazas().size()), new ArrayList<>(grupo.getNroTrazas())));
+        }
+        ResultadoPedidoVentaDTO resultadoPedido;
+        try {
+            resultadoPedido = bajaVentaProductoService.bajaVentaPedido(pedido);
+        } catch (StockInsuficienteException e) {
+            // El pedido ya se revirtió: se informa como línea rechazada del bulto afectado
+            resultadoPedido = bajaVentaProductoService.pedidoRechazado(pedido, e);
+        }
+        resultado.setAplicado(resultadoPedido.isAplicado());
+        resultado.setLineasVenta(resultadoPedido.getLineas());
+        return resultado;
+    }
+
+    private record ClaveGrupo(String codigoLote, Integer nroBulto, EstadoEnum estado) {
+
+    }
+
+}
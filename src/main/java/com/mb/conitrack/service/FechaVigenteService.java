@@ -0,0 +1,101 @@
+package com.mb.conitrack.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mb.conitrack.dto.projection.LoteFechasVigentes;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.repository.LoteRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mantenimiento de las fechas vigentes materializadas en los lotes.
+ * Las fechas de análisis se actualizan en cada CU que dictamina o anula análisis; las fechas efectivas dependen
+ * además del día, por lo que se refrescan antes de cada validación de fechas (CU9/CU10).
+ */
+@Service
+@Slf4j
+public class FechaVigenteService {
+
+    @Autowired
+    private LoteRepository loteRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${conitrack.vencimiento.chunk-size:500}")
+    private int chunkSize = 500;
+
+    /**
+     * Recalcula las fechas efectivas de todos los lotes para el día indicado, en chunks por id.
+     * Solo escribe los lotes cuya fecha efectiva cambia.
+     *
+     * @return cantidad de lotes actualizados
+     */
+    public int refrescar(final LocalDate hoy) {
+        final TransactionTemplate tx = nuevaTransaccion();
+        long afterId = 0;
+        int actualizados = 0;
+        List<LoteFechasVigentes> chunk;
+        do {
+            chunk = loteRepository.findFechasVigentesAfterId(afterId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            final List<LoteFechasVigentes> filas = chunk;
+            actualizados += Objects.requireNonNullElse(tx.execute(status -> refrescarChunk(filas, hoy)), 0);
+            afterId = chunk.get(chunk.size() - 1).getId();
+        } while (chunk.size() == chunkSize);
+        log.info("Fechas vigentes refrescadas al {}: {} lotes actualizados", hoy, actualizados);
+        return actualizados;
+    }
+
+    /**
+     * Reconstruye las fechas de análisis materializadas desde la tabla de análisis y luego refresca las efectivas.
+     * Se usa tras una migración o una corrección manual de datos.
+     *
+     * @return cantidad de lotes cuya fecha efectiva cambió
+     */
+    public int reconstruir() {
+        final Integer lotes = nuevaTransaccion().execute(status -> loteRepository.reconstruirFechasAnalisis());
+        log.info("Fechas de análisis reconstruidas para {} lotes", lotes);
+        return refrescar(LocalDate.now());
+    }
+
+    int refrescarChunk(final List<LoteFechasVigentes> filas, final LocalDate hoy) {
+        int actualizados = 0;
+        for (LoteFechasVigentes fila : filas) {
+            final LocalDate vencimiento = Lote.fechaMasCercana(
+                fila.getFechaVencimientoProveedor(), fila.getFechaVencimientoAnalisis(), hoy);
+            final LocalDate reanalisis = Lote.fechaMasCercana(
+                fila.getFechaReanalisisProveedor(), fila.getFechaReanalisisAnalisis(), hoy);
+            if (!Objects.equals(vencimiento, fila.getFechaVencimientoEfectiva())
+                || !Objects.equals(reanalisis, fila.getFechaReanalisisEfectiva())) {
+                loteRepository.actualizarFechasEfectivas(fila.getId(), vencimiento, reanalisis);
+                actualizados++;
+            }
+        }
+        return actualizados;
+    }
+
+    void setChunkSize(final int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    private TransactionTemplate nuevaTransaccion() {
+        final TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return tx;
+    }
+
+}
@@ -1,101 +1,129 @@
 package com.mb.conitrack.service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.mb.conitrack.dto.BultoDTO;
 import com.mb.conitrack.dto.DTOUtils;
 import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.datatables.DataTablesRequest;
+import com.mb.conitrack.dto.datatables.DataTablesResponse;
+import com.mb.conitrack.dto.mapper.LoteMapper;
+import com.mb.conitrack.dto.projection.LoteListado;
+import com.mb.conitrack.entity.Lote;
 import com.mb.conitrack.repository.LoteRepository;
 
 import lombok.AllArgsConstructor;
 
 import static com.mb.conitrack.dto.DTOUtils.fromBultoEntities;
-import static com.mb.conitrack.dto.DTOUtils.fromLoteEntities;
 
 @AllArgsConstructor
 @Service
 public class LoteService {
 
+    /** Máximo de ids por consulta de precarga, para acotar el tamaño de las cláusulas IN. */
+    static final int FETCH_CHUNK_SIZE = 500;
+
+    /** Columnas del listado general que admiten orden, con su alias en la consulta paginada. */
+    static final Map<String, String> COLUMNAS_ORDENABLES = Map.of(
+        "fechaYHoraCreacion", "fechaYHoraCreacion",
+        "codigoLote", "codigoLote",
+        "fechaIngreso", "fechaIngreso",
+        "nombreProducto", "nombreProducto",
+        "codigoProducto", "codigoProducto",
+        "nombreProveedor", "nombreProveedor",
+        "loteProveedor", "loteProveedor",
+        "dictamen", "dictamen",
+        "estado", "estado",
+        "cantidadActual", "cantidadActual");
+
+    static final Sort ORDEN_POR_DEFECTO = Sort.by("fechaIngreso", "codigoLote");
+
     private final LoteRepository loteRepository;
 
     //***********CU2 MODIFICACION: CUARENTENA***********
     @Transactional(readOnly = true)
     public List<LoteDTO> findAllForCuarentenaDTOs() {
-        return DTOUtils.fromLoteEntities(loteRepository.findAllForCuarentena());
+        return toLoteDTOs(loteRepository.findAllForCuarentena());
     }
 
     //***********CU3 BAJA: MUESTREO***********
     @Transactional(readOnly = true)
     public List<LoteDTO> findAllForMuestreoTrazableDTOs() {
-        return DTOUtils.fromLoteEntities(loteRepository.findAllForMuestreoTrazable());
+        return toLoteDTOs(loteRepository.findAllForMuestreoTrazable());
     }
 
     //***********CU 3 BAJA: MUESTREO MULTIBULTO***********
     @Transactional(readOnly = true)
     public List<LoteDTO> findAllForMuestreoMultiBultoDTOs() {
-        return DTOUtils.fromLoteEntities(loteRepository.findAllForMuestreoMultiBulto());
+        return toLoteDTOs(loteRepository.findAllForMuestreoMultiBulto());
     }
 
     //***********CU4 BAJA: DEVOLUCION COMPRA***********
     @Transactional(readOnly = true)
     public List<LoteDTO> findAllForDevolucionCompraDTOs() {
-        return DTOUtils.fromLoteEntities(loteRepository.findAllForDevolucionCompra());
+        return LoteMapper.fromResumenes(loteRepository.findResumenForDevolucionCompra());
     }
 
     //***********CU> MODIFICACION: CU8 Reanalisis de Producto Aprobado***********
     @Transactional(readOnly = true)
     public List<LoteDTO> findAllForReanalisisLoteDTOs() {
-        return DTOUtils.fromLoteEntities(loteRepository.findAllForReanalisisLote());
+        return toLoteDTOs(loteRepository.findAllForReanalisisLote());
     }
 
     //***********CU5/6: RESULTADO ANALISIS***********
     @Transactional(readOnly = true)
     public List<LoteDTO> findAllForResultadoAnalisisDTOs() {
-        return DTOUtils.fromLoteEntities(loteRepository.findAllForResultadoAnalisis());
+        return toLoteDTOs(loteRepository.findAllForResultadoAnalisis());
     }
 
     //***********CU7 BAJA: CONSUMO PRODUCCION***********
     @Transactional(readOnly = true)
     public List<LoteDTO> findAllForConsumoProduccionDTOs() {
-        return DTOUtils.fromLoteEntities(loteRepository.findAllForConsumoProduccion());
+        return toLoteDTOs(loteRepository.findAllForConsumoProduccion());
     }
 
     //***********CU21 MODIFICACION: LIBERACIÓN UNIDAD DE VENTA***********
     @Transactional(readOnly = true)
     public List<LoteDTO> findAllForLiberacionProductoDTOs() {
-        return fromLoteEntities(loteRepository.findAllForLiberacionProducto());
+        return toLoteDTOs(loteRepository.findAllForLiberacionProducto());
     }
 
     //***********CU27 MODIFICACION: TRAZADO LOTE***********
     @Transactional(readOnly = true)
     public List<LoteDTO> findAllForTrazadoLoteDTOs() {
-        return fromLoteEntities(loteRepository.findAllForTrazadoLote());
+        return toLoteDTOs(loteRepository.findAllForTrazadoLote());
     }
 
     //***********CU22 BAJA: VENTA***********
     @Transactional(readOnly = true)
     public List<LoteDTO> findAllForVentaProductoDTOs() {
-        return fromLoteEntities(loteRepository.findAllForVentaProducto());
+        return toLoteDTOs(loteRepository.findAllForVentaProducto());
     }
 
     //***********CU23 ALTA: DEVOLUCION VENTA***********
     //***********CU24 MODIFICACION: RETIRO MERCADO***********
     @Transactional(readOnly = true)
     public List<LoteDTO> findAllForDevolucionDTOs() {
-        return fromLoteEntities(loteRepository.findAllForDevolucion());
+        return LoteMapper.fromResumenes(loteRepository.findResumenForDevolucion());
     }
     @Transactional(readOnly = true)
     public List<LoteDTO> findAllForRecallDTOs() {
-        return fromLoteEntities(loteRepository.findAllForRecall());
+        return LoteMapper.fromResumenes(loteRepository.findResumenForRecall());
     }
 
     //***********CU25 BAJA: AJUSTE STOCK***********
     @Transactional(readOnly = true)
     public List<LoteDTO> findAllForAjusteDTOs() {
-        return DTOUtils.fromLoteEntities(loteRepository.findAllForAjuste());
+        return LoteMapper.fromResumenes(loteRepository.findResumenForAjuste());
     }
 
     @Transactional(readOnly = true)
@@ -113,23 +141,36 @@ public class LoteService {
 
     @Transactional(readOnly = true)
     public List<LoteDTO> findLotesDictaminadosConStock() {
-        return fromLoteEntities(loteRepository.findLotesDictaminadosConStock());
+        return LoteMapper.fromResumenes(loteRepository.findResumenFechasConStock());
     }
 
     @Transactional(readOnly = true)
     public List<LoteDTO> findAllLotesAudit() {
-        return fromLoteEntities(loteRepository.findAllByOrderByFechaIngresoAscCodigoLoteAsc());
+        return toLoteDTOs(loteRepository.findAllByOrderByFechaIngresoAscCodigoLoteAsc());
     }
 
     @Transactional(readOnly = true)
     public List<LoteDTO> findAllLotes() {
-        return fromLoteEntities(loteRepository.findAllByActivoTrue());
+        return toLoteDTOs(loteRepository.findAllByActivoTrue());
+    }
+
+    /**
+     * Página del listado general de lotes para DataTables server-side.
+     * Usa la proyección LoteListado: una consulta por página más el conteo, sin cargar colecciones.
+     */
+    @Transactional(readOnly = true)
+    public DataTablesResponse<LoteDTO> findPaginaLotes(final DataTablesRequest request) {
+        final Page<LoteListado> pagina = loteRepository.findListadoPagina(
+            request.getFiltroLike(),
+            request.toPageable(COLUMNAS_ORDENABLES, ORDEN_POR_DEFECTO));
+        final long total = request.tieneFiltro() ? loteRepository.countByActivoTrue() : pagina.getTotalElements();
+        return DataTablesResponse.of(request, pagina, total, LoteMapper::fromListado);
     }
 
 
     @Transactional(readOnly = true)
     public List<LoteDTO> findAllForReversoMovimientoDTOs() {
-        return fromLoteEntities(loteRepository.findAllForReversoMovimiento());
+        return LoteMapper.fromResumenes(loteRepository.findResumenForReversoMovimiento());
     }
 
     @Transactional(readOnly = true)
@@ -143,5 +184,34 @@ public class LoteService {
                 .map(DTOUtils::fromLoteEntity);
     }
 
-}
+    /**
+     * Mapea los lotes a LoteDTO completo precargando sus colecciones con una consulta por colección
+     * (en bloques de {@value #FETCH_CHUNK_SIZE} ids), en lugar de una carga perezosa por lote.
+     */
+    private List<LoteDTO> toLoteDTOs(final List<Lote> lotes) {
+        if (lotes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final List<Long> ids = lotes.stream().map(Lote::getId).distinct().toList();
+        for (int desde = 0; desde < ids.size(); desde += FETCH_CHUNK_SIZE) {
+            final List<Long> chunk = ids.subList(desde, Math.min(desde + FETCH_CHUNK_SIZE, ids.size()));
+            final List<Lote> conMaestros = loteRepository.fetchMaestrosByIds(chunk);
+            loteRepository.fetchBultosByIds(chunk);
+            loteRepository.fetchBultoDetallesByLoteIds(chunk);
+            loteRepository.fetchBultoTrazasByLoteIds(chunk);
+            loteRepository.fetchMovimientosByIds(chunk);
+            loteRepository.fetchMovimientoDetallesByLoteIds(chunk);
+            loteRepository.fetchTrazasByIds(chunk);
+            // Los análisis del lote origen también se muestran en el DTO
+            final Set<Long> idsAnalisis = new LinkedHashSet<>(chunk);
+            for (Lote lote : conMaestros) {
+                if (lote.getLoteOrigen() != null) {
+                    idsAnalisis.add(lote.getLoteOrigen().getId());
+                }
+            }
+            loteRepository.fetchAnalisisByIds(idsAnalisis);
+        }
+        return LoteMapper.fromEntities(lotes);
+    }
 
+}
@@ -10,10 +10,16 @@ import java.util.Optional;
 import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.mb.conitrack.dto.MovimientoDTO;
+import com.mb.conitrack.dto.datatables.DataTablesRequest;
+import com.mb.conitrack.dto.datatables.DataTablesResponse;
+import com.mb.conitrack.dto.projection.SaldoRetornableBulto;
+import com.mb.conitrack.dto.mapper.MovimientoMapper;
 import com.mb.conitrack.entity.DetalleMovimiento;
 import com.mb.conitrack.entity.Movimiento;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
@@ -28,6 +34,18 @@ import static com.mb.conitrack.dto.DTOUtils.fromMovimientoEntity;
 @Service
 public class MovimientoService {
 
+    /** Columnas del listado general que admiten orden, con su propiedad en la consulta paginada. */
+    static final Map<String, String> COLUMNAS_ORDENABLES = Map.of(
+        "codigoMovimiento", "m.codigoMovimiento",
+        "tipoMovimiento", "m.tipoMovimiento",
+        "motivo", "m.motivo",
+        "codigoLote", "l.codigoLote",
+        "fechaMovimiento", "m.fecha",
+        "nroAnalisis", "m.nroAnalisis",
+        "fechaYHoraCreacion", "m.fechaYHoraCreacion");
+
+    static final Sort ORDEN_POR_DEFECTO = Sort.by("m.fecha", "m.id");
+
     @Autowired
     private final MovimientoRepository movimientoRepository;
 
@@ -36,6 +54,18 @@ public class MovimientoService {
         return fromMovimientoEntities(movimientoRepository.findAllByActivoTrue());
     }
 
+    /**
+     * Página del listado general de movimientos para DataTables server-side.
+     */
+    @Transactional(readOnly = true)
+    public DataTablesResponse<MovimientoDTO> findPaginaMovimientos(final DataTablesRequest request) {
+        final Page<Movimiento> pagina = movimientoRepository.findPagina(
+            request.getFiltroLike(),
+            request.toPageable(COLUMNAS_ORDENABLES, ORDEN_POR_DEFECTO));
+        final long total = request.tieneFiltro() ? movimientoRepository.countByActivoTrue() : pagina.getTotalElements();
+        return DataTablesResponse.of(request, pagina, total, MovimientoMapper::fromEntity);
+    }
+
     @Transactional(readOnly = true)
     public List<MovimientoDTO> findAllMovimientosAudit() {
         return fromMovimientoEntities(movimientoRepository.findAllAudit());
@@ -66,7 +96,36 @@ public class MovimientoService {
         return calcularMaximoRetornoPorBulto(codigoMovimiento);
     }
 
+    /**
+     * Máximo retornable por bulto de la venta, indexado por nroBulto - 1 (0 para los bultos no vendidos).
+     * Se lee del saldo retornable que mantienen los altas de devolución/recall y sus reversos.
+     */
     List<Integer> calcularMaximoRetornoPorBulto(final String codigoMovimiento) {
+        final List<SaldoRetornableBulto> saldos = movimientoRepository.findSaldosRetornablesVenta(codigoMovimiento);
+
+        if (saldos.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (saldos.stream().anyMatch(s -> s.getSaldoRetornable() == null)) {
+            return recalcularMaximoRetornoPorBulto(codigoMovimiento);
+        }
+
+        final Map<Integer, BigDecimal> saldoPorBulto = new HashMap<>();
+        for (SaldoRetornableBulto saldo : saldos) {
+            if (UnidadMedidaEnum.UNIDAD != saldo.getUnidadMedida()) {
+                throw new IllegalStateException("La unidad de medida del movimiento de venta debe ser UNIDAD.");
+            }
+            saldoPorBulto.put(saldo.getNroBulto(), saldo.getSaldoRetornable());
+        }
+        return saldosPorNroBulto(saldoPorBulto);
+    }
+
+    /**
+     * Recalcula el saldo desde la venta y todos sus retornos. Solo se usa si la venta tiene detalles sin saldo
+     * retornable (no alcanzados por la migración); el primer retorno de esa venta lo persiste con el mismo criterio
+     * (SaldoRetornableService.descontar).
+     */
+    List<Integer> recalcularMaximoRetornoPorBulto(final String codigoMovimiento) {
         final Optional<Movimiento> movVentaMaybe = movimientoRepository.findMovimientosVentaByCodigoMovimiento(
             codigoMovimiento);
 
@@ -104,6 +163,10 @@ public class MovimientoService {
             }
         }
 
+        return saldosPorNroBulto(devolucionesPorBulto);
+    }
+
+    private static List<Integer> saldosPorNroBulto(final Map<Integer, BigDecimal> devolucionesPorBulto) {
         final ArrayList<Integer> integers = new ArrayList<>();
         Integer maxKey = Collections.max(devolucionesPorBulto.keySet());
         for (int i = 1; i <= maxKey; i++) {
@@ -1,6 +1,8 @@
 package com.mb.conitrack.service;
 
-import com.mb.conitrack.entity.maestro.User;
+import java.util.Set;
+
+import com.mb.conitrack.dto.UsuarioActualDTO;
 import com.mb.conitrack.enums.PermisosCasoUsoEnum;
 import com.mb.conitrack.enums.RoleEnum;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +11,7 @@ import org.springframework.stereotype.Service;
 /**
  * Servicio para verificar permisos de acceso a casos de uso.
  * Facilita la verificación de permisos en controllers y vistas Thymeleaf.
+ * Trabaja sobre la instantánea del usuario, así el menú no consulta la base una vez por entrada.
  */
 @Service
 public class PermisosCasoUsoService {
@@ -21,21 +24,32 @@ public class PermisosCasoUsoService {
      */
     public boolean tienePermiso(PermisosCasoUsoEnum casoUso) {
         try {
-            User currentUser = securityContextService.getCurrentUser();
-            RoleEnum roleEnum = currentUser.getRole().getRoleEnum();
+            UsuarioActualDTO usuarioActual = securityContextService.getUsuarioActual();
+            RoleEnum roleEnum = usuarioActual.roleEnum();
             return casoUso.tienePermiso(roleEnum);
         } catch (Exception e) {
             return false; // Si hay error, negar acceso
         }
     }
 
+    /**
+     * Casos de uso habilitados para el usuario actual, para que las vistas armen el menú con un contains por entrada.
+     */
+    public Set<PermisosCasoUsoEnum> getCasosDeUsoActuales() {
+        try {
+            return PermisosCasoUsoEnum.casosDeUso(securityContextService.getUsuarioActual().roleEnum());
+        } catch (Exception e) {
+            return Set.of(); // Si hay error, ningún caso de uso habilitado
+        }
+    }
+
     /**
      * Verifica si el usuario actual es ADMIN.
      */
     public boolean esAdmin() {
         try {
-            User currentUser = securityContextService.getCurrentUser();
-            return "ADMIN".equals(currentUser.getRole().getName());
+            UsuarioActualDTO usuarioActual = securityContextService.getUsuarioActual();
+            return RoleEnum.ADMIN == usuarioActual.roleEnum();
         } catch (Exception e) {
             return false;
         }
@@ -46,8 +60,8 @@ public class PermisosCasoUsoService {
      */
     public boolean esAuditor() {
         try {
-            User currentUser = securityContextService.getCurrentUser();
-            return currentUser.isAuditor();
+            UsuarioActualDTO usuarioActual = securityContextService.getUsuarioActual();
+            return usuarioActual.auditor();
         } catch (Exception e) {
             return false;
         }
@@ -58,8 +72,8 @@ public class PermisosCasoUsoService {
      */
     public String getRolActual() {
         try {
-            User currentUser = securityContextService.getCurrentUser();
-            return currentUser.getRole().getName();
+            String nombreRol = securityContextService.getUsuarioActual().nombreRol();
+            return nombreRol != null ? nombreRol : "UNKNOWN";
         } catch (Exception e) {
             return "UNKNOWN";
         }
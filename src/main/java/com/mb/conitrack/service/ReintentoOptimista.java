@@ -0,0 +1,80 @@
+package com.mb.conitrack.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reintento acotado de un CU transaccional ante conflictos de concurrencia.
+ *
+ * Lote y Bulto tienen versión (@Version): si dos operadores descuentan stock de la misma fila, el segundo commit
+ * falla en lugar de pisar la cantidad del primero. La acción debe abrir y confirmar su propia transacción (un
+ * método @Transactional de un servicio), de modo que cada intento relea el lote con los datos ya confirmados.
+ * Dentro de una transacción en curso no se reintenta: el conflicto recién se detecta en el commit externo.
+ */
+@Component
+@Slf4j
+public class ReintentoOptimista {
+
+    @Value("${conitrack.concurrencia.max-intentos:4}")
+    private int maxIntentos = 4;
+
+    @Value("${conitrack.concurrencia.espera-ms:20}")
+    private long esperaMs = 20;
+
+    /**
+     * Ejecuta la acción y la repite ante un conflicto de concurrencia hasta agotar los intentos.
+     *
+     * @param operacion descripción para el log
+     * @param accion operación transaccional a ejecutar
+     * @return resultado del intento que confirmó
+     */
+    public <T> T ejecutar(final String operacion, final Supplier<T> accion) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return accion.get();
+        }
+        int intento = 1;
+        while (true) {
+            try {
+                return accion.get();
+            } catch (ConcurrencyFailureException e) {
+                if (intento >= maxIntentos) {
+                    log.warn("{}: conflicto de concurrencia persistente tras {} intentos", operacion, intento);
+                    throw e;
+                }
+                log.info("{}: conflicto de concurrencia, reintento {} de {}", operacion, intento, maxIntentos - 1);
+                esperar(intento);
+                intento++;
+            }
+        }
+    }
+
+    private void esperar(final int intento) {
+        if (esperaMs <= 0) {
+            return;
+        }
+        // Espera creciente con desfase aleatorio para que los hilos en conflicto no vuelvan a chocar
+        final long espera = esperaMs * intento + ThreadLocalRandom.current().nextLong(esperaMs + 1);
+        try {
+            Thread.sleep(espera);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reintento interrumpido", e);
+        }
+    }
+
+    void setMaxIntentos(final int maxIntentos) {
+        this.maxIntentos = maxIntentos;
+    }
+
+    void setEsperaMs(final long esperaMs) {
+        this.esperaMs = esperaMs;
+    }
+
+}
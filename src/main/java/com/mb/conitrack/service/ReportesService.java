@@ -0,0 +1,220 @@
+package com.mb.conitrack.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mb.conitrack.dto.LoteReporteDTO;
+import com.mb.conitrack.dto.MovimientoReporteDTO;
+import com.mb.conitrack.dto.ReportePageDTO;
+import com.mb.conitrack.repository.LoteRepository;
+import com.mb.conitrack.repository.MovimientoRepository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Servicio de reportes de solo lectura para auditoría.
+ * Ofrece paginación por clave (keyset sobre id) y exportación en streaming (NDJSON/CSV)
+ * a partir de proyecciones planas, sin materializar el grafo de entidades.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportesService {
+
+    public static final int PAGE_SIZE_DEFAULT = 500;
+
+    public static final int PAGE_SIZE_MAX = 5000;
+
+    /** Cada cuántas filas se vacía el buffer de salida y el contexto de persistencia. */
+    private static final int FLUSH_EVERY = 500;
+
+    private static final String[] LOTE_CSV_HEADER = {
+        "id", "codigoLote", "codigoProducto", "nombreProducto", "nombreProveedor", "loteProveedor",
+        "fechaIngreso", "fechaVencimientoProveedor", "fechaReanalisisProveedor", "dictamen", "estado",
+        "cantidadInicial", "cantidadActual", "unidadMedida", "bultosTotales", "trazado", "activo"
+    };
+
+    private static final String[] MOVIMIENTO_CSV_HEADER = {
+        "id", "codigoMovimiento", "loteId", "codigoLote", "fecha", "fechaYHoraCreacion", "tipoMovimiento",
+        "motivo", "cantidad", "unidadMedida", "dictamenInicial", "dictamenFinal", "nroAnalisis",
+        "codigoMovimientoOrigen", "creadoPor", "activo"
+    };
+
+    private final LoteRepository loteRepository;
+
+    private final MovimientoRepository movimientoRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final EntityManager entityManager;
+
+    /** Formatos de exportación soportados. */
+    public enum FormatoExportacion {
+        NDJSON, CSV;
+
+        public static FormatoExportacion from(final String valor) {
+            for (FormatoExportacion formato : values()) {
+                if (formato.name().equalsIgnoreCase(valor)) {
+                    return formato;
+                }
+            }
+            throw new IllegalArgumentException("Formato de exportación no soportado: " + valor);
+        }
+    }
+
+    //***********PAGINACION KEYSET***********
+    @Transactional(readOnly = true)
+    public ReportePageDTO<LoteReporteDTO> findLotes(final Long afterId, final Integer size, final boolean soloActivos) {
+        final int limit = normalizarSize(size);
+        final List<LoteReporteDTO> items = loteRepository.findReporteAfterId(
+            afterIdOrStart(afterId), soloActivos, PageRequest.of(0, limit));
+        return toPage(items, limit, LoteReporteDTO::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<LoteReporteDTO> findLoteById(final Long id) {
+        return loteRepository.findReporteById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public ReportePageDTO<MovimientoReporteDTO> findMovimientos(final Long afterId, final Integer size) {
+        final int limit = normalizarSize(size);
+        final List<MovimientoReporteDTO> items = movimientoRepository.findReporteAfterId(
+            afterIdOrStart(afterId), PageRequest.of(0, limit));
+        return toPage(items, limit, MovimientoReporteDTO::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public ReportePageDTO<MovimientoReporteDTO> findMovimientosByLote(
+        final Long loteId,
+        final Long afterId,
+        final Integer size) {
+        final int limit = normalizarSize(size);
+        final List<MovimientoReporteDTO> items = movimientoRepository.findReporteByLoteIdAfterId(
+            loteId, afterIdOrStart(afterId), PageRequest.of(0, limit));
+        return toPage(items, limit, MovimientoReporteDTO::getId);
+    }
+
+    //***********EXPORTACION STREAMING***********
+    @Transactional(readOnly = true)
+    public void exportarLotes(final OutputStream out, final FormatoExportacion formato, final boolean soloActivos) {
+        try (Stream<LoteReporteDTO> stream = loteRepository.streamReporte(soloActivos)) {
+            escribir(out, formato, stream, LOTE_CSV_HEADER, ReportesService::loteCsv);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportarMovimientos(final OutputStream out, final FormatoExportacion formato, final Long loteId) {
+        try (Stream<MovimientoReporteDTO> stream = loteId != null
+            ? movimientoRepository.streamReporteByLoteId(loteId)
+            : movimientoRepository.streamReporte()) {
+            escribir(out, formato, stream, MOVIMIENTO_CSV_HEADER, ReportesService::movimientoCsv);
+        }
+    }
+
+    static int normalizarSize(final Integer size) {
+        if (size == null || size <= 0) {
+            return PAGE_SIZE_DEFAULT;
+        }
+        return Math.min(size, PAGE_SIZE_MAX);
+    }
+
+    private static long afterIdOrStart(final Long afterId) {
+        return afterId != null ? afterId : 0L;
+    }
+
+    private static <T> ReportePageDTO<T> toPage(final List<T> items, final int limit, final Function<T, Long> idOf) {
+        final Long nextAfterId = items.size() < limit ? null : idOf.apply(items.get(items.size() - 1));
+        return new ReportePageDTO<>(items, nextAfterId);
+    }
+
+    private <T> void escribir(
+        final OutputStream out,
+        final FormatoExportacion formato,
+        final Stream<T> stream,
+        final String[] csvHeader,
+        final Function<T, Object[]> csvRow) {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        final ObjectWriter jsonWriter = objectMapper.writer();
+        try {
+            if (formato == FormatoExportacion.CSV) {
+                writer.write(csvLine(csvHeader));
+            }
+            int count = 0;
+            final Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                final T item = iterator.next();
+                if (formato == FormatoExportacion.CSV) {
+                    writer.write(csvLine(csvRow.apply(item)));
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(item));
+                    writer.write('\n');
+                }
+                if (++count % FLUSH_EVERY == 0) {
+                    writer.flush();
+                    entityManager.clear();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Object[] loteCsv(final LoteReporteDTO l) {
+        return new Object[] {
+            l.getId(), l.getCodigoLote(), l.getCodigoProducto(), l.getNombreProducto(), l.getNombreProveedor(),
+            l.getLoteProveedor(), l.getFechaIngreso(), l.getFechaVencimientoProveedor(),
+            l.getFechaReanalisisProveedor(), l.getDictamen(), l.getEstado(), l.getCantidadInicial(),
+            l.getCantidadActual(), l.getUnidadMedida(), l.getBultosTotales(), l.getTrazado(), l.getActivo()
+        };
+    }
+
+    private static Object[] movimientoCsv(final MovimientoReporteDTO m) {
+        return new Object[] {
+            m.getId(), m.getCodigoMovimiento(), m.getLoteId(), m.getCodigoLote(), m.getFecha(),
+            m.getFechaYHoraCreacion(), m.getTipoMovimiento(), m.getMotivo(), m.getCantidad(), m.getUnidadMedida(),
+            m.getDictamenInicial(), m.getDictamenFinal(), m.getNroAnalisis(), m.getCodigoMovimientoOrigen(),
+            m.getCreadoPor(), m.getActivo()
+        };
+    }
+
+    static String csvLine(final Object[] values) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(csvEscape(values[i]));
+        }
+        return sb.append('\n').toString();
+    }
+
+    private static String csvEscape(final Object value) {
+        if (value == null) {
+            return "";
+        }
+        final String s = value.toString();
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+}
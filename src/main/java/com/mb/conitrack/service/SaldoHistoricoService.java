@@ -0,0 +1,198 @@
+package com.mb.conitrack.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mb.conitrack.dto.StockHistoricoDTO;
+import com.mb.conitrack.entity.Bulto;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.SaldoCheckpoint;
+import com.mb.conitrack.entity.SaldoCheckpoint.Nivel;
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.repository.BultoRepository;
+import com.mb.conitrack.repository.LoteRepository;
+import com.mb.conitrack.repository.MovimientoRepository;
+import com.mb.conitrack.repository.MovimientoRepositoryCustom.EfectoStock;
+import com.mb.conitrack.repository.SaldoCheckpointRepository;
+import com.mb.conitrack.repository.maestro.ProductoRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static com.mb.conitrack.utils.UnidadMedidaUtils.convertirCantidadEntreUnidades;
+
+/**
+ * Consulta del stock de un bulto, lote o producto a una fecha pasada.
+ * El stock se reconstruye partiendo del checkpoint más cercano anterior a la fecha y aplicando solo los
+ * movimientos posteriores a su corte, en lugar de recorrer el historial completo. Los checkpoints se generan
+ * periódicamente y son datos derivados: pueden borrarse y regenerarse desde los movimientos.
+ */
+@Service
+@Slf4j
+public class SaldoHistoricoService {
+
+    private static final int ESCALA = 4;
+
+    @Autowired
+    private SaldoCheckpointRepository saldoCheckpointRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private BultoRepository bultoRepository;
+
+    @Autowired
+    private LoteRepository loteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${conitrack.saldos.margen:PT1H}")
+    private Duration margen = Duration.ofHours(1);
+
+    /**
+     * Stock de la entidad al instante indicado, inclusive.
+     *
+     * @return vacío si no existe la entidad
+     */
+    public Optional<StockHistoricoDTO> consultarStock(final Nivel nivel, final Long entidadId,
+        final OffsetDateTime fecha) {
+        final Optional<UnidadMedidaEnum> unidad = unidadMedida(nivel, entidadId);
+        if (unidad.isEmpty()) {
+            return Optional.empty();
+        }
+        final Optional<SaldoCheckpoint> checkpoint = saldoCheckpointRepository
+            .findFirstByNivelAndEntidadIdAndFechaCorteLessThanEqualOrderByFechaCorteDesc(nivel, entidadId, fecha);
+        final OffsetDateTime desde = checkpoint.map(SaldoCheckpoint::getFechaCorte).orElse(null);
+        BigDecimal cantidad = checkpoint
+            .map(c -> convertirCantidadEntreUnidades(c.getUnidadMedida(), c.getCantidad(), unidad.get()))
+            .orElse(BigDecimal.ZERO);
+
+        // La unidad del lote puede cambiar tras el checkpoint (p. ej. al vender): se reexpresa en la actual
+        final List<EfectoStock> efectos = movimientoRepository.findEfectosStock(nivel, entidadId, desde, fecha);
+        for (EfectoStock efecto : efectos) {
+            cantidad = cantidad.add(efecto.cantidadEn(nivel));
+        }
+        return Optional.of(new StockHistoricoDTO(nivel, entidadId, fecha,
+            cantidad.setScale(ESCALA, RoundingMode.HALF_UP), unidad.get(), desde, efectos.size()));
+    }
+
+    /** Genera el checkpoint diario dejando fuera los movimientos más recientes que el margen configurado. */
+    @Scheduled(cron = "${conitrack.saldos.cron:0 30 4 * * *}")
+    public void generarCheckpointProgramado() {
+        generarCheckpoint(OffsetDateTime.now().minus(margen));
+    }
+
+    /**
+     * Escribe checkpoints al corte indicado para las entidades con movimientos desde el corte anterior.
+     * El corte debe quedar por detrás de las transacciones en curso: un movimiento confirmado con fecha anterior a
+     * un corte ya escrito no quedaría reflejado en él.
+     *
+     * @return cantidad de checkpoints escritos
+     */
+    public int generarCheckpoint(final OffsetDateTime corte) {
+        final Integer escritos = nuevaTransaccion().execute(status -> {
+            final OffsetDateTime anterior = saldoCheckpointRepository.findUltimoCorte().orElse(null);
+            if (anterior != null && !corte.isAfter(anterior)) {
+                log.info("Checkpoint de saldos omitido: el corte {} no es posterior al último ({})", corte, anterior);
+                return 0;
+            }
+            final List<EfectoStock> efectos = movimientoRepository.findEfectosStock(null, null, anterior, corte);
+            final List<SaldoCheckpoint> checkpoints = new ArrayList<>();
+            for (Map.Entry<Nivel, Map<Long, BigDecimal>> porNivel : agruparDeltas(efectos).entrySet()) {
+                final Nivel nivel = porNivel.getKey();
+                checkpoints.addAll(acumular(nivel, porNivel.getValue(), unidades(efectos, nivel), anterior, corte));
+            }
+            saldoCheckpointRepository.saveAll(checkpoints);
+            return checkpoints.size();
+        });
+        log.info("Checkpoint de saldos al {}: {} saldos escritos", corte, escritos);
+        return Objects.requireNonNullElse(escritos, 0);
+    }
+
+    /** Suma los efectos por nivel y entidad, en la unidad de cada nivel. */
+    static Map<Nivel, Map<Long, BigDecimal>> agruparDeltas(final List<EfectoStock> efectos) {
+        final Map<Nivel, Map<Long, BigDecimal>> deltas = new EnumMap<>(Nivel.class);
+        for (Nivel nivel : Nivel.values()) {
+            final Map<Long, BigDecimal> porEntidad = new HashMap<>();
+            for (EfectoStock efecto : efectos) {
+                porEntidad.merge(efecto.entidadId(nivel), efecto.cantidadEn(nivel), BigDecimal::add);
+            }
+            deltas.put(nivel, porEntidad);
+        }
+        return deltas;
+    }
+
+    private List<SaldoCheckpoint> acumular(
+        final Nivel nivel,
+        final Map<Long, BigDecimal> deltas,
+        final Map<Long, UnidadMedidaEnum> unidades,
+        final OffsetDateTime anterior,
+        final OffsetDateTime corte) {
+        final Map<Long, SaldoCheckpoint> base = new HashMap<>();
+        if (anterior != null && !deltas.isEmpty()) {
+            for (SaldoCheckpoint checkpoint : saldoCheckpointRepository.findVigentes(nivel, deltas.keySet(), anterior)) {
+                base.put(checkpoint.getEntidadId(), checkpoint);
+            }
+        }
+        final List<SaldoCheckpoint> checkpoints = new ArrayList<>(deltas.size());
+        for (Map.Entry<Long, BigDecimal> delta : deltas.entrySet()) {
+            final UnidadMedidaEnum unidad = unidades.get(delta.getKey());
+            final SaldoCheckpoint previo = base.get(delta.getKey());
+            final BigDecimal saldoPrevio = previo == null
+                ? BigDecimal.ZERO
+                : convertirCantidadEntreUnidades(previo.getUnidadMedida(), previo.getCantidad(), unidad);
+            checkpoints.add(new SaldoCheckpoint(nivel, delta.getKey(), corte,
+                saldoPrevio.add(delta.getValue()).setScale(ESCALA, RoundingMode.HALF_UP), unidad));
+        }
+        return checkpoints;
+    }
+
+    private static Map<Long, UnidadMedidaEnum> unidades(final List<EfectoStock> efectos, final Nivel nivel) {
+        final Map<Long, UnidadMedidaEnum> unidades = new HashMap<>();
+        for (EfectoStock efecto : efectos) {
+            unidades.putIfAbsent(efecto.entidadId(nivel), efecto.unidad(nivel));
+        }
+        return unidades;
+    }
+
+    private Optional<UnidadMedidaEnum> unidadMedida(final Nivel nivel, final Long entidadId) {
+        return switch (nivel) {
+            case BULTO -> bultoRepository.findById(entidadId).map(Bulto::getUnidadMedida);
+            case LOTE -> loteRepository.findById(entidadId).map(Lote::getUnidadMedida);
+            case PRODUCTO -> productoRepository.findById(entidadId).map(Producto::getUnidadMedida);
+        };
+    }
+
+    void setMargen(final Duration margen) {
+        this.margen = margen;
+    }
+
+    private TransactionTemplate nuevaTransaccion() {
+        final TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return tx;
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.mb.conitrack.service;
+
+import java.math.BigDecimal;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mb.conitrack.entity.DetalleMovimiento;
+import com.mb.conitrack.entity.Movimiento;
+import com.mb.conitrack.repository.MovimientoRepository;
+
+/**
+ * Mantiene el saldo retornable de los detalles de venta: lo que cada bulto vendido todavía admite por devolución
+ * (CU23) o recall (CU24). Los altas lo descuentan y sus reversos lo reponen, en la transacción del CU, para que
+ * los máximos de retorno se lean sin recorrer los retornos previos de la venta.
+ */
+@Service
+public class SaldoRetornableService {
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    /**
+     * Descuenta del saldo de la venta de origen las cantidades por bulto del movimiento de retorno.
+     *
+     * @throws IllegalStateException si algún bulto no tiene saldo suficiente en la venta
+     */
+    @Transactional
+    public void descontar(final Movimiento movimientoRetorno) {
+        final Movimiento venta = movimientoRetorno.getMovimientoOrigen();
+        // Un saldo nulo no pasaría el control de la sentencia de descuento: se carga antes desde la venta y sus
+        // retornos, lo mismo que informa el recálculo de MovimientoService para esas ventas
+        movimientoRepository.inicializarSaldoRetornable(venta.getId(), movimientoRetorno.getId());
+        for (DetalleMovimiento detalle : movimientoRetorno.getDetalles()) {
+            if (BigDecimal.ZERO.compareTo(detalle.getCantidad()) == 0) {
+                continue;
+            }
+            final Integer nroBulto = detalle.getBulto().getNroBulto();
+            if (movimientoRepository.descontarSaldoRetornable(venta.getId(), nroBulto, detalle.getCantidad()) == 0) {
+                throw new IllegalStateException("La cantidad a retornar del bulto " + nroBulto
+                    + " supera el saldo de la venta " + venta.getCodigoMovimiento() + ".");
+            }
+        }
+    }
+
+    /** Devuelve al saldo de la venta de origen las cantidades del movimiento de retorno que se reversa. */
+    @Transactional
+    public void reponer(final Movimiento movimientoRetorno) {
+        final Movimiento venta = movimientoRetorno.getMovimientoOrigen();
+        if (venta == null) {
+            return;
+        }
+        for (DetalleMovimiento detalle : movimientoRetorno.getDetalles()) {
+            if (BigDecimal.ZERO.compareTo(detalle.getCantidad()) == 0) {
+                continue;
+            }
+            movimientoRepository.reponerSaldoRetornable(
+                venta.getId(), detalle.getBulto().getNroBulto(), detalle.getCantidad());
+        }
+    }
+
+}
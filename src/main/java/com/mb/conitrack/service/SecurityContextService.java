@@ -1,50 +1,108 @@
 package com.mb.conitrack.service;
 
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import com.mb.conitrack.dto.UsuarioActualDTO;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.repository.maestro.UserRepository;
+import com.mb.conitrack.service.maestro.UsuarioPrincipal;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Servicio para obtener información del usuario actual desde Spring Security.
  * Centraliza el acceso al SecurityContext para facilitar testing y mantenimiento.
+ *
+ * Los chequeos de rol y permisos usan la instantánea {@link UsuarioActualDTO} que lleva el principal de la
+ * sesión; la entidad {@link User} solo se lee de la base cuando hace falta y se reutiliza durante la petición.
  */
 @Service
 @Slf4j
 public class SecurityContextService {
 
+    private static final String ATRIBUTO_USUARIO = SecurityContextService.class.getName() + ".usuario";
+
     @Autowired
     private UserRepository userRepository;
 
+    /** Instantáneas releídas de la base, para principals sin instantánea o invalidados. */
+    private final ConcurrentMap<String, UsuarioActualDTO> snapshots = new ConcurrentHashMap<>();
+
+    /** Momento de la última modificación de cada usuario: las instantáneas anteriores quedan descartadas. */
+    private final ConcurrentMap<String, Instant> invalidaciones = new ConcurrentHashMap<>();
+
     /**
      * Obtiene el usuario actualmente autenticado.
+     * Dentro de una petición HTTP la entidad se lee una sola vez y se reutiliza en las llamadas siguientes.
      * @return User entity del usuario actual
      * @throws SecurityException si no hay usuario autenticado o no existe en BD
      */
     public User getCurrentUser() {
+        String username = getAuthenticatedUsername();
+        log.debug("Obteniendo usuario actual: {}", username);
+
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos != null
+            && atributos.getAttribute(ATRIBUTO_USUARIO, RequestAttributes.SCOPE_REQUEST) instanceof User cacheado
+            && username.equals(cacheado.getUsername())) {
+            return cacheado;
+        }
+
+        User user = buscarUsuario(username);
+        if (atributos != null) {
+            atributos.setAttribute(ATRIBUTO_USUARIO, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    /**
+     * Obtiene la instantánea del usuario actual sin consultar la base, salvo que el usuario haya sido
+     * modificado después de tomarla.
+     * @return instantánea inmutable del usuario autenticado
+     * @throws SecurityException si no hay usuario autenticado o no existe en BD
+     */
+    public UsuarioActualDTO getUsuarioActual() {
         Authentication authentication = SecurityContextHolder
             .getContext()
             .getAuthentication();
+        String username = getAuthenticatedUsername();
+        Instant invalidado = invalidaciones.get(username);
 
-        if (authentication == null || !authentication.isAuthenticated()) {
-            log.error("No hay usuario autenticado en el contexto de seguridad");
-            throw new SecurityException("No hay usuario autenticado");
+        if (authentication.getPrincipal() instanceof UsuarioPrincipal principal
+            && vigente(principal.getUsuarioActual(), invalidado)) {
+            return principal.getUsuarioActual();
         }
 
-        String username = authentication.getName();
-        log.debug("Obteniendo usuario actual: {}", username);
+        UsuarioActualDTO snapshot = snapshots.get(username);
+        if (snapshot != null && vigente(snapshot, invalidado)) {
+            return snapshot;
+        }
 
-        return userRepository.findByUsername(username)
-            .orElseThrow(() -> {
-                log.error("Usuario autenticado no encontrado en BD: {}", username);
-                return new SecurityException(
-                    "Usuario autenticado no encontrado en base de datos: " + username);
-            });
+        // El instante se toma antes de leer, así una modificación concurrente deja la lectura como vencida
+        Instant cargado = Instant.now();
+        UsuarioActualDTO recargado = UsuarioActualDTO.de(buscarUsuario(username), cargado);
+        snapshots.put(username, recargado);
+        return recargado;
+    }
+
+    /**
+     * Descarta las instantáneas del usuario indicado; la próxima consulta las relee de la base.
+     * Debe llamarse después de persistir cambios de rol, expiración o baja del usuario.
+     * @param username Username del usuario modificado
+     */
+    public void invalidarUsuario(String username) {
+        invalidaciones.put(username, Instant.now());
+        snapshots.remove(username);
+        log.info("Instantánea del usuario {} invalidada", username);
     }
 
     /**
@@ -88,11 +146,36 @@ public class SecurityContextService {
         }
 
         try {
-            User user = getCurrentUser();
-            return roleName.equals(user.getRole().getName());
+            return roleName.equals(getUsuarioActual().nombreRol());
         } catch (Exception e) {
             log.error("Error verificando rol: {}", e.getMessage());
             return false;
         }
     }
+
+    private String getAuthenticatedUsername() {
+        Authentication authentication = SecurityContextHolder
+            .getContext()
+            .getAuthentication();
+
+        if (authentication == null || !authentication.isAuthenticated()) {
+            log.error("No hay usuario autenticado en el contexto de seguridad");
+            throw new SecurityException("No hay usuario autenticado");
+        }
+
+        return authentication.getName();
+    }
+
+    private User buscarUsuario(String username) {
+        return userRepository.findByUsername(username)
+            .orElseThrow(() -> {
+                log.error("Usuario autenticado no encontrado en BD: {}", username);
+                return new SecurityException(
+                    "Usuario autenticado no encontrado en base de datos: " + username);
+            });
+    }
+
+    private static boolean vigente(UsuarioActualDTO snapshot, Instant invalidado) {
+        return invalidado == null || snapshot.cargado().isAfter(invalidado);
+    }
 }
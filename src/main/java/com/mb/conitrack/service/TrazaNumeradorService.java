@@ -0,0 +1,162 @@
+package com.mb.conitrack.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mb.conitrack.entity.TrazaContador;
+import com.mb.conitrack.repository.TrazaContadorRepository;
+import com.mb.conitrack.repository.TrazaRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Asignador de números de traza por producto.
+ * El último número reservado de cada producto vive en traza_contadores y se avanza con bloqueo de fila, en una
+ * transacción propia, por lo que la asignación no colisiona entre pedidos concurrentes ni entre instancias.
+ * Cada instancia reserva bloques y entrega los pedidos chicos desde memoria; los números de un bloque no
+ * usado se pierden al reiniciar (la numeración admite huecos).
+ */
+@Service
+@Slf4j
+public class TrazaNumeradorService {
+
+    private final TrazaContadorRepository trazaContadorRepository;
+
+    private final TrazaRepository trazaRepository;
+
+    private final TransactionTemplate reservaTx;
+
+    private final ConcurrentMap<Long, Bloque> bloques = new ConcurrentHashMap<>();
+
+    @Value("${conitrack.trazado.bloque-reserva:1000}")
+    private long bloqueReserva = 1000;
+
+    public TrazaNumeradorService(
+        final TrazaContadorRepository trazaContadorRepository,
+        final TrazaRepository trazaRepository,
+        final PlatformTransactionManager transactionManager) {
+        this.trazaContadorRepository = trazaContadorRepository;
+        this.trazaRepository = trazaRepository;
+        this.reservaTx = new TransactionTemplate(transactionManager);
+        this.reservaTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Reserva un rango contiguo de números de traza para el producto.
+     *
+     * @return primer número del rango; el rango es [inicio, inicio + cantidad - 1]
+     */
+    public long reservar(final Long productoId, final long cantidad) {
+        if (cantidad <= 0) {
+            throw new IllegalArgumentException("La cantidad de trazas a reservar debe ser positiva");
+        }
+        final Bloque bloque = bloques.computeIfAbsent(productoId, id -> new Bloque());
+        synchronized (bloque) {
+            if (bloque.disponibles() >= cantidad) {
+                return bloque.tomar(cantidad);
+            }
+            if (cantidad >= bloqueReserva) {
+                return avanzarContador(productoId, cantidad);
+            }
+            final long inicio = avanzarContador(productoId, bloqueReserva);
+            bloque.reiniciar(inicio, inicio + bloqueReserva - 1);
+            return bloque.tomar(cantidad);
+        }
+    }
+
+    /**
+     * Registra un rango elegido manualmente. Sólo se acepta por encima del último número reservado,
+     * de modo que no puede pisar rangos asignados por ninguna instancia.
+     *
+     * @throws IllegalArgumentException si el inicio no es mayor al último número reservado
+     */
+    public long registrarManual(final Long productoId, final long inicio, final long cantidad) {
+        asegurarContador(productoId);
+        final Long resultado = reservaTx.execute(status -> {
+            final TrazaContador contador = trazaContadorRepository.findForUpdate(productoId).orElseThrow();
+            if (inicio <= contador.getUltimoNro()) {
+                throw new IllegalArgumentException(
+                    "El número de traza debe ser mayor al último registrado. " + contador.getUltimoNro());
+            }
+            contador.setUltimoNro(inicio + cantidad - 1);
+            return inicio;
+        });
+        return resultado != null ? resultado : inicio;
+    }
+
+    /** Último número de traza reservado para el producto (o el máximo existente si aún no tiene contador). */
+    public long ultimoAsignado(final Long productoId) {
+        return trazaContadorRepository.findById(productoId)
+            .map(TrazaContador::getUltimoNro)
+            .orElseGet(() -> trazaRepository.findMaxNroTraza(productoId));
+    }
+
+    void setBloqueReserva(final long bloqueReserva) {
+        this.bloqueReserva = bloqueReserva;
+    }
+
+    private long avanzarContador(final Long productoId, final long cantidad) {
+        asegurarContador(productoId);
+        final Long inicio = reservaTx.execute(status -> {
+            final TrazaContador contador = trazaContadorRepository.findForUpdate(productoId).orElseThrow();
+            final long desde = contador.getUltimoNro() + 1;
+            contador.setUltimoNro(contador.getUltimoNro() + cantidad);
+            return desde;
+        });
+        if (inicio == null) {
+            throw new IllegalStateException("No se pudo reservar números de traza para el producto " + productoId);
+        }
+        log.debug("Trazas reservadas producto {}: [{} - {}]", productoId, inicio, inicio + cantidad - 1);
+        return inicio;
+    }
+
+    /**
+     * Crea el contador del producto a partir del máximo número de traza existente.
+     * Si otra instancia lo crea al mismo tiempo, la violación de clave primaria se ignora.
+     */
+    private void asegurarContador(final Long productoId) {
+        if (trazaContadorRepository.existsById(productoId)) {
+            return;
+        }
+        try {
+            reservaTx.executeWithoutResult(status -> {
+                final long maximo = Math.max(0, trazaRepository.findMaxNroTraza(productoId));
+                trazaContadorRepository.insertar(productoId, maximo);
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Contador de trazas del producto {} creado por otra instancia", productoId);
+        }
+    }
+
+    /** Rango reservado en memoria por esta instancia. Se accede sincronizado sobre el propio bloque. */
+    private static final class Bloque {
+
+        private long siguiente = 1;
+
+        private long hasta = 0;
+
+        long disponibles() {
+            return hasta - siguiente + 1;
+        }
+
+        long tomar(final long cantidad) {
+            final long inicio = siguiente;
+            siguiente += cantidad;
+            return inicio;
+        }
+
+        void reiniciar(final long desde, final long hasta) {
+            this.siguiente = desde;
+            this.hasta = hasta;
+        }
+
+    }
+
+}
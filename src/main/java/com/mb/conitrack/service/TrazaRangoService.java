@@ -0,0 +1,246 @@
+package com.mb.conitrack.service;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mb.conitrack.dto.TrazaDTO;
+import com.mb.conitrack.dto.mapper.TrazaMapper;
+import com.mb.conitrack.entity.Bulto;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.Traza;
+import com.mb.conitrack.entity.TrazaRango;
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.enums.EstadoEnum;
+import com.mb.conitrack.repository.TrazaRangoRepository;
+import com.mb.conitrack.repository.TrazaRepositoryCustom.RangoTraza;
+
+/**
+ * Mantiene la representación compacta de trazas por rangos (traza_rangos) y resuelve consultas
+ * de trazas disponibles sobre ella. Los rangos se actualizan en forma incremental con cada cambio de estado.
+ * Es opcional: con {@code conitrack.trazado.rangos-habilitados=false} no se mantienen rangos y las
+ * consultas siguen resolviéndose sobre las trazas individuales.
+ */
+@Service
+public class TrazaRangoService {
+
+    @Autowired
+    private TrazaRangoRepository trazaRangoRepository;
+
+    @Value("${conitrack.trazado.rangos-habilitados:false}")
+    private boolean habilitado;
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    void setHabilitado(final boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    /** Actualiza los rangos con el estado nuevo de las trazas modificadas. */
+    @Transactional
+    public void sincronizar(final Collection<Traza> trazas) {
+        sincronizar(trazas, null);
+    }
+
+    /**
+     * Actualiza los rangos con el estado nuevo de las trazas modificadas, que pueden venir de bultoAnterior.
+     * Solo se tocan los rangos que contienen o lindan con las trazas: primero se las quita de los rangos donde
+     * estaban (partiendo o recortando cada uno) y después se las agrega con su estado actual, extendiendo o uniendo
+     * los rangos vecinos del mismo estado. El costo depende de los tramos modificados y no de las unidades del bulto.
+     */
+    @Transactional
+    public void sincronizar(final Collection<Traza> trazas, final Bulto bultoAnterior) {
+        if (!habilitado || trazas == null || trazas.isEmpty()) {
+            return;
+        }
+        final Map<Long, List<Traza>> porBulto = trazas.stream()
+            .filter(traza -> traza.getNroTraza() != null)
+            .filter(traza -> traza.getBulto() != null && traza.getBulto().getId() != null)
+            .sorted(Comparator.comparing(Traza::getNroTraza))
+            .collect(Collectors.groupingBy(traza -> traza.getBulto().getId(), LinkedHashMap::new,
+                Collectors.toList()));
+
+        for (Map.Entry<Long, List<Traza>> entry : porBulto.entrySet()) {
+            final Set<Long> bultoIds = new HashSet<>();
+            bultoIds.add(entry.getKey());
+            if (bultoAnterior != null && bultoAnterior.getId() != null) {
+                bultoIds.add(bultoAnterior.getId());
+            }
+            for (List<Traza> tramo : tramos(entry.getValue(), false)) {
+                quitar(bultoIds, primera(tramo).getNroTraza(), ultima(tramo).getNroTraza());
+            }
+        }
+        for (List<Traza> trazasBulto : porBulto.values()) {
+            final List<Traza> activas = trazasBulto.stream().filter(traza -> Boolean.TRUE.equals(traza.getActivo()))
+                .toList();
+            for (List<Traza> tramo : tramos(activas, true)) {
+                agregar(primera(tramo).getLote(), primera(tramo).getBulto(), primera(tramo).getProducto(),
+                    primera(tramo).getNroTraza(), ultima(tramo).getNroTraza(), primera(tramo).getEstado(),
+                    fechaMinima(tramo));
+            }
+        }
+    }
+
+    /**
+     * Registra como disponibles las trazas recién generadas para el lote (CU28), un rango por bulto, sin leer las
+     * trazas insertadas.
+     */
+    @Transactional
+    public void registrarTrazado(final Lote lote, final List<RangoTraza> rangos, final OffsetDateTime fecha) {
+        if (!habilitado) {
+            return;
+        }
+        for (RangoTraza rango : rangos) {
+            if (rango.cantidad() <= 0) {
+                continue;
+            }
+            final Bulto bulto = lote.getBultos().stream()
+                .filter(b -> rango.bultoId().equals(b.getId()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(
+                    "El bulto " + rango.bultoId() + " no pertenece al lote " + lote.getCodigoLote()));
+            agregar(lote, bulto, lote.getProducto(), rango.nroDesde(), rango.nroHasta(), EstadoEnum.DISPONIBLE,
+                fecha);
+        }
+    }
+
+    /**
+     * Números de traza disponibles más bajos del bulto, agrupados en rangos contiguos.
+     *
+     * @return rangos contiguos que suman como máximo la cantidad pedida
+     */
+    @Transactional(readOnly = true)
+    public List<RangoTraza> primerosDisponibles(final Long bultoId, final int cantidad) {
+        final List<RangoTraza> resultado = new ArrayList<>();
+        long restantes = cantidad;
+        for (TrazaRango rango : trazaRangoRepository.findByBultoIdAndEstado(bultoId, EstadoEnum.DISPONIBLE)) {
+            if (restantes <= 0) {
+                break;
+            }
+            final long tomadas = Math.min(restantes, rango.getCantidad());
+            resultado.add(new RangoTraza(bultoId, rango.getNroDesde(), tomadas));
+            restantes -= tomadas;
+        }
+        return resultado;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TrazaDTO> findDisponiblesByCodigoLoteAndNroBulto(final String codigoLote, final Integer nroBulto) {
+        return TrazaMapper.fromRangos(
+            trazaRangoRepository.findDisponiblesByCodigoLoteAndNroBulto(codigoLote, nroBulto));
+    }
+
+    /** Saca [desde, hasta] de los rangos de los bultos que lo cubren, en cualquier estado. */
+    private void quitar(final Set<Long> bultoIds, final long desde, final long hasta) {
+        for (TrazaRango rango : trazaRangoRepository.findSolapados(bultoIds, desde, hasta)) {
+            final boolean quedaAntes = rango.getNroDesde() < desde;
+            final boolean quedaDespues = rango.getNroHasta() > hasta;
+            if (quedaAntes && quedaDespues) {
+                final long hastaOriginal = rango.getNroHasta();
+                rango.setNroHasta(desde - 1);
+                trazaRangoRepository.save(rango);
+                trazaRangoRepository.save(new TrazaRango(null, rango.getLote(), rango.getBulto(),
+                    rango.getProducto(), hasta + 1, hastaOriginal, rango.getEstado(), rango.getFechaYHoraCreacion()));
+            } else if (quedaAntes) {
+                rango.setNroHasta(desde - 1);
+                trazaRangoRepository.save(rango);
+            } else if (quedaDespues) {
+                rango.setNroDesde(hasta + 1);
+                trazaRangoRepository.save(rango);
+            } else {
+                trazaRangoRepository.delete(rango);
+            }
+        }
+    }
+
+    /** Agrega [desde, hasta] al bulto con el estado dado, uniéndolo con los rangos contiguos del mismo estado. */
+    private void agregar(
+        final Lote lote,
+        final Bulto bulto,
+        final Producto producto,
+        final long desde,
+        final long hasta,
+        final EstadoEnum estado,
+        final OffsetDateTime fecha) {
+        final Optional<TrazaRango> anterior =
+            trazaRangoRepository.findByBultoIdAndEstadoAndNroHasta(bulto.getId(), estado, desde - 1);
+        final Optional<TrazaRango> siguiente =
+            trazaRangoRepository.findByBultoIdAndEstadoAndNroDesde(bulto.getId(), estado, hasta + 1);
+        if (anterior.isPresent()) {
+            final TrazaRango rango = anterior.get();
+            rango.setNroHasta(siguiente.map(TrazaRango::getNroHasta).orElse(hasta));
+            rango.setFechaYHoraCreacion(masAntigua(rango.getFechaYHoraCreacion(), fecha));
+            siguiente.ifPresent(trazaRangoRepository::delete);
+            trazaRangoRepository.save(rango);
+        } else if (siguiente.isPresent()) {
+            final TrazaRango rango = siguiente.get();
+            rango.setNroDesde(desde);
+            rango.setFechaYHoraCreacion(masAntigua(rango.getFechaYHoraCreacion(), fecha));
+            trazaRangoRepository.save(rango);
+        } else {
+            trazaRangoRepository.save(new TrazaRango(null, lote, bulto, producto, desde, hasta, estado, fecha));
+        }
+    }
+
+    /**
+     * Parte las trazas (ordenadas por número) en tramos de números consecutivos; con porEstado, además, cada tramo
+     * tiene un único estado.
+     */
+    private static List<List<Traza>> tramos(final List<Traza> ordenadas, final boolean porEstado) {
+        final List<List<Traza>> tramos = new ArrayList<>();
+        List<Traza> actual = null;
+        for (Traza traza : ordenadas) {
+            if (actual != null && ultima(actual).getNroTraza().equals(traza.getNroTraza())) {
+                continue;
+            }
+            if (actual == null
+                || ultima(actual).getNroTraza() + 1 != traza.getNroTraza()
+                || porEstado && ultima(actual).getEstado() != traza.getEstado()) {
+                actual = new ArrayList<>();
+                tramos.add(actual);
+            }
+            actual.add(traza);
+        }
+        return tramos;
+    }
+
+    private static Traza primera(final List<Traza> tramo) {
+        return tramo.get(0);
+    }
+
+    private static Traza ultima(final List<Traza> tramo) {
+        return tramo.get(tramo.size() - 1);
+    }
+
+    private static OffsetDateTime fechaMinima(final List<Traza> tramo) {
+        return tramo.stream()
+            .map(Traza::getFechaYHoraCreacion)
+            .filter(Objects::nonNull)
+            .min(Comparator.naturalOrder())
+            .orElse(null);
+    }
+
+    private static OffsetDateTime masAntigua(final OffsetDateTime a, final OffsetDateTime b) {
+        if (a == null || b == null) {
+            return a != null ? a : b;
+        }
+        return a.isBefore(b) ? a : b;
+    }
+
+}
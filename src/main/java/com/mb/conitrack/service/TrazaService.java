@@ -1,12 +1,19 @@
 package com.mb.conitrack.service;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.mb.conitrack.dto.TrazaDTO;
+import com.mb.conitrack.dto.datatables.DataTablesRequest;
+import com.mb.conitrack.dto.datatables.DataTablesResponse;
+import com.mb.conitrack.dto.mapper.TrazaMapper;
+import com.mb.conitrack.entity.Traza;
 import com.mb.conitrack.repository.TrazaRepository;
 
 import static com.mb.conitrack.dto.DTOUtils.fromTrazaEntities;
@@ -14,14 +21,41 @@ import static com.mb.conitrack.dto.DTOUtils.fromTrazaEntities;
 @Service
 public class TrazaService {
 
+    /** Columnas del listado general que admiten orden, con su propiedad en la consulta paginada. */
+    static final Map<String, String> COLUMNAS_ORDENABLES = Map.of(
+        "fechaYHoraCreacion", "t.fechaYHoraCreacion",
+        "nroTraza", "t.nroTraza",
+        "codigoProducto", "p.codigoProducto",
+        "codigoLote", "l.codigoLote",
+        "estado", "t.estado");
+
+    static final Sort ORDEN_POR_DEFECTO = Sort.by("t.nroTraza");
+
     @Autowired
     private TrazaRepository trazaRepository;
 
+    @Autowired
+    private TrazaRangoService trazaRangoService;
+
     @Transactional(readOnly = true)
     public List<TrazaDTO> findAllByActivoTrue() {
         return fromTrazaEntities(trazaRepository.findAllByActivoTrue());
     }
 
+    /**
+     * Página del listado general de trazas para DataTables server-side.
+     * La búsqueda compara el número de traza exacto o el código de lote/producto.
+     */
+    @Transactional(readOnly = true)
+    public DataTablesResponse<TrazaDTO> findPaginaTrazas(final DataTablesRequest request) {
+        final Page<Traza> pagina = trazaRepository.findPagina(
+            request.getFiltroLike(),
+            request.getFiltroNumero(),
+            request.toPageable(COLUMNAS_ORDENABLES, ORDEN_POR_DEFECTO));
+        final long total = request.tieneFiltro() ? trazaRepository.countByActivoTrue() : pagina.getTotalElements();
+        return DataTablesResponse.of(request, pagina, total, TrazaMapper::fromEntity);
+    }
+
     @Transactional(readOnly = true)
     public List<TrazaDTO> findByCodigoLoteAndActivo(final String codigoLote) {
         return fromTrazaEntities(trazaRepository.findByLoteCodigoLoteAndActivoTrueOrderByNroTrazaAsc(codigoLote));
@@ -41,6 +75,9 @@ public class TrazaService {
 
     @Transactional(readOnly = true)
     public List<TrazaDTO> getTrazasByCodigoLoteAndNroBulto(String codigoLote, Integer nroBulto) {
+        if (trazaRangoService.isHabilitado()) {
+            return trazaRangoService.findDisponiblesByCodigoLoteAndNroBulto(codigoLote, nroBulto);
+        }
         return fromTrazaEntities(trazaRepository.findDisponiblesByCodigoLoteAndNroBulto(codigoLote, nroBulto));
     }
 
@@ -0,0 +1,122 @@
+package com.mb.conitrack.service;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.repository.TrazaRepository;
+import com.mb.conitrack.repository.TrazaRepositoryCustom.RangoTraza;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static com.mb.conitrack.utils.LoteEntityUtils.calcularRangosTraza;
+
+/**
+ * Motor de trazado masivo para CU28.
+ * Calcula los rangos de traza por bulto y los inserta por JDBC en bloques, cada uno confirmado en su propia
+ * transacción, de modo que un lote de cientos de miles de unidades no retiene una única transacción larga.
+ * Si el trazado falla, o la transacción del CU que lo invocó termina en rollback, se eliminan las trazas
+ * ya confirmadas.
+ */
+@Service
+@Slf4j
+public class TrazadoBulkService {
+
+    private final TrazaRepository trazaRepository;
+
+    private final TrazaRangoService trazaRangoService;
+
+    private final TransactionTemplate bloqueTx;
+
+    @Value("${conitrack.trazado.chunk-size:10000}")
+    private int chunkSize = 10000;
+
+    public TrazadoBulkService(
+        final TrazaRepository trazaRepository,
+        final TrazaRangoService trazaRangoService,
+        final PlatformTransactionManager transactionManager) {
+        this.trazaRepository = trazaRepository;
+        this.trazaRangoService = trazaRangoService;
+        this.bloqueTx = new TransactionTemplate(transactionManager);
+        this.bloqueTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Inserta las trazas del lote desde la traza inicial, distribuidas por bulto.
+     *
+     * @return cantidad total de trazas insertadas
+     */
+    public long trazarLote(final Lote lote, final long trazaInicial, final OffsetDateTime fechaYHoraCreacion) {
+        final List<RangoTraza> rangos = calcularRangosTraza(lote, trazaInicial);
+        final long total = rangos.stream().mapToLong(RangoTraza::cantidad).sum();
+        if (total == 0) {
+            return 0;
+        }
+
+        final long trazaFinal = trazaInicial + total - 1;
+        final Producto producto = lote.getProducto();
+        final String descripcionProducto = producto.getCodigoProducto() + " / " + producto.getNombreGenerico();
+
+        compensarSiRollback(lote.getId(), trazaInicial, trazaFinal);
+
+        long insertadas = 0;
+        try {
+            for (RangoTraza rango : rangos) {
+                for (long offset = 0; offset < rango.cantidad(); offset += chunkSize) {
+                    final RangoTraza bloque = new RangoTraza(
+                        rango.bultoId(),
+                        rango.nroDesde() + offset,
+                        Math.min(chunkSize, rango.cantidad() - offset));
+                    final Long filas = bloqueTx.execute(status -> trazaRepository.insertarRango(
+                        lote.getId(), producto.getId(), descripcionProducto, fechaYHoraCreacion, bloque));
+                    insertadas += filas != null ? filas : 0;
+                    log.info("Trazado lote {}: {}/{} trazas", lote.getCodigoLote(), insertadas, total);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Trazado lote {} interrumpido en {}/{} trazas", lote.getCodigoLote(), insertadas, total, e);
+            try {
+                eliminarTrazas(lote.getId(), trazaInicial, trazaFinal);
+            } catch (RuntimeException compensacion) {
+                e.addSuppressed(compensacion);
+            }
+            throw e;
+        }
+        // Los rangos se registran en la transacción del CU: si ésta se revierte, se descartan con ella
+        trazaRangoService.registrarTrazado(lote, rangos, fechaYHoraCreacion);
+        return insertadas;
+    }
+
+    void setChunkSize(final int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    private void compensarSiRollback(final Long loteId, final long nroDesde, final long nroHasta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(final int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    eliminarTrazas(loteId, nroDesde, nroHasta);
+                }
+            }
+        });
+    }
+
+    private void eliminarTrazas(final Long loteId, final long nroDesde, final long nroHasta) {
+        final Integer eliminadas = bloqueTx.execute(status -> trazaRepository.eliminarRango(loteId, nroDesde, nroHasta));
+        log.warn("Trazado lote id {} revertido: {} trazas eliminadas [{} - {}]", loteId, eliminadas, nroDesde, nroHasta);
+    }
+
+}
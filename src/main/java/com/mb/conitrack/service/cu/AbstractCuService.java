@@ -1,7 +1,10 @@
 package com.mb.conitrack.service.cu;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 
@@ -13,15 +16,21 @@ import com.mb.conitrack.dto.MovimientoDTO;
 import com.mb.conitrack.entity.Bulto;
 import com.mb.conitrack.entity.Lote;
 import com.mb.conitrack.entity.Movimiento;
+import com.mb.conitrack.entity.Traza;
+import com.mb.conitrack.exception.StockInsuficienteException;
 import com.mb.conitrack.repository.AnalisisRepository;
 import com.mb.conitrack.repository.BultoRepository;
 import com.mb.conitrack.repository.LoteRepository;
 import com.mb.conitrack.repository.MovimientoRepository;
 import com.mb.conitrack.repository.TrazaRepository;
+import com.mb.conitrack.repository.TrazaRepositoryCustom.RangoTraza;
 import com.mb.conitrack.repository.maestro.ProductoRepository;
 import com.mb.conitrack.repository.maestro.ProveedorRepository;
 import com.mb.conitrack.repository.maestro.RoleRepository;
 import com.mb.conitrack.repository.maestro.UserRepository;
+import com.mb.conitrack.service.DashboardMetricsCache;
+import com.mb.conitrack.service.SaldoRetornableService;
+import com.mb.conitrack.service.TrazaRangoService;
 import com.mb.conitrack.service.cu.validator.AnalisisValidator;
 import com.mb.conitrack.service.cu.validator.CantidadValidator;
 import com.mb.conitrack.service.cu.validator.FechaValidator;
@@ -66,8 +75,24 @@ public abstract class AbstractCuService {
     @Autowired
     RoleRepository roleRepository;
 
+    @Autowired
+    DashboardMetricsCache dashboardMetricsCache;
+
+    @Autowired
+    TrazaRangoService trazaRangoService;
+
+    @Autowired
+    SaldoRetornableService saldoRetornableService;
+
+    /** Países para selección en formularios; la lista no cambia en la vida de la aplicación y se arma una vez. */
+    private static final List<String> PAISES = crearListaPaises();
+
     /** Obtiene lista de países para selección en formularios. */
     public List<String> getCountryList() {
+        return PAISES;
+    }
+
+    private static List<String> crearListaPaises() {
         String[] countryCodes = Locale.getISOCountries();
         List<String> countries = new ArrayList<>();
         for (String code : countryCodes) {
@@ -75,7 +100,7 @@ public abstract class AbstractCuService {
             countries.add(locale.getDisplayCountry());
         }
         countries.sort(String::compareTo);
-        return countries;
+        return List.copyOf(countries);
     }
 
     // ========== Delegación a CantidadValidator ==========
@@ -185,4 +210,52 @@ public abstract class AbstractCuService {
     boolean validarTrazasDevolucion(final MovimientoDTO dto, final BindingResult bindingResult) {
         return TrazaValidator.validarTrazasDevolucion(dto, bindingResult);
     }
+
+    // ========== Control de stock ==========
+
+    /**
+     * Verifica que la baja no deje stock negativo en el bulto ni en el lote. La validación del formulario corre en
+     * otra transacción: una baja concurrente confirmada en el medio puede haber consumido el stock validado.
+     */
+    void verificarStockNoNegativo(final Lote lote, final Bulto bulto) {
+        if (esNegativo(bulto.getCantidadActual()) || esNegativo(lote.getCantidadActual())) {
+            throw new StockInsuficienteException(lote.getCodigoLote(), bulto.getNroBulto(),
+                "Stock insuficiente en el bulto " + bulto.getNroBulto() + " del lote " + lote.getCodigoLote()
+                    + ": fue consumido por otra operación.");
+        }
+    }
+
+    private static boolean esNegativo(final BigDecimal cantidad) {
+        return cantidad.setScale(4, RoundingMode.HALF_UP).signum() < 0;
+    }
+
+    // ========== Persistencia de trazas ==========
+
+    /** Guarda trazas con estado modificado y actualiza los rangos que las contienen. */
+    void guardarTrazas(final Collection<Traza> trazas) {
+        trazaRepository.saveAll(trazas);
+        trazaRangoService.sincronizar(trazas);
+    }
+
+    /** Guarda trazas que pasaron de bultoAnterior a otro bulto y actualiza los rangos de ambos. */
+    void guardarTrazasMovidas(final Collection<Traza> trazas, final Bulto bultoAnterior) {
+        trazaRepository.saveAll(trazas);
+        trazaRangoService.sincronizar(trazas, bultoAnterior);
+    }
+
+    /**
+     * Primeras trazas disponibles del bulto. Con rangos habilitados se consultan solo las trazas de los
+     * rangos disponibles, sin inicializar la colección completa del bulto.
+     */
+    List<Traza> trazasDisponibles(final Bulto bulto, final int cantidad) {
+        if (!trazaRangoService.isHabilitado()) {
+            return bulto.getFirstAvailableTrazaList(cantidad);
+        }
+        final List<Traza> trazas = new ArrayList<>();
+        for (RangoTraza rango : trazaRangoService.primerosDisponibles(bulto.getId(), cantidad)) {
+            trazas.addAll(trazaRepository.findDisponiblesByBultoIdAndNroTrazaBetween(
+                bulto.getId(), rango.nroDesde(), rango.nroHasta()));
+        }
+        return trazas;
+    }
 }
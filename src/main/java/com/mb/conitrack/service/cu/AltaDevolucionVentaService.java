@@ -25,6 +25,8 @@ import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.DictamenEnum;
 import com.mb.conitrack.enums.EstadoEnum;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.enums.UseCaseTag;
+import com.mb.conitrack.interceptor.CasoUsoMetrica;
 import com.mb.conitrack.service.SecurityContextService;
 
 import jakarta.validation.Valid;
@@ -36,6 +38,7 @@ import static java.lang.Boolean.TRUE;
 
 /** CU23 - Alta Devolución Venta. Procesa devoluciones de clientes creando lotes derivados. */
 @Service
+@CasoUsoMetrica(UseCaseTag.CU23)
 public class AltaDevolucionVentaService extends AbstractCuService {
 
     @Autowired
@@ -73,6 +76,9 @@ public class AltaDevolucionVentaService extends AbstractCuService {
         } else {
             altaDevolucionUnidadesPorBulto(loteAltaDevolucion, movDevolucionVenta);
         }
+        saldoRetornableService.descontar(movDevolucionVenta);
+        // Alta de un lote nuevo y cambio de estado del lote vendido: se recalcula el dashboard completo
+        dashboardMetricsCache.invalidar();
 
         List<Lote> lotes = new ArrayList<>();
         loteRepository.findById(loteRepository.save(loteDevolucionGuardado).getId()).ifPresent(lotes::add);
@@ -149,7 +155,7 @@ public class AltaDevolucionVentaService extends AbstractCuService {
                 det.getTrazas().add(trazaBulto);
             }
 
-            trazaRepository.saveAll(det.getTrazas());
+            guardarTrazasMovidas(det.getTrazas(), bultoOriginal);
             bultoRepository.save(bultoDevolucion);
         }
         movDevolucionVenta.setCantidad(cantidadMovimiento);
@@ -13,6 +13,10 @@ import com.mb.conitrack.entity.Movimiento;
 import com.mb.conitrack.entity.maestro.Producto;
 import com.mb.conitrack.entity.maestro.Proveedor;
 import com.mb.conitrack.entity.maestro.User;
+import com.mb.conitrack.enums.UseCaseTag;
+import com.mb.conitrack.interceptor.CasoUsoMetrica;
+import com.mb.conitrack.service.DashboardMetricsCache.LoteMetricas;
+import com.mb.conitrack.service.CodigoLoteGenerator;
 import com.mb.conitrack.service.SecurityContextService;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,11 +29,15 @@ import static com.mb.conitrack.utils.MovimientoAltaUtils.createMovimientoAltaIng
 /** CU1 - Alta Ingreso Compra. Crea lote nuevo desde compra externa. */
 //***********CU1 ALTA: COMPRA***********
 @Service
+@CasoUsoMetrica(UseCaseTag.CU1)
 public class AltaIngresoCompraService extends AbstractCuService {
 
     @Autowired
     private SecurityContextService securityContextService;
 
+    @Autowired
+    private CodigoLoteGenerator codigoLoteGenerator;
+
     /** Crea lote nuevo desde compra. Inicializa bultos y movimiento ALTA/COMPRA. */
     @Transactional
     public LoteDTO altaStockPorCompra(LoteDTO loteDTO) {
@@ -46,8 +54,25 @@ public class AltaIngresoCompraService extends AbstractCuService {
             ? proveedorRepository.findById(loteDTO.getFabricanteId())
             : Optional.empty();
 
+        final Lote loteGuardado = persistirIngresoCompra(
+            loteDTO, producto, proveedor, fabricante.orElse(null), currentUser);
+
+        return DTOUtils.fromLoteEntity(loteGuardado);
+    }
+
+    /**
+     * Crea el lote con sus bultos y el movimiento ALTA/COMPRA, con productos y proveedores ya resueltos.
+     * Lo comparten el formulario y la importación masiva.
+     */
+    Lote persistirIngresoCompra(
+        final LoteDTO loteDTO,
+        final Producto producto,
+        final Proveedor proveedor,
+        final Proveedor fabricante,
+        final User currentUser) {
         Lote lote = createLoteIngreso(loteDTO);
-        populateLoteAltaStockCompra(lote, loteDTO, producto, proveedor, fabricante.orElse(null));
+        populateLoteAltaStockCompra(lote, loteDTO, producto, proveedor, fabricante,
+            codigoLoteGenerator.generar(producto.getCodigoProducto(), loteDTO.getFechaYHoraCreacion()));
 
         Lote loteGuardado = loteRepository.save(lote);  // Cascade persists bultos
 
@@ -56,8 +81,8 @@ public class AltaIngresoCompraService extends AbstractCuService {
 
         final Movimiento movimientoGuardado = movimientoRepository.save(movimientoAltaIngresoCompra);
         loteGuardado.getMovimientos().add(movimientoGuardado);
-
-        return DTOUtils.fromLoteEntity(loteGuardado);
+        dashboardMetricsCache.registrarMovimiento(movimientoGuardado, null, LoteMetricas.de(loteGuardado));
+        return loteGuardado;
     }
 
     /** Valida datos de entrada para alta de compra (cantidad, fechas, bultos). */
@@ -18,7 +18,12 @@ import com.mb.conitrack.entity.maestro.Producto;
 import com.mb.conitrack.entity.maestro.Proveedor;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.enums.UseCaseTag;
+import com.mb.conitrack.interceptor.CasoUsoMetrica;
+import com.mb.conitrack.service.CodigoLoteGenerator;
+import com.mb.conitrack.service.DashboardMetricsCache.LoteMetricas;
 import com.mb.conitrack.service.SecurityContextService;
+import com.mb.conitrack.service.TrazaNumeradorService;
 
 import static com.mb.conitrack.utils.LoteEntityUtils.createLoteIngreso;
 import static com.mb.conitrack.utils.LoteEntityUtils.populateLoteAltaProduccionPropia;
@@ -27,11 +32,18 @@ import static java.lang.Boolean.TRUE;
 
 /** CU20 - Alta Ingreso Producción. Crea lote desde producción interna propia. */
 @Service
+@CasoUsoMetrica(UseCaseTag.CU20)
 public class AltaIngresoProduccionService extends AbstractCuService {
 
     @Autowired
     private SecurityContextService securityContextService;
 
+    @Autowired
+    private TrazaNumeradorService trazaNumeradorService;
+
+    @Autowired
+    private CodigoLoteGenerator codigoLoteGenerator;
+
     /** Crea lote de producción interna. Inicializa bultos y movimiento ALTA/PRODUCCION. */
     @Transactional
     public LoteDTO altaStockPorProduccion(final LoteDTO loteDTO) {
@@ -43,7 +55,8 @@ public class AltaIngresoProduccionService extends AbstractCuService {
             .orElseThrow(() -> new IllegalArgumentException("El producto no existe."));
 
         final Lote lote = createLoteIngreso(loteDTO);
-        populateLoteAltaProduccionPropia(lote, loteDTO, producto, conifarma);
+        populateLoteAltaProduccionPropia(lote, loteDTO, producto, conifarma,
+            codigoLoteGenerator.generar(producto.getCodigoProducto(), loteDTO.getFechaYHoraCreacion()));
 
         final Lote loteGuardado = loteRepository.save(lote);
         bultoRepository.saveAll(loteGuardado.getBultos());
@@ -67,6 +80,7 @@ public class AltaIngresoProduccionService extends AbstractCuService {
 
         movimientoRepository.save(movimiento);
 
+        dashboardMetricsCache.registrarMovimiento(movimiento, null, LoteMetricas.de(loteGuardado));
         return DTOUtils.fromLoteEntity(loteGuardado);
     }
 
@@ -95,7 +109,7 @@ public class AltaIngresoProduccionService extends AbstractCuService {
                 bindingResult.rejectValue("trazaInicial", "", "El número de traza solo aplica a unidades de venta");
                 return false;
             }
-            final Long maxNroTraza = trazaRepository.findMaxNroTraza(dto.getProductoId());
+            final long maxNroTraza = trazaNumeradorService.ultimoAsignado(dto.getProductoId());
             if (maxNroTraza > 0 && dto.getTrazaInicial() <= maxNroTraza) {
                 bindingResult.rejectValue(
                     "trazaInicial",
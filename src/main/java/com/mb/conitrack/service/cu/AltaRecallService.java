@@ -7,6 +7,8 @@ import com.mb.conitrack.entity.*;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.DictamenEnum;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.enums.UseCaseTag;
+import com.mb.conitrack.interceptor.CasoUsoMetrica;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,6 +32,7 @@ import static java.lang.Boolean.TRUE;
  * - Maneja productos trazados y no trazados
  */
 @Service
+@CasoUsoMetrica(UseCaseTag.CU24)
 public class AltaRecallService extends AbstractCuService {
 
     /**
@@ -55,6 +58,8 @@ public class AltaRecallService extends AbstractCuService {
         } else {
             altaRecallUnidadesPorBulto(loteAltaRecall, movimientoAltaRecall);
         }
+        saldoRetornableService.descontar(movimientoAltaRecall);
+        dashboardMetricsCache.invalidar();
 
         loteRepository.findById(loteRepository.save(loteRecallGuardado).getId()).ifPresent(result::add);
     }
@@ -128,7 +133,7 @@ public class AltaRecallService extends AbstractCuService {
                 trazaBulto.setEstado(RECALL);
                 det.getTrazas().add(trazaBulto);
             }
-            trazaRepository.saveAll(det.getTrazas());
+            guardarTrazasMovidas(det.getTrazas(), bultoOriginal);
             bultoRepository.save(bultoRecall);
         }
         movimientoAltaRecall.setCantidad(cantidadMovimiento);
@@ -22,6 +22,9 @@ import com.mb.conitrack.entity.Traza;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.TipoProductoEnum;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.enums.UseCaseTag;
+import com.mb.conitrack.interceptor.CasoUsoMetrica;
+import com.mb.conitrack.service.DashboardMetricsCache.LoteMetricas;
 import com.mb.conitrack.service.SecurityContextService;
 
 import static com.mb.conitrack.enums.EstadoEnum.CONSUMIDO;
@@ -32,6 +35,7 @@ import static java.lang.Integer.parseInt;
 
 //***********CU25. BAJA: Ajuste de Inventario***********
 @Service
+@CasoUsoMetrica(UseCaseTag.CU25)
 public class BajaAjusteStockService extends AbstractCuService {
 
     @Autowired
@@ -43,6 +47,7 @@ public class BajaAjusteStockService extends AbstractCuService {
 
         Lote lote = loteRepository.findByCodigoLoteAndActivoTrue(dto.getCodigoLote())
             .orElseThrow(() -> new IllegalArgumentException("El lote no existe."));
+        final LoteMetricas metricasAntes = LoteMetricas.de(lote);
 
         final Bulto bulto = lote.getBultoByNro(parseInt(dto.getNroBulto()));
 
@@ -50,6 +55,7 @@ public class BajaAjusteStockService extends AbstractCuService {
 
         bulto.setCantidadActual(restarMovimientoConvertido(dto, bulto));
         lote.setCantidadActual(restarMovimientoConvertido(dto, lote));
+        verificarStockNoNegativo(lote, bulto);
 
         boolean unidadVenta = lote.getProducto().getTipoProducto() == TipoProductoEnum.UNIDAD_VENTA;
 
@@ -87,7 +93,7 @@ public class BajaAjusteStockService extends AbstractCuService {
                 traza.getDetalles().addAll(movimiento.getDetalles());
             }
             detalleMovimiento.getTrazas().addAll(trazas);
-            trazaRepository.saveAll(trazas);
+            guardarTrazas(trazas);
             dto.setTrazaDTOs(trazas.stream().map(DTOUtils::fromTrazaEntity).toList());
         }
 
@@ -106,10 +112,12 @@ public class BajaAjusteStockService extends AbstractCuService {
             if (lote.getUltimoAnalisis() != null && lote.getUltimoAnalisis().getDictamen() == null) {
                 lote.getUltimoAnalisis().setDictamen(com.mb.conitrack.enums.DictamenEnum.CANCELADO);
                 analisisRepository.save(lote.getUltimoAnalisis());
+                dashboardMetricsCache.invalidar();
             }
         }
 
         lote.getMovimientos().add(movimiento);
+        dashboardMetricsCache.registrarMovimiento(movimiento, metricasAntes, LoteMetricas.de(lote));
         return DTOUtils.fromLoteEntity(loteRepository.save(lote));
     }
 
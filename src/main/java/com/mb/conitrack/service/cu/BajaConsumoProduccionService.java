@@ -18,15 +18,20 @@ import com.mb.conitrack.entity.Movimiento;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.EstadoEnum;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.enums.UseCaseTag;
+import com.mb.conitrack.interceptor.CasoUsoMetrica;
+import com.mb.conitrack.service.DashboardMetricsCache.LoteMetricas;
 import com.mb.conitrack.service.SecurityContextService;
 
 import static com.mb.conitrack.utils.MovimientoBajaUtils.createMovimientoBajaProduccion;
 import static com.mb.conitrack.utils.UnidadMedidaUtils.convertirCantidadEntreUnidades;
 import static com.mb.conitrack.utils.UnidadMedidaUtils.obtenerMayorUnidadMedida;
+import static com.mb.conitrack.utils.UnidadMedidaUtils.sumarCantidadesConvertidas;
 import static java.lang.Boolean.TRUE;
 
 //***********CU7 BAJA: CONSUMO PRODUCCION***********
 @Service
+@CasoUsoMetrica(UseCaseTag.CU7)
 public class BajaConsumoProduccionService extends AbstractCuService {
 
     @Autowired
@@ -39,6 +44,7 @@ public class BajaConsumoProduccionService extends AbstractCuService {
         final Lote lote = loteRepository.findFirstByCodigoLoteAndActivoTrue(
                 loteDTO.getCodigoLote())
             .orElseThrow(() -> new IllegalArgumentException("El lote no existe."));
+        final LoteMetricas metricasAntes = LoteMetricas.de(lote);
 
         final List<Integer> nroBultoList = loteDTO.getNroBultoList();
         final List<BigDecimal> cantidadesBultos = loteDTO.getCantidadesBultos();
@@ -81,6 +87,7 @@ public class BajaConsumoProduccionService extends AbstractCuService {
                     lote.setCantidadActual(lote.getCantidadActual().subtract(cantidadConsumoLoteConvertida));
                 }
             }
+            verificarStockNoNegativo(lote, bultoEntity);
             if (bultoEntity.getCantidadActual().compareTo(BigDecimal.ZERO) == 0) {
                 bultoEntity.setEstado(EstadoEnum.CONSUMIDO);
             } else {
@@ -94,12 +101,14 @@ public class BajaConsumoProduccionService extends AbstractCuService {
             if (lote.getUltimoAnalisis() != null && lote.getUltimoAnalisis().getDictamen() == null) {
                 lote.getUltimoAnalisis().setDictamen(com.mb.conitrack.enums.DictamenEnum.CANCELADO);
                 analisisRepository.save(lote.getUltimoAnalisis());
+                dashboardMetricsCache.invalidar();
             }
         } else {
             lote.setEstado(EstadoEnum.EN_USO);
         }
         final Movimiento movimiento = persistirMovimientoBajaConsumoProduccion(loteDTO, lote, currentUser);
         lote.getMovimientos().add(movimiento);
+        dashboardMetricsCache.registrarMovimiento(movimiento, metricasAntes, LoteMetricas.de(lote));
         return DTOUtils.fromLoteEntity(loteRepository.save(lote));
     }
 
@@ -113,15 +122,10 @@ public class BajaConsumoProduccionService extends AbstractCuService {
             uniMedidaMovimiento = obtenerMayorUnidadMedida(uniMedidaMovimiento, loteDTO.getUnidadMedidaBultos().get(i));
         }
 
-        BigDecimal cantidad = BigDecimal.ZERO;
-
-        for (int i = 0; i < loteDTO.getCantidadesBultos().size(); i++) {
-            final BigDecimal montoBulto = convertirCantidadEntreUnidades(
-                loteDTO.getUnidadMedidaBultos().get(i),
-                loteDTO.getCantidadesBultos().get(i),
-                uniMedidaMovimiento);
-            cantidad = cantidad.add(montoBulto);
-        }
+        final BigDecimal cantidad = sumarCantidadesConvertidas(
+            loteDTO.getCantidadesBultos(),
+            loteDTO.getUnidadMedidaBultos(),
+            uniMedidaMovimiento);
 
         movimiento.setCantidad(cantidad);
         movimiento.setUnidadMedida(uniMedidaMovimiento);
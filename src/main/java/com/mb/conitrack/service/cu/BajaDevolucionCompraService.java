@@ -9,6 +9,9 @@ import com.mb.conitrack.entity.Lote;
 import com.mb.conitrack.entity.Movimiento;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.DictamenEnum;
+import com.mb.conitrack.enums.UseCaseTag;
+import com.mb.conitrack.interceptor.CasoUsoMetrica;
+import com.mb.conitrack.service.DashboardMetricsCache.LoteMetricas;
 import com.mb.conitrack.service.SecurityContextService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -25,6 +28,7 @@ import static java.lang.Boolean.TRUE;
 
 //***********CU4 BAJA: DEVOLUCION COMPRA***********
 @Service
+@CasoUsoMetrica(UseCaseTag.CU4)
 public class BajaDevolucionCompraService extends AbstractCuService {
 
     @Autowired
@@ -36,6 +40,7 @@ public class BajaDevolucionCompraService extends AbstractCuService {
 
         Lote lote = loteRepository.findByCodigoLoteAndActivoTrue(dto.getCodigoLote())
                 .orElseThrow(() -> new IllegalArgumentException("El lote no existe."));
+        final LoteMetricas metricasAntes = LoteMetricas.de(lote);
 
         final Movimiento movimiento = createMovimientoDevolucionCompra(dto, currentUser);
         movimiento.setDictamenInicial(lote.getDictamen());
@@ -71,8 +76,10 @@ public class BajaDevolucionCompraService extends AbstractCuService {
         if (lote.getUltimoAnalisis() != null && lote.getUltimoAnalisis().getDictamen() == null) {
             lote.getUltimoAnalisis().setDictamen(DictamenEnum.CANCELADO);
             analisisRepository.save(lote.getUltimoAnalisis());
+            dashboardMetricsCache.invalidar();
         }
 
+        dashboardMetricsCache.registrarMovimiento(savedMovimiento, metricasAntes, LoteMetricas.de(lote));
         return DTOUtils.fromLoteEntity(loteRepository.save(lote));
     }
 
@@ -3,6 +3,8 @@ package com.mb.conitrack.service.cu;
 import com.mb.conitrack.dto.LoteDTO;
 import com.mb.conitrack.dto.MovimientoDTO;
 import com.mb.conitrack.entity.maestro.User;
+import com.mb.conitrack.enums.UseCaseTag;
+import com.mb.conitrack.interceptor.CasoUsoMetrica;
 import com.mb.conitrack.service.SecurityContextService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -19,6 +21,7 @@ import org.springframework.validation.BindingResult;
  * </p>
  */
 @Service
+@CasoUsoMetrica(UseCaseTag.CU3)
 public class BajaMuestreoBultoService extends AbstractCuService {
 
     @Autowired
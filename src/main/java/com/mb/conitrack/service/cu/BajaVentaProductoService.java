@@ -1,8 +1,16 @@
 package com.mb.conitrack.service.cu;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -10,23 +18,37 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
 
 import com.mb.conitrack.dto.DTOUtils;
+import com.mb.conitrack.dto.LineaVentaDTO;
 import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.PedidoVentaDTO;
+import com.mb.conitrack.dto.ResultadoLineaVentaDTO;
+import com.mb.conitrack.dto.ResultadoPedidoVentaDTO;
 import com.mb.conitrack.entity.Bulto;
 import com.mb.conitrack.entity.DetalleMovimiento;
 import com.mb.conitrack.entity.Lote;
 import com.mb.conitrack.entity.Movimiento;
 import com.mb.conitrack.entity.Traza;
 import com.mb.conitrack.entity.maestro.User;
+import com.mb.conitrack.enums.DictamenEnum;
 import com.mb.conitrack.enums.EstadoEnum;
+import com.mb.conitrack.enums.TipoProductoEnum;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.enums.UseCaseTag;
+import com.mb.conitrack.exception.StockInsuficienteException;
+import com.mb.conitrack.interceptor.CasoUsoMetrica;
+import com.mb.conitrack.service.DashboardMetricsCache.LoteMetricas;
 import com.mb.conitrack.service.SecurityContextService;
 
+import lombok.extern.slf4j.Slf4j;
+
 import static com.mb.conitrack.enums.EstadoEnum.VENDIDO;
 import static com.mb.conitrack.utils.MovimientoBajaUtils.createMovimientoBajaVenta;
 import static java.lang.Boolean.TRUE;
 
 /** CU22 - Baja Venta Producto. Descuenta stock por venta a clientes. */
 @Service
+@Slf4j
+@CasoUsoMetrica(UseCaseTag.CU22)
 public class BajaVentaProductoService extends AbstractCuService {
 
     @Autowired
@@ -41,10 +63,15 @@ public class BajaVentaProductoService extends AbstractCuService {
                 loteDTO.getCodigoLote())
             .orElseThrow(() -> new IllegalArgumentException("El lote no existe."));
         final boolean loteTrazado = TRUE.equals(lote.getTrazado());
+        final LoteMetricas metricasAntes = LoteMetricas.de(lote);
 
         final List<Integer> nroBultoList = loteDTO.getNroBultoList();
         final List<BigDecimal> cantidadesBultos = loteDTO.getCantidadesBultos();
 
+        // Un reintento por conflicto de concurrencia no debe duplicar el detalle del intento anterior
+        loteDTO.getBultosDTOs().clear();
+        loteDTO.getTrazaDTOs().clear();
+
         final Movimiento movimiento = persistirMovimientoBajaVenta(loteDTO, lote, currentUser);
 
         for (int i = 0; i < nroBultoList.size(); i++) {
@@ -57,14 +84,7 @@ public class BajaVentaProductoService extends AbstractCuService {
                 continue;
             }
 
-            bultoEntity.setCantidadActual(bultoEntity.getCantidadActual().subtract(cantidaConsumoBulto));
-            lote.setCantidadActual(lote.getCantidadActual().subtract(cantidaConsumoBulto));
-
-            if (bultoEntity.getCantidadActual().compareTo(BigDecimal.ZERO) == 0) {
-                bultoEntity.setEstado(EstadoEnum.CONSUMIDO);
-            } else {
-                bultoEntity.setEstado(EstadoEnum.EN_USO);
-            }
+            descontarBulto(lote, bultoEntity, cantidaConsumoBulto);
 
 //            if (loteTrazado) {
 //                lote.getTrazas().addAll(bultoEntity.getTrazas());
@@ -74,17 +94,7 @@ public class BajaVentaProductoService extends AbstractCuService {
             loteDTO.getBultosDTOs().add(DTOUtils.fromBultoEntity(bultoEntity));
         }
 
-        boolean todosConsumidos = lote.getBultos().stream()
-            .allMatch(b -> b.getEstado() == EstadoEnum.CONSUMIDO);
-        lote.setEstado(todosConsumidos ? EstadoEnum.CONSUMIDO : EstadoEnum.EN_USO);
-
-        // CU22: Cancelar análisis en curso si el lote queda sin stock (dictamen == null)
-        if (lote.getCantidadActual().compareTo(BigDecimal.ZERO) == 0) {
-            if (lote.getUltimoAnalisis() != null && lote.getUltimoAnalisis().getDictamen() == null) {
-                lote.getUltimoAnalisis().setDictamen(com.mb.conitrack.enums.DictamenEnum.CANCELADO);
-                analisisRepository.save(lote.getUltimoAnalisis());
-            }
-        }
+        actualizarEstadoLote(lote);
 
         if (loteTrazado) {
             loteDTO.getTrazaDTOs().addAll(movimiento.getDetalles()
@@ -94,6 +104,7 @@ public class BajaVentaProductoService extends AbstractCuService {
         }
 
         lote.getMovimientos().add(movimiento);
+        dashboardMetricsCache.registrarMovimiento(movimiento, metricasAntes, LoteMetricas.de(lote));
         return DTOUtils.fromLoteEntity(loteRepository.save(lote));
     }
 
@@ -129,13 +140,13 @@ public class BajaVentaProductoService extends AbstractCuService {
             movimiento.getDetalles().add(det);
 
             if (loteTrazado) {
-                final List<Traza> trazas = bulto.getFirstAvailableTrazaList(cantBulto.intValue());
+                final List<Traza> trazas = trazasDisponibles(bulto, cantBulto.intValue());
 
                 if (trazas != null && !trazas.isEmpty()) {
                     for (Traza tr : trazas) {
                         tr.setEstado(VENDIDO);
                     }
-                    trazaRepository.saveAll(trazas);
+                    guardarTrazas(trazas);
 
                     det.getTrazas().addAll(trazas);
                 }
@@ -145,6 +156,317 @@ public class BajaVentaProductoService extends AbstractCuService {
         return movimientoRepository.save(movimiento);
     }
 
+    //***********Pedido de venta: varios lotes por transacción***********
+
+    /**
+     * Procesa un pedido de venta con líneas de varios lotes en una sola transacción.
+     * Valida todas las líneas antes de descontar stock: si alguna es rechazada no se aplica ninguna.
+     * Registra un movimiento BAJA/VENTA por lote. Bultos, lotes y trazas no se guardan uno a uno: se escriben al
+     * confirmar, en los batches JDBC de Hibernate.
+     */
+    @Transactional
+    public ResultadoPedidoVentaDTO bajaVentaPedido(final PedidoVentaDTO pedido) {
+        final long inicio = System.nanoTime();
+        final User currentUser = securityContextService.getCurrentUser();
+        final List<LineaVentaDTO> lineas = pedido.getLineas();
+
+        final Map<String, Lote> lotes = new HashMap<>();
+        for (Lote lote : loteRepository.findAllConBultosByCodigoLoteIn(
+            lineas.stream().map(LineaVentaDTO::getCodigoLote).collect(Collectors.toSet()))) {
+            lotes.put(lote.getCodigoLote(), lote);
+        }
+        // Misma condición de venta que la lista del formulario (LoteRepository.LOTE_VENDIBLE)
+        final Set<String> vendibles = lotes.isEmpty()
+            ? Set.of()
+            : loteRepository.findCodigosVendiblesByCodigoLoteIn(lotes.keySet());
+
+        // Validación: las líneas de un mismo bulto se acumulan y se controlan contra su stock actual
+        final List<ResultadoLineaVentaDTO> resultados = new ArrayList<>(lineas.size());
+        final Map<Long, VentaBulto> ventas = new LinkedHashMap<>();
+        boolean valido = true;
+        for (int i = 0; i < lineas.size(); i++) {
+            final ResultadoLineaVentaDTO resultado = new ResultadoLineaVentaDTO(i + 1, lineas.get(i));
+            resultado.setError(validarLineaVenta(lineas.get(i), resultado, pedido, lotes, vendibles, ventas));
+            valido &= resultado.getError() == null;
+            resultados.add(resultado);
+        }
+        if (valido) {
+            valido = validarTrazasIndicadas(ventas.values());
+        }
+        if (!valido) {
+            return new ResultadoPedidoVentaDTO(false, resultados);
+        }
+
+        final Map<String, List<VentaBulto>> ventasPorLote = ventas.values().stream()
+            .collect(Collectors.groupingBy(v -> v.lote.getCodigoLote(), LinkedHashMap::new, Collectors.toList()));
+        final LoteDTO datosMovimiento = new LoteDTO();
+        datosMovimiento.setFechaYHoraCreacion(pedido.getFechaYHoraCreacion());
+        datosMovimiento.setFechaEgreso(pedido.getFechaEgreso());
+        datosMovimiento.setObservaciones(pedido.getObservaciones());
+
+        final List<Traza> trazasVendidas = new ArrayList<>();
+        for (List<VentaBulto> ventasLote : ventasPorLote.values()) {
+            final Lote lote = ventasLote.get(0).lote;
+            final LoteMetricas metricasAntes = LoteMetricas.de(lote);
+            final Movimiento movimiento = createMovimientoBajaVenta(datosMovimiento, lote, currentUser);
+            movimiento.setCantidad(ventasLote.stream().map(v -> v.cantidad).reduce(BigDecimal.ZERO, BigDecimal::add));
+            movimiento.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+
+            for (VentaBulto venta : ventasLote) {
+                descontarBulto(lote, venta.bulto, venta.cantidad);
+                final DetalleMovimiento det = DetalleMovimiento.builder()
+                    .movimiento(movimiento)
+                    .bulto(venta.bulto)
+                    .cantidad(venta.cantidad)
+                    .unidadMedida(UnidadMedidaEnum.UNIDAD)
+                    .activo(TRUE)
+                    .build();
+                movimiento.getDetalles().add(det);
+
+                if (TRUE.equals(lote.getTrazado())) {
+                    final List<Traza> trazas = trazasVenta(venta);
+                    for (Traza tr : trazas) {
+                        tr.setEstado(VENDIDO);
+                    }
+                    det.getTrazas().addAll(trazas);
+                    trazasVendidas.addAll(trazas);
+                }
+            }
+
+            final Movimiento guardado = movimientoRepository.save(movimiento);
+            actualizarEstadoLote(lote);
+            lote.getMovimientos().add(guardado);
+            dashboardMetricsCache.registrarMovimiento(guardado, metricasAntes, LoteMetricas.de(lote));
+            for (VentaBulto venta : ventasLote) {
+                for (ResultadoLineaVentaDTO resultado : venta.resultados) {
+                    resultado.setCodigoMovimiento(guardado.getCodigoMovimiento());
+                    resultado.setStockBulto(venta.bulto.getCantidadActual());
+                }
+            }
+        }
+        if (!trazasVendidas.isEmpty()) {
+            guardarTrazas(trazasVendidas);
+        }
+
+        final long ms = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+        log.info("Pedido de venta: {} líneas en {} lotes aplicadas en {} ms ({} líneas/s)",
+            lineas.size(), ventasPorLote.size(), ms, lineas.size() * 1000L / ms);
+        return new ResultadoPedidoVentaDTO(true, resultados);
+    }
+
+    /**
+     * Resultado de un pedido revertido porque un bulto quedaba con stock negativo al descontar: ninguna línea se
+     * aplicó y las del bulto afectado informan el motivo.
+     */
+    public ResultadoPedidoVentaDTO pedidoRechazado(final PedidoVentaDTO pedido, final StockInsuficienteException e) {
+        final List<ResultadoLineaVentaDTO> resultados = new ArrayList<>(pedido.getLineas().size());
+        for (int i = 0; i < pedido.getLineas().size(); i++) {
+            final LineaVentaDTO linea = pedido.getLineas().get(i);
+            final ResultadoLineaVentaDTO resultado = new ResultadoLineaVentaDTO(i + 1, linea);
+            if (Objects.equals(linea.getCodigoLote(), e.getCodigoLote())
+                && Objects.equals(linea.getNroBulto(), e.getNroBulto())) {
+                resultado.setError(e.getMessage());
+            }
+            resultados.add(resultado);
+        }
+        return new ResultadoPedidoVentaDTO(false, resultados);
+    }
+
+    /** Valida una línea y la acumula en la venta de su bulto; devuelve el motivo del rechazo o null. */
+    private String validarLineaVenta(
+        final LineaVentaDTO linea,
+        final ResultadoLineaVentaDTO resultado,
+        final PedidoVentaDTO pedido,
+        final Map<String, Lote> lotes,
+        final Set<String> vendibles,
+        final Map<Long, VentaBulto> ventas) {
+        final Lote lote = lotes.get(linea.getCodigoLote());
+        if (lote == null) {
+            return "Lote no encontrado.";
+        }
+        if (!vendibles.contains(lote.getCodigoLote())) {
+            return motivoNoVendible(lote);
+        }
+        if (lote.getUnidadMedida() != UnidadMedidaEnum.UNIDAD) {
+            return "La venta de producto solo es aplicable a UNIDADES";
+        }
+        if (pedido.getFechaEgreso().isBefore(lote.getFechaIngreso())) {
+            return "La fecha del movimiento no puede ser anterior a la fecha de ingreso del lote";
+        }
+        final Bulto bulto = linea.getNroBulto() != null ? lote.getBultoByNro(linea.getNroBulto()) : null;
+        if (bulto == null) {
+            return "Bulto no encontrado";
+        }
+        final BigDecimal cantidad = linea.getCantidad();
+        if (cantidad == null || cantidad.signum() <= 0 || cantidad.stripTrailingZeros().scale() > 0) {
+            return "La cantidad debe ser un número entero positivo";
+        }
+        if (linea.getNroTrazas() == null) {
+            linea.setNroTrazas(new ArrayList<>());
+        }
+        final VentaBulto venta = ventas.computeIfAbsent(bulto.getId(), id -> new VentaBulto(lote, bulto));
+        final List<Long> nroTrazas = linea.getNroTrazas();
+        if (!nroTrazas.isEmpty()) {
+            if (!TRUE.equals(lote.getTrazado())) {
+                return "El lote no está trazado: no se pueden indicar trazas";
+            }
+            if (nroTrazas.size() != cantidad.intValue() || new HashSet<>(nroTrazas).size() != nroTrazas.size()) {
+                return "Debe indicar una traza distinta por unidad vendida";
+            }
+            if (nroTrazas.stream().anyMatch(venta.nroTrazasIndicadas::contains)) {
+                return "Hay trazas indicadas en más de una línea del bulto " + bulto.getNroBulto();
+            }
+        }
+        venta.agregar(linea, resultado);
+        if (venta.cantidad.compareTo(bulto.getCantidadActual()) > 0) {
+            return "La cantidad vendida del bulto " + bulto.getNroBulto() + " (" + venta.cantidad
+                + ") no puede superar su stock actual (" + bulto.getCantidadActual() + ")";
+        }
+        return null;
+    }
+
+    /** Motivo por el que un lote fuera de la condición de venta no puede venderse. */
+    private static String motivoNoVendible(final Lote lote) {
+        if (lote.getDictamen() != DictamenEnum.LIBERADO) {
+            return "El lote no está liberado para la venta (dictamen " + lote.getDictamen() + ")";
+        }
+        if (lote.getEstado() == EstadoEnum.RECALL) {
+            return "El lote está en recall";
+        }
+        if (lote.getProducto() == null || lote.getProducto().getTipoProducto() != TipoProductoEnum.UNIDAD_VENTA) {
+            return "El producto del lote no es una unidad de venta";
+        }
+        return "El lote no está disponible para la venta";
+    }
+
+    /** Carga las trazas indicadas en las líneas, una consulta por bulto, y rechaza las que no están disponibles. */
+    private boolean validarTrazasIndicadas(final Iterable<VentaBulto> ventas) {
+        boolean valido = true;
+        for (VentaBulto venta : ventas) {
+            if (venta.nroTrazasIndicadas.isEmpty()) {
+                continue;
+            }
+            venta.trazasIndicadas.addAll(trazaRepository.findDisponiblesByBultoIdAndNroTrazaIn(
+                venta.bulto.getId(), venta.nroTrazasIndicadas));
+            final Set<Long> disponibles = venta.trazasIndicadas.stream()
+                .map(Traza::getNroTraza)
+                .collect(Collectors.toSet());
+            for (int i = 0; i < venta.lineas.size(); i++) {
+                final List<Long> faltantes = venta.lineas.get(i).getNroTrazas().stream()
+                    .filter(nro -> !disponibles.contains(nro))
+                    .toList();
+                if (!faltantes.isEmpty()) {
+                    venta.resultados.get(i).setError(
+                        "Trazas no disponibles en el bulto " + venta.bulto.getNroBulto() + ": " + faltantes);
+                    valido = false;
+                }
+            }
+        }
+        return valido;
+    }
+
+    /** Trazas indicadas más las primeras disponibles del bulto para las líneas que no indicaron trazas. */
+    private List<Traza> trazasVenta(final VentaBulto venta) {
+        final List<Traza> automaticas = new ArrayList<>();
+        final int sinTrazas = venta.cantidadSinTrazas();
+        final List<Traza> disponibles = sinTrazas > 0
+            ? trazasDisponibles(venta.bulto, sinTrazas + venta.nroTrazasIndicadas.size())
+            : null;
+        if (disponibles != null) {
+            disponibles.stream()
+                .filter(t -> !venta.nroTrazasIndicadas.contains(t.getNroTraza()))
+                .limit(sinTrazas)
+                .forEach(automaticas::add);
+        }
+        venta.asignarTrazas(automaticas);
+        final List<Traza> trazas = new ArrayList<>(venta.trazasIndicadas);
+        trazas.addAll(automaticas);
+        return trazas;
+    }
+
+    /** Líneas del pedido agrupadas por bulto: cada bulto tiene un único detalle en el movimiento de su lote. */
+    private static final class VentaBulto {
+
+        private final Lote lote;
+
+        private final Bulto bulto;
+
+        private final List<LineaVentaDTO> lineas = new ArrayList<>();
+
+        private final List<ResultadoLineaVentaDTO> resultados = new ArrayList<>();
+
+        private final Set<Long> nroTrazasIndicadas = new HashSet<>();
+
+        private final List<Traza> trazasIndicadas = new ArrayList<>();
+
+        private BigDecimal cantidad = BigDecimal.ZERO;
+
+        private VentaBulto(final Lote lote, final Bulto bulto) {
+            this.lote = lote;
+            this.bulto = bulto;
+        }
+
+        private void agregar(final LineaVentaDTO linea, final ResultadoLineaVentaDTO resultado) {
+            lineas.add(linea);
+            resultados.add(resultado);
+            nroTrazasIndicadas.addAll(linea.getNroTrazas());
+            cantidad = cantidad.add(linea.getCantidad());
+        }
+
+        private int cantidadSinTrazas() {
+            return lineas.stream()
+                .filter(l -> l.getNroTrazas().isEmpty())
+                .mapToInt(l -> l.getCantidad().intValue())
+                .sum();
+        }
+
+        /** Informa en cada línea sus trazas: las indicadas o, en orden, las asignadas automáticamente. */
+        private void asignarTrazas(final List<Traza> automaticas) {
+            int desde = 0;
+            for (int i = 0; i < lineas.size(); i++) {
+                final LineaVentaDTO linea = lineas.get(i);
+                final List<Long> nroTrazas = resultados.get(i).getNroTrazas();
+                if (!linea.getNroTrazas().isEmpty()) {
+                    nroTrazas.addAll(linea.getNroTrazas());
+                    continue;
+                }
+                final int hasta = Math.min(desde + linea.getCantidad().intValue(), automaticas.size());
+                automaticas.subList(desde, hasta).forEach(t -> nroTrazas.add(t.getNroTraza()));
+                desde = hasta;
+            }
+        }
+
+    }
+
+    //***********Comunes***********
+
+    private void descontarBulto(final Lote lote, final Bulto bulto, final BigDecimal cantidad) {
+        bulto.setCantidadActual(bulto.getCantidadActual().subtract(cantidad));
+        lote.setCantidadActual(lote.getCantidadActual().subtract(cantidad));
+        verificarStockNoNegativo(lote, bulto);
+
+        if (bulto.getCantidadActual().compareTo(BigDecimal.ZERO) == 0) {
+            bulto.setEstado(EstadoEnum.CONSUMIDO);
+        } else {
+            bulto.setEstado(EstadoEnum.EN_USO);
+        }
+    }
+
+    private void actualizarEstadoLote(final Lote lote) {
+        boolean todosConsumidos = lote.getBultos().stream()
+            .allMatch(b -> b.getEstado() == EstadoEnum.CONSUMIDO);
+        lote.setEstado(todosConsumidos ? EstadoEnum.CONSUMIDO : EstadoEnum.EN_USO);
+
+        // CU22: Cancelar análisis en curso si el lote queda sin stock (dictamen == null)
+        if (lote.getCantidadActual().compareTo(BigDecimal.ZERO) == 0) {
+            if (lote.getUltimoAnalisis() != null && lote.getUltimoAnalisis().getDictamen() == null) {
+                lote.getUltimoAnalisis().setDictamen(com.mb.conitrack.enums.DictamenEnum.CANCELADO);
+                analisisRepository.save(lote.getUltimoAnalisis());
+                dashboardMetricsCache.invalidar();
+            }
+        }
+    }
+
     @Transactional
     public boolean validarVentaProductoInput(final LoteDTO dto, final BindingResult bindingResult) {
         if (bindingResult.hasErrors()) {
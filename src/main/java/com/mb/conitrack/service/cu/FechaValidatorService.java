@@ -5,27 +5,60 @@ import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.mb.conitrack.dto.MovimientoDTO;
+import com.mb.conitrack.entity.EjecucionValidacionFecha;
+import com.mb.conitrack.entity.EjecucionValidacionFecha.Estado;
+import com.mb.conitrack.entity.EjecucionValidacionFecha.Fase;
 import com.mb.conitrack.entity.Lote;
 import com.mb.conitrack.entity.Movimiento;
 import com.mb.conitrack.entity.maestro.Role;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.RoleEnum;
+import com.mb.conitrack.repository.EjecucionValidacionFechaRepository;
+import com.mb.conitrack.service.FechaVigenteService;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
 
 import static com.mb.conitrack.enums.DictamenEnum.ANALISIS_EXPIRADO;
+import static com.mb.conitrack.enums.DictamenEnum.CANCELADO;
 import static com.mb.conitrack.enums.DictamenEnum.VENCIDO;
 import static com.mb.conitrack.enums.MotivoEnum.EXPIRACION_ANALISIS;
 import static com.mb.conitrack.enums.MotivoEnum.VENCIMIENTO;
 import static com.mb.conitrack.utils.MovimientoModificacionUtils.createMovimientoModificacion;
 
-/** CU9/CU10 - Validador de Fechas. Procesa expiraciones de análisis y vencimientos automáticos. */
+/**
+ * CU9/CU10 - Validador de Fechas. Procesa expiraciones de análisis y vencimientos automáticos.
+ * Las fechas vigentes materializadas se refrescan al inicio, de modo que los lotes a procesar se seleccionan
+ * exactamente por SQL. Se procesan en chunks de tamaño fijo, cada uno en su propia
+ * transacción junto con el avance de la ejecución; si el proceso falla, la siguiente corrida del día continúa
+ * desde el último chunk confirmado.
+ */
 @Service
+@Slf4j
 public class FechaValidatorService extends AbstractCuService {
 
+    @Autowired
+    private EjecucionValidacionFechaRepository ejecucionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FechaVigenteService fechaVigenteService;
+
+    @Value("${conitrack.vencimiento.chunk-size:500}")
+    private int chunkSize = 500;
+
     // Usuario del sistema para procesos automáticos
     User getSystemUser() {
         // Buscar o crear un usuario del sistema (ADMIN) para procesos automáticos
@@ -39,136 +72,166 @@ public class FechaValidatorService extends AbstractCuService {
     }
 
     @Scheduled(cron = "0 0 5 * * *") // Todos los días a las 5 AM
-    @Transactional
+    @Timed(value = "conitrack.fechas.validacion", histogram = true,
+        description = "Duración de la validación nocturna de fechas (CU9/CU10)")
     public void validarFecha() {
-        procesarLotesAnalisisExpirado(findAllLotesAnalisisExpirado());
-        procesarLotesVencidos(findAllLotesVencidos());
+        final LocalDate hoy = LocalDate.now();
+        final TransactionTemplate tx = nuevaTransaccion();
+        final User systemUser = tx.execute(status -> getSystemUser());
+        fechaVigenteService.refrescar(hoy);
+        final EjecucionValidacionFecha ejecucion = tx.execute(status -> iniciarEjecucion(hoy));
+        final long inicio = System.nanoTime();
+        try {
+            if (ejecucion.getFase() == Fase.ANALISIS_EXPIRADO) {
+                procesarFase(tx, ejecucion, hoy, systemUser);
+                ejecucion.avanzarFase(Fase.VENCIMIENTO);
+                tx.executeWithoutResult(status -> ejecucionRepository.save(ejecucion));
+            }
+            procesarFase(tx, ejecucion, hoy, systemUser);
+            ejecucion.setEstado(Estado.COMPLETADA);
+            finalizarEjecucion(tx, ejecucion, inicio);
+        } catch (RuntimeException e) {
+            // El avance en memoria puede incluir un chunk no confirmado: la falla se registra sobre lo persistido
+            final EjecucionValidacionFecha confirmada = tx.execute(status ->
+                ejecucionRepository.findById(ejecucion.getId()).orElse(ejecucion));
+            confirmada.setEstado(Estado.FALLIDA);
+            confirmada.setError(e.toString());
+            finalizarEjecucion(tx, confirmada, inicio);
+            throw e;
+        } finally {
+            dashboardMetricsCache.invalidar();
+        }
     }
 
-    //***********CU9 MODIFICACION: ANALISIS EXPIRADO***********
-    @Transactional(readOnly = true)
-    List<Lote> findAllLotesAnalisisExpirado() {
-        LocalDate hoy = LocalDate.now();
-        return loteRepository.findLotesConStockOrder().stream()
-            .filter(l -> {
-                LocalDate f = l.getFechaReanalisisVigente();
-                // Procesar si fecha <= hoy (hoy o pasada)
-                // NO procesar si fecha es futura
-                return f != null && !f.isAfter(hoy); // <= hoy
-            })
-            .toList();
+    /** Retoma la ejecución del día que no llegó a completarse o crea una nueva. */
+    EjecucionValidacionFecha iniciarEjecucion(final LocalDate hoy) {
+        final EjecucionValidacionFecha ejecucion = ejecucionRepository.findFirstByFechaOrderByIdDesc(hoy)
+            .filter(e -> e.getEstado() != Estado.COMPLETADA)
+            .orElseGet(() -> {
+                final EjecucionValidacionFecha nueva = new EjecucionValidacionFecha();
+                nueva.setFecha(hoy);
+                nueva.setFase(Fase.ANALISIS_EXPIRADO);
+                return nueva;
+            });
+        if (ejecucion.getId() != null) {
+            log.info("Reanudando validación de fechas {} en fase {} desde lote {}",
+                hoy, ejecucion.getFase(), ejecucion.getCursorLoteId());
+        }
+        ejecucion.setEstado(Estado.EN_CURSO);
+        ejecucion.setFechaInicio(OffsetDateTime.now());
+        ejecucion.setFechaFin(null);
+        ejecucion.setError(null);
+        ejecucionRepository.save(ejecucion);
+        return ejecucion;
     }
 
-    //***********CU10 MODIFICACION: VENCIDO***********
-    @Transactional(readOnly = true)
-    List<Lote> findAllLotesVencidos() {
-        LocalDate hoy = LocalDate.now();
-        return loteRepository.findLotesConStockOrder().stream()
-            .filter(l -> {
-                LocalDate f = l.getFechaVencimientoVigente();
-                // Procesar si fecha <= hoy (hoy o pasada)
-                // NO procesar si fecha es futura
-                return f != null && !f.isAfter(hoy); // <= hoy
-            })
-            .toList(); // ya viene ordenado desde la DB
+    private void procesarFase(
+        final TransactionTemplate tx,
+        final EjecucionValidacionFecha ejecucion,
+        final LocalDate hoy,
+        final User systemUser) {
+        Boolean hayMas;
+        do {
+            hayMas = tx.execute(status -> procesarChunk(ejecucion, hoy, systemUser));
+        } while (Boolean.TRUE.equals(hayMas));
     }
 
-    //***********CU10 MODIFICACION: ANALSIS EXPIRADO***********
-    @Transactional
-    List<Lote> persistirExpiracionAnalisis(final MovimientoDTO dto, final List<Lote> lotes) {
-        List<Lote> result = new ArrayList<>();
-        for (Lote lote : lotes) {
-            final Movimiento movimiento = persistirMovimientoExpiracionAnalisis(dto, lote);
-            lote.setDictamen(movimiento.getDictamenFinal());
-            lote.getMovimientos().add(movimiento);
-            result.add(loteRepository.save(lote));
+    /**
+     * Procesa el siguiente chunk de candidatos de la fase actual y registra el avance en la ejecución.
+     *
+     * @return true si puede haber más candidatos después de este chunk
+     */
+    boolean procesarChunk(final EjecucionValidacionFecha ejecucion, final LocalDate hoy, final User systemUser) {
+        final Fase fase = ejecucion.getFase();
+        final PageRequest pagina = PageRequest.of(0, chunkSize);
+        final List<Long> ids = fase == Fase.ANALISIS_EXPIRADO
+            ? loteRepository.findIdsCandidatosAnalisisExpirado(hoy, ejecucion.getCursorLoteId(), pagina)
+            : loteRepository.findIdsCandidatosVencimiento(hoy, ejecucion.getCursorLoteId(), pagina);
+        if (ids.isEmpty()) {
+            return false;
+        }
+        final List<Lote> aProcesar = loteRepository.findAllConAnalisisByIdIn(ids);
+
+        final MovimientoDTO dto = crearMovimientoDTO(fase, hoy);
+        final List<Movimiento> movimientos = new ArrayList<>(aProcesar.size());
+        for (Lote lote : aProcesar) {
+            movimientos.add(fase == Fase.ANALISIS_EXPIRADO
+                ? expirarAnalisis(dto, lote, systemUser)
+                : vencerLote(dto, lote, systemUser));
         }
-        return result;
+        movimientoRepository.insertarBatch(movimientos);
+
+        ejecucion.registrarChunk(ids.get(ids.size() - 1), ids.size(), aProcesar.size());
+        ejecucionRepository.save(ejecucion);
+        log.debug("Validación de fechas {} chunk {}: evaluados={} modificados={} hasta lote {}",
+            fase, ejecucion.getChunks(), ids.size(), aProcesar.size(), ejecucion.getCursorLoteId());
+        return ids.size() == chunkSize;
     }
 
-    //***********CU10 MODIFICACION: VENCIDO***********
-    @Transactional
-    Movimiento persistirMovimientoExpiracionAnalisis(final MovimientoDTO dto, Lote lote) {
-        User systemUser = getSystemUser();
+    private void finalizarEjecucion(
+        final TransactionTemplate tx,
+        final EjecucionValidacionFecha ejecucion,
+        final long inicio) {
+        ejecucion.setFechaFin(OffsetDateTime.now());
+        ejecucion.setDuracionMs(ejecucion.getDuracionMs() + (System.nanoTime() - inicio) / 1_000_000);
+        tx.executeWithoutResult(status -> ejecucionRepository.save(ejecucion));
+        log.info(
+            "Validación de fechas {} {}: evaluados={} analisisExpirado={} vencidos={} chunks={} duracionMs={}",
+            ejecucion.getFecha(), ejecucion.getEstado(), ejecucion.getLotesEvaluados(),
+            ejecucion.getLotesAnalisisExpirado(), ejecucion.getLotesVencidos(), ejecucion.getChunks(),
+            ejecucion.getDuracionMs());
+    }
+
+    void setChunkSize(final int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    //***********CU9 MODIFICACION: ANALISIS EXPIRADO***********
+    Movimiento expirarAnalisis(final MovimientoDTO dto, final Lote lote, final User systemUser) {
         Movimiento movimiento = createMovimientoModificacion(dto, lote, systemUser);
         movimiento.setFecha(dto.getFechaYHoraCreacion().toLocalDate());
         movimiento.setMotivo(EXPIRACION_ANALISIS);
         movimiento.setDictamenInicial(lote.getDictamen());
         movimiento.setDictamenFinal(ANALISIS_EXPIRADO);
-
         movimiento.setObservaciones("_CU9_\n" + dto.getObservaciones());
-        return movimientoRepository.save(movimiento);
+
+        lote.setDictamen(ANALISIS_EXPIRADO);
+        log.info("Reanalisis expirado: {} - {}", lote.getLoteProveedor(), lote.getFechaReanalisisEfectiva());
+        return movimiento;
     }
 
     //***********CU10 MODIFICACION: VENCIDO***********
-    @Transactional
-    Movimiento persistirMovimientoProductoVencido(final MovimientoDTO dto, Lote lote) {
-        User systemUser = getSystemUser();
+    Movimiento vencerLote(final MovimientoDTO dto, final Lote lote, final User systemUser) {
         Movimiento movimiento = createMovimientoModificacion(dto, lote, systemUser);
         movimiento.setFecha(dto.getFechaYHoraCreacion().toLocalDate());
         movimiento.setMotivo(VENCIMIENTO);
         movimiento.setDictamenInicial(lote.getDictamen());
         movimiento.setDictamenFinal(VENCIDO);
-
         movimiento.setObservaciones("_CU10_\n" + dto.getObservaciones());
-        return movimientoRepository.save(movimiento);
-    }
-
-    //***********CU9 MODIFICACION: VENCIDO***********
-    @Transactional
-    List<Lote> persistirProductosVencidos(final MovimientoDTO dto, final List<Lote> lotes) {
-        List<Lote> result = new ArrayList<>();
-        for (Lote lote : lotes) {
-            final Movimiento movimiento = persistirMovimientoProductoVencido(dto, lote);
-            lote.setDictamen(movimiento.getDictamenFinal());
-            lote.getMovimientos().add(movimiento);
-
-            // CU10: Cancelar análisis en curso si existe (dictamen == null)
-            if (lote.getUltimoAnalisis() != null && lote.getUltimoAnalisis().getDictamen() == null) {
-                lote.getUltimoAnalisis().setDictamen(com.mb.conitrack.enums.DictamenEnum.CANCELADO);
-                analisisRepository.save(lote.getUltimoAnalisis());
-            }
 
-            result.add(loteRepository.save(lote));
+        lote.setDictamen(VENCIDO);
+        // CU10: Cancelar análisis en curso si existe (dictamen == null)
+        if (lote.getUltimoAnalisis() != null && lote.getUltimoAnalisis().getDictamen() == null) {
+            lote.getUltimoAnalisis().setDictamen(CANCELADO);
         }
-        return result;
+        log.info("Vencido: {} - {}", lote.getLoteProveedor(), lote.getFechaVencimientoEfectiva());
+        return movimiento;
     }
 
-    @Transactional
-    void procesarLotesAnalisisExpirado(List<Lote> lotesReanalisis) {
-        final LocalDate hoy = LocalDate.now();
-        if (lotesReanalisis.isEmpty()) {
-            return;
-        }
+    private static MovimientoDTO crearMovimientoDTO(final Fase fase, final LocalDate hoy) {
         final MovimientoDTO dto = new MovimientoDTO();
         dto.setFechaMovimiento(hoy);
         dto.setFechaYHoraCreacion(OffsetDateTime.now());
-        dto.setObservaciones("(CU9) ANALISIS EXPIRADO POR FECHA: " + hoy);
-        final List<Lote> lotes = persistirExpiracionAnalisis(dto, lotesReanalisis);
-        for (Lote lote : lotes) {
-            //log
-            System.out.println("Reanalisis expirado: " +
-                lote.getLoteProveedor() +
-                " - " +
-                lote.getFechaReanalisisVigente());
-        }
+        dto.setObservaciones(fase == Fase.ANALISIS_EXPIRADO
+            ? "(CU9) ANALISIS EXPIRADO POR FECHA: " + hoy
+            : "(CU10) VENCIMIENTO AUTOMATICO POR FECHA: " + hoy);
+        return dto;
     }
 
-    @Transactional
-    void procesarLotesVencidos(List<Lote> lotesVencidos) {
-        final LocalDate hoy = LocalDate.now();
-        if (lotesVencidos.isEmpty()) {
-            return;
-        }
-        final MovimientoDTO dto = new MovimientoDTO();
-        dto.setFechaMovimiento(hoy);
-        dto.setFechaYHoraCreacion(OffsetDateTime.now());
-        dto.setObservaciones("(CU10) VENCIMIENTO AUTOMATICO POR FECHA: " + hoy);
-        final List<Lote> lotes = persistirProductosVencidos(dto, lotesVencidos);
-        for (Lote lote : lotes) {
-            //log
-            System.out.println("Vencido: " + lote.getLoteProveedor() + " - " + lote.getFechaVencimientoVigente());
-        }
+    private TransactionTemplate nuevaTransaccion() {
+        final TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return tx;
     }
 
 }
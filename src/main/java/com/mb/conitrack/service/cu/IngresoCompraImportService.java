@@ -0,0 +1,336 @@
+package com.mb.conitrack.service.cu;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mb.conitrack.dto.FilaIngresoCompraDTO;
+import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.ResultadoImportacionDTO;
+import com.mb.conitrack.dto.validation.AltaCompra;
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.entity.maestro.Proveedor;
+import com.mb.conitrack.entity.maestro.User;
+import com.mb.conitrack.enums.UseCaseTag;
+import com.mb.conitrack.interceptor.CasoUsoMetrica;
+import com.mb.conitrack.repository.maestro.ProductoRepository;
+import com.mb.conitrack.repository.maestro.ProveedorRepository;
+import com.mb.conitrack.service.SecurityContextService;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.mb.conitrack.service.cu.validator.CantidadValidator.validarBultos;
+import static com.mb.conitrack.service.cu.validator.CantidadValidator.validarCantidadIngreso;
+import static com.mb.conitrack.service.cu.validator.FechaValidator.validarFechasProveedor;
+
+/**
+ * CU1 - Importación masiva de ingresos por compra desde CSV o JSON lines.
+ * El archivo se lee fila a fila sin cargarlo completo; cada fila se valida con las mismas reglas del formulario y
+ * las válidas se persisten en bloques, cada uno en su propia transacción. Productos y proveedores se resuelven
+ * desde mapas cargados una sola vez por importación. Si un bloque falla al persistir se reintenta fila por fila,
+ * de modo que el error queda informado en la fila que lo causó y el resto del bloque se registra igual.
+ */
+@Service
+@Slf4j
+@CasoUsoMetrica(UseCaseTag.CU1)
+public class IngresoCompraImportService {
+
+    /** Formato del archivo de importación. */
+    public enum FormatoImportacion {
+        CSV, JSONL;
+
+        public static FormatoImportacion from(final String valor) {
+            for (FormatoImportacion formato : values()) {
+                if (formato.name().equalsIgnoreCase(valor)) {
+                    return formato;
+                }
+            }
+            throw new IllegalArgumentException("Formato de importación no soportado: " + valor);
+        }
+    }
+
+    /** Columnas CSV con un valor por bulto, separados por '|'. */
+    private static final Set<String> COLUMNAS_LISTA = Set.of("cantidadesBultos", "unidadMedidaBultos");
+
+    private static final String SEPARADOR_LISTA = "\\|";
+
+    @Autowired
+    private AltaIngresoCompraService altaIngresoCompraService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ProveedorRepository proveedorRepository;
+
+    @Autowired
+    private SecurityContextService securityContextService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${conitrack.importacion.chunk-size:100}")
+    private int chunkSize = 100;
+
+    /**
+     * Importa los ingresos del archivo. Las filas con error no detienen la importación: se informan en el
+     * resultado con su número de línea.
+     */
+    public ResultadoImportacionDTO importar(final InputStream in, final FormatoImportacion formato)
+        throws IOException {
+        final long inicio = System.nanoTime();
+        final User currentUser = securityContextService.getCurrentUser();
+        final Map<String, Producto> productos = productoRepository.findProductosExternos().stream()
+            .collect(Collectors.toMap(Producto::getCodigoProducto, Function.identity(), (a, b) -> a));
+        final Map<String, Proveedor> proveedores = proveedorRepository.findProveedoresExternosOrderByRazonSocialAsc()
+            .stream()
+            .filter(p -> p.getCuit() != null)
+            .collect(Collectors.toMap(p -> normalizarCuit(p.getCuit()), Function.identity(), (a, b) -> a));
+
+        final ResultadoImportacionDTO resultado = new ResultadoImportacionDTO();
+        final List<FilaValida> bloque = new ArrayList<>(chunkSize);
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> encabezado = null;
+        int nroLinea = 0;
+        String linea;
+        while ((linea = reader.readLine()) != null) {
+            nroLinea++;
+            if (linea.isBlank()) {
+                continue;
+            }
+            if (formato == FormatoImportacion.CSV && encabezado == null) {
+                encabezado = parsearLineaCsv(quitarBom(linea)).stream().map(String::trim).toList();
+                continue;
+            }
+            resultado.setFilasLeidas(resultado.getFilasLeidas() + 1);
+            try {
+                final FilaIngresoCompraDTO fila = formato == FormatoImportacion.CSV
+                    ? leerFilaCsv(encabezado, linea)
+                    : leerFilaJson(linea);
+                bloque.add(validarFila(nroLinea, fila, productos, proveedores));
+            } catch (IllegalArgumentException e) {
+                resultado.agregarError(nroLinea, e.getMessage());
+                continue;
+            }
+            if (bloque.size() >= chunkSize) {
+                persistirBloque(bloque, currentUser, resultado);
+                bloque.clear();
+            }
+        }
+        if (!bloque.isEmpty()) {
+            persistirBloque(bloque, currentUser, resultado);
+        }
+
+        final long ms = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+        log.info("Importación de ingresos por compra: {} filas, {} lotes, {} errores en {} ms ({} lotes/s)",
+            resultado.getFilasLeidas(), resultado.getCodigosLote().size(), resultado.getErrores().size(), ms,
+            resultado.getCodigosLote().size() * 1000L / ms);
+        return resultado;
+    }
+
+    void setChunkSize(final int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    // ========== Lectura ==========
+
+    private FilaIngresoCompraDTO leerFilaCsv(final List<String> encabezado, final String linea) {
+        final List<String> valores = parsearLineaCsv(linea);
+        if (valores.size() > encabezado.size()) {
+            throw new IllegalArgumentException(
+                "La fila tiene " + valores.size() + " columnas y el encabezado " + encabezado.size() + ".");
+        }
+        final Map<String, Object> campos = new LinkedHashMap<>();
+        for (int i = 0; i < valores.size(); i++) {
+            final String valor = valores.get(i).trim();
+            if (valor.isEmpty()) {
+                continue;
+            }
+            final String columna = encabezado.get(i);
+            campos.put(columna, COLUMNAS_LISTA.contains(columna)
+                ? Arrays.stream(valor.split(SEPARADOR_LISTA)).map(String::trim).toList()
+                : valor);
+        }
+        return convertir(campos);
+    }
+
+    private FilaIngresoCompraDTO leerFilaJson(final String linea) {
+        try {
+            return objectMapper.readValue(linea, FilaIngresoCompraDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Formato inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    private FilaIngresoCompraDTO convertir(final Map<String, Object> campos) {
+        try {
+            return objectMapper.convertValue(campos, FilaIngresoCompraDTO.class);
+        } catch (IllegalArgumentException e) {
+            final Throwable causa = e.getCause();
+            throw new IllegalArgumentException("Formato inválido: " + (causa instanceof JsonProcessingException jpe
+                ? jpe.getOriginalMessage()
+                : e.getMessage()));
+        }
+    }
+
+    /** Separa una línea CSV por comas; admite campos entre comillas dobles con comillas escapadas como "". */
+    static List<String> parsearLineaCsv(final String linea) {
+        final List<String> valores = new ArrayList<>();
+        final StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            final char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                valores.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        valores.add(actual.toString());
+        return valores;
+    }
+
+    private static String quitarBom(final String linea) {
+        return linea.startsWith("\uFEFF") ? linea.substring(1) : linea;
+    }
+
+    // ========== Validación ==========
+
+    /** Resuelve producto y proveedores y aplica las validaciones del formulario de ingreso. */
+    private FilaValida validarFila(
+        final int nroLinea,
+        final FilaIngresoCompraDTO fila,
+        final Map<String, Producto> productos,
+        final Map<String, Proveedor> proveedores) {
+        final Producto producto = fila.getCodigoProducto() != null
+            ? productos.get(fila.getCodigoProducto().trim())
+            : null;
+        if (producto == null) {
+            throw new IllegalArgumentException("El producto no existe: " + fila.getCodigoProducto());
+        }
+        final Proveedor proveedor = proveedores.get(normalizarCuit(fila.getCuitProveedor()));
+        if (proveedor == null) {
+            throw new IllegalArgumentException("El proveedor no existe (CUIT): " + fila.getCuitProveedor());
+        }
+        Proveedor fabricante = null;
+        if (fila.getCuitFabricante() != null && !fila.getCuitFabricante().isBlank()) {
+            fabricante = proveedores.get(normalizarCuit(fila.getCuitFabricante()));
+            if (fabricante == null) {
+                throw new IllegalArgumentException("El fabricante no existe (CUIT): " + fila.getCuitFabricante());
+            }
+        }
+
+        final LoteDTO loteDTO = fila.toLoteDTO(
+            producto.getId(), proveedor.getId(), fabricante != null ? fabricante.getId() : null);
+        final Set<ConstraintViolation<LoteDTO>> violaciones = validator.validate(loteDTO, AltaCompra.class);
+        if (!violaciones.isEmpty()) {
+            throw new IllegalArgumentException(violaciones.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; ")));
+        }
+        final BindingResult bindingResult = new BeanPropertyBindingResult(loteDTO, "loteDTO");
+        if (!validarCantidadIngreso(loteDTO, bindingResult)
+            || !validarFechasProveedor(loteDTO, bindingResult)
+            || !validarBultos(loteDTO, bindingResult)) {
+            throw new IllegalArgumentException(bindingResult.getAllErrors().stream()
+                .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining("; ")));
+        }
+        return new FilaValida(nroLinea, loteDTO, producto, proveedor, fabricante);
+    }
+
+    private static String normalizarCuit(final String cuit) {
+        return cuit == null ? "" : cuit.replaceAll("\\D", "");
+    }
+
+    // ========== Persistencia ==========
+
+    private void persistirBloque(
+        final List<FilaValida> filas,
+        final User currentUser,
+        final ResultadoImportacionDTO resultado) {
+        try {
+            resultado.getCodigosLote().addAll(
+                Objects.requireNonNull(nuevaTransaccion().execute(status -> persistir(filas, currentUser))));
+        } catch (RuntimeException e) {
+            log.warn("Bloque de importación revertido ({} filas), se reintenta fila por fila: {}",
+                filas.size(), e.getMessage());
+            for (FilaValida fila : filas) {
+                try {
+                    resultado.getCodigosLote().addAll(
+                        Objects.requireNonNull(nuevaTransaccion().execute(status -> persistir(List.of(fila), currentUser))));
+                } catch (RuntimeException errorFila) {
+                    resultado.agregarError(fila.nroLinea(), "No se pudo registrar el lote: " + errorFila.getMessage());
+                }
+            }
+        }
+    }
+
+    private List<String> persistir(final List<FilaValida> filas, final User currentUser) {
+        final List<String> codigos = new ArrayList<>(filas.size());
+        for (FilaValida fila : filas) {
+            fila.loteDTO().setFechaYHoraCreacion(OffsetDateTime.now());
+            codigos.add(altaIngresoCompraService.persistirIngresoCompra(
+                fila.loteDTO(), fila.producto(), fila.proveedor(), fila.fabricante(), currentUser).getCodigoLote());
+        }
+        return codigos;
+    }
+
+    private TransactionTemplate nuevaTransaccion() {
+        final TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return tx;
+    }
+
+    /** Fila validada, lista para persistir. */
+    private record FilaValida(
+        int nroLinea, LoteDTO loteDTO, Producto producto, Proveedor proveedor, Proveedor fabricante) {
+    }
+
+}
@@ -42,6 +42,8 @@ public class ModifAnulacionAnalisisService extends AbstractCuService {
             throw new IllegalArgumentException("Existen 2 movimientos de análisis iguales para ese lote");
         }
         lote.setDictamen(movModifAnalisisByNro.get(0).getDictamenInicial());
+        lote.actualizarFechasVigentes();
+        dashboardMetricsCache.invalidar();
         return DTOUtils.fromLoteEntity(loteRepository.save(lote));
     }
 
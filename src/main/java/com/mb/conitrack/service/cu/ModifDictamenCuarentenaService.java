@@ -65,12 +65,13 @@ public class ModifDictamenCuarentenaService extends AbstractCuService {
             for (Traza traza : trazasLote) {
                 traza.setEstado(DISPONIBLE);
             }
-            trazaRepository.saveAll(trazasLote);
+            guardarTrazas(trazasLote);
         }
 
         lote.getMovimientos().add(mov);
         lote.setDictamen(DictamenEnum.CUARENTENA);
 
+        dashboardMetricsCache.invalidar();
         return DTOUtils.fromLoteEntity(loteRepository.save(lote));
     }
 
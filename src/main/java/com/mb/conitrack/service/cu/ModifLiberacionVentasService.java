@@ -16,6 +16,7 @@ import com.mb.conitrack.entity.Analisis;
 import com.mb.conitrack.entity.Lote;
 import com.mb.conitrack.entity.Movimiento;
 import com.mb.conitrack.entity.maestro.User;
+import com.mb.conitrack.service.DashboardMetricsCache.LoteMetricas;
 import com.mb.conitrack.service.SecurityContextService;
 
 import static com.mb.conitrack.enums.DictamenEnum.LIBERADO;
@@ -35,6 +36,7 @@ public class ModifLiberacionVentasService extends AbstractCuService {
 
         Lote lote = loteRepository.findByCodigoLoteAndActivoTrue(dto.getCodigoLote())
             .orElseThrow(() -> new IllegalArgumentException("El lote no existe."));
+        final LoteMetricas metricasAntes = LoteMetricas.de(lote);
 
         final Movimiento movimiento = persistirMovimientoLiberacionProducto(dto, lote, currentUser);
         final List<Analisis> list = lote.getAnalisisConFechaVenciminentoList();
@@ -49,6 +51,8 @@ public class ModifLiberacionVentasService extends AbstractCuService {
 
         lote.setDictamen(movimiento.getDictamenFinal());
         lote.getMovimientos().add(movimiento);
+        lote.actualizarFechasVigentes();
+        dashboardMetricsCache.registrarMovimiento(movimiento, metricasAntes, LoteMetricas.de(lote));
         return DTOUtils.fromLoteEntity(loteRepository.save(lote));
     }
 
@@ -45,6 +45,8 @@ public class ModifReanalisisLoteService extends AbstractCuService {
         lote.getMovimientos().add(movimiento);
         lote.getAnalisisList().add(newAnalisis);
         newAnalisis.setLote(lote);
+        lote.actualizarFechasVigentes();
+        dashboardMetricsCache.invalidar();
         return DTOUtils.fromLoteEntity(loteRepository.save(lote));
     }
 
@@ -36,6 +36,8 @@ public class ModifResultadoAnalisisService extends AbstractCuService {
         final Movimiento movimiento = persistirMovimientoResultadoAnalisis(dto, lote, currentUser);
         lote.setDictamen(movimiento.getDictamenFinal());
         lote.getMovimientos().add(movimiento);
+        lote.actualizarFechasVigentes();
+        dashboardMetricsCache.invalidar();
         return DTOUtils.fromLoteEntity(loteRepository.save(lote));
     }
 
@@ -5,6 +5,8 @@ import com.mb.conitrack.dto.MovimientoDTO;
 import com.mb.conitrack.entity.Lote;
 import com.mb.conitrack.entity.Movimiento;
 import com.mb.conitrack.entity.maestro.User;
+import com.mb.conitrack.enums.UseCaseTag;
+import com.mb.conitrack.interceptor.CasoUsoMetrica;
 import com.mb.conitrack.service.SecurityContextService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,6 +28,7 @@ import static java.lang.Boolean.TRUE;
  * - ModificacionRecallService: Para modificar estado de lotes a RECALL
  */
 @Service
+@CasoUsoMetrica(UseCaseTag.CU24)
 public class ModifRetiroMercadoService extends AbstractCuService {
 
     @Autowired
@@ -60,11 +60,14 @@ public class ModifReversoMovimientoService extends AbstractCuService {
                 throw new IllegalArgumentException("Tipo de movimiento no puede ser nulo.");
             }
 
-            return switch (tipo) {
+            final LoteDTO loteDTO = switch (tipo) {
                 case ALTA -> delegarReversoAlta(dto, movOrigen, currentUser);
                 case MODIFICACION -> delegarReversoModificacion(dto, movOrigen, currentUser);
                 case BAJA -> delegarReversoBaja(dto, movOrigen, currentUser);
             };
+            // Un reverso puede tocar stock, dictamen y análisis: el dashboard se recalcula completo
+            dashboardMetricsCache.invalidar();
+            return loteDTO;
         } else {
             throw new IllegalArgumentException("Cantidad incorrecta de movimientos");
         }
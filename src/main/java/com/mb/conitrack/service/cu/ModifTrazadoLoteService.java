@@ -1,6 +1,5 @@
 package com.mb.conitrack.service.cu;
 
-import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,20 +8,24 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
 
-import com.mb.conitrack.dto.DTOUtils;
 import com.mb.conitrack.dto.LoteDTO;
 import com.mb.conitrack.dto.MovimientoDTO;
+import com.mb.conitrack.dto.mapper.LoteMapper;
 import com.mb.conitrack.entity.Analisis;
 import com.mb.conitrack.entity.Lote;
 import com.mb.conitrack.entity.Movimiento;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.TipoProductoEnum;
+import com.mb.conitrack.repository.TrazaRepositoryCustom.RangoTraza;
+import com.mb.conitrack.service.DashboardMetricsCache.LoteMetricas;
 import com.mb.conitrack.service.SecurityContextService;
+import com.mb.conitrack.service.TrazaNumeradorService;
+import com.mb.conitrack.service.TrazadoBulkService;
 
 import static com.mb.conitrack.enums.DictamenEnum.LIBERADO;
 import static com.mb.conitrack.enums.MotivoEnum.LIBERACION;
 import static com.mb.conitrack.enums.MotivoEnum.TRAZADO;
-import static com.mb.conitrack.utils.LoteEntityUtils.addTrazasToLote;
+import static com.mb.conitrack.utils.LoteEntityUtils.calcularRangosTraza;
 import static com.mb.conitrack.utils.MovimientoModificacionUtils.createMovimientoModificacion;
 
 /** CU28 - Trazado de Lote. Asigna números de traza únicos a unidades de venta. */
@@ -32,7 +35,13 @@ public class ModifTrazadoLoteService extends AbstractCuService {
     @Autowired
     private SecurityContextService securityContextService;
 
-    /** Agrega trazas al lote UNIDAD_VENTA distribuyéndolas entre bultos. */
+    @Autowired
+    private TrazadoBulkService trazadoBulkService;
+
+    @Autowired
+    private TrazaNumeradorService trazaNumeradorService;
+
+    /** Agrega trazas al lote UNIDAD_VENTA distribuyéndolas entre bultos, con inserción masiva por bloques. */
     @Transactional
     public LoteDTO persistirTrazadoLote(final MovimientoDTO dto) {
         User currentUser = securityContextService.getCurrentUser();
@@ -43,14 +52,37 @@ public class ModifTrazadoLoteService extends AbstractCuService {
         if (lote.getProducto().getTipoProducto() != TipoProductoEnum.UNIDAD_VENTA) {
             throw new IllegalArgumentException("El lote debe ser UNIDAD_VENTA para poder trazarse");
         }
-        addTrazasToLote(lote, dto);
-
-        trazaRepository.saveAll(lote.getTrazas());
+        final long trazaInicial = asignarTrazaInicial(dto, lote);
+        trazadoBulkService.trazarLote(lote, trazaInicial, dto.getFechaYHoraCreacion());
+        lote.setTrazado(true);
 
         final Movimiento movimiento = persistirMovimientoTrazadoLote(dto, lote, currentUser);
         lote.getMovimientos().add(movimiento);
+        // El trazado no cambia stock ni dictamen: solo suma el movimiento del día
+        dashboardMetricsCache.registrarMovimiento(movimiento, LoteMetricas.de(lote), LoteMetricas.de(lote));
 
-        return DTOUtils.fromLoteEntity(loteRepository.save(lote));
+        // Las trazas se insertaron por JDBC: no se cargan en el DTO, solo se informa el rango
+        final LoteDTO loteDTO = LoteMapper.fromEntity(loteRepository.save(lote), false);
+        loteDTO.setTrazaInicial(trazaInicial);
+        return loteDTO;
+    }
+
+    /**
+     * Sin traza inicial informada se reserva el rango en el numerador del producto; con traza inicial manual
+     * se registra el rango en el numerador, que lo rechaza si no supera al último número asignado.
+     */
+    long asignarTrazaInicial(final MovimientoDTO dto, final Lote lote) {
+        final long cantidad = calcularRangosTraza(lote, 0).stream().mapToLong(RangoTraza::cantidad).sum();
+        final Long productoId = lote.getProducto().getId();
+        if (dto.getTrazaInicial() != null) {
+            return cantidad > 0
+                ? trazaNumeradorService.registrarManual(productoId, dto.getTrazaInicial(), cantidad)
+                : dto.getTrazaInicial();
+        }
+        if (cantidad == 0) {
+            throw new IllegalArgumentException("El lote no tiene unidades para trazar");
+        }
+        return trazaNumeradorService.reservar(productoId, cantidad);
     }
 
     @Transactional
@@ -72,19 +104,37 @@ public class ModifTrazadoLoteService extends AbstractCuService {
             return false;
         }
 
-        final Optional<LocalDate> fechaIngresoLote = loteRepository.findByCodigoLoteAndActivoTrue(dto.getCodigoLote())
-            .map(Lote::getFechaIngreso);
+        final Optional<Lote> lote = loteRepository.findByCodigoLoteAndActivoTrue(dto.getCodigoLote());
 
-        if (fechaIngresoLote.isEmpty()) {
+        if (lote.isEmpty()) {
             bindingResult.rejectValue("codigoLote", "", "Lote no encontrado.");
             return false;
         }
 
-        if (!validarFechaMovimientoPosteriorIngresoLote(dto, fechaIngresoLote.get(), bindingResult)) {
+        if (!validarFechaMovimientoPosteriorIngresoLote(dto, lote.get().getFechaIngreso(), bindingResult)) {
             return false;
         }
 
-        return validarTrazaInicialLote(dto, bindingResult);
+        if (!validarTrazaInicialLote(dto, bindingResult)) {
+            return false;
+        }
+
+        return validarTrazaInicialDisponible(dto, lote.get(), bindingResult);
+    }
+
+    boolean validarTrazaInicialDisponible(final MovimientoDTO dto, final Lote lote, final BindingResult bindingResult) {
+        if (dto.getTrazaInicial() == null) {
+            return true;
+        }
+        final long ultimoAsignado = trazaNumeradorService.ultimoAsignado(lote.getProducto().getId());
+        if (ultimoAsignado > 0 && dto.getTrazaInicial() <= ultimoAsignado) {
+            bindingResult.rejectValue(
+                "trazaInicial",
+                "",
+                "El número de traza debe ser mayor al último registrado. " + ultimoAsignado);
+            return false;
+        }
+        return true;
     }
 
 }
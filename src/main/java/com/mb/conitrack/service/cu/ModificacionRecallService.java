@@ -7,6 +7,8 @@ import com.mb.conitrack.entity.Movimiento;
 import com.mb.conitrack.entity.Traza;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.DictamenEnum;
+import com.mb.conitrack.enums.UseCaseTag;
+import com.mb.conitrack.interceptor.CasoUsoMetrica;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,6 +33,7 @@ import static java.lang.Boolean.TRUE;
  * - Cancela análisis en curso si existe
  */
 @Service
+@CasoUsoMetrica(UseCaseTag.CU24)
 public class ModificacionRecallService extends AbstractCuService {
 
     /**
@@ -69,6 +72,7 @@ public class ModificacionRecallService extends AbstractCuService {
         loteOrigenRecall.getMovimientos().add(savedMovModifRecall);
 
         cancelarAnalisisEnCurso(loteOrigenRecall);
+        dashboardMetricsCache.invalidar();
 
         loteRepository.findById(loteRepository.save(loteOrigenRecall).getId()).ifPresent(result::add);
     }
@@ -93,7 +97,7 @@ public class ModificacionRecallService extends AbstractCuService {
             if (recall) {
                 bulto.setEstado(RECALL);
             }
-            trazaRepository.saveAll(trazasRecall);
+            guardarTrazas(trazasRecall);
         }
     }
 
@@ -10,6 +10,9 @@ import com.mb.conitrack.entity.Movimiento;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.EstadoEnum;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.enums.UseCaseTag;
+import com.mb.conitrack.interceptor.CasoUsoMetrica;
+import com.mb.conitrack.service.DashboardMetricsCache.LoteMetricas;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
@@ -22,6 +25,7 @@ import java.util.Optional;
 import static com.mb.conitrack.utils.MovimientoBajaUtils.createMovimientoPorMuestreoMultiBulto;
 import static com.mb.conitrack.utils.UnidadMedidaUtils.convertirCantidadEntreUnidades;
 import static com.mb.conitrack.utils.UnidadMedidaUtils.obtenerMayorUnidadMedida;
+import static com.mb.conitrack.utils.UnidadMedidaUtils.sumarCantidadesConvertidas;
 import static java.lang.Boolean.TRUE;
 
 /**
@@ -33,6 +37,7 @@ import static java.lang.Boolean.TRUE;
  * - Validación de entrada para muestreo multi-bulto
  */
 @Service
+@CasoUsoMetrica(UseCaseTag.CU3)
 public class MuestreoMultiBultoService extends AbstractCuService {
 
     /**
@@ -43,6 +48,7 @@ public class MuestreoMultiBultoService extends AbstractCuService {
     public LoteDTO procesarMuestreoMultiBulto(final LoteDTO loteDTO, final User currentUser) {
         Lote lote = loteRepository.findByCodigoLoteAndActivoTrue(loteDTO.getCodigoLote())
             .orElseThrow(() -> new IllegalArgumentException("El lote no existe."));
+        final LoteMetricas metricasAntes = LoteMetricas.de(lote);
 
         final Movimiento movimientoMultiBulto = persistirMovimientoBajaMuestreoMultiBulto(loteDTO, lote, currentUser);
 
@@ -50,6 +56,7 @@ public class MuestreoMultiBultoService extends AbstractCuService {
         actualizarEstadosLoteYBultos(loteDTO, lote);
 
         lote.getMovimientos().add(movimientoMultiBulto);
+        dashboardMetricsCache.registrarMovimiento(movimientoMultiBulto, metricasAntes, LoteMetricas.de(lote));
         return DTOUtils.fromLoteEntity(loteRepository.save(lote));
     }
 
@@ -200,17 +207,10 @@ public class MuestreoMultiBultoService extends AbstractCuService {
      * Calcula la cantidad total del movimiento sumando todas las cantidades convertidas.
      */
     BigDecimal calcularCantidadTotalMovimiento(final LoteDTO loteDTO, final UnidadMedidaEnum uniMedidaMovimiento) {
-        BigDecimal cantidad = BigDecimal.ZERO;
-
-        for (int i = 0; i < loteDTO.getCantidadesBultos().size(); i++) {
-            final BigDecimal montoBulto = convertirCantidadEntreUnidades(
-                loteDTO.getUnidadMedidaBultos().get(i),
-                loteDTO.getCantidadesBultos().get(i),
-                uniMedidaMovimiento);
-            cantidad = cantidad.add(montoBulto);
-        }
-
-        return cantidad;
+        return sumarCantidadesConvertidas(
+            loteDTO.getCantidadesBultos(),
+            loteDTO.getUnidadMedidaBultos(),
+            uniMedidaMovimiento);
     }
 
     /**
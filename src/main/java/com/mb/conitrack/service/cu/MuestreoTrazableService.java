@@ -13,6 +13,9 @@ import com.mb.conitrack.entity.Traza;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.TipoProductoEnum;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.enums.UseCaseTag;
+import com.mb.conitrack.interceptor.CasoUsoMetrica;
+import com.mb.conitrack.service.DashboardMetricsCache.LoteMetricas;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
@@ -38,6 +41,7 @@ import static java.lang.Integer.parseInt;
  * - Validación de entrada para productos trazables
  */
 @Service
+@CasoUsoMetrica(UseCaseTag.CU3)
 public class MuestreoTrazableService extends AbstractCuService {
 
     /**
@@ -48,6 +52,7 @@ public class MuestreoTrazableService extends AbstractCuService {
     public LoteDTO procesarMuestreoTrazable(final MovimientoDTO dto, final User currentUser) {
         Lote lote = loteRepository.findByCodigoLoteAndActivoTrue(dto.getCodigoLote())
             .orElseThrow(() -> new IllegalArgumentException("El lote no existe."));
+        final LoteMetricas metricasAntes = LoteMetricas.de(lote);
 
         final Bulto bulto = lote.getBultoByNro(parseInt(dto.getNroBulto()));
         final String currentNroAnalisis = lote.getUltimoNroAnalisis();
@@ -59,6 +64,7 @@ public class MuestreoTrazableService extends AbstractCuService {
 
         bulto.setCantidadActual(restarMovimientoConvertido(dto, bulto));
         lote.setCantidadActual(restarMovimientoConvertido(dto, lote));
+        verificarStockNoNegativo(lote, bulto);
 
         boolean unidadVenta = lote.getProducto().getTipoProducto() == TipoProductoEnum.UNIDAD_VENTA;
 
@@ -70,6 +76,7 @@ public class MuestreoTrazableService extends AbstractCuService {
         actualizarEstadoLote(lote);
 
         lote.getMovimientos().add(movimiento);
+        dashboardMetricsCache.registrarMovimiento(movimiento, metricasAntes, LoteMetricas.de(lote));
         return DTOUtils.fromLoteEntity(loteRepository.save(lote));
     }
 
@@ -207,7 +214,7 @@ public class MuestreoTrazableService extends AbstractCuService {
             traza.getDetalles().addAll(movimiento.getDetalles());
         }
         detalleMovimiento.getTrazas().addAll(trazas);
-        trazaRepository.saveAll(trazas);
+        guardarTrazas(trazas);
         dto.setTrazaDTOs(trazas.stream().map(DTOUtils::fromTrazaEntity).toList());
     }
 
@@ -88,10 +88,12 @@ public class ReversoAltaService extends AbstractCuService {
                         .getNroBulto());
                 trazasMovimento.forEach(t -> t.setBulto(bultoVentaOrigen));
                 trazasMovimento.forEach(t -> t.setLote(loteVentaOrigen));
-                trazaRepository.saveAll(trazasMovimento);
+                guardarTrazasMovidas(trazasMovimento, detalleAltaDevolucion.getBulto());
             }
         }
 
+        saldoRetornableService.reponer(movDevolucionOrigen);
+
         bultoRepository.saveAll(bultosDevolucion);
         movimientoRepository.save(movReverso);
         movimientoRepository.save(movDevolucionOrigen);
@@ -131,10 +133,12 @@ public class ReversoAltaService extends AbstractCuService {
                         .getNroBulto());
                 trazasMovimento.forEach(t -> t.setBulto(bultoVentaOrigen));
                 trazasMovimento.forEach(t -> t.setLote(loteVentaOrigen));
-                trazaRepository.saveAll(trazasMovimento);
+                guardarTrazasMovidas(trazasMovimento, detalleAltaRecall.getBulto());
             }
         }
 
+        saldoRetornableService.reponer(movRecallOrigen);
+
         bultoRepository.saveAll(bultosRecall);
         movimientoRepository.save(movReversoAltaRecall);
         movimientoRepository.save(movRecallOrigen);
@@ -190,7 +194,7 @@ public class ReversoAltaService extends AbstractCuService {
                     .filter(t -> t.getEstado() == EstadoEnum.RECALL)
                     .toList();
             list.forEach(t -> t.setEstado(EstadoEnum.DISPONIBLE));
-            trazaRepository.saveAll(list);
+            guardarTrazas(list);
         }
 
         bultoRepository.saveAll(loteOrigen.getBultos());
@@ -148,7 +148,7 @@ public class ReversoBajaService extends AbstractCuService {
             movOrigen.setActivo(false);
             movimiento.setActivo(false);
 
-            trazaRepository.saveAll(detalleMovimiento.getTrazas());
+            guardarTrazas(detalleMovimiento.getTrazas());
             bultoRepository.save(bulto);
         }
 
@@ -185,7 +185,7 @@ public class ReversoBajaService extends AbstractCuService {
             }
             if (TRUE.equals(loteOrigen.getTrazado())) {
                 detalleMovimiento.getTrazas().forEach(t -> t.setEstado(EstadoEnum.DISPONIBLE));
-                trazaRepository.saveAll(detalleMovimiento.getTrazas());
+                guardarTrazas(detalleMovimiento.getTrazas());
             }
             bultoRepository.save(bulto);
         }
@@ -244,7 +244,7 @@ public class ReversoBajaService extends AbstractCuService {
             final Set<Traza> trazas = detalleMovimiento.getTrazas();
             if (!trazas.isEmpty()) {
                 trazas.forEach(t -> t.setEstado(EstadoEnum.DISPONIBLE));
-                trazaRepository.saveAll(trazas);
+                guardarTrazas(trazas);
             }
             bultoRepository.save(bulto);
         }
@@ -50,6 +50,7 @@ public class ReversoModificacionService extends AbstractCuService {
         movimientoRepository.save(movimiento);
         movimientoRepository.save(movOrigen);
 
+        lote.actualizarFechasVigentes();
         loteRepository.save(lote);
 
         return DTOUtils.fromLoteEntity(lote);
@@ -80,6 +81,7 @@ public class ReversoModificacionService extends AbstractCuService {
         movimientoRepository.save(movimiento);
         movimientoRepository.save(movOrigen);
 
+        lote.actualizarFechasVigentes();
         loteRepository.save(lote);
 
         return DTOUtils.fromLoteEntity(lote);
@@ -101,6 +103,7 @@ public class ReversoModificacionService extends AbstractCuService {
         movimientoRepository.save(movOrigen);
         movimientoRepository.save(movimiento);
 
+        lote.actualizarFechasVigentes();
         return DTOUtils.fromLoteEntity(loteRepository.save(lote));
     }
 
@@ -115,7 +118,7 @@ public class ReversoModificacionService extends AbstractCuService {
             t.setEstado(EstadoEnum.DESCARTADO);
             t.getDetalles().forEach(d -> d.setActivo(false));
         }
-        trazaRepository.saveAll(trazasLote);
+        guardarTrazas(trazasLote);
         lote.setTrazado(false);
 
         movOrigen.setActivo(false);
@@ -145,6 +148,7 @@ public class ReversoModificacionService extends AbstractCuService {
         movimientoRepository.save(movOrigen);
 
         lote.setDictamen(movOrigen.getDictamenInicial());
+        lote.actualizarFechasVigentes();
         return DTOUtils.fromLoteEntity(loteRepository.save(lote));
     }
 }
@@ -13,6 +13,7 @@ import java.util.List;
 
 import static com.mb.conitrack.utils.UnidadMedidaUtils.convertirCantidadEntreUnidades;
 import static com.mb.conitrack.utils.UnidadMedidaUtils.obtenerMenorUnidadMedida;
+import static com.mb.conitrack.utils.UnidadMedidaUtils.sumarCantidadesConvertidas;
 
 /**
  * Validador especializado para cantidades y bultos.
@@ -91,9 +92,8 @@ public class CantidadValidator {
             return false;
         }
 
-        BigDecimal cantidadConvertida = dto.getCantidad()
-            .multiply(BigDecimal.valueOf(dto.getUnidadMedida().getFactorConversion() /
-                bulto.getUnidadMedida().getFactorConversion()));
+        BigDecimal cantidadConvertida =
+            convertirCantidadEntreUnidades(dto.getUnidadMedida(), dto.getCantidad(), bulto.getUnidadMedida());
 
         if (cantidadConvertida.compareTo(bulto.getCantidadActual()) > 0) {
             bindingResult.rejectValue("cantidad", "", "La cantidad excede el stock disponible del bulto.");
@@ -219,7 +219,6 @@ public class CantidadValidator {
                 "Datos incompletos o inconsistentes.");
             return false;
         }
-        BigDecimal sumaConvertida = BigDecimal.ZERO;
         for (int i = 0; i < cantidades.size(); i++) {
             BigDecimal cantidad = cantidades.get(i);
             UnidadMedidaEnum unidadBulto = unidades.get(i);
@@ -235,11 +234,8 @@ public class CantidadValidator {
                     "La cantidad del Bulto " + (i + 1) + " debe ser mayor a 0.");
                 return false;
             }
-
-            double factor = unidadBulto.getFactorConversion() / unidadBase.getFactorConversion();
-            BigDecimal cantidadConvertida = cantidad.multiply(BigDecimal.valueOf(factor));
-            sumaConvertida = sumaConvertida.add(cantidadConvertida);
         }
+        BigDecimal sumaConvertida = sumarCantidadesConvertidas(cantidades, unidades, unidadBase);
 
         BigDecimal sumaRedondeada = sumaConvertida.setScale(6, RoundingMode.HALF_UP);
         BigDecimal totalEsperado = loteDTO.getCantidadInicial().setScale(6, RoundingMode.HALF_UP);
@@ -15,14 +15,14 @@ public class TrazaValidator {
         // Utility class, prevent instantiation
     }
 
-    /** Valida traza inicial del lote. */
+    /** Valida traza inicial del lote. Vacía significa asignación automática por el numerador del producto. */
     public static boolean validarTrazaInicialLote(
             final MovimientoDTO dto,
             final BindingResult bindingResult) {
         if (bindingResult.hasErrors()) {
             return false;
         }
-        if (dto.getTrazaInicial() == null || dto.getTrazaInicial() <= 0) {
+        if (dto.getTrazaInicial() != null && dto.getTrazaInicial() <= 0) {
             bindingResult.rejectValue(
                 "trazaInicial",
                 "",
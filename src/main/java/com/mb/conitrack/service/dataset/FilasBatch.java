@@ -0,0 +1,61 @@
+package com.mb.conitrack.service.dataset;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Filas pendientes de una tabla del dataset sintético. Se envían con {@link JdbcTemplate#batchUpdate} en sentencias
+ * de filasPorBatch filas; con PostgreSQL y reWriteBatchedInserts=true el driver las reescribe como INSERT multi-fila.
+ */
+final class FilasBatch {
+
+    private final String tabla;
+
+    private final String sql;
+
+    private final int[] tipos;
+
+    private final List<Object[]> filas = new ArrayList<>();
+
+    private long insertadas;
+
+    /**
+     * @param tabla    tabla destino
+     * @param columnas columnas separadas por coma, en el orden de los valores de cada fila
+     * @param tipos    tipos JDBC ({@link java.sql.Types}) de cada columna, para los valores null
+     */
+    FilasBatch(final String tabla, final String columnas, final int... tipos) {
+        this.tabla = tabla;
+        this.tipos = tipos;
+        this.sql = "insert into " + tabla + " (" + columnas + ") values (" + "?, ".repeat(tipos.length - 1) + "?)";
+    }
+
+    void agregar(final Object... valores) {
+        if (valores.length != tipos.length) {
+            throw new IllegalArgumentException(
+                "Fila de " + tabla + " con " + valores.length + " valores, se esperaban " + tipos.length);
+        }
+        filas.add(valores);
+    }
+
+    /** Inserta las filas pendientes y vacía el buffer. */
+    void enviar(final JdbcTemplate jdbcTemplate, final int filasPorBatch) {
+        for (int desde = 0; desde < filas.size(); desde += filasPorBatch) {
+            final List<Object[]> batch = filas.subList(desde, Math.min(desde + filasPorBatch, filas.size()));
+            jdbcTemplate.batchUpdate(sql, batch, tipos);
+        }
+        insertadas += filas.size();
+        filas.clear();
+    }
+
+    String getTabla() {
+        return tabla;
+    }
+
+    long getInsertadas() {
+        return insertadas;
+    }
+
+}
@@ -0,0 +1,1022 @@
+package com.mb.conitrack.service.dataset;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.enums.DictamenEnum;
+import com.mb.conitrack.enums.EstadoEnum;
+import com.mb.conitrack.enums.MotivoEnum;
+import com.mb.conitrack.enums.TipoMovimientoEnum;
+import com.mb.conitrack.enums.TipoProductoEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.service.CodigoLoteGenerator;
+import com.mb.conitrack.utils.MovimientoCommonUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static java.sql.Types.BIGINT;
+import static java.sql.Types.BOOLEAN;
+import static java.sql.Types.DATE;
+import static java.sql.Types.DECIMAL;
+import static java.sql.Types.INTEGER;
+import static java.sql.Types.TIMESTAMP_WITH_TIMEZONE;
+import static java.sql.Types.VARCHAR;
+
+/**
+ * Genera un dataset sintético con volúmenes de producción (productos, proveedores, lotes multi-bulto, movimientos,
+ * análisis y trazas) para reproducir localmente problemas de rendimiento.
+ *
+ * Cada lote recorre su ciclo de vida en memoria (alta, trazado, cuarentena, muestreo, resultado de análisis,
+ * liberación, ventas con devoluciones, consumos, devolución de compra o vencimiento) respetando las transiciones de
+ * dictamen y estado de los CU, y se inserta por JDBC en batches. Los ids se asignan desde el máximo existente de cada
+ * tabla y al terminar se resincronizan las secuencias (H2 o PostgreSQL). Con la misma semilla y la misma base
+ * inicial el dataset es el mismo, salvo las fechas, que se generan hacia atrás desde hoy.
+ *
+ * Opcionalmente escribe un manifiesto de candidatos (lotes en cada estado intermedio) que usa el driver de carga.
+ */
+@Service
+@Slf4j
+public class GeneradorDatasetService {
+
+    /** Días de historia que abarca el dataset, hasta hoy. */
+    static final int DIAS_HISTORIA = 3 * 365;
+
+    /** Antigüedad máxima de los lotes que pueden quedar pendientes de análisis (cuarentena o muestreo). */
+    static final int DIAS_PENDIENTES = 120;
+
+    /** Tablas con id autoincremental que inserta el generador. */
+    static final List<String> TABLAS_CON_ID = List.of(
+        "productos", "proveedores", "lotes", "bultos", "movimientos", "detalle_movimientos", "analisis", "trazas");
+
+    private static final DateTimeFormatter FORMATO_CODIGO = DateTimeFormatter.ofPattern(
+        MovimientoCommonUtils.TIMESTAMP_PATTERN);
+
+    private static final String[] PAISES = {
+        "Argentina", "Brasil", "India", "China", "Alemania", "Italia", "España", "Suiza", "Estados Unidos" };
+
+    private static final String[] CIUDADES = {
+        "Buenos Aires", "Córdoba", "Rosario", "São Paulo", "Mumbai", "Shanghai", "Frankfurt", "Milán", "Basilea" };
+
+    private static final String[] NOMBRES = {
+        "Paracetamol", "Ibuprofeno", "Lactosa", "Almidón", "Celulosa", "Estearato", "Cápsula", "Blister", "Estuche",
+        "Frasco", "Prospecto", "Acido carglúmico", "Cisteamina", "Nitisinona", "Talco", "Povidona" };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CodigoLoteGenerator codigoLoteGenerator;
+
+    @Value("${conitrack.dataset.productos:2000}")
+    private int productos = 2000;
+
+    @Value("${conitrack.dataset.proveedores:1000}")
+    private int proveedores = 1000;
+
+    @Value("${conitrack.dataset.lotes:100000}")
+    private int lotes = 100000;
+
+    @Value("${conitrack.dataset.max-bultos:8}")
+    private int maxBultos = 8;
+
+    @Value("${conitrack.dataset.unidades-por-bulto:40}")
+    private int unidadesPorBulto = 40;
+
+    @Value("${conitrack.dataset.lotes-por-transaccion:500}")
+    private int lotesPorTransaccion = 500;
+
+    @Value("${conitrack.dataset.filas-por-batch:1000}")
+    private int filasPorBatch = 1000;
+
+    @Value("${conitrack.dataset.semilla:42}")
+    private long semilla = 42;
+
+    @Value("${conitrack.dataset.candidatos:}")
+    private String candidatos = "";
+
+    /**
+     * Genera el dataset completo: maestros en una transacción y lotes en transacciones de lotesPorTransaccion.
+     *
+     * @return filas insertadas por tabla
+     */
+    public Map<String, Long> generar() {
+        final long inicio = System.nanoTime();
+        final Generacion generacion = new Generacion();
+        try (BufferedWriter manifiesto = abrirManifiesto()) {
+            generacion.manifiesto = manifiesto;
+            final TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            tx.executeWithoutResult(status -> {
+                generacion.generarMaestros();
+                generacion.enviar();
+            });
+            for (int desde = 0; desde < lotes; desde += lotesPorTransaccion) {
+                final int hasta = Math.min(desde + lotesPorTransaccion, lotes);
+                final int primero = desde;
+                tx.executeWithoutResult(status -> {
+                    for (int i = primero; i < hasta; i++) {
+                        generacion.simularLote(i);
+                    }
+                    generacion.enviar();
+                });
+                log.info("Dataset sintético: {}/{} lotes", hasta, lotes);
+            }
+            tx.executeWithoutResult(status -> {
+                generacion.agregarContadoresTraza();
+                generacion.enviar();
+                resincronizarSecuencias();
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el manifiesto de candidatos " + candidatos, e);
+        }
+        final Map<String, Long> insertadas = generacion.insertadas();
+        log.info("Dataset sintético generado en {} s: {}", (System.nanoTime() - inicio) / 1_000_000_000L,
+            insertadas);
+        return insertadas;
+    }
+
+    private BufferedWriter abrirManifiesto() throws IOException {
+        if (candidatos == null || candidatos.isBlank()) {
+            return null;
+        }
+        final Path ruta = Path.of(candidatos);
+        if (ruta.getParent() != null) {
+            Files.createDirectories(ruta.getParent());
+        }
+        final BufferedWriter writer = Files.newBufferedWriter(ruta, StandardCharsets.UTF_8);
+        writer.write("# tipo;campos (ver GeneradorDatasetService)");
+        writer.newLine();
+        return writer;
+    }
+
+    /** Lleva las secuencias de id más allá de los ids insertados, para que los altas por JPA no colisionen. */
+    void resincronizarSecuencias() {
+        final String motor = jdbcTemplate.execute(
+            (ConnectionCallback<String>)con -> con.getMetaData().getDatabaseProductName());
+        final boolean postgres = motor != null && motor.toLowerCase().contains("postgres");
+        for (String tabla : TABLAS_CON_ID) {
+            final long siguiente = maxId(tabla) + 1;
+            if (postgres) {
+                jdbcTemplate.queryForObject(
+                    "select setval(pg_get_serial_sequence(?, 'id'), ?, false)", Long.class, tabla, siguiente);
+            } else {
+                jdbcTemplate.execute("alter table " + tabla + " alter column id restart with " + siguiente);
+            }
+        }
+    }
+
+    long maxId(final String tabla) {
+        final Long max = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + tabla, Long.class);
+        return max == null ? 0 : max;
+    }
+
+    void setVolumen(final int productos, final int proveedores, final int lotes) {
+        this.productos = productos;
+        this.proveedores = proveedores;
+        this.lotes = lotes;
+    }
+
+    void setCandidatos(final String candidatos) {
+        this.candidatos = candidatos;
+    }
+
+    private static String codigo(final OffsetDateTime fechaYHora) {
+        return fechaYHora.format(FORMATO_CODIGO);
+    }
+
+    /** Estado de una ejecución del generador: buffers de filas, próximos ids y maestros generados. */
+    private final class Generacion {
+
+        private final Random random = new Random(semilla);
+
+        private final LocalDate hoy = LocalDate.now();
+
+        private final OffsetDateTime ahora = OffsetDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        private final OffsetDateTime desde = ahora.minusDays(DIAS_HISTORIA);
+
+        /** Separación media entre altas de lotes; al menos un segundo para que los códigos no se repitan. */
+        private final long segundosEntreLotes = Math.max(2, ChronoUnit.SECONDS.between(desde, ahora) / lotes);
+
+        private final FilasBatch productosBatch = new FilasBatch("productos",
+            "id, nombre_generico, codigo_producto, tipo_producto, unidad_medida, producto_destino, observaciones, "
+                + "activo",
+            BIGINT, VARCHAR, VARCHAR, VARCHAR, VARCHAR, VARCHAR, VARCHAR, BOOLEAN);
+
+        private final FilasBatch proveedoresBatch = new FilasBatch("proveedores",
+            "id, razon_social, cuit, direccion, ciudad, pais, telefono, email, contacto, observaciones, activo",
+            BIGINT, VARCHAR, VARCHAR, VARCHAR, VARCHAR, VARCHAR, VARCHAR, VARCHAR, VARCHAR, VARCHAR, BOOLEAN);
+
+        private final FilasBatch lotesBatch = new FilasBatch("lotes",
+            "id, version, fecha_creacion, codigo_lote, producto_id, proveedor_id, fabricante_id, pais_origen, "
+                + "orden_produccion_origen, fecha_ingreso, bultos_totales, lote_proveedor, fecha_reanal_prov, "
+                + "fecha_vto_prov, fecha_vto_analisis, fecha_reanal_analisis, fecha_vto_efectiva, "
+                + "fecha_reanal_efectiva, estado, dictamen, lote_origen_id, nro_remito, observaciones, trazado, "
+                + "activo, cantidad_inicial, cantidad_actual, unidad_medida",
+            BIGINT, BIGINT, TIMESTAMP_WITH_TIMEZONE, VARCHAR, BIGINT, BIGINT, BIGINT, VARCHAR,
+            VARCHAR, DATE, INTEGER, VARCHAR, DATE,
+            DATE, DATE, DATE, DATE,
+            DATE, VARCHAR, VARCHAR, BIGINT, VARCHAR, VARCHAR, BOOLEAN,
+            BOOLEAN, DECIMAL, DECIMAL, VARCHAR);
+
+        private final FilasBatch bultosBatch = new FilasBatch("bultos",
+            "id, version, lote_id, nro_bulto, cantidad_inicial, cantidad_actual, unidad_medida, estado, activo",
+            BIGINT, BIGINT, BIGINT, INTEGER, DECIMAL, DECIMAL, VARCHAR, VARCHAR, BOOLEAN);
+
+        private final FilasBatch movimientosBatch = new FilasBatch("movimientos",
+            "id, codigo_movimiento, fecha_creacion, fecha, tipo_movimiento, motivo, lote_id, cantidad, "
+                + "unidad_medida, nro_analisis, orden_produccion, dictamen_inicial, dictamen_final, "
+                + "movimiento_origen_id, observaciones, activo",
+            BIGINT, VARCHAR, TIMESTAMP_WITH_TIMEZONE, DATE, VARCHAR, VARCHAR, BIGINT, DECIMAL,
+            VARCHAR, VARCHAR, VARCHAR, VARCHAR, VARCHAR,
+            BIGINT, VARCHAR, BOOLEAN);
+
+        private final FilasBatch detallesBatch = new FilasBatch("detalle_movimientos",
+            "id, movimiento_id, bulto_id, cantidad, unidad_medida, activo, saldo_retornable",
+            BIGINT, BIGINT, BIGINT, DECIMAL, VARCHAR, BOOLEAN, DECIMAL);
+
+        private final FilasBatch analisisBatch = new FilasBatch("analisis",
+            "id, fecha_creacion, nro_analisis, lote_id, fecha_realizado, fecha_reanalisis, fecha_vencimiento, "
+                + "dictamen, titulo, observaciones, activo",
+            BIGINT, TIMESTAMP_WITH_TIMEZONE, VARCHAR, BIGINT, DATE, DATE, DATE,
+            VARCHAR, DECIMAL, VARCHAR, BOOLEAN);
+
+        private final FilasBatch trazasBatch = new FilasBatch("trazas",
+            "id, fecha_creacion, lote_id, bulto_id, producto_id, nro_traza, estado, observaciones, activo",
+            BIGINT, TIMESTAMP_WITH_TIMEZONE, BIGINT, BIGINT, BIGINT, BIGINT, VARCHAR, VARCHAR, BOOLEAN);
+
+        private final FilasBatch trazasDetallesBatch = new FilasBatch("trazas_detalles",
+            "traza_id, detalle_id", BIGINT, BIGINT);
+
+        private final FilasBatch contadoresBatch = new FilasBatch("traza_contadores",
+            "producto_id, ultimo_nro", BIGINT, BIGINT);
+
+        /** Orden de inserción compatible con las claves foráneas. */
+        private final List<FilasBatch> batches = List.of(productosBatch, proveedoresBatch, lotesBatch, bultosBatch,
+            movimientosBatch, detallesBatch, analisisBatch, trazasBatch, trazasDetallesBatch, contadoresBatch);
+
+        private final Map<String, Long> siguienteId = new LinkedHashMap<>();
+
+        private final List<ProductoSintetico> productosGenerados = new ArrayList<>();
+
+        private long primerProveedorId;
+
+        private long plantaPropiaId;
+
+        private BufferedWriter manifiesto;
+
+        Generacion() {
+            for (String tabla : TABLAS_CON_ID) {
+                siguienteId.put(tabla, maxId(tabla) + 1);
+            }
+        }
+
+        long nuevoId(final String tabla) {
+            return siguienteId.merge(tabla, 1L, Long::sum) - 1;
+        }
+
+        void enviar() {
+            for (FilasBatch batch : batches) {
+                batch.enviar(jdbcTemplate, filasPorBatch);
+            }
+        }
+
+        Map<String, Long> insertadas() {
+            final Map<String, Long> insertadas = new LinkedHashMap<>();
+            for (FilasBatch batch : batches) {
+                insertadas.put(batch.getTabla(), batch.getInsertadas());
+            }
+            return insertadas;
+        }
+
+        // ---------------------------------------------------------------- maestros
+
+        void generarMaestros() {
+            primerProveedorId = siguienteId.get("proveedores");
+            for (int i = 0; i < proveedores; i++) {
+                final long id = nuevoId("proveedores");
+                final int ciudad = random.nextInt(CIUDADES.length);
+                proveedoresBatch.agregar(id, "Proveedor sintético " + id,
+                    "30-%08d-%d".formatted(id % 100_000_000, id % 10), "Calle " + (100 + random.nextInt(9000)),
+                    CIUDADES[ciudad], PAISES[ciudad], null, "compras" + id + "@proveedor.test", null, null, true);
+                manifiesto("PROVEEDOR", id);
+            }
+            final Long conifarma = jdbcTemplate.queryForObject(
+                "select min(id) from proveedores where lower(razon_social) like '%conifarma%'", Long.class);
+            plantaPropiaId = conifarma != null ? conifarma : primerProveedorId;
+
+            for (int i = 0; i < productos; i++) {
+                final long id = nuevoId("productos");
+                final TipoProductoEnum tipo = tipoProducto();
+                final UnidadMedidaEnum unidad = unidadMedida(tipo);
+                final String codigo = tipo.getCodigo() + "-S%06d".formatted(id);
+                final String nombre = NOMBRES[random.nextInt(NOMBRES.length)] + " " + id;
+                productosBatch.agregar(id, nombre, codigo, tipo.name(), unidad.name(),
+                    tipo.isRequiereProductoDestino() ? "Destino sintético " + (id % 50) : null, null, true);
+                productosGenerados.add(new ProductoSintetico(id, codigo, tipo, unidad));
+                if (esCompra(tipo)) {
+                    manifiesto("INGRESO", id, unidad.name(), tipo.name());
+                }
+            }
+        }
+
+        void agregarContadoresTraza() {
+            for (ProductoSintetico producto : productosGenerados) {
+                if (producto.ultimaTraza > 0) {
+                    contadoresBatch.agregar(producto.id, producto.ultimaTraza);
+                }
+            }
+        }
+
+        private TipoProductoEnum tipoProducto() {
+            final int r = random.nextInt(100);
+            if (r < 15) {
+                return TipoProductoEnum.API;
+            } else if (r < 35) {
+                return TipoProductoEnum.EXCIPIENTE;
+            } else if (r < 45) {
+                return TipoProductoEnum.ACOND_PRIMARIO;
+            } else if (r < 55) {
+                return TipoProductoEnum.ACOND_SECUNDARIO;
+            } else if (r < 62) {
+                return TipoProductoEnum.SEMIELABORADO;
+            } else if (r < 70) {
+                return TipoProductoEnum.GRANEL_COMPRIMIDOS;
+            }
+            return TipoProductoEnum.UNIDAD_VENTA;
+        }
+
+        private UnidadMedidaEnum unidadMedida(final TipoProductoEnum tipo) {
+            return switch (tipo) {
+                case API -> random.nextBoolean() ? UnidadMedidaEnum.GRAMO : UnidadMedidaEnum.KILOGRAMO;
+                case EXCIPIENTE -> random.nextInt(4) == 0 ? UnidadMedidaEnum.LITRO : UnidadMedidaEnum.KILOGRAMO;
+                case SEMIELABORADO, GRANEL_MEZCLA_POLVO -> UnidadMedidaEnum.KILOGRAMO;
+                default -> UnidadMedidaEnum.UNIDAD;
+            };
+        }
+
+        private boolean esCompra(final TipoProductoEnum tipo) {
+            return tipo != TipoProductoEnum.UNIDAD_VENTA && !tipo.esSemiElaborado();
+        }
+
+        // ---------------------------------------------------------------- ciclo de vida del lote
+
+        void simularLote(final int indice) {
+            final ProductoSintetico producto = productosGenerados.get(random.nextInt(productosGenerados.size()));
+            final OffsetDateTime creacion = desde.plusSeconds(
+                indice * segundosEntreLotes + random.nextLong(segundosEntreLotes / 2));
+            final LoteSintetico lote = alta(producto, creacion);
+            recorrerCicloDeVida(lote);
+            vencimiento(lote);
+            terminar(lote);
+        }
+
+        /**
+         * Avanza el lote por los CU mientras el reloj no pase de hoy ni de su vencimiento vigente. Parte de los lotes
+         * recientes queda pendiente de cuarentena o de muestreo, como el atraso habitual de control de calidad.
+         */
+        private void recorrerCicloDeVida(final LoteSintetico lote) {
+            final boolean reciente = lote.creacion.isAfter(ahora.minusDays(DIAS_PENDIENTES));
+            final int pendiente = reciente ? random.nextInt(10) : -1;
+            if (lote.producto.tipo == TipoProductoEnum.UNIDAD_VENTA) {
+                lote.cursor = lote.cursor.plusSeconds(30 + random.nextInt(600));
+                trazar(lote);
+            }
+            if (pendiente == 0 || !avanzar(lote, 1, 72)) {
+                return;
+            }
+            cuarentena(lote);
+            if (pendiente == 1 || pendiente == 2 || !avanzar(lote, 1, 48)) {
+                return;
+            }
+            muestreo(lote);
+            if (!avanzar(lote, 24, 24 * 20)) {
+                return;
+            }
+            if (random.nextInt(100) >= 90) {
+                resultado(lote, DictamenEnum.RECHAZADO);
+                if (avanzar(lote, 24, 24 * 15)) {
+                    devolucionCompra(lote);
+                }
+                return;
+            }
+            resultado(lote, DictamenEnum.APROBADO);
+            if (lote.producto.tipo != TipoProductoEnum.UNIDAD_VENTA) {
+                consumos(lote);
+            } else if (avanzar(lote, 1, 72)) {
+                liberacion(lote);
+                ventas(lote);
+            }
+        }
+
+        /**
+         * Avanza el reloj del lote entre minHoras y maxHoras, sin pasar de hoy ni del vencimiento vigente.
+         *
+         * @return false si el próximo paso quedaría fuera de esos límites; el reloj no se modifica
+         */
+        private boolean avanzar(final LoteSintetico lote, final int minHoras, final int maxHoras) {
+            final OffsetDateTime siguiente = lote.cursor.plusMinutes(
+                minHoras * 60L + random.nextInt((maxHoras - minHoras) * 60 + 1)).plusSeconds(1 + random.nextInt(59));
+            OffsetDateTime limite = ahora;
+            final LocalDate vencimiento = lote.vencimientoVigente(hoy);
+            if (vencimiento != null && vencimiento.atStartOfDay().atOffset(ahora.getOffset()).isBefore(limite)) {
+                limite = vencimiento.atStartOfDay().atOffset(ahora.getOffset());
+            }
+            if (!siguiente.isBefore(limite)) {
+                return false;
+            }
+            lote.cursor = siguiente;
+            return true;
+        }
+
+        private LoteSintetico alta(final ProductoSintetico producto, final OffsetDateTime creacion) {
+            final boolean produccion = !esCompra(producto.tipo);
+            final long proveedorId = produccion
+                ? plantaPropiaId
+                : primerProveedorId + random.nextInt(proveedores);
+            final LoteSintetico lote = new LoteSintetico(nuevoId("lotes"),
+                codigoLoteGenerator.generar(producto.codigo, creacion), producto, creacion);
+            lote.proveedorId = proveedorId;
+            lote.pais = produccion ? "Argentina" : PAISES[random.nextInt(PAISES.length)];
+            lote.loteProveedor = "LP-" + Long.toString(lote.id, 36).toUpperCase();
+            lote.nroRemito = produccion ? null : "R-%08d".formatted(lote.id);
+            lote.ordenProduccion = produccion ? "OP-%06d".formatted(lote.id) : null;
+            lote.vencimientoProveedor = creacion.toLocalDate().plusMonths(12 + random.nextInt(25));
+            lote.reanalisisProveedor = creacion.toLocalDate().plusMonths(6 + random.nextInt(6));
+
+            final int cantidadBultos = 1 + random.nextInt(maxBultos);
+            for (int nro = 1; nro <= cantidadBultos; nro++) {
+                lote.agregarBulto(nuevoId("bultos"), nro, cantidadBulto(producto.unidad), EstadoEnum.NUEVO);
+            }
+
+            final long movimientoId = movimiento(lote, TipoMovimientoEnum.ALTA,
+                produccion ? MotivoEnum.PRODUCCION_PROPIA : MotivoEnum.COMPRA, lote.cantidadInicial(), null, null,
+                DictamenEnum.RECIBIDO, DictamenEnum.RECIBIDO, null);
+            for (BultoSintetico bulto : lote.bultos) {
+                detalle(movimientoId, bulto, bulto.inicial);
+            }
+            return lote;
+        }
+
+        private BigDecimal cantidadBulto(final UnidadMedidaEnum unidad) {
+            if (unidad == UnidadMedidaEnum.UNIDAD) {
+                return BigDecimal.valueOf(unidadesPorBulto / 2 + random.nextInt(unidadesPorBulto + 1));
+            }
+            final int maximo = unidad == UnidadMedidaEnum.GRAMO ? 5000 : 50;
+            return BigDecimal.valueOf(1 + random.nextInt(maximo * 100), 2).setScale(4, RoundingMode.UNNECESSARY);
+        }
+
+        /** CU28: numera las unidades de cada bulto a continuación de la última traza del producto. */
+        private void trazar(final LoteSintetico lote) {
+            for (BultoSintetico bulto : lote.bultos) {
+                final int unidades = bulto.actual.intValueExact();
+                for (int i = 0; i < unidades; i++) {
+                    bulto.trazas.add(new TrazaSintetica(nuevoId("trazas"), ++lote.producto.ultimaTraza, lote.id,
+                        bulto.id));
+                }
+            }
+            lote.trazado = true;
+            movimiento(lote, TipoMovimientoEnum.MODIFICACION, MotivoEnum.TRAZADO, null, null, null,
+                lote.dictamen, lote.dictamen, null);
+        }
+
+        /** CU2: pasa a cuarentena y abre el análisis. */
+        private void cuarentena(final LoteSintetico lote) {
+            lote.analisisId = nuevoId("analisis");
+            lote.nroAnalisis = "AN-S%08d".formatted(lote.analisisId);
+            lote.analisisCreacion = lote.cursor;
+            movimiento(lote, TipoMovimientoEnum.MODIFICACION, MotivoEnum.ANALISIS, null, lote.nroAnalisis, null,
+                lote.dictamen, DictamenEnum.CUARENTENA, null);
+            lote.dictamen = DictamenEnum.CUARENTENA;
+        }
+
+        /** CU3: muestra del primer bulto; en lotes trazados consume las primeras trazas. */
+        private void muestreo(final LoteSintetico lote) {
+            final BultoSintetico bulto = lote.bultos.get(0);
+            final BigDecimal cantidad = lote.producto.unidad == UnidadMedidaEnum.UNIDAD
+                ? BigDecimal.valueOf(1 + random.nextInt(3))
+                : bulto.actual.multiply(new BigDecimal("0.01")).setScale(4, RoundingMode.HALF_UP);
+            if (cantidad.signum() == 0 || cantidad.compareTo(bulto.actual) >= 0) {
+                return;
+            }
+            final List<TrazaSintetica> trazas = lote.trazado
+                ? bulto.tomarDisponibles(cantidad.intValueExact(), EstadoEnum.CONSUMIDO)
+                : List.of();
+            bulto.descontar(cantidad);
+            lote.estado = EstadoEnum.EN_USO;
+            final long movimientoId = movimiento(lote, TipoMovimientoEnum.BAJA, MotivoEnum.MUESTREO, cantidad,
+                lote.nroAnalisis, null, lote.dictamen, lote.dictamen, null);
+            final long detalleId = detalle(movimientoId, bulto, cantidad);
+            trazasDetalle(trazas, detalleId);
+        }
+
+        /** CU5/CU6: dictamina el análisis en curso. */
+        private void resultado(final LoteSintetico lote, final DictamenEnum dictamen) {
+            lote.analisisDictamen = dictamen;
+            lote.analisisRealizado = lote.cursor.toLocalDate();
+            if (dictamen == DictamenEnum.APROBADO) {
+                lote.analisisReanalisis = lote.analisisRealizado.plusMonths(6 + random.nextInt(7));
+                lote.analisisVencimiento = lote.vencimientoProveedor.minusDays(random.nextInt(60));
+                lote.titulo = BigDecimal.valueOf(9500 + random.nextInt(500), 2).setScale(4, RoundingMode.UNNECESSARY);
+            }
+            movimiento(lote, TipoMovimientoEnum.MODIFICACION, MotivoEnum.RESULTADO_ANALISIS, null, lote.nroAnalisis,
+                null, lote.dictamen, dictamen, null);
+            lote.dictamen = dictamen;
+        }
+
+        /** CU4: devuelve todo el stock del lote rechazado al proveedor. */
+        private void devolucionCompra(final LoteSintetico lote) {
+            final long movimientoId = movimiento(lote, TipoMovimientoEnum.BAJA, MotivoEnum.DEVOLUCION_COMPRA,
+                lote.cantidadActual(), null, null, lote.dictamen, DictamenEnum.RECHAZADO, null);
+            for (BultoSintetico bulto : lote.bultos) {
+                if (bulto.actual.signum() > 0) {
+                    final List<TrazaSintetica> trazas = bulto.tomarDisponibles(Integer.MAX_VALUE, EstadoEnum.DEVUELTO);
+                    final long detalleId = detalle(movimientoId, bulto, bulto.actual);
+                    trazasDetalle(trazas, detalleId);
+                    bulto.descontar(bulto.actual);
+                }
+                bulto.estado = EstadoEnum.DEVUELTO;
+            }
+            lote.estado = EstadoEnum.DEVUELTO;
+        }
+
+        /** CU21: libera el lote aprobado para la venta. */
+        private void liberacion(final LoteSintetico lote) {
+            movimiento(lote, TipoMovimientoEnum.MODIFICACION, MotivoEnum.LIBERACION, null, null, null,
+                lote.dictamen, DictamenEnum.LIBERADO, null);
+            lote.dictamen = DictamenEnum.LIBERADO;
+        }
+
+        /** CU22: ventas de las primeras trazas disponibles de un bulto; una de cada veinte vuelve (CU23). */
+        private void ventas(final LoteSintetico lote) {
+            final int ventas = 1 + random.nextInt(8);
+            for (int v = 0; v < ventas && lote.cantidadActual().signum() > 0; v++) {
+                if (!avanzar(lote, 12, 24 * 30)) {
+                    return;
+                }
+                final BultoSintetico bulto = lote.bultoConStock(random);
+                final int unidades = 1 + random.nextInt(Math.max(1, bulto.actual.intValue() / 2 + 1));
+                final List<TrazaSintetica> trazas = bulto.tomarDisponibles(unidades, EstadoEnum.VENDIDO);
+                final BigDecimal cantidad = BigDecimal.valueOf(trazas.size());
+                bulto.descontar(cantidad);
+                final long ventaId = movimiento(lote, TipoMovimientoEnum.BAJA, MotivoEnum.VENTA, cantidad, null,
+                    null, lote.dictamen, lote.dictamen, null);
+                lote.actualizarEstado();
+
+                // El detalle de la venta se escribe después de decidir la devolución para cargar su saldo retornable
+                int devueltas = 0;
+                if (random.nextInt(20) == 0 && avanzar(lote, 24, 24 * 10)) {
+                    devueltas = devolucionVenta(lote, bulto, trazas, ventaId);
+                }
+                trazasDetalle(trazas, detalle(ventaId, bulto, cantidad,
+                    cantidad.subtract(BigDecimal.valueOf(devueltas))));
+            }
+        }
+
+        /**
+         * CU23: las trazas devueltas pasan a un lote nuevo "_D_n" con el mismo bulto, en estado DEVUELTO y con el
+         * lote vendido como origen. El stock del lote vendido no cambia. Devuelve la cantidad de trazas devueltas.
+         */
+        private int devolucionVenta(
+            final LoteSintetico origen,
+            final BultoSintetico bultoOrigen,
+            final List<TrazaSintetica> vendidas,
+            final long ventaId) {
+            final int cantidadDevuelta = 1 + random.nextInt(vendidas.size());
+            final LoteSintetico devuelto = new LoteSintetico(nuevoId("lotes"),
+                origen.codigo + "_D_" + (origen.devueltos.size() + 1), origen.producto, origen.cursor);
+            devuelto.copiarDatosDe(origen);
+            devuelto.loteOrigenId = origen.id;
+            devuelto.estado = EstadoEnum.DEVUELTO;
+            devuelto.dictamen = DictamenEnum.DEVOLUCION_CLIENTES;
+            final BultoSintetico bulto = devuelto.agregarBulto(nuevoId("bultos"), bultoOrigen.nro,
+                BigDecimal.valueOf(cantidadDevuelta), EstadoEnum.DEVUELTO);
+
+            final List<TrazaSintetica> trazas = vendidas.subList(0, cantidadDevuelta);
+            for (TrazaSintetica traza : trazas) {
+                bultoOrigen.trazas.remove(traza);
+                traza.loteId = devuelto.id;
+                traza.bultoId = bulto.id;
+                traza.estado = EstadoEnum.DEVUELTO;
+                bulto.trazas.add(traza);
+            }
+            final long movimientoId = movimiento(devuelto, TipoMovimientoEnum.ALTA, MotivoEnum.DEVOLUCION_VENTA,
+                bulto.inicial, null, null, origen.dictamen, DictamenEnum.DEVOLUCION_CLIENTES, ventaId);
+            trazasDetalle(trazas, detalle(movimientoId, bulto, bulto.inicial));
+            origen.devueltos.add(devuelto);
+            return cantidadDevuelta;
+        }
+
+        /** CU7: consumos para producción de bultos completos o parciales. */
+        private void consumos(final LoteSintetico lote) {
+            final int consumos = 1 + random.nextInt(6);
+            for (int c = 0; c < consumos && lote.cantidadActual().signum() > 0; c++) {
+                if (!avanzar(lote, 12, 24 * 45)) {
+                    return;
+                }
+                final BultoSintetico bulto = lote.bultoConStock(random);
+                final BigDecimal cantidad = random.nextBoolean()
+                    ? bulto.actual
+                    : parcial(bulto.actual, lote.producto.unidad);
+                bulto.descontar(cantidad);
+                final long movimientoId = movimiento(lote, TipoMovimientoEnum.BAJA, MotivoEnum.CONSUMO_PRODUCCION,
+                    cantidad, null, "OP-C%07d".formatted(random.nextInt(10_000_000)), lote.dictamen, lote.dictamen,
+                    null);
+                detalle(movimientoId, bulto, cantidad);
+                lote.actualizarEstado();
+            }
+        }
+
+        private BigDecimal parcial(final BigDecimal actual, final UnidadMedidaEnum unidad) {
+            if (unidad == UnidadMedidaEnum.UNIDAD) {
+                return BigDecimal.valueOf(1 + random.nextInt(actual.intValue()));
+            }
+            final BigDecimal parcial = actual.multiply(BigDecimal.valueOf(10 + random.nextInt(80)))
+                .divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
+            return parcial.signum() > 0 ? parcial : actual;
+        }
+
+        /**
+         * CU10: el lote con stock cuyo vencimiento vigente ya pasó queda VENCIDO en esa fecha; un análisis en curso
+         * se cancela.
+         */
+        private void vencimiento(final LoteSintetico lote) {
+            final LocalDate vencimiento = lote.vencimientoVigente(hoy);
+            if (vencimiento == null || !vencimiento.isBefore(hoy) || lote.cantidadActual().signum() == 0) {
+                return;
+            }
+            if (lote.analisisId != null && lote.analisisDictamen == null) {
+                lote.analisisDictamen = DictamenEnum.CANCELADO;
+            }
+            final OffsetDateTime fecha = vencimiento.atStartOfDay().atOffset(ahora.getOffset()).plusHours(4)
+                .plusSeconds(random.nextInt(3600));
+            lote.cursor = fecha.isAfter(lote.cursor) ? fecha : lote.cursor.plusSeconds(1);
+            movimiento(lote, TipoMovimientoEnum.MODIFICACION, MotivoEnum.VENCIMIENTO, null, null, null,
+                lote.dictamen, DictamenEnum.VENCIDO, null);
+            lote.dictamen = DictamenEnum.VENCIDO;
+        }
+
+        // ---------------------------------------------------------------- filas
+
+        private long movimiento(
+            final LoteSintetico lote,
+            final TipoMovimientoEnum tipo,
+            final MotivoEnum motivo,
+            final BigDecimal cantidad,
+            final String nroAnalisis,
+            final String ordenProduccion,
+            final DictamenEnum dictamenInicial,
+            final DictamenEnum dictamenFinal,
+            final Long movimientoOrigenId) {
+            final long id = nuevoId("movimientos");
+            movimientosBatch.agregar(id, lote.codigo + MovimientoCommonUtils.CODE_SEPARATOR + codigo(lote.cursor),
+                lote.cursor, lote.cursor.toLocalDate(), tipo.name(), motivo.name(), lote.id, cantidad,
+                cantidad != null ? lote.producto.unidad.name() : null, nroAnalisis, ordenProduccion,
+                dictamenInicial.name(), dictamenFinal.name(), movimientoOrigenId, null, true);
+            return id;
+        }
+
+        private long detalle(final long movimientoId, final BultoSintetico bulto, final BigDecimal cantidad) {
+            return detalle(movimientoId, bulto, cantidad, null);
+        }
+
+        /** Detalle con saldo retornable; solo los detalles de venta lo llevan. */
+        private long detalle(
+            final long movimientoId,
+            final BultoSintetico bulto,
+            final BigDecimal cantidad,
+            final BigDecimal saldoRetornable) {
+            final long id = nuevoId("detalle_movimientos");
+            detallesBatch.agregar(id, movimientoId, bulto.id, cantidad, bulto.unidad.name(), true, saldoRetornable);
+            return id;
+        }
+
+        private void trazasDetalle(final List<TrazaSintetica> trazas, final long detalleId) {
+            for (TrazaSintetica traza : trazas) {
+                trazasDetallesBatch.agregar(traza.id, detalleId);
+            }
+        }
+
+        /**
+         * Agrega las filas del lote, sus bultos, análisis y trazas, y lo anota en el manifiesto si corresponde.
+         * Los lotes de devolución van después del lote vendido, al que referencian como origen.
+         */
+        private void terminar(final LoteSintetico lote) {
+            final LocalDate vencimientoAnalisis = lote.analisisDictamen != null ? lote.analisisVencimiento : null;
+            final LocalDate reanalisisAnalisis = lote.analisisDictamen != null ? lote.analisisReanalisis : null;
+            lotesBatch.agregar(lote.id, 0L, lote.creacion, lote.codigo, lote.producto.id, lote.proveedorId,
+                lote.proveedorId, lote.pais, lote.ordenProduccion, lote.creacion.toLocalDate(), lote.bultos.size(),
+                lote.loteProveedor, lote.reanalisisProveedor, lote.vencimientoProveedor, vencimientoAnalisis,
+                reanalisisAnalisis,
+                Lote.fechaMasCercana(lote.vencimientoProveedor, vencimientoAnalisis, hoy),
+                Lote.fechaMasCercana(lote.reanalisisProveedor, reanalisisAnalisis, hoy),
+                lote.estado.name(), lote.dictamen.name(), lote.loteOrigenId, lote.nroRemito, null, lote.trazado,
+                true, lote.cantidadInicial(), lote.cantidadActual(), lote.producto.unidad.name());
+
+            for (BultoSintetico bulto : lote.bultos) {
+                bultosBatch.agregar(bulto.id, 0L, lote.id, bulto.nro, bulto.inicial, bulto.actual,
+                    bulto.unidad.name(), bulto.estado.name(), true);
+            }
+            if (lote.analisisId != null) {
+                analisisBatch.agregar(lote.analisisId, lote.analisisCreacion, lote.nroAnalisis, lote.id,
+                    lote.analisisRealizado, lote.analisisReanalisis, lote.analisisVencimiento,
+                    lote.analisisDictamen != null ? lote.analisisDictamen.name() : null, lote.titulo, null, true);
+            }
+            for (BultoSintetico bulto : lote.bultos) {
+                for (TrazaSintetica traza : bulto.trazas) {
+                    trazasBatch.agregar(traza.id, lote.creacion, traza.loteId, traza.bultoId, lote.producto.id,
+                        traza.nro, traza.estado.name(), null, true);
+                }
+            }
+            candidato(lote);
+            for (LoteSintetico devuelto : lote.devueltos) {
+                terminar(devuelto);
+            }
+        }
+
+        private void candidato(final LoteSintetico lote) {
+            if (lote.dictamen == DictamenEnum.RECIBIDO && lote.estado == EstadoEnum.NUEVO) {
+                manifiesto("CUARENTENA", lote.codigo);
+            } else if (lote.dictamen == DictamenEnum.CUARENTENA && !lote.trazado) {
+                for (BultoSintetico bulto : lote.bultos) {
+                    if (bulto.actual.signum() > 0) {
+                        manifiesto("MUESTREO", lote.codigo, lote.nroAnalisis, bulto.nro, bulto.actual.toPlainString(),
+                            bulto.unidad.name());
+                    }
+                }
+            } else if (lote.dictamen == DictamenEnum.LIBERADO && lote.trazado) {
+                for (BultoSintetico bulto : lote.bultos) {
+                    final long disponibles = bulto.trazas.stream()
+                        .filter(t -> t.estado == EstadoEnum.DISPONIBLE)
+                        .count();
+                    if (disponibles > 0) {
+                        manifiesto("VENTA", lote.codigo, bulto.nro, disponibles);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Formato del manifiesto, una línea por candidato separada por ';':
+         * PROVEEDOR;id - INGRESO;productoId;unidad;tipo - CUARENTENA;codigoLote -
+         * MUESTREO;codigoLote;nroAnalisis;nroBulto;cantidadActual;unidad - VENTA;codigoLote;nroBulto;disponibles.
+         */
+        private void manifiesto(final String tipo, final Object... campos) {
+            if (manifiesto == null) {
+                return;
+            }
+            try {
+                manifiesto.write(tipo);
+                for (Object campo : campos) {
+                    manifiesto.write(';');
+                    manifiesto.write(String.valueOf(campo));
+                }
+                manifiesto.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+    }
+
+    private static final class ProductoSintetico {
+
+        private final long id;
+
+        private final String codigo;
+
+        private final TipoProductoEnum tipo;
+
+        private final UnidadMedidaEnum unidad;
+
+        private long ultimaTraza;
+
+        private ProductoSintetico(
+            final long id,
+            final String codigo,
+            final TipoProductoEnum tipo,
+            final UnidadMedidaEnum unidad) {
+            this.id = id;
+            this.codigo = codigo;
+            this.tipo = tipo;
+            this.unidad = unidad;
+        }
+
+    }
+
+    /** Lote en memoria mientras recorre su ciclo de vida; se inserta al terminar. */
+    private static final class LoteSintetico {
+
+        private final long id;
+
+        private final String codigo;
+
+        private final ProductoSintetico producto;
+
+        private final OffsetDateTime creacion;
+
+        private final List<BultoSintetico> bultos = new ArrayList<>();
+
+        /** Lotes de devolución de ventas de este lote (CU23), en orden de creación. */
+        private final List<LoteSintetico> devueltos = new ArrayList<>();
+
+        private OffsetDateTime cursor;
+
+        private long proveedorId;
+
+        private String pais;
+
+        private String loteProveedor;
+
+        private String nroRemito;
+
+        private String ordenProduccion;
+
+        private LocalDate vencimientoProveedor;
+
+        private LocalDate reanalisisProveedor;
+
+        private EstadoEnum estado = EstadoEnum.NUEVO;
+
+        private DictamenEnum dictamen = DictamenEnum.RECIBIDO;
+
+        private boolean trazado;
+
+        private Long loteOrigenId;
+
+        private Long analisisId;
+
+        private String nroAnalisis;
+
+        private OffsetDateTime analisisCreacion;
+
+        private LocalDate analisisRealizado;
+
+        private LocalDate analisisReanalisis;
+
+        private LocalDate analisisVencimiento;
+
+        private DictamenEnum analisisDictamen;
+
+        private BigDecimal titulo;
+
+        private LoteSintetico(
+            final long id,
+            final String codigo,
+            final ProductoSintetico producto,
+            final OffsetDateTime creacion) {
+            this.id = id;
+            this.codigo = codigo;
+            this.producto = producto;
+            this.creacion = creacion;
+            this.cursor = creacion;
+        }
+
+        private BultoSintetico agregarBulto(
+            final long bultoId,
+            final int nro,
+            final BigDecimal cantidad,
+            final EstadoEnum estadoBulto) {
+            final BultoSintetico bulto = new BultoSintetico(bultoId, nro, cantidad, producto.unidad, estadoBulto);
+            bultos.add(bulto);
+            return bulto;
+        }
+
+        /** Copia los datos de origen del lote vendido, como el clon de CU23. */
+        private void copiarDatosDe(final LoteSintetico origen) {
+            proveedorId = origen.proveedorId;
+            pais = origen.pais;
+            loteProveedor = origen.loteProveedor;
+            nroRemito = origen.nroRemito;
+            ordenProduccion = origen.ordenProduccion;
+            vencimientoProveedor = origen.vencimientoProveedor;
+            reanalisisProveedor = origen.reanalisisProveedor;
+            trazado = origen.trazado;
+        }
+
+        private BigDecimal cantidadInicial() {
+            return bultos.stream().map(b -> b.inicial).reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+
+        private BigDecimal cantidadActual() {
+            return bultos.stream().map(b -> b.actual).reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+
+        private BultoSintetico bultoConStock(final Random random) {
+            final List<BultoSintetico> conStock = bultos.stream().filter(b -> b.actual.signum() > 0).toList();
+            return conStock.get(random.nextInt(conStock.size()));
+        }
+
+        private void actualizarEstado() {
+            estado = cantidadActual().signum() == 0 ? EstadoEnum.CONSUMIDO : EstadoEnum.EN_USO;
+        }
+
+        private LocalDate vencimientoVigente(final LocalDate hoy) {
+            return Lote.fechaMasCercana(vencimientoProveedor, analisisDictamen != null ? analisisVencimiento : null,
+                hoy);
+        }
+
+    }
+
+    private static final class BultoSintetico {
+
+        private final long id;
+
+        private final int nro;
+
+        private final BigDecimal inicial;
+
+        private final UnidadMedidaEnum unidad;
+
+        /** Trazas ordenadas por número; las disponibles se toman desde el principio. */
+        private final List<TrazaSintetica> trazas = new ArrayList<>();
+
+        private BigDecimal actual;
+
+        private EstadoEnum estado;
+
+        private BultoSintetico(
+            final long id,
+            final int nro,
+            final BigDecimal inicial,
+            final UnidadMedidaEnum unidad,
+            final EstadoEnum estado) {
+            this.id = id;
+            this.nro = nro;
+            this.inicial = inicial;
+            this.actual = inicial;
+            this.unidad = unidad;
+            this.estado = estado;
+        }
+
+        private List<TrazaSintetica> tomarDisponibles(final int cantidad, final EstadoEnum nuevoEstado) {
+            final List<TrazaSintetica> tomadas = new ArrayList<>();
+            for (TrazaSintetica traza : trazas) {
+                if (tomadas.size() == cantidad) {
+                    break;
+                }
+                if (traza.estado == EstadoEnum.DISPONIBLE) {
+                    traza.estado = nuevoEstado;
+                    tomadas.add(traza);
+                }
+            }
+            return tomadas;
+        }
+
+        private void descontar(final BigDecimal cantidad) {
+            actual = actual.subtract(cantidad);
+            if (estado != EstadoEnum.DEVUELTO) {
+                estado = actual.signum() == 0 ? EstadoEnum.CONSUMIDO : EstadoEnum.EN_USO;
+            }
+        }
+
+    }
+
+    private static final class TrazaSintetica {
+
+        private final long id;
+
+        private final long nro;
+
+        private long loteId;
+
+        private long bultoId;
+
+        private EstadoEnum estado = EstadoEnum.DISPONIBLE;
+
+        private TrazaSintetica(final long id, final long nro, final long loteId, final long bultoId) {
+            this.id = id;
+            this.nro = nro;
+            this.loteId = loteId;
+            this.bultoId = bultoId;
+        }
+
+    }
+
+}
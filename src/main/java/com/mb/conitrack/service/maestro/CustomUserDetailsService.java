@@ -34,11 +34,8 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByUsername(username)
             .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
-        return org.springframework.security.core.userdetails.User.builder()
-            .username(user.getUsername())
-            .password(user.getPassword())
-            .roles(user.getRole().getName()) // Extraer el nombre del rol
-            .build();
+        // El principal lleva la instantánea del usuario para no releerlo en cada chequeo de permisos
+        return new UsuarioPrincipal(user);
     }
 
     @PostConstruct
@@ -0,0 +1,28 @@
+package com.mb.conitrack.service.maestro;
+
+import java.util.List;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.mb.conitrack.dto.UsuarioActualDTO;
+import com.mb.conitrack.entity.maestro.User;
+
+import lombok.Getter;
+
+/**
+ * Principal de Spring Security que además lleva la instantánea del usuario tomada al iniciar sesión.
+ */
+@Getter
+public class UsuarioPrincipal extends org.springframework.security.core.userdetails.User {
+
+    private final UsuarioActualDTO usuarioActual;
+
+    public UsuarioPrincipal(final User user) {
+        super(
+            user.getUsername(),
+            user.getPassword(),
+            List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().getName())));
+        this.usuarioActual = UsuarioActualDTO.de(user);
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.mb.conitrack.utils;
 
+import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
@@ -19,6 +20,7 @@ import com.mb.conitrack.entity.maestro.Proveedor;
 import com.mb.conitrack.enums.DictamenEnum;
 import com.mb.conitrack.enums.EstadoEnum;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.repository.TrazaRepositoryCustom.RangoTraza;
 
 /** Utilidades para creación y población de entidades Lote (CU1, CU20, CU28). */
 public class LoteEntityUtils {
@@ -55,6 +57,16 @@ public class LoteEntityUtils {
         return lote;
     }
 
+    /**
+     * Código de lote con resolución de segundos: L-{codigoProducto}-{yy.MM.dd_HH.mm.ss}. Es solo la base: los lotes
+     * nuevos reciben su código de CodigoLoteGenerator, que agrega el sufijo si la base ya está usada.
+     */
+    public static String codigoLoteBase(final String codigoProducto, final OffsetDateTime fechaYHoraCreacion) {
+        Objects.requireNonNull(codigoProducto, "codigoProducto cannot be null");
+        Objects.requireNonNull(fechaYHoraCreacion, "fechaYHoraCreacion cannot be null");
+        return "L-" + codigoProducto + "-" + fechaYHoraCreacion.format(DateTimeFormatter.ofPattern("yy.MM.dd_HH.mm.ss"));
+    }
+
     /** Busca análisis en curso (activo, sin dictamen, sin fecha realizado). */
     public static Optional<Analisis> getAnalisisEnCurso(final List<Analisis> analisisList) {
         Objects.requireNonNull(analisisList, "analisisList cannot be null");
@@ -73,21 +85,20 @@ public class LoteEntityUtils {
         }
     }
 
-    /** Puebla lote para ingreso por producción interna (CU20). Genera código, crea bultos. */
+    /** Puebla lote para ingreso por producción interna (CU20). Asigna el código generado, crea bultos. */
     public static void populateLoteAltaProduccionPropia(
         final Lote lote,
         final LoteDTO loteDTO,
         final Producto producto,
-        final Proveedor conifarma) {
+        final Proveedor conifarma,
+        final String codigoLote) {
         Objects.requireNonNull(lote, "lote cannot be null");
         Objects.requireNonNull(loteDTO, "loteDTO cannot be null");
         Objects.requireNonNull(producto, "producto cannot be null");
         Objects.requireNonNull(conifarma, "conifarma cannot be null");
+        Objects.requireNonNull(codigoLote, "codigoLote cannot be null");
 
-        lote.setCodigoLote("L-" +
-            producto.getCodigoProducto() +
-            "-" +
-            loteDTO.getFechaYHoraCreacion().format(DateTimeFormatter.ofPattern("yy.MM.dd_HH.mm.ss")));
+        lote.setCodigoLote(codigoLote);
 
         lote.setProducto(producto);
         lote.setProveedor(conifarma);
@@ -108,22 +119,21 @@ public class LoteEntityUtils {
         lote.setUnidadMedida(loteDTO.getUnidadMedida());
     }
 
-    /** Puebla lote para ingreso por compra (CU1). Genera código, determina país origen, crea bultos. */
+    /** Puebla lote para ingreso por compra (CU1). Asigna el código generado, determina país origen, crea bultos. */
     public static void populateLoteAltaStockCompra(
         final Lote lote,
         final LoteDTO loteDTO,
         final Producto producto,
         final Proveedor proveedor,
-        final Proveedor fabricante) {
+        final Proveedor fabricante,
+        final String codigoLote) {
         Objects.requireNonNull(lote, "lote cannot be null");
         Objects.requireNonNull(loteDTO, "loteDTO cannot be null");
         Objects.requireNonNull(producto, "producto cannot be null");
         Objects.requireNonNull(proveedor, "proveedor cannot be null");
+        Objects.requireNonNull(codigoLote, "codigoLote cannot be null");
 
-        lote.setCodigoLote("L-" +
-            producto.getCodigoProducto() +
-            "-" +
-            loteDTO.getFechaYHoraCreacion().format(DateTimeFormatter.ofPattern("yy.MM.dd_HH.mm.ss")));
+        lote.setCodigoLote(codigoLote);
 
         lote.setProducto(producto);
         lote.setProveedor(proveedor);
@@ -216,6 +226,32 @@ public class LoteEntityUtils {
         bulto.setNroBulto(i + 1);
     }
 
+    /**
+     * CU28 - Calcula el rango contiguo de trazas de cada bulto a partir de la traza inicial, sin crear entidades.
+     * Los rangos siguen el orden de bultos del lote, igual que {@link #addTrazasToLote}.
+     */
+    public static List<RangoTraza> calcularRangosTraza(final Lote lote, final long trazaInicial) {
+        Objects.requireNonNull(lote, "lote cannot be null");
+
+        if (lote.getUnidadMedida() != UnidadMedidaEnum.UNIDAD) {
+            throw new IllegalStateException("La traza solo es aplicable a UNIDADES");
+        }
+        if (lote.getCantidadActual().stripTrailingZeros().scale() > 0) {
+            throw new IllegalStateException("La cantidad de Unidades debe ser entero");
+        }
+
+        final List<RangoTraza> rangos = new ArrayList<>();
+        long nroDesde = trazaInicial;
+        for (Bulto bulto : lote.getBultos()) {
+            final long cantidad = bulto.getCantidadActual().longValueExact();
+            if (cantidad > 0) {
+                rangos.add(new RangoTraza(bulto.getId(), nroDesde, cantidad));
+                nroDesde += cantidad;
+            }
+        }
+        return rangos;
+    }
+
     /** CU28 - Agrega trazas al lote y las distribuye entre bultos. Marca lote como trazado. */
     public static void addTrazasToLote(
         final Lote lote,
@@ -13,9 +13,21 @@ import com.mb.conitrack.enums.UnidadMedidaEnum;
 import static com.mb.conitrack.enums.UnidadMedidaEnum.UNIDAD;
 import static com.mb.conitrack.enums.UnidadMedidaEnum.getUnidadesPorTipo;
 
-/** Conversión entre unidades de medida (masa, volumen, longitud, superficie). */
+/**
+ * Conversión entre unidades de medida (masa, volumen, longitud, superficie).
+ * Los factores entre cada par de unidades se precalculan exactos en BigDecimal: convertir es una sola multiplicación
+ * sin error binario, y el único redondeo es el explícito de {@link #ajustarEscalaCantidad} al guardar stock.
+ */
 public class UnidadMedidaUtils {
 
+    /** Escala de las columnas de cantidad (precision 12, scale 4). */
+    public static final int ESCALA_CANTIDAD = 4;
+
+    public static final RoundingMode REDONDEO_CANTIDAD = RoundingMode.HALF_UP;
+
+    /** Factor origen → destino indexado por ordinal: cantidad en destino = cantidad en origen × factor. */
+    private static final BigDecimal[][] FACTORES = calcularFactores();
+
     private UnidadMedidaUtils() {
         throw new UnsupportedOperationException("Utility class cannot be instantiated");
     }
@@ -32,9 +44,64 @@ public class UnidadMedidaUtils {
         if (unidadOrigen == unidadDestino) {
             return cantidad;
         }
-        final double factorOrigen = unidadOrigen.getFactorConversion();
-        final double factorDestino = unidadDestino.getFactorConversion();
-        return cantidad.multiply(BigDecimal.valueOf(factorOrigen / factorDestino));
+        return cantidad.multiply(FACTORES[unidadOrigen.ordinal()][unidadDestino.ordinal()]);
+    }
+
+    /**
+     * Suma cantidades expresadas en distintas unidades (por ejemplo, las de cada bulto) convertidas a unidadDestino.
+     * Acumula un subtotal por unidad de origen y convierte cada subtotal una sola vez; las posiciones con cantidad o
+     * unidad null se ignoran.
+     */
+    public static BigDecimal sumarCantidadesConvertidas(
+        final List<BigDecimal> cantidades,
+        final List<UnidadMedidaEnum> unidades,
+        final UnidadMedidaEnum unidadDestino) {
+        Objects.requireNonNull(cantidades, "cantidades cannot be null");
+        Objects.requireNonNull(unidades, "unidades cannot be null");
+        Objects.requireNonNull(unidadDestino, "unidadDestino cannot be null");
+
+        final BigDecimal[] subtotales = new BigDecimal[FACTORES.length];
+        for (int i = 0; i < cantidades.size(); i++) {
+            final BigDecimal cantidad = cantidades.get(i);
+            final UnidadMedidaEnum unidad = unidades.get(i);
+            if (cantidad == null || unidad == null) {
+                continue;
+            }
+            final int origen = unidad.ordinal();
+            subtotales[origen] = subtotales[origen] == null ? cantidad : subtotales[origen].add(cantidad);
+        }
+        BigDecimal suma = BigDecimal.ZERO;
+        for (int origen = 0; origen < subtotales.length; origen++) {
+            if (subtotales[origen] != null) {
+                suma = suma.add(origen == unidadDestino.ordinal()
+                    ? subtotales[origen]
+                    : subtotales[origen].multiply(FACTORES[origen][unidadDestino.ordinal()]));
+            }
+        }
+        return suma;
+    }
+
+    /**
+     * Lleva una cantidad calculada a la escala de las columnas de cantidad, redondeando con {@link #REDONDEO_CANTIDAD}
+     * solo si tiene más decimales que {@link #ESCALA_CANTIDAD}.
+     */
+    public static BigDecimal ajustarEscalaCantidad(final BigDecimal cantidad) {
+        return cantidad.scale() > ESCALA_CANTIDAD ? cantidad.setScale(ESCALA_CANTIDAD, REDONDEO_CANTIDAD) : cantidad;
+    }
+
+    private static BigDecimal[][] calcularFactores() {
+        final UnidadMedidaEnum[] unidades = UnidadMedidaEnum.values();
+        final BigDecimal[][] factores = new BigDecimal[unidades.length][unidades.length];
+        for (UnidadMedidaEnum origen : unidades) {
+            for (UnidadMedidaEnum destino : unidades) {
+                // Los factores son potencias de 10: la división es exacta
+                final BigDecimal factor = origen.getFactorConversionExacto()
+                    .divide(destino.getFactorConversionExacto())
+                    .stripTrailingZeros();
+                factores[origen.ordinal()][destino.ordinal()] = factor.scale() < 0 ? factor.setScale(0) : factor;
+            }
+        }
+        return factores;
     }
 
     /** Obtiene la unidad menor (menor factor de conversión) entre dos unidades del mismo tipo. */
@@ -92,14 +159,9 @@ public class UnidadMedidaUtils {
         Objects.requireNonNull(dto, "dto cannot be null");
         Objects.requireNonNull(lote, "lote cannot be null");
 
-        final BigDecimal cantidadLote = lote.getCantidadActual();
-        final double factorLote = lote.getUnidadMedida().getFactorConversion();
-        final double factorDto = dto.getUnidadMedida().getFactorConversion();
-
-        // Convert the DTO quantity to the lot's unit
-        BigDecimal cantidadDtoConvertida = dto.getCantidad().multiply(BigDecimal.valueOf(factorDto / factorLote));
-
-        return cantidadLote.subtract(cantidadDtoConvertida);
+        final BigDecimal cantidadDtoConvertida =
+            convertirCantidadEntreUnidades(dto.getUnidadMedida(), dto.getCantidad(), lote.getUnidadMedida());
+        return ajustarEscalaCantidad(lote.getCantidadActual().subtract(cantidadDtoConvertida));
     }
 
     /** Suma cantidad de movimiento a lote (convirtiendo unidades automáticamente). */
@@ -107,14 +169,9 @@ public class UnidadMedidaUtils {
         Objects.requireNonNull(dto, "dto cannot be null");
         Objects.requireNonNull(lote, "lote cannot be null");
 
-        final BigDecimal cantidadLote = lote.getCantidadActual();
-        final double factorLote = lote.getUnidadMedida().getFactorConversion();
-        final double factorDto = dto.getUnidadMedida().getFactorConversion();
-
-        // Convert the DTO quantity to the lot's unit
-        BigDecimal cantidadDtoConvertida = dto.getCantidad().multiply(BigDecimal.valueOf(factorDto / factorLote));
-
-        return cantidadLote.add(cantidadDtoConvertida);
+        final BigDecimal cantidadDtoConvertida =
+            convertirCantidadEntreUnidades(dto.getUnidadMedida(), dto.getCantidad(), lote.getUnidadMedida());
+        return ajustarEscalaCantidad(lote.getCantidadActual().add(cantidadDtoConvertida));
     }
 
     /**
@@ -125,21 +182,16 @@ public class UnidadMedidaUtils {
      *
      * @param dto   Movement to apply, expressed in its own unit (must not be null)
      * @param bulto Affected bulto with its current quantity and unit (must not be null)
-     * @return New resulting quantity for the bulto after the movement
+     * @return New resulting quantity for the bulto after the movement, with at most {@link #ESCALA_CANTIDAD} decimals
      * @throws NullPointerException if any parameter is null
      */
     public static BigDecimal restarMovimientoConvertido(final MovimientoDTO dto, final Bulto bulto) {
         Objects.requireNonNull(dto, "dto cannot be null");
         Objects.requireNonNull(bulto, "bulto cannot be null");
 
-        final BigDecimal cantidadBulto = bulto.getCantidadActual();
-        final double factorBulto = bulto.getUnidadMedida().getFactorConversion();
-        final double factorDto = dto.getUnidadMedida().getFactorConversion();
-
-        // Convert the DTO quantity to the bulto's unit
-        BigDecimal cantidadDtoConvertida = dto.getCantidad().multiply(BigDecimal.valueOf(factorDto / factorBulto));
-
-        return cantidadBulto.subtract(cantidadDtoConvertida);
+        final BigDecimal cantidadDtoConvertida =
+            convertirCantidadEntreUnidades(dto.getUnidadMedida(), dto.getCantidad(), bulto.getUnidadMedida());
+        return ajustarEscalaCantidad(bulto.getCantidadActual().subtract(cantidadDtoConvertida));
     }
 
     /**
@@ -150,21 +202,16 @@ public class UnidadMedidaUtils {
      *
      * @param dto   Movement to apply, expressed in its own unit (must not be null)
      * @param bulto Affected bulto with its current quantity and unit (must not be null)
-     * @return New resulting quantity for the bulto after the movement
+     * @return New resulting quantity for the bulto after the movement, with at most {@link #ESCALA_CANTIDAD} decimals
      * @throws NullPointerException if any parameter is null
      */
     public static BigDecimal sumarMovimientoConvertido(final MovimientoDTO dto, final Bulto bulto) {
         Objects.requireNonNull(dto, "dto cannot be null");
         Objects.requireNonNull(bulto, "bulto cannot be null");
 
-        final BigDecimal cantidadBulto = bulto.getCantidadActual();
-        final double factorBulto = bulto.getUnidadMedida().getFactorConversion();
-        final double factorDto = dto.getUnidadMedida().getFactorConversion();
-
-        // Convert the DTO quantity to the bulto's unit
-        BigDecimal cantidadDtoConvertida = dto.getCantidad().multiply(BigDecimal.valueOf(factorDto / factorBulto));
-
-        return cantidadBulto.add(cantidadDtoConvertida);
+        final BigDecimal cantidadDtoConvertida =
+            convertirCantidadEntreUnidades(dto.getUnidadMedida(), dto.getCantidad(), bulto.getUnidadMedida());
+        return ajustarEscalaCantidad(bulto.getCantidadActual().add(cantidadDtoConvertida));
     }
 
     /**
@@ -189,8 +236,8 @@ public class UnidadMedidaUtils {
             ((cantidad.compareTo(BigDecimal.TEN) < 0 && cantidad.stripTrailingZeros().scale() > 2))) {
             for (int i = indexActual + 1; i < unidadesCompatibles.size(); i++) {
                 UnidadMedidaEnum menor = unidadesCompatibles.get(i);
-                double factor = unidadMedida.getFactorConversion() / menor.getFactorConversion();
-                BigDecimal convertida = cantidad.multiply(BigDecimal.valueOf(factor)).setScale(4, RoundingMode.HALF_UP);
+                BigDecimal convertida = convertirCantidadEntreUnidades(unidadMedida, cantidad, menor)
+                    .setScale(4, RoundingMode.HALF_UP);
                 if (convertida.compareTo(BigDecimal.ONE) > 0 && convertida.stripTrailingZeros().scale() <= 2 ||
                     i == unidadesCompatibles.size() - 1) {
                     return menor;
@@ -203,8 +250,7 @@ public class UnidadMedidaUtils {
         if (potenciaBase10 > 2 && cantidad.stripTrailingZeros().scale() < 1) {
             for (int i = indexActual - 1; i >= 0; i--) {
                 UnidadMedidaEnum mayor = unidadesCompatibles.get(i);
-                double factor = unidadMedida.getFactorConversion() / mayor.getFactorConversion();
-                BigDecimal convertida = cantidad.multiply(BigDecimal.valueOf(factor));
+                BigDecimal convertida = convertirCantidadEntreUnidades(unidadMedida, cantidad, mayor);
                 if (convertida.compareTo(new BigDecimal(100)) < 0 && convertida.stripTrailingZeros().scale() <= 3 ||
                     i == 0) {
                     return mayor;
@@ -0,0 +1,50 @@
+-- Migración V3: Representación compacta de trazas por rangos
+-- Descripción:
+--   1. Crea tabla traza_rangos: tramos contiguos de trazas activas de un bulto con el mismo estado
+--   2. Crea índices para consultas de disponibles por bulto
+--   3. Carga los rangos a partir de las trazas existentes
+-- Habilitar luego con conitrack.trazado.rangos-habilitados=true.
+-- Si se vuelve a deshabilitar, repetir el paso 3 antes de rehabilitar (los rangos dejan de mantenerse).
+
+-- ============================================
+-- 1. TABLA TRAZA_RANGOS
+-- ============================================
+CREATE TABLE traza_rangos
+(
+    id             BIGSERIAL PRIMARY KEY,
+    lote_id        BIGINT      NOT NULL,
+    bulto_id       BIGINT      NOT NULL,
+    producto_id    BIGINT      NOT NULL,
+    nro_desde      BIGINT      NOT NULL,
+    nro_hasta      BIGINT      NOT NULL,
+    estado         VARCHAR(30) NOT NULL,
+    fecha_creacion TIMESTAMPTZ NOT NULL,
+    CONSTRAINT fk_traza_rangos_lote
+        FOREIGN KEY (lote_id) REFERENCES lotes (id),
+    CONSTRAINT fk_traza_rangos_bulto
+        FOREIGN KEY (bulto_id) REFERENCES bultos (id),
+    CONSTRAINT fk_traza_rangos_producto
+        FOREIGN KEY (producto_id) REFERENCES productos (id),
+    CONSTRAINT ck_traza_rangos_orden CHECK (nro_desde <= nro_hasta)
+);
+
+-- ============================================
+-- 2. ÍNDICES
+-- ============================================
+CREATE INDEX IF NOT EXISTS idx_traza_rangos_bulto_estado ON traza_rangos (bulto_id, estado, nro_desde);
+CREATE INDEX IF NOT EXISTS idx_traza_rangos_lote_id ON traza_rangos (lote_id);
+
+-- ============================================
+-- 3. CARGA INICIAL
+-- ============================================
+-- Dentro de cada (bulto, estado), nro_traza - row_number() es constante a lo largo de un tramo contiguo
+DELETE FROM traza_rangos;
+INSERT INTO traza_rangos (lote_id, bulto_id, producto_id, nro_desde, nro_hasta, estado, fecha_creacion)
+SELECT x.lote_id, x.bulto_id, x.producto_id, MIN(x.nro_traza), MAX(x.nro_traza), x.estado, MIN(x.fecha_creacion)
+FROM (
+    SELECT t.lote_id, t.bulto_id, t.producto_id, t.nro_traza, t.estado, t.fecha_creacion,
+           t.nro_traza - ROW_NUMBER() OVER (PARTITION BY t.bulto_id, t.estado ORDER BY t.nro_traza) AS tramo
+    FROM trazas t
+    WHERE t.activo = TRUE
+) x
+GROUP BY x.lote_id, x.bulto_id, x.producto_id, x.estado, x.tramo;
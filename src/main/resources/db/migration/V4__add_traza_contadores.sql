@@ -0,0 +1,25 @@
+-- Migración V4: Numerador de trazas por producto
+-- Descripción:
+--   1. Crea tabla traza_contadores con el último número de traza reservado por producto
+--   2. Inicializa los contadores con el máximo número de traza existente
+-- Los productos sin contador se inicializan de la misma forma en la primera reserva.
+
+-- ============================================
+-- 1. TABLA TRAZA_CONTADORES
+-- ============================================
+CREATE TABLE traza_contadores
+(
+    producto_id BIGINT PRIMARY KEY,
+    ultimo_nro  BIGINT NOT NULL,
+    CONSTRAINT fk_traza_contadores_producto
+        FOREIGN KEY (producto_id) REFERENCES productos (id)
+);
+
+-- ============================================
+-- 2. CARGA INICIAL
+-- ============================================
+INSERT INTO traza_contadores (producto_id, ultimo_nro)
+SELECT t.producto_id, MAX(t.nro_traza)
+FROM trazas t
+WHERE t.activo = TRUE
+GROUP BY t.producto_id;
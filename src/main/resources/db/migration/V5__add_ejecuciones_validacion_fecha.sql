@@ -0,0 +1,30 @@
+-- Migración V5: Ejecuciones del proceso de validación de fechas (CU9/CU10)
+-- Descripción:
+--   1. Crea tabla ejecuciones_validacion_fecha con el avance (fase y cursor) y las métricas de cada corrida
+--   2. Crea índices para ubicar la ejecución del día y los análisis por fecha
+
+-- ============================================
+-- 1. TABLA EJECUCIONES_VALIDACION_FECHA
+-- ============================================
+CREATE TABLE ejecuciones_validacion_fecha
+(
+    id                      BIGSERIAL PRIMARY KEY,
+    fecha                   DATE        NOT NULL,
+    fecha_inicio            TIMESTAMPTZ NOT NULL,
+    fecha_fin               TIMESTAMPTZ,
+    estado                  VARCHAR(30) NOT NULL,
+    fase                    VARCHAR(30) NOT NULL,
+    cursor_lote_id          BIGINT      NOT NULL DEFAULT 0,
+    lotes_evaluados         BIGINT      NOT NULL DEFAULT 0,
+    lotes_analisis_expirado BIGINT      NOT NULL DEFAULT 0,
+    lotes_vencidos          BIGINT      NOT NULL DEFAULT 0,
+    chunks                  INT         NOT NULL DEFAULT 0,
+    duracion_ms             BIGINT      NOT NULL DEFAULT 0,
+    error                   TEXT
+);
+
+-- ============================================
+-- 2. ÍNDICES
+-- ============================================
+CREATE INDEX IF NOT EXISTS idx_ejecuciones_validacion_fecha ON ejecuciones_validacion_fecha (fecha, id);
+CREATE INDEX IF NOT EXISTS idx_analisis_lote_fechas ON analisis (lote_id, fecha_reanalisis, fecha_vencimiento);
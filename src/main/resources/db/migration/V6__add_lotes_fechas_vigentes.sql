@@ -0,0 +1,56 @@
+-- Migración V6: Fechas vigentes materializadas en lotes
+-- Descripción:
+--   1. Agrega a lotes las fechas de análisis vigentes y las fechas efectivas (la más cercana a hoy entre
+--      proveedor y análisis)
+--   2. Carga los valores iniciales desde la tabla analisis
+--   3. Crea índices para las búsquedas por rango de fecha efectiva (CU9/CU10 y listado de fechas)
+-- Las fechas efectivas dependen del día: la validación nocturna las refresca antes de procesar.
+
+-- ============================================
+-- 1. COLUMNAS
+-- ============================================
+ALTER TABLE lotes ADD COLUMN IF NOT EXISTS fecha_vto_analisis DATE;
+ALTER TABLE lotes ADD COLUMN IF NOT EXISTS fecha_reanal_analisis DATE;
+ALTER TABLE lotes ADD COLUMN IF NOT EXISTS fecha_vto_efectiva DATE;
+ALTER TABLE lotes ADD COLUMN IF NOT EXISTS fecha_reanal_efectiva DATE;
+
+-- ============================================
+-- 2. CARGA INICIAL
+-- ============================================
+UPDATE lotes
+SET fecha_vto_analisis    = (SELECT a.fecha_vencimiento
+                             FROM analisis a
+                             WHERE a.lote_id = lotes.id
+                               AND a.activo = TRUE
+                               AND a.dictamen IS NOT NULL
+                               AND a.fecha_vencimiento IS NOT NULL
+                             ORDER BY a.fecha_creacion DESC
+                             LIMIT 1),
+    fecha_reanal_analisis = (SELECT MIN(a.fecha_reanalisis)
+                             FROM analisis a
+                             WHERE a.lote_id = lotes.id
+                               AND a.activo = TRUE
+                               AND a.dictamen IS NOT NULL);
+
+-- Ante empate de distancia a hoy se prefiere la fecha del análisis
+UPDATE lotes
+SET fecha_vto_efectiva    = CASE
+                                WHEN fecha_vto_analisis IS NULL THEN fecha_vto_prov
+                                WHEN fecha_vto_prov IS NULL THEN fecha_vto_analisis
+                                WHEN ABS(fecha_vto_analisis - CURRENT_DATE) <= ABS(fecha_vto_prov - CURRENT_DATE)
+                                    THEN fecha_vto_analisis
+                                ELSE fecha_vto_prov
+                            END,
+    fecha_reanal_efectiva = CASE
+                                WHEN fecha_reanal_analisis IS NULL THEN fecha_reanal_prov
+                                WHEN fecha_reanal_prov IS NULL THEN fecha_reanal_analisis
+                                WHEN ABS(fecha_reanal_analisis - CURRENT_DATE) <= ABS(fecha_reanal_prov - CURRENT_DATE)
+                                    THEN fecha_reanal_analisis
+                                ELSE fecha_reanal_prov
+                            END;
+
+-- ============================================
+-- 3. ÍNDICES
+-- ============================================
+CREATE INDEX IF NOT EXISTS idx_lotes_fecha_vto_efectiva ON lotes (fecha_vto_efectiva, id);
+CREATE INDEX IF NOT EXISTS idx_lotes_fecha_reanal_efectiva ON lotes (fecha_reanal_efectiva, id);
@@ -0,0 +1,8 @@
+-- Migración V7: Control de concurrencia optimista en lotes y bultos
+-- Descripción:
+--   Agrega la columna de versión que Hibernate incrementa en cada actualización (@Version).
+--   Dos bajas concurrentes sobre el mismo lote o bulto ya no pueden pisarse el stock: la segunda falla al
+--   confirmar y el CU se reintenta con los datos actualizados.
+
+ALTER TABLE lotes ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE bultos ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
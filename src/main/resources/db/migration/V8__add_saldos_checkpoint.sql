@@ -0,0 +1,24 @@
+-- Migración V8: Checkpoints de saldo para la consulta de stock a una fecha
+-- Descripción:
+--   1. Crea tabla saldos_checkpoint con el saldo de cada bulto, lote y producto a una fecha de corte
+--   2. Crea índices para ubicar el checkpoint más cercano y los movimientos por fecha de creación
+
+-- ============================================
+-- 1. TABLA SALDOS_CHECKPOINT
+-- ============================================
+CREATE TABLE saldos_checkpoint
+(
+    id            BIGSERIAL PRIMARY KEY,
+    nivel         VARCHAR(20)    NOT NULL,
+    entidad_id    BIGINT         NOT NULL,
+    fecha_corte   TIMESTAMPTZ    NOT NULL,
+    cantidad      NUMERIC(19, 4) NOT NULL,
+    unidad_medida VARCHAR(50)    NOT NULL,
+    CONSTRAINT uk_saldos_checkpoint UNIQUE (nivel, entidad_id, fecha_corte)
+);
+
+-- ============================================
+-- 2. ÍNDICES
+-- ============================================
+CREATE INDEX IF NOT EXISTS idx_saldos_checkpoint_corte ON saldos_checkpoint (fecha_corte);
+CREATE INDEX IF NOT EXISTS idx_movs_fecha_creacion ON movimientos (fecha_creacion);
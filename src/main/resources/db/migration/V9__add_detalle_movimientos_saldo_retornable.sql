@@ -0,0 +1,28 @@
+-- Migración V9: Saldo retornable en los detalles de venta
+-- Descripción:
+--   1. Agrega a detalle_movimientos el saldo retornable: unidades de cada bulto vendido que todavía pueden volver
+--      por devolución (CU23) o recall (CU24). Solo se usa en detalles de VENTA
+--   2. Carga el saldo inicial: cantidad vendida menos lo ya retornado por devoluciones y recalls activos
+-- Los máximos de retorno se leen con los índices existentes idx_movs_codigo e idx_detmov_mov_id.
+
+-- ============================================
+-- 1. COLUMNAS
+-- ============================================
+ALTER TABLE detalle_movimientos ADD COLUMN IF NOT EXISTS saldo_retornable NUMERIC(12, 4);
+
+-- ============================================
+-- 2. CARGA INICIAL
+-- ============================================
+UPDATE detalle_movimientos
+SET saldo_retornable = cantidad - COALESCE((SELECT SUM(dr.cantidad)
+                                            FROM movimientos mr
+                                                     JOIN detalle_movimientos dr ON dr.movimiento_id = mr.id
+                                                     JOIN bultos br ON br.id = dr.bulto_id
+                                                     JOIN bultos bv ON bv.id = detalle_movimientos.bulto_id
+                                            WHERE mr.movimiento_origen_id = detalle_movimientos.movimiento_id
+                                              AND mr.activo = TRUE
+                                              AND mr.tipo_movimiento = 'ALTA'
+                                              AND br.nro_bulto = bv.nro_bulto), 0)
+WHERE movimiento_id IN (SELECT m.id
+                        FROM movimientos m
+                        WHERE m.motivo = 'VENTA');
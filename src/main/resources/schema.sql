@@ -2,6 +2,8 @@
 -- DROP INDEX IF EXISTS idx_lotes_codigo_activo;
 -- DROP INDEX IF EXISTS idx_lotes_fecha_ingreso;
 -- DROP INDEX IF EXISTS idx_lotes_lote_origen_id;
+-- DROP INDEX IF EXISTS idx_lotes_fecha_vto_efectiva;
+-- DROP INDEX IF EXISTS idx_lotes_fecha_reanal_efectiva;
 -- DROP INDEX IF EXISTS idx_bultos_lote_id;
 -- DROP INDEX IF EXISTS idx_bultos_lote_nro;
 -- DROP INDEX IF EXISTS idx_movs_fecha;
@@ -28,6 +30,10 @@
 -- DROP INDEX IF EXISTS uk_bulto_por_lote_activo;
 
 DROP TABLE IF EXISTS trazas_detalles CASCADE;
+DROP TABLE IF EXISTS traza_rangos CASCADE;
+DROP TABLE IF EXISTS traza_contadores CASCADE;
+DROP TABLE IF EXISTS ejecuciones_validacion_fecha CASCADE;
+DROP TABLE IF EXISTS saldos_checkpoint CASCADE;
 DROP TABLE IF EXISTS detalle_movimientos CASCADE;
 DROP TABLE IF EXISTS trazas CASCADE;
 DROP TABLE IF EXISTS analisis CASCADE;
@@ -129,6 +135,10 @@ CREATE TABLE lotes
     lote_proveedor          TEXT        NOT NULL,
     fecha_reanal_prov       DATE,
     fecha_vto_prov          DATE,
+    fecha_vto_analisis      DATE,
+    fecha_reanal_analisis   DATE,
+    fecha_vto_efectiva      DATE,
+    fecha_reanal_efectiva   DATE,
     estado                  VARCHAR(30) NOT NULL,
     dictamen                TEXT        NOT NULL,
     lote_origen_id          BIGINT,
@@ -137,6 +147,7 @@ CREATE TABLE lotes
     observaciones           TEXT,
     trazado                 BOOLEAN              DEFAULT FALSE,
     activo                  BOOLEAN     NOT NULL DEFAULT TRUE,
+    version                 BIGINT      NOT NULL DEFAULT 0,
     CONSTRAINT fk_producto_lote
         FOREIGN KEY (producto_id) REFERENCES productos (id),
     CONSTRAINT fk_lote_origen_lote
@@ -160,6 +171,7 @@ CREATE TABLE bultos
 
     estado           VARCHAR(30)    NOT NULL,
     activo           BOOLEAN        NOT NULL DEFAULT TRUE,
+    version          BIGINT         NOT NULL DEFAULT 0,
 
     CONSTRAINT fk_bultos_lote
         FOREIGN KEY (lote_id) REFERENCES lotes (id)
@@ -191,12 +203,13 @@ CREATE TABLE movimientos
 
 CREATE TABLE detalle_movimientos
 (
-    id            BIGSERIAL PRIMARY KEY,
-    movimiento_id BIGINT         NOT NULL,
-    bulto_id      BIGINT         NOT NULL,
-    cantidad      NUMERIC(12, 4) NOT NULL,
-    unidad_medida VARCHAR(50)    NOT NULL,
-    activo        BOOLEAN        NOT NULL DEFAULT TRUE,
+    id               BIGSERIAL PRIMARY KEY,
+    movimiento_id    BIGINT         NOT NULL,
+    bulto_id         BIGINT         NOT NULL,
+    cantidad         NUMERIC(12, 4) NOT NULL,
+    unidad_medida    VARCHAR(50)    NOT NULL,
+    activo           BOOLEAN        NOT NULL DEFAULT TRUE,
+    saldo_retornable NUMERIC(12, 4),
 
     CONSTRAINT uk_mov_bulto UNIQUE (movimiento_id, bulto_id),
 
@@ -253,20 +266,83 @@ CREATE TABLE trazas_detalles
         FOREIGN KEY (detalle_id) REFERENCES detalle_movimientos (id)
 );
 
+CREATE TABLE traza_rangos
+(
+    id             BIGSERIAL PRIMARY KEY,
+    lote_id        BIGINT      NOT NULL,
+    bulto_id       BIGINT      NOT NULL,
+    producto_id    BIGINT      NOT NULL,
+    nro_desde      BIGINT      NOT NULL,
+    nro_hasta      BIGINT      NOT NULL,
+    estado         VARCHAR(30) NOT NULL,
+    fecha_creacion TIMESTAMPTZ NOT NULL,
+    CONSTRAINT fk_traza_rangos_lote
+        FOREIGN KEY (lote_id) REFERENCES lotes (id),
+    CONSTRAINT fk_traza_rangos_bulto
+        FOREIGN KEY (bulto_id) REFERENCES bultos (id),
+    CONSTRAINT fk_traza_rangos_producto
+        FOREIGN KEY (producto_id) REFERENCES productos (id),
+    CONSTRAINT ck_traza_rangos_orden CHECK (nro_desde <= nro_hasta)
+);
+
+CREATE TABLE traza_contadores
+(
+    producto_id BIGINT PRIMARY KEY,
+    ultimo_nro  BIGINT NOT NULL,
+    CONSTRAINT fk_traza_contadores_producto
+        FOREIGN KEY (producto_id) REFERENCES productos (id)
+);
+
+CREATE TABLE ejecuciones_validacion_fecha
+(
+    id                      BIGSERIAL PRIMARY KEY,
+    fecha                   DATE        NOT NULL,
+    fecha_inicio            TIMESTAMPTZ NOT NULL,
+    fecha_fin               TIMESTAMPTZ,
+    estado                  VARCHAR(30) NOT NULL,
+    fase                    VARCHAR(30) NOT NULL,
+    cursor_lote_id          BIGINT      NOT NULL DEFAULT 0,
+    lotes_evaluados         BIGINT      NOT NULL DEFAULT 0,
+    lotes_analisis_expirado BIGINT      NOT NULL DEFAULT 0,
+    lotes_vencidos          BIGINT      NOT NULL DEFAULT 0,
+    chunks                  INT         NOT NULL DEFAULT 0,
+    duracion_ms             BIGINT      NOT NULL DEFAULT 0,
+    error                   TEXT
+);
+
+CREATE TABLE saldos_checkpoint
+(
+    id            BIGSERIAL PRIMARY KEY,
+    nivel         VARCHAR(20)    NOT NULL,
+    entidad_id    BIGINT         NOT NULL,
+    fecha_corte   TIMESTAMPTZ    NOT NULL,
+    cantidad      NUMERIC(19, 4) NOT NULL,
+    unidad_medida VARCHAR(50)    NOT NULL,
+    CONSTRAINT uk_saldos_checkpoint UNIQUE (nivel, entidad_id, fecha_corte)
+);
+
 CREATE INDEX IF NOT EXISTS idx_lotes_codigo_activo ON lotes (codigo_lote, activo);
 CREATE INDEX IF NOT EXISTS idx_lotes_fecha_ingreso ON lotes (fecha_ingreso);
 CREATE INDEX IF NOT EXISTS idx_lotes_lote_origen_id ON lotes (lote_origen_id);
+CREATE INDEX IF NOT EXISTS idx_lotes_fecha_vto_efectiva ON lotes (fecha_vto_efectiva, id);
+CREATE INDEX IF NOT EXISTS idx_lotes_fecha_reanal_efectiva ON lotes (fecha_reanal_efectiva, id);
 CREATE INDEX IF NOT EXISTS idx_bultos_lote_id ON bultos (lote_id);
 CREATE INDEX IF NOT EXISTS idx_bultos_lote_nro ON bultos (lote_id, nro_bulto);
 CREATE INDEX IF NOT EXISTS idx_movs_fecha ON movimientos (fecha);
 CREATE INDEX IF NOT EXISTS idx_movs_codigo ON movimientos (codigo_movimiento);
 CREATE INDEX IF NOT EXISTS idx_movs_lote_id ON movimientos (lote_id);
 CREATE INDEX IF NOT EXISTS idx_movs_mov_origen_id ON movimientos (movimiento_origen_id);
+CREATE INDEX IF NOT EXISTS idx_movs_fecha_creacion ON movimientos (fecha_creacion);
 CREATE INDEX IF NOT EXISTS idx_analisis_nro ON analisis (nro_analisis);
 CREATE INDEX IF NOT EXISTS idx_analisis_lote_id ON analisis (lote_id);
+CREATE INDEX IF NOT EXISTS idx_analisis_lote_fechas ON analisis (lote_id, fecha_reanalisis, fecha_vencimiento);
 CREATE INDEX IF NOT EXISTS idx_trazas_lote_id ON trazas (lote_id);
 CREATE INDEX IF NOT EXISTS idx_trazas_bulto_nro ON trazas (bulto_id, nro_traza);
 CREATE INDEX IF NOT EXISTS idx_trazas_producto_id ON trazas (producto_id);
+CREATE INDEX IF NOT EXISTS idx_traza_rangos_bulto_estado ON traza_rangos (bulto_id, estado, nro_desde);
+CREATE INDEX IF NOT EXISTS idx_traza_rangos_lote_id ON traza_rangos (lote_id);
+CREATE INDEX IF NOT EXISTS idx_ejecuciones_validacion_fecha ON ejecuciones_validacion_fecha (fecha, id);
+CREATE INDEX IF NOT EXISTS idx_saldos_checkpoint_corte ON saldos_checkpoint (fecha_corte);
 CREATE INDEX IF NOT EXISTS idx_detmov_mov_id ON detalle_movimientos (movimiento_id);
 CREATE INDEX IF NOT EXISTS idx_detmov_bulto_id ON detalle_movimientos (bulto_id);
 
@@ -310,4 +386,3 @@ ALTER TABLE bultos
 
 ALTER TABLE movimientos
     ADD CONSTRAINT chk_movs_cantidad CHECK (cantidad IS NULL OR cantidad >= 0);
-
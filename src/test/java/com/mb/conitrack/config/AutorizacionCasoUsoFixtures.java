@@ -0,0 +1,101 @@
+package com.mb.conitrack.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestMatcherDelegatingAuthorizationManager;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
+
+import com.mb.conitrack.enums.PermisosCasoUsoEnum;
+import com.mb.conitrack.enums.RoleEnum;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
+/**
+ * Autorización de casos de uso para SecurityConfigTest y AutorizacionCasoUsoBenchmark: la matriz precompilada de
+ * SecurityConfig, la cadena anterior de un matcher por caso de uso, y las rutas y usuarios con que se comparan.
+ */
+final class AutorizacionCasoUsoFixtures {
+
+    private AutorizacionCasoUsoFixtures() {
+    }
+
+    /** Autorización actual: un único matcher de casos de uso resuelto contra la matriz de permisos. */
+    static RequestMatcherDelegatingAuthorizationManager compilado() {
+        return RequestMatcherDelegatingAuthorizationManager.builder()
+            .add(SecurityConfig.casoUsoRequestMatcher(), SecurityConfig::autorizarCasoUso)
+            .add(AnyRequestMatcher.INSTANCE, AuthenticatedAuthorizationManager.authenticated())
+            .build();
+    }
+
+    /**
+     * Cadena equivalente a la configuración anterior: un matcher por constante del enum, evaluados en orden.
+     * Se normaliza la barra final de "/proveedores/" y "/productos/" para comparar contra el prefijo pretendido.
+     */
+    static RequestMatcherDelegatingAuthorizationManager cadenaPorCasoUso() {
+        RequestMatcherDelegatingAuthorizationManager.Builder builder =
+            RequestMatcherDelegatingAuthorizationManager.builder();
+        for (PermisosCasoUsoEnum casoUso : PermisosCasoUsoEnum.values()) {
+            String prefijo = casoUso.getUrlPattern().endsWith("/")
+                ? casoUso.getUrlPattern().substring(0, casoUso.getUrlPattern().length() - 1)
+                : casoUso.getUrlPattern();
+            builder.add(antMatcher(prefijo + "/**"),
+                AuthorityAuthorizationManager.hasAnyRole(casoUso.getRolesAsStringArray()));
+        }
+        return builder.add(AnyRequestMatcher.INSTANCE, AuthenticatedAuthorizationManager.authenticated()).build();
+    }
+
+    static boolean decidir(
+        final RequestMatcherDelegatingAuthorizationManager manager,
+        final Authentication authentication,
+        final MockHttpServletRequest request) {
+        Supplier<Authentication> supplier = () -> authentication;
+        AuthorizationDecision decision = manager.check(supplier, request);
+        return decision != null && decision.isGranted();
+    }
+
+    static List<Authentication> autenticaciones() {
+        List<Authentication> autenticaciones = new ArrayList<>();
+        for (RoleEnum rol : RoleEnum.values()) {
+            autenticaciones.add(usuario(rol.name()));
+        }
+        autenticaciones.add(usuario("USER1"));
+        autenticaciones.add(new AnonymousAuthenticationToken("key", "anonymousUser",
+            AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        return autenticaciones;
+    }
+
+    static List<String> rutas() {
+        List<String> rutas = new ArrayList<>();
+        for (PermisosCasoUsoEnum casoUso : PermisosCasoUsoEnum.values()) {
+            rutas.add(casoUso.getUrlPattern());
+            rutas.add(casoUso.getUrlPattern() + (casoUso.getUrlPattern().endsWith("/") ? "" : "/") + "confirmar");
+            rutas.add(casoUso.getUrlPattern() + "-otro");
+        }
+        rutas.add("/");
+        rutas.add("/lotes/otra-consulta");
+        rutas.add("/compras/alta");
+        return rutas;
+    }
+
+    static Authentication usuario(final String rol) {
+        return UsernamePasswordAuthenticationToken.authenticated("usuario", null,
+            AuthorityUtils.createAuthorityList("ROLE_" + rol));
+    }
+
+    static MockHttpServletRequest request(final String ruta) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", ruta);
+        request.setServletPath(ruta);
+        return request;
+    }
+
+}
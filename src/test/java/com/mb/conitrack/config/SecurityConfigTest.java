@@ -0,0 +1,54 @@
+package com.mb.conitrack.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestMatcherDelegatingAuthorizationManager;
+
+import com.mb.conitrack.enums.RoleEnum;
+
+import static com.mb.conitrack.config.AutorizacionCasoUsoFixtures.autenticaciones;
+import static com.mb.conitrack.config.AutorizacionCasoUsoFixtures.cadenaPorCasoUso;
+import static com.mb.conitrack.config.AutorizacionCasoUsoFixtures.compilado;
+import static com.mb.conitrack.config.AutorizacionCasoUsoFixtures.decidir;
+import static com.mb.conitrack.config.AutorizacionCasoUsoFixtures.request;
+import static com.mb.conitrack.config.AutorizacionCasoUsoFixtures.rutas;
+import static com.mb.conitrack.config.AutorizacionCasoUsoFixtures.usuario;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara la autorización por matriz precompilada contra la cadena anterior de un matcher por caso de uso.
+ * La medición de ambas variantes está en AutorizacionCasoUsoBenchmark (src/jmh).
+ */
+@DisplayName("Tests Unitarios - SecurityConfig casos de uso")
+class SecurityConfigTest {
+
+    private final RequestMatcherDelegatingAuthorizationManager compilado = compilado();
+
+    private final RequestMatcherDelegatingAuthorizationManager porCasoUso = cadenaPorCasoUso();
+
+    @Test
+    @DisplayName("test_autorizarCasoUso_debe_decidirIgualQueUnMatcherPorCasoUso")
+    void test_autorizarCasoUso_debe_decidirIgualQueUnMatcherPorCasoUso() {
+        for (Authentication authentication : autenticaciones()) {
+            for (String ruta : rutas()) {
+                MockHttpServletRequest request = request(ruta);
+                assertThat(decidir(compilado, authentication, request))
+                    .as("%s en %s", authentication.getAuthorities(), ruta)
+                    .isEqualTo(decidir(porCasoUso, authentication, request));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("test_autorizarCasoUso_auditor_debe_denegarIngresoCompraYPermitirConsultas")
+    void test_autorizarCasoUso_auditor_debe_denegarIngresoCompraYPermitirConsultas() {
+        Authentication auditor = usuario(RoleEnum.AUDITOR.name());
+
+        assertThat(decidir(compilado, auditor, request("/compras/alta/ingreso-compra/importar"))).isFalse();
+        assertThat(decidir(compilado, auditor, request("/lotes/list-lotes"))).isTrue();
+        assertThat(decidir(compilado, auditor, request("/dashboard"))).isTrue();
+    }
+
+}
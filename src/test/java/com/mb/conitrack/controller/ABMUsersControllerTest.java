@@ -20,6 +20,7 @@ import com.mb.conitrack.entity.maestro.Role;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.repository.maestro.RoleRepository;
 import com.mb.conitrack.repository.maestro.UserRepository;
+import com.mb.conitrack.service.SecurityContextService;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.any;
@@ -41,6 +42,9 @@ class ABMUsersControllerTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private SecurityContextService securityContextService;
+
     @InjectMocks
     private ABMUsersController controller;
 
@@ -197,6 +201,7 @@ class ABMUsersControllerTest {
         assertThat(viewName).isEqualTo("redirect:/users/list-users");
         assertThat(redirectAttributes.getFlashAttributes().get("success")).isEqualTo("User deleted successfully!");
         verify(userRepository, times(1)).deleteById(1L);
+        verify(securityContextService, times(1)).invalidarUsuario("user1");
     }
 
     @Test
@@ -230,6 +235,7 @@ class ABMUsersControllerTest {
         verify(userRepository, times(1)).save(any(User.class));
         assertThat(user.getPassword()).isEqualTo("encodedPassword");
         assertThat(user.getRole().getName()).isEqualTo("ROLE_ADMIN");
+        verify(securityContextService, times(1)).invalidarUsuario("user1");
     }
 
     @Test
@@ -2,10 +2,12 @@ package com.mb.conitrack.controller;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -14,6 +16,8 @@ import org.springframework.ui.Model;
 
 import com.mb.conitrack.dto.AnalisisDTO;
 import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.datatables.DataTablesRequest;
+import com.mb.conitrack.dto.datatables.DataTablesResponse;
 import com.mb.conitrack.entity.Analisis;
 import com.mb.conitrack.entity.Lote;
 import com.mb.conitrack.service.AnalisisService;
@@ -49,37 +53,43 @@ class AnalisisControllerTest {
     }
 
     @Test
-    @DisplayName("listAnalisis debe retornar vista con todos los análisis")
+    @DisplayName("listAnalisis debe retornar la vista en modo paginado sin cargar las filas")
     void testListAnalisis() {
-        // Arrange
-        List<AnalisisDTO> analisis = new ArrayList<>();
-        AnalisisDTO analisis1 = new AnalisisDTO();
-        analisis.add(analisis1);
-
-        when(analisisService.findAllAnalisis()).thenReturn(analisis);
-
         // Act
         String viewName = controller.listAnalisis(model);
 
         // Assert
         assertEquals("analisis/list-analisis", viewName);
-        assertEquals(analisis, model.getAttribute("analisisDTOs"));
-        verify(analisisService, times(1)).findAllAnalisis();
+        assertEquals(true, model.getAttribute("paginadoServidor"));
+        verify(analisisService, never()).findAllAnalisis();
     }
 
     @Test
-    @DisplayName("listAnalisis debe retornar vista con lista vacía cuando no hay análisis")
-    void testListAnalisis_Empty() {
+    @DisplayName("listAnalisisDatos debe delegar la página pedida por DataTables al servicio")
+    void testListAnalisisDatos() {
         // Arrange
-        when(analisisService.findAllAnalisis()).thenReturn(new ArrayList<>());
+        Map<String, String> params = Map.of(
+            "draw", "3",
+            "start", "50",
+            "length", "25",
+            "search[value]", "AN-001",
+            "order[0][column]", "0",
+            "order[0][dir]", "desc",
+            "columns[0][data]", "nroAnalisis");
+        DataTablesResponse<AnalisisDTO> respuesta = new DataTablesResponse<>(3, 100, 1, List.of(new AnalisisDTO()));
+        when(analisisService.findPaginaAnalisis(any(DataTablesRequest.class))).thenReturn(respuesta);
 
         // Act
-        String viewName = controller.listAnalisis(model);
+        DataTablesResponse<AnalisisDTO> result = controller.listAnalisisDatos(params);
 
         // Assert
-        assertEquals("analisis/list-analisis", viewName);
-        assertTrue(((List<?>) model.getAttribute("analisisDTOs")).isEmpty());
-        verify(analisisService, times(1)).findAllAnalisis();
+        assertSame(respuesta, result);
+        ArgumentCaptor<DataTablesRequest> captor = ArgumentCaptor.forClass(DataTablesRequest.class);
+        verify(analisisService).findPaginaAnalisis(captor.capture());
+        assertEquals(3, captor.getValue().getDraw());
+        assertEquals(50, captor.getValue().getStart());
+        assertEquals("AN-001", captor.getValue().getSearch());
+        assertEquals("nroAnalisis", captor.getValue().getOrdenColumna());
     }
 
     @Test
@@ -2,10 +2,12 @@ package com.mb.conitrack.controller;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -13,6 +15,8 @@ import org.springframework.ui.ConcurrentModel;
 import org.springframework.ui.Model;
 
 import com.mb.conitrack.dto.BultoDTO;
+import com.mb.conitrack.dto.datatables.DataTablesRequest;
+import com.mb.conitrack.dto.datatables.DataTablesResponse;
 import com.mb.conitrack.service.BultoService;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -46,37 +50,43 @@ class BultosControllerTest {
     }
 
     @Test
-    @DisplayName("listBultos debe retornar vista con todos los bultos")
+    @DisplayName("listBultos debe retornar la vista en modo paginado sin cargar las filas")
     void testListBultos() {
-        // Arrange
-        List<BultoDTO> bultos = new ArrayList<>();
-        BultoDTO bulto1 = new BultoDTO();
-        bultos.add(bulto1);
-
-        when(bultoService.findAllBultos()).thenReturn(bultos);
-
         // Act
         String viewName = controller.listBultos(model);
 
         // Assert
         assertEquals("bultos/list-bultos", viewName);
-        assertEquals(bultos, model.getAttribute("bultoDTOs"));
-        verify(bultoService, times(1)).findAllBultos();
+        assertEquals(true, model.getAttribute("paginadoServidor"));
+        verify(bultoService, never()).findAllBultos();
     }
 
     @Test
-    @DisplayName("listBultos debe retornar vista con lista vacía cuando no hay bultos")
-    void testListBultos_Empty() {
+    @DisplayName("listBultosDatos debe delegar la página pedida por DataTables al servicio")
+    void testListBultosDatos() {
         // Arrange
-        when(bultoService.findAllBultos()).thenReturn(new ArrayList<>());
+        Map<String, String> params = Map.of(
+            "draw", "3",
+            "start", "50",
+            "length", "25",
+            "search[value]", "LOTE-001",
+            "order[0][column]", "0",
+            "order[0][dir]", "desc",
+            "columns[0][data]", "codigoLote");
+        DataTablesResponse<BultoDTO> respuesta = new DataTablesResponse<>(3, 100, 1, List.of(new BultoDTO()));
+        when(bultoService.findPaginaBultos(any(DataTablesRequest.class))).thenReturn(respuesta);
 
         // Act
-        String viewName = controller.listBultos(model);
+        DataTablesResponse<BultoDTO> result = controller.listBultosDatos(params);
 
         // Assert
-        assertEquals("bultos/list-bultos", viewName);
-        assertTrue(((List<?>) model.getAttribute("bultoDTOs")).isEmpty());
-        verify(bultoService, times(1)).findAllBultos();
+        assertSame(respuesta, result);
+        ArgumentCaptor<DataTablesRequest> captor = ArgumentCaptor.forClass(DataTablesRequest.class);
+        verify(bultoService).findPaginaBultos(captor.capture());
+        assertEquals(3, captor.getValue().getDraw());
+        assertEquals(50, captor.getValue().getStart());
+        assertEquals("LOTE-001", captor.getValue().getSearch());
+        assertEquals("codigoLote", captor.getValue().getOrdenColumna());
     }
 
     @Test
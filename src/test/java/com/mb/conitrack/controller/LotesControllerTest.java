@@ -2,10 +2,12 @@ package com.mb.conitrack.controller;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -14,6 +16,8 @@ import org.springframework.ui.Model;
 
 import com.mb.conitrack.dto.BultoDTO;
 import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.datatables.DataTablesRequest;
+import com.mb.conitrack.dto.datatables.DataTablesResponse;
 import com.mb.conitrack.service.LoteService;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -47,37 +51,43 @@ class LotesControllerTest {
     }
 
     @Test
-    @DisplayName("listLotes debe retornar vista con todos los lotes")
+    @DisplayName("listLotes debe retornar la vista en modo paginado sin cargar las filas")
     void testListLotes() {
-        // Arrange
-        List<LoteDTO> lotes = new ArrayList<>();
-        LoteDTO lote1 = new LoteDTO();
-        lotes.add(lote1);
-
-        when(loteService.findAllLotes()).thenReturn(lotes);
-
         // Act
         String viewName = controller.listLotes(model);
 
         // Assert
         assertEquals("lotes/list-lotes", viewName);
-        assertEquals(lotes, model.getAttribute("loteDTOs"));
-        verify(loteService, times(1)).findAllLotes();
+        assertEquals(true, model.getAttribute("paginadoServidor"));
+        verify(loteService, never()).findAllLotes();
     }
 
     @Test
-    @DisplayName("listLotes debe retornar vista con lista vacía cuando no hay lotes")
-    void testListLotes_Empty() {
+    @DisplayName("listLotesDatos debe delegar la página pedida por DataTables al servicio")
+    void testListLotesDatos() {
         // Arrange
-        when(loteService.findAllLotes()).thenReturn(new ArrayList<>());
+        Map<String, String> params = Map.of(
+            "draw", "3",
+            "start", "50",
+            "length", "25",
+            "search[value]", "LOTE-001",
+            "order[0][column]", "0",
+            "order[0][dir]", "desc",
+            "columns[0][data]", "codigoLote");
+        DataTablesResponse<LoteDTO> respuesta = new DataTablesResponse<>(3, 100, 1, List.of(new LoteDTO()));
+        when(loteService.findPaginaLotes(any(DataTablesRequest.class))).thenReturn(respuesta);
 
         // Act
-        String viewName = controller.listLotes(model);
+        DataTablesResponse<LoteDTO> result = controller.listLotesDatos(params);
 
         // Assert
-        assertEquals("lotes/list-lotes", viewName);
-        assertTrue(((List<?>) model.getAttribute("loteDTOs")).isEmpty());
-        verify(loteService, times(1)).findAllLotes();
+        assertSame(respuesta, result);
+        ArgumentCaptor<DataTablesRequest> captor = ArgumentCaptor.forClass(DataTablesRequest.class);
+        verify(loteService).findPaginaLotes(captor.capture());
+        assertEquals(3, captor.getValue().getDraw());
+        assertEquals(50, captor.getValue().getStart());
+        assertEquals("LOTE-001", captor.getValue().getSearch());
+        assertEquals("codigoLote", captor.getValue().getOrdenColumna());
     }
 
     @Test
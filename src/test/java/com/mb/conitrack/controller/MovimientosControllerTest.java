@@ -3,10 +3,12 @@ package com.mb.conitrack.controller;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -15,6 +17,8 @@ import org.springframework.ui.ConcurrentModel;
 import org.springframework.ui.Model;
 
 import com.mb.conitrack.dto.MovimientoDTO;
+import com.mb.conitrack.dto.datatables.DataTablesRequest;
+import com.mb.conitrack.dto.datatables.DataTablesResponse;
 import com.mb.conitrack.service.MovimientoService;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -48,37 +52,43 @@ class MovimientosControllerTest {
     }
 
     @Test
-    @DisplayName("listMovimientos debe retornar vista con todos los movimientos")
+    @DisplayName("listMovimientos debe retornar la vista en modo paginado sin cargar las filas")
     void testListMovimientos() {
-        // Arrange
-        List<MovimientoDTO> movimientos = new ArrayList<>();
-        MovimientoDTO mov1 = new MovimientoDTO();
-        movimientos.add(mov1);
-
-        when(movimientoService.findAllMovimientos()).thenReturn(movimientos);
-
         // Act
         String viewName = controller.listMovimientos(model);
 
         // Assert
         assertEquals("movimientos/list-movimientos", viewName);
-        assertEquals(movimientos, model.getAttribute("movimientoDTOs"));
-        verify(movimientoService, times(1)).findAllMovimientos();
+        assertEquals(true, model.getAttribute("paginadoServidor"));
+        verify(movimientoService, never()).findAllMovimientos();
     }
 
     @Test
-    @DisplayName("listMovimientos debe retornar vista con lista vacía cuando no hay movimientos")
-    void testListMovimientos_Empty() {
+    @DisplayName("listMovimientosDatos debe delegar la página pedida por DataTables al servicio")
+    void testListMovimientosDatos() {
         // Arrange
-        when(movimientoService.findAllMovimientos()).thenReturn(new ArrayList<>());
+        Map<String, String> params = Map.of(
+            "draw", "3",
+            "start", "50",
+            "length", "25",
+            "search[value]", "MOV-001",
+            "order[0][column]", "0",
+            "order[0][dir]", "desc",
+            "columns[0][data]", "codigoMovimiento");
+        DataTablesResponse<MovimientoDTO> respuesta = new DataTablesResponse<>(3, 100, 1, List.of(new MovimientoDTO()));
+        when(movimientoService.findPaginaMovimientos(any(DataTablesRequest.class))).thenReturn(respuesta);
 
         // Act
-        String viewName = controller.listMovimientos(model);
+        DataTablesResponse<MovimientoDTO> result = controller.listMovimientosDatos(params);
 
         // Assert
-        assertEquals("movimientos/list-movimientos", viewName);
-        assertTrue(((List<?>) model.getAttribute("movimientoDTOs")).isEmpty());
-        verify(movimientoService, times(1)).findAllMovimientos();
+        assertSame(respuesta, result);
+        ArgumentCaptor<DataTablesRequest> captor = ArgumentCaptor.forClass(DataTablesRequest.class);
+        verify(movimientoService).findPaginaMovimientos(captor.capture());
+        assertEquals(3, captor.getValue().getDraw());
+        assertEquals(50, captor.getValue().getStart());
+        assertEquals("MOV-001", captor.getValue().getSearch());
+        assertEquals("codigoMovimiento", captor.getValue().getOrdenColumna());
     }
 
     @Test
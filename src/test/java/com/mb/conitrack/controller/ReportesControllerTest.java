@@ -1,6 +1,8 @@
 package com.mb.conitrack.controller;
 
-import java.util.ArrayList;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,16 +12,25 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.mb.conitrack.entity.Lote;
-import com.mb.conitrack.entity.Movimiento;
+import com.mb.conitrack.dto.LoteReporteDTO;
+import com.mb.conitrack.dto.MovimientoReporteDTO;
+import com.mb.conitrack.dto.ReportePageDTO;
+import com.mb.conitrack.dto.StockHistoricoDTO;
+import com.mb.conitrack.entity.SaldoCheckpoint.Nivel;
 import com.mb.conitrack.entity.maestro.Role;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.RoleEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
 import com.mb.conitrack.repository.LoteRepository;
 import com.mb.conitrack.repository.MovimientoRepository;
 import com.mb.conitrack.service.AuditorAccessLogger;
+import com.mb.conitrack.service.ReportesService;
+import com.mb.conitrack.service.ReportesService.FormatoExportacion;
+import com.mb.conitrack.service.SaldoHistoricoService;
 import com.mb.conitrack.service.SecurityContextService;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -36,6 +47,12 @@ class ReportesControllerTest {
     @Mock
     private MovimientoRepository movimientoRepository;
 
+    @Mock
+    private ReportesService reportesService;
+
+    @Mock
+    private SaldoHistoricoService saldoHistoricoService;
+
     @Mock
     private SecurityContextService securityContextService;
 
@@ -63,48 +80,43 @@ class ReportesControllerTest {
     }
 
     @Test
-    @DisplayName("getAllLotes debe retornar todos los lotes incluyendo bajas lógicas")
+    @DisplayName("getAllLotes debe retornar página de lotes incluyendo bajas lógicas")
     void testGetAllLotes() {
         // Arrange
-        List<Lote> lotes = new ArrayList<>();
-        Lote lote1 = new Lote();
-        lote1.setId(1L);
-        lote1.setActivo(true);
-        Lote lote2 = new Lote();
-        lote2.setId(2L);
-        lote2.setActivo(false); // baja lógica
-        lotes.add(lote1);
-        lotes.add(lote2);
+        ReportePageDTO<LoteReporteDTO> page = new ReportePageDTO<>(
+            List.of(loteReporte(1L, true), loteReporte(2L, false)), null);
 
         when(securityContextService.getCurrentUser()).thenReturn(auditorUser);
-        when(loteRepository.findAll()).thenReturn(lotes);
+        when(reportesService.findLotes(null, null, false)).thenReturn(page);
 
         // Act
-        ResponseEntity<List<Lote>> response = controller.getAllLotes(request);
+        ResponseEntity<ReportePageDTO<LoteReporteDTO>> response = controller.getAllLotes(null, null, request);
 
         // Assert
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(2, response.getBody().size());
-        verify(loteRepository, times(1)).findAll();
+        assertEquals(2, response.getBody().getItems().size());
+        assertNull(response.getBody().getNextAfterId());
+        verify(reportesService, times(1)).findLotes(null, null, false);
+        verify(loteRepository, never()).findAll();
         verify(auditorAccessLogger, times(1)).logReporteAccess(auditorUser, "Consulta todos los lotes", request);
     }
 
     @Test
-    @DisplayName("getAllLotes debe retornar lista vacía cuando no hay lotes")
-    void testGetAllLotes_Empty() {
+    @DisplayName("getAllLotes debe propagar afterId y size al servicio")
+    void testGetAllLotes_Keyset() {
         // Arrange
+        ReportePageDTO<LoteReporteDTO> page = new ReportePageDTO<>(List.of(loteReporte(11L, true)), 11L);
+
         when(securityContextService.getCurrentUser()).thenReturn(adminUser);
-        when(loteRepository.findAll()).thenReturn(new ArrayList<>());
+        when(reportesService.findLotes(10L, 1, false)).thenReturn(page);
 
         // Act
-        ResponseEntity<List<Lote>> response = controller.getAllLotes(request);
+        ResponseEntity<ReportePageDTO<LoteReporteDTO>> response = controller.getAllLotes(10L, 1, request);
 
         // Assert
-        assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
-        assertTrue(response.getBody().isEmpty());
-        verify(loteRepository, times(1)).findAll();
+        assertEquals(11L, response.getBody().getNextAfterId());
     }
 
     @Test
@@ -112,21 +124,20 @@ class ReportesControllerTest {
     void testGetLoteById_Found() {
         // Arrange
         Long id = 1L;
-        Lote lote = new Lote();
-        lote.setId(id);
+        LoteReporteDTO lote = loteReporte(id, true);
         lote.setCodigoLote("LOTE001");
 
         when(securityContextService.getCurrentUser()).thenReturn(auditorUser);
-        when(loteRepository.findById(id)).thenReturn(Optional.of(lote));
+        when(reportesService.findLoteById(id)).thenReturn(Optional.of(lote));
 
         // Act
-        ResponseEntity<Lote> response = controller.getLoteById(id, request);
+        ResponseEntity<LoteReporteDTO> response = controller.getLoteById(id, request);
 
         // Assert
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
         assertEquals("LOTE001", response.getBody().getCodigoLote());
-        verify(loteRepository, times(1)).findById(id);
+        verify(reportesService, times(1)).findLoteById(id);
         verify(auditorAccessLogger, times(1)).logReporteAccess(eq(auditorUser), contains("Consulta lote por ID: 1"), eq(request));
     }
 
@@ -137,222 +148,180 @@ class ReportesControllerTest {
         Long id = 999L;
 
         when(securityContextService.getCurrentUser()).thenReturn(auditorUser);
-        when(loteRepository.findById(id)).thenReturn(Optional.empty());
+        when(reportesService.findLoteById(id)).thenReturn(Optional.empty());
 
         // Act
-        ResponseEntity<Lote> response = controller.getLoteById(id, request);
+        ResponseEntity<LoteReporteDTO> response = controller.getLoteById(id, request);
 
         // Assert
         assertNotNull(response);
         assertEquals(404, response.getStatusCodeValue());
         assertNull(response.getBody());
-        verify(loteRepository, times(1)).findById(id);
+        verify(reportesService, times(1)).findLoteById(id);
     }
 
     @Test
-    @DisplayName("getAllMovimientos debe retornar todos los movimientos")
+    @DisplayName("getAllMovimientos debe retornar página de movimientos")
     void testGetAllMovimientos() {
         // Arrange
-        List<Movimiento> movimientos = new ArrayList<>();
-        Movimiento mov1 = new Movimiento();
-        mov1.setId(1L);
-        movimientos.add(mov1);
+        ReportePageDTO<MovimientoReporteDTO> page = new ReportePageDTO<>(List.of(movimientoReporte(1L, 1L)), null);
 
         when(securityContextService.getCurrentUser()).thenReturn(adminUser);
-        when(movimientoRepository.findAll()).thenReturn(movimientos);
+        when(reportesService.findMovimientos(null, null)).thenReturn(page);
 
         // Act
-        ResponseEntity<List<Movimiento>> response = controller.getAllMovimientos(request);
+        ResponseEntity<ReportePageDTO<MovimientoReporteDTO>> response =
+            controller.getAllMovimientos(null, null, request);
 
         // Assert
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(1, response.getBody().size());
-        verify(movimientoRepository, times(1)).findAll();
+        assertEquals(1, response.getBody().getItems().size());
+        verify(reportesService, times(1)).findMovimientos(null, null);
+        verify(movimientoRepository, never()).findAll();
         verify(auditorAccessLogger, times(1)).logReporteAccess(adminUser, "Consulta todos los movimientos", request);
     }
 
     @Test
-    @DisplayName("getAllMovimientos debe retornar lista vacía cuando no hay movimientos")
-    void testGetAllMovimientos_Empty() {
+    @DisplayName("getMovimientosByLote debe consultar por lote_id cuando el lote existe")
+    void testGetMovimientosByLote_Found() {
         // Arrange
+        Long loteId = 1L;
+        ReportePageDTO<MovimientoReporteDTO> page = new ReportePageDTO<>(
+            List.of(movimientoReporte(1L, loteId), movimientoReporte(2L, loteId)), null);
+
         when(securityContextService.getCurrentUser()).thenReturn(auditorUser);
-        when(movimientoRepository.findAll()).thenReturn(new ArrayList<>());
+        when(loteRepository.existsById(loteId)).thenReturn(true);
+        when(reportesService.findMovimientosByLote(loteId, null, null)).thenReturn(page);
 
         // Act
-        ResponseEntity<List<Movimiento>> response = controller.getAllMovimientos(request);
+        ResponseEntity<ReportePageDTO<MovimientoReporteDTO>> response =
+            controller.getMovimientosByLote(loteId, null, null, request);
 
         // Assert
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
-        assertTrue(response.getBody().isEmpty());
-        verify(movimientoRepository, times(1)).findAll();
+        assertEquals(2, response.getBody().getItems().size());
+        assertTrue(response.getBody().getItems().stream().allMatch(m -> loteId.equals(m.getLoteId())));
+        verify(reportesService, times(1)).findMovimientosByLote(loteId, null, null);
+        verify(movimientoRepository, never()).findAll();
     }
 
     @Test
-    @DisplayName("getMovimientosByLote debe retornar movimientos del lote cuando existe")
-    void testGetMovimientosByLote_Found() {
+    @DisplayName("getMovimientosByLote debe retornar 404 cuando el lote no existe")
+    void testGetMovimientosByLote_NotFound() {
         // Arrange
-        Long loteId = 1L;
-        Lote lote = new Lote();
-        lote.setId(loteId);
-
-        Movimiento mov1 = new Movimiento();
-        mov1.setId(1L);
-        mov1.setLote(lote);
-
-        Movimiento mov2 = new Movimiento();
-        mov2.setId(2L);
-        mov2.setLote(lote);
-
-        List<Movimiento> allMovimientos = new ArrayList<>();
-        allMovimientos.add(mov1);
-        allMovimientos.add(mov2);
+        Long loteId = 999L;
 
         when(securityContextService.getCurrentUser()).thenReturn(auditorUser);
-        when(loteRepository.findById(loteId)).thenReturn(Optional.of(lote));
-        when(movimientoRepository.findAll()).thenReturn(allMovimientos);
+        when(loteRepository.existsById(loteId)).thenReturn(false);
 
         // Act
-        ResponseEntity<List<Movimiento>> response = controller.getMovimientosByLote(loteId, request);
+        ResponseEntity<ReportePageDTO<MovimientoReporteDTO>> response =
+            controller.getMovimientosByLote(loteId, null, null, request);
 
         // Assert
         assertNotNull(response);
-        assertEquals(200, response.getStatusCodeValue());
-        assertEquals(2, response.getBody().size());
-        verify(loteRepository, times(1)).findById(loteId);
-        verify(movimientoRepository, times(1)).findAll();
+        assertEquals(404, response.getStatusCodeValue());
+        assertNull(response.getBody());
+        verify(reportesService, never()).findMovimientosByLote(any(), any(), any());
     }
 
     @Test
-    @DisplayName("getMovimientosByLote debe filtrar movimientos de otros lotes y nulls")
-    void testGetMovimientosByLote_FiltersOtherLotes() {
+    @DisplayName("getLotesActivos debe pedir solo lotes con activo=true")
+    void testGetLotesActivos() {
         // Arrange
-        Long loteId = 1L;
-        Lote lote = new Lote();
-        lote.setId(loteId);
-
-        Lote otroLote = new Lote();
-        otroLote.setId(2L);
-
-        // Movimiento del lote buscado
-        Movimiento mov1 = new Movimiento();
-        mov1.setId(1L);
-        mov1.setLote(lote);
-
-        // Movimiento de otro lote
-        Movimiento mov2 = new Movimiento();
-        mov2.setId(2L);
-        mov2.setLote(otroLote);
-
-        // Movimiento sin lote (null)
-        Movimiento mov3 = new Movimiento();
-        mov3.setId(3L);
-        mov3.setLote(null);
-
-        // Otro movimiento del lote buscado
-        Movimiento mov4 = new Movimiento();
-        mov4.setId(4L);
-        mov4.setLote(lote);
-
-        List<Movimiento> allMovimientos = new ArrayList<>();
-        allMovimientos.add(mov1);
-        allMovimientos.add(mov2);  // Este debe filtrarse
-        allMovimientos.add(mov3);  // Este debe filtrarse
-        allMovimientos.add(mov4);
+        ReportePageDTO<LoteReporteDTO> page = new ReportePageDTO<>(
+            List.of(loteReporte(1L, true), loteReporte(3L, true)), null);
 
-        when(securityContextService.getCurrentUser()).thenReturn(auditorUser);
-        when(loteRepository.findById(loteId)).thenReturn(Optional.of(lote));
-        when(movimientoRepository.findAll()).thenReturn(allMovimientos);
+        when(securityContextService.getCurrentUser()).thenReturn(adminUser);
+        when(reportesService.findLotes(null, null, true)).thenReturn(page);
 
         // Act
-        ResponseEntity<List<Movimiento>> response = controller.getMovimientosByLote(loteId, request);
+        ResponseEntity<ReportePageDTO<LoteReporteDTO>> response = controller.getLotesActivos(null, null, request);
 
         // Assert
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(2, response.getBody().size()); // Solo mov1 y mov4
-        assertTrue(response.getBody().contains(mov1));
-        assertTrue(response.getBody().contains(mov4));
-        assertFalse(response.getBody().contains(mov2)); // Filtrado: otro lote
-        assertFalse(response.getBody().contains(mov3)); // Filtrado: lote null
-        verify(loteRepository, times(1)).findById(loteId);
-        verify(movimientoRepository, times(1)).findAll();
+        assertEquals(2, response.getBody().getItems().size());
+        verify(reportesService, times(1)).findLotes(null, null, true);
+        verify(auditorAccessLogger, times(1)).logReporteAccess(adminUser, "Consulta lotes activos", request);
     }
 
     @Test
-    @DisplayName("getMovimientosByLote debe retornar 404 cuando el lote no existe")
-    void testGetMovimientosByLote_NotFound() {
+    @DisplayName("exportLotes debe devolver NDJSON en streaming")
+    void testExportLotes_Ndjson() throws Exception {
         // Arrange
-        Long loteId = 999L;
-
         when(securityContextService.getCurrentUser()).thenReturn(auditorUser);
-        when(loteRepository.findById(loteId)).thenReturn(Optional.empty());
 
         // Act
-        ResponseEntity<List<Movimiento>> response = controller.getMovimientosByLote(loteId, request);
+        ResponseEntity<StreamingResponseBody> response = controller.exportLotes("ndjson", false, request);
+        response.getBody().writeTo(new ByteArrayOutputStream());
 
         // Assert
-        assertNotNull(response);
-        assertEquals(404, response.getStatusCodeValue());
-        assertNull(response.getBody());
-        verify(loteRepository, times(1)).findById(loteId);
-        verify(movimientoRepository, times(0)).findAll(); // No debe llamarse
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        verify(reportesService).exportarLotes(any(), eq(FormatoExportacion.NDJSON), eq(false));
     }
 
     @Test
-    @DisplayName("getLotesActivos debe retornar solo lotes con activo=true")
-    void testGetLotesActivos() {
+    @DisplayName("exportMovimientos debe devolver CSV en streaming filtrado por lote")
+    void testExportMovimientos_Csv() throws Exception {
         // Arrange
-        List<Lote> allLotes = new ArrayList<>();
-        Lote lote1 = new Lote();
-        lote1.setId(1L);
-        lote1.setActivo(true);
-        Lote lote2 = new Lote();
-        lote2.setId(2L);
-        lote2.setActivo(false);
-        Lote lote3 = new Lote();
-        lote3.setId(3L);
-        lote3.setActivo(true);
-        allLotes.add(lote1);
-        allLotes.add(lote2);
-        allLotes.add(lote3);
-
-        when(securityContextService.getCurrentUser()).thenReturn(adminUser);
-        when(loteRepository.findAll()).thenReturn(allLotes);
+        when(securityContextService.getCurrentUser()).thenReturn(auditorUser);
 
         // Act
-        ResponseEntity<List<Lote>> response = controller.getLotesActivos(request);
+        ResponseEntity<StreamingResponseBody> response = controller.exportMovimientos("csv", 7L, request);
+        response.getBody().writeTo(new ByteArrayOutputStream());
 
         // Assert
-        assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(2, response.getBody().size()); // Solo los activos
-        assertTrue(response.getBody().stream().allMatch(Lote::getActivo));
-        verify(loteRepository, times(1)).findAll();
-        verify(auditorAccessLogger, times(1)).logReporteAccess(adminUser, "Consulta lotes activos", request);
+        assertEquals("csv", response.getHeaders().getContentType().getSubtype());
+        verify(reportesService).exportarMovimientos(any(), eq(FormatoExportacion.CSV), eq(7L));
     }
 
     @Test
-    @DisplayName("getLotesActivos debe retornar lista vacía cuando no hay lotes activos")
-    void testGetLotesActivos_Empty() {
+    @DisplayName("export con formato inválido debe lanzar IllegalArgumentException")
+    void testExport_FormatoInvalido() {
         // Arrange
-        List<Lote> allLotes = new ArrayList<>();
-        Lote lote1 = new Lote();
-        lote1.setActivo(false);
-        allLotes.add(lote1);
+        when(securityContextService.getCurrentUser()).thenReturn(auditorUser);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> controller.exportLotes("xml", false, request));
+        assertEquals(400, controller.handleFormatoInvalido(new IllegalArgumentException("x")).getStatusCodeValue());
+    }
 
+    @Test
+    @DisplayName("getStockHistorico debe consultar el stock al cierre del día indicado")
+    void testGetStockHistorico() {
+        // Arrange
+        StockHistoricoDTO stock = new StockHistoricoDTO(Nivel.LOTE, 5L, null, new BigDecimal("12.5000"),
+            UnidadMedidaEnum.KILOGRAMO, null, 3);
         when(securityContextService.getCurrentUser()).thenReturn(auditorUser);
-        when(loteRepository.findAll()).thenReturn(allLotes);
+        when(saldoHistoricoService.consultarStock(eq(Nivel.LOTE), eq(5L), any())).thenReturn(Optional.of(stock));
 
         // Act
-        ResponseEntity<List<Lote>> response = controller.getLotesActivos(request);
+        ResponseEntity<StockHistoricoDTO> response =
+            controller.getStockHistorico("lote", 5L, LocalDate.of(2025, 3, 10), request);
 
         // Assert
-        assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
-        assertTrue(response.getBody().isEmpty());
-        verify(loteRepository, times(1)).findAll();
+        assertSame(stock, response.getBody());
+        verify(saldoHistoricoService).consultarStock(eq(Nivel.LOTE), eq(5L), argThat(fecha ->
+            fecha.toLocalDate().equals(LocalDate.of(2025, 3, 10)) && fecha.getHour() == 23));
+    }
+
+    @Test
+    @DisplayName("getStockHistorico debe retornar 404 si no existe la entidad y rechazar niveles desconocidos")
+    void testGetStockHistorico_NoEncontrado() {
+        // Arrange
+        when(securityContextService.getCurrentUser()).thenReturn(auditorUser);
+        when(saldoHistoricoService.consultarStock(any(), any(), any())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertEquals(404, controller.getStockHistorico("bulto", 99L, LocalDate.now(), request).getStatusCodeValue());
+        assertThrows(IllegalArgumentException.class,
+            () -> controller.getStockHistorico("deposito", 1L, LocalDate.now(), request));
     }
 
     @Test
@@ -398,4 +367,18 @@ class ReportesControllerTest {
         assertTrue(response.getBody().contains("AUDITOR"));
         assertTrue(response.getBody().contains("nivel 1"));
     }
+
+    private static LoteReporteDTO loteReporte(Long id, boolean activo) {
+        LoteReporteDTO dto = new LoteReporteDTO();
+        dto.setId(id);
+        dto.setActivo(activo);
+        return dto;
+    }
+
+    private static MovimientoReporteDTO movimientoReporte(Long id, Long loteId) {
+        MovimientoReporteDTO dto = new MovimientoReporteDTO();
+        dto.setId(id);
+        dto.setLoteId(loteId);
+        return dto;
+    }
 }
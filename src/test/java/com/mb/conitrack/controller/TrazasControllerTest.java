@@ -2,10 +2,12 @@ package com.mb.conitrack.controller;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -13,6 +15,8 @@ import org.springframework.ui.ConcurrentModel;
 import org.springframework.ui.Model;
 
 import com.mb.conitrack.dto.TrazaDTO;
+import com.mb.conitrack.dto.datatables.DataTablesRequest;
+import com.mb.conitrack.dto.datatables.DataTablesResponse;
 import com.mb.conitrack.service.TrazaService;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -46,37 +50,43 @@ class TrazasControllerTest {
     }
 
     @Test
-    @DisplayName("listTrazasActivas debe retornar vista con todas las trazas activas")
+    @DisplayName("listTrazasActivas debe retornar la vista en modo paginado sin cargar las filas")
     void testListTrazasActivas() {
-        // Arrange
-        List<TrazaDTO> trazas = new ArrayList<>();
-        TrazaDTO traza1 = new TrazaDTO();
-        trazas.add(traza1);
-
-        when(trazaService.findAllByActivoTrue()).thenReturn(trazas);
-
         // Act
         String viewName = controller.listTrazasActivas(model);
 
         // Assert
         assertEquals("trazas/list-trazas", viewName);
-        assertEquals(trazas, model.getAttribute("trazaDTOs"));
-        verify(trazaService, times(1)).findAllByActivoTrue();
+        assertEquals(true, model.getAttribute("paginadoServidor"));
+        verify(trazaService, never()).findAllByActivoTrue();
     }
 
     @Test
-    @DisplayName("listTrazasActivas debe retornar vista con lista vacía cuando no hay trazas")
-    void testListTrazasActivas_Empty() {
+    @DisplayName("listTrazasActivasDatos debe delegar la página pedida por DataTables al servicio")
+    void testListTrazasActivasDatos() {
         // Arrange
-        when(trazaService.findAllByActivoTrue()).thenReturn(new ArrayList<>());
+        Map<String, String> params = Map.of(
+            "draw", "3",
+            "start", "50",
+            "length", "25",
+            "search[value]", "15",
+            "order[0][column]", "0",
+            "order[0][dir]", "desc",
+            "columns[0][data]", "nroTraza");
+        DataTablesResponse<TrazaDTO> respuesta = new DataTablesResponse<>(3, 100, 1, List.of(new TrazaDTO()));
+        when(trazaService.findPaginaTrazas(any(DataTablesRequest.class))).thenReturn(respuesta);
 
         // Act
-        String viewName = controller.listTrazasActivas(model);
+        DataTablesResponse<TrazaDTO> result = controller.listTrazasActivasDatos(params);
 
         // Assert
-        assertEquals("trazas/list-trazas", viewName);
-        assertTrue(((List<?>) model.getAttribute("trazaDTOs")).isEmpty());
-        verify(trazaService, times(1)).findAllByActivoTrue();
+        assertSame(respuesta, result);
+        ArgumentCaptor<DataTablesRequest> captor = ArgumentCaptor.forClass(DataTablesRequest.class);
+        verify(trazaService).findPaginaTrazas(captor.capture());
+        assertEquals(3, captor.getValue().getDraw());
+        assertEquals(50, captor.getValue().getStart());
+        assertEquals("15", captor.getValue().getSearch());
+        assertEquals("nroTraza", captor.getValue().getOrdenColumna());
     }
 
     @Test
@@ -1,5 +1,7 @@
 package com.mb.conitrack.controller.cu;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
@@ -11,6 +13,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.ui.ExtendedModelMap;
 import org.springframework.ui.Model;
 import org.springframework.validation.BeanPropertyBindingResult;
@@ -19,16 +24,22 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.web.servlet.mvc.support.RedirectAttributesModelMap;
 
 import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.ResultadoImportacionDTO;
 import com.mb.conitrack.entity.maestro.Producto;
 import com.mb.conitrack.entity.maestro.Proveedor;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
 import com.mb.conitrack.service.cu.AltaIngresoCompraService;
+import com.mb.conitrack.service.cu.IngresoCompraImportService;
+import com.mb.conitrack.service.cu.IngresoCompraImportService.FormatoImportacion;
 import com.mb.conitrack.service.maestro.ProductoService;
 import com.mb.conitrack.service.maestro.ProveedorService;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +52,9 @@ class AltaIngresoCompraControllerTest {
     @Mock
     AltaIngresoCompraService altaIngresoCompraService;
 
+    @Mock
+    IngresoCompraImportService ingresoCompraImportService;
+
     @Mock
     ProductoService productoService;
 
@@ -282,4 +296,31 @@ class AltaIngresoCompraControllerTest {
         assertEquals("Hubo un error en el ingreso de stock por compra.", redirect.getFlashAttributes().get("error"));
     }
 
+    // -------------------- importación masiva --------------------
+
+    @Test
+    void testImportarIngresosCompra_FormatoJsonl_DelegaEnServicio() throws IOException {
+        MockMultipartFile archivo = new MockMultipartFile("archivo", "ingresos.jsonl", "application/x-ndjson",
+            "{}".getBytes());
+        ResultadoImportacionDTO resultado = new ResultadoImportacionDTO();
+        when(ingresoCompraImportService.importar(any(InputStream.class), eq(FormatoImportacion.JSONL)))
+            .thenReturn(resultado);
+
+        ResponseEntity<ResultadoImportacionDTO> response = controller.importarIngresosCompra(archivo, "jsonl");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(resultado, response.getBody());
+    }
+
+    @Test
+    void testImportarIngresosCompra_FormatoDesconocido_BadRequest() throws IOException {
+        MockMultipartFile archivo = new MockMultipartFile("archivo", "ingresos.xls", "application/octet-stream",
+            new byte[0]);
+
+        ResponseEntity<ResultadoImportacionDTO> response = controller.importarIngresosCompra(archivo, "xls");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(ingresoCompraImportService);
+    }
+
 }
@@ -19,6 +19,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributesModelMap;
 
 import com.mb.conitrack.dto.LoteDTO;
 import com.mb.conitrack.service.LoteService;
+import com.mb.conitrack.service.ReintentoOptimista;
 import com.mb.conitrack.service.cu.BajaConsumoProduccionService;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -40,6 +41,9 @@ class BajaConsumoProduccionControllerTest {
     @Mock
     LoteService loteService;
 
+    @Spy
+    ReintentoOptimista reintentoOptimista = new ReintentoOptimista();
+
     Model model;
     RedirectAttributes redirect;
     LoteDTO loteDTO;
@@ -25,6 +25,7 @@ import com.mb.conitrack.dto.MovimientoDTO;
 import com.mb.conitrack.dto.TrazaDTO;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
 import com.mb.conitrack.service.LoteService;
+import com.mb.conitrack.service.ReintentoOptimista;
 import com.mb.conitrack.service.cu.BajaMuestreoBultoService;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -51,6 +52,9 @@ class BajaMuestreoBultoControllerTest {
     @Mock
     LoteService loteService;
 
+    @Spy
+    ReintentoOptimista reintentoOptimista = new ReintentoOptimista();
+
     Model model;
     RedirectAttributes redirect;
     MovimientoDTO movDto;
@@ -10,6 +10,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
 import org.springframework.ui.ExtendedModelMap;
 import org.springframework.ui.Model;
 import org.springframework.validation.BeanPropertyBindingResult;
@@ -18,8 +19,15 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.web.servlet.mvc.support.RedirectAttributesModelMap;
 
 import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.EscaneoVentaDTO;
+import com.mb.conitrack.dto.PedidoVentaDTO;
+import com.mb.conitrack.dto.ResultadoEscaneosDTO;
+import com.mb.conitrack.dto.ResultadoPedidoVentaDTO;
 import com.mb.conitrack.dto.TrazaDTO;
+import com.mb.conitrack.exception.StockInsuficienteException;
+import com.mb.conitrack.service.EscaneoTrazaService;
 import com.mb.conitrack.service.LoteService;
+import com.mb.conitrack.service.ReintentoOptimista;
 import com.mb.conitrack.service.cu.BajaVentaProductoService;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -41,6 +49,12 @@ class BajaVentaProductoControllerTest {
     @Mock
     LoteService loteService;
 
+    @Mock
+    EscaneoTrazaService escaneoTrazaService;
+
+    @Spy
+    ReintentoOptimista reintentoOptimista = new ReintentoOptimista();
+
     Model model;
     RedirectAttributes redirect;
     LoteDTO loteDto;
@@ -149,4 +163,55 @@ class BajaVentaProductoControllerTest {
 
         assertEquals("ventas/baja/venta-producto-ok", view);
     }
+
+    @Test
+    void testVentaPedido_Aplicado() {
+        PedidoVentaDTO pedido = new PedidoVentaDTO();
+        ResultadoPedidoVentaDTO resultado = new ResultadoPedidoVentaDTO(true, List.of());
+        when(ventaProductoService.bajaVentaPedido(pedido)).thenReturn(resultado);
+
+        ResponseEntity<ResultadoPedidoVentaDTO> response = controller.ventaPedido(pedido);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertSame(resultado, response.getBody());
+        assertNotNull(pedido.getFechaYHoraCreacion());
+    }
+
+    @Test
+    void testVentaPedido_Rechazado() {
+        PedidoVentaDTO pedido = new PedidoVentaDTO();
+        when(ventaProductoService.bajaVentaPedido(pedido)).thenReturn(new ResultadoPedidoVentaDTO(false, List.of()));
+
+        ResponseEntity<ResultadoPedidoVentaDTO> response = controller.ventaPedido(pedido);
+
+        assertEquals(422, response.getStatusCode().value());
+    }
+
+    @Test
+    void testVentaPedido_ConStockInsuficiente() {
+        PedidoVentaDTO pedido = new PedidoVentaDTO();
+        StockInsuficienteException e = new StockInsuficienteException("L-001", 1, "Stock insuficiente");
+        ResultadoPedidoVentaDTO rechazado = new ResultadoPedidoVentaDTO(false, List.of());
+        when(ventaProductoService.bajaVentaPedido(pedido)).thenThrow(e);
+        when(ventaProductoService.pedidoRechazado(pedido, e)).thenReturn(rechazado);
+
+        ResponseEntity<ResultadoPedidoVentaDTO> response = controller.ventaPedido(pedido);
+
+        assertEquals(422, response.getStatusCode().value());
+        assertSame(rechazado, response.getBody());
+    }
+
+    @Test
+    void testVentaEscaneos_Rechazado() {
+        EscaneoVentaDTO venta = new EscaneoVentaDTO();
+        ResultadoEscaneosDTO resultado = new ResultadoEscaneosDTO();
+        resultado.setAplicado(false);
+        when(escaneoTrazaService.venderEscaneos(venta)).thenReturn(resultado);
+
+        ResponseEntity<ResultadoEscaneosDTO> response = controller.ventaEscaneos(venta);
+
+        assertEquals(422, response.getStatusCode().value());
+        assertSame(resultado, response.getBody());
+        assertNotNull(venta.getFechaYHoraCreacion());
+    }
 }
@@ -19,7 +19,9 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributesModelMap;
 
 import com.mb.conitrack.dto.LoteDTO;
 import com.mb.conitrack.dto.MovimientoDTO;
+import com.mb.conitrack.exception.StockInsuficienteException;
 import com.mb.conitrack.service.LoteService;
+import com.mb.conitrack.service.ReintentoOptimista;
 import com.mb.conitrack.service.cu.BajaAjusteStockService;
 import com.mb.conitrack.service.cu.ModifReversoMovimientoService;
 
@@ -45,6 +47,9 @@ class ContingenciasControllerTest {
     @Mock
     LoteService loteService;
 
+    @Spy
+    ReintentoOptimista reintentoOptimista = new ReintentoOptimista();
+
     Model model;
     RedirectAttributes redirect;
     MovimientoDTO movDto;
@@ -185,6 +190,21 @@ class ContingenciasControllerTest {
         assertNotNull(redirect.getFlashAttributes().get("error"));
     }
 
+    @Test
+    void testAjusteStock_ConStockInsuficiente() {
+        List<LoteDTO> lotes = List.of(new LoteDTO());
+        when(ajusteStockService.validarAjusteStockInput(movDto, binding)).thenReturn(true);
+        when(ajusteStockService.bajaAjusteStock(any(MovimientoDTO.class)))
+            .thenThrow(new StockInsuficienteException("L-001", 1, "Stock insuficiente en el bulto 1 del lote L-001"));
+        when(loteService.findAllForAjusteDTOs()).thenReturn(lotes);
+
+        String view = controller.ajusteStock(movDto, binding, model, redirect);
+
+        assertEquals("contingencias/ajuste-stock", view);
+        assertNotNull(binding.getFieldError("cantidad"));
+        assertSame(lotes, model.getAttribute("loteAjusteDTOs"));
+    }
+
     @Test
     void testExitoAjuste() {
         LoteDTO loteDTO = new LoteDTO();
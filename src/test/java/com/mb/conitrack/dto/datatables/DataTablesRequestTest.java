@@ -0,0 +1,80 @@
+package com.mb.conitrack.dto.datatables;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Tests Unitarios - DataTablesRequest")
+class DataTablesRequestTest {
+
+    private static final Map<String, String> ORDENABLES = Map.of("codigoLote", "l.codigoLote");
+
+    private static final Sort ORDEN_POR_DEFECTO = Sort.by("l.id");
+
+    @Test
+    @DisplayName("test_from_debe_traducirParametrosAPagina")
+    void test_from_debe_traducirParametrosAPagina() {
+        DataTablesRequest request = DataTablesRequest.from(Map.of(
+            "draw", "4",
+            "start", "50",
+            "length", "25",
+            "search[value]", "  Lote-A ",
+            "order[0][column]", "1",
+            "order[0][dir]", "desc",
+            "columns[1][data]", "codigoLote"));
+
+        Pageable pageable = request.toPageable(ORDENABLES, ORDEN_POR_DEFECTO);
+
+        assertEquals(4, request.getDraw());
+        assertTrue(request.tieneFiltro());
+        assertEquals("%lote-a%", request.getFiltroLike());
+        assertEquals(2, pageable.getPageNumber());
+        assertEquals(25, pageable.getPageSize());
+        assertEquals(Sort.by(Sort.Direction.DESC, "l.codigoLote").and(ORDEN_POR_DEFECTO), pageable.getSort());
+    }
+
+    @Test
+    @DisplayName("test_toPageable_columnaFueraDeListaBlanca_debe_usarOrdenPorDefecto")
+    void test_toPageable_columnaFueraDeListaBlanca_debe_usarOrdenPorDefecto() {
+        DataTablesRequest request = DataTablesRequest.from(Map.of(
+            "order[0][column]", "0",
+            "columns[0][data]", "observaciones; drop table lotes"));
+
+        assertEquals(ORDEN_POR_DEFECTO, request.toPageable(ORDENABLES, ORDEN_POR_DEFECTO).getSort());
+    }
+
+    @Test
+    @DisplayName("test_from_largoInvalido_debe_acotarse")
+    void test_from_largoInvalido_debe_acotarse() {
+        assertEquals(DataTablesRequest.LARGO_MAXIMO, DataTablesRequest.from(Map.of("length", "-1")).getLength());
+        assertEquals(DataTablesRequest.LARGO_MAXIMO, DataTablesRequest.from(Map.of("length", "100000")).getLength());
+        assertEquals(DataTablesRequest.LARGO_POR_DEFECTO, DataTablesRequest.from(Map.of("length", "0")).getLength());
+        assertEquals(DataTablesRequest.LARGO_POR_DEFECTO, DataTablesRequest.from(Map.of("length", "abc")).getLength());
+    }
+
+    @Test
+    @DisplayName("test_from_sinBusqueda_debe_dejarFiltrosNulos")
+    void test_from_sinBusqueda_debe_dejarFiltrosNulos() {
+        DataTablesRequest request = DataTablesRequest.from(Map.of("search[value]", "   "));
+
+        assertFalse(request.tieneFiltro());
+        assertNull(request.getFiltroLike());
+        assertNull(request.getFiltroNumero());
+    }
+
+    @Test
+    @DisplayName("test_getFiltroNumero_debe_convertirSoloTextoNumerico")
+    void test_getFiltroNumero_debe_convertirSoloTextoNumerico() {
+        assertEquals(1500L, DataTablesRequest.from(Map.of("search[value]", "1500")).getFiltroNumero());
+        assertNull(DataTablesRequest.from(Map.of("search[value]", "L-15")).getFiltroNumero());
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.mb.conitrack.entity;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.mb.conitrack.enums.EstadoEnum;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests Unitarios - Índices de bultos y trazas del Lote")
+class IndicesLoteTest {
+
+    private Lote lote;
+
+    @BeforeEach
+    void setUp() {
+        lote = new Lote();
+        long nroTraza = 1;
+        for (int nro = 1; nro <= 3; nro++) {
+            final Bulto bulto = new Bulto();
+            bulto.setLote(lote);
+            bulto.setNroBulto(nro);
+            bulto.setActivo(true);
+            for (int i = 0; i < 5; i++) {
+                final Traza traza = new Traza();
+                traza.setNroTraza(nroTraza++);
+                traza.setBulto(bulto);
+                traza.setEstado(EstadoEnum.DISPONIBLE);
+                traza.setActivo(true);
+                bulto.getTrazas().add(traza);
+            }
+            lote.getBultos().add(bulto);
+        }
+    }
+
+    @Test
+    @DisplayName("test_getBultoByNro_debe_ignorarBultosDadosDeBajaLuegoDeIndexar")
+    void test_getBultoByNro_debe_ignorarBultosDadosDeBajaLuegoDeIndexar() {
+        final Bulto bulto2 = lote.getBultoByNro(2);
+        assertThat(bulto2.getNroBulto()).isEqualTo(2);
+
+        bulto2.setActivo(false);
+
+        assertThat(lote.getBultoByNro(2)).isNull();
+        assertThat(lote.getBultoByNro(3).getNroBulto()).isEqualTo(3);
+        assertThat(lote.getBultoByNro(9)).isNull();
+    }
+
+    @Test
+    @DisplayName("test_getBultoByNro_debe_encontrarBultosAgregadosLuegoDeIndexar")
+    void test_getBultoByNro_debe_encontrarBultosAgregadosLuegoDeIndexar() {
+        lote.getBultoByNro(1);
+        final Bulto nuevo = new Bulto();
+        nuevo.setNroBulto(4);
+        nuevo.setActivo(true);
+        lote.getBultos().add(nuevo);
+
+        assertThat(lote.getBultoByNro(4)).isSameAs(nuevo);
+    }
+
+    @Test
+    @DisplayName("test_getFirstAvailableTrazaList_debe_reflejarVentasYDevoluciones")
+    void test_getFirstAvailableTrazaList_debe_reflejarVentasYDevoluciones() {
+        final Bulto bulto = lote.getBultoByNro(1);
+        assertThat(nros(bulto.getFirstAvailableTrazaList(2))).containsExactly(1L, 2L);
+
+        bulto.getTrazaByNro(1L).setEstado(EstadoEnum.VENDIDO);
+        bulto.getTrazaByNro(3L).setEstado(EstadoEnum.VENDIDO);
+        assertThat(nros(bulto.getFirstAvailableTrazaList(2))).containsExactly(2L, 4L);
+
+        bulto.getTrazaByNro(1L).setEstado(EstadoEnum.DISPONIBLE);
+        assertThat(nros(bulto.getFirstAvailableTrazaList(2))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("test_getTrazaByNro_debe_reflejarBajasYReactivaciones")
+    void test_getTrazaByNro_debe_reflejarBajasYReactivaciones() {
+        final Bulto bulto = lote.getBultoByNro(2);
+        final Traza traza = bulto.getTrazaByNro(7L);
+        assertThat(bulto.getFirstActiveTraza().getNroTraza()).isEqualTo(6L);
+
+        traza.setActivo(false);
+        bulto.getTrazaByNro(6L).setActivo(false);
+        assertThat(bulto.getTrazaByNro(7L)).isNull();
+        assertThat(bulto.getFirstActiveTraza().getNroTraza()).isEqualTo(8L);
+
+        traza.setActivo(true);
+        assertThat(bulto.getTrazaByNro(7L)).isSameAs(traza);
+        assertThat(bulto.getFirstActiveTraza()).isSameAs(traza);
+        assertThat(bulto.getTrazaByNro(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("test_getFirstAvailableTrazaList_debe_excluirTrazasMovidasAOtroBulto")
+    void test_getFirstAvailableTrazaList_debe_excluirTrazasMovidasAOtroBulto() {
+        final Bulto origen = lote.getBultoByNro(1);
+        final Bulto destino = lote.getBultoByNro(3);
+        assertThat(nros(destino.getFirstAvailableTrazaList(1))).containsExactly(11L);
+
+        final Traza traza = origen.getTrazaByNro(1L);
+        origen.getTrazas().remove(traza);
+        traza.setBulto(destino);
+        destino.getTrazas().add(traza);
+
+        assertThat(nros(origen.getFirstAvailableTrazaList(1))).containsExactly(2L);
+        assertThat(nros(destino.getFirstAvailableTrazaList(1))).containsExactly(1L);
+        assertThat(destino.getTrazaByNro(1L)).isSameAs(traza);
+    }
+
+    private static List<Long> nros(final List<Traza> trazas) {
+        return trazas.stream().map(Traza::getNroTraza).toList();
+    }
+
+}
@@ -344,4 +344,41 @@ class PermisosCasoUsoEnumTest {
         assertFalse(cu31.tienePermiso(RoleEnum.AUDITOR));
         assertFalse(cu31.tienePermiso(RoleEnum.ANALISTA_PLANTA));
     }
+
+    @Test
+    @DisplayName("casosDeUso debe coincidir con los roles permitidos de cada caso de uso")
+    void testCasosDeUsoCoincideConRolesPermitidos() {
+        for (RoleEnum rol : RoleEnum.values()) {
+            for (PermisosCasoUsoEnum casoUso : PermisosCasoUsoEnum.values()) {
+                assertEquals(casoUso.getRolesPermitidos().contains(rol),
+                    PermisosCasoUsoEnum.casosDeUso(rol).contains(casoUso), rol + " / " + casoUso);
+                assertEquals(casoUso.getRolesPermitidos().contains(rol), casoUso.tienePermiso(rol));
+            }
+        }
+        assertTrue(PermisosCasoUsoEnum.casosDeUso(null).isEmpty());
+        assertFalse(PermisosCasoUsoEnum.CU1_INGRESO_COMPRA.tienePermiso(null));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "/compras/alta/ingreso-compra, CU1_INGRESO_COMPRA",
+        "/compras/alta/ingreso-compra/importar, CU1_INGRESO_COMPRA",
+        "/lotes/list-fechas-lotes/, CU9_CU10_FECHAS_AUTOMATICO",
+        "/proveedores/list-proveedores, CU30_ABM_PROVEEDORES",
+        "/users/edit-user/1, CU33_ABM_USUARIOS"
+    })
+    @DisplayName("deRuta debe resolver el caso de uso por prefijo de segmentos")
+    void testDeRuta(String ruta, String casoUsoName) {
+        assertEquals(PermisosCasoUsoEnum.valueOf(casoUsoName), PermisosCasoUsoEnum.deRuta(ruta));
+    }
+
+    @Test
+    @DisplayName("deRuta debe retornar null para rutas fuera de los casos de uso")
+    void testDeRutaSinCasoUso() {
+        assertNull(PermisosCasoUsoEnum.deRuta("/"));
+        assertNull(PermisosCasoUsoEnum.deRuta("/compras/alta"));
+        assertNull(PermisosCasoUsoEnum.deRuta("/compras/alta/ingreso-compra-otro"));
+        assertNull(PermisosCasoUsoEnum.deRuta("/usersx"));
+        assertNull(PermisosCasoUsoEnum.deRuta(null));
+    }
 }
@@ -10,6 +10,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import com.mb.conitrack.dto.UsuarioActualDTO;
 import com.mb.conitrack.entity.maestro.Role;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.RoleEnum;
@@ -69,7 +70,7 @@ class AuditorAccessInterceptorTest {
         User adminUser = new User("admin", "password", adminRole);
 
         when(securityContextService.isAuthenticated()).thenReturn(true);
-        when(securityContextService.getCurrentUser()).thenReturn(adminUser);
+        when(securityContextService.getUsuarioActual()).thenReturn(UsuarioActualDTO.de(adminUser));
 
         // Act
         boolean result = interceptor.preHandle(request, response, new Object());
@@ -77,7 +78,7 @@ class AuditorAccessInterceptorTest {
         // Assert
         assertTrue(result);
         verify(securityContextService, times(1)).isAuthenticated();
-        verify(securityContextService, times(1)).getCurrentUser();
+        verify(securityContextService, times(0)).getCurrentUser(); // Alcanza con la instantánea
         verify(auditorAccessLogger, times(0)).logAccess(any(), any(), any()); // No debe registrar
     }
 
@@ -89,6 +90,7 @@ class AuditorAccessInterceptorTest {
         User auditorUser = new User("auditor", "password", auditorRole);
 
         when(securityContextService.isAuthenticated()).thenReturn(true);
+        when(securityContextService.getUsuarioActual()).thenReturn(UsuarioActualDTO.de(auditorUser));
         when(securityContextService.getCurrentUser()).thenReturn(auditorUser);
         when(request.getRequestURI()).thenReturn("/lotes/list-lotes");
         when(request.getMethod()).thenReturn("GET");
@@ -112,6 +114,7 @@ class AuditorAccessInterceptorTest {
         User auditorUser = new User("auditor", "password", auditorRole);
 
         when(securityContextService.isAuthenticated()).thenReturn(true);
+        when(securityContextService.getUsuarioActual()).thenReturn(UsuarioActualDTO.de(auditorUser));
         when(securityContextService.getCurrentUser()).thenReturn(auditorUser);
         when(request.getRequestURI()).thenReturn("/compras/alta/ingreso-compra");
         when(request.getMethod()).thenReturn("POST");
@@ -137,6 +140,7 @@ class AuditorAccessInterceptorTest {
         User auditorUser = new User("auditor", "password", auditorRole);
 
         when(securityContextService.isAuthenticated()).thenReturn(true);
+        when(securityContextService.getUsuarioActual()).thenReturn(UsuarioActualDTO.de(auditorUser));
         when(securityContextService.getCurrentUser()).thenReturn(auditorUser);
         when(request.getRequestURI()).thenReturn("/productos/update/1");
         when(request.getMethod()).thenReturn("PUT");
@@ -162,6 +166,7 @@ class AuditorAccessInterceptorTest {
         User auditorUser = new User("auditor", "password", auditorRole);
 
         when(securityContextService.isAuthenticated()).thenReturn(true);
+        when(securityContextService.getUsuarioActual()).thenReturn(UsuarioActualDTO.de(auditorUser));
         when(securityContextService.getCurrentUser()).thenReturn(auditorUser);
         when(request.getRequestURI()).thenReturn("/productos/delete/1");
         when(request.getMethod()).thenReturn("DELETE");
@@ -187,6 +192,7 @@ class AuditorAccessInterceptorTest {
         User auditorUser = new User("auditor", "password", auditorRole);
 
         when(securityContextService.isAuthenticated()).thenReturn(true);
+        when(securityContextService.getUsuarioActual()).thenReturn(UsuarioActualDTO.de(auditorUser));
         when(securityContextService.getCurrentUser()).thenReturn(auditorUser);
         when(request.getRequestURI()).thenReturn("/lotes/patch/1");
         when(request.getMethod()).thenReturn("PATCH");
@@ -275,6 +281,7 @@ class AuditorAccessInterceptorTest {
         User auditorUser = new User("auditor", "password", auditorRole);
 
         when(securityContextService.isAuthenticated()).thenReturn(true);
+        when(securityContextService.getUsuarioActual()).thenReturn(UsuarioActualDTO.de(auditorUser));
         when(securityContextService.getCurrentUser()).thenReturn(auditorUser);
         when(request.getRequestURI()).thenReturn(uri);
         when(request.getMethod()).thenReturn(method);
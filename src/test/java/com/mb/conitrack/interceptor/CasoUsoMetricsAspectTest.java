@@ -0,0 +1,74 @@
+package com.mb.conitrack.interceptor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.validation.BindingResult;
+
+import com.mb.conitrack.enums.UseCaseTag;
+import com.mb.conitrack.service.cu.BajaAjusteStockService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("CasoUsoMetricsAspect Tests")
+class CasoUsoMetricsAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BajaAjusteStockService servicio;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        CasoUsoMetricsAspect aspect = new CasoUsoMetricsAspect();
+        ReflectionTestUtils.setField(aspect, "meterRegistry", meterRegistry);
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new BajaAjusteStockService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        servicio = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Registra el timer del caso de uso anotado sin contar errores")
+    void medir_ejecucionExitosa_registraTimer() {
+        BindingResult bindingResult = mock(BindingResult.class);
+        when(bindingResult.hasErrors()).thenReturn(true);
+
+        assertFalse(servicio.validarAjusteStockInput(null, bindingResult));
+
+        Timer timer = meterRegistry.find(CasoUsoMetricsAspect.TIMER)
+            .tag("caso_uso", UseCaseTag.CU25.name())
+            .tag("servicio", "BajaAjusteStockService")
+            .tag("metodo", "validarAjusteStockInput")
+            .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertNull(meterRegistry.find(CasoUsoMetricsAspect.ERRORES).counter());
+    }
+
+    @Test
+    @DisplayName("Cuenta la excepción por tipo y la relanza")
+    void medir_excepcion_cuentaErrorYRelanza() {
+        BindingResult bindingResult = mock(BindingResult.class);
+
+        assertThrows(NullPointerException.class, () -> servicio.validarAjusteStockInput(null, bindingResult));
+
+        Counter errores = meterRegistry.find(CasoUsoMetricsAspect.ERRORES)
+            .tag("caso_uso", UseCaseTag.CU25.name())
+            .tag("metodo", "validarAjusteStockInput")
+            .tag("excepcion", "NullPointerException")
+            .counter();
+        assertNotNull(errores);
+        assertEquals(1.0, errores.count());
+        assertEquals(1, meterRegistry.find(CasoUsoMetricsAspect.TIMER).timer().count());
+    }
+
+}
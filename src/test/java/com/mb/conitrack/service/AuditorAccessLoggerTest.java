@@ -4,7 +4,6 @@ import com.mb.conitrack.entity.AuditoriaAcceso;
 import com.mb.conitrack.entity.maestro.Role;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.RoleEnum;
-import com.mb.conitrack.repository.AuditoriaAccesoRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -28,7 +27,7 @@ import static org.mockito.Mockito.*;
 class AuditorAccessLoggerTest {
 
     @Mock
-    private AuditoriaAccesoRepository auditoriaAccesoRepository;
+    private AuditoriaAccesoWriter auditoriaAccesoWriter;
 
     @Mock
     private HttpServletRequest request;
@@ -61,16 +60,12 @@ class AuditorAccessLoggerTest {
             return null;
         });
 
-        AuditoriaAcceso auditoriaGuardada = new AuditoriaAcceso();
-        auditoriaGuardada.setId(1L);
-        when(auditoriaAccesoRepository.save(any(AuditoriaAcceso.class))).thenReturn(auditoriaGuardada);
-
         // When
         logger.logAccess(auditorUser, "Consulta lista de lotes", request);
 
         // Then
         ArgumentCaptor<AuditoriaAcceso> captor = ArgumentCaptor.forClass(AuditoriaAcceso.class);
-        verify(auditoriaAccesoRepository).save(captor.capture());
+        verify(auditoriaAccesoWriter).encolar(captor.capture());
 
         AuditoriaAcceso registroGuardado = captor.getValue();
         assertThat(registroGuardado.getUsername()).isEqualTo("auditor");
@@ -89,23 +84,19 @@ class AuditorAccessLoggerTest {
         logger.logAccess(null, "Acción", request);
 
         // Then
-        verify(auditoriaAccesoRepository, never()).save(any(AuditoriaAcceso.class));
+        verify(auditoriaAccesoWriter, never()).encolar(any(AuditoriaAcceso.class));
     }
 
     @Test
     @DisplayName("test_logAccess_requestNull_debe_guardarConDatosNulos")
     void test_logAccess_requestNull_debe_guardarConDatosNulos() {
         // Given
-        AuditoriaAcceso auditoriaGuardada = new AuditoriaAcceso();
-        auditoriaGuardada.setId(1L);
-        when(auditoriaAccesoRepository.save(any(AuditoriaAcceso.class))).thenReturn(auditoriaGuardada);
-
         // When
         logger.logAccess(auditorUser, "Acción sin request", null);
 
         // Then
         ArgumentCaptor<AuditoriaAcceso> captor = ArgumentCaptor.forClass(AuditoriaAcceso.class);
-        verify(auditoriaAccesoRepository).save(captor.capture());
+        verify(auditoriaAccesoWriter).encolar(captor.capture());
 
         AuditoriaAcceso registroGuardado = captor.getValue();
         assertThat(registroGuardado.getUsername()).isEqualTo("auditor");
@@ -124,32 +115,27 @@ class AuditorAccessLoggerTest {
         userSinRole.setUsername("usersinrole");
         userSinRole.setRole(null);
 
-        AuditoriaAcceso auditoriaGuardada = new AuditoriaAcceso();
-        auditoriaGuardada.setId(1L);
-        when(auditoriaAccesoRepository.save(any(AuditoriaAcceso.class))).thenReturn(auditoriaGuardada);
-
         // When
         logger.logAccess(userSinRole, "Acción", null);
 
         // Then
         ArgumentCaptor<AuditoriaAcceso> captor = ArgumentCaptor.forClass(AuditoriaAcceso.class);
-        verify(auditoriaAccesoRepository).save(captor.capture());
+        verify(auditoriaAccesoWriter).encolar(captor.capture());
 
         assertThat(captor.getValue().getRoleName()).isEqualTo("UNKNOWN");
     }
 
     @Test
-    @DisplayName("test_logAccess_errorAlGuardarEnBD_debe_capturarExcepcionYNoFallar")
-    void test_logAccess_errorAlGuardarEnBD_debe_capturarExcepcionYNoFallar() {
+    @DisplayName("test_logAccess_errorAlEncolar_debe_capturarExcepcionYNoFallar")
+    void test_logAccess_errorAlEncolar_debe_capturarExcepcionYNoFallar() {
         // Given
-        when(auditoriaAccesoRepository.save(any(AuditoriaAcceso.class)))
-            .thenThrow(new RuntimeException("Database error"));
+        doThrow(new RuntimeException("Queue error")).when(auditoriaAccesoWriter).encolar(any(AuditoriaAcceso.class));
 
         // When
         logger.logAccess(auditorUser, "Acción", null);
 
         // Then
-        verify(auditoriaAccesoRepository).save(any(AuditoriaAcceso.class));
+        verify(auditoriaAccesoWriter).encolar(any(AuditoriaAcceso.class));
         // No debe lanzar excepción
     }
 
@@ -157,16 +143,12 @@ class AuditorAccessLoggerTest {
     @DisplayName("test_logAccess_versionSimplificada_debe_delegarAVersionCompleta")
     void test_logAccess_versionSimplificada_debe_delegarAVersionCompleta() {
         // Given
-        AuditoriaAcceso auditoriaGuardada = new AuditoriaAcceso();
-        auditoriaGuardada.setId(1L);
-        when(auditoriaAccesoRepository.save(any(AuditoriaAcceso.class))).thenReturn(auditoriaGuardada);
-
         // When
         logger.logAccess(auditorUser, "Acción simplificada");
 
         // Then
         ArgumentCaptor<AuditoriaAcceso> captor = ArgumentCaptor.forClass(AuditoriaAcceso.class);
-        verify(auditoriaAccesoRepository).save(captor.capture());
+        verify(auditoriaAccesoWriter).encolar(captor.capture());
 
         assertThat(captor.getValue().getAccion()).isEqualTo("Acción simplificada");
         assertThat(captor.getValue().getUrl()).isNull();
@@ -176,16 +158,12 @@ class AuditorAccessLoggerTest {
     @DisplayName("test_logReporteAccess_debe_formatearAccionConTipoReporte")
     void test_logReporteAccess_debe_formatearAccionConTipoReporte() {
         // Given
-        AuditoriaAcceso auditoriaGuardada = new AuditoriaAcceso();
-        auditoriaGuardada.setId(1L);
-        when(auditoriaAccesoRepository.save(any(AuditoriaAcceso.class))).thenReturn(auditoriaGuardada);
-
         // When
         logger.logReporteAccess(auditorUser, "Lotes por Fecha", request);
 
         // Then
         ArgumentCaptor<AuditoriaAcceso> captor = ArgumentCaptor.forClass(AuditoriaAcceso.class);
-        verify(auditoriaAccesoRepository).save(captor.capture());
+        verify(auditoriaAccesoWriter).encolar(captor.capture());
 
         assertThat(captor.getValue().getAccion()).isEqualTo("Consulta reporte: Lotes por Fecha");
     }
@@ -194,16 +172,12 @@ class AuditorAccessLoggerTest {
     @DisplayName("test_logUnauthorizedModification_debe_registrarIntentNoAutorizado")
     void test_logUnauthorizedModification_debe_registrarIntentNoAutorizado() {
         // Given
-        AuditoriaAcceso auditoriaGuardada = new AuditoriaAcceso();
-        auditoriaGuardada.setId(1L);
-        when(auditoriaAccesoRepository.save(any(AuditoriaAcceso.class))).thenReturn(auditoriaGuardada);
-
         // When
         logger.logUnauthorizedModification(auditorUser, "Eliminar lote", request);
 
         // Then
         ArgumentCaptor<AuditoriaAcceso> captor = ArgumentCaptor.forClass(AuditoriaAcceso.class);
-        verify(auditoriaAccesoRepository).save(captor.capture());
+        verify(auditoriaAccesoWriter).encolar(captor.capture());
 
         assertThat(captor.getValue().getAccion()).isEqualTo("Intento no autorizado de modificación: Eliminar lote");
     }
@@ -217,16 +191,12 @@ class AuditorAccessLoggerTest {
         when(request.getMethod()).thenReturn("GET");
         when(request.getHeader("User-Agent")).thenReturn("Test");
 
-        AuditoriaAcceso auditoriaGuardada = new AuditoriaAcceso();
-        auditoriaGuardada.setId(1L);
-        when(auditoriaAccesoRepository.save(any(AuditoriaAcceso.class))).thenReturn(auditoriaGuardada);
-
         // When
         logger.logAccess(auditorUser, "Test", request);
 
         // Then
         ArgumentCaptor<AuditoriaAcceso> captor = ArgumentCaptor.forClass(AuditoriaAcceso.class);
-        verify(auditoriaAccesoRepository).save(captor.capture());
+        verify(auditoriaAccesoWriter).encolar(captor.capture());
 
         assertThat(captor.getValue().getIpAddress()).isEqualTo("203.0.113.195");
     }
@@ -241,16 +211,12 @@ class AuditorAccessLoggerTest {
         when(request.getMethod()).thenReturn("GET");
         when(request.getHeader("User-Agent")).thenReturn("Test");
 
-        AuditoriaAcceso auditoriaGuardada = new AuditoriaAcceso();
-        auditoriaGuardada.setId(1L);
-        when(auditoriaAccesoRepository.save(any(AuditoriaAcceso.class))).thenReturn(auditoriaGuardada);
-
         // When
         logger.logAccess(auditorUser, "Test", request);
 
         // Then
         ArgumentCaptor<AuditoriaAcceso> captor = ArgumentCaptor.forClass(AuditoriaAcceso.class);
-        verify(auditoriaAccesoRepository).save(captor.capture());
+        verify(auditoriaAccesoWriter).encolar(captor.capture());
 
         assertThat(captor.getValue().getIpAddress()).isEqualTo("192.168.1.50");
     }
@@ -265,16 +231,12 @@ class AuditorAccessLoggerTest {
         when(request.getMethod()).thenReturn("GET");
         when(request.getHeader("User-Agent")).thenReturn("Test");
 
-        AuditoriaAcceso auditoriaGuardada = new AuditoriaAcceso();
-        auditoriaGuardada.setId(1L);
-        when(auditoriaAccesoRepository.save(any(AuditoriaAcceso.class))).thenReturn(auditoriaGuardada);
-
         // When
         logger.logAccess(auditorUser, "Test", request);
 
         // Then
         ArgumentCaptor<AuditoriaAcceso> captor = ArgumentCaptor.forClass(AuditoriaAcceso.class);
-        verify(auditoriaAccesoRepository).save(captor.capture());
+        verify(auditoriaAccesoWriter).encolar(captor.capture());
 
         assertThat(captor.getValue().getIpAddress()).isEqualTo("10.0.0.1");
     }
@@ -289,16 +251,12 @@ class AuditorAccessLoggerTest {
         when(request.getMethod()).thenReturn("GET");
         when(request.getHeader("User-Agent")).thenReturn("Test");
 
-        AuditoriaAcceso auditoriaGuardada = new AuditoriaAcceso();
-        auditoriaGuardada.setId(1L);
-        when(auditoriaAccesoRepository.save(any(AuditoriaAcceso.class))).thenReturn(auditoriaGuardada);
-
         // When
         logger.logAccess(auditorUser, "Test", request);
 
         // Then
         ArgumentCaptor<AuditoriaAcceso> captor = ArgumentCaptor.forClass(AuditoriaAcceso.class);
-        verify(auditoriaAccesoRepository).save(captor.capture());
+        verify(auditoriaAccesoWriter).encolar(captor.capture());
 
         assertThat(captor.getValue().getIpAddress()).isEqualTo("192.168.0.1");
     }
@@ -311,16 +269,12 @@ class AuditorAccessLoggerTest {
         userSinRole.setUsername("usersinrole");
         userSinRole.setRole(null);
 
-        AuditoriaAcceso auditoriaGuardada = new AuditoriaAcceso();
-        auditoriaGuardada.setId(1L);
-        when(auditoriaAccesoRepository.save(any(AuditoriaAcceso.class))).thenReturn(auditoriaGuardada);
-
         // When
         logger.logUnauthorizedModification(userSinRole, "Eliminar lote", null);
 
         // Then
         ArgumentCaptor<AuditoriaAcceso> captor = ArgumentCaptor.forClass(AuditoriaAcceso.class);
-        verify(auditoriaAccesoRepository).save(captor.capture());
+        verify(auditoriaAccesoWriter).encolar(captor.capture());
 
         assertThat(captor.getValue().getAccion()).isEqualTo("Intento no autorizado de modificación: Eliminar lote");
     }
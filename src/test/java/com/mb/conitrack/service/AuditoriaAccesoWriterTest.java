@@ -0,0 +1,153 @@
+package com.mb.conitrack.service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.mb.conitrack.entity.AuditoriaAcceso;
+import com.mb.conitrack.repository.AuditoriaAccesoRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitarios para AuditoriaAccesoWriter.
+ * Los casos de desborde usan una cola propia sin hilo escritor para que el resultado sea determinístico.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios - AuditoriaAccesoWriter")
+class AuditoriaAccesoWriterTest {
+
+    @Mock
+    private AuditoriaAccesoRepository auditoriaAccesoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AuditoriaAccesoWriter writer;
+
+    @Test
+    @DisplayName("test_encolar_modoSincronico_debe_escribirEnElMomento")
+    void test_encolar_modoSincronico_debe_escribirEnElMomento() {
+        ReflectionTestUtils.setField(writer, "asincronico", false);
+        writer.iniciar();
+        AuditoriaAcceso registro = registro("GET /api/lotes");
+
+        writer.encolar(registro);
+
+        verify(auditoriaAccesoRepository).insertarBatch(List.of(registro));
+        assertThat(writer.getEscritos()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("test_detener_debe_escribirTodoLoEncolado")
+    void test_detener_debe_escribirTodoLoEncolado() {
+        ReflectionTestUtils.setField(writer, "intervaloMs", 10L);
+        writer.iniciar();
+
+        writer.encolar(registro("GET /api/1"));
+        writer.encolar(registro("GET /api/2"));
+        writer.encolar(registro("GET /api/3"));
+        writer.detener();
+
+        ArgumentCaptor<List<AuditoriaAcceso>> captor = ArgumentCaptor.forClass(List.class);
+        verify(auditoriaAccesoRepository, atLeastOnce()).insertarBatch(captor.capture());
+        assertThat(writer.getEscritos()).isEqualTo(3);
+        assertThat(writer.getPendientes()).isZero();
+    }
+
+    @Test
+    @DisplayName("test_encolar_colaLlenaConDescarte_debe_descartarYContabilizar")
+    void test_encolar_colaLlenaConDescarte_debe_descartarYContabilizar() {
+        ReflectionTestUtils.setField(writer, "desborde", AuditoriaAccesoWriter.PoliticaDesborde.DESCARTAR);
+        ReflectionTestUtils.setField(writer, "cola", new ArrayBlockingQueue<AuditoriaAcceso>(1));
+
+        writer.encolar(registro("GET /api/1"));
+        writer.encolar(registro("GET /api/2"));
+
+        verifyNoInteractions(auditoriaAccesoRepository);
+        assertThat(writer.getPendientes()).isEqualTo(1);
+        assertThat(writer.getDescartados()).isEqualTo(1);
+
+        writer.vaciarCola();
+        verify(auditoriaAccesoRepository, times(1)).insertarBatch(anyList());
+        assertThat(writer.getPendientes()).isZero();
+    }
+
+    @Test
+    @DisplayName("test_encolar_colaLlenaSincronico_debe_escribirEnElHiloLlamador")
+    void test_encolar_colaLlenaSincronico_debe_escribirEnElHiloLlamador() {
+        ReflectionTestUtils.setField(writer, "cola", new ArrayBlockingQueue<AuditoriaAcceso>(1));
+        AuditoriaAcceso desbordado = registro("GET /api/2");
+
+        writer.encolar(registro("GET /api/1"));
+        writer.encolar(desbordado);
+
+        verify(auditoriaAccesoRepository).insertarBatch(List.of(desbordado));
+        assertThat(writer.getDescartados()).isZero();
+        assertThat(writer.getPendientes()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("test_escribir_errorEnBD_debe_contabilizarFallidosYNoFallar")
+    void test_escribir_errorEnBD_debe_contabilizarFallidosYNoFallar() {
+        ReflectionTestUtils.setField(writer, "asincronico", false);
+        writer.iniciar();
+        when(auditoriaAccesoRepository.insertarBatch(anyList())).thenThrow(new RuntimeException("Database error"));
+
+        writer.encolar(registro("GET /api/lotes"));
+
+        assertThat(writer.getFallidos()).isEqualTo(1);
+        assertThat(writer.getEscritos()).isZero();
+    }
+
+    @Test
+    @DisplayName("test_escribir_batchConRegistroInvalido_debe_reintentarRegistroPorRegistroYPerderSoloEseRegistro")
+    void test_escribir_batchConRegistroInvalido_debe_reintentarRegistroPorRegistroYPerderSoloEseRegistro() {
+        ReflectionTestUtils.setField(writer, "cola", new ArrayBlockingQueue<AuditoriaAcceso>(10));
+        AuditoriaAcceso invalido = registro("GET /api/" + "x".repeat(600));
+        when(auditoriaAccesoRepository.insertarBatch(anyList())).thenAnswer(invocation -> {
+            List<AuditoriaAcceso> registros = invocation.getArgument(0);
+            if (registros.contains(invalido)) {
+                throw new RuntimeException("Value too long for column ACCION");
+            }
+            return registros.size();
+        });
+
+        writer.encolar(registro("GET /api/1"));
+        writer.encolar(invalido);
+        writer.encolar(registro("GET /api/3"));
+        writer.vaciarCola();
+
+        // Un intento por el batch completo y uno por cada registro
+        verify(auditoriaAccesoRepository, times(4)).insertarBatch(anyList());
+        verify(auditoriaAccesoRepository).insertarBatch(List.of(invalido));
+        assertThat(writer.getEscritos()).isEqualTo(2);
+        assertThat(writer.getFallidos()).isEqualTo(1);
+        assertThat(writer.getPendientes()).isZero();
+    }
+
+    private static AuditoriaAcceso registro(String accion) {
+        return AuditoriaAcceso.builder()
+            .username("auditor")
+            .roleName("AUDITOR")
+            .accion(accion)
+            .build();
+    }
+
+}
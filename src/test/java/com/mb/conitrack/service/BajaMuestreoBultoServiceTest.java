@@ -62,9 +62,15 @@ class BajaMuestreoBultoServiceTest {
     @Mock
     TrazaRepository trazaRepository;
 
+    @Mock
+    TrazaRangoService trazaRangoService;
+
     @Mock
     SecurityContextService securityContextService;
 
+    @Mock
+    DashboardMetricsCache dashboardMetricsCache;
+
     @InjectMocks
     BajaMuestreoBultoService muestreoBultoService;
 
@@ -90,11 +96,13 @@ class BajaMuestreoBultoServiceTest {
         ReflectionTestUtils.setField(muestreoTrazableService, "movimientoRepository", movimientoRepository);
         ReflectionTestUtils.setField(muestreoTrazableService, "analisisRepository", analisisRepository);
         ReflectionTestUtils.setField(muestreoTrazableService, "trazaRepository", trazaRepository);
+        ReflectionTestUtils.setField(muestreoTrazableService, "dashboardMetricsCache", dashboardMetricsCache);
 
         ReflectionTestUtils.setField(muestreoMultiBultoService, "loteRepository", loteRepository);
         ReflectionTestUtils.setField(muestreoMultiBultoService, "movimientoRepository", movimientoRepository);
         ReflectionTestUtils.setField(muestreoMultiBultoService, "analisisRepository", analisisRepository);
         ReflectionTestUtils.setField(muestreoMultiBultoService, "trazaRepository", trazaRepository);
+        ReflectionTestUtils.setField(muestreoMultiBultoService, "dashboardMetricsCache", dashboardMetricsCache);
 
         // Inject specialized services into coordinator
         ReflectionTestUtils.setField(muestreoBultoService, "muestreoTrazableService", muestreoTrazableService);
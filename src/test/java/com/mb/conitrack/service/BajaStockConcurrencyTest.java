@@ -0,0 +1,296 @@
+package com.mb.conitrack.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.entity.Bulto;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.entity.maestro.Proveedor;
+import com.mb.conitrack.entity.maestro.Role;
+import com.mb.conitrack.entity.maestro.User;
+import com.mb.conitrack.enums.DictamenEnum;
+import com.mb.conitrack.enums.EstadoEnum;
+import com.mb.conitrack.enums.RoleEnum;
+import com.mb.conitrack.enums.TipoProductoEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.exception.StockInsuficienteException;
+import com.mb.conitrack.repository.BultoRepository;
+import com.mb.conitrack.repository.LoteRepository;
+import com.mb.conitrack.repository.maestro.ProductoRepository;
+import com.mb.conitrack.repository.maestro.ProveedorRepository;
+import com.mb.conitrack.repository.maestro.RoleRepository;
+import com.mb.conitrack.repository.maestro.UserRepository;
+import com.mb.conitrack.service.cu.BajaConsumoProduccionService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test de concurrencia de las bajas de stock contra H2.
+ * Varios hilos descuentan unidades del mismo lote (sobre el mismo bulto o sobre bultos distintos) a través del
+ * reintento optimista, y se verifica que el stock final refleje exactamente las bajas confirmadas.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:bajas;LOCK_TIMEOUT=10000",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.sql.init.mode=never",
+    "spring.jpa.defer-datasource-initialization=false",
+    "conitrack.concurrencia.max-intentos=50",
+    "conitrack.concurrencia.espera-ms=5"
+})
+@DisplayName("Tests de Concurrencia - Bajas de stock")
+class BajaStockConcurrencyTest {
+
+    private static final int HILOS = 8;
+
+    private static final int BAJAS_POR_HILO = 10;
+
+    private static final int BULTOS = 4;
+
+    private static final BigDecimal STOCK_BULTO = new BigDecimal("100");
+
+    @Autowired
+    private BajaConsumoProduccionService consumoProduccionService;
+
+    @Autowired
+    private ReintentoOptimista reintentoOptimista;
+
+    @Autowired
+    private LoteRepository loteRepository;
+
+    @Autowired
+    private BultoRepository bultoRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ProveedorRepository proveedorRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private SecurityContextService securityContextService;
+
+    private final AtomicInteger secuencia = new AtomicInteger();
+
+    private Producto producto;
+
+    private Proveedor proveedor;
+
+    private Role role;
+
+    private User user;
+
+    private Lote lote;
+
+    @BeforeEach
+    void setUp() {
+        role = roleRepository.save(Role.fromEnum(RoleEnum.ADMIN));
+        user = userRepository.save(new User("concurrencia", "password", role));
+        when(securityContextService.getCurrentUser()).thenReturn(user);
+
+        producto = new Producto();
+        producto.setCodigoProducto("QC-CONCURRENCIA");
+        producto.setNombreGenerico("Producto concurrencia");
+        producto.setTipoProducto(TipoProductoEnum.API);
+        producto.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        producto.setActivo(true);
+        producto = productoRepository.save(producto);
+
+        proveedor = new Proveedor();
+        proveedor.setRazonSocial("Proveedor concurrencia");
+        proveedor.setCuit("20-22222222-2");
+        proveedor.setDireccion("Calle QC 2");
+        proveedor.setCiudad("Buenos Aires");
+        proveedor.setPais("Argentina");
+        proveedor.setActivo(true);
+        proveedor = proveedorRepository.save(proveedor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (lote != null) {
+            jdbcTemplate.update("""
+                delete from detalle_movimientos
+                where movimiento_id in (select id from movimientos where lote_id = ?)""", lote.getId());
+            jdbcTemplate.update("delete from movimientos where lote_id = ?", lote.getId());
+            jdbcTemplate.update("delete from bultos where lote_id = ?", lote.getId());
+            jdbcTemplate.update("delete from lotes where id = ?", lote.getId());
+        }
+        jdbcTemplate.update("delete from proveedores where id = ?", proveedor.getId());
+        jdbcTemplate.update("delete from productos where id = ?", producto.getId());
+        jdbcTemplate.update("delete from users where id = ?", user.getId());
+        jdbcTemplate.update("delete from roles where id = ?", role.getId());
+    }
+
+    @Test
+    @DisplayName("test_bajasConcurrentes_debe_descontarExactamenteLasBajasConfirmadas")
+    void test_bajasConcurrentes_debe_descontarExactamenteLasBajasConfirmadas() throws Exception {
+        lote = crearLote("L-QC-CONC-1", STOCK_BULTO);
+
+        final List<Integer> bajas = ejecutarEnParalelo(HILOS, BAJAS_POR_HILO, true);
+
+        final int confirmadas = bajas.size();
+        assertThat(confirmadas).isEqualTo(HILOS * BAJAS_POR_HILO);
+        final BigDecimal stockInicial = STOCK_BULTO.multiply(BigDecimal.valueOf(BULTOS));
+        assertStockCoherente(stockInicial.subtract(BigDecimal.valueOf(confirmadas)));
+        assertThat(contarBajas()).isEqualTo(confirmadas);
+    }
+
+    @Test
+    @DisplayName("test_bajasConcurrentesSobreStockEscaso_noDebe_dejarStockNegativo")
+    void test_bajasConcurrentesSobreStockEscaso_noDebe_dejarStockNegativo() throws Exception {
+        final BigDecimal stockBulto = new BigDecimal("5");
+        lote = crearLote("L-QC-CONC-2", stockBulto);
+
+        // Todos los hilos compiten por el bulto 1: solo 5 de las bajas pueden confirmarse
+        final List<Integer> bajas = ejecutarEnParalelo(HILOS, 2, false);
+
+        assertThat(bajas).hasSize(stockBulto.intValue());
+        assertThat(jdbcTemplate.queryForObject(
+            "select cantidad_actual from bultos where lote_id = ? and nro_bulto = 1", BigDecimal.class, lote.getId()))
+            .isEqualByComparingTo(BigDecimal.ZERO);
+        assertStockCoherente(stockBulto.multiply(BigDecimal.valueOf(BULTOS - 1)));
+        assertThat(contarBajas()).isEqualTo(stockBulto.intValue());
+    }
+
+    /**
+     * Lanza los hilos a la vez y devuelve el bulto de cada baja confirmada. Las bajas rechazadas por falta de
+     * stock se descartan; cualquier otro error hace fallar el test.
+     */
+    private List<Integer> ejecutarEnParalelo(final int hilos, final int bajasPorHilo, final boolean bultoAlAzar)
+        throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        final CountDownLatch largada = new CountDownLatch(1);
+        final List<Integer> confirmadas = Collections.synchronizedList(new ArrayList<>());
+        final List<Future<Void>> futuros = new ArrayList<>();
+        try {
+            for (int h = 0; h < hilos; h++) {
+                final Callable<Void> tarea = () -> {
+                    largada.await();
+                    for (int i = 0; i < bajasPorHilo; i++) {
+                        final int nroBulto = bultoAlAzar ? 1 + ThreadLocalRandom.current().nextInt(BULTOS) : 1;
+                        try {
+                            reintentoOptimista.ejecutar("test", () ->
+                                consumoProduccionService.bajaConsumoProduccion(bajaDeUnaUnidad(nroBulto)));
+                            confirmadas.add(nroBulto);
+                        } catch (StockInsuficienteException e) {
+                            assertThat(e.getMessage()).startsWith("Stock insuficiente");
+                        }
+                    }
+                    return null;
+                };
+                futuros.add(executor.submit(tarea));
+            }
+            largada.countDown();
+            for (Future<Void> futuro : futuros) {
+                futuro.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return confirmadas;
+    }
+
+    private LoteDTO bajaDeUnaUnidad(final int nroBulto) {
+        final LoteDTO dto = new LoteDTO();
+        dto.setCodigoLote(lote.getCodigoLote());
+        dto.setFechaEgreso(LocalDate.now());
+        // Timestamps distintos para que cada movimiento tenga su propio código
+        dto.setFechaYHoraCreacion(OffsetDateTime.now().plusNanos(secuencia.incrementAndGet() * 1000L));
+        dto.setOrdenProduccion("OP-QC");
+        final List<Integer> nros = new ArrayList<>();
+        final List<BigDecimal> cantidades = new ArrayList<>();
+        final List<UnidadMedidaEnum> unidades = new ArrayList<>();
+        for (int nro = 1; nro <= BULTOS; nro++) {
+            nros.add(nro);
+            cantidades.add(nro == nroBulto ? BigDecimal.ONE : BigDecimal.ZERO);
+            unidades.add(UnidadMedidaEnum.UNIDAD);
+        }
+        dto.setNroBultoList(nros);
+        dto.setCantidadesBultos(cantidades);
+        dto.setUnidadMedidaBultos(unidades);
+        return dto;
+    }
+
+    private void assertStockCoherente(final BigDecimal esperado) {
+        final Lote actual = loteRepository.findById(lote.getId()).orElseThrow();
+        final BigDecimal sumaBultos = jdbcTemplate.queryForObject(
+            "select sum(cantidad_actual) from bultos where lote_id = ?", BigDecimal.class, lote.getId());
+        assertThat(actual.getCantidadActual()).isEqualByComparingTo(esperado);
+        assertThat(sumaBultos).isEqualByComparingTo(esperado);
+    }
+
+    private int contarBajas() {
+        return jdbcTemplate.queryForObject(
+            "select count(*) from movimientos where lote_id = ? and tipo_movimiento = 'BAJA'", Integer.class,
+            lote.getId());
+    }
+
+    private Lote crearLote(final String codigo, final BigDecimal stockBulto) {
+        Lote nuevo = new Lote();
+        nuevo.setFechaYHoraCreacion(OffsetDateTime.now());
+        nuevo.setCodigoLote(codigo);
+        nuevo.setProducto(producto);
+        nuevo.setProveedor(proveedor);
+        nuevo.setFechaIngreso(LocalDate.now().minusDays(10));
+        nuevo.setLoteProveedor("LP-" + codigo);
+        nuevo.setFechaReanalisisProveedor(LocalDate.now().plusYears(1));
+        nuevo.setFechaVencimientoProveedor(LocalDate.now().plusYears(2));
+        nuevo.setEstado(EstadoEnum.DISPONIBLE);
+        nuevo.setDictamen(DictamenEnum.APROBADO);
+        nuevo.setBultosTotales(BULTOS);
+        nuevo.setCantidadInicial(stockBulto.multiply(BigDecimal.valueOf(BULTOS)));
+        nuevo.setCantidadActual(stockBulto.multiply(BigDecimal.valueOf(BULTOS)));
+        nuevo.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        nuevo.setTrazado(false);
+        nuevo.setActivo(true);
+        nuevo = loteRepository.save(nuevo);
+
+        for (int nro = 1; nro <= BULTOS; nro++) {
+            Bulto bulto = new Bulto();
+            bulto.setLote(nuevo);
+            bulto.setNroBulto(nro);
+            bulto.setCantidadInicial(stockBulto);
+            bulto.setCantidadActual(stockBulto);
+            bulto.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+            bulto.setEstado(EstadoEnum.DISPONIBLE);
+            bulto.setActivo(true);
+            bultoRepository.save(bulto);
+        }
+        return nuevo;
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.mb.conitrack.service;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.mb.conitrack.repository.LoteRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios - CodigoLoteGenerator")
+class CodigoLoteGeneratorTest {
+
+    private static final OffsetDateTime FECHA = OffsetDateTime.of(2025, 1, 10, 10, 0, 0, 0, ZoneOffset.UTC);
+
+    private static final String BASE = "L-API-1-25.01.10_10.00.00";
+
+    @InjectMocks
+    CodigoLoteGenerator generator;
+
+    @Mock
+    LoteRepository loteRepository;
+
+    @Test
+    @DisplayName("test_generar_mismoSegundo_debe_agregarSufijoCorrelativo")
+    void test_generar_mismoSegundo_debe_agregarSufijoCorrelativo() {
+        when(loteRepository.findCodigosLoteByPrefijo(BASE)).thenReturn(List.of());
+
+        assertEquals(BASE, generator.generar("API-1", FECHA));
+        assertEquals(BASE + "-2", generator.generar("API-1", FECHA));
+        assertEquals(BASE + "-3", generator.generar("API-1", FECHA));
+        verify(loteRepository, times(1)).findCodigosLoteByPrefijo(BASE);
+    }
+
+    @Test
+    @DisplayName("test_generar_codigosPersistidos_debe_continuarDespuesDelMayorSufijo")
+    void test_generar_codigosPersistidos_debe_continuarDespuesDelMayorSufijo() {
+        when(loteRepository.findCodigosLoteByPrefijo(BASE))
+            .thenReturn(List.of(BASE, BASE + "-4", BASE + "-2", BASE + "-X"));
+
+        assertEquals(BASE + "-5", generator.generar("API-1", FECHA));
+    }
+
+}
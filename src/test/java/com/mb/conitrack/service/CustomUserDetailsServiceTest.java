@@ -8,12 +8,14 @@ import org.mockito.Mockito;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import com.mb.conitrack.dto.UsuarioActualDTO;
 import com.mb.conitrack.entity.maestro.Role;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.RoleEnum;
 import com.mb.conitrack.repository.maestro.RoleRepository;
 import com.mb.conitrack.repository.maestro.UserRepository;
 import com.mb.conitrack.service.maestro.CustomUserDetailsService;
+import com.mb.conitrack.service.maestro.UsuarioPrincipal;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -48,6 +50,9 @@ class CustomUserDetailsServiceTest {
         assertEquals("admin", userDetails.getUsername());
         assertEquals("encodedPassword", userDetails.getPassword());
         assertTrue(userDetails.getAuthorities().stream().anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN")));
+        UsuarioActualDTO usuarioActual = ((UsuarioPrincipal) userDetails).getUsuarioActual();
+        assertEquals("admin", usuarioActual.username());
+        assertEquals(RoleEnum.ADMIN, usuarioActual.roleEnum());
     }
 
     @Test
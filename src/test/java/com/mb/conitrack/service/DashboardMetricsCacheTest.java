@@ -0,0 +1,304 @@
+package com.mb.conitrack.service;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mb.conitrack.dto.DashboardMetricsDTO;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.Movimiento;
+import com.mb.conitrack.enums.DictamenEnum;
+import com.mb.conitrack.service.DashboardMetricsCache.LoteMetricas;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitarios para DashboardMetricsCache.
+ * Cubre vigencia del snapshot, aplicación de deltas, conteo de correcciones y la generación que evita
+ * instalar cálculos concurrentes con un CU.
+ */
+@DisplayName("Tests Unitarios - DashboardMetricsCache")
+class DashboardMetricsCacheTest {
+
+    private static final ZoneId ZONA = ZoneId.of("America/Argentina/Buenos_Aires");
+
+    private DashboardMetricsCache cache;
+
+    private Instant ahora;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DashboardMetricsCache();
+        ahora = Instant.now();
+        cache.setClock(Clock.fixed(ahora, ZONA));
+        cache.setMaxStaleness(Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("Sin snapshot debe devolver null")
+    void getVigente_sinSnapshot_debeDevolverNull() {
+        assertThat(cache.getVigente()).isNull();
+    }
+
+    @Test
+    @DisplayName("Snapshot reciente debe devolverse como copia")
+    void getVigente_snapshotReciente_debeDevolverCopia() {
+        DashboardMetricsDTO metrics = metrics(10L, 2L, 100.0);
+        cache.actualizar(metrics, cache.getGeneracion());
+
+        DashboardMetricsDTO vigente = cache.getVigente();
+
+        assertThat(vigente).isEqualTo(metrics).isNotSameAs(metrics);
+    }
+
+    @Test
+    @DisplayName("Snapshot más viejo que la staleness máxima debe descartarse")
+    void getVigente_snapshotVencido_debeDevolverNull() {
+        cache.actualizar(metrics(10L, 2L, 100.0), cache.getGeneracion());
+
+        cache.setClock(Clock.fixed(ahora.plus(Duration.ofMinutes(11)), ZONA));
+
+        assertThat(cache.getVigente()).isNull();
+    }
+
+    @Test
+    @DisplayName("Alta de lote debe sumar lote activo, stock y movimiento del día")
+    void registrarMovimiento_altaLote_debeAplicarDelta() {
+        cache.actualizar(metrics(10L, 2L, 100.0), cache.getGeneracion());
+        Lote lote = lote(DictamenEnum.RECIBIDO, "25.5");
+
+        cache.registrarMovimiento(movimientoHoy(), null, LoteMetricas.de(lote));
+
+        DashboardMetricsDTO vigente = cache.getVigente();
+        assertThat(vigente.getLotesActivos()).isEqualTo(11L);
+        assertThat(vigente.getLotesCuarentena()).isEqualTo(2L);
+        assertThat(vigente.getStockTotal()).isEqualTo(125.5);
+        assertThat(vigente.getMovimientosHoy()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Baja de stock debe restar la diferencia de cantidad")
+    void registrarMovimiento_baja_debeRestarStock() {
+        cache.actualizar(metrics(10L, 2L, 100.0), cache.getGeneracion());
+        Lote lote = lote(DictamenEnum.LIBERADO, "40");
+        LoteMetricas antes = LoteMetricas.de(lote);
+        lote.setCantidadActual(new BigDecimal("30"));
+
+        cache.registrarMovimiento(movimientoHoy(), antes, LoteMetricas.de(lote));
+
+        DashboardMetricsDTO vigente = cache.getVigente();
+        assertThat(vigente.getLotesActivos()).isEqualTo(10L);
+        assertThat(vigente.getStockTotal()).isEqualTo(90.0);
+    }
+
+    @Test
+    @DisplayName("Delta sin snapshot no debe crear snapshot parcial")
+    void registrarMovimiento_sinSnapshot_noDebeCrearSnapshot() {
+        cache.registrarMovimiento(movimientoHoy(), null, LoteMetricas.de(lote(DictamenEnum.RECIBIDO, "1")));
+
+        assertThat(cache.getVigente()).isNull();
+    }
+
+    @Test
+    @DisplayName("Invalidar fuera de transacción debe descartar el snapshot")
+    void invalidar_debeDescartarSnapshot() {
+        cache.actualizar(metrics(10L, 2L, 100.0), cache.getGeneracion());
+
+        cache.invalidar();
+
+        assertThat(cache.getVigente()).isNull();
+    }
+
+    @Test
+    @DisplayName("Reconciliación con desvío debe contar una corrección")
+    void reconciliar_conDesvio_debeContarCorreccion() {
+        cache.actualizar(metrics(10L, 2L, 100.0), cache.getGeneracion());
+
+        boolean corregido = cache.reconciliar(metrics(9L, 2L, 100.0), cache.getGeneracion());
+
+        assertThat(corregido).isTrue();
+        assertThat(cache.getCorreccionesReconciliacion()).isEqualTo(1L);
+        assertThat(cache.getVigente().getLotesActivos()).isEqualTo(9L);
+    }
+
+    @Test
+    @DisplayName("Reconciliación sin desvío no debe contar correcciones")
+    void reconciliar_sinDesvio_noDebeContarCorreccion() {
+        cache.actualizar(metrics(10L, 2L, 100.0), cache.getGeneracion());
+
+        boolean corregido = cache.reconciliar(metrics(10L, 2L, 100.0), cache.getGeneracion());
+
+        assertThat(corregido).isFalse();
+        assertThat(cache.getCorreccionesReconciliacion()).isZero();
+    }
+
+    @Test
+    @DisplayName("Cálculo leído antes de un CU confirmado no debe instalarse")
+    void actualizar_calculoPrevioAlCommit_noDebeInstalarse() {
+        cache.actualizar(metrics(10L, 2L, 100.0), cache.getGeneracion());
+        final long generacion = cache.getGeneracion();
+        final DashboardMetricsDTO calculadoSinElMovimiento = metrics(10L, 2L, 100.0);
+
+        cache.registrarMovimiento(movimientoHoy(), null, LoteMetricas.de(lote(DictamenEnum.RECIBIDO, "5")));
+        boolean instalado = cache.actualizar(calculadoSinElMovimiento, generacion);
+
+        assertThat(instalado).isFalse();
+        assertThat(cache.getVigente().getLotesActivos()).isEqualTo(11L);
+        assertThat(cache.getVigente().getMovimientosHoy()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Snapshot calculado entre commit y afterCommit debe descartarse en lugar de recibir el delta")
+    void registrarMovimiento_snapshotPosteriorAlRegistro_debeDescartarse() {
+        cache.actualizar(metrics(10L, 2L, 100.0), cache.getGeneracion());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.registrarMovimiento(movimientoHoy(), null, LoteMetricas.de(lote(DictamenEnum.RECIBIDO, "5")));
+            // Commit hecho: otro hilo recalcula (ya incluye el lote) antes del afterCommit
+            final long generacion = cache.getGeneracion();
+            assertThat(cache.actualizar(metrics(11L, 2L, 105.0), generacion)).isTrue();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cache.getVigente()).isNull();
+    }
+
+    @Test
+    @DisplayName("Invalidación debe rechazar cálculos iniciados antes")
+    void invalidar_calculoEnCurso_noDebeInstalarse() {
+        final long generacion = cache.getGeneracion();
+
+        cache.invalidar();
+
+        assertThat(cache.actualizar(metrics(10L, 2L, 100.0), generacion)).isFalse();
+        assertThat(cache.getVigente()).isNull();
+    }
+
+    @Test
+    @DisplayName("Reconciliación con generación vieja no debe tocar el snapshot ni contar correcciones")
+    void reconciliar_generacionVieja_noDebeCorregir() {
+        cache.actualizar(metrics(10L, 2L, 100.0), cache.getGeneracion());
+        final long generacion = cache.getGeneracion();
+        cache.registrarMovimiento(movimientoHoy(), null, LoteMetricas.de(lote(DictamenEnum.RECIBIDO, "5")));
+
+        boolean corregido = cache.reconciliar(metrics(10L, 2L, 100.0), generacion);
+
+        assertThat(corregido).isFalse();
+        assertThat(cache.getCorreccionesReconciliacion()).isZero();
+        assertThat(cache.getVigente().getLotesActivos()).isEqualTo(11L);
+    }
+
+    @Test
+    @DisplayName("CUs y recálculos concurrentes no deben perder ni duplicar movimientos")
+    void concurrencia_cusYRecalculos_snapshotDebeCoincidirConLaBase() throws Exception {
+        final AtomicLong movimientosEnBase = new AtomicLong();
+        final int cus = 2;
+        final int recalculos = 2;
+        final int iteraciones = 2_000;
+        final AtomicBoolean terminado = new AtomicBoolean();
+        final CountDownLatch largada = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(cus + recalculos);
+        cache.actualizar(metrics(0L, 0L, 0.0), cache.getGeneracion());
+        try {
+            final List<Future<?>> escritores = new ArrayList<>();
+            for (int i = 0; i < cus; i++) {
+                escritores.add(executor.submit(() -> {
+                    largada.await();
+                    for (int j = 0; j < iteraciones; j++) {
+                        TransactionSynchronizationManager.initSynchronization();
+                        try {
+                            cache.registrarMovimiento(movimientoHoy(), LoteMetricas.VACIO, LoteMetricas.VACIO);
+                            movimientosEnBase.incrementAndGet();
+                            Thread.yield();
+                            TransactionSynchronizationManager.getSynchronizations()
+                                .forEach(TransactionSynchronization::afterCommit);
+                        } finally {
+                            TransactionSynchronizationManager.clearSynchronization();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            final List<Future<?>> lectores = new ArrayList<>();
+            for (int i = 0; i < recalculos; i++) {
+                lectores.add(executor.submit(() -> {
+                    largada.await();
+                    while (!terminado.get()) {
+                        final long generacion = cache.getGeneracion();
+                        final long enBase = movimientosEnBase.get();
+                        Thread.yield();
+                        cache.actualizar(new DashboardMetricsDTO(0L, 0L, enBase, 0L, 0L, 0.0), generacion);
+                    }
+                    return null;
+                }));
+            }
+
+            largada.countDown();
+            for (Future<?> escritor : escritores) {
+                escritor.get(30, TimeUnit.SECONDS);
+            }
+            terminado.set(true);
+            for (Future<?> lector : lectores) {
+                lector.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(movimientosEnBase.get()).isEqualTo((long) cus * iteraciones);
+        DashboardMetricsDTO vigente = cache.getVigente();
+        if (vigente != null) {
+            assertThat(vigente.getMovimientosHoy()).isEqualTo(movimientosEnBase.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Lote inactivo no contribuye a las métricas")
+    void loteMetricas_loteInactivo_debeSerVacio() {
+        Lote lote = lote(DictamenEnum.CUARENTENA, "10");
+        lote.setActivo(false);
+
+        assertThat(LoteMetricas.de(lote)).isEqualTo(LoteMetricas.VACIO);
+    }
+
+    private static DashboardMetricsDTO metrics(Long activos, Long cuarentena, Double stock) {
+        return new DashboardMetricsDTO(activos, 0L, 0L, cuarentena, 0L, stock);
+    }
+
+    private static Lote lote(DictamenEnum dictamen, String cantidad) {
+        Lote lote = new Lote();
+        lote.setActivo(true);
+        lote.setDictamen(dictamen);
+        lote.setCantidadActual(new BigDecimal(cantidad));
+        lote.setFechaVencimientoProveedor(LocalDate.now().plusYears(1));
+        return lote;
+    }
+
+    private Movimiento movimientoHoy() {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setFecha(LocalDate.ofInstant(ahora, ZONA));
+        return movimiento;
+    }
+
+}
@@ -0,0 +1,208 @@
+package com.mb.conitrack.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mb.conitrack.dto.DashboardMetricsDTO;
+import com.mb.conitrack.entity.Analisis;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.Movimiento;
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.entity.maestro.Proveedor;
+import com.mb.conitrack.enums.DictamenEnum;
+import com.mb.conitrack.enums.EstadoEnum;
+import com.mb.conitrack.enums.MotivoEnum;
+import com.mb.conitrack.enums.TipoMovimientoEnum;
+import com.mb.conitrack.enums.TipoProductoEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+
+import jakarta.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests de integración de las consultas agregadas del dashboard contra H2.
+ * La base es compartida con otros tests, por lo que cada caso compara contra las métricas previas a sus datos.
+ * Cantidad actual, fecha de vencimiento del proveedor y fecha del movimiento son NOT NULL, por lo que los casos
+ * con esos valores nulos no llegan a la base.
+ * La medición con 10k/100k/1M lotes está en DashboardMetricsBenchmark (src/jmh).
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:testdb",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.sql.init.mode=never",
+    "spring.jpa.defer-datasource-initialization=false"
+})
+@Transactional
+@DisplayName("Tests de Integración - DashboardService consultas agregadas")
+class DashboardServiceIntegrationTest {
+
+    private static final LocalDate HOY = LocalDate.now();
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Producto producto;
+
+    private Proveedor proveedor;
+
+    private DashboardMetricsDTO antes;
+
+    private int secuencia;
+
+    @BeforeEach
+    void setUp() {
+        producto = new Producto();
+        producto.setCodigoProducto("QC-DASH");
+        producto.setNombreGenerico("Producto dashboard");
+        producto.setTipoProducto(TipoProductoEnum.UNIDAD_VENTA);
+        producto.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        producto.setActivo(true);
+        entityManager.persist(producto);
+
+        proveedor = new Proveedor();
+        proveedor.setRazonSocial("Proveedor dashboard");
+        proveedor.setCuit("20-DASH");
+        proveedor.setDireccion("Calle 1");
+        proveedor.setCiudad("Buenos Aires");
+        proveedor.setPais("Argentina");
+        proveedor.setActivo(true);
+        entityManager.persist(proveedor);
+
+        antes = dashboardService.calcularMetricas();
+    }
+
+    @Test
+    @DisplayName("test_calcularMetricas_lotes_debe_contarSoloActivosYSumarSuStock")
+    void test_calcularMetricas_lotes_debe_contarSoloActivosYSumarSuStock() {
+        crearLote(DictamenEnum.APROBADO, "10.5", HOY.plusYears(1), true);
+        crearLote(DictamenEnum.CUARENTENA, "4", HOY.plusYears(1), true);
+        crearLote(DictamenEnum.CUARENTENA, "0", HOY.plusYears(1), true);
+        crearLote(DictamenEnum.CUARENTENA, "100", HOY.plusYears(1), false);
+
+        DashboardMetricsDTO despues = dashboardService.calcularMetricas();
+
+        assertThat(despues.getLotesActivos() - antes.getLotesActivos()).isEqualTo(3L);
+        assertThat(despues.getLotesCuarentena() - antes.getLotesCuarentena()).isEqualTo(2L);
+        assertThat(despues.getStockTotal() - antes.getStockTotal()).isCloseTo(14.5, within(1e-6));
+        assertThat(despues.getAlertasPendientes()).isEqualTo(antes.getAlertasPendientes());
+    }
+
+    @Test
+    @DisplayName("test_calcularMetricas_alertas_debe_contarVencimientosAntesDelLimiteEnLotesActivos")
+    void test_calcularMetricas_alertas_debe_contarVencimientosAntesDelLimiteEnLotesActivos() {
+        final int dias = DashboardMetricsCache.DIAS_ALERTA_VENCIMIENTO;
+        crearLote(DictamenEnum.APROBADO, "1", HOY.minusDays(3), true);
+        crearLote(DictamenEnum.APROBADO, "1", HOY.plusDays(dias - 1), true);
+        crearLote(DictamenEnum.APROBADO, "1", HOY.plusDays(dias), true);
+        crearLote(DictamenEnum.APROBADO, "1", HOY.plusDays(5), false);
+
+        DashboardMetricsDTO despues = dashboardService.calcularMetricas();
+
+        assertThat(despues.getAlertasPendientes() - antes.getAlertasPendientes()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("test_calcularMetricas_analisis_debe_contarActivosSinDictamenOEnCuarentena")
+    void test_calcularMetricas_analisis_debe_contarActivosSinDictamenOEnCuarentena() {
+        Lote lote = crearLote(DictamenEnum.CUARENTENA, "1", HOY.plusYears(1), true);
+        crearAnalisis(lote, null, true);
+        crearAnalisis(lote, DictamenEnum.CUARENTENA, true);
+        crearAnalisis(lote, DictamenEnum.APROBADO, true);
+        crearAnalisis(lote, null, false);
+        crearAnalisis(lote, DictamenEnum.CUARENTENA, false);
+
+        DashboardMetricsDTO despues = dashboardService.calcularMetricas();
+
+        assertThat(despues.getAnalisisPendientes() - antes.getAnalisisPendientes()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("test_calcularMetricas_movimientos_debe_contarSoloLosDeHoy")
+    void test_calcularMetricas_movimientos_debe_contarSoloLosDeHoy() {
+        Lote lote = crearLote(DictamenEnum.APROBADO, "1", HOY.plusYears(1), true);
+        crearMovimiento(lote, HOY);
+        crearMovimiento(lote, HOY);
+        crearMovimiento(lote, HOY.minusDays(1));
+        crearMovimiento(lote, HOY.plusDays(1));
+
+        DashboardMetricsDTO despues = dashboardService.calcularMetricas();
+
+        assertThat(despues.getMovimientosHoy() - antes.getMovimientosHoy()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("test_calcularMetricas_soloLotesInactivos_debe_mantenerAgregadosSinCambios")
+    void test_calcularMetricas_soloLotesInactivos_debe_mantenerAgregadosSinCambios() {
+        crearLote(DictamenEnum.CUARENTENA, "50", HOY.plusDays(1), false);
+
+        DashboardMetricsDTO despues = dashboardService.calcularMetricas();
+
+        assertThat(despues).isEqualTo(antes);
+    }
+
+    private Lote crearLote(
+        final DictamenEnum dictamen,
+        final String cantidadActual,
+        final LocalDate fechaVencimiento,
+        final boolean activo) {
+        final String codigo = "L-DASH-" + (++secuencia);
+        Lote lote = new Lote();
+        lote.setFechaYHoraCreacion(OffsetDateTime.now());
+        lote.setCodigoLote(codigo);
+        lote.setProducto(producto);
+        lote.setProveedor(proveedor);
+        lote.setFechaIngreso(HOY);
+        lote.setLoteProveedor("LP-" + codigo);
+        lote.setFechaReanalisisProveedor(HOY.plusYears(1));
+        lote.setFechaVencimientoProveedor(fechaVencimiento);
+        lote.setEstado(EstadoEnum.DISPONIBLE);
+        lote.setDictamen(dictamen);
+        lote.setBultosTotales(1);
+        lote.setCantidadInicial(new BigDecimal(cantidadActual));
+        lote.setCantidadActual(new BigDecimal(cantidadActual));
+        lote.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        lote.setActivo(activo);
+        entityManager.persist(lote);
+        return lote;
+    }
+
+    private void crearAnalisis(final Lote lote, final DictamenEnum dictamen, final boolean activo) {
+        Analisis analisis = new Analisis();
+        analisis.setLote(lote);
+        analisis.setNroAnalisis("A-DASH-" + (++secuencia));
+        analisis.setFechaYHoraCreacion(OffsetDateTime.now());
+        analisis.setDictamen(dictamen);
+        analisis.setActivo(activo);
+        entityManager.persist(analisis);
+    }
+
+    private void crearMovimiento(final Lote lote, final LocalDate fecha) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setCodigoMovimiento("M-DASH-" + (++secuencia));
+        movimiento.setLote(lote);
+        movimiento.setFechaYHoraCreacion(OffsetDateTime.now());
+        movimiento.setFecha(fecha);
+        movimiento.setTipoMovimiento(TipoMovimientoEnum.MODIFICACION);
+        movimiento.setMotivo(MotivoEnum.ANALISIS);
+        movimiento.setDictamenInicial(DictamenEnum.APROBADO);
+        movimiento.setDictamenFinal(DictamenEnum.APROBADO);
+        movimiento.setActivo(true);
+        entityManager.persist(movimiento);
+    }
+
+}
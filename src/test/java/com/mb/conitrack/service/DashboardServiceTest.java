@@ -2,12 +2,9 @@ package com.mb.conitrack.service;
 
 import com.mb.conitrack.dto.DashboardMetricsDTO;
 import com.mb.conitrack.dto.UserInfoDTO;
-import com.mb.conitrack.entity.Analisis;
-import com.mb.conitrack.entity.Lote;
-import com.mb.conitrack.entity.Movimiento;
+import com.mb.conitrack.dto.projection.DashboardLoteMetrics;
 import com.mb.conitrack.entity.maestro.Role;
 import com.mb.conitrack.entity.maestro.User;
-import com.mb.conitrack.enums.DictamenEnum;
 import com.mb.conitrack.enums.RoleEnum;
 import com.mb.conitrack.repository.AnalisisRepository;
 import com.mb.conitrack.repository.LoteRepository;
@@ -16,14 +13,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Arrays;
-import java.util.Collections;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -45,48 +41,16 @@ class DashboardServiceTest {
     @Mock
     private AnalisisRepository analisisRepository;
 
+    @Mock
+    private DashboardMetricsCache dashboardMetricsCache;
+
     @InjectMocks
     private DashboardService service;
 
-    private Lote loteActivo;
-    private Lote loteCuarentena;
-    private Analisis analisisPendiente;
-    private Movimiento movimientoHoy;
     private User testUser;
 
     @BeforeEach
     void setUp() {
-        // Lote activo
-        loteActivo = new Lote();
-        loteActivo.setId(1L);
-        loteActivo.setCodigoLote("L-001");
-        loteActivo.setActivo(true);
-        loteActivo.setDictamen(DictamenEnum.APROBADO);
-        loteActivo.setCantidadActual(new BigDecimal("100.50"));
-        loteActivo.setFechaVencimientoProveedor(LocalDate.now().plusDays(60));
-
-        // Lote en cuarentena
-        loteCuarentena = new Lote();
-        loteCuarentena.setId(2L);
-        loteCuarentena.setCodigoLote("L-002");
-        loteCuarentena.setActivo(true);
-        loteCuarentena.setDictamen(DictamenEnum.CUARENTENA);
-        loteCuarentena.setCantidadActual(new BigDecimal("50.25"));
-        loteCuarentena.setFechaVencimientoProveedor(LocalDate.now().plusDays(20)); // Alerta
-
-        // Análisis pendiente
-        analisisPendiente = new Analisis();
-        analisisPendiente.setId(1L);
-        analisisPendiente.setNroAnalisis("AN-001");
-        analisisPendiente.setActivo(true);
-        analisisPendiente.setDictamen(null); // Pendiente
-
-        // Movimiento de hoy
-        movimientoHoy = new Movimiento();
-        movimientoHoy.setId(1L);
-        movimientoHoy.setCodigoMovimiento("MOV-001");
-        movimientoHoy.setFecha(LocalDate.now());
-
         // Usuario test
         Role adminRole = Role.fromEnum(RoleEnum.ADMIN);
         adminRole.setId(1L);
@@ -98,9 +62,10 @@ class DashboardServiceTest {
     @DisplayName("test_getDashboardMetrics_conDatos_debe_calcularMetricasCorrectamente")
     void test_getDashboardMetrics_conDatos_debe_calcularMetricasCorrectamente() {
         // Given
-        when(loteRepository.findAll()).thenReturn(Arrays.asList(loteActivo, loteCuarentena));
-        when(analisisRepository.findAll()).thenReturn(Arrays.asList(analisisPendiente));
-        when(movimientoRepository.findAll()).thenReturn(Arrays.asList(movimientoHoy));
+        when(loteRepository.getDashboardLoteMetrics(any(LocalDate.class)))
+            .thenReturn(loteMetrics(2L, 1L, new BigDecimal("150.75"), 1L));
+        when(analisisRepository.countPendientes()).thenReturn(1L);
+        when(movimientoRepository.countByFecha(LocalDate.now())).thenReturn(1L);
 
         // When
         DashboardMetricsDTO metrics = service.getDashboardMetrics();
@@ -111,21 +76,54 @@ class DashboardServiceTest {
         assertThat(metrics.getLotesCuarentena()).isEqualTo(1);
         assertThat(metrics.getAnalisisPendientes()).isEqualTo(1);
         assertThat(metrics.getMovimientosHoy()).isEqualTo(1);
-        assertThat(metrics.getStockTotal()).isEqualTo(150.75); // 100.50 + 50.25
-        assertThat(metrics.getAlertasPendientes()).isEqualTo(1); // Lote con vencimiento en 20 días
+        assertThat(metrics.getStockTotal()).isEqualTo(150.75);
+        assertThat(metrics.getAlertasPendientes()).isEqualTo(1);
+
+        verify(loteRepository).getDashboardLoteMetrics(any(LocalDate.class));
+        verify(analisisRepository).countPendientes();
+        verify(movimientoRepository).countByFecha(LocalDate.now());
+    }
+
+    @Test
+    @DisplayName("test_getDashboardMetrics_noDebe_cargarEntidadesCompletas")
+    void test_getDashboardMetrics_noDebe_cargarEntidadesCompletas() {
+        // Given
+        when(loteRepository.getDashboardLoteMetrics(any(LocalDate.class)))
+            .thenReturn(loteMetrics(2L, 1L, new BigDecimal("150.75"), 1L));
+
+        // When
+        service.getDashboardMetrics();
+
+        // Then
+        verify(loteRepository, never()).findAll();
+        verify(analisisRepository, never()).findAll();
+        verify(movimientoRepository, never()).findAll();
+    }
 
-        verify(loteRepository, atLeastOnce()).findAll();
-        verify(analisisRepository).findAll();
-        verify(movimientoRepository).findAll();
+    @Test
+    @DisplayName("test_getDashboardMetrics_alertas_debe_usarLimiteDe30Dias")
+    void test_getDashboardMetrics_alertas_debe_usarLimiteDe30Dias() {
+        // Given
+        when(loteRepository.getDashboardLoteMetrics(any(LocalDate.class)))
+            .thenReturn(loteMetrics(0L, 0L, BigDecimal.ZERO, 0L));
+
+        // When
+        service.getDashboardMetrics();
+
+        // Then
+        ArgumentCaptor<LocalDate> captor = ArgumentCaptor.forClass(LocalDate.class);
+        verify(loteRepository).getDashboardLoteMetrics(captor.capture());
+        assertThat(captor.getValue()).isEqualTo(LocalDate.now().plusDays(30));
     }
 
     @Test
     @DisplayName("test_getDashboardMetrics_sinDatos_debe_retornarMetricasEnCero")
     void test_getDashboardMetrics_sinDatos_debe_retornarMetricasEnCero() {
         // Given
-        when(loteRepository.findAll()).thenReturn(Collections.emptyList());
-        when(analisisRepository.findAll()).thenReturn(Collections.emptyList());
-        when(movimientoRepository.findAll()).thenReturn(Collections.emptyList());
+        when(loteRepository.getDashboardLoteMetrics(any(LocalDate.class)))
+            .thenReturn(loteMetrics(0L, 0L, BigDecimal.ZERO, 0L));
+        when(analisisRepository.countPendientes()).thenReturn(0L);
+        when(movimientoRepository.countByFecha(any(LocalDate.class))).thenReturn(0L);
 
         // When
         DashboardMetricsDTO metrics = service.getDashboardMetrics();
@@ -138,17 +136,31 @@ class DashboardServiceTest {
         assertThat(metrics.getMovimientosHoy()).isEqualTo(0);
         assertThat(metrics.getStockTotal()).isEqualTo(0.0);
         assertThat(metrics.getAlertasPendientes()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("test_getDashboardMetrics_agregadosNulos_debe_usarCero")
+    void test_getDashboardMetrics_agregadosNulos_debe_usarCero() {
+        // Given
+        when(loteRepository.getDashboardLoteMetrics(any(LocalDate.class)))
+            .thenReturn(loteMetrics(null, null, null, null));
+
+        // When
+        DashboardMetricsDTO metrics = service.getDashboardMetrics();
 
-        verify(loteRepository, atLeastOnce()).findAll();
-        verify(analisisRepository).findAll();
-        verify(movimientoRepository).findAll();
+        // Then
+        assertThat(metrics.getLotesActivos()).isEqualTo(0);
+        assertThat(metrics.getLotesCuarentena()).isEqualTo(0);
+        assertThat(metrics.getStockTotal()).isEqualTo(0.0);
+        assertThat(metrics.getAlertasPendientes()).isEqualTo(0);
     }
 
     @Test
     @DisplayName("test_getDashboardMetrics_conExcepcion_debe_retornarMetricasEnCeroYRegistrarError")
     void test_getDashboardMetrics_conExcepcion_debe_retornarMetricasEnCeroYRegistrarError() {
         // Given
-        when(loteRepository.findAll()).thenThrow(new RuntimeException("Database error"));
+        when(loteRepository.getDashboardLoteMetrics(any(LocalDate.class)))
+            .thenThrow(new RuntimeException("Database error"));
 
         // When
         DashboardMetricsDTO metrics = service.getDashboardMetrics();
@@ -162,56 +174,84 @@ class DashboardServiceTest {
         assertThat(metrics.getStockTotal()).isEqualTo(0.0);
         assertThat(metrics.getAlertasPendientes()).isEqualTo(0);
 
-        verify(loteRepository).findAll();
+        verify(loteRepository).getDashboardLoteMetrics(any(LocalDate.class));
     }
 
     @Test
-    @DisplayName("test_getDashboardMetrics_soloLotesActivos_debe_filtrarInactivos")
-    void test_getDashboardMetrics_soloLotesActivos_debe_filtrarInactivos() {
+    @DisplayName("test_getDashboardMetrics_snapshotVigente_no_debe_consultarBD")
+    void test_getDashboardMetrics_snapshotVigente_no_debe_consultarBD() {
         // Given
-        Lote loteInactivo = new Lote();
-        loteInactivo.setId(3L);
-        loteInactivo.setActivo(false); // Inactivo
-        loteInactivo.setDictamen(DictamenEnum.APROBADO);
-        loteInactivo.setCantidadActual(new BigDecimal("200"));
-
-        when(loteRepository.findAll()).thenReturn(Arrays.asList(loteActivo, loteInactivo));
-        when(analisisRepository.findAll()).thenReturn(Collections.emptyList());
-        when(movimientoRepository.findAll()).thenReturn(Collections.emptyList());
+        DashboardMetricsDTO snapshot = new DashboardMetricsDTO(5L, 1L, 3L, 2L, 0L, 42.0);
+        when(dashboardMetricsCache.getVigente()).thenReturn(snapshot);
 
         // When
         DashboardMetricsDTO metrics = service.getDashboardMetrics();
 
         // Then
-        assertThat(metrics.getLotesActivos()).isEqualTo(1); // Solo el activo
-        assertThat(metrics.getStockTotal()).isEqualTo(100.50); // Solo cantidad del lote activo
+        assertThat(metrics).isSameAs(snapshot);
+        verifyNoInteractions(loteRepository, analisisRepository, movimientoRepository);
     }
 
     @Test
-    @DisplayName("test_getDashboardMetrics_analisisEnCuarentena_debe_contarComoPendiente")
-    void test_getDashboardMetrics_analisisEnCuarentena_debe_contarComoPendiente() {
+    @DisplayName("test_getDashboardMetrics_sinSnapshot_debe_calcularYActualizarSnapshot")
+    void test_getDashboardMetrics_sinSnapshot_debe_calcularYActualizarSnapshot() {
         // Given
-        Analisis analisisCuarentena = new Analisis();
-        analisisCuarentena.setId(2L);
-        analisisCuarentena.setNroAnalisis("AN-002");
-        analisisCuarentena.setActivo(true);
-        analisisCuarentena.setDictamen(DictamenEnum.CUARENTENA);
-
-        Analisis analisisAprobado = new Analisis();
-        analisisAprobado.setId(3L);
-        analisisAprobado.setNroAnalisis("AN-003");
-        analisisAprobado.setActivo(true);
-        analisisAprobado.setDictamen(DictamenEnum.APROBADO);
-
-        when(loteRepository.findAll()).thenReturn(Collections.emptyList());
-        when(analisisRepository.findAll()).thenReturn(Arrays.asList(analisisPendiente, analisisCuarentena, analisisAprobado));
-        when(movimientoRepository.findAll()).thenReturn(Collections.emptyList());
+        when(loteRepository.getDashboardLoteMetrics(any(LocalDate.class)))
+            .thenReturn(loteMetrics(2L, 1L, new BigDecimal("10"), 0L));
+        when(dashboardMetricsCache.getGeneracion()).thenReturn(7L);
 
         // When
         DashboardMetricsDTO metrics = service.getDashboardMetrics();
 
         // Then
-        assertThat(metrics.getAnalisisPendientes()).isEqualTo(2); // Sin dictamen + cuarentena
+        verify(dashboardMetricsCache).actualizar(metrics, 7L);
+    }
+
+    @Test
+    @DisplayName("test_getDashboardMetrics_conExcepcion_no_debe_actualizarSnapshot")
+    void test_getDashboardMetrics_conExcepcion_no_debe_actualizarSnapshot() {
+        // Given
+        when(loteRepository.getDashboardLoteMetrics(any(LocalDate.class)))
+            .thenThrow(new RuntimeException("Database error"));
+
+        // When
+        service.getDashboardMetrics();
+
+        // Then
+        verify(dashboardMetricsCache, never()).actualizar(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("test_reconciliarMetricas_debe_reconciliarSnapshotConCalculoCompleto")
+    void test_reconciliarMetricas_debe_reconciliarSnapshotConCalculoCompleto() {
+        // Given
+        when(loteRepository.getDashboardLoteMetrics(any(LocalDate.class)))
+            .thenReturn(loteMetrics(2L, 1L, new BigDecimal("10"), 0L));
+        when(analisisRepository.countPendientes()).thenReturn(4L);
+        when(dashboardMetricsCache.getGeneracion()).thenReturn(7L);
+
+        // When
+        service.reconciliarMetricas();
+
+        // Then
+        ArgumentCaptor<DashboardMetricsDTO> captor = ArgumentCaptor.forClass(DashboardMetricsDTO.class);
+        verify(dashboardMetricsCache).reconciliar(captor.capture(), eq(7L));
+        assertThat(captor.getValue().getLotesActivos()).isEqualTo(2);
+        assertThat(captor.getValue().getAnalisisPendientes()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("test_reconciliarMetricas_conExcepcion_no_debe_propagar")
+    void test_reconciliarMetricas_conExcepcion_no_debe_propagar() {
+        // Given
+        when(loteRepository.getDashboardLoteMetrics(any(LocalDate.class)))
+            .thenThrow(new RuntimeException("Database error"));
+
+        // When
+        service.reconciliarMetricas();
+
+        // Then
+        verify(dashboardMetricsCache, never()).reconciliar(any(), anyLong());
     }
 
     @Test
@@ -294,106 +334,28 @@ class DashboardServiceTest {
         assertThat(userInfo.getIsExpired()).isTrue();
     }
 
-    @Test
-    @DisplayName("test_getDashboardMetrics_analisisInactivo_no_debe_contarComoPendiente")
-    void test_getDashboardMetrics_analisisInactivo_no_debe_contarComoPendiente() {
-        // Given
-        Analisis analisisInactivo = new Analisis();
-        analisisInactivo.setId(3L);
-        analisisInactivo.setNroAnalisis("AN-003");
-        analisisInactivo.setActivo(false); // Inactivo
-        analisisInactivo.setDictamen(null);
-
-        when(loteRepository.findAll()).thenReturn(Collections.emptyList());
-        when(analisisRepository.findAll()).thenReturn(Arrays.asList(analisisPendiente, analisisInactivo));
-        when(movimientoRepository.findAll()).thenReturn(Collections.emptyList());
-
-        // When
-        DashboardMetricsDTO metrics = service.getDashboardMetrics();
-
-        // Then
-        assertThat(metrics.getAnalisisPendientes()).isEqualTo(1); // Solo el activo
-    }
-
-    @Test
-    @DisplayName("test_getDashboardMetrics_movimientoSinFecha_no_debe_contarComoHoy")
-    void test_getDashboardMetrics_movimientoSinFecha_no_debe_contarComoHoy() {
-        // Given
-        Movimiento movSinFecha = new Movimiento();
-        movSinFecha.setId(2L);
-        movSinFecha.setCodigoMovimiento("MOV-002");
-        movSinFecha.setFecha(null); // Sin fecha
-
-        when(loteRepository.findAll()).thenReturn(Collections.emptyList());
-        when(analisisRepository.findAll()).thenReturn(Collections.emptyList());
-        when(movimientoRepository.findAll()).thenReturn(Arrays.asList(movimientoHoy, movSinFecha));
-
-        // When
-        DashboardMetricsDTO metrics = service.getDashboardMetrics();
-
-        // Then
-        assertThat(metrics.getMovimientosHoy()).isEqualTo(1); // Solo el que tiene fecha de hoy
-    }
-
-    @Test
-    @DisplayName("test_getDashboardMetrics_movimientoFechaAnterior_no_debe_contarComoHoy")
-    void test_getDashboardMetrics_movimientoFechaAnterior_no_debe_contarComoHoy() {
-        // Given
-        Movimiento movAyer = new Movimiento();
-        movAyer.setId(3L);
-        movAyer.setCodigoMovimiento("MOV-003");
-        movAyer.setFecha(LocalDate.now().minusDays(1)); // Ayer
-
-        when(loteRepository.findAll()).thenReturn(Collections.emptyList());
-        when(analisisRepository.findAll()).thenReturn(Collections.emptyList());
-        when(movimientoRepository.findAll()).thenReturn(Arrays.asList(movimientoHoy, movAyer));
-
-        // When
-        DashboardMetricsDTO metrics = service.getDashboardMetrics();
-
-        // Then
-        assertThat(metrics.getMovimientosHoy()).isEqualTo(1); // Solo el de hoy
-    }
-
-    @Test
-    @DisplayName("test_getDashboardMetrics_loteSinCantidadActual_debe_usarCero")
-    void test_getDashboardMetrics_loteSinCantidadActual_debe_usarCero() {
-        // Given
-        Lote loteSinCantidad = new Lote();
-        loteSinCantidad.setId(4L);
-        loteSinCantidad.setCodigoLote("L-004");
-        loteSinCantidad.setActivo(true);
-        loteSinCantidad.setCantidadActual(null); // Sin cantidad
-
-        when(loteRepository.findAll()).thenReturn(Arrays.asList(loteActivo, loteSinCantidad));
-        when(analisisRepository.findAll()).thenReturn(Collections.emptyList());
-        when(movimientoRepository.findAll()).thenReturn(Collections.emptyList());
-
-        // When
-        DashboardMetricsDTO metrics = service.getDashboardMetrics();
-
-        // Then
-        assertThat(metrics.getStockTotal()).isEqualTo(100.50); // Solo la cantidad del lote activo, el otro suma 0
-    }
-
-    @Test
-    @DisplayName("test_getDashboardMetrics_loteSinFechaVencimiento_no_debe_contarComoAlerta")
-    void test_getDashboardMetrics_loteSinFechaVencimiento_no_debe_contarComoAlerta() {
-        // Given
-        Lote loteSinVencimiento = new Lote();
-        loteSinVencimiento.setId(5L);
-        loteSinVencimiento.setCodigoLote("L-005");
-        loteSinVencimiento.setActivo(true);
-        loteSinVencimiento.setFechaVencimientoProveedor(null); // Sin fecha de vencimiento
-
-        when(loteRepository.findAll()).thenReturn(Arrays.asList(loteCuarentena, loteSinVencimiento));
-        when(analisisRepository.findAll()).thenReturn(Collections.emptyList());
-        when(movimientoRepository.findAll()).thenReturn(Collections.emptyList());
-
-        // When
-        DashboardMetricsDTO metrics = service.getDashboardMetrics();
-
-        // Then
-        assertThat(metrics.getAlertasPendientes()).isEqualTo(1); // Solo loteCuarentena (vence en 20 días)
+    private static DashboardLoteMetrics loteMetrics(
+        Long activos, Long cuarentena, BigDecimal stock, Long alertas) {
+        return new DashboardLoteMetrics() {
+            @Override
+            public Long getLotesActivos() {
+                return activos;
+            }
+
+            @Override
+            public Long getLotesCuarentena() {
+                return cuarentena;
+            }
+
+            @Override
+            public BigDecimal getStockTotal() {
+                return stock;
+            }
+
+            @Override
+            public Long getAlertasPendientes() {
+                return alertas;
+            }
+        };
     }
 }
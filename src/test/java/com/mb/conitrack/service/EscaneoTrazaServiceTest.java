@@ -0,0 +1,212 @@
+package com.mb.conitrack.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mb.conitrack.dto.EscaneoTrazaDTO;
+import com.mb.conitrack.dto.EscaneoVentaDTO;
+import com.mb.conitrack.dto.PedidoVentaDTO;
+import com.mb.conitrack.dto.ResultadoEscaneosDTO;
+import com.mb.conitrack.dto.ResultadoEscaneosDTO.GrupoEscaneo;
+import com.mb.conitrack.dto.ResultadoPedidoVentaDTO;
+import com.mb.conitrack.entity.Bulto;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.enums.DictamenEnum;
+import com.mb.conitrack.enums.EstadoEnum;
+import com.mb.conitrack.enums.TipoProductoEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.repository.LoteRepository;
+import com.mb.conitrack.repository.TrazaRepository;
+import com.mb.conitrack.repository.TrazaRepositoryCustom.TrazaEscaneada;
+import com.mb.conitrack.service.cu.BajaVentaProductoService;
+
+import static com.mb.conitrack.enums.EstadoEnum.DISPONIBLE;
+import static com.mb.conitrack.enums.EstadoEnum.VENDIDO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EscaneoTrazaServiceTest {
+
+    @InjectMocks
+    EscaneoTrazaService service;
+
+    @Mock
+    TrazaRepository trazaRepository;
+
+    @Mock
+    BajaVentaProductoService bajaVentaProductoService;
+
+    @Nested
+    @DisplayName("resolver() - Agrupación de escaneos")
+    class ResolverTests {
+
+        @Test
+        @DisplayName("Debe agrupar por lote y bulto, contar duplicados y rechazar trazas inexistentes")
+        void resolver_debeAgruparPorLoteYBulto() {
+            when(trazaRepository.findEscaneadas("UV-1", Set.of(12L, 10L, 11L, 99L))).thenReturn(List.of(
+                new TrazaEscaneada("UV-1", 10L, DISPONIBLE, "L-UV-1", 1),
+                new TrazaEscaneada("UV-1", 11L, DISPONIBLE, "L-UV-1", 2),
+                new TrazaEscaneada("UV-1", 12L, DISPONIBLE, "L-UV-1", 1)));
+
+            ResultadoEscaneosDTO resultado = service.resolver(List.of(
+                new EscaneoTrazaDTO("UV-1", 12L),
+                new EscaneoTrazaDTO("UV-1", 10L),
+                new EscaneoTrazaDTO("UV-1", 12L),
+                new EscaneoTrazaDTO("UV-1", 11L),
+                new EscaneoTrazaDTO("UV-1", 99L),
+                new EscaneoTrazaDTO(null, 5L)));
+
+            assertEquals(6, resultado.getEscaneos());
+            assertEquals(1, resultado.getDuplicados());
+            assertEquals(2, resultado.getGrupos().size());
+            GrupoEscaneo bulto1 = resultado.getGrupos().get(0);
+            assertEquals(1, bulto1.getNroBulto());
+            assertEquals(List.of(10L, 12L), bulto1.getNroTrazas());
+            assertEquals(List.of(11L), resultado.getGrupos().get(1).getNroTrazas());
+            assertEquals(2, resultado.getRechazos().size());
+            assertEquals(99L, resultado.getRechazos().get(1).getNroTraza());
+        }
+
+    }
+
+    @Nested
+    @DisplayName("venderEscaneos() - Venta por escaneos")
+    class VenderEscaneosTests {
+
+        @Test
+        @DisplayName("Debe generar una línea de pedido por bulto con sus trazas")
+        void venderEscaneos_trazasDisponibles_debeAplicarPedido() {
+            when(trazaRepository.findEscaneadas("UV-1", Set.of(10L, 11L))).thenReturn(List.of(
+                new TrazaEscaneada("UV-1", 10L, DISPONIBLE, "L-UV-1", 1),
+                new TrazaEscaneada("UV-1", 11L, DISPONIBLE, "L-UV-1", 1)));
+            when(bajaVentaProductoService.bajaVentaPedido(any()))
+                .thenReturn(new ResultadoPedidoVentaDTO(true, List.of()));
+
+            ResultadoEscaneosDTO resultado = service.venderEscaneos(venta(10L, 11L));
+
+            assertTrue(resultado.getAplicado());
+            ArgumentCaptor<PedidoVentaDTO> captor = ArgumentCaptor.forClass(PedidoVentaDTO.class);
+            verify(bajaVentaProductoService).bajaVentaPedido(captor.capture());
+            assertEquals(1, captor.getValue().getLineas().size());
+            assertEquals("L-UV-1", captor.getValue().getLineas().get(0).getCodigoLote());
+            assertEquals(0, BigDecimal.valueOf(2).compareTo(captor.getValue().getLineas().get(0).getCantidad()));
+            assertEquals(List.of(10L, 11L), captor.getValue().getLineas().get(0).getNroTrazas());
+        }
+
+        @Test
+        @DisplayName("Si alguna traza no está disponible no debe aplicar la venta")
+        void venderEscaneos_trazaVendida_noDebeAplicar() {
+            when(trazaRepository.findEscaneadas("UV-1", Set.of(10L, 11L))).thenReturn(List.of(
+                new TrazaEscaneada("UV-1", 10L, DISPONIBLE, "L-UV-1", 1),
+                new TrazaEscaneada("UV-1", 11L, VENDIDO, "L-UV-1", 1)));
+
+            ResultadoEscaneosDTO resultado = service.venderEscaneos(venta(10L, 11L));
+
+            assertFalse(resultado.getAplicado());
+            assertEquals(1, resultado.getRechazos().size());
+            assertEquals(11L, resultado.getRechazos().get(0).getNroTraza());
+            verify(bajaVentaProductoService, never()).bajaVentaPedido(any());
+        }
+
+    }
+
+    /**
+     * Venta por escaneos contra el pedido real de BajaVentaProductoService: los escaneos de un lote fuera de la
+     * condición de venta del formulario deben rechazarse aunque las trazas estén disponibles.
+     */
+    @Nested
+    @DisplayName("venderEscaneos() - Condición de venta del lote")
+    class VenderEscaneosElegibilidadTests {
+
+        @Mock
+        LoteRepository loteRepository;
+
+        @Mock
+        SecurityContextService securityContextService;
+
+        @Test
+        @DisplayName("Trazas de un lote no liberado no deben venderse")
+        void venderEscaneos_loteNoLiberado_noDebeAplicar() {
+            ResultadoEscaneosDTO resultado = venderDeLote(DictamenEnum.CUARENTENA, EstadoEnum.DISPONIBLE);
+
+            assertFalse(resultado.getAplicado());
+            assertEquals("El lote no está liberado para la venta (dictamen CUARENTENA)",
+                resultado.getLineasVenta().get(0).getError());
+        }
+
+        @Test
+        @DisplayName("Trazas de un lote en recall no deben venderse")
+        void venderEscaneos_loteEnRecall_noDebeAplicar() {
+            ResultadoEscaneosDTO resultado = venderDeLote(DictamenEnum.LIBERADO, EstadoEnum.RECALL);
+
+            assertFalse(resultado.getAplicado());
+            assertEquals("El lote está en recall", resultado.getLineasVenta().get(0).getError());
+        }
+
+        private ResultadoEscaneosDTO venderDeLote(final DictamenEnum dictamen, final EstadoEnum estado) {
+            BajaVentaProductoService ventaProductoService = new BajaVentaProductoService();
+            ReflectionTestUtils.setField(ventaProductoService, "loteRepository", loteRepository);
+            ReflectionTestUtils.setField(ventaProductoService, "securityContextService", securityContextService);
+            ReflectionTestUtils.setField(service, "bajaVentaProductoService", ventaProductoService);
+
+            when(trazaRepository.findEscaneadas("UV-1", Set.of(10L, 11L))).thenReturn(List.of(
+                new TrazaEscaneada("UV-1", 10L, DISPONIBLE, "L-UV-1", 1),
+                new TrazaEscaneada("UV-1", 11L, DISPONIBLE, "L-UV-1", 1)));
+            when(loteRepository.findAllConBultosByCodigoLoteIn(any())).thenReturn(List.of(lote(dictamen, estado)));
+            when(loteRepository.findCodigosVendiblesByCodigoLoteIn(any())).thenReturn(Set.of());
+
+            return service.venderEscaneos(venta(10L, 11L));
+        }
+
+        private Lote lote(final DictamenEnum dictamen, final EstadoEnum estado) {
+            Producto producto = new Producto();
+            producto.setCodigoProducto("UV-1");
+            producto.setTipoProducto(TipoProductoEnum.UNIDAD_VENTA);
+            Lote lote = new Lote();
+            lote.setCodigoLote("L-UV-1");
+            lote.setProducto(producto);
+            lote.setDictamen(dictamen);
+            lote.setEstado(estado);
+            lote.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+            lote.setFechaIngreso(LocalDate.now().minusDays(10));
+            lote.setTrazado(true);
+            Bulto bulto = new Bulto();
+            bulto.setId(1L);
+            bulto.setNroBulto(1);
+            bulto.setCantidadActual(BigDecimal.valueOf(50));
+            bulto.setActivo(true);
+            lote.getBultos().add(bulto);
+            return lote;
+        }
+
+    }
+
+    private static EscaneoVentaDTO venta(final Long... nroTrazas) {
+        EscaneoVentaDTO venta = new EscaneoVentaDTO();
+        venta.setFechaEgreso(LocalDate.now());
+        for (Long nroTraza : nroTrazas) {
+            venta.getEscaneos().add(new EscaneoTrazaDTO("UV-1", nroTraza));
+        }
+        return venta;
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.mb.conitrack.service;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.mb.conitrack.dto.projection.LoteFechasVigentes;
+import com.mb.conitrack.entity.Analisis;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.enums.DictamenEnum;
+import com.mb.conitrack.repository.LoteRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FechaVigenteServiceTest {
+
+    @InjectMocks
+    FechaVigenteService service;
+
+    @Mock
+    LoteRepository loteRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    private final LocalDate hoy = LocalDate.of(2025, 6, 1);
+
+    @Nested
+    @DisplayName("refrescar() - Fechas efectivas por chunks")
+    class RefrescarTests {
+
+        @Test
+        @DisplayName("Debe actualizar sólo los lotes cuya fecha efectiva cambió")
+        void refrescar_debeActualizarSoloLotesDesactualizados() {
+            // Proveedor a 10 días, análisis a 5 días: la vigente pasa a ser la del análisis
+            LoteFechasVigentes desactualizado = fila(1L, hoy.plusDays(10), hoy.plusDays(5), hoy.plusDays(10));
+            LoteFechasVigentes alDia = fila(2L, hoy.plusDays(10), null, hoy.plusDays(10));
+            when(loteRepository.findFechasVigentesAfterId(0L, PageRequest.of(0, 500)))
+                .thenReturn(List.of(desactualizado, alDia));
+
+            int actualizados = service.refrescar(hoy);
+
+            assertEquals(1, actualizados);
+            verify(loteRepository).actualizarFechasEfectivas(1L, hoy.plusDays(5), null);
+            verify(loteRepository, never()).actualizarFechasEfectivas(eq(2L), any(), any());
+        }
+
+        @Test
+        @DisplayName("Chunk completo debe continuar desde el último id leído")
+        void refrescar_chunkCompleto_debeContinuarDesdeUltimoId() {
+            service.setChunkSize(2);
+            LoteFechasVigentes primero = fila(3L, hoy, null, hoy);
+            LoteFechasVigentes segundo = fila(7L, hoy, null, hoy);
+            when(loteRepository.findFechasVigentesAfterId(0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(primero, segundo));
+            when(loteRepository.findFechasVigentesAfterId(7L, PageRequest.of(0, 2))).thenReturn(List.of());
+
+            int actualizados = service.refrescar(hoy);
+
+            assertEquals(0, actualizados);
+            verify(loteRepository).findFechasVigentesAfterId(7L, PageRequest.of(0, 2));
+        }
+
+        @Test
+        @DisplayName("reconstruir() debe recalcular las fechas de análisis antes de refrescar")
+        void reconstruir_debeRecalcularFechasAnalisis() {
+            when(loteRepository.findFechasVigentesAfterId(anyLong(), any())).thenReturn(List.of());
+
+            service.reconstruir();
+
+            verify(loteRepository).reconstruirFechasAnalisis();
+            verify(loteRepository).findFechasVigentesAfterId(0L, PageRequest.of(0, 500));
+        }
+    }
+
+    @Nested
+    @DisplayName("Lote - Fechas vigentes materializadas")
+    class LoteFechasTests {
+
+        @Test
+        @DisplayName("Ante empate de distancia debe preferir la fecha del análisis")
+        void fechaMasCercana_empate_debePreferirAnalisis() {
+            assertEquals(hoy.minusDays(3), Lote.fechaMasCercana(hoy.plusDays(3), hoy.minusDays(3), hoy));
+            assertEquals(hoy.plusDays(3), Lote.fechaMasCercana(null, hoy.plusDays(3), hoy));
+            assertNull(Lote.fechaMasCercana(null, null, hoy));
+        }
+
+        @Test
+        @DisplayName("Debe ignorar análisis inactivos o sin dictamen al materializar")
+        void actualizarFechasVigentes_debeIgnorarAnalisisNoVigentes() {
+            Lote lote = new Lote();
+            lote.setFechaReanalisisProveedor(LocalDate.now().plusYears(1));
+            lote.setFechaVencimientoProveedor(LocalDate.now().plusYears(2));
+            lote.getAnalisisList().add(analisis(DictamenEnum.APROBADO, true, LocalDate.now().plusDays(30)));
+            lote.getAnalisisList().add(analisis(DictamenEnum.APROBADO, false, LocalDate.now().plusDays(1)));
+            lote.getAnalisisList().add(analisis(null, true, LocalDate.now().plusDays(2)));
+
+            lote.actualizarFechasVigentes();
+
+            assertEquals(LocalDate.now().plusDays(30), lote.getFechaReanalisisAnalisis());
+            assertEquals(LocalDate.now().plusDays(30), lote.getFechaReanalisisEfectiva());
+            assertEquals(lote.getFechaReanalisisVigente(), lote.getFechaReanalisisEfectiva());
+            assertEquals(LocalDate.now().plusYears(2), lote.getFechaVencimientoEfectiva());
+        }
+    }
+
+    private LoteFechasVigentes fila(Long id, LocalDate proveedor, LocalDate analisis, LocalDate efectiva) {
+        LoteFechasVigentes fila = mock(LoteFechasVigentes.class);
+        lenient().when(fila.getId()).thenReturn(id);
+        lenient().when(fila.getFechaVencimientoProveedor()).thenReturn(proveedor);
+        lenient().when(fila.getFechaVencimientoAnalisis()).thenReturn(analisis);
+        lenient().when(fila.getFechaVencimientoEfectiva()).thenReturn(efectiva);
+        return fila;
+    }
+
+    private static Analisis analisis(DictamenEnum dictamen, boolean activo, LocalDate fechaReanalisis) {
+        Analisis analisis = new Analisis();
+        analisis.setDictamen(dictamen);
+        analisis.setActivo(activo);
+        analisis.setFechaReanalisis(fechaReanalisis);
+        analisis.setFechaYHoraCreacion(OffsetDateTime.now());
+        return analisis;
+    }
+
+}
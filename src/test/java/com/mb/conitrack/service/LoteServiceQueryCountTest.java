@@ -0,0 +1,326 @@
+package com.mb.conitrack.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.datatables.DataTablesRequest;
+import com.mb.conitrack.dto.datatables.DataTablesResponse;
+import com.mb.conitrack.entity.Analisis;
+import com.mb.conitrack.entity.Bulto;
+import com.mb.conitrack.entity.DetalleMovimiento;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.Movimiento;
+import com.mb.conitrack.entity.Traza;
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.entity.maestro.Proveedor;
+import com.mb.conitrack.enums.DictamenEnum;
+import com.mb.conitrack.enums.EstadoEnum;
+import com.mb.conitrack.enums.MotivoEnum;
+import com.mb.conitrack.enums.TipoMovimientoEnum;
+import com.mb.conitrack.enums.TipoProductoEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * Tests de regresión de cantidad de consultas para los listados de LoteService.
+ * Cada findAllFor* debe ejecutar una cantidad fija de sentencias, independiente de la cantidad de lotes.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:testdb",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.sql.init.mode=never",
+    "spring.jpa.defer-datasource-initialization=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional
+@DisplayName("Tests de Integración - LoteService cantidad de consultas")
+class LoteServiceQueryCountTest {
+
+    /** Consulta base + 8 consultas de precarga (una por colección). */
+    private static final long MAX_CONSULTAS_GRAFO = 9;
+
+    /** La proyección resumen se resuelve en una única consulta. */
+    private static final long MAX_CONSULTAS_RESUMEN = 1;
+
+    /** El listado paginado ejecuta la consulta de la página y su conteo. */
+    private static final long MAX_CONSULTAS_PAGINA = 2;
+
+    /** Copias de cada tipo de lote; con N+1 la cantidad de consultas crecería con este valor. */
+    private static final int COPIAS = 3;
+
+    @Autowired
+    private LoteService loteService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Producto api;
+
+    private Producto unidadVenta;
+
+    private Proveedor proveedor;
+
+    private long nroTraza = 1;
+
+    static Stream<Arguments> consultasGrafoCompleto() {
+        return Stream.of(
+            arguments("findAllForCuarentenaDTOs", f(LoteService::findAllForCuarentenaDTOs)),
+            arguments("findAllForMuestreoTrazableDTOs", f(LoteService::findAllForMuestreoTrazableDTOs)),
+            arguments("findAllForMuestreoMultiBultoDTOs", f(LoteService::findAllForMuestreoMultiBultoDTOs)),
+            arguments("findAllForReanalisisLoteDTOs", f(LoteService::findAllForReanalisisLoteDTOs)),
+            arguments("findAllForResultadoAnalisisDTOs", f(LoteService::findAllForResultadoAnalisisDTOs)),
+            arguments("findAllForConsumoProduccionDTOs", f(LoteService::findAllForConsumoProduccionDTOs)),
+            arguments("findAllForLiberacionProductoDTOs", f(LoteService::findAllForLiberacionProductoDTOs)),
+            arguments("findAllForTrazadoLoteDTOs", f(LoteService::findAllForTrazadoLoteDTOs)),
+            arguments("findAllForVentaProductoDTOs", f(LoteService::findAllForVentaProductoDTOs)),
+            arguments("findAllLotes", f(LoteService::findAllLotes)));
+    }
+
+    static Stream<Arguments> consultasResumen() {
+        return Stream.of(
+            arguments("findAllForDevolucionCompraDTOs", f(LoteService::findAllForDevolucionCompraDTOs)),
+            arguments("findAllForDevolucionDTOs", f(LoteService::findAllForDevolucionDTOs)),
+            arguments("findAllForRecallDTOs", f(LoteService::findAllForRecallDTOs)),
+            arguments("findAllForAjusteDTOs", f(LoteService::findAllForAjusteDTOs)),
+            arguments("findAllForReversoMovimientoDTOs", f(LoteService::findAllForReversoMovimientoDTOs)),
+            arguments("findLotesDictaminadosConStock", f(LoteService::findLotesDictaminadosConStock)));
+    }
+
+    private static Function<LoteService, List<LoteDTO>> f(final Function<LoteService, List<LoteDTO>> consulta) {
+        return consulta;
+    }
+
+    @BeforeEach
+    void setUp() {
+        api = producto("QC-API-001", TipoProductoEnum.API);
+        unidadVenta = producto("QC-UV-001", TipoProductoEnum.UNIDAD_VENTA);
+
+        proveedor = new Proveedor();
+        proveedor.setRazonSocial("Proveedor QC");
+        proveedor.setCuit("20-11111111-1");
+        proveedor.setDireccion("Calle QC 1");
+        proveedor.setCiudad("Buenos Aires");
+        proveedor.setPais("Argentina");
+        proveedor.setActivo(true);
+        entityManager.persist(proveedor);
+
+        for (int i = 0; i < COPIAS; i++) {
+            // En cuarentena con análisis en curso
+            lote("L-QC-CUA-" + i, api, DictamenEnum.CUARENTENA, EstadoEnum.NUEVO, null, false, false);
+            // Aprobado, con análisis dictaminado
+            lote("L-QC-APR-" + i, api, DictamenEnum.APROBADO, EstadoEnum.DISPONIBLE, DictamenEnum.APROBADO, false, false);
+            // Unidad de venta liberada, trazada y con ventas
+            lote("L-QC-LIB-" + i, unidadVenta, DictamenEnum.LIBERADO, EstadoEnum.DISPONIBLE, DictamenEnum.APROBADO, true, true);
+            // Unidad de venta aprobada sin trazar
+            lote("L-QC-UVA-" + i, unidadVenta, DictamenEnum.APROBADO, EstadoEnum.DISPONIBLE, DictamenEnum.APROBADO, false, false);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("consultasGrafoCompleto")
+    @DisplayName("test_listadoConGrafoCompleto_debe_ejecutarCantidadFijaDeConsultas")
+    void test_listadoConGrafoCompleto_debe_ejecutarCantidadFijaDeConsultas(
+        final String nombre,
+        final Function<LoteService, List<LoteDTO>> consulta) {
+
+        List<LoteDTO> resultado = consulta.apply(loteService);
+
+        assertThat(resultado).as(nombre).hasSizeGreaterThanOrEqualTo(COPIAS);
+        assertThat(statistics.getPrepareStatementCount()).as(nombre).isLessThanOrEqualTo(MAX_CONSULTAS_GRAFO);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("consultasResumen")
+    @DisplayName("test_listadoResumen_debe_ejecutarUnaConsulta")
+    void test_listadoResumen_debe_ejecutarUnaConsulta(
+        final String nombre,
+        final Function<LoteService, List<LoteDTO>> consulta) {
+
+        List<LoteDTO> resultado = consulta.apply(loteService);
+
+        assertThat(resultado).as(nombre).hasSizeGreaterThanOrEqualTo(COPIAS);
+        assertThat(statistics.getPrepareStatementCount()).as(nombre).isLessThanOrEqualTo(MAX_CONSULTAS_RESUMEN);
+    }
+
+    @Test
+    @DisplayName("test_findPaginaLotes_debe_ejecutarConsultaYConteo")
+    void test_findPaginaLotes_debe_ejecutarConsultaYConteo() {
+        DataTablesRequest request = DataTablesRequest.from(Map.of(
+            "draw", "1",
+            "start", "0",
+            "length", "5",
+            "order[0][column]", "1",
+            "order[0][dir]", "desc",
+            "columns[1][data]", "codigoLote"));
+
+        DataTablesResponse<LoteDTO> respuesta = loteService.findPaginaLotes(request);
+
+        assertThat(respuesta.getData()).hasSize(5);
+        assertThat(respuesta.getData().get(0).getCodigoLote()).isEqualTo("L-QC-UVA-" + (COPIAS - 1));
+        assertThat(respuesta.getData().get(0).getUltimoNroAnalisisDto()).isEqualTo("AN-L-QC-UVA-" + (COPIAS - 1));
+        assertThat(respuesta.getRecordsFiltered()).isEqualTo(respuesta.getRecordsTotal());
+        assertThat(respuesta.getRecordsTotal()).isGreaterThanOrEqualTo(4L * COPIAS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_CONSULTAS_PAGINA);
+    }
+
+    @Test
+    @DisplayName("test_findPaginaLotes_conBusqueda_debe_filtrarYContarTotal")
+    void test_findPaginaLotes_conBusqueda_debe_filtrarYContarTotal() {
+        DataTablesRequest request = DataTablesRequest.from(Map.of("draw", "2", "search[value]", "l-qc-apr"));
+
+        DataTablesResponse<LoteDTO> respuesta = loteService.findPaginaLotes(request);
+
+        assertThat(respuesta.getDraw()).isEqualTo(2);
+        assertThat(respuesta.getRecordsFiltered()).isEqualTo(COPIAS);
+        assertThat(respuesta.getData()).extracting(LoteDTO::getCodigoLote).allMatch(c -> c.startsWith("L-QC-APR-"));
+        assertThat(respuesta.getRecordsTotal()).isGreaterThan(respuesta.getRecordsFiltered());
+    }
+
+    private Producto producto(final String codigo, final TipoProductoEnum tipo) {
+        Producto producto = new Producto();
+        producto.setCodigoProducto(codigo);
+        producto.setNombreGenerico("Producto " + codigo);
+        producto.setTipoProducto(tipo);
+        producto.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        producto.setActivo(true);
+        entityManager.persist(producto);
+        return producto;
+    }
+
+    private void lote(
+        final String codigo,
+        final Producto producto,
+        final DictamenEnum dictamen,
+        final EstadoEnum estado,
+        final DictamenEnum dictamenAnalisis,
+        final boolean trazado,
+        final boolean vendido) {
+
+        Lote lote = new Lote();
+        lote.setFechaYHoraCreacion(OffsetDateTime.now());
+        lote.setCodigoLote(codigo);
+        lote.setProducto(producto);
+        lote.setProveedor(proveedor);
+        lote.setFechaIngreso(LocalDate.now().minusDays(10));
+        lote.setLoteProveedor("LP-" + codigo);
+        lote.setFechaReanalisisProveedor(LocalDate.now().plusYears(1));
+        lote.setFechaVencimientoProveedor(LocalDate.now().plusYears(2));
+        lote.setEstado(estado);
+        lote.setDictamen(dictamen);
+        lote.setBultosTotales(2);
+        lote.setCantidadInicial(new BigDecimal("20"));
+        lote.setCantidadActual(new BigDecimal("20"));
+        lote.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        lote.setTrazado(trazado);
+        lote.setActivo(true);
+        entityManager.persist(lote);
+
+        Movimiento alta = movimiento(lote, codigo + "-ALTA", TipoMovimientoEnum.ALTA, MotivoEnum.COMPRA);
+        for (int nro = 1; nro <= 2; nro++) {
+            Bulto bulto = new Bulto();
+            bulto.setLote(lote);
+            bulto.setNroBulto(nro);
+            bulto.setCantidadInicial(new BigDecimal("10"));
+            bulto.setCantidadActual(new BigDecimal("10"));
+            bulto.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+            bulto.setEstado(estado);
+            bulto.setActivo(true);
+            entityManager.persist(bulto);
+
+            DetalleMovimiento detalle = new DetalleMovimiento();
+            detalle.setMovimiento(alta);
+            detalle.setBulto(bulto);
+            detalle.setCantidad(new BigDecimal("10"));
+            detalle.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+            detalle.setActivo(true);
+            entityManager.persist(detalle);
+
+            if (trazado) {
+                for (int t = 0; t < 2; t++) {
+                    Traza traza = new Traza();
+                    traza.setLote(lote);
+                    traza.setBulto(bulto);
+                    traza.setProducto(producto);
+                    traza.setFechaYHoraCreacion(OffsetDateTime.now());
+                    traza.setNroTraza(nroTraza++);
+                    traza.setEstado(EstadoEnum.DISPONIBLE);
+                    traza.setActivo(true);
+                    entityManager.persist(traza);
+                }
+            }
+        }
+
+        if (vendido) {
+            movimiento(lote, codigo + "-VENTA", TipoMovimientoEnum.BAJA, MotivoEnum.VENTA);
+        }
+
+        Analisis analisis = new Analisis();
+        analisis.setFechaYHoraCreacion(OffsetDateTime.now());
+        analisis.setNroAnalisis("AN-" + codigo);
+        analisis.setLote(lote);
+        analisis.setDictamen(dictamenAnalisis);
+        analisis.setFechaRealizado(dictamenAnalisis != null ? LocalDate.now().minusDays(1) : null);
+        analisis.setFechaVencimiento(dictamenAnalisis != null ? LocalDate.now().plusYears(1) : null);
+        analisis.setActivo(true);
+        entityManager.persist(analisis);
+    }
+
+    private Movimiento movimiento(
+        final Lote lote,
+        final String codigo,
+        final TipoMovimientoEnum tipo,
+        final MotivoEnum motivo) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setCodigoMovimiento(codigo);
+        movimiento.setLote(lote);
+        movimiento.setFechaYHoraCreacion(OffsetDateTime.now());
+        movimiento.setFecha(LocalDate.now());
+        movimiento.setTipoMovimiento(tipo);
+        movimiento.setMotivo(motivo);
+        movimiento.setCantidad(new BigDecimal("20"));
+        movimiento.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        movimiento.setDictamenInicial(lote.getDictamen());
+        movimiento.setDictamenFinal(lote.getDictamen());
+        movimiento.setActivo(true);
+        entityManager.persist(movimiento);
+        return movimiento;
+    }
+
+}
@@ -2,6 +2,7 @@ package com.mb.conitrack.service;
 
 import com.mb.conitrack.dto.BultoDTO;
 import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.projection.LoteResumen;
 import com.mb.conitrack.entity.Bulto;
 import com.mb.conitrack.entity.Lote;
 import com.mb.conitrack.entity.maestro.Producto;
@@ -27,6 +28,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -102,6 +104,16 @@ class LoteServiceTest {
         return bulto;
     }
 
+    private LoteResumen crearResumenTest() {
+        LoteResumen resumen = mock(LoteResumen.class);
+        when(resumen.getCodigoLote()).thenReturn("L-TEST-001");
+        when(resumen.getNombreProducto()).thenReturn("Paracetamol Test");
+        when(resumen.getCantidadInicial()).thenReturn(new BigDecimal("100"));
+        when(resumen.getTrazaInicial()).thenReturn(1000L);
+        when(resumen.getTrazado()).thenReturn(true);
+        return resumen;
+    }
+
     @Nested
     @DisplayName("Métodos de consulta por caso de uso")
     class MetodosConsultaPorCU {
@@ -137,10 +149,10 @@ class LoteServiceTest {
         @Test
         @DisplayName("test_findAllForDevolucionCompraDTOs_debe_retornarLista")
         void test_findAllForDevolucionCompraDTOs() {
-            when(loteRepository.findAllForDevolucionCompra()).thenReturn(Arrays.asList(loteTest));
+            when(loteRepository.findResumenForDevolucionCompra()).thenReturn(Arrays.asList(crearResumenTest()));
             List<LoteDTO> resultado = service.findAllForDevolucionCompraDTOs();
             assertThat(resultado).hasSize(1);
-            verify(loteRepository).findAllForDevolucionCompra();
+            verify(loteRepository).findResumenForDevolucionCompra();
         }
 
         @Test
@@ -200,37 +212,41 @@ class LoteServiceTest {
         @Test
         @DisplayName("test_findAllForDevolucionDTOs_debe_retornarLista")
         void test_findAllForDevolucionDTOs() {
-            when(loteRepository.findAllForDevolucion()).thenReturn(Arrays.asList(loteTest));
+            when(loteRepository.findResumenForDevolucion()).thenReturn(Arrays.asList(crearResumenTest()));
             List<LoteDTO> resultado = service.findAllForDevolucionDTOs();
             assertThat(resultado).hasSize(1);
-            verify(loteRepository).findAllForDevolucion();
+            verify(loteRepository).findResumenForDevolucion();
         }
 
         @Test
         @DisplayName("test_findAllForRecallDTOs_debe_retornarLista")
         void test_findAllForRecallDTOs() {
-            when(loteRepository.findAllForRecall()).thenReturn(Arrays.asList(loteTest));
+            when(loteRepository.findResumenForRecall()).thenReturn(Arrays.asList(crearResumenTest()));
             List<LoteDTO> resultado = service.findAllForRecallDTOs();
             assertThat(resultado).hasSize(1);
-            verify(loteRepository).findAllForRecall();
+            verify(loteRepository).findResumenForRecall();
         }
 
         @Test
         @DisplayName("test_findAllForAjusteDTOs_debe_retornarLista")
         void test_findAllForAjusteDTOs() {
-            when(loteRepository.findAllForAjuste()).thenReturn(Arrays.asList(loteTest));
+            when(loteRepository.findResumenForAjuste()).thenReturn(Arrays.asList(crearResumenTest()));
             List<LoteDTO> resultado = service.findAllForAjusteDTOs();
             assertThat(resultado).hasSize(1);
-            verify(loteRepository).findAllForAjuste();
+            assertThat(resultado.get(0).getCodigoLote()).isEqualTo("L-TEST-001");
+            assertThat(resultado.get(0).getNombreProducto()).isEqualTo("Paracetamol Test");
+            verify(loteRepository).findResumenForAjuste();
         }
 
         @Test
         @DisplayName("test_findAllForReversoMovimientoDTOs_debe_retornarLista")
         void test_findAllForReversoMovimientoDTOs() {
-            when(loteRepository.findAllForReversoMovimiento()).thenReturn(Arrays.asList(loteTest));
+            when(loteRepository.findResumenForReversoMovimiento()).thenReturn(Arrays.asList(crearResumenTest()));
             List<LoteDTO> resultado = service.findAllForReversoMovimientoDTOs();
             assertThat(resultado).hasSize(1);
-            verify(loteRepository).findAllForReversoMovimiento();
+            assertThat(resultado.get(0).getTrazaInicial()).isEqualTo(1000L);
+            assertThat(resultado.get(0).getTrazaFinal()).isEqualTo(1099L);
+            verify(loteRepository).findResumenForReversoMovimiento();
         }
 
         @Test
@@ -254,10 +270,10 @@ class LoteServiceTest {
         @Test
         @DisplayName("test_findLotesDictaminadosConStock_debe_retornarLista")
         void test_findLotesDictaminadosConStock() {
-            when(loteRepository.findLotesDictaminadosConStock()).thenReturn(Arrays.asList(loteTest));
+            when(loteRepository.findResumenFechasConStock()).thenReturn(Arrays.asList(crearResumenTest()));
             List<LoteDTO> resultado = service.findLotesDictaminadosConStock();
             assertThat(resultado).hasSize(1);
-            verify(loteRepository).findLotesDictaminadosConStock();
+            verify(loteRepository).findResumenFechasConStock();
         }
     }
 
@@ -337,6 +353,56 @@ class LoteServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Precarga del grafo para listados")
+    class PrecargaGrafo {
+
+        @Test
+        @DisplayName("test_findAllForCuarentenaDTOs_debe_precargarColeccionesUnaVezPorBloque")
+        void test_findAllForCuarentenaDTOs_precarga() {
+            Lote otro = crearLoteTest();
+            otro.setId(2L);
+            when(loteRepository.findAllForCuarentena()).thenReturn(Arrays.asList(loteTest, otro));
+
+            List<LoteDTO> resultado = service.findAllForCuarentenaDTOs();
+
+            assertThat(resultado).hasSize(2);
+            List<Long> ids = List.of(1L, 2L);
+            verify(loteRepository).fetchMaestrosByIds(ids);
+            verify(loteRepository).fetchBultosByIds(ids);
+            verify(loteRepository).fetchBultoDetallesByLoteIds(ids);
+            verify(loteRepository).fetchBultoTrazasByLoteIds(ids);
+            verify(loteRepository).fetchMovimientosByIds(ids);
+            verify(loteRepository).fetchMovimientoDetallesByLoteIds(ids);
+            verify(loteRepository).fetchTrazasByIds(ids);
+            verify(loteRepository).fetchAnalisisByIds(Set.of(1L, 2L));
+        }
+
+        @Test
+        @DisplayName("test_findAllForVentaProductoDTOs_conLoteOrigen_debe_precargarAnalisisDelOrigen")
+        void test_findAllForVentaProductoDTOs_loteOrigen() {
+            Lote origen = crearLoteTest();
+            origen.setId(9L);
+            loteTest.setLoteOrigen(origen);
+            when(loteRepository.findAllForVentaProducto()).thenReturn(Arrays.asList(loteTest));
+            when(loteRepository.fetchMaestrosByIds(List.of(1L))).thenReturn(Arrays.asList(loteTest));
+
+            service.findAllForVentaProductoDTOs();
+
+            verify(loteRepository).fetchAnalisisByIds(Set.of(1L, 9L));
+        }
+
+        @Test
+        @DisplayName("test_findAllLotes_sinLotes_noDebe_ejecutarPrecarga")
+        void test_findAllLotes_sinLotes_noPrecarga() {
+            when(loteRepository.findAllByActivoTrue()).thenReturn(Collections.emptyList());
+
+            assertThat(service.findAllLotes()).isEmpty();
+
+            verify(loteRepository, never()).fetchMaestrosByIds(any());
+        }
+    }
+
     @Nested
     @DisplayName("Casos con listas vacías")
     class CasosListasVacias {
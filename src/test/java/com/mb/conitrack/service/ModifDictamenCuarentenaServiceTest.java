@@ -77,9 +77,15 @@ class ModifDictamenCuarentenaServiceTest {
     @Mock
     TrazaRepository trazaRepository;
 
+    @Mock
+    TrazaRangoService trazaRangoService;
+
     @Mock
     SecurityContextService securityContextService;
 
+    @Mock
+    DashboardMetricsCache dashboardMetricsCache;
+
     @Spy
     @InjectMocks
     ModifDictamenCuarentenaService dictamenCuarentenaService;
@@ -264,6 +270,7 @@ class ModifDictamenCuarentenaServiceTest {
             verify(analisisRepository).save(any(Analisis.class));
             verify(movimientoRepository).save(any(Movimiento.class));
             verify(loteRepository).save(any(Lote.class));
+            verify(dashboardMetricsCache).invalidar();
             assertEquals(DictamenEnum.CUARENTENA, lote.getDictamen());
         }
     }
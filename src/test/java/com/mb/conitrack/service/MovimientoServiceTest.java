@@ -1,6 +1,7 @@
 package com.mb.conitrack.service;
 
 import com.mb.conitrack.dto.MovimientoDTO;
+import com.mb.conitrack.dto.projection.SaldoRetornableBulto;
 import com.mb.conitrack.entity.Bulto;
 import com.mb.conitrack.entity.DetalleMovimiento;
 import com.mb.conitrack.entity.Lote;
@@ -175,8 +176,8 @@ class MovimientoServiceTest {
     }
 
     @Test
-    @DisplayName("test_calcularMaximoDevolucionPorBulto_conMovimientoVenta_debe_calcularSaldo")
-    void test_calcularMaximoDevolucionPorBulto_conMovimientoVenta_debe_calcularSaldo() {
+    @DisplayName("test_recalcularMaximoRetornoPorBulto_conMovimientoVenta_debe_calcularSaldo")
+    void test_recalcularMaximoRetornoPorBulto_conMovimientoVenta_debe_calcularSaldo() {
         // Given
         Bulto bulto1 = new Bulto();
         bulto1.setNroBulto(1);
@@ -194,7 +195,7 @@ class MovimientoServiceTest {
                 .thenReturn(Collections.emptyList());
 
         // When
-        List<Integer> resultado = service.calcularMaximoDevolucionPorBulto("MOV-002");
+        List<Integer> resultado = service.recalcularMaximoRetornoPorBulto("MOV-002");
 
         // Then
         assertThat(resultado).isNotNull();
@@ -205,14 +206,14 @@ class MovimientoServiceTest {
     }
 
     @Test
-    @DisplayName("test_calcularMaximoDevolucionPorBulto_movimientoNoExiste_debe_retornarListaVacia")
-    void test_calcularMaximoDevolucionPorBulto_movimientoNoExiste_debe_retornarListaVacia() {
+    @DisplayName("test_recalcularMaximoRetornoPorBulto_movimientoNoExiste_debe_retornarListaVacia")
+    void test_recalcularMaximoRetornoPorBulto_movimientoNoExiste_debe_retornarListaVacia() {
         // Given
         when(movimientoRepository.findMovimientosVentaByCodigoMovimiento("MOV-INEXISTENTE"))
                 .thenReturn(Optional.empty());
 
         // When
-        List<Integer> resultado = service.calcularMaximoDevolucionPorBulto("MOV-INEXISTENTE");
+        List<Integer> resultado = service.recalcularMaximoRetornoPorBulto("MOV-INEXISTENTE");
 
         // Then
         assertThat(resultado).isNotNull();
@@ -221,37 +222,99 @@ class MovimientoServiceTest {
     }
 
     @Test
-    @DisplayName("test_calcularMaximoRecallPorBulto_conMovimientoVenta_debe_calcularSaldo")
-    void test_calcularMaximoRecallPorBulto_conMovimientoVenta_debe_calcularSaldo() {
+    @DisplayName("test_calcularMaximoRecallPorBulto_conSaldoRetornable_debe_leerSaldo")
+    void test_calcularMaximoRecallPorBulto_conSaldoRetornable_debe_leerSaldo() {
+        // Given
+        when(movimientoRepository.findSaldosRetornablesVenta("MOV-002"))
+                .thenReturn(List.of(saldo(1, "15", UnidadMedidaEnum.UNIDAD)));
+
+        // When
+        List<Integer> resultado = service.calcularMaximoRecallPorBulto("MOV-002");
+
+        // Then
+        assertThat(resultado).containsExactly(15);
+        verify(movimientoRepository, never()).findMovimientosVentaByCodigoMovimiento(anyString());
+        verify(movimientoRepository, never()).findByMovimientoOrigen(anyString());
+    }
+
+    @Test
+    @DisplayName("test_calcularMaximoDevolucionPorBulto_conSaldoRetornable_debe_rellenarBultosNoVendidosConCeros")
+    void test_calcularMaximoDevolucionPorBulto_conSaldoRetornable_debe_rellenarBultosNoVendidosConCeros() {
+        // Given
+        when(movimientoRepository.findSaldosRetornablesVenta("MOV-002"))
+                .thenReturn(List.of(saldo(3, "2", UnidadMedidaEnum.UNIDAD), saldo(1, "7", UnidadMedidaEnum.UNIDAD)));
+
+        // When
+        List<Integer> resultado = service.calcularMaximoDevolucionPorBulto("MOV-002");
+
+        // Then
+        assertThat(resultado).containsExactly(7, 0, 2);
+    }
+
+    @Test
+    @DisplayName("test_calcularMaximoDevolucionPorBulto_ventaNoExiste_debe_retornarListaVacia")
+    void test_calcularMaximoDevolucionPorBulto_ventaNoExiste_debe_retornarListaVacia() {
+        // Given
+        when(movimientoRepository.findSaldosRetornablesVenta("MOV-INEXISTENTE")).thenReturn(List.of());
+
+        // When
+        List<Integer> resultado = service.calcularMaximoDevolucionPorBulto("MOV-INEXISTENTE");
+
+        // Then
+        assertThat(resultado).isEmpty();
+        verify(movimientoRepository, never()).findMovimientosVentaByCodigoMovimiento(anyString());
+    }
+
+    @Test
+    @DisplayName("test_calcularMaximoDevolucionPorBulto_saldoRetornableUnidadNoEsUNIDAD_debe_lanzarExcepcion")
+    void test_calcularMaximoDevolucionPorBulto_saldoRetornableUnidadNoEsUNIDAD_debe_lanzarExcepcion() {
+        // Given
+        when(movimientoRepository.findSaldosRetornablesVenta("MOV-002"))
+                .thenReturn(List.of(saldo(1, "10", UnidadMedidaEnum.KILOGRAMO)));
+
+        // When & Then
+        assertThatThrownBy(() -> service.calcularMaximoDevolucionPorBulto("MOV-002"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("La unidad de medida del movimiento de venta debe ser UNIDAD.");
+    }
+
+    @Test
+    @DisplayName("test_calcularMaximoDevolucionPorBulto_sinSaldoRetornable_debe_recalcularDesdeLosRetornos")
+    void test_calcularMaximoDevolucionPorBulto_sinSaldoRetornable_debe_recalcularDesdeLosRetornos() {
         // Given
         Bulto bulto1 = new Bulto();
         bulto1.setNroBulto(1);
 
-        DetalleMovimiento detalle1 = new DetalleMovimiento();
-        detalle1.setBulto(bulto1);
-        detalle1.setCantidad(new BigDecimal("15"));
-        detalle1.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        DetalleMovimiento detalleVenta = new DetalleMovimiento();
+        detalleVenta.setBulto(bulto1);
+        detalleVenta.setCantidad(new BigDecimal("10"));
+        detalleVenta.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        movimiento2.setDetalles(Set.of(detalleVenta));
 
-        movimiento2.setDetalles(Set.of(detalle1));
+        Movimiento movDevolucion = new Movimiento();
+        DetalleMovimiento detalleDevolucion = new DetalleMovimiento();
+        detalleDevolucion.setBulto(bulto1);
+        detalleDevolucion.setCantidad(new BigDecimal("4"));
+        detalleDevolucion.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        movDevolucion.setDetalles(Set.of(detalleDevolucion));
 
+        when(movimientoRepository.findSaldosRetornablesVenta("MOV-002"))
+                .thenReturn(List.of(saldo(1, null, UnidadMedidaEnum.UNIDAD)));
         when(movimientoRepository.findMovimientosVentaByCodigoMovimiento("MOV-002"))
                 .thenReturn(Optional.of(movimiento2));
         when(movimientoRepository.findByMovimientoOrigen("MOV-002"))
-                .thenReturn(Collections.emptyList());
+                .thenReturn(List.of(movDevolucion));
 
         // When
-        List<Integer> resultado = service.calcularMaximoRecallPorBulto("MOV-002");
+        List<Integer> resultado = service.calcularMaximoDevolucionPorBulto("MOV-002");
 
         // Then
-        assertThat(resultado).isNotNull();
-        assertThat(resultado).hasSize(1);
-        assertThat(resultado.get(0)).isEqualTo(15);
-        verify(movimientoRepository).findMovimientosVentaByCodigoMovimiento("MOV-002");
+        assertThat(resultado).containsExactly(6);
     }
 
     @Test
-    @DisplayName("test_calcularMaximoDevolucionPorBulto_unidadNoEsUNIDAD_debe_lanzarExcepcion")
-    void test_calcularMaximoDevolucionPorBulto_unidadNoEsUNIDAD_debe_lanzarExcepcion() {
+    @DisplayName("test_recalcularMaximoRetornoPorBulto_unidadNoEsUNIDAD_debe_lanzarExcepcion")
+    void test_recalcularMaximoRetornoPorBulto_unidadNoEsUNIDAD_debe_lanzarExcepcion() {
         // Given
         Bulto bulto1 = new Bulto();
         bulto1.setNroBulto(1);
@@ -267,7 +330,7 @@ class MovimientoServiceTest {
                 .thenReturn(Optional.of(movimiento2));
 
         // When & Then
-        assertThatThrownBy(() -> service.calcularMaximoDevolucionPorBulto("MOV-002"))
+        assertThatThrownBy(() -> service.recalcularMaximoRetornoPorBulto("MOV-002"))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessage("La unidad de medida del movimiento de venta debe ser UNIDAD.");
 
@@ -275,8 +338,8 @@ class MovimientoServiceTest {
     }
 
     @Test
-    @DisplayName("test_calcularMaximoDevolucionPorBulto_conDevoluciones_debe_restarDelSaldo")
-    void test_calcularMaximoDevolucionPorBulto_conDevoluciones_debe_restarDelSaldo() {
+    @DisplayName("test_recalcularMaximoRetornoPorBulto_conDevoluciones_debe_restarDelSaldo")
+    void test_recalcularMaximoRetornoPorBulto_conDevoluciones_debe_restarDelSaldo() {
         // Given
         Bulto bulto1 = new Bulto();
         bulto1.setNroBulto(1);
@@ -314,7 +377,7 @@ class MovimientoServiceTest {
                 .thenReturn(Arrays.asList(movDevolucion));
 
         // When
-        List<Integer> resultado = service.calcularMaximoDevolucionPorBulto("MOV-002");
+        List<Integer> resultado = service.recalcularMaximoRetornoPorBulto("MOV-002");
 
         // Then
         assertThat(resultado).isNotNull();
@@ -324,8 +387,8 @@ class MovimientoServiceTest {
     }
 
     @Test
-    @DisplayName("test_calcularMaximoDevolucionPorBulto_devolucionUnidadIncorrecta_debe_lanzarExcepcion")
-    void test_calcularMaximoDevolucionPorBulto_devolucionUnidadIncorrecta_debe_lanzarExcepcion() {
+    @DisplayName("test_recalcularMaximoRetornoPorBulto_devolucionUnidadIncorrecta_debe_lanzarExcepcion")
+    void test_recalcularMaximoRetornoPorBulto_devolucionUnidadIncorrecta_debe_lanzarExcepcion() {
         // Given
         Bulto bulto1 = new Bulto();
         bulto1.setNroBulto(1);
@@ -352,14 +415,14 @@ class MovimientoServiceTest {
                 .thenReturn(Arrays.asList(movDevolucion));
 
         // When & Then
-        assertThatThrownBy(() -> service.calcularMaximoDevolucionPorBulto("MOV-002"))
+        assertThatThrownBy(() -> service.recalcularMaximoRetornoPorBulto("MOV-002"))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessage("La unidad de medida del movimiento de devolucion debe ser UNIDAD.");
     }
 
     @Test
-    @DisplayName("test_calcularMaximoDevolucionPorBulto_devolucionCantidadCero_debe_ignorar")
-    void test_calcularMaximoDevolucionPorBulto_devolucionCantidadCero_debe_ignorar() {
+    @DisplayName("test_recalcularMaximoRetornoPorBulto_devolucionCantidadCero_debe_ignorar")
+    void test_recalcularMaximoRetornoPorBulto_devolucionCantidadCero_debe_ignorar() {
         // Given
         Bulto bulto1 = new Bulto();
         bulto1.setNroBulto(1);
@@ -386,7 +449,7 @@ class MovimientoServiceTest {
                 .thenReturn(Arrays.asList(movDevolucion));
 
         // When
-        List<Integer> resultado = service.calcularMaximoDevolucionPorBulto("MOV-002");
+        List<Integer> resultado = service.recalcularMaximoRetornoPorBulto("MOV-002");
 
         // Then
         assertThat(resultado).isNotNull();
@@ -395,8 +458,8 @@ class MovimientoServiceTest {
     }
 
     @Test
-    @DisplayName("test_calcularMaximoDevolucionPorBulto_bultosSinConsecutivos_debe_rellenarConCeros")
-    void test_calcularMaximoDevolucionPorBulto_bultosSinConsecutivos_debe_rellenarConCeros() {
+    @DisplayName("test_recalcularMaximoRetornoPorBulto_bultosSinConsecutivos_debe_rellenarConCeros")
+    void test_recalcularMaximoRetornoPorBulto_bultosSinConsecutivos_debe_rellenarConCeros() {
         // Given
         Bulto bulto1 = new Bulto();
         bulto1.setNroBulto(1);
@@ -422,7 +485,7 @@ class MovimientoServiceTest {
                 .thenReturn(Collections.emptyList());
 
         // When
-        List<Integer> resultado = service.calcularMaximoDevolucionPorBulto("MOV-002");
+        List<Integer> resultado = service.recalcularMaximoRetornoPorBulto("MOV-002");
 
         // Then
         assertThat(resultado).isNotNull();
@@ -433,8 +496,8 @@ class MovimientoServiceTest {
     }
 
     @Test
-    @DisplayName("test_calcularMaximoDevolucionPorBulto_devolucionExcedente_debe_lanzarExcepcion")
-    void test_calcularMaximoDevolucionPorBulto_devolucionExcedente_debe_lanzarExcepcion() {
+    @DisplayName("test_recalcularMaximoRetornoPorBulto_devolucionExcedente_debe_lanzarExcepcion")
+    void test_recalcularMaximoRetornoPorBulto_devolucionExcedente_debe_lanzarExcepcion() {
         // Given
         Bulto bulto1 = new Bulto();
         bulto1.setNroBulto(1);
@@ -461,8 +524,29 @@ class MovimientoServiceTest {
                 .thenReturn(Arrays.asList(movDevolucion));
 
         // When & Then
-        assertThatThrownBy(() -> service.calcularMaximoDevolucionPorBulto("MOV-002"))
+        assertThatThrownBy(() -> service.recalcularMaximoRetornoPorBulto("MOV-002"))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessage("La cantidad de devuelta no puede ser negativa.");
     }
+
+    private static SaldoRetornableBulto saldo(final int nroBulto, final String saldo, final UnidadMedidaEnum unidad) {
+        return new SaldoRetornableBulto() {
+
+            @Override
+            public Integer getNroBulto() {
+                return nroBulto;
+            }
+
+            @Override
+            public BigDecimal getSaldoRetornable() {
+                return saldo != null ? new BigDecimal(saldo) : null;
+            }
+
+            @Override
+            public UnidadMedidaEnum getUnidadMedida() {
+                return unidad;
+            }
+        };
+    }
+
 }
@@ -1,5 +1,6 @@
 package com.mb.conitrack.service;
 
+import com.mb.conitrack.dto.UsuarioActualDTO;
 import com.mb.conitrack.entity.maestro.Role;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.PermisosCasoUsoEnum;
@@ -58,154 +59,169 @@ class PermisosCasoUsoServiceTest {
     @DisplayName("test_tienePermiso_adminTienePermiso_debe_retornarTrue")
     void test_tienePermiso_adminTienePermiso_debe_retornarTrue() {
         // Given
-        when(securityContextService.getCurrentUser()).thenReturn(adminUser);
+        when(securityContextService.getUsuarioActual()).thenReturn(UsuarioActualDTO.de(adminUser));
 
         // When
         boolean resultado = service.tienePermiso(PermisosCasoUsoEnum.CU1_INGRESO_COMPRA);
 
         // Then
         assertThat(resultado).isTrue();
-        verify(securityContextService).getCurrentUser();
+        verify(securityContextService).getUsuarioActual();
     }
 
     @Test
     @DisplayName("test_tienePermiso_usuarioSinPermiso_debe_retornarFalse")
     void test_tienePermiso_usuarioSinPermiso_debe_retornarFalse() {
         // Given - Auditor no tiene permisos de compras
-        when(securityContextService.getCurrentUser()).thenReturn(auditorUser);
+        when(securityContextService.getUsuarioActual()).thenReturn(UsuarioActualDTO.de(auditorUser));
 
         // When
         boolean resultado = service.tienePermiso(PermisosCasoUsoEnum.CU1_INGRESO_COMPRA);
 
         // Then
         assertThat(resultado).isFalse();
-        verify(securityContextService).getCurrentUser();
+        verify(securityContextService).getUsuarioActual();
     }
 
     @Test
     @DisplayName("test_tienePermiso_excepcion_debe_retornarFalse")
     void test_tienePermiso_excepcion_debe_retornarFalse() {
         // Given
-        when(securityContextService.getCurrentUser()).thenThrow(new RuntimeException("Error"));
+        when(securityContextService.getUsuarioActual()).thenThrow(new RuntimeException("Error"));
 
         // When
         boolean resultado = service.tienePermiso(PermisosCasoUsoEnum.CU1_INGRESO_COMPRA);
 
         // Then
         assertThat(resultado).isFalse();
-        verify(securityContextService).getCurrentUser();
+        verify(securityContextService).getUsuarioActual();
     }
 
     @Test
     @DisplayName("test_esAdmin_usuarioAdmin_debe_retornarTrue")
     void test_esAdmin_usuarioAdmin_debe_retornarTrue() {
         // Given
-        when(securityContextService.getCurrentUser()).thenReturn(adminUser);
+        when(securityContextService.getUsuarioActual()).thenReturn(UsuarioActualDTO.de(adminUser));
 
         // When
         boolean resultado = service.esAdmin();
 
         // Then
         assertThat(resultado).isTrue();
-        verify(securityContextService).getCurrentUser();
+        verify(securityContextService).getUsuarioActual();
     }
 
     @Test
     @DisplayName("test_esAdmin_usuarioNoAdmin_debe_retornarFalse")
     void test_esAdmin_usuarioNoAdmin_debe_retornarFalse() {
         // Given
-        when(securityContextService.getCurrentUser()).thenReturn(qaUser);
+        when(securityContextService.getUsuarioActual()).thenReturn(UsuarioActualDTO.de(qaUser));
 
         // When
         boolean resultado = service.esAdmin();
 
         // Then
         assertThat(resultado).isFalse();
-        verify(securityContextService).getCurrentUser();
+        verify(securityContextService).getUsuarioActual();
     }
 
     @Test
     @DisplayName("test_esAdmin_excepcion_debe_retornarFalse")
     void test_esAdmin_excepcion_debe_retornarFalse() {
         // Given
-        when(securityContextService.getCurrentUser()).thenThrow(new RuntimeException("Error"));
+        when(securityContextService.getUsuarioActual()).thenThrow(new RuntimeException("Error"));
 
         // When
         boolean resultado = service.esAdmin();
 
         // Then
         assertThat(resultado).isFalse();
-        verify(securityContextService).getCurrentUser();
+        verify(securityContextService).getUsuarioActual();
     }
 
     @Test
     @DisplayName("test_esAuditor_usuarioAuditor_debe_retornarTrue")
     void test_esAuditor_usuarioAuditor_debe_retornarTrue() {
         // Given
-        when(securityContextService.getCurrentUser()).thenReturn(auditorUser);
+        when(securityContextService.getUsuarioActual()).thenReturn(UsuarioActualDTO.de(auditorUser));
 
         // When
         boolean resultado = service.esAuditor();
 
         // Then
         assertThat(resultado).isTrue();
-        verify(securityContextService).getCurrentUser();
+        verify(securityContextService).getUsuarioActual();
     }
 
     @Test
     @DisplayName("test_esAuditor_usuarioNoAuditor_debe_retornarFalse")
     void test_esAuditor_usuarioNoAuditor_debe_retornarFalse() {
         // Given
-        when(securityContextService.getCurrentUser()).thenReturn(adminUser);
+        when(securityContextService.getUsuarioActual()).thenReturn(UsuarioActualDTO.de(adminUser));
 
         // When
         boolean resultado = service.esAuditor();
 
         // Then
         assertThat(resultado).isFalse();
-        verify(securityContextService).getCurrentUser();
+        verify(securityContextService).getUsuarioActual();
     }
 
     @Test
     @DisplayName("test_esAuditor_excepcion_debe_retornarFalse")
     void test_esAuditor_excepcion_debe_retornarFalse() {
         // Given
-        when(securityContextService.getCurrentUser()).thenThrow(new RuntimeException("Error"));
+        when(securityContextService.getUsuarioActual()).thenThrow(new RuntimeException("Error"));
 
         // When
         boolean resultado = service.esAuditor();
 
         // Then
         assertThat(resultado).isFalse();
-        verify(securityContextService).getCurrentUser();
+        verify(securityContextService).getUsuarioActual();
     }
 
     @Test
     @DisplayName("test_getRolActual_debe_retornarNombreRol")
     void test_getRolActual_debe_retornarNombreRol() {
         // Given
-        when(securityContextService.getCurrentUser()).thenReturn(adminUser);
+        when(securityContextService.getUsuarioActual()).thenReturn(UsuarioActualDTO.de(adminUser));
 
         // When
         String resultado = service.getRolActual();
 
         // Then
         assertThat(resultado).isEqualTo("ADMIN");
-        verify(securityContextService).getCurrentUser();
+        verify(securityContextService).getUsuarioActual();
     }
 
     @Test
     @DisplayName("test_getRolActual_excepcion_debe_retornarUNKNOWN")
     void test_getRolActual_excepcion_debe_retornarUNKNOWN() {
         // Given
-        when(securityContextService.getCurrentUser()).thenThrow(new RuntimeException("Error"));
+        when(securityContextService.getUsuarioActual()).thenThrow(new RuntimeException("Error"));
 
         // When
         String resultado = service.getRolActual();
 
         // Then
         assertThat(resultado).isEqualTo("UNKNOWN");
-        verify(securityContextService).getCurrentUser();
+        verify(securityContextService).getUsuarioActual();
+    }
+
+    @Test
+    @DisplayName("test_tienePermiso_variasEntradas_noDebe_consultarEntidadUsuario")
+    void test_tienePermiso_variasEntradas_noDebe_consultarEntidadUsuario() {
+        // Given - El menú consulta un permiso por entrada
+        when(securityContextService.getUsuarioActual()).thenReturn(UsuarioActualDTO.de(qaUser));
+
+        // When
+        for (PermisosCasoUsoEnum casoUso : PermisosCasoUsoEnum.values()) {
+            service.tienePermiso(casoUso);
+        }
+
+        // Then
+        verify(securityContextService, never()).getCurrentUser();
     }
 
     @Test
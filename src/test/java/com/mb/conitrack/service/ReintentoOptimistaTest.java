@@ -0,0 +1,89 @@
+package com.mb.conitrack.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mb.conitrack.entity.Lote;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Tests Unitarios - ReintentoOptimista")
+class ReintentoOptimistaTest {
+
+    private ReintentoOptimista reintento;
+
+    private final AtomicInteger llamadas = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        reintento = new ReintentoOptimista();
+        reintento.setMaxIntentos(3);
+        reintento.setEsperaMs(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    @DisplayName("test_ejecutar_conflictoTransitorio_debe_reintentarHastaConfirmar")
+    void test_ejecutar_conflictoTransitorio_debe_reintentarHastaConfirmar() {
+        String resultado = reintento.ejecutar("test", () -> {
+            if (llamadas.incrementAndGet() < 3) {
+                throw conflicto();
+            }
+            return "ok";
+        });
+
+        assertThat(resultado).isEqualTo("ok");
+        assertThat(llamadas).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("test_ejecutar_conflictoPersistente_debe_relanzarTrasMaxIntentos")
+    void test_ejecutar_conflictoPersistente_debe_relanzarTrasMaxIntentos() {
+        assertThatThrownBy(() -> reintento.ejecutar("test", () -> {
+            llamadas.incrementAndGet();
+            throw conflicto();
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(llamadas).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("test_ejecutar_otroError_noDebe_reintentar")
+    void test_ejecutar_otroError_noDebe_reintentar() {
+        assertThatThrownBy(() -> reintento.ejecutar("test", () -> {
+            llamadas.incrementAndGet();
+            throw new IllegalStateException("Stock insuficiente");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(llamadas).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("test_ejecutar_dentroDeTransaccion_noDebe_reintentar")
+    void test_ejecutar_dentroDeTransaccion_noDebe_reintentar() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThatThrownBy(() -> reintento.ejecutar("test", () -> {
+            llamadas.incrementAndGet();
+            throw conflicto();
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(llamadas).hasValue(1);
+    }
+
+    private static ObjectOptimisticLockingFailureException conflicto() {
+        return new ObjectOptimisticLockingFailureException(Lote.class, 1L);
+    }
+
+}
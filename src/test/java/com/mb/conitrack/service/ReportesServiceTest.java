@@ -0,0 +1,124 @@
+package com.mb.conitrack.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mb.conitrack.dto.LoteReporteDTO;
+import com.mb.conitrack.dto.ReportePageDTO;
+import com.mb.conitrack.repository.LoteRepository;
+import com.mb.conitrack.repository.MovimientoRepository;
+import com.mb.conitrack.service.ReportesService.FormatoExportacion;
+
+import jakarta.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios - ReportesService")
+class ReportesServiceTest {
+
+    @Mock
+    private LoteRepository loteRepository;
+
+    @Mock
+    private MovimientoRepository movimientoRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private ReportesService service() {
+        return new ReportesService(loteRepository, movimientoRepository, new ObjectMapper().findAndRegisterModules(), entityManager);
+    }
+
+    @Test
+    @DisplayName("Página completa debe informar el último id como cursor")
+    void test_findLotes_paginaCompleta_debe_devolverCursor() {
+        when(loteRepository.findReporteAfterId(10L, false, PageRequest.of(0, 2)))
+            .thenReturn(List.of(lote(11L, "A"), lote(12L, "B")));
+
+        ReportePageDTO<LoteReporteDTO> page = service().findLotes(10L, 2, false);
+
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.getNextAfterId()).isEqualTo(12L);
+    }
+
+    @Test
+    @DisplayName("Página incompleta debe indicar fin sin cursor")
+    void test_findLotes_paginaIncompleta_debe_devolverCursorNulo() {
+        when(loteRepository.findReporteAfterId(0L, true, PageRequest.of(0, ReportesService.PAGE_SIZE_DEFAULT)))
+            .thenReturn(List.of(lote(1L, "A")));
+
+        ReportePageDTO<LoteReporteDTO> page = service().findLotes(null, null, true);
+
+        assertThat(page.getNextAfterId()).isNull();
+    }
+
+    @Test
+    @DisplayName("normalizarSize debe aplicar default y tope")
+    void test_normalizarSize_debe_aplicarDefaultYTope() {
+        assertThat(ReportesService.normalizarSize(null)).isEqualTo(ReportesService.PAGE_SIZE_DEFAULT);
+        assertThat(ReportesService.normalizarSize(0)).isEqualTo(ReportesService.PAGE_SIZE_DEFAULT);
+        assertThat(ReportesService.normalizarSize(100_000)).isEqualTo(ReportesService.PAGE_SIZE_MAX);
+        assertThat(ReportesService.normalizarSize(50)).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("csvLine debe escapar comas y comillas")
+    void test_csvLine_debe_escaparValores() {
+        String linea = ReportesService.csvLine(new Object[] { 1L, "a,b", "dijo \"hola\"", null });
+
+        assertThat(linea).isEqualTo("1,\"a,b\",\"dijo \"\"hola\"\"\",\n");
+    }
+
+    @Test
+    @DisplayName("exportarLotes en CSV debe escribir encabezado y una fila por lote")
+    void test_exportarLotes_csv_debe_escribirFilas() {
+        when(loteRepository.streamReporte(false)).thenReturn(Stream.of(lote(1L, "L-1"), lote(2L, "L-2")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service().exportarLotes(out, FormatoExportacion.CSV, false);
+
+        String[] lineas = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lineas).hasSize(3);
+        assertThat(lineas[0]).startsWith("id,codigoLote");
+        assertThat(lineas[2]).startsWith("2,L-2");
+    }
+
+    @Test
+    @DisplayName("exportarMovimientos por lote debe usar la consulta filtrada por lote_id")
+    void test_exportarMovimientos_porLote_debe_usarConsultaFiltrada() {
+        when(movimientoRepository.streamReporteByLoteId(5L)).thenReturn(Stream.empty());
+
+        service().exportarMovimientos(new ByteArrayOutputStream(), FormatoExportacion.NDJSON, 5L);
+
+        verify(movimientoRepository).streamReporteByLoteId(5L);
+    }
+
+    @Test
+    @DisplayName("Formato desconocido debe rechazarse")
+    void test_formato_desconocido_debe_lanzarExcepcion() {
+        assertThat(FormatoExportacion.from("csv")).isEqualTo(FormatoExportacion.CSV);
+        assertThatThrownBy(() -> FormatoExportacion.from("xml")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static LoteReporteDTO lote(Long id, String codigo) {
+        LoteReporteDTO dto = new LoteReporteDTO();
+        dto.setId(id);
+        dto.setCodigoLote(codigo);
+        return dto;
+    }
+
+}
@@ -0,0 +1,363 @@
+package com.mb.conitrack.service;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.MovimientoDTO;
+import com.mb.conitrack.dto.StockHistoricoDTO;
+import com.mb.conitrack.entity.SaldoCheckpoint.Nivel;
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.entity.maestro.Proveedor;
+import com.mb.conitrack.entity.maestro.Role;
+import com.mb.conitrack.entity.maestro.User;
+import com.mb.conitrack.enums.RoleEnum;
+import com.mb.conitrack.enums.TipoProductoEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.repository.maestro.ProductoRepository;
+import com.mb.conitrack.repository.maestro.ProveedorRepository;
+import com.mb.conitrack.repository.maestro.RoleRepository;
+import com.mb.conitrack.repository.maestro.UserRepository;
+import com.mb.conitrack.service.cu.AltaIngresoCompraService;
+import com.mb.conitrack.service.cu.BajaConsumoProduccionService;
+import com.mb.conitrack.service.cu.ModifReversoMovimientoService;
+
+import static com.mb.conitrack.enums.UnidadMedidaEnum.GRAMO;
+import static com.mb.conitrack.enums.UnidadMedidaEnum.KILOGRAMO;
+import static com.mb.conitrack.testdata.TestDataBuilder.unLoteDTO;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests de integración del stock a una fecha contra H2: la consulta JDBC de efectos (ALTA, BAJA y REVERSO con
+ * el signo invertido) y los checkpoints, sobre un historial generado por los CUs reales.
+ * <p>
+ * Historial, una hora entre pasos:
+ * <ol>
+ *     <li>Alta lote A en KILOGRAMO: bulto 1 con 9.5 KILOGRAMO y bulto 2 con 500 GRAMO</li>
+ *     <li>Alta lote B en GRAMO: un bulto con 2000 GRAMO</li>
+ *     <li>Consumo de A: 250 GRAMO del bulto 1 y 0.1 KILOGRAMO del bulto 2 (unidades distintas a las del bulto)</li>
+ *     <li>Consumo de A: 1.5 KILOGRAMO del bulto 1</li>
+ *     <li>Reverso del primer consumo</li>
+ *     <li>Consumo de B: 0.75 KILOGRAMO</li>
+ * </ol>
+ * Los checkpoints se escriben en transacciones propias, por lo que el test no es transaccional y limpia su base.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:saldosdb",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.sql.init.mode=never",
+    "spring.jpa.defer-datasource-initialization=false"
+})
+@DisplayName("Tests de Integración - SaldoHistoricoService stock a una fecha")
+class SaldoHistoricoServiceIntegrationTest {
+
+    @Autowired
+    private SaldoHistoricoService saldoHistoricoService;
+
+    @Autowired
+    private AltaIngresoCompraService altaIngresoCompraService;
+
+    @Autowired
+    private BajaConsumoProduccionService bajaConsumoProduccionService;
+
+    @Autowired
+    private ModifReversoMovimientoService modifReversoMovimientoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ProveedorRepository proveedorRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private SecurityContextService securityContextService;
+
+    private final OffsetDateTime inicio = OffsetDateTime.now().minusDays(5).truncatedTo(ChronoUnit.SECONDS);
+
+    private Producto producto;
+
+    private Long loteA;
+
+    private Long loteB;
+
+    private Long bultoA1;
+
+    private Long bultoA2;
+
+    private Long bultoB1;
+
+    @BeforeEach
+    void setUp() {
+        final Role role = roleRepository.save(Role.fromEnum(RoleEnum.ADMIN));
+        final User user = userRepository.save(new User("saldos", "password", role));
+        when(securityContextService.getCurrentUser()).thenReturn(user);
+
+        producto = new Producto();
+        producto.setCodigoProducto("QC-SALDOS");
+        producto.setNombreGenerico("Producto saldos");
+        producto.setTipoProducto(TipoProductoEnum.API);
+        producto.setUnidadMedida(KILOGRAMO);
+        producto.setActivo(true);
+        producto = productoRepository.save(producto);
+
+        Proveedor proveedor = new Proveedor();
+        proveedor.setRazonSocial("Proveedor saldos");
+        proveedor.setCuit("20-33333333-3");
+        proveedor.setDireccion("Calle QC 3");
+        proveedor.setCiudad("Buenos Aires");
+        proveedor.setPais("Argentina");
+        proveedor.setActivo(true);
+        proveedor = proveedorRepository.save(proveedor);
+
+        final String codigoA = alta(proveedor, hora(1), new BigDecimal("10"), KILOGRAMO,
+            List.of(new BigDecimal("9.5"), new BigDecimal("500")), List.of(KILOGRAMO, GRAMO));
+        final String codigoB = alta(proveedor, hora(2), new BigDecimal("2000"), GRAMO, List.of(), List.of());
+        loteA = idLote(codigoA);
+        loteB = idLote(codigoB);
+        bultoA1 = idBulto(loteA, 1);
+        bultoA2 = idBulto(loteA, 2);
+        bultoB1 = idBulto(loteB, 1);
+
+        consumo(codigoA, hora(3), List.of(new BigDecimal("250"), new BigDecimal("0.1")), List.of(GRAMO, KILOGRAMO));
+        consumo(codigoA, hora(4), List.of(new BigDecimal("1.5"), BigDecimal.ZERO), List.of(KILOGRAMO, GRAMO));
+        reverso(primerConsumo(loteA), hora(5));
+        consumo(codigoB, hora(6), List.of(new BigDecimal("0.75")), List.of(KILOGRAMO));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from saldos_checkpoint");
+        jdbcTemplate.update("delete from detalle_movimientos");
+        jdbcTemplate.update("delete from movimientos where movimiento_origen_id is not null");
+        jdbcTemplate.update("delete from movimientos");
+        jdbcTemplate.update("delete from analisis");
+        jdbcTemplate.update("delete from bultos");
+        jdbcTemplate.update("delete from lotes");
+        jdbcTemplate.update("delete from proveedores");
+        jdbcTemplate.update("delete from productos");
+        jdbcTemplate.update("delete from users");
+        jdbcTemplate.update("delete from roles");
+    }
+
+    @Test
+    @DisplayName("test_consultarStock_alFinal_debe_coincidirConCantidadActualEnTodosLosNiveles")
+    void test_consultarStock_alFinal_debe_coincidirConCantidadActualEnTodosLosNiveles() {
+        final OffsetDateTime ahora = OffsetDateTime.now();
+
+        assertStock(Nivel.BULTO, bultoA1, ahora, cantidadActual("bultos", bultoA1), KILOGRAMO);
+        assertStock(Nivel.BULTO, bultoA2, ahora, cantidadActual("bultos", bultoA2), GRAMO);
+        assertStock(Nivel.BULTO, bultoB1, ahora, cantidadActual("bultos", bultoB1), GRAMO);
+        assertStock(Nivel.LOTE, loteA, ahora, cantidadActual("lotes", loteA), KILOGRAMO);
+        assertStock(Nivel.LOTE, loteB, ahora, cantidadActual("lotes", loteB), GRAMO);
+        // Lote B está en GRAMO: a nivel producto se expresa en KILOGRAMO
+        assertStock(Nivel.PRODUCTO, producto.getId(), ahora,
+            cantidadActual("lotes", loteA).add(cantidadActual("lotes", loteB).movePointLeft(3)), KILOGRAMO);
+
+        // Los CUs dejaron: A1 = 9.5 - 0.25 - 1.5 + 0.25, A2 = 500 - 100 + 100, B = 2000 - 750
+        assertThat(cantidadActual("bultos", bultoA1)).isEqualByComparingTo("8");
+        assertThat(cantidadActual("bultos", bultoA2)).isEqualByComparingTo("500");
+        assertThat(cantidadActual("lotes", loteA)).isEqualByComparingTo("8.5");
+        assertThat(cantidadActual("lotes", loteB)).isEqualByComparingTo("1250");
+    }
+
+    @Test
+    @DisplayName("test_consultarStock_sinCheckpoint_debe_reconstruirCadaPasoDelHistorial")
+    void test_consultarStock_sinCheckpoint_debe_reconstruirCadaPasoDelHistorial() {
+        assertStock(Nivel.LOTE, loteA, inicio, "0", KILOGRAMO);
+        assertStock(Nivel.PRODUCTO, producto.getId(), hora(1).plusMinutes(30), "10", KILOGRAMO);
+        assertStock(Nivel.PRODUCTO, producto.getId(), hora(2), "12", KILOGRAMO);
+
+        // El corte es inclusivo: el consumo de las 3 ya cuenta
+        assertStock(Nivel.BULTO, bultoA1, hora(3), "9.25", KILOGRAMO);
+        assertStock(Nivel.BULTO, bultoA2, hora(3), "400", GRAMO);
+        assertStock(Nivel.LOTE, loteA, hora(3), "9.65", KILOGRAMO);
+        assertStock(Nivel.LOTE, loteA, hora(4), "8.15", KILOGRAMO);
+
+        // El reverso suma a su propia fecha; antes el consumo sigue vigente
+        assertStock(Nivel.LOTE, loteA, hora(5).minusSeconds(1), "8.15", KILOGRAMO);
+        assertStock(Nivel.LOTE, loteA, hora(5), "8.5", KILOGRAMO);
+        assertStock(Nivel.BULTO, bultoA2, hora(5), "500", GRAMO);
+
+        assertStock(Nivel.LOTE, loteB, hora(6), "1250", GRAMO);
+        assertStock(Nivel.PRODUCTO, producto.getId(), hora(6), "9.75", KILOGRAMO);
+    }
+
+    @Test
+    @DisplayName("test_consultarStock_conCheckpoint_debe_darElMismoStockAplicandoSoloMovimientosPosteriores")
+    void test_consultarStock_conCheckpoint_debe_darElMismoStockAplicandoSoloMovimientosPosteriores() {
+        final StockHistoricoDTO sinCheckpoint = consultar(Nivel.LOTE, loteA, hora(6));
+
+        // Corte entre los dos consumos: el reverso posterior revierte un movimiento anterior al corte
+        assertThat(saldoHistoricoService.generarCheckpoint(hora(3).plusMinutes(30))).isEqualTo(6);
+        final StockHistoricoDTO conCheckpoint = consultar(Nivel.LOTE, loteA, hora(6));
+
+        assertThat(conCheckpoint.getFechaCheckpoint()).isAtSameInstantAs(hora(3).plusMinutes(30));
+        assertThat(conCheckpoint.getCantidad()).isEqualByComparingTo(sinCheckpoint.getCantidad());
+        assertThat(conCheckpoint.getMovimientosAplicados()).isLessThan(sinCheckpoint.getMovimientosAplicados());
+        assertStock(Nivel.BULTO, bultoA1, hora(6), "8", KILOGRAMO);
+        assertStock(Nivel.BULTO, bultoA2, hora(6), "500", GRAMO);
+        assertStock(Nivel.LOTE, loteB, hora(6), "1250", GRAMO);
+        assertStock(Nivel.PRODUCTO, producto.getId(), hora(6), "9.75", KILOGRAMO);
+
+        // Una fecha anterior al corte no usa el checkpoint
+        final StockHistoricoDTO previo = consultar(Nivel.PRODUCTO, producto.getId(), hora(2));
+        assertThat(previo.getFechaCheckpoint()).isNull();
+        assertThat(previo.getCantidad()).isEqualByComparingTo("12");
+    }
+
+    @Test
+    @DisplayName("test_generarCheckpoint_incremental_debe_acumularSobreElCheckpointAnterior")
+    void test_generarCheckpoint_incremental_debe_acumularSobreElCheckpointAnterior() {
+        saldoHistoricoService.generarCheckpoint(hora(3).plusMinutes(30));
+        // Solo lote A tiene movimientos entre los cortes (el segundo consumo y el reverso)
+        assertThat(saldoHistoricoService.generarCheckpoint(hora(5).plusMinutes(30))).isEqualTo(4);
+
+        assertThat(ultimoCheckpoint(Nivel.LOTE, loteA)).isEqualByComparingTo("8.5");
+        assertThat(ultimoCheckpoint(Nivel.BULTO, bultoA2)).isEqualByComparingTo("500");
+        assertThat(ultimoCheckpoint(Nivel.PRODUCTO, producto.getId())).isEqualByComparingTo("10.5");
+
+        final OffsetDateTime ahora = OffsetDateTime.now();
+        final StockHistoricoDTO lote = consultar(Nivel.LOTE, loteA, ahora);
+        assertThat(lote.getFechaCheckpoint()).isAtSameInstantAs(hora(5).plusMinutes(30));
+        assertThat(lote.getMovimientosAplicados()).isZero();
+        assertStock(Nivel.LOTE, loteA, ahora, cantidadActual("lotes", loteA), KILOGRAMO);
+        assertStock(Nivel.LOTE, loteB, ahora, cantidadActual("lotes", loteB), GRAMO);
+        assertStock(Nivel.BULTO, bultoA1, ahora, cantidadActual("bultos", bultoA1), KILOGRAMO);
+        assertStock(Nivel.PRODUCTO, producto.getId(), ahora, new BigDecimal("9.75"), KILOGRAMO);
+    }
+
+    private String alta(
+        final Proveedor proveedor,
+        final OffsetDateTime fecha,
+        final BigDecimal cantidad,
+        final UnidadMedidaEnum unidad,
+        final List<BigDecimal> cantidadesBultos,
+        final List<UnidadMedidaEnum> unidadesBultos) {
+        final LoteDTO dto = unLoteDTO()
+            .withProductoId(producto.getId())
+            .withProveedorId(proveedor.getId())
+            .withFabricanteId(null)
+            .withCantidadInicial(cantidad)
+            .withUnidadMedida(unidad)
+            .withBultosTotales(Math.max(1, cantidadesBultos.size()))
+            .withCantidadesBultos(new ArrayList<>(cantidadesBultos))
+            .withUnidadMedidaBultos(new ArrayList<>(unidadesBultos))
+            .withLoteProveedor("LP-" + fecha.toEpochSecond())
+            .build();
+        dto.setFechaYHoraCreacion(fecha);
+        dto.setFechaIngreso(fecha.toLocalDate());
+        return altaIngresoCompraService.altaStockPorCompra(dto).getCodigoLote();
+    }
+
+    private void consumo(
+        final String codigoLote,
+        final OffsetDateTime fecha,
+        final List<BigDecimal> cantidades,
+        final List<UnidadMedidaEnum> unidades) {
+        final LoteDTO dto = new LoteDTO();
+        dto.setCodigoLote(codigoLote);
+        dto.setFechaEgreso(fecha.toLocalDate());
+        dto.setFechaYHoraCreacion(fecha);
+        dto.setOrdenProduccion("OP-SALDOS");
+        final List<Integer> nros = new ArrayList<>();
+        for (int nro = 1; nro <= cantidades.size(); nro++) {
+            nros.add(nro);
+        }
+        dto.setNroBultoList(nros);
+        dto.setCantidadesBultos(new ArrayList<>(cantidades));
+        dto.setUnidadMedidaBultos(new ArrayList<>(unidades));
+        bajaConsumoProduccionService.bajaConsumoProduccion(dto);
+    }
+
+    private void reverso(final String codigoMovimientoOrigen, final OffsetDateTime fecha) {
+        final MovimientoDTO dto = new MovimientoDTO();
+        dto.setCodigoMovimientoOrigen(codigoMovimientoOrigen);
+        dto.setFechaYHoraCreacion(fecha);
+        dto.setFechaMovimiento(fecha.toLocalDate());
+        dto.setObservaciones("Reverso test saldos");
+        modifReversoMovimientoService.persistirReversoMovmiento(dto);
+    }
+
+    private void assertStock(
+        final Nivel nivel,
+        final Long id,
+        final OffsetDateTime fecha,
+        final String esperado,
+        final UnidadMedidaEnum unidad) {
+        assertStock(nivel, id, fecha, new BigDecimal(esperado), unidad);
+    }
+
+    private void assertStock(
+        final Nivel nivel,
+        final Long id,
+        final OffsetDateTime fecha,
+        final BigDecimal esperado,
+        final UnidadMedidaEnum unidad) {
+        final StockHistoricoDTO stock = consultar(nivel, id, fecha);
+        assertThat(stock.getCantidad()).as("%s %d al %s", nivel, id, fecha).isEqualByComparingTo(esperado);
+        assertThat(stock.getUnidadMedida()).isEqualTo(unidad);
+    }
+
+    private StockHistoricoDTO consultar(final Nivel nivel, final Long id, final OffsetDateTime fecha) {
+        return saldoHistoricoService.consultarStock(nivel, id, fecha).orElseThrow();
+    }
+
+    private OffsetDateTime hora(final int n) {
+        return inicio.plusHours(n);
+    }
+
+    private Long idLote(final String codigoLote) {
+        return jdbcTemplate.queryForObject("select id from lotes where codigo_lote = ?", Long.class, codigoLote);
+    }
+
+    private Long idBulto(final Long loteId, final int nroBulto) {
+        return jdbcTemplate.queryForObject(
+            "select id from bultos where lote_id = ? and nro_bulto = ?", Long.class, loteId, nroBulto);
+    }
+
+    private String primerConsumo(final Long loteId) {
+        return jdbcTemplate.queryForObject("""
+            select codigo_movimiento from movimientos
+            where lote_id = ? and motivo = 'CONSUMO_PRODUCCION'
+            order by fecha_creacion
+            fetch first 1 row only""", String.class, loteId);
+    }
+
+    private BigDecimal cantidadActual(final String tabla, final Long id) {
+        return jdbcTemplate.queryForObject(
+            "select cantidad_actual from " + tabla + " where id = ?", BigDecimal.class, id);
+    }
+
+    private BigDecimal ultimoCheckpoint(final Nivel nivel, final Long id) {
+        return jdbcTemplate.queryForObject("""
+            select cantidad from saldos_checkpoint
+            where nivel = ? and entidad_id = ?
+            order by fecha_corte desc
+            fetch first 1 row only""", BigDecimal.class, nivel.name(), id);
+    }
+
+}
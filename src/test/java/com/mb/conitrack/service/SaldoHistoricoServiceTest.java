@@ -0,0 +1,172 @@
+package com.mb.conitrack.service;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.mb.conitrack.dto.StockHistoricoDTO;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.SaldoCheckpoint;
+import com.mb.conitrack.entity.SaldoCheckpoint.Nivel;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.repository.BultoRepository;
+import com.mb.conitrack.repository.LoteRepository;
+import com.mb.conitrack.repository.MovimientoRepository;
+import com.mb.conitrack.repository.MovimientoRepositoryCustom.EfectoStock;
+import com.mb.conitrack.repository.SaldoCheckpointRepository;
+import com.mb.conitrack.repository.maestro.ProductoRepository;
+
+import static com.mb.conitrack.enums.UnidadMedidaEnum.GRAMO;
+import static com.mb.conitrack.enums.UnidadMedidaEnum.KILOGRAMO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SaldoHistoricoServiceTest {
+
+    @InjectMocks
+    SaldoHistoricoService service;
+
+    @Mock
+    SaldoCheckpointRepository saldoCheckpointRepository;
+
+    @Mock
+    MovimientoRepository movimientoRepository;
+
+    @Mock
+    BultoRepository bultoRepository;
+
+    @Mock
+    LoteRepository loteRepository;
+
+    @Mock
+    ProductoRepository productoRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    private final OffsetDateTime corte = OffsetDateTime.of(2025, 3, 1, 4, 30, 0, 0, ZoneOffset.UTC);
+
+    private final OffsetDateTime fecha = corte.plusDays(10);
+
+    @Nested
+    @DisplayName("consultarStock() - Stock a una fecha")
+    class ConsultarStockTests {
+
+        @Test
+        @DisplayName("Debe partir del checkpoint y aplicar solo los movimientos posteriores, en la unidad del lote")
+        void consultarStock_conCheckpoint_debeAplicarMovimientosPosteriores() {
+            when(loteRepository.findById(5L)).thenReturn(Optional.of(lote(KILOGRAMO)));
+            when(saldoCheckpointRepository
+                .findFirstByNivelAndEntidadIdAndFechaCorteLessThanEqualOrderByFechaCorteDesc(Nivel.LOTE, 5L, fecha))
+                .thenReturn(Optional.of(new SaldoCheckpoint(Nivel.LOTE, 5L, corte, new BigDecimal("10"), KILOGRAMO)));
+            when(movimientoRepository.findEfectosStock(Nivel.LOTE, 5L, corte, fecha)).thenReturn(List.of(
+                efecto(new BigDecimal("2"), KILOGRAMO),
+                efecto(new BigDecimal("-500"), GRAMO)));
+
+            StockHistoricoDTO stock = service.consultarStock(Nivel.LOTE, 5L, fecha).orElseThrow();
+
+            assertEquals(new BigDecimal("11.5000"), stock.getCantidad());
+            assertEquals(KILOGRAMO, stock.getUnidadMedida());
+            assertEquals(corte, stock.getFechaCheckpoint());
+            assertEquals(2, stock.getMovimientosAplicados());
+        }
+
+        @Test
+        @DisplayName("Sin checkpoint debe recorrer los movimientos desde el inicio")
+        void consultarStock_sinCheckpoint_debeRecorrerDesdeElInicio() {
+            when(loteRepository.findById(5L)).thenReturn(Optional.of(lote(KILOGRAMO)));
+            when(saldoCheckpointRepository
+                .findFirstByNivelAndEntidadIdAndFechaCorteLessThanEqualOrderByFechaCorteDesc(Nivel.LOTE, 5L, fecha))
+                .thenReturn(Optional.empty());
+            when(movimientoRepository.findEfectosStock(Nivel.LOTE, 5L, null, fecha))
+                .thenReturn(List.of(efecto(new BigDecimal("3"), KILOGRAMO)));
+
+            StockHistoricoDTO stock = service.consultarStock(Nivel.LOTE, 5L, fecha).orElseThrow();
+
+            assertEquals(new BigDecimal("3.0000"), stock.getCantidad());
+            assertNull(stock.getFechaCheckpoint());
+        }
+
+        @Test
+        @DisplayName("Entidad inexistente debe retornar vacío sin consultar movimientos")
+        void consultarStock_entidadInexistente_debeRetornarVacio() {
+            when(loteRepository.findById(5L)).thenReturn(Optional.empty());
+
+            assertTrue(service.consultarStock(Nivel.LOTE, 5L, fecha).isEmpty());
+            verify(movimientoRepository, never()).findEfectosStock(any(), any(), any(), any());
+        }
+
+    }
+
+    @Nested
+    @DisplayName("generarCheckpoint() - Checkpoints incrementales")
+    class GenerarCheckpointTests {
+
+        @Test
+        @DisplayName("Debe sumar los movimientos del período al checkpoint vigente de cada entidad")
+        @SuppressWarnings("unchecked")
+        void generarCheckpoint_debeAcumularSobreCheckpointVigente() {
+            when(saldoCheckpointRepository.findUltimoCorte()).thenReturn(Optional.of(corte));
+            when(movimientoRepository.findEfectosStock(null, null, corte, fecha)).thenReturn(List.of(
+                efecto(new BigDecimal("-250"), GRAMO)));
+            when(saldoCheckpointRepository.findVigentes(any(), anyCollection(), eq(corte))).thenReturn(List.of());
+            when(saldoCheckpointRepository.findVigentes(eq(Nivel.LOTE), anyCollection(), eq(corte))).thenReturn(List.of(
+                new SaldoCheckpoint(Nivel.LOTE, 5L, corte, new BigDecimal("10"), KILOGRAMO)));
+
+            int escritos = service.generarCheckpoint(fecha);
+
+            assertEquals(3, escritos);
+            ArgumentCaptor<List<SaldoCheckpoint>> captor = ArgumentCaptor.forClass(List.class);
+            verify(saldoCheckpointRepository).saveAll(captor.capture());
+            SaldoCheckpoint lote = captor.getValue().stream()
+                .filter(c -> c.getNivel() == Nivel.LOTE).findFirst().orElseThrow();
+            assertEquals(new BigDecimal("9.7500"), lote.getCantidad());
+            assertEquals(fecha, lote.getFechaCorte());
+            SaldoCheckpoint bulto = captor.getValue().stream()
+                .filter(c -> c.getNivel() == Nivel.BULTO).findFirst().orElseThrow();
+            assertEquals(new BigDecimal("-0.2500"), bulto.getCantidad());
+        }
+
+        @Test
+        @DisplayName("Corte no posterior al último debe omitirse")
+        void generarCheckpoint_corteAnterior_debeOmitirse() {
+            when(saldoCheckpointRepository.findUltimoCorte()).thenReturn(Optional.of(fecha));
+
+            assertEquals(0, service.generarCheckpoint(corte));
+            verify(movimientoRepository, never()).findEfectosStock(any(), any(), any(), any());
+        }
+
+    }
+
+    private static Lote lote(UnidadMedidaEnum unidad) {
+        Lote lote = new Lote();
+        lote.setUnidadMedida(unidad);
+        return lote;
+    }
+
+    /** Detalle sobre el bulto 1 del lote 5 (producto 9), con bulto, lote y producto en kilogramos. */
+    private static EfectoStock efecto(BigDecimal cantidad, UnidadMedidaEnum unidad) {
+        return new EfectoStock(1L, KILOGRAMO, 5L, KILOGRAMO, 9L, KILOGRAMO, cantidad, unidad);
+    }
+
+}
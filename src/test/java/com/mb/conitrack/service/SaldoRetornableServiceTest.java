@@ -0,0 +1,134 @@
+package com.mb.conitrack.service;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.mb.conitrack.entity.Bulto;
+import com.mb.conitrack.entity.DetalleMovimiento;
+import com.mb.conitrack.entity.Movimiento;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.repository.MovimientoRepository;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios - SaldoRetornableService")
+class SaldoRetornableServiceTest {
+
+    @Mock
+    private MovimientoRepository movimientoRepository;
+
+    @InjectMocks
+    private SaldoRetornableService service;
+
+    private Movimiento venta;
+
+    @BeforeEach
+    void setUp() {
+        venta = new Movimiento();
+        venta.setId(10L);
+        venta.setCodigoMovimiento("MOV-VENTA");
+    }
+
+    @Test
+    @DisplayName("test_descontar_debe_descontarCadaBultoDelRetorno")
+    void test_descontar_debe_descontarCadaBultoDelRetorno() {
+        final Movimiento devolucion = retorno(detalle(1, "3"), detalle(2, "5"));
+        when(movimientoRepository.descontarSaldoRetornable(10L, 1, new BigDecimal("3"))).thenReturn(1);
+        when(movimientoRepository.descontarSaldoRetornable(10L, 2, new BigDecimal("5"))).thenReturn(1);
+
+        service.descontar(devolucion);
+
+        verify(movimientoRepository).descontarSaldoRetornable(10L, 1, new BigDecimal("3"));
+        verify(movimientoRepository).descontarSaldoRetornable(10L, 2, new BigDecimal("5"));
+    }
+
+    @Test
+    @DisplayName("test_descontar_debe_inicializarSaldoNuloAntesDeDescontar")
+    void test_descontar_debe_inicializarSaldoNuloAntesDeDescontar() {
+        final Movimiento devolucion = retorno(detalle(1, "3"));
+        devolucion.setId(20L);
+        when(movimientoRepository.descontarSaldoRetornable(10L, 1, new BigDecimal("3"))).thenReturn(1);
+
+        service.descontar(devolucion);
+
+        final InOrder orden = inOrder(movimientoRepository);
+        orden.verify(movimientoRepository).inicializarSaldoRetornable(10L, 20L);
+        orden.verify(movimientoRepository).descontarSaldoRetornable(10L, 1, new BigDecimal("3"));
+    }
+
+    @Test
+    @DisplayName("test_descontar_saldoInsuficiente_debe_lanzarExcepcion")
+    void test_descontar_saldoInsuficiente_debe_lanzarExcepcion() {
+        final Movimiento devolucion = retorno(detalle(2, "8"));
+        when(movimientoRepository.descontarSaldoRetornable(10L, 2, new BigDecimal("8"))).thenReturn(0);
+
+        assertThatThrownBy(() -> service.descontar(devolucion))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("La cantidad a retornar del bulto 2 supera el saldo de la venta MOV-VENTA.");
+    }
+
+    @Test
+    @DisplayName("test_descontar_detalleEnCero_debe_ignorarlo")
+    void test_descontar_detalleEnCero_debe_ignorarlo() {
+        service.descontar(retorno(detalle(1, "0")));
+
+        verify(movimientoRepository, never()).descontarSaldoRetornable(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("test_reponer_debe_devolverCadaBultoAlSaldo")
+    void test_reponer_debe_devolverCadaBultoAlSaldo() {
+        service.reponer(retorno(detalle(1, "3"), detalle(3, "1")));
+
+        verify(movimientoRepository).reponerSaldoRetornable(10L, 1, new BigDecimal("3"));
+        verify(movimientoRepository).reponerSaldoRetornable(10L, 3, new BigDecimal("1"));
+    }
+
+    @Test
+    @DisplayName("test_reponer_sinMovimientoOrigen_debe_noActualizar")
+    void test_reponer_sinMovimientoOrigen_debe_noActualizar() {
+        final Movimiento devolucion = retorno(detalle(1, "3"));
+        devolucion.setMovimientoOrigen(null);
+
+        service.reponer(devolucion);
+
+        verify(movimientoRepository, never()).reponerSaldoRetornable(anyLong(), anyInt(), any());
+    }
+
+    private Movimiento retorno(final DetalleMovimiento... detalles) {
+        final Movimiento retorno = new Movimiento();
+        retorno.setMovimientoOrigen(venta);
+        retorno.setDetalles(new LinkedHashSet<>(List.of(detalles)));
+        return retorno;
+    }
+
+    private static DetalleMovimiento detalle(final int nroBulto, final String cantidad) {
+        final Bulto bulto = new Bulto();
+        bulto.setNroBulto(nroBulto);
+        return DetalleMovimiento.builder()
+            .bulto(bulto)
+            .cantidad(new BigDecimal(cantidad))
+            .unidadMedida(UnidadMedidaEnum.UNIDAD)
+            .activo(true)
+            .build();
+    }
+
+}
@@ -5,6 +5,7 @@ import static org.mockito.Mockito.*;
 
 import java.util.Optional;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,14 +13,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import com.mb.conitrack.dto.UsuarioActualDTO;
 import com.mb.conitrack.entity.maestro.Role;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.RoleEnum;
 import com.mb.conitrack.repository.maestro.UserRepository;
+import com.mb.conitrack.service.maestro.UsuarioPrincipal;
 
 /**
  * Tests para SecurityContextService.
@@ -54,6 +60,12 @@ class SecurityContextServiceTest {
         SecurityContextHolder.setContext(securityContext);
     }
 
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
     @Test
     @DisplayName("getCurrentUser retorna usuario autenticado correctamente")
     void testGetCurrentUserSuccess() {
@@ -223,4 +235,57 @@ class SecurityContextServiceTest {
 
         assertFalse(result);
     }
+
+    @Test
+    @DisplayName("getCurrentUser dentro de una petición consulta la BD una sola vez")
+    void testGetCurrentUserReutilizaEntidadEnLaPeticion() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getName()).thenReturn("testuser");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        User primero = service.getCurrentUser();
+        User segundo = service.getCurrentUser();
+
+        assertSame(primero, segundo);
+        verify(userRepository, times(1)).findByUsername("testuser");
+    }
+
+    @Test
+    @DisplayName("getUsuarioActual usa la instantánea del principal sin consultar la BD")
+    void testGetUsuarioActualDesdePrincipal() {
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getName()).thenReturn("testuser");
+        when(authentication.getPrincipal()).thenReturn(new UsuarioPrincipal(testUser));
+
+        UsuarioActualDTO usuarioActual = service.getUsuarioActual();
+
+        assertEquals(1L, usuarioActual.id());
+        assertEquals(RoleEnum.ADMIN, usuarioActual.roleEnum());
+        assertEquals(RoleEnum.ADMIN.getNivel(), usuarioActual.nivel());
+        assertFalse(usuarioActual.auditor());
+        assertTrue(service.hasRole("ADMIN"));
+        verify(userRepository, never()).findByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("invalidarUsuario descarta la instantánea del principal y relee el usuario una vez")
+    void testInvalidarUsuarioReleeDeLaBD() {
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getName()).thenReturn("testuser");
+        when(authentication.getPrincipal()).thenReturn(new UsuarioPrincipal(testUser));
+
+        User modificado = new User("testuser", "password", Role.fromEnum(RoleEnum.AUDITOR));
+        modificado.setId(1L);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(modificado));
+
+        service.invalidarUsuario("testuser");
+
+        assertEquals(RoleEnum.AUDITOR, service.getUsuarioActual().roleEnum());
+        assertTrue(service.getUsuarioActual().auditor());
+        verify(userRepository, times(1)).findByUsername("testuser");
+    }
 }
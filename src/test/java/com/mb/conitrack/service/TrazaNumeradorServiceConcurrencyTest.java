@@ -0,0 +1,136 @@
+package com.mb.conitrack.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.enums.TipoProductoEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.repository.TrazaContadorRepository;
+import com.mb.conitrack.repository.TrazaRepository;
+import com.mb.conitrack.repository.maestro.ProductoRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test de concurrencia del numerador de trazas contra H2.
+ * Simula dos instancias de la aplicación (dos numeradores con bloques en memoria independientes) reservando
+ * rangos del mismo producto desde varios hilos, y verifica que ningún número se asigne dos veces.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:numerador;LOCK_TIMEOUT=10000",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.sql.init.mode=never",
+    "spring.jpa.defer-datasource-initialization=false",
+    "conitrack.trazado.bloque-reserva=50"
+})
+@DisplayName("Tests de Concurrencia - TrazaNumeradorService")
+class TrazaNumeradorServiceConcurrencyTest {
+
+    private static final int HILOS = 16;
+
+    private static final int PEDIDOS_POR_HILO = 200;
+
+    @Autowired
+    private TrazaNumeradorService numerador;
+
+    @Autowired
+    private TrazaContadorRepository trazaContadorRepository;
+
+    @Autowired
+    private TrazaRepository trazaRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Producto producto;
+
+    @AfterEach
+    void tearDown() {
+        if (producto != null) {
+            jdbcTemplate.update("delete from traza_contadores where producto_id = ?", producto.getId());
+            jdbcTemplate.update("delete from productos where id = ?", producto.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("test_reservar_concurrenteEntreInstancias_noDebe_repetirNumeros")
+    void test_reservar_concurrenteEntreInstancias_noDebe_repetirNumeros() throws Exception {
+        producto = crearProducto();
+        final TrazaNumeradorService otraInstancia =
+            new TrazaNumeradorService(trazaContadorRepository, trazaRepository, transactionManager);
+        otraInstancia.setBloqueReserva(50);
+        final TrazaNumeradorService[] instancias = { numerador, otraInstancia };
+
+        final ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        final List<Future<List<long[]>>> futuros = new ArrayList<>();
+        try {
+            for (int h = 0; h < HILOS; h++) {
+                final TrazaNumeradorService instancia = instancias[h % instancias.length];
+                final Callable<List<long[]>> tarea = () -> {
+                    final List<long[]> rangos = new ArrayList<>();
+                    for (int i = 0; i < PEDIDOS_POR_HILO; i++) {
+                        // Mezcla pedidos servidos desde el bloque en memoria con pedidos que superan el bloque
+                        final long cantidad = ThreadLocalRandom.current().nextInt(10) == 0
+                            ? 50 + ThreadLocalRandom.current().nextInt(200)
+                            : 1 + ThreadLocalRandom.current().nextInt(20);
+                        final long inicio = instancia.reservar(producto.getId(), cantidad);
+                        rangos.add(new long[] { inicio, inicio + cantidad - 1 });
+                    }
+                    return rangos;
+                };
+                futuros.add(executor.submit(tarea));
+            }
+            final List<long[]> todos = new ArrayList<>();
+            for (Future<List<long[]>> futuro : futuros) {
+                todos.addAll(futuro.get());
+            }
+
+            todos.sort(Comparator.comparingLong(r -> r[0]));
+            assertThat(todos).hasSize(HILOS * PEDIDOS_POR_HILO);
+            assertThat(todos.get(0)[0]).isPositive();
+            for (int i = 1; i < todos.size(); i++) {
+                assertThat(todos.get(i)[0])
+                    .as("rango %d-%d solapa con el anterior", todos.get(i)[0], todos.get(i)[1])
+                    .isGreaterThan(todos.get(i - 1)[1]);
+            }
+            assertThat(trazaContadorRepository.findById(producto.getId()).orElseThrow().getUltimoNro())
+                .isGreaterThanOrEqualTo(todos.get(todos.size() - 1)[1]);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Producto crearProducto() {
+        Producto p = new Producto();
+        p.setCodigoProducto("QC-NUMERADOR");
+        p.setNombreGenerico("Producto numerador");
+        p.setTipoProducto(TipoProductoEnum.UNIDAD_VENTA);
+        p.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        p.setActivo(true);
+        return productoRepository.save(p);
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.mb.conitrack.service;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.mb.conitrack.entity.TrazaContador;
+import com.mb.conitrack.repository.TrazaContadorRepository;
+import com.mb.conitrack.repository.TrazaRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitarios para TrazaNumeradorService.
+ * Cubre la entrega desde el bloque en memoria, la reserva directa de rangos grandes y el registro manual.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios - TrazaNumeradorService")
+class TrazaNumeradorServiceTest {
+
+    @Mock
+    private TrazaContadorRepository trazaContadorRepository;
+
+    @Mock
+    private TrazaRepository trazaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TrazaNumeradorService service;
+
+    private TrazaContador contador;
+
+    @BeforeEach
+    void setUp() {
+        service = new TrazaNumeradorService(trazaContadorRepository, trazaRepository, transactionManager);
+        service.setBloqueReserva(100);
+        contador = new TrazaContador(7L, 500L);
+    }
+
+    @Test
+    @DisplayName("test_reservar_debe_entregarPedidosChicosDesdeElBloque")
+    void test_reservar_debe_entregarPedidosChicosDesdeElBloque() {
+        when(trazaContadorRepository.existsById(7L)).thenReturn(true);
+        when(trazaContadorRepository.findForUpdate(7L)).thenReturn(Optional.of(contador));
+
+        assertThat(service.reservar(7L, 10)).isEqualTo(501L);
+        assertThat(service.reservar(7L, 20)).isEqualTo(511L);
+        assertThat(service.reservar(7L, 70)).isEqualTo(531L);
+
+        verify(trazaContadorRepository, times(1)).findForUpdate(7L);
+        assertThat(contador.getUltimoNro()).isEqualTo(600L);
+    }
+
+    @Test
+    @DisplayName("test_reservar_rangoGrande_debe_reservarseDirectoSinDescartarBloque")
+    void test_reservar_rangoGrande_debe_reservarseDirectoSinDescartarBloque() {
+        when(trazaContadorRepository.existsById(7L)).thenReturn(true);
+        when(trazaContadorRepository.findForUpdate(7L)).thenReturn(Optional.of(contador));
+
+        assertThat(service.reservar(7L, 10)).isEqualTo(501L);
+        assertThat(service.reservar(7L, 5_000)).isEqualTo(601L);
+        assertThat(service.reservar(7L, 10)).isEqualTo(511L);
+
+        assertThat(contador.getUltimoNro()).isEqualTo(5_600L);
+    }
+
+    @Test
+    @DisplayName("test_reservar_sinContador_debe_inicializarloDesdeElMaximoExistente")
+    void test_reservar_sinContador_debe_inicializarloDesdeElMaximoExistente() {
+        when(trazaContadorRepository.existsById(7L)).thenReturn(false);
+        when(trazaRepository.findMaxNroTraza(7L)).thenReturn(-1L);
+        TrazaContador nuevo = new TrazaContador(7L, 0L);
+        when(trazaContadorRepository.findForUpdate(7L)).thenReturn(Optional.of(nuevo));
+
+        assertThat(service.reservar(7L, 100)).isEqualTo(1L);
+
+        verify(trazaContadorRepository).insertar(7L, 0L);
+    }
+
+    @Test
+    @DisplayName("test_registrarManual_debe_avanzarContadorHastaElFinDelRango")
+    void test_registrarManual_debe_avanzarContadorHastaElFinDelRango() {
+        when(trazaContadorRepository.existsById(7L)).thenReturn(true);
+        when(trazaContadorRepository.findForUpdate(7L)).thenReturn(Optional.of(contador));
+
+        assertThat(service.registrarManual(7L, 1_000L, 50)).isEqualTo(1_000L);
+
+        assertThat(contador.getUltimoNro()).isEqualTo(1_049L);
+    }
+
+    @Test
+    @DisplayName("test_registrarManual_solapadoConAsignado_debe_rechazarse")
+    void test_registrarManual_solapadoConAsignado_debe_rechazarse() {
+        when(trazaContadorRepository.existsById(7L)).thenReturn(true);
+        when(trazaContadorRepository.findForUpdate(7L)).thenReturn(Optional.of(contador));
+
+        assertThatThrownBy(() -> service.registrarManual(7L, 450L, 10))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("500");
+        assertThat(contador.getUltimoNro()).isEqualTo(500L);
+        verify(trazaContadorRepository, never()).insertar(any(), any());
+    }
+
+}
@@ -0,0 +1,241 @@
+package com.mb.conitrack.service;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.mb.conitrack.dto.TrazaDTO;
+import com.mb.conitrack.entity.Bulto;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.Traza;
+import com.mb.conitrack.entity.TrazaRango;
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.enums.EstadoEnum;
+import com.mb.conitrack.repository.TrazaRangoRepository;
+import com.mb.conitrack.repository.TrazaRepositoryCustom.RangoTraza;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitarios para TrazaRangoService.
+ * Cubre la actualización incremental de rangos, la selección de trazas disponibles y la expansión a DTOs.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios - TrazaRangoService")
+class TrazaRangoServiceTest {
+
+    @Mock
+    private TrazaRangoRepository trazaRangoRepository;
+
+    @InjectMocks
+    private TrazaRangoService service;
+
+    private Lote lote;
+
+    private Bulto bulto;
+
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        service.setHabilitado(true);
+
+        producto = new Producto();
+        producto.setCodigoProducto("UV-001");
+        lote = new Lote();
+        lote.setCodigoLote("L-001");
+        bulto = new Bulto();
+        bulto.setId(21L);
+        bulto.setNroBulto(1);
+    }
+
+    @Test
+    @DisplayName("test_sincronizar_ventaEnMedioDeUnRango_debe_partirloSinTocarOtrosRangos")
+    void test_sincronizar_ventaEnMedioDeUnRango_debe_partirloSinTocarOtrosRangos() {
+        TrazaRango disponibles = rango(1L, 100L);
+        when(trazaRangoRepository.findSolapados(Set.of(21L), 11L, 20L)).thenReturn(List.of(disponibles));
+
+        service.sincronizar(trazas(11L, 20L, EstadoEnum.VENDIDO));
+
+        assertThat(disponibles.getNroDesde()).isEqualTo(1L);
+        assertThat(disponibles.getNroHasta()).isEqualTo(10L);
+        ArgumentCaptor<TrazaRango> guardados = ArgumentCaptor.forClass(TrazaRango.class);
+        verify(trazaRangoRepository, times(3)).save(guardados.capture());
+        assertThat(guardados.getAllValues())
+            .extracting(TrazaRango::getNroDesde, TrazaRango::getNroHasta, TrazaRango::getEstado)
+            .containsExactly(
+                tuple(1L, 10L, EstadoEnum.DISPONIBLE),
+                tuple(21L, 100L, EstadoEnum.DISPONIBLE),
+                tuple(11L, 20L, EstadoEnum.VENDIDO));
+        verify(trazaRangoRepository, never()).delete(any());
+    }
+
+    @Test
+    @DisplayName("test_sincronizar_reversoDeVenta_debe_unirConLosRangosVecinosDelMismoEstado")
+    void test_sincronizar_reversoDeVenta_debe_unirConLosRangosVecinosDelMismoEstado() {
+        TrazaRango vendidas = rango(11L, 20L);
+        vendidas.setEstado(EstadoEnum.VENDIDO);
+        TrazaRango anterior = rango(1L, 10L);
+        TrazaRango siguiente = rango(21L, 100L);
+        when(trazaRangoRepository.findSolapados(Set.of(21L), 11L, 20L)).thenReturn(List.of(vendidas));
+        when(trazaRangoRepository.findByBultoIdAndEstadoAndNroHasta(21L, EstadoEnum.DISPONIBLE, 10L))
+            .thenReturn(Optional.of(anterior));
+        when(trazaRangoRepository.findByBultoIdAndEstadoAndNroDesde(21L, EstadoEnum.DISPONIBLE, 21L))
+            .thenReturn(Optional.of(siguiente));
+
+        service.sincronizar(trazas(11L, 20L, EstadoEnum.DISPONIBLE));
+
+        verify(trazaRangoRepository).delete(vendidas);
+        verify(trazaRangoRepository).delete(siguiente);
+        verify(trazaRangoRepository).save(anterior);
+        assertThat(anterior.getNroDesde()).isEqualTo(1L);
+        assertThat(anterior.getNroHasta()).isEqualTo(100L);
+    }
+
+    @Test
+    @DisplayName("test_sincronizar_estadosAlternados_debe_agregarUnTramoPorEstado")
+    void test_sincronizar_estadosAlternados_debe_agregarUnTramoPorEstado() {
+        List<Traza> trazas = new ArrayList<>(trazas(1L, 4L, EstadoEnum.VENDIDO));
+        trazas.get(2).setEstado(EstadoEnum.DEVUELTO);
+
+        service.sincronizar(trazas);
+
+        verify(trazaRangoRepository).findSolapados(Set.of(21L), 1L, 4L);
+        ArgumentCaptor<TrazaRango> guardados = ArgumentCaptor.forClass(TrazaRango.class);
+        verify(trazaRangoRepository, times(3)).save(guardados.capture());
+        assertThat(guardados.getAllValues())
+            .extracting(TrazaRango::getNroDesde, TrazaRango::getNroHasta, TrazaRango::getEstado)
+            .containsExactly(
+                tuple(1L, 2L, EstadoEnum.VENDIDO),
+                tuple(3L, 3L, EstadoEnum.DEVUELTO),
+                tuple(4L, 4L, EstadoEnum.VENDIDO));
+    }
+
+    @Test
+    @DisplayName("test_sincronizar_trazaDadaDeBaja_debe_soloQuitarlaDeSuRango")
+    void test_sincronizar_trazaDadaDeBaja_debe_soloQuitarlaDeSuRango() {
+        TrazaRango disponibles = rango(5L, 9L);
+        when(trazaRangoRepository.findSolapados(Set.of(21L), 5L, 5L)).thenReturn(List.of(disponibles));
+        List<Traza> trazas = trazas(5L, 5L, EstadoEnum.DISPONIBLE);
+        trazas.get(0).setActivo(false);
+
+        service.sincronizar(trazas);
+
+        assertThat(disponibles.getNroDesde()).isEqualTo(6L);
+        verify(trazaRangoRepository).save(disponibles);
+        verify(trazaRangoRepository, never()).findByBultoIdAndEstadoAndNroHasta(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("test_sincronizar_conBultoAnterior_debe_quitarlasTambienDelBultoDeOrigen")
+    void test_sincronizar_conBultoAnterior_debe_quitarlasTambienDelBultoDeOrigen() {
+        Bulto anterior = new Bulto();
+        anterior.setId(30L);
+        TrazaRango vendidasOrigen = rango(1L, 2L);
+        vendidasOrigen.setEstado(EstadoEnum.VENDIDO);
+        when(trazaRangoRepository.findSolapados(Set.of(21L, 30L), 1L, 2L)).thenReturn(List.of(vendidasOrigen));
+
+        service.sincronizar(trazas(1L, 2L, EstadoEnum.DEVUELTO), anterior);
+
+        verify(trazaRangoRepository).delete(vendidasOrigen);
+        verify(trazaRangoRepository).save(argThat((TrazaRango r) -> r.getBulto() == bulto && r.getNroDesde() == 1L
+            && r.getNroHasta() == 2L && r.getEstado() == EstadoEnum.DEVUELTO));
+    }
+
+    @Test
+    @DisplayName("test_registrarTrazado_debe_guardarUnRangoDisponiblePorBulto")
+    void test_registrarTrazado_debe_guardarUnRangoDisponiblePorBulto() {
+        Bulto otro = new Bulto();
+        otro.setId(22L);
+        lote.setProducto(producto);
+        lote.getBultos().add(bulto);
+        lote.getBultos().add(otro);
+        OffsetDateTime fecha = OffsetDateTime.now();
+
+        service.registrarTrazado(lote, List.of(new RangoTraza(21L, 1L, 6), new RangoTraza(22L, 7L, 4)), fecha);
+
+        ArgumentCaptor<TrazaRango> guardados = ArgumentCaptor.forClass(TrazaRango.class);
+        verify(trazaRangoRepository, times(2)).save(guardados.capture());
+        assertThat(guardados.getAllValues())
+            .extracting(TrazaRango::getBulto, TrazaRango::getNroDesde, TrazaRango::getNroHasta,
+                TrazaRango::getFechaYHoraCreacion)
+            .containsExactly(tuple(bulto, 1L, 6L, fecha), tuple(otro, 7L, 10L, fecha));
+    }
+
+    @Test
+    @DisplayName("test_sincronizar_deshabilitado_noDebe_tocarRangos")
+    void test_sincronizar_deshabilitado_noDebe_tocarRangos() {
+        service.setHabilitado(false);
+
+        service.sincronizar(trazas(1L, 1L, EstadoEnum.VENDIDO));
+
+        verifyNoInteractions(trazaRangoRepository);
+    }
+
+    @Test
+    @DisplayName("test_primerosDisponibles_debe_recorrerRangosHastaCompletarCantidad")
+    void test_primerosDisponibles_debe_recorrerRangosHastaCompletarCantidad() {
+        when(trazaRangoRepository.findByBultoIdAndEstado(21L, EstadoEnum.DISPONIBLE))
+            .thenReturn(List.of(rango(100L, 102L), rango(110L, 119L), rango(130L, 139L)));
+
+        List<RangoTraza> resultado = service.primerosDisponibles(21L, 8);
+
+        assertThat(resultado).containsExactly(new RangoTraza(21L, 100L, 3), new RangoTraza(21L, 110L, 5));
+    }
+
+    @Test
+    @DisplayName("test_findDisponiblesByCodigoLoteAndNroBulto_debe_expandirRangosPorUnidad")
+    void test_findDisponiblesByCodigoLoteAndNroBulto_debe_expandirRangosPorUnidad() {
+        when(trazaRangoRepository.findDisponiblesByCodigoLoteAndNroBulto("L-001", 1))
+            .thenReturn(List.of(rango(5L, 6L), rango(9L, 9L)));
+
+        List<TrazaDTO> resultado = service.findDisponiblesByCodigoLoteAndNroBulto("L-001", 1);
+
+        assertThat(resultado).extracting(TrazaDTO::getNroTraza).containsExactly(5L, 6L, 9L);
+        assertThat(resultado).allSatisfy(dto -> {
+            assertThat(dto.getCodigoLote()).isEqualTo("L-001");
+            assertThat(dto.getNroBulto()).isEqualTo(1);
+            assertThat(dto.getCodigoProducto()).isEqualTo("UV-001");
+            assertThat(dto.getEstado()).isEqualTo(EstadoEnum.DISPONIBLE);
+        });
+    }
+
+    private List<Traza> trazas(final long desde, final long hasta, final EstadoEnum estado) {
+        List<Traza> trazas = new ArrayList<>();
+        for (long nro = desde; nro <= hasta; nro++) {
+            Traza traza = new Traza();
+            traza.setLote(lote);
+            traza.setBulto(bulto);
+            traza.setProducto(producto);
+            traza.setNroTraza(nro);
+            traza.setEstado(estado);
+            traza.setActivo(true);
+            trazas.add(traza);
+        }
+        return trazas;
+    }
+
+    private TrazaRango rango(final Long desde, final Long hasta) {
+        return new TrazaRango(null, lote, bulto, producto, desde, hasta, EstadoEnum.DISPONIBLE, OffsetDateTime.now());
+    }
+
+}
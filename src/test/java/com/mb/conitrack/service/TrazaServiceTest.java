@@ -32,6 +32,9 @@ class TrazaServiceTest {
     @Mock
     private TrazaRepository trazaRepository;
 
+    @Mock
+    private TrazaRangoService trazaRangoService;
+
     @InjectMocks
     private TrazaService service;
 
@@ -239,4 +242,21 @@ class TrazaServiceTest {
         assertThat(resultado).isEmpty();
         verify(trazaRepository).findDisponiblesByCodigoLoteAndNroBulto("L-INEXISTENTE", 999);
     }
+
+    @Test
+    @DisplayName("test_getTrazasByCodigoLoteAndNroBulto_conRangosHabilitados_debe_consultarRangos")
+    void test_getTrazasByCodigoLoteAndNroBulto_conRangosHabilitados_debe_consultarRangos() {
+        // Given
+        TrazaDTO dto = new TrazaDTO();
+        dto.setNroTraza(1L);
+        when(trazaRangoService.isHabilitado()).thenReturn(true);
+        when(trazaRangoService.findDisponiblesByCodigoLoteAndNroBulto("L-TEST-001", 1)).thenReturn(List.of(dto));
+
+        // When
+        List<TrazaDTO> resultado = service.getTrazasByCodigoLoteAndNroBulto("L-TEST-001", 1);
+
+        // Then
+        assertThat(resultado).containsExactly(dto);
+        verify(trazaRepository, never()).findDisponiblesByCodigoLoteAndNroBulto(anyString(), anyInt());
+    }
 }
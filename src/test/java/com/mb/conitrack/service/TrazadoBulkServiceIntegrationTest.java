@@ -0,0 +1,220 @@
+package com.mb.conitrack.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mb.conitrack.entity.Bulto;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.Traza;
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.entity.maestro.Proveedor;
+import com.mb.conitrack.enums.DictamenEnum;
+import com.mb.conitrack.enums.EstadoEnum;
+import com.mb.conitrack.enums.TipoProductoEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.repository.LoteRepository;
+import com.mb.conitrack.repository.TrazaRepository;
+import com.mb.conitrack.repository.maestro.ProductoRepository;
+import com.mb.conitrack.repository.maestro.ProveedorRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de integración del trazado masivo (CU28) contra H2.
+ * No es @Transactional: cada bloque se confirma en su propia transacción, por lo que los datos se limpian al final.
+ * La medición de 10k/100k/1M trazas está en TrazadoBulkBenchmark (src/jmh).
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:testdb",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.sql.init.mode=never",
+    "spring.jpa.defer-datasource-initialization=false",
+    "conitrack.trazado.chunk-size=1000",
+    "conitrack.trazado.rangos-habilitados=true"
+})
+@DisplayName("Tests de Integración - TrazadoBulkService")
+class TrazadoBulkServiceIntegrationTest {
+
+    @Autowired
+    private TrazadoBulkService trazadoBulkService;
+
+    @Autowired
+    private LoteRepository loteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ProveedorRepository proveedorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TrazaRepository trazaRepository;
+
+    @Autowired
+    private TrazaRangoService trazaRangoService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Lote> lotesCreados = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Lote lote : lotesCreados) {
+            jdbcTemplate.update("delete from traza_rangos where lote_id = ?", lote.getId());
+            jdbcTemplate.update("delete from trazas where lote_id = ?", lote.getId());
+            jdbcTemplate.update("delete from bultos where lote_id = ?", lote.getId());
+            jdbcTemplate.update("delete from lotes where id = ?", lote.getId());
+            jdbcTemplate.update("delete from productos where id = ?", lote.getProducto().getId());
+            jdbcTemplate.update("delete from proveedores where id = ?", lote.getProveedor().getId());
+        }
+        lotesCreados.clear();
+    }
+
+    @Test
+    @DisplayName("test_trazarLote_debe_insertarUnaTrazaPorUnidadEnCadaBulto")
+    void test_trazarLote_debe_insertarUnaTrazaPorUnidadEnCadaBulto() {
+        Lote lote = crearLote("BULK-01", 2_500, 1_500);
+
+        long insertadas = trazadoBulkService.trazarLote(lote, 1L, OffsetDateTime.now());
+
+        assertThat(insertadas).isEqualTo(4_000L);
+        assertThat(contarTrazas(lote)).isEqualTo(4_000L);
+        Long primerBulto = lote.getBultos().get(0).getId();
+        assertThat(jdbcTemplate.queryForObject(
+            "select min(nro_traza) from trazas where bulto_id = ?", Long.class, primerBulto)).isEqualTo(1L);
+        assertThat(jdbcTemplate.queryForObject(
+            "select max(nro_traza) from trazas where bulto_id = ?", Long.class, primerBulto)).isEqualTo(2_500L);
+        assertThat(jdbcTemplate.queryForObject(
+            "select observaciones from trazas where lote_id = ? and nro_traza = 2501", String.class, lote.getId()))
+            .isEqualTo("CU28 Traza: 2501\n - Producto: QC-BULK-01 / Producto BULK-01");
+        assertThat(rangos(lote)).containsExactly("1-2500 DISPONIBLE", "2501-4000 DISPONIBLE");
+    }
+
+    @Test
+    @DisplayName("test_sincronizar_debe_partirYUnirRangosEnCambiosDeEstado")
+    void test_sincronizar_debe_partirYUnirRangosEnCambiosDeEstado() {
+        Lote lote = crearLote("BULK-03", 100);
+        trazadoBulkService.trazarLote(lote, 1L, OffsetDateTime.now());
+
+        cambiarEstado(lote, 11, 20, EstadoEnum.VENDIDO);
+        assertThat(rangos(lote)).containsExactly("1-10 DISPONIBLE", "11-20 VENDIDO", "21-100 DISPONIBLE");
+
+        cambiarEstado(lote, 15, 15, EstadoEnum.DEVUELTO);
+        assertThat(rangos(lote)).containsExactly(
+            "1-10 DISPONIBLE", "11-14 VENDIDO", "15-15 DEVUELTO", "16-20 VENDIDO", "21-100 DISPONIBLE");
+
+        cambiarEstado(lote, 11, 20, EstadoEnum.DISPONIBLE);
+        assertThat(rangos(lote)).containsExactly("1-100 DISPONIBLE");
+    }
+
+    @Test
+    @DisplayName("test_trazarLote_conRollbackDelCu_debe_eliminarTrazasConfirmadas")
+    void test_trazarLote_conRollbackDelCu_debe_eliminarTrazasConfirmadas() {
+        Lote lote = crearLote("BULK-02", 3_000);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            trazadoBulkService.trazarLote(lote, 1L, OffsetDateTime.now());
+            status.setRollbackOnly();
+        });
+
+        assertThat(contarTrazas(lote)).isZero();
+        assertThat(rangos(lote)).isEmpty();
+    }
+
+    /** Cambia el estado de las trazas [desde, hasta] del lote como lo hacen los CU, en una transacción. */
+    private void cambiarEstado(final Lote lote, final long desde, final long hasta, final EstadoEnum estado) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Traza> trazas = trazaRepository.findByLoteCodigoLoteOrderByNroTrazaAsc(lote.getCodigoLote())
+                .stream()
+                .filter(traza -> traza.getNroTraza() >= desde && traza.getNroTraza() <= hasta)
+                .toList();
+            trazas.forEach(traza -> traza.setEstado(estado));
+            trazaRepository.saveAll(trazas);
+            trazaRangoService.sincronizar(trazas);
+        });
+    }
+
+    private long contarTrazas(final Lote lote) {
+        return jdbcTemplate.queryForObject("select count(*) from trazas where lote_id = ?", Long.class, lote.getId());
+    }
+
+    private List<String> rangos(final Lote lote) {
+        return jdbcTemplate.queryForList(
+            "select nro_desde || '-' || nro_hasta || ' ' || estado from traza_rangos where lote_id = ? order by nro_desde",
+            String.class, lote.getId());
+    }
+
+    private Lote crearLote(final String codigo, final int... cantidadesBultos) {
+        Producto producto = new Producto();
+        producto.setCodigoProducto("QC-" + codigo);
+        producto.setNombreGenerico("Producto " + codigo);
+        producto.setTipoProducto(TipoProductoEnum.UNIDAD_VENTA);
+        producto.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        producto.setActivo(true);
+        producto = productoRepository.save(producto);
+
+        Proveedor proveedor = new Proveedor();
+        proveedor.setRazonSocial("Proveedor " + codigo);
+        proveedor.setCuit("20-" + codigo);
+        proveedor.setDireccion("Calle 1");
+        proveedor.setCiudad("Buenos Aires");
+        proveedor.setPais("Argentina");
+        proveedor.setActivo(true);
+        proveedor = proveedorRepository.save(proveedor);
+
+        int total = 0;
+        for (int cantidad : cantidadesBultos) {
+            total += cantidad;
+        }
+
+        Lote lote = new Lote();
+        lote.setFechaYHoraCreacion(OffsetDateTime.now());
+        lote.setCodigoLote("L-" + codigo);
+        lote.setProducto(producto);
+        lote.setProveedor(proveedor);
+        lote.setFechaIngreso(LocalDate.now());
+        lote.setLoteProveedor("LP-" + codigo);
+        lote.setFechaReanalisisProveedor(LocalDate.now().plusYears(1));
+        lote.setFechaVencimientoProveedor(LocalDate.now().plusYears(2));
+        lote.setEstado(EstadoEnum.DISPONIBLE);
+        lote.setDictamen(DictamenEnum.APROBADO);
+        lote.setBultosTotales(cantidadesBultos.length);
+        lote.setCantidadInicial(BigDecimal.valueOf(total));
+        lote.setCantidadActual(BigDecimal.valueOf(total));
+        lote.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        lote.setTrazado(false);
+        lote.setActivo(true);
+        for (int i = 0; i < cantidadesBultos.length; i++) {
+            Bulto bulto = new Bulto();
+            bulto.setLote(lote);
+            bulto.setNroBulto(i + 1);
+            bulto.setCantidadInicial(BigDecimal.valueOf(cantidadesBultos[i]));
+            bulto.setCantidadActual(BigDecimal.valueOf(cantidadesBultos[i]));
+            bulto.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+            bulto.setEstado(EstadoEnum.DISPONIBLE);
+            bulto.setActivo(true);
+            lote.getBultos().add(bulto);
+        }
+        lote = loteRepository.save(lote);
+        lotesCreados.add(lote);
+        return lote;
+    }
+
+}
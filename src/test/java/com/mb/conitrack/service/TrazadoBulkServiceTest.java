@@ -0,0 +1,115 @@
+package com.mb.conitrack.service;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.mb.conitrack.entity.Bulto;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.repository.TrazaRepository;
+import com.mb.conitrack.repository.TrazaRepositoryCustom.RangoTraza;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitarios para TrazadoBulkService.
+ * Verifica la partición en bloques por bulto y la compensación ante fallas.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios - TrazadoBulkService")
+class TrazadoBulkServiceTest {
+
+    @Mock
+    private TrazaRepository trazaRepository;
+
+    @Mock
+    private TrazaRangoService trazaRangoService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TrazadoBulkService service;
+
+    private Lote lote;
+
+    private final OffsetDateTime ahora = OffsetDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        service = new TrazadoBulkService(trazaRepository, trazaRangoService, transactionManager);
+        service.setChunkSize(4);
+
+        Producto producto = new Producto();
+        producto.setId(7L);
+        producto.setCodigoProducto("UV-001");
+        producto.setNombreGenerico("Comprimidos");
+
+        lote = new Lote();
+        lote.setId(1L);
+        lote.setCodigoLote("L-UV-001");
+        lote.setProducto(producto);
+        lote.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        lote.setCantidadActual(BigDecimal.valueOf(10));
+        lote.getBultos().add(bulto(21L, 6));
+        lote.getBultos().add(bulto(22L, 4));
+    }
+
+    @Test
+    @DisplayName("test_trazarLote_debe_insertarEnBloquesPorBulto")
+    void test_trazarLote_debe_insertarEnBloquesPorBulto() {
+        when(trazaRepository.insertarRango(eq(1L), eq(7L), eq("UV-001 / Comprimidos"), eq(ahora), any()))
+            .thenAnswer(inv -> inv.<RangoTraza>getArgument(4).cantidad());
+
+        long insertadas = service.trazarLote(lote, 100L, ahora);
+
+        assertThat(insertadas).isEqualTo(10L);
+        var orden = inOrder(trazaRepository);
+        orden.verify(trazaRepository).insertarRango(1L, 7L, "UV-001 / Comprimidos", ahora, new RangoTraza(21L, 100L, 4));
+        orden.verify(trazaRepository).insertarRango(1L, 7L, "UV-001 / Comprimidos", ahora, new RangoTraza(21L, 104L, 2));
+        orden.verify(trazaRepository).insertarRango(1L, 7L, "UV-001 / Comprimidos", ahora, new RangoTraza(22L, 106L, 4));
+        verify(trazaRepository, never()).eliminarRango(any(), anyLong(), anyLong());
+        verify(trazaRangoService).registrarTrazado(lote, List.of(
+            new RangoTraza(21L, 100L, 6), new RangoTraza(22L, 106L, 4)), ahora);
+    }
+
+    @Test
+    @DisplayName("test_trazarLote_fallaEnBloque_debe_eliminarTrazasInsertadas")
+    void test_trazarLote_fallaEnBloque_debe_eliminarTrazasInsertadas() {
+        when(trazaRepository.insertarRango(any(), any(), any(), any(), any()))
+            .thenReturn(4L)
+            .thenThrow(new IllegalStateException("falla de base"));
+
+        assertThatThrownBy(() -> service.trazarLote(lote, 100L, ahora))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("falla de base");
+
+        verify(trazaRepository).eliminarRango(1L, 100L, 109L);
+        verify(trazaRangoService, never()).registrarTrazado(any(), any(), any());
+    }
+
+    private static Bulto bulto(Long id, int cantidad) {
+        Bulto bulto = new Bulto();
+        bulto.setId(id);
+        bulto.setCantidadActual(BigDecimal.valueOf(cantidad));
+        return bulto;
+    }
+
+}
@@ -6,7 +6,11 @@ import com.mb.conitrack.entity.Bulto;
 import com.mb.conitrack.entity.Lote;
 import com.mb.conitrack.entity.Movimiento;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.entity.Traza;
 import com.mb.conitrack.repository.AnalisisRepository;
+import com.mb.conitrack.repository.TrazaRepository;
+import com.mb.conitrack.repository.TrazaRepositoryCustom.RangoTraza;
+import com.mb.conitrack.service.TrazaRangoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -25,6 +29,8 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -38,6 +44,12 @@ class AbstractCuServiceTest {
     @Mock
     private AnalisisRepository analisisRepository;
 
+    @Mock
+    private TrazaRepository trazaRepository;
+
+    @Mock
+    private TrazaRangoService trazaRangoService;
+
     @InjectMocks
     private ConcreteCuService service;
 
@@ -93,6 +105,12 @@ class AbstractCuServiceTest {
             assertThat(countries).isSorted();
             assertThat(countries).contains("Argentina", "Brazil", "United States");
         }
+
+        @Test
+        @DisplayName("debe armar la lista una sola vez")
+        void debe_reutilizarLaMismaLista() {
+            assertThat(service.getCountryList()).isSameAs(service.getCountryList());
+        }
     }
 
     @Nested
@@ -412,6 +430,75 @@ class AbstractCuServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Persistencia de trazas")
+    class PersistenciaTrazas {
+
+        @Test
+        @DisplayName("guardarTrazas debe guardar y sincronizar rangos")
+        void guardarTrazas_debe_guardarYSincronizarRangos() {
+            // Given
+            List<Traza> trazas = List.of(new Traza());
+
+            // When
+            service.guardarTrazas(trazas);
+
+            // Then
+            verify(trazaRepository).saveAll(trazas);
+            verify(trazaRangoService).sincronizar(trazas);
+        }
+
+        @Test
+        @DisplayName("guardarTrazasMovidas debe sincronizar rangos también del bulto anterior")
+        void guardarTrazasMovidas_debe_sincronizarBultoAnterior() {
+            // Given
+            List<Traza> trazas = List.of(new Traza());
+            Bulto anterior = new Bulto();
+
+            // When
+            service.guardarTrazasMovidas(trazas, anterior);
+
+            // Then
+            verify(trazaRepository).saveAll(trazas);
+            verify(trazaRangoService).sincronizar(trazas, anterior);
+        }
+
+        @Test
+        @DisplayName("trazasDisponibles con rangos debe consultar solo los rangos disponibles")
+        void trazasDisponibles_conRangos_debe_consultarRangos() {
+            // Given
+            Traza t1 = new Traza();
+            Traza t2 = new Traza();
+            t1.setNroTraza(10L);
+            t2.setNroTraza(20L);
+            when(trazaRangoService.isHabilitado()).thenReturn(true);
+            when(trazaRangoService.primerosDisponibles(1L, 3))
+                .thenReturn(List.of(new RangoTraza(1L, 10L, 1), new RangoTraza(1L, 20L, 2)));
+            when(trazaRepository.findDisponiblesByBultoIdAndNroTrazaBetween(1L, 10L, 10L)).thenReturn(List.of(t1));
+            when(trazaRepository.findDisponiblesByBultoIdAndNroTrazaBetween(1L, 20L, 21L)).thenReturn(List.of(t2));
+
+            // When
+            List<Traza> resultado = service.trazasDisponibles(bulto, 3);
+
+            // Then
+            assertThat(resultado).containsExactly(t1, t2);
+        }
+
+        @Test
+        @DisplayName("trazasDisponibles sin rangos debe usar las trazas del bulto")
+        void trazasDisponibles_sinRangos_debe_usarBulto() {
+            // Given
+            when(trazaRangoService.isHabilitado()).thenReturn(false);
+
+            // When
+            List<Traza> resultado = service.trazasDisponibles(bulto, 3);
+
+            // Then
+            assertThat(resultado).isNull();
+            verify(trazaRangoService, never()).primerosDisponibles(1L, 3);
+        }
+    }
+
     /**
      * Implementación concreta de AbstractCuService para testing.
      */
@@ -19,6 +19,9 @@ import com.mb.conitrack.repository.BultoRepository;
 import com.mb.conitrack.repository.LoteRepository;
 import com.mb.conitrack.repository.MovimientoRepository;
 import com.mb.conitrack.repository.TrazaRepository;
+import com.mb.conitrack.service.DashboardMetricsCache;
+import com.mb.conitrack.service.SaldoRetornableService;
+import com.mb.conitrack.service.TrazaRangoService;
 import com.mb.conitrack.service.SecurityContextService;
 import com.mb.conitrack.utils.MovimientoAltaUtils;
 import org.junit.jupiter.api.DisplayName;
@@ -66,12 +69,21 @@ class AltaDevolucionVentaServiceTest {
     @Mock
     TrazaRepository trazaRepository;
 
+    @Mock
+    TrazaRangoService trazaRangoService;
+
+    @Mock
+    SaldoRetornableService saldoRetornableService;
+
     @Mock
     SecurityContextService securityContextService;
 
     @Mock
     BindingResult bindingResult;
 
+    @Mock
+    DashboardMetricsCache dashboardMetricsCache;
+
     @Nested
     @DisplayName("initBulto() - Static Method Tests")
     class InitBultoTests {
@@ -158,6 +170,7 @@ class AltaDevolucionVentaServiceTest {
                 verify(loteRepository, atLeast(2)).save(any(Lote.class));
                 verify(movimientoRepository).save(movimientoDevolucion);
                 verify(bultoRepository).save(any(Bulto.class));
+                verify(saldoRetornableService).descontar(movimientoDevolucion);
             }
         }
 
@@ -18,6 +18,10 @@ import com.mb.conitrack.repository.BultoRepository;
 import com.mb.conitrack.repository.LoteRepository;
 import com.mb.conitrack.repository.MovimientoRepository;
 import com.mb.conitrack.repository.TrazaRepository;
+import com.mb.conitrack.service.CodigoLoteGenerator;
+import com.mb.conitrack.service.DashboardMetricsCache;
+import com.mb.conitrack.service.TrazaNumeradorService;
+import com.mb.conitrack.service.TrazaRangoService;
 import com.mb.conitrack.repository.maestro.ProductoRepository;
 import com.mb.conitrack.repository.maestro.ProveedorRepository;
 import com.mb.conitrack.service.SecurityContextService;
@@ -67,6 +71,12 @@ class AltaIngresoProduccionServiceTest {
     @Mock
     private TrazaRepository trazaRepository;
 
+    @Mock
+    private TrazaRangoService trazaRangoService;
+
+    @Mock
+    private TrazaNumeradorService trazaNumeradorService;
+
     @Mock
     private ProductoRepository productoRepository;
 
@@ -76,6 +86,12 @@ class AltaIngresoProduccionServiceTest {
     @Mock
     private SecurityContextService securityContextService;
 
+    @Mock
+    private DashboardMetricsCache dashboardMetricsCache;
+
+    @Mock
+    private CodigoLoteGenerator codigoLoteGenerator;
+
     @InjectMocks
     private AltaIngresoProduccionService service;
 
@@ -190,8 +206,10 @@ class AltaIngresoProduccionServiceTest {
 
             loteEntityUtilsMock.when(() -> LoteEntityUtils.createLoteIngreso(any(LoteDTO.class)))
                     .thenReturn(lote);
+            when(codigoLoteGenerator.generar(any(), any())).thenReturn("LOTE-PROD-001");
             loteEntityUtilsMock.when(() -> LoteEntityUtils.populateLoteAltaProduccionPropia(
-                    any(Lote.class), any(LoteDTO.class), any(Producto.class), any(Proveedor.class)))
+                    any(Lote.class), any(LoteDTO.class), any(Producto.class), any(Proveedor.class),
+                    eq("LOTE-PROD-001")))
                     .thenAnswer(invocation -> null);
 
             when(loteRepository.save(any(Lote.class))).thenReturn(lote);
@@ -213,6 +231,7 @@ class AltaIngresoProduccionServiceTest {
             // Then
             assertNotNull(resultado);
             assertThat(resultado.getCodigoLote()).isEqualTo("LOTE-PROD-001");
+            verify(codigoLoteGenerator).generar(producto.getCodigoProducto(), loteDTO.getFechaYHoraCreacion());
             verify(loteRepository).save(any(Lote.class));
             verify(bultoRepository).saveAll(any());
             verify(movimientoRepository, times(2)).save(any(Movimiento.class));
@@ -403,7 +422,7 @@ class AltaIngresoProduccionServiceTest {
             loteDTO.setProductoId(1L);
             BindingResult bindingResult = new BeanPropertyBindingResult(loteDTO, "loteDTO");
 
-            when(trazaRepository.findMaxNroTraza(1L)).thenReturn(100L);
+            when(trazaNumeradorService.ultimoAsignado(1L)).thenReturn(100L);
 
             // When
             boolean resultado = service.validarTraza(loteDTO, bindingResult);
@@ -425,7 +444,7 @@ class AltaIngresoProduccionServiceTest {
             loteDTO.setProductoId(1L);
             BindingResult bindingResult = new BeanPropertyBindingResult(loteDTO, "loteDTO");
 
-            when(trazaRepository.findMaxNroTraza(1L)).thenReturn(100L);
+            when(trazaNumeradorService.ultimoAsignado(1L)).thenReturn(100L);
 
             // When
             boolean resultado = service.validarTraza(loteDTO, bindingResult);
@@ -444,7 +463,7 @@ class AltaIngresoProduccionServiceTest {
             loteDTO.setProductoId(1L);
             BindingResult bindingResult = new BeanPropertyBindingResult(loteDTO, "loteDTO");
 
-            when(trazaRepository.findMaxNroTraza(1L)).thenReturn(0L);
+            when(trazaNumeradorService.ultimoAsignado(1L)).thenReturn(0L);
 
             // When
             boolean resultado = service.validarTraza(loteDTO, bindingResult);
@@ -463,7 +482,7 @@ class AltaIngresoProduccionServiceTest {
             loteDTO.setProductoId(1L);
             BindingResult bindingResult = new BeanPropertyBindingResult(loteDTO, "loteDTO");
 
-            when(trazaRepository.findMaxNroTraza(1L)).thenReturn(-1L); // COALESCE retorna -1 cuando no hay trazas
+            when(trazaNumeradorService.ultimoAsignado(1L)).thenReturn(-1L); // sin contador ni trazas previas retorna -1
 
             // When
             boolean resultado = service.validarTraza(loteDTO, bindingResult);
@@ -16,6 +16,9 @@ import com.mb.conitrack.repository.BultoRepository;
 import com.mb.conitrack.repository.LoteRepository;
 import com.mb.conitrack.repository.MovimientoRepository;
 import com.mb.conitrack.repository.TrazaRepository;
+import com.mb.conitrack.service.DashboardMetricsCache;
+import com.mb.conitrack.service.SaldoRetornableService;
+import com.mb.conitrack.service.TrazaRangoService;
 import com.mb.conitrack.utils.MovimientoAltaUtils;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -58,6 +61,15 @@ class AltaRecallServiceTest {
     @Mock
     TrazaRepository trazaRepository;
 
+    @Mock
+    TrazaRangoService trazaRangoService;
+
+    @Mock
+    SaldoRetornableService saldoRetornableService;
+
+    @Mock
+    DashboardMetricsCache dashboardMetricsCache;
+
     @Nested
     @DisplayName("procesarAltaRecall() - Tests")
     class ProcesarAltaRecallTests {
@@ -146,6 +158,7 @@ class AltaRecallServiceTest {
                 verify(loteRepository, atLeast(2)).save(any(Lote.class));
                 verify(movimientoRepository).save(movimientoRecall);
                 verify(trazaRepository).saveAll(any());
+                verify(saldoRetornableService).descontar(movimientoRecall);
             }
         }
     }
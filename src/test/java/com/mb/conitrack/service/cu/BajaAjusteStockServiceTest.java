@@ -11,6 +11,8 @@ import com.mb.conitrack.entity.maestro.Role;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.*;
 import com.mb.conitrack.repository.*;
+import com.mb.conitrack.service.DashboardMetricsCache;
+import com.mb.conitrack.service.TrazaRangoService;
 import com.mb.conitrack.service.SecurityContextService;
 import com.mb.conitrack.utils.MovimientoBajaUtils;
 import com.mb.conitrack.utils.UnidadMedidaUtils;
@@ -67,9 +69,15 @@ class BajaAjusteStockServiceTest {
     @Mock
     private TrazaRepository trazaRepository;
 
+    @Mock
+    private TrazaRangoService trazaRangoService;
+
     @Mock
     private SecurityContextService securityContextService;
 
+    @Mock
+    private DashboardMetricsCache dashboardMetricsCache;
+
     @Spy
     @InjectMocks
     private BajaAjusteStockService service;
@@ -299,6 +307,7 @@ class BajaAjusteStockServiceTest {
             verify(loteRepository).findByCodigoLoteAndActivoTrue("L-TEST-001");
             verify(movimientoRepository).save(any(Movimiento.class));
             verify(loteRepository).save(loteTest);
+            verify(dashboardMetricsCache).registrarMovimiento(any(Movimiento.class), any(), any());
         }
 
         @Test
@@ -18,6 +18,7 @@ import com.mb.conitrack.repository.AnalisisRepository;
 import com.mb.conitrack.repository.BultoRepository;
 import com.mb.conitrack.repository.LoteRepository;
 import com.mb.conitrack.repository.MovimientoRepository;
+import com.mb.conitrack.service.DashboardMetricsCache;
 import com.mb.conitrack.service.SecurityContextService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -77,6 +78,9 @@ class BajaConsumoProduccionServiceTest {
     @Mock
     private SecurityContextService securityContextService;
 
+    @Mock
+    private DashboardMetricsCache dashboardMetricsCache;
+
     @Spy
     @InjectMocks
     private BajaConsumoProduccionService service;
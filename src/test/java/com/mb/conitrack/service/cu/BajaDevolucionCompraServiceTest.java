@@ -19,6 +19,7 @@ import com.mb.conitrack.repository.AnalisisRepository;
 import com.mb.conitrack.repository.BultoRepository;
 import com.mb.conitrack.repository.LoteRepository;
 import com.mb.conitrack.repository.MovimientoRepository;
+import com.mb.conitrack.service.DashboardMetricsCache;
 import com.mb.conitrack.service.SecurityContextService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -74,6 +75,9 @@ class BajaDevolucionCompraServiceTest {
     @Mock
     private SecurityContextService securityContextService;
 
+    @Mock
+    private DashboardMetricsCache dashboardMetricsCache;
+
     @InjectMocks
     private BajaDevolucionCompraService service;
 
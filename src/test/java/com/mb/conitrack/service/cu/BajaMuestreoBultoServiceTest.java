@@ -13,6 +13,8 @@ import com.mb.conitrack.entity.maestro.Role;
 import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.*;
 import com.mb.conitrack.repository.*;
+import com.mb.conitrack.service.DashboardMetricsCache;
+import com.mb.conitrack.service.TrazaRangoService;
 import com.mb.conitrack.service.SecurityContextService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -67,9 +69,15 @@ class BajaMuestreoBultoServiceTest {
     @Mock
     private TrazaRepository trazaRepository;
 
+    @Mock
+    private TrazaRangoService trazaRangoService;
+
     @Mock
     private SecurityContextService securityContextService;
 
+    @Mock
+    private DashboardMetricsCache dashboardMetricsCache;
+
     // Real instances of specialized services (not mocks)
     private MuestreoTrazableService muestreoTrazableService;
     private MuestreoMultiBultoService muestreoMultiBultoService;
@@ -137,12 +145,14 @@ class BajaMuestreoBultoServiceTest {
         ReflectionTestUtils.setField(realTrazableService, "movimientoRepository", movimientoRepository);
         ReflectionTestUtils.setField(realTrazableService, "analisisRepository", analisisRepository);
         ReflectionTestUtils.setField(realTrazableService, "trazaRepository", trazaRepository);
+        ReflectionTestUtils.setField(realTrazableService, "dashboardMetricsCache", dashboardMetricsCache);
 
         ReflectionTestUtils.setField(realMultiBultoService, "loteRepository", loteRepository);
         ReflectionTestUtils.setField(realMultiBultoService, "bultoRepository", bultoRepository);
         ReflectionTestUtils.setField(realMultiBultoService, "movimientoRepository", movimientoRepository);
         ReflectionTestUtils.setField(realMultiBultoService, "analisisRepository", analisisRepository);
         ReflectionTestUtils.setField(realMultiBultoService, "trazaRepository", trazaRepository);
+        ReflectionTestUtils.setField(realMultiBultoService, "dashboardMetricsCache", dashboardMetricsCache);
 
         // Wrap in spies to allow selective mocking of methods
         muestreoTrazableService = spy(realTrazableService);
@@ -2,7 +2,10 @@ package com.mb.conitrack.service.cu;
 
 import com.mb.conitrack.dto.BultoDTO;
 import com.mb.conitrack.dto.DTOUtils;
+import com.mb.conitrack.dto.LineaVentaDTO;
 import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.PedidoVentaDTO;
+import com.mb.conitrack.dto.ResultadoPedidoVentaDTO;
 import com.mb.conitrack.dto.TrazaDTO;
 import com.mb.conitrack.entity.Analisis;
 import com.mb.conitrack.entity.Bulto;
@@ -18,11 +21,14 @@ import com.mb.conitrack.enums.EstadoEnum;
 import com.mb.conitrack.enums.RoleEnum;
 import com.mb.conitrack.enums.TipoProductoEnum;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.exception.StockInsuficienteException;
 import com.mb.conitrack.repository.AnalisisRepository;
 import com.mb.conitrack.repository.BultoRepository;
 import com.mb.conitrack.repository.LoteRepository;
 import com.mb.conitrack.repository.MovimientoRepository;
 import com.mb.conitrack.repository.TrazaRepository;
+import com.mb.conitrack.service.TrazaRangoService;
+import com.mb.conitrack.service.DashboardMetricsCache;
 import com.mb.conitrack.service.SecurityContextService;
 import com.mb.conitrack.utils.MovimientoBajaUtils;
 import org.junit.jupiter.api.AfterEach;
@@ -31,6 +37,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
@@ -84,12 +91,18 @@ class BajaVentaProductoServiceTest {
     @Mock
     private TrazaRepository trazaRepository;
 
+    @Mock
+    private TrazaRangoService trazaRangoService;
+
     @Mock
     private AnalisisRepository analisisRepository;
 
     @Mock
     private SecurityContextService securityContextService;
 
+    @Mock
+    private DashboardMetricsCache dashboardMetricsCache;
+
     @Spy
     @InjectMocks
     private BajaVentaProductoService service;
@@ -643,6 +656,195 @@ class BajaVentaProductoServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("bajaVentaPedido() - Pedido de varios lotes")
+    class BajaVentaPedido {
+
+        private PedidoVentaDTO pedido(LineaVentaDTO... lineas) {
+            PedidoVentaDTO pedido = new PedidoVentaDTO();
+            pedido.setFechaEgreso(LocalDate.now());
+            pedido.setFechaYHoraCreacion(OffsetDateTime.now());
+            pedido.setLineas(new ArrayList<>(Arrays.asList(lineas)));
+            return pedido;
+        }
+
+        private LineaVentaDTO linea(String codigoLote, int nroBulto, String cantidad, Long... nroTrazas) {
+            return new LineaVentaDTO(codigoLote, nroBulto, new BigDecimal(cantidad),
+                new ArrayList<>(Arrays.asList(nroTrazas)));
+        }
+
+        private void mockLotes() {
+            mockLotesVendibles("L-TEST-001", "L-TRAZADO-001");
+        }
+
+        /** Ambos lotes en el repositorio; solo los códigos indicados cumplen la condición de venta. */
+        private void mockLotesVendibles(String... vendibles) {
+            productoTest.setTipoProducto(TipoProductoEnum.UNIDAD_VENTA);
+            loteTest.setDictamen(DictamenEnum.LIBERADO);
+            loteTrazadoTest.setDictamen(DictamenEnum.LIBERADO);
+            when(loteRepository.findAllConBultosByCodigoLoteIn(any())).thenReturn(List.of(loteTest, loteTrazadoTest));
+            when(loteRepository.findCodigosVendiblesByCodigoLoteIn(any())).thenReturn(Set.of(vendibles));
+        }
+
+        @Test
+        @DisplayName("test_pedidoValido_debe_registrarUnMovimientoPorLoteSinGuardarBultosUnoAUno")
+        void test_pedidoValido_debe_registrarUnMovimientoPorLoteSinGuardarBultosUnoAUno() {
+            // Given - dos líneas del mismo bulto y una de un lote trazado con trazas automáticas
+            PedidoVentaDTO pedido = pedido(
+                linea("L-TEST-001", 1, "10"),
+                linea("L-TEST-001", 1, "5"),
+                linea("L-TRAZADO-001", 2, "3"));
+            mockLotes();
+            movimientoBajaUtilsMock.when(() -> MovimientoBajaUtils.createMovimientoBajaVenta(any(), any(), any()))
+                .thenAnswer(inv -> {
+                    Movimiento movimiento = new Movimiento();
+                    movimiento.setCodigoMovimiento(((Lote) inv.getArgument(1)).getCodigoLote() + "-MOV");
+                    movimiento.setDetalles(new HashSet<>());
+                    return movimiento;
+                });
+            when(movimientoRepository.save(any(Movimiento.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            // When
+            ResultadoPedidoVentaDTO resultado = service.bajaVentaPedido(pedido);
+
+            // Then
+            assertThat(resultado.isAplicado()).isTrue();
+            assertThat(loteTest.getCantidadActual()).isEqualByComparingTo("85");
+            assertThat(loteTest.getBultoByNro(1).getCantidadActual()).isEqualByComparingTo("35");
+            assertThat(loteTrazadoTest.getBultoByNro(2).getCantidadActual()).isEqualByComparingTo("47");
+            assertThat(loteTrazadoTest.getBultoByNro(2).getTrazas())
+                .filteredOn(t -> t.getEstado() == EstadoEnum.VENDIDO)
+                .hasSize(3);
+
+            assertThat(resultado.getLineas()).extracting("codigoMovimiento")
+                .containsExactly("L-TEST-001-MOV", "L-TEST-001-MOV", "L-TRAZADO-001-MOV");
+            assertThat(resultado.getLineas().get(2).getNroTrazas()).containsExactly(51L, 52L, 53L);
+
+            // Un único detalle por bulto aunque el pedido tenga varias líneas del mismo bulto
+            ArgumentCaptor<Movimiento> captor = ArgumentCaptor.forClass(Movimiento.class);
+            verify(movimientoRepository, times(2)).save(captor.capture());
+            assertThat(captor.getAllValues().get(0).getDetalles()).hasSize(1);
+            assertThat(captor.getAllValues().get(0).getCantidad()).isEqualByComparingTo("15");
+            verify(bultoRepository, never()).save(any());
+            verify(loteRepository, never()).save(any());
+            verify(trazaRepository).saveAll(any());
+        }
+
+        @Test
+        @DisplayName("test_lineasRechazadas_noDebe_aplicarNingunaLinea")
+        void test_lineasRechazadas_noDebe_aplicarNingunaLinea() {
+            // Given - 40 + 20 supera el stock del bulto 1 (50) y el tercer lote no existe
+            PedidoVentaDTO pedido = pedido(
+                linea("L-TEST-001", 1, "40"),
+                linea("L-TEST-001", 1, "20"),
+                linea("L-INEXISTENTE", 1, "1"));
+            mockLotes();
+
+            // When
+            ResultadoPedidoVentaDTO resultado = service.bajaVentaPedido(pedido);
+
+            // Then
+            assertThat(resultado.isAplicado()).isFalse();
+            assertThat(resultado.getLineas().get(0).getError()).isNull();
+            assertThat(resultado.getLineas().get(1).getError()).contains("no puede superar su stock actual");
+            assertThat(resultado.getLineas().get(2).getError()).isEqualTo("Lote no encontrado.");
+            assertThat(loteTest.getCantidadActual()).isEqualByComparingTo("100");
+            verify(movimientoRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("test_trazaIndicadaNoDisponible_debe_rechazarLaLinea")
+        void test_trazaIndicadaNoDisponible_debe_rechazarLaLinea() {
+            // Given - la traza 2 ya fue vendida
+            PedidoVentaDTO pedido = pedido(linea("L-TRAZADO-001", 1, "2", 1L, 2L));
+            mockLotes();
+            Traza disponible = loteTrazadoTest.getBultoByNro(1).getTrazaByNro(1L);
+            when(trazaRepository.findDisponiblesByBultoIdAndNroTrazaIn(eq(3L), any())).thenReturn(List.of(disponible));
+
+            // When
+            ResultadoPedidoVentaDTO resultado = service.bajaVentaPedido(pedido);
+
+            // Then
+            assertThat(resultado.isAplicado()).isFalse();
+            assertThat(resultado.getLineas().get(0).getError()).isEqualTo("Trazas no disponibles en el bulto 1: [2]");
+            assertThat(disponible.getEstado()).isEqualTo(EstadoEnum.DISPONIBLE);
+            verify(movimientoRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("test_loteNoLiberado_debe_rechazarLaLinea")
+        void test_loteNoLiberado_debe_rechazarLaLinea() {
+            // Given - el segundo lote sigue en cuarentena
+            PedidoVentaDTO pedido = pedido(linea("L-TEST-001", 1, "5"), linea("L-TRAZADO-001", 1, "5"));
+            mockLotesVendibles("L-TEST-001");
+            loteTrazadoTest.setDictamen(DictamenEnum.CUARENTENA);
+
+            // When
+            ResultadoPedidoVentaDTO resultado = service.bajaVentaPedido(pedido);
+
+            // Then
+            assertThat(resultado.isAplicado()).isFalse();
+            assertThat(resultado.getLineas().get(0).getError()).isNull();
+            assertThat(resultado.getLineas().get(1).getError())
+                .isEqualTo("El lote no está liberado para la venta (dictamen CUARENTENA)");
+            assertThat(loteTest.getCantidadActual()).isEqualByComparingTo("100");
+            verify(movimientoRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("test_loteEnRecall_debe_rechazarLaLinea")
+        void test_loteEnRecall_debe_rechazarLaLinea() {
+            // Given
+            PedidoVentaDTO pedido = pedido(linea("L-TEST-001", 1, "5"));
+            mockLotesVendibles("L-TRAZADO-001");
+            loteTest.setEstado(EstadoEnum.RECALL);
+
+            // When
+            ResultadoPedidoVentaDTO resultado = service.bajaVentaPedido(pedido);
+
+            // Then
+            assertThat(resultado.isAplicado()).isFalse();
+            assertThat(resultado.getLineas().get(0).getError()).isEqualTo("El lote está en recall");
+            verify(movimientoRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("test_productoNoUnidadVenta_debe_rechazarLaLinea")
+        void test_productoNoUnidadVenta_debe_rechazarLaLinea() {
+            // Given
+            PedidoVentaDTO pedido = pedido(linea("L-TEST-001", 1, "5"));
+            mockLotesVendibles();
+            productoTest.setTipoProducto(TipoProductoEnum.API);
+
+            // When
+            ResultadoPedidoVentaDTO resultado = service.bajaVentaPedido(pedido);
+
+            // Then
+            assertThat(resultado.isAplicado()).isFalse();
+            assertThat(resultado.getLineas().get(0).getError()).isEqualTo("El producto del lote no es una unidad de venta");
+            verify(movimientoRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("test_pedidoRechazado_debe_informarStockInsuficienteEnLasLineasDelBulto")
+        void test_pedidoRechazado_debe_informarStockInsuficienteEnLasLineasDelBulto() {
+            // Given
+            PedidoVentaDTO pedido = pedido(
+                linea("L-TEST-001", 1, "10"),
+                linea("L-TEST-001", 2, "5"),
+                linea("L-TEST-001", 1, "3"));
+            StockInsuficienteException e = new StockInsuficienteException("L-TEST-001", 1, "Stock insuficiente");
+
+            // When
+            ResultadoPedidoVentaDTO resultado = service.pedidoRechazado(pedido, e);
+
+            // Then
+            assertThat(resultado.isAplicado()).isFalse();
+            assertThat(resultado.getLineas()).extracting("error")
+                .containsExactly("Stock insuficiente", null, "Stock insuficiente");
+        }
+    }
+
     @Nested
     @DisplayName("persistirMovimientoBajaVenta() - Creación de movimiento")
     class PersistirMovimientoBajaVenta {
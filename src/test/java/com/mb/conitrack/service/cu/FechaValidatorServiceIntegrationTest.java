@@ -0,0 +1,342 @@
+package com.mb.conitrack.service.cu;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mb.conitrack.entity.Analisis;
+import com.mb.conitrack.entity.Bulto;
+import com.mb.conitrack.entity.EjecucionValidacionFecha;
+import com.mb.conitrack.entity.EjecucionValidacionFecha.Estado;
+import com.mb.conitrack.entity.EjecucionValidacionFecha.Fase;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.Movimiento;
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.entity.maestro.Proveedor;
+import com.mb.conitrack.enums.DictamenEnum;
+import com.mb.conitrack.enums.EstadoEnum;
+import com.mb.conitrack.enums.MotivoEnum;
+import com.mb.conitrack.enums.TipoMovimientoEnum;
+import com.mb.conitrack.enums.TipoProductoEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.repository.EjecucionValidacionFechaRepository;
+import com.mb.conitrack.repository.LoteRepository;
+import com.mb.conitrack.repository.MovimientoRepository;
+import com.mb.conitrack.repository.maestro.ProductoRepository;
+import com.mb.conitrack.repository.maestro.ProveedorRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de integración de la validación nocturna de fechas (CU9/CU10) contra H2: selección de candidatos por las
+ * fechas efectivas, cursor por id entre chunks, reanudación, re-ejecución del día y movimientos insertados por JDBC.
+ * No es @Transactional: cada chunk se confirma en su propia transacción, por lo que los datos se limpian al final.
+ * Las fechas del proveedor son obligatorias en lotes, por lo que un lote sin fecha no llega a la base.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:fechasdb",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.sql.init.mode=never",
+    "spring.jpa.defer-datasource-initialization=false",
+    "conitrack.vencimiento.chunk-size=2"
+})
+@DisplayName("Tests de Integración - FechaValidatorService")
+class FechaValidatorServiceIntegrationTest {
+
+    private static final LocalDate HOY = LocalDate.now();
+
+    private static final LocalDate LEJANA = HOY.plusYears(2);
+
+    @Autowired
+    private FechaValidatorService fechaValidatorService;
+
+    @Autowired
+    private LoteRepository loteRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private EjecucionValidacionFechaRepository ejecucionRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ProveedorRepository proveedorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Producto producto;
+
+    private Proveedor proveedor;
+
+    private int secuencia;
+
+    @BeforeEach
+    void setUp() {
+        producto = new Producto();
+        producto.setCodigoProducto("QC-FECHAS");
+        producto.setNombreGenerico("Producto fechas");
+        producto.setTipoProducto(TipoProductoEnum.UNIDAD_VENTA);
+        producto.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        producto.setActivo(true);
+        producto = productoRepository.save(producto);
+
+        proveedor = new Proveedor();
+        proveedor.setRazonSocial("Proveedor fechas");
+        proveedor.setCuit("20-FECHAS");
+        proveedor.setDireccion("Calle 1");
+        proveedor.setCiudad("Buenos Aires");
+        proveedor.setPais("Argentina");
+        proveedor.setActivo(true);
+        proveedor = proveedorRepository.save(proveedor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from movimientos");
+        jdbcTemplate.update("delete from analisis");
+        jdbcTemplate.update("delete from bultos");
+        jdbcTemplate.update("delete from lotes");
+        jdbcTemplate.update("delete from productos");
+        jdbcTemplate.update("delete from proveedores");
+        jdbcTemplate.update("delete from ejecuciones_validacion_fecha");
+    }
+
+    @Test
+    @DisplayName("test_validarFecha_cu9_debe_expirarSoloLotesConReanalisisHastaHoy")
+    void test_validarFecha_cu9_debe_expirarSoloLotesConReanalisisHastaHoy() {
+        Lote pasada = crearLote(HOY.minusDays(1), LEJANA, DictamenEnum.APROBADO, 10);
+        Lote hoy = crearLote(HOY, LEJANA, DictamenEnum.APROBADO, 10);
+        Lote futura = crearLote(HOY.plusDays(1), LEJANA, DictamenEnum.APROBADO, 10);
+        Lote sinStock = crearLote(HOY.minusDays(1), LEJANA, DictamenEnum.APROBADO, 0);
+        Lote yaExpirado = crearLote(HOY.minusDays(1), LEJANA, DictamenEnum.ANALISIS_EXPIRADO, 10);
+        // El análisis dictaminado (más cercano a hoy) reemplaza a la fecha vencida del proveedor
+        Lote reanalizado = crearLote(HOY.minusDays(30), LEJANA, DictamenEnum.APROBADO, 10,
+            analisis(HOY.plusDays(10), null, DictamenEnum.APROBADO));
+
+        fechaValidatorService.validarFecha();
+
+        assertThat(dictamen(pasada)).isEqualTo(DictamenEnum.ANALISIS_EXPIRADO);
+        assertThat(dictamen(hoy)).isEqualTo(DictamenEnum.ANALISIS_EXPIRADO);
+        assertThat(dictamen(futura)).isEqualTo(DictamenEnum.APROBADO);
+        assertThat(dictamen(sinStock)).isEqualTo(DictamenEnum.APROBADO);
+        assertThat(dictamen(reanalizado)).isEqualTo(DictamenEnum.APROBADO);
+        assertThat(movimientos(pasada)).hasSize(1);
+        assertThat(movimientos(hoy)).hasSize(1);
+        assertThat(movimientos(futura)).isEmpty();
+        assertThat(movimientos(sinStock)).isEmpty();
+        assertThat(movimientos(yaExpirado)).isEmpty();
+        assertThat(movimientos(reanalizado)).isEmpty();
+        assertThat(ultimaEjecucion().getLotesAnalisisExpirado()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("test_validarFecha_cu10_debe_vencerSoloLotesConVencimientoHastaHoy")
+    void test_validarFecha_cu10_debe_vencerSoloLotesConVencimientoHastaHoy() {
+        Lote pasada = crearLote(LEJANA, HOY.minusDays(1), DictamenEnum.APROBADO, 10);
+        Lote hoy = crearLote(LEJANA, HOY, DictamenEnum.APROBADO, 10);
+        Lote futura = crearLote(LEJANA, HOY.plusDays(1), DictamenEnum.APROBADO, 10);
+        Lote sinStock = crearLote(LEJANA, HOY.minusDays(1), DictamenEnum.APROBADO, 0);
+        Lote yaVencido = crearLote(LEJANA, HOY.minusDays(1), DictamenEnum.VENCIDO, 10);
+        Lote analisisExpirado = crearLote(LEJANA, HOY.minusDays(1), DictamenEnum.ANALISIS_EXPIRADO, 10);
+
+        fechaValidatorService.validarFecha();
+
+        assertThat(dictamen(pasada)).isEqualTo(DictamenEnum.VENCIDO);
+        assertThat(dictamen(hoy)).isEqualTo(DictamenEnum.VENCIDO);
+        assertThat(dictamen(analisisExpirado)).isEqualTo(DictamenEnum.VENCIDO);
+        assertThat(dictamen(futura)).isEqualTo(DictamenEnum.APROBADO);
+        assertThat(dictamen(sinStock)).isEqualTo(DictamenEnum.APROBADO);
+        assertThat(movimientos(yaVencido)).isEmpty();
+        assertThat(movimientos(futura)).isEmpty();
+        assertThat(movimientos(sinStock)).isEmpty();
+        assertThat(movimientos(analisisExpirado)).singleElement()
+            .satisfies(m -> assertThat(m.getDictamenInicial()).isEqualTo(DictamenEnum.ANALISIS_EXPIRADO));
+        assertThat(ultimaEjecucion().getLotesVencidos()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("test_validarFecha_debe_insertarMovimientosQueSeLeenComoEntidades")
+    void test_validarFecha_debe_insertarMovimientosQueSeLeenComoEntidades() {
+        Lote expirado = crearLote(HOY.minusDays(1), LEJANA, DictamenEnum.APROBADO, 10);
+        Lote vencido = crearLote(LEJANA, HOY.minusDays(1), DictamenEnum.CUARENTENA, 10,
+            analisis(null, null, null));
+
+        fechaValidatorService.validarFecha();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Movimiento cu9 = movimientos(expirado).get(0);
+            assertThat(cu9.getId()).isNotNull();
+            assertThat(cu9.getCodigoMovimiento()).isNotBlank();
+            assertThat(cu9.getTipoMovimiento()).isEqualTo(TipoMovimientoEnum.MODIFICACION);
+            assertThat(cu9.getMotivo()).isEqualTo(MotivoEnum.EXPIRACION_ANALISIS);
+            assertThat(cu9.getDictamenInicial()).isEqualTo(DictamenEnum.APROBADO);
+            assertThat(cu9.getDictamenFinal()).isEqualTo(DictamenEnum.ANALISIS_EXPIRADO);
+            assertThat(cu9.getFecha()).isEqualTo(HOY);
+            assertThat(cu9.getFechaYHoraCreacion()).isNotNull();
+            assertThat(cu9.getObservaciones()).startsWith("_CU9_\n");
+            assertThat(cu9.getCreadoPor().getUsername()).isEqualTo("system_auto");
+            assertThat(cu9.getActivo()).isTrue();
+            assertThat(cu9.getLote().getId()).isEqualTo(expirado.getId());
+
+            Movimiento cu10 = movimientos(vencido).get(0);
+            assertThat(cu10.getMotivo()).isEqualTo(MotivoEnum.VENCIMIENTO);
+            assertThat(cu10.getDictamenInicial()).isEqualTo(DictamenEnum.CUARENTENA);
+            assertThat(cu10.getDictamenFinal()).isEqualTo(DictamenEnum.VENCIDO);
+            assertThat(cu10.getObservaciones()).startsWith("_CU10_\n");
+            assertThat(loteRepository.findById(vencido.getId()).orElseThrow().getUltimoAnalisis().getDictamen())
+                .isEqualTo(DictamenEnum.CANCELADO);
+        });
+    }
+
+    @Test
+    @DisplayName("test_validarFecha_repetidaElMismoDia_noDebe_duplicarMovimientos")
+    void test_validarFecha_repetidaElMismoDia_noDebe_duplicarMovimientos() {
+        Lote expirado = crearLote(HOY.minusDays(1), LEJANA, DictamenEnum.APROBADO, 10);
+        Lote vencido = crearLote(LEJANA, HOY.minusDays(1), DictamenEnum.APROBADO, 10);
+        fechaValidatorService.validarFecha();
+
+        fechaValidatorService.validarFecha();
+
+        assertThat(movimientos(expirado)).hasSize(1);
+        assertThat(movimientos(vencido)).hasSize(1);
+        EjecucionValidacionFecha segunda = ultimaEjecucion();
+        assertThat(segunda.getEstado()).isEqualTo(Estado.COMPLETADA);
+        assertThat(segunda.getLotesEvaluados()).isZero();
+        assertThat(segunda.getLotesAnalisisExpirado()).isZero();
+        assertThat(segunda.getLotesVencidos()).isZero();
+        assertThat(ejecucionRepository.count()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("test_validarFecha_debe_recorrerLosCandidatosEnChunksPorId")
+    void test_validarFecha_debe_recorrerLosCandidatosEnChunksPorId() {
+        List<Lote> lotes = List.of(
+            crearLote(HOY.minusDays(1), LEJANA, DictamenEnum.APROBADO, 10),
+            crearLote(HOY.minusDays(2), LEJANA, DictamenEnum.APROBADO, 10),
+            crearLote(HOY.minusDays(3), LEJANA, DictamenEnum.APROBADO, 10),
+            crearLote(HOY.minusDays(4), LEJANA, DictamenEnum.APROBADO, 10),
+            crearLote(HOY.minusDays(5), LEJANA, DictamenEnum.APROBADO, 10));
+
+        fechaValidatorService.validarFecha();
+
+        assertThat(lotes).allSatisfy(lote ->
+            assertThat(dictamen(lote)).isEqualTo(DictamenEnum.ANALISIS_EXPIRADO));
+        EjecucionValidacionFecha ejecucion = ultimaEjecucion();
+        assertThat(ejecucion.getChunks()).isEqualTo(3);
+        assertThat(ejecucion.getLotesEvaluados()).isEqualTo(5L);
+        assertThat(ejecucion.getLotesAnalisisExpirado()).isEqualTo(5L);
+        assertThat(ejecucion.getFase()).isEqualTo(Fase.VENCIMIENTO);
+    }
+
+    @Test
+    @DisplayName("test_validarFecha_ejecucionFallida_debe_continuarDesdeElCursor")
+    void test_validarFecha_ejecucionFallida_debe_continuarDesdeElCursor() {
+        Lote primero = crearLote(HOY.minusDays(1), LEJANA, DictamenEnum.APROBADO, 10);
+        Lote segundo = crearLote(HOY.minusDays(1), LEJANA, DictamenEnum.APROBADO, 10);
+        Lote tercero = crearLote(HOY.minusDays(1), LEJANA, DictamenEnum.APROBADO, 10);
+        EjecucionValidacionFecha fallida = new EjecucionValidacionFecha();
+        fallida.setFecha(HOY);
+        fallida.setFechaInicio(OffsetDateTime.now());
+        fallida.setEstado(Estado.FALLIDA);
+        fallida.setFase(Fase.ANALISIS_EXPIRADO);
+        fallida.registrarChunk(segundo.getId(), 2, 2);
+        ejecucionRepository.save(fallida);
+
+        fechaValidatorService.validarFecha();
+
+        assertThat(dictamen(primero)).isEqualTo(DictamenEnum.APROBADO);
+        assertThat(dictamen(segundo)).isEqualTo(DictamenEnum.APROBADO);
+        assertThat(dictamen(tercero)).isEqualTo(DictamenEnum.ANALISIS_EXPIRADO);
+        EjecucionValidacionFecha reanudada = ultimaEjecucion();
+        assertThat(reanudada.getId()).isEqualTo(fallida.getId());
+        assertThat(reanudada.getEstado()).isEqualTo(Estado.COMPLETADA);
+        assertThat(reanudada.getLotesAnalisisExpirado()).isEqualTo(3L);
+    }
+
+    private DictamenEnum dictamen(final Lote lote) {
+        return loteRepository.findById(lote.getId()).orElseThrow().getDictamen();
+    }
+
+    private List<Movimiento> movimientos(final Lote lote) {
+        return movimientoRepository.findAllByLoteCodigoLoteOrderByFechaAsc(lote.getCodigoLote());
+    }
+
+    private EjecucionValidacionFecha ultimaEjecucion() {
+        return ejecucionRepository.findFirstByOrderByIdDesc().orElseThrow();
+    }
+
+    private static Analisis analisis(
+        final LocalDate fechaReanalisis,
+        final LocalDate fechaVencimiento,
+        final DictamenEnum dictamen) {
+        Analisis analisis = new Analisis();
+        analisis.setNroAnalisis("A-" + System.nanoTime());
+        analisis.setFechaYHoraCreacion(OffsetDateTime.now());
+        analisis.setFechaReanalisis(fechaReanalisis);
+        analisis.setFechaVencimiento(fechaVencimiento);
+        analisis.setDictamen(dictamen);
+        analisis.setActivo(true);
+        return analisis;
+    }
+
+    private Lote crearLote(
+        final LocalDate fechaReanalisis,
+        final LocalDate fechaVencimiento,
+        final DictamenEnum dictamen,
+        final int stock,
+        final Analisis... analisis) {
+        final String codigo = "L-FECHAS-" + (++secuencia);
+        Lote lote = new Lote();
+        lote.setFechaYHoraCreacion(OffsetDateTime.now());
+        lote.setCodigoLote(codigo);
+        lote.setProducto(producto);
+        lote.setProveedor(proveedor);
+        lote.setFechaIngreso(HOY.minusMonths(6));
+        lote.setLoteProveedor("LP-" + codigo);
+        lote.setFechaReanalisisProveedor(fechaReanalisis);
+        lote.setFechaVencimientoProveedor(fechaVencimiento);
+        lote.setEstado(EstadoEnum.DISPONIBLE);
+        lote.setDictamen(dictamen);
+        lote.setBultosTotales(1);
+        lote.setCantidadInicial(BigDecimal.TEN);
+        lote.setCantidadActual(BigDecimal.valueOf(stock));
+        lote.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        lote.setActivo(true);
+
+        Bulto bulto = new Bulto();
+        bulto.setLote(lote);
+        bulto.setNroBulto(1);
+        bulto.setCantidadInicial(BigDecimal.TEN);
+        bulto.setCantidadActual(BigDecimal.valueOf(stock));
+        bulto.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        bulto.setEstado(EstadoEnum.DISPONIBLE);
+        bulto.setActivo(true);
+        lote.getBultos().add(bulto);
+
+        for (Analisis a : analisis) {
+            a.setLote(lote);
+            lote.getAnalisisList().add(a);
+        }
+        return loteRepository.save(lote);
+    }
+
+}
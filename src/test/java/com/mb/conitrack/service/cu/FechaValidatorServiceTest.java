@@ -5,25 +5,38 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
+import com.mb.conitrack.dto.MovimientoDTO;
 import com.mb.conitrack.entity.Analisis;
+import com.mb.conitrack.entity.EjecucionValidacionFecha;
+import com.mb.conitrack.entity.EjecucionValidacionFecha.Estado;
+import com.mb.conitrack.entity.EjecucionValidacionFecha.Fase;
 import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.Movimiento;
 import com.mb.conitrack.entity.maestro.Producto;
 import com.mb.conitrack.entity.maestro.Proveedor;
+import com.mb.conitrack.entity.maestro.Role;
+import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.DictamenEnum;
 import com.mb.conitrack.enums.EstadoEnum;
+import com.mb.conitrack.enums.MotivoEnum;
+import com.mb.conitrack.enums.RoleEnum;
 import com.mb.conitrack.enums.TipoProductoEnum;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.repository.EjecucionValidacionFechaRepository;
 import com.mb.conitrack.repository.LoteRepository;
-import com.mb.conitrack.utils.MovimientoModificacionUtils;
+import com.mb.conitrack.repository.MovimientoRepository;
+import com.mb.conitrack.repository.maestro.RoleRepository;
+import com.mb.conitrack.repository.maestro.UserRepository;
+import com.mb.conitrack.service.DashboardMetricsCache;
+import com.mb.conitrack.service.FechaVigenteService;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -38,31 +51,25 @@ class FechaValidatorServiceTest {
     LoteRepository loteRepository;
 
     @Mock
-    com.mb.conitrack.repository.maestro.UserRepository userRepository;
+    UserRepository userRepository;
 
     @Mock
-    com.mb.conitrack.repository.maestro.RoleRepository roleRepository;
+    RoleRepository roleRepository;
 
     @Mock
-    com.mb.conitrack.repository.AnalisisRepository analisisRepository;
+    MovimientoRepository movimientoRepository;
 
     @Mock
-    com.mb.conitrack.repository.MovimientoRepository movimientoRepository;
+    EjecucionValidacionFechaRepository ejecucionRepository;
 
-    private PrintStream originalOut;
-    private ByteArrayOutputStream outContent;
+    @Mock
+    PlatformTransactionManager transactionManager;
 
-    @BeforeEach
-    void captureStdout() {
-        originalOut = System.out;
-        outContent = new ByteArrayOutputStream();
-        System.setOut(new PrintStream(outContent));
-    }
+    @Mock
+    DashboardMetricsCache dashboardMetricsCache;
 
-    @AfterEach
-    void restoreStdout() {
-        System.setOut(originalOut);
-    }
+    @Mock
+    FechaVigenteService fechaVigenteService;
 
     @Test
     @DisplayName("@Scheduled presente con el cron esperado")
@@ -78,204 +85,240 @@ class FechaValidatorServiceTest {
     // ========== Tests para CU9: Análisis Expirado ==========
 
     @Test
-    @DisplayName("CU9: Lote con fecha reanálisis PASADA debe procesarse como análisis expirado")
-    void findAllLotesAnalisisExpirado_fechaPasada_debeIncluirse() {
-        // Given: Lote con fecha de reanálisis ayer
-        LocalDate ayer = LocalDate.now().minusDays(1);
-        Lote lote = crearLoteConFechaReanalisis(ayer);
-
-        when(loteRepository.findLotesConStockOrder()).thenReturn(List.of(lote));
-
-        // When
-        List<Lote> resultado = service.findAllLotesAnalisisExpirado();
-
-        // Then: Debe incluirse porque fecha <= hoy
-        assertEquals(1, resultado.size());
-        assertEquals(lote, resultado.get(0));
+    @DisplayName("CU9: Expirar análisis debe crear movimiento ANALISIS_EXPIRADO y actualizar el dictamen del lote")
+    void expirarAnalisis_debeCrearMovimientoYActualizarLote() {
+        Lote lote = crearLoteConFechaReanalisis(LocalDate.now());
+        MovimientoDTO dto = crearDto("Test expiracion");
+
+        Movimiento movimiento = service.expirarAnalisis(dto, lote, systemUser());
+
+        assertEquals(MotivoEnum.EXPIRACION_ANALISIS, movimiento.getMotivo());
+        assertEquals(DictamenEnum.APROBADO, movimiento.getDictamenInicial());
+        assertEquals(DictamenEnum.ANALISIS_EXPIRADO, movimiento.getDictamenFinal());
+        assertTrue(movimiento.getObservaciones().startsWith("_CU9_\n"));
+        assertEquals(DictamenEnum.ANALISIS_EXPIRADO, lote.getDictamen());
+        verifyNoInteractions(movimientoRepository, loteRepository);
     }
 
-    @Test
-    @DisplayName("CU9: Lote con fecha reanálisis HOY debe procesarse como análisis expirado")
-    void findAllLotesAnalisisExpirado_fechaHoy_debeIncluirse() {
-        // Given: Lote con fecha de reanálisis hoy
-        LocalDate hoy = LocalDate.now();
-        Lote lote = crearLoteConFechaReanalisis(hoy);
-
-        when(loteRepository.findLotesConStockOrder()).thenReturn(List.of(lote));
-
-        // When
-        List<Lote> resultado = service.findAllLotesAnalisisExpirado();
+    // ========== Tests para CU10: Vencimiento ==========
 
-        // Then: Debe incluirse porque fecha <= hoy
-        assertEquals(1, resultado.size());
-        assertEquals(lote, resultado.get(0));
+    @Test
+    @DisplayName("CU10: Vencer lote debe cancelar el análisis en curso")
+    void vencerLote_conAnalisisEnCurso_debeCancelar() {
+        Lote lote = crearLoteConFechaVencimiento(LocalDate.now());
+        Analisis analisisEnCurso = new Analisis();
+        analisisEnCurso.setNroAnalisis("A-EN-CURSO");
+        analisisEnCurso.setDictamen(null);
+        analisisEnCurso.setActivo(true);
+        analisisEnCurso.setFechaYHoraCreacion(OffsetDateTime.now().plusDays(1));
+        lote.getAnalisisList().add(analisisEnCurso);
+
+        Movimiento movimiento = service.vencerLote(crearDto("Test vencimiento"), lote, systemUser());
+
+        assertEquals(MotivoEnum.VENCIMIENTO, movimiento.getMotivo());
+        assertEquals(DictamenEnum.VENCIDO, movimiento.getDictamenFinal());
+        assertTrue(movimiento.getObservaciones().startsWith("_CU10_\n"));
+        assertEquals(DictamenEnum.VENCIDO, lote.getDictamen());
+        assertEquals(DictamenEnum.CANCELADO, analisisEnCurso.getDictamen());
     }
 
     @Test
-    @DisplayName("CU9: Lote con fecha reanálisis FUTURA NO debe procesarse")
-    void findAllLotesAnalisisExpirado_fechaFutura_noDebeIncluirse() {
-        // Given: Lote con fecha de reanálisis mañana
-        LocalDate manana = LocalDate.now().plusDays(1);
-        Lote lote = crearLoteConFechaReanalisis(manana);
-
-        when(loteRepository.findLotesConStockOrder()).thenReturn(List.of(lote));
+    @DisplayName("CU10: Vencer lote no debe cancelar un análisis ya dictaminado")
+    void vencerLote_analisisDictaminado_noDebeCancelar() {
+        Lote lote = crearLoteConFechaVencimiento(LocalDate.now());
 
-        // When
-        List<Lote> resultado = service.findAllLotesAnalisisExpirado();
+        service.vencerLote(crearDto("Test vencimiento"), lote, systemUser());
 
-        // Then: NO debe incluirse porque fecha > hoy
-        assertEquals(0, resultado.size());
+        assertEquals(DictamenEnum.APROBADO, lote.getUltimoAnalisis().getDictamen());
     }
 
-    @Test
-    @DisplayName("CU9: Lote sin fecha de reanálisis NO debe procesarse")
-    void findAllLotesAnalisisExpirado_sinFecha_noDebeIncluirse() {
-        // Given: Lote sin fecha de reanálisis (null)
-        Lote lote = crearLoteConFechaReanalisis(null);
+    @Nested
+    @DisplayName("procesarChunk() - Selección exacta por SQL sobre las fechas efectivas")
+    class ProcesarChunkTests {
 
-        when(loteRepository.findLotesConStockOrder()).thenReturn(List.of(lote));
+        @Test
+        @DisplayName("Sin candidatos debe terminar la fase sin insertar movimientos")
+        void procesarChunk_sinCandidatos_debeTerminar() {
+            EjecucionValidacionFecha ejecucion = nuevaEjecucion(Fase.ANALISIS_EXPIRADO);
+            when(loteRepository.findIdsCandidatosAnalisisExpirado(any(), eq(0L), any())).thenReturn(List.of());
 
-        // When
-        List<Lote> resultado = service.findAllLotesAnalisisExpirado();
+            boolean hayMas = service.procesarChunk(ejecucion, LocalDate.now(), systemUser());
 
-        // Then: NO debe incluirse
-        assertEquals(0, resultado.size());
-    }
+            assertFalse(hayMas);
+            verify(movimientoRepository, never()).insertarBatch(any());
+            verify(ejecucionRepository, never()).save(any());
+        }
 
-    @Test
-    @DisplayName("CU9: Múltiples lotes - solo deben incluirse los que cumplan condición")
-    void findAllLotesAnalisisExpirado_multiplesLotes_filtraCorrectamente() {
-        // Given: 4 lotes con fechas distintas
-        LocalDate ayer = LocalDate.now().minusDays(1);
-        LocalDate hoy = LocalDate.now();
-        LocalDate manana = LocalDate.now().plusDays(1);
-
-        Lote loteAyer = crearLoteConFechaReanalisis(ayer);
-        loteAyer.setId(1L);
-        Lote loteHoy = crearLoteConFechaReanalisis(hoy);
-        loteHoy.setId(2L);
-        Lote loteManana = crearLoteConFechaReanalisis(manana);
-        loteManana.setId(3L);
-        Lote loteSinFecha = crearLoteConFechaReanalisis(null);
-        loteSinFecha.setId(4L);
-
-        when(loteRepository.findLotesConStockOrder())
-            .thenReturn(List.of(loteAyer, loteHoy, loteManana, loteSinFecha));
-
-        // When
-        List<Lote> resultado = service.findAllLotesAnalisisExpirado();
-
-        // Then: Solo deben incluirse ayer y hoy (fecha <= hoy)
-        assertEquals(2, resultado.size());
-
-        List<Long> ids = resultado.stream().map(Lote::getId).toList();
-        assertTrue(ids.contains(1L), "Debe contener lote con fecha ayer");
-        assertTrue(ids.contains(2L), "Debe contener lote con fecha hoy");
-        assertFalse(ids.contains(3L), "NO debe contener lote con fecha futura");
-        assertFalse(ids.contains(4L), "NO debe contener lote sin fecha");
+        @Test
+        @DisplayName("Debe insertar un movimiento por lote candidato y avanzar el cursor")
+        void procesarChunk_conCandidatos_debeInsertarYAvanzarCursor() {
+            EjecucionValidacionFecha ejecucion = nuevaEjecucion(Fase.VENCIMIENTO);
+            Lote vencido = crearLoteConFechaVencimiento(LocalDate.now().minusDays(1));
+            vencido.setId(3L);
+            Lote venceHoy = crearLoteConFechaVencimiento(LocalDate.now());
+            venceHoy.setId(4L);
+            when(loteRepository.findIdsCandidatosVencimiento(any(), eq(0L), any())).thenReturn(List.of(3L, 4L));
+            when(loteRepository.findAllConAnalisisByIdIn(List.of(3L, 4L))).thenReturn(List.of(vencido, venceHoy));
+
+            boolean hayMas = service.procesarChunk(ejecucion, LocalDate.now(), systemUser());
+
+            assertFalse(hayMas);
+            ArgumentCaptor<List<Movimiento>> captor = ArgumentCaptor.forClass(List.class);
+            verify(movimientoRepository).insertarBatch(captor.capture());
+            assertEquals(2, captor.getValue().size());
+            assertSame(vencido, captor.getValue().get(0).getLote());
+            assertEquals(DictamenEnum.VENCIDO, venceHoy.getDictamen());
+            assertEquals(4L, ejecucion.getCursorLoteId());
+            assertEquals(2L, ejecucion.getLotesEvaluados());
+            assertEquals(2L, ejecucion.getLotesVencidos());
+            verify(ejecucionRepository).save(ejecucion);
+        }
+
+        @Test
+        @DisplayName("Chunk completo debe indicar que puede haber más candidatos")
+        void procesarChunk_chunkCompleto_debeIndicarQueHayMas() {
+            service.setChunkSize(2);
+            EjecucionValidacionFecha ejecucion = nuevaEjecucion(Fase.ANALISIS_EXPIRADO);
+            ejecucion.setCursorLoteId(10L);
+            when(loteRepository.findIdsCandidatosAnalisisExpirado(any(), eq(10L), any())).thenReturn(List.of(11L, 12L));
+            when(loteRepository.findAllConAnalisisByIdIn(List.of(11L, 12L))).thenReturn(List.of());
+
+            boolean hayMas = service.procesarChunk(ejecucion, LocalDate.now(), systemUser());
+
+            assertTrue(hayMas);
+            assertEquals(12L, ejecucion.getCursorLoteId());
+            assertEquals(1, ejecucion.getChunks());
+        }
     }
 
-    // ========== Tests para CU10: Vencimiento ==========
+    @Nested
+    @DisplayName("validarFecha() - Ejecución por chunks con reanudación")
+    class ValidarFechaScheduledTests {
 
-    @Test
-    @DisplayName("CU10: Lote con fecha vencimiento PASADA debe procesarse como vencido")
-    void findAllLotesVencidos_fechaPasada_debeIncluirse() {
-        // Given: Lote con fecha de vencimiento ayer
-        LocalDate ayer = LocalDate.now().minusDays(1);
-        Lote lote = crearLoteConFechaVencimiento(ayer);
+        @Test
+        @DisplayName("Debe procesar ambas fases y registrar la ejecución completada")
+        void validarFecha_debeProcesarAmbasFasesYRegistrarMetricas() {
+            when(userRepository.findByUsername("system_auto")).thenReturn(Optional.of(systemUser()));
+            Lote expirado = crearLoteConFechaReanalisis(LocalDate.now().minusDays(1));
+            expirado.setId(1L);
+            Lote vencido = crearLoteConFechaVencimiento(LocalDate.now());
+            vencido.setId(2L);
+            when(loteRepository.findIdsCandidatosAnalisisExpirado(any(), eq(0L), any())).thenReturn(List.of(1L));
+            when(loteRepository.findIdsCandidatosVencimiento(any(), eq(0L), any())).thenReturn(List.of(2L));
+            when(loteRepository.findAllConAnalisisByIdIn(List.of(1L))).thenReturn(List.of(expirado));
+            when(loteRepository.findAllConAnalisisByIdIn(List.of(2L))).thenReturn(List.of(vencido));
 
-        when(loteRepository.findLotesConStockOrder()).thenReturn(List.of(lote));
+            service.validarFecha();
 
-        // When
-        List<Lote> resultado = service.findAllLotesVencidos();
+            EjecucionValidacionFecha ejecucion = ultimaEjecucionGuardada();
+            assertEquals(Estado.COMPLETADA, ejecucion.getEstado());
+            assertEquals(Fase.VENCIMIENTO, ejecucion.getFase());
+            assertEquals(2L, ejecucion.getLotesEvaluados());
+            assertEquals(1L, ejecucion.getLotesAnalisisExpirado());
+            assertEquals(1L, ejecucion.getLotesVencidos());
+            assertNotNull(ejecucion.getFechaFin());
+            verify(movimientoRepository, times(2)).insertarBatch(anyList());
+            verify(fechaVigenteService).refrescar(LocalDate.now());
+            verify(dashboardMetricsCache).invalidar();
+        }
 
-        // Then: Debe incluirse porque fecha <= hoy
-        assertEquals(1, resultado.size());
-        assertEquals(lote, resultado.get(0));
-    }
+        @Test
+        @DisplayName("Debe reanudar la ejecución fallida del día desde su cursor")
+        void validarFecha_ejecucionFallida_debeReanudarDesdeCursor() {
+            when(userRepository.findByUsername("system_auto")).thenReturn(Optional.of(systemUser()));
+            EjecucionValidacionFecha fallida = nuevaEjecucion(Fase.VENCIMIENTO);
+            fallida.setId(10L);
+            fallida.setEstado(Estado.FALLIDA);
+            fallida.setCursorLoteId(40L);
+            fallida.setLotesAnalisisExpirado(3L);
+            when(ejecucionRepository.findFirstByFechaOrderByIdDesc(any())).thenReturn(Optional.of(fallida));
+            when(loteRepository.findIdsCandidatosVencimiento(any(), eq(40L), any())).thenReturn(List.of());
 
-    @Test
-    @DisplayName("CU10: Lote con fecha vencimiento HOY debe procesarse como vencido")
-    void findAllLotesVencidos_fechaHoy_debeIncluirse() {
-        // Given: Lote con fecha de vencimiento hoy
-        LocalDate hoy = LocalDate.now();
-        Lote lote = crearLoteConFechaVencimiento(hoy);
+            service.validarFecha();
 
-        when(loteRepository.findLotesConStockOrder()).thenReturn(List.of(lote));
+            verify(loteRepository, never()).findIdsCandidatosAnalisisExpirado(any(), anyLong(), any());
+            assertEquals(Estado.COMPLETADA, fallida.getEstado());
+            assertEquals(3L, fallida.getLotesAnalisisExpirado());
+            assertNull(fallida.getError());
+        }
 
-        // When
-        List<Lote> resultado = service.findAllLotesVencidos();
+        @Test
+        @DisplayName("Una falla debe registrar la ejecución como FALLIDA y propagarse")
+        void validarFecha_falla_debeRegistrarFallida() {
+            when(userRepository.findByUsername("system_auto")).thenReturn(Optional.of(systemUser()));
+            when(loteRepository.findIdsCandidatosAnalisisExpirado(any(), anyLong(), any()))
+                .thenThrow(new IllegalStateException("db caida"));
+
+            assertThrows(IllegalStateException.class, () -> service.validarFecha());
+
+            EjecucionValidacionFecha ejecucion = ultimaEjecucionGuardada();
+            assertEquals(Estado.FALLIDA, ejecucion.getEstado());
+            assertTrue(ejecucion.getError().contains("db caida"));
+            verify(dashboardMetricsCache).invalidar();
+        }
 
-        // Then: Debe incluirse porque fecha <= hoy
-        assertEquals(1, resultado.size());
-        assertEquals(lote, resultado.get(0));
+        private EjecucionValidacionFecha ultimaEjecucionGuardada() {
+            ArgumentCaptor<EjecucionValidacionFecha> captor = ArgumentCaptor.forClass(EjecucionValidacionFecha.class);
+            verify(ejecucionRepository, atLeastOnce()).save(captor.capture());
+            return captor.getValue();
+        }
     }
 
-    @Test
-    @DisplayName("CU10: Lote con fecha vencimiento FUTURA NO debe procesarse")
-    void findAllLotesVencidos_fechaFutura_noDebeIncluirse() {
-        // Given: Lote con fecha de vencimiento mañana
-        LocalDate manana = LocalDate.now().plusDays(1);
-        Lote lote = crearLoteConFechaVencimiento(manana);
+    @Nested
+    @DisplayName("getSystemUser() - Cobertura completa de lambdas")
+    class GetSystemUserTests {
 
-        when(loteRepository.findLotesConStockOrder()).thenReturn(List.of(lote));
+        @Test
+        @DisplayName("Debe crear nuevo usuario y rol cuando no existen")
+        void getSystemUser_noExiste_debeCrearNuevoUsuarioYRol() {
+            when(userRepository.findByUsername("system_auto")).thenReturn(Optional.empty());
+            when(roleRepository.findByName("ADMIN")).thenReturn(Optional.empty());
+            Role nuevoRole = Role.fromEnum(RoleEnum.ADMIN);
+            when(roleRepository.save(any(Role.class))).thenReturn(nuevoRole);
+            when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        // When
-        List<Lote> resultado = service.findAllLotesVencidos();
+            User resultado = service.getSystemUser();
 
-        // Then: NO debe incluirse porque fecha > hoy
-        assertEquals(0, resultado.size());
-    }
+            assertEquals("system_auto", resultado.getUsername());
+            verify(roleRepository).save(any(Role.class));
+            verify(userRepository).save(any(User.class));
+        }
 
-    @Test
-    @DisplayName("CU10: Lote sin fecha de vencimiento NO debe procesarse")
-    void findAllLotesVencidos_sinFecha_noDebeIncluirse() {
-        // Given: Lote sin fecha de vencimiento (null)
-        Lote lote = crearLoteConFechaVencimiento(null);
+        @Test
+        @DisplayName("Debe crear solo usuario cuando rol ya existe")
+        void getSystemUser_rolExiste_debeCrearSoloUsuario() {
+            when(userRepository.findByUsername("system_auto")).thenReturn(Optional.empty());
+            when(roleRepository.findByName("ADMIN")).thenReturn(Optional.of(Role.fromEnum(RoleEnum.ADMIN)));
+            when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        when(loteRepository.findLotesConStockOrder()).thenReturn(List.of(lote));
+            service.getSystemUser();
 
-        // When
-        List<Lote> resultado = service.findAllLotesVencidos();
+            verify(roleRepository, never()).save(any(Role.class));
+            verify(userRepository).save(any(User.class));
+        }
+    }
 
-        // Then: NO debe incluirse
-        assertEquals(0, resultado.size());
+    // ========== Métodos auxiliares para crear lotes de prueba ==========
+
+    private static User systemUser() {
+        return new User("system_auto", "N/A", Role.fromEnum(RoleEnum.ADMIN));
     }
 
-    @Test
-    @DisplayName("CU10: Múltiples lotes - solo deben incluirse los que cumplan condición")
-    void findAllLotesVencidos_multiplesLotes_filtraCorrectamente() {
-        // Given: 4 lotes con fechas distintas
-        LocalDate ayer = LocalDate.now().minusDays(1);
-        LocalDate hoy = LocalDate.now();
-        LocalDate manana = LocalDate.now().plusDays(1);
-
-        Lote loteAyer = crearLoteConFechaVencimiento(ayer);
-        loteAyer.setId(5L);
-        Lote loteHoy = crearLoteConFechaVencimiento(hoy);
-        loteHoy.setId(6L);
-        Lote loteManana = crearLoteConFechaVencimiento(manana);
-        loteManana.setId(7L);
-        Lote loteSinFecha = crearLoteConFechaVencimiento(null);
-        loteSinFecha.setId(8L);
-
-        when(loteRepository.findLotesConStockOrder())
-            .thenReturn(List.of(loteAyer, loteHoy, loteManana, loteSinFecha));
-
-        // When
-        List<Lote> resultado = service.findAllLotesVencidos();
-
-        // Then: Solo deben incluirse ayer y hoy (fecha <= hoy)
-        assertEquals(2, resultado.size());
-
-        List<Long> ids = resultado.stream().map(Lote::getId).toList();
-        assertTrue(ids.contains(5L), "Debe contener lote con fecha ayer");
-        assertTrue(ids.contains(6L), "Debe contener lote con fecha hoy");
-        assertFalse(ids.contains(7L), "NO debe contener lote con fecha futura");
-        assertFalse(ids.contains(8L), "NO debe contener lote sin fecha");
+    private static MovimientoDTO crearDto(String observaciones) {
+        MovimientoDTO dto = new MovimientoDTO();
+        dto.setFechaMovimiento(LocalDate.now());
+        dto.setFechaYHoraCreacion(OffsetDateTime.now());
+        dto.setObservaciones(observaciones);
+        return dto;
     }
 
-    // ========== Métodos auxiliares para crear lotes de prueba ==========
+    private static EjecucionValidacionFecha nuevaEjecucion(Fase fase) {
+        EjecucionValidacionFecha ejecucion = new EjecucionValidacionFecha();
+        ejecucion.setFecha(LocalDate.now());
+        ejecucion.setEstado(Estado.EN_CURSO);
+        ejecucion.setFase(fase);
+        return ejecucion;
+    }
 
     private Lote crearLoteConFechaReanalisis(LocalDate fechaReanalisis) {
         Lote lote = crearLoteBase();
@@ -286,6 +329,7 @@ class FechaValidatorServiceTest {
         analisis.setDictamen(DictamenEnum.APROBADO);
         analisis.setFechaRealizado(LocalDate.now().minusDays(30));
         analisis.setActivo(true);
+        analisis.setFechaYHoraCreacion(OffsetDateTime.now());
 
         lote.getAnalisisList().add(analisis);
 
@@ -343,490 +387,4 @@ class FechaValidatorServiceTest {
         return lote;
     }
 
-    // ========== Tests adicionales para cobertura completa (14% -> 100%) ==========
-
-    @Nested
-    @DisplayName("validarFecha() - Método @Scheduled - Cobertura líneas 44-46")
-    class ValidarFechaScheduledTests {
-
-        @Test
-        @DisplayName("Debe llamar a procesarLotesAnalisisExpirado y procesarLotesVencidos")
-        void validarFecha_debeProcegarAmbosMetodos() {
-            // Given
-            when(loteRepository.findLotesConStockOrder()).thenReturn(List.of());
-
-            // When
-            service.validarFecha();
-
-            // Then
-            // Verificar que ambos métodos fueron invocados
-            verify(loteRepository, atLeastOnce()).findLotesConStockOrder();
-        }
-    }
-
-    @Nested
-    @DisplayName("persistirExpiracionAnalisis() - Cobertura líneas 79-86")
-    class PersistirExpiracionAnalisisTests {
-
-        @Test
-        @DisplayName("Debe procesar lista vacía sin errores")
-        void persistirExpiracionAnalisis_listaVacia_debeRetornarVacia() {
-            // Given
-            com.mb.conitrack.dto.MovimientoDTO dto = new com.mb.conitrack.dto.MovimientoDTO();
-            List<Lote> lotesVacios = List.of();
-
-            // When
-            List<Lote> resultado = service.persistirExpiracionAnalisis(dto, lotesVacios);
-
-            // Then
-            assertEquals(0, resultado.size());
-            verify(movimientoRepository, never()).save(any());
-            verify(loteRepository, never()).save(any());
-        }
-
-        @Test
-        @DisplayName("Debe procesar lotes y persistir movimientos correctamente")
-        void persistirExpiracionAnalisis_conLotes_debeProcesarYPersistir() {
-            try (MockedStatic<MovimientoModificacionUtils> mockedStatic = mockStatic(MovimientoModificacionUtils.class)) {
-                // Given
-                com.mb.conitrack.dto.MovimientoDTO dto = new com.mb.conitrack.dto.MovimientoDTO();
-                dto.setFechaYHoraCreacion(OffsetDateTime.now());
-                dto.setObservaciones("Test");
-
-                Lote lote1 = crearLoteConFechaReanalisis(LocalDate.now());
-                Lote lote2 = crearLoteConFechaReanalisis(LocalDate.now().minusDays(1));
-
-                // Mock system user
-                com.mb.conitrack.entity.maestro.Role adminRole = com.mb.conitrack.entity.maestro.Role.fromEnum(com.mb.conitrack.enums.RoleEnum.ADMIN);
-                com.mb.conitrack.entity.maestro.User systemUser = new com.mb.conitrack.entity.maestro.User("system_auto", "N/A", adminRole);
-                when(userRepository.findByUsername("system_auto")).thenReturn(java.util.Optional.of(systemUser));
-
-                // Mock static method
-                com.mb.conitrack.entity.Movimiento movMock = new com.mb.conitrack.entity.Movimiento();
-                movMock.setDictamenFinal(DictamenEnum.ANALISIS_EXPIRADO);
-                mockedStatic.when(() -> MovimientoModificacionUtils.createMovimientoModificacion(any(), any(), any()))
-                    .thenReturn(movMock);
-
-                when(movimientoRepository.save(any(com.mb.conitrack.entity.Movimiento.class))).thenReturn(movMock);
-                when(loteRepository.save(any(Lote.class))).thenAnswer(invocation -> invocation.getArgument(0));
-
-                // When
-                List<Lote> resultado = service.persistirExpiracionAnalisis(dto, List.of(lote1, lote2));
-
-                // Then
-                assertEquals(2, resultado.size());
-                verify(movimientoRepository, times(2)).save(any(com.mb.conitrack.entity.Movimiento.class));
-                verify(loteRepository, times(2)).save(any(Lote.class));
-            }
-        }
-    }
-
-    @Nested
-    @DisplayName("persistirMovimientoExpiracionAnalisis() - Cobertura líneas 92-100")
-    class PersistirMovimientoExpiracionAnalisisTests {
-
-        @Test
-        @DisplayName("Debe crear movimiento con dictamen ANALISIS_EXPIRADO")
-        void persistirMovimientoExpiracionAnalisis_debeCrearMovimiento() {
-            try (MockedStatic<MovimientoModificacionUtils> mockedStatic = mockStatic(MovimientoModificacionUtils.class)) {
-                // Given
-                com.mb.conitrack.dto.MovimientoDTO dto = new com.mb.conitrack.dto.MovimientoDTO();
-                dto.setFechaYHoraCreacion(OffsetDateTime.now());
-                dto.setObservaciones("Test expiracion");
-
-                Lote lote = crearLoteConFechaReanalisis(LocalDate.now());
-
-                // Mock system user
-                com.mb.conitrack.entity.maestro.Role adminRole = com.mb.conitrack.entity.maestro.Role.fromEnum(com.mb.conitrack.enums.RoleEnum.ADMIN);
-                com.mb.conitrack.entity.maestro.User systemUser = new com.mb.conitrack.entity.maestro.User("system_auto", "N/A", adminRole);
-                when(userRepository.findByUsername("system_auto")).thenReturn(java.util.Optional.of(systemUser));
-
-                // Mock static method and movement save
-                com.mb.conitrack.entity.Movimiento movSaved = new com.mb.conitrack.entity.Movimiento();
-                movSaved.setId(1L);
-                mockedStatic.when(() -> MovimientoModificacionUtils.createMovimientoModificacion(any(), any(), any()))
-                    .thenReturn(movSaved);
-                when(movimientoRepository.save(any(com.mb.conitrack.entity.Movimiento.class))).thenReturn(movSaved);
-
-                // When
-                com.mb.conitrack.entity.Movimiento resultado = service.persistirMovimientoExpiracionAnalisis(dto, lote);
-
-                // Then
-                assertNotNull(resultado);
-                assertEquals(1L, resultado.getId());
-                verify(userRepository).findByUsername("system_auto");
-                verify(movimientoRepository).save(any(com.mb.conitrack.entity.Movimiento.class));
-            }
-        }
-    }
-
-    @Nested
-    @DisplayName("persistirMovimientoProductoVencido() - Cobertura líneas 106-114")
-    class PersistirMovimientoProductoVencidoTests {
-
-        @Test
-        @DisplayName("Debe crear movimiento con dictamen VENCIDO")
-        void persistirMovimientoProductoVencido_debeCrearMovimiento() {
-            try (MockedStatic<MovimientoModificacionUtils> mockedStatic = mockStatic(MovimientoModificacionUtils.class)) {
-                // Given
-                com.mb.conitrack.dto.MovimientoDTO dto = new com.mb.conitrack.dto.MovimientoDTO();
-                dto.setFechaYHoraCreacion(OffsetDateTime.now());
-                dto.setObservaciones("Test vencimiento");
-
-                Lote lote = crearLoteConFechaVencimiento(LocalDate.now());
-
-                // Mock system user
-                com.mb.conitrack.entity.maestro.Role adminRole = com.mb.conitrack.entity.maestro.Role.fromEnum(com.mb.conitrack.enums.RoleEnum.ADMIN);
-                com.mb.conitrack.entity.maestro.User systemUser = new com.mb.conitrack.entity.maestro.User("system_auto", "N/A", adminRole);
-                when(userRepository.findByUsername("system_auto")).thenReturn(java.util.Optional.of(systemUser));
-
-                // Mock static method and movement save
-                com.mb.conitrack.entity.Movimiento movSaved = new com.mb.conitrack.entity.Movimiento();
-                movSaved.setId(2L);
-                mockedStatic.when(() -> MovimientoModificacionUtils.createMovimientoModificacion(any(), any(), any()))
-                    .thenReturn(movSaved);
-                when(movimientoRepository.save(any(com.mb.conitrack.entity.Movimiento.class))).thenReturn(movSaved);
-
-                // When
-                com.mb.conitrack.entity.Movimiento resultado = service.persistirMovimientoProductoVencido(dto, lote);
-
-                // Then
-                assertNotNull(resultado);
-                assertEquals(2L, resultado.getId());
-                verify(userRepository).findByUsername("system_auto");
-                verify(movimientoRepository).save(any(com.mb.conitrack.entity.Movimiento.class));
-            }
-        }
-    }
-
-    @Nested
-    @DisplayName("persistirProductosVencidos() - Cobertura líneas 120-134")
-    class PersistirProductosVencidosTests {
-
-        @Test
-        @DisplayName("Debe procesar lista vacía sin errores")
-        void persistirProductosVencidos_listaVacia_debeRetornarVacia() {
-            // Given
-            com.mb.conitrack.dto.MovimientoDTO dto = new com.mb.conitrack.dto.MovimientoDTO();
-            List<Lote> lotesVacios = List.of();
-
-            // When
-            List<Lote> resultado = service.persistirProductosVencidos(dto, lotesVacios);
-
-            // Then
-            assertEquals(0, resultado.size());
-            verify(movimientoRepository, never()).save(any());
-            verify(loteRepository, never()).save(any());
-        }
-
-        @Test
-        @DisplayName("Debe cancelar análisis en curso si existe - líneas 127-129")
-        void persistirProductosVencidos_conAnalisisEnCurso_debeCancelar() {
-            try (MockedStatic<MovimientoModificacionUtils> mockedStatic = mockStatic(MovimientoModificacionUtils.class)) {
-                // Given
-                com.mb.conitrack.dto.MovimientoDTO dto = new com.mb.conitrack.dto.MovimientoDTO();
-                dto.setFechaYHoraCreacion(OffsetDateTime.now());
-                dto.setObservaciones("Test");
-
-                Lote lote = crearLoteConFechaVencimiento(LocalDate.now());
-                // Análisis en curso (dictamen = null) - debe ser el más reciente
-                Analisis analisisEnCurso = new Analisis();
-                analisisEnCurso.setId(10L);
-                analisisEnCurso.setNroAnalisis("A-EN-CURSO");
-                analisisEnCurso.setDictamen(null); // EN CURSO
-                analisisEnCurso.setActivo(true);
-                analisisEnCurso.setFechaYHoraCreacion(OffsetDateTime.now().plusDays(1)); // Más reciente que el análisis base
-                lote.getAnalisisList().add(analisisEnCurso);
-
-                // Mock system user
-                com.mb.conitrack.entity.maestro.Role adminRole = com.mb.conitrack.entity.maestro.Role.fromEnum(com.mb.conitrack.enums.RoleEnum.ADMIN);
-                com.mb.conitrack.entity.maestro.User systemUser = new com.mb.conitrack.entity.maestro.User("system_auto", "N/A", adminRole);
-                when(userRepository.findByUsername("system_auto")).thenReturn(java.util.Optional.of(systemUser));
-
-                com.mb.conitrack.entity.Movimiento movMock = new com.mb.conitrack.entity.Movimiento();
-                movMock.setDictamenFinal(DictamenEnum.VENCIDO);
-                mockedStatic.when(() -> MovimientoModificacionUtils.createMovimientoModificacion(any(), any(), any()))
-                    .thenReturn(movMock);
-                when(movimientoRepository.save(any(com.mb.conitrack.entity.Movimiento.class))).thenReturn(movMock);
-                when(analisisRepository.save(any(Analisis.class))).thenAnswer(invocation -> invocation.getArgument(0));
-                when(loteRepository.save(any(Lote.class))).thenAnswer(invocation -> invocation.getArgument(0));
-
-                // When
-                List<Lote> resultado = service.persistirProductosVencidos(dto, List.of(lote));
-
-                // Then
-                assertEquals(1, resultado.size());
-                // Verificar que el análisis fue cancelado
-                assertEquals(DictamenEnum.CANCELADO, lote.getUltimoAnalisis().getDictamen());
-                verify(analisisRepository).save(analisisEnCurso);
-                verify(movimientoRepository).save(any(com.mb.conitrack.entity.Movimiento.class));
-                verify(loteRepository).save(lote);
-            }
-        }
-
-        @Test
-        @DisplayName("No debe cancelar análisis si ya tiene dictamen")
-        void persistirProductosVencidos_analisisDictaminado_noDebeCancelar() {
-            try (MockedStatic<MovimientoModificacionUtils> mockedStatic = mockStatic(MovimientoModificacionUtils.class)) {
-                // Given
-                com.mb.conitrack.dto.MovimientoDTO dto = new com.mb.conitrack.dto.MovimientoDTO();
-                dto.setFechaYHoraCreacion(OffsetDateTime.now());
-                dto.setObservaciones("Test");
-
-                Lote lote = crearLoteConFechaVencimiento(LocalDate.now());
-                // Análisis ya dictaminado
-                lote.getAnalisisList().get(0).setDictamen(DictamenEnum.APROBADO);
-
-                // Mock system user
-                com.mb.conitrack.entity.maestro.Role adminRole = com.mb.conitrack.entity.maestro.Role.fromEnum(com.mb.conitrack.enums.RoleEnum.ADMIN);
-                com.mb.conitrack.entity.maestro.User systemUser = new com.mb.conitrack.entity.maestro.User("system_auto", "N/A", adminRole);
-                when(userRepository.findByUsername("system_auto")).thenReturn(java.util.Optional.of(systemUser));
-
-                com.mb.conitrack.entity.Movimiento movMock = new com.mb.conitrack.entity.Movimiento();
-                movMock.setDictamenFinal(DictamenEnum.VENCIDO);
-                mockedStatic.when(() -> MovimientoModificacionUtils.createMovimientoModificacion(any(), any(), any()))
-                    .thenReturn(movMock);
-                when(movimientoRepository.save(any(com.mb.conitrack.entity.Movimiento.class))).thenReturn(movMock);
-                when(loteRepository.save(any(Lote.class))).thenAnswer(invocation -> invocation.getArgument(0));
-
-                // When
-                List<Lote> resultado = service.persistirProductosVencidos(dto, List.of(lote));
-
-                // Then
-                assertEquals(1, resultado.size());
-                // Verificar que el análisis NO fue modificado
-                assertEquals(DictamenEnum.APROBADO, lote.getUltimoAnalisis().getDictamen());
-                verify(analisisRepository, never()).save(any(Analisis.class));
-            }
-        }
-
-        @Test
-        @DisplayName("No debe cancelar análisis cuando lote no tiene análisis - cubre branch faltante línea 127")
-        void persistirProductosVencidos_sinAnalisis_noDebeCancelar() {
-            try (MockedStatic<MovimientoModificacionUtils> mockedStatic = mockStatic(MovimientoModificacionUtils.class)) {
-                // Given
-                com.mb.conitrack.dto.MovimientoDTO dto = new com.mb.conitrack.dto.MovimientoDTO();
-                dto.setFechaYHoraCreacion(OffsetDateTime.now());
-                dto.setObservaciones("Test");
-
-                Lote lote = crearLoteConFechaVencimiento(LocalDate.now());
-                // CLAVE: Lote SIN análisis - lista vacía para que getUltimoAnalisis() retorne null
-                lote.setAnalisisList(new ArrayList<>());
-
-                // Mock system user
-                com.mb.conitrack.entity.maestro.Role adminRole = com.mb.conitrack.entity.maestro.Role.fromEnum(com.mb.conitrack.enums.RoleEnum.ADMIN);
-                com.mb.conitrack.entity.maestro.User systemUser = new com.mb.conitrack.entity.maestro.User("system_auto", "N/A", adminRole);
-                when(userRepository.findByUsername("system_auto")).thenReturn(java.util.Optional.of(systemUser));
-
-                com.mb.conitrack.entity.Movimiento movMock = new com.mb.conitrack.entity.Movimiento();
-                movMock.setDictamenFinal(DictamenEnum.VENCIDO);
-                mockedStatic.when(() -> MovimientoModificacionUtils.createMovimientoModificacion(any(), any(), any()))
-                    .thenReturn(movMock);
-                when(movimientoRepository.save(any(com.mb.conitrack.entity.Movimiento.class))).thenReturn(movMock);
-                when(loteRepository.save(any(Lote.class))).thenAnswer(invocation -> invocation.getArgument(0));
-
-                // When
-                List<Lote> resultado = service.persistirProductosVencidos(dto, List.of(lote));
-
-                // Then
-                assertEquals(1, resultado.size());
-                // Verificar que getUltimoAnalisis() es null y por lo tanto no se intenta cancelar
-                assertNull(lote.getUltimoAnalisis());
-                // No se debe guardar ningún análisis porque no existe
-                verify(analisisRepository, never()).save(any(Analisis.class));
-                // El lote se procesa normalmente
-                verify(loteRepository).save(lote);
-            }
-        }
-    }
-
-    @Nested
-    @DisplayName("procesarLotesAnalisisExpirado() - Cobertura líneas 139-155")
-    class ProcesarLotesAnalisisExpiradoTests {
-
-        @Test
-        @DisplayName("Debe retornar inmediatamente si lista está vacía - línea 141")
-        void procesarLotesAnalisisExpirado_listaVacia_debeRetornar() {
-            // Given
-            List<Lote> lotesVacios = List.of();
-
-            // When
-            service.procesarLotesAnalisisExpirado(lotesVacios);
-
-            // Then
-            verify(movimientoRepository, never()).save(any());
-            verify(loteRepository, never()).save(any());
-        }
-
-        @Test
-        @DisplayName("Debe procesar lotes y mostrar log - líneas 143-154")
-        void procesarLotesAnalisisExpirado_conLotes_debeProcesarYLoggear() {
-            try (MockedStatic<MovimientoModificacionUtils> mockedStatic = mockStatic(MovimientoModificacionUtils.class)) {
-                // Given
-                Lote lote1 = crearLoteConFechaReanalisis(LocalDate.now());
-                lote1.setLoteProveedor("LP-001");
-
-                // Mock system user
-                com.mb.conitrack.entity.maestro.Role adminRole = com.mb.conitrack.entity.maestro.Role.fromEnum(com.mb.conitrack.enums.RoleEnum.ADMIN);
-                com.mb.conitrack.entity.maestro.User systemUser = new com.mb.conitrack.entity.maestro.User("system_auto", "N/A", adminRole);
-                when(userRepository.findByUsername("system_auto")).thenReturn(java.util.Optional.of(systemUser));
-
-                com.mb.conitrack.entity.Movimiento movMock = new com.mb.conitrack.entity.Movimiento();
-                movMock.setDictamenFinal(DictamenEnum.ANALISIS_EXPIRADO);
-                mockedStatic.when(() -> MovimientoModificacionUtils.createMovimientoModificacion(any(), any(), any()))
-                    .thenReturn(movMock);
-                when(movimientoRepository.save(any(com.mb.conitrack.entity.Movimiento.class))).thenReturn(movMock);
-                when(loteRepository.save(any(Lote.class))).thenAnswer(invocation -> invocation.getArgument(0));
-
-                // When
-                service.procesarLotesAnalisisExpirado(List.of(lote1));
-
-                // Then
-                verify(movimientoRepository).save(any(com.mb.conitrack.entity.Movimiento.class));
-                verify(loteRepository).save(lote1);
-                String output = outContent.toString();
-                assertTrue(output.contains("Reanalisis expirado"));
-                assertTrue(output.contains("LP-001"));
-            }
-        }
-    }
-
-    @Nested
-    @DisplayName("procesarLotesVencidos() - Cobertura líneas 159-172")
-    class ProcesarLotesVencidosTests {
-
-        @Test
-        @DisplayName("Debe retornar inmediatamente si lista está vacía - línea 161")
-        void procesarLotesVencidos_listaVacia_debeRetornar() {
-            // Given
-            List<Lote> lotesVacios = List.of();
-
-            // When
-            service.procesarLotesVencidos(lotesVacios);
-
-            // Then
-            verify(movimientoRepository, never()).save(any());
-            verify(loteRepository, never()).save(any());
-        }
-
-        @Test
-        @DisplayName("Debe procesar lotes y mostrar log - líneas 163-171")
-        void procesarLotesVencidos_conLotes_debeProcesarYLoggear() {
-            try (MockedStatic<MovimientoModificacionUtils> mockedStatic = mockStatic(MovimientoModificacionUtils.class)) {
-                // Given
-                Lote lote1 = crearLoteConFechaVencimiento(LocalDate.now());
-                lote1.setLoteProveedor("LP-002");
-
-                // Mock system user
-                com.mb.conitrack.entity.maestro.Role adminRole = com.mb.conitrack.entity.maestro.Role.fromEnum(com.mb.conitrack.enums.RoleEnum.ADMIN);
-                com.mb.conitrack.entity.maestro.User systemUser = new com.mb.conitrack.entity.maestro.User("system_auto", "N/A", adminRole);
-                when(userRepository.findByUsername("system_auto")).thenReturn(java.util.Optional.of(systemUser));
-
-                com.mb.conitrack.entity.Movimiento movMock = new com.mb.conitrack.entity.Movimiento();
-                movMock.setDictamenFinal(DictamenEnum.VENCIDO);
-                mockedStatic.when(() -> MovimientoModificacionUtils.createMovimientoModificacion(any(), any(), any()))
-                    .thenReturn(movMock);
-                when(movimientoRepository.save(any(com.mb.conitrack.entity.Movimiento.class))).thenReturn(movMock);
-                when(loteRepository.save(any(Lote.class))).thenAnswer(invocation -> invocation.getArgument(0));
-
-                // When
-                service.procesarLotesVencidos(List.of(lote1));
-
-                // Then
-                verify(movimientoRepository).save(any(com.mb.conitrack.entity.Movimiento.class));
-                verify(loteRepository).save(lote1);
-                String output = outContent.toString();
-                assertTrue(output.contains("Vencido"));
-                assertTrue(output.contains("LP-002"));
-            }
-        }
-    }
-
-    @Nested
-    @DisplayName("getSystemUser() - Cobertura completa de lambdas")
-    class GetSystemUserTests {
-
-        @Test
-        @DisplayName("Debe crear nuevo usuario y rol cuando no existen - líneas 33-37")
-        void getSystemUser_noExiste_debeCrearNuevoUsuarioYRol() {
-            try (MockedStatic<MovimientoModificacionUtils> mockedStatic = mockStatic(MovimientoModificacionUtils.class)) {
-                // Given
-                Lote lote = crearLoteConFechaVencimiento(LocalDate.now());
-                com.mb.conitrack.dto.MovimientoDTO dto = new com.mb.conitrack.dto.MovimientoDTO();
-                dto.setFechaYHoraCreacion(OffsetDateTime.now());
-                dto.setObservaciones("Test");
-
-                // Mock que NO existe usuario system_auto
-                when(userRepository.findByUsername("system_auto")).thenReturn(java.util.Optional.empty());
-
-                // Mock que NO existe el rol ADMIN
-                when(roleRepository.findByName("ADMIN")).thenReturn(java.util.Optional.empty());
-
-                // Mock que guarda un nuevo rol
-                com.mb.conitrack.entity.maestro.Role nuevoRole = com.mb.conitrack.entity.maestro.Role.fromEnum(com.mb.conitrack.enums.RoleEnum.ADMIN);
-                when(roleRepository.save(any(com.mb.conitrack.entity.maestro.Role.class))).thenReturn(nuevoRole);
-
-                // Mock que guarda un nuevo usuario
-                com.mb.conitrack.entity.maestro.User nuevoUsuario = new com.mb.conitrack.entity.maestro.User("system_auto", "N/A", nuevoRole);
-                when(userRepository.save(any(com.mb.conitrack.entity.maestro.User.class))).thenReturn(nuevoUsuario);
-
-                // Mock movimiento
-                com.mb.conitrack.entity.Movimiento movMock = new com.mb.conitrack.entity.Movimiento();
-                movMock.setDictamenFinal(DictamenEnum.VENCIDO);
-                mockedStatic.when(() -> MovimientoModificacionUtils.createMovimientoModificacion(any(), any(), any()))
-                        .thenReturn(movMock);
-                when(movimientoRepository.save(any(com.mb.conitrack.entity.Movimiento.class))).thenReturn(movMock);
-
-                // When - Llamar a un método que internamente usa getSystemUser()
-                service.persistirMovimientoProductoVencido(dto, lote);
-
-                // Then - Verificar que se creó el rol y el usuario
-                verify(userRepository).findByUsername("system_auto");
-                verify(roleRepository).findByName("ADMIN");
-                verify(roleRepository).save(any(com.mb.conitrack.entity.maestro.Role.class));
-                verify(userRepository).save(any(com.mb.conitrack.entity.maestro.User.class));
-                verify(movimientoRepository).save(any(com.mb.conitrack.entity.Movimiento.class));
-            }
-        }
-
-        @Test
-        @DisplayName("Debe crear solo usuario cuando rol ya existe - línea 34")
-        void getSystemUser_rolExiste_debeCrearSoloUsuario() {
-            try (MockedStatic<MovimientoModificacionUtils> mockedStatic = mockStatic(MovimientoModificacionUtils.class)) {
-                // Given
-                Lote lote = crearLoteConFechaVencimiento(LocalDate.now());
-                com.mb.conitrack.dto.MovimientoDTO dto = new com.mb.conitrack.dto.MovimientoDTO();
-                dto.setFechaYHoraCreacion(OffsetDateTime.now());
-                dto.setObservaciones("Test");
-
-                // Mock que NO existe usuario system_auto
-                when(userRepository.findByUsername("system_auto")).thenReturn(java.util.Optional.empty());
-
-                // Mock que SÍ existe el rol ADMIN
-                com.mb.conitrack.entity.maestro.Role roleExistente = com.mb.conitrack.entity.maestro.Role.fromEnum(com.mb.conitrack.enums.RoleEnum.ADMIN);
-                when(roleRepository.findByName("ADMIN")).thenReturn(java.util.Optional.of(roleExistente));
-
-                // Mock que guarda un nuevo usuario
-                com.mb.conitrack.entity.maestro.User nuevoUsuario = new com.mb.conitrack.entity.maestro.User("system_auto", "N/A", roleExistente);
-                when(userRepository.save(any(com.mb.conitrack.entity.maestro.User.class))).thenReturn(nuevoUsuario);
-
-                // Mock movimiento
-                com.mb.conitrack.entity.Movimiento movMock = new com.mb.conitrack.entity.Movimiento();
-                movMock.setDictamenFinal(DictamenEnum.VENCIDO);
-                mockedStatic.when(() -> MovimientoModificacionUtils.createMovimientoModificacion(any(), any(), any()))
-                        .thenReturn(movMock);
-                when(movimientoRepository.save(any(com.mb.conitrack.entity.Movimiento.class))).thenReturn(movMock);
-
-                // When
-                service.persistirMovimientoProductoVencido(dto, lote);
-
-                // Then - Verificar que NO se creó el rol pero SÍ el usuario
-                verify(userRepository).findByUsername("system_auto");
-                verify(roleRepository).findByName("ADMIN");
-                verify(roleRepository, never()).save(any(com.mb.conitrack.entity.maestro.Role.class));
-                verify(userRepository).save(any(com.mb.conitrack.entity.maestro.User.class));
-            }
-        }
-    }
-
 }
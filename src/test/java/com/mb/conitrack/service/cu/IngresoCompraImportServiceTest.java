@@ -0,0 +1,175 @@
+package com.mb.conitrack.service.cu;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mb.conitrack.dto.LoteDTO;
+import com.mb.conitrack.dto.ResultadoImportacionDTO;
+import com.mb.conitrack.entity.Lote;
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.entity.maestro.Proveedor;
+import com.mb.conitrack.repository.maestro.ProductoRepository;
+import com.mb.conitrack.repository.maestro.ProveedorRepository;
+import com.mb.conitrack.service.SecurityContextService;
+import com.mb.conitrack.service.cu.IngresoCompraImportService.FormatoImportacion;
+
+import jakarta.validation.Validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IngresoCompraImportServiceTest {
+
+    private static final String ENCABEZADO = "codigoProducto,cuitProveedor,fechaIngreso,loteProveedor,"
+        + "cantidadInicial,unidadMedida,bultosTotales,cantidadesBultos,unidadMedidaBultos\n";
+
+    @InjectMocks
+    IngresoCompraImportService service;
+
+    @Mock
+    AltaIngresoCompraService altaIngresoCompraService;
+
+    @Mock
+    ProductoRepository productoRepository;
+
+    @Mock
+    ProveedorRepository proveedorRepository;
+
+    @Mock
+    SecurityContextService securityContextService;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    private final Producto producto = new Producto();
+
+    private final Proveedor proveedor = new Proveedor();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(service, "validator",
+            Validation.buildDefaultValidatorFactory().getValidator());
+        producto.setId(1L);
+        producto.setCodigoProducto("API-1");
+        proveedor.setId(2L);
+        proveedor.setCuit("30-11111111-1");
+        when(productoRepository.findProductosExternos()).thenReturn(List.of(producto));
+        when(proveedorRepository.findProveedoresExternosOrderByRazonSocialAsc()).thenReturn(List.of(proveedor));
+    }
+
+    @Nested
+    @DisplayName("importar() - CSV")
+    class ImportarCsvTests {
+
+        @Test
+        @DisplayName("Debe registrar las filas válidas e informar el error de cada fila rechazada")
+        void importar_csvConFilasInvalidas_debeInformarErroresPorFila() throws IOException {
+            when(altaIngresoCompraService.persistirIngresoCompra(any(), eq(producto), eq(proveedor), any(), any()))
+                .thenReturn(lote("L-API-1-25.01.10_10.00.00"));
+
+            ResultadoImportacionDTO resultado = service.importar(csv(
+                "API-1,30111111111,2025-01-10,LP-1,10,UNIDAD,2,4|6,UNIDAD|UNIDAD\n"
+                    + "NO-EXISTE,30-11111111-1,2025-01-10,LP-2,10,UNIDAD,1,,\n"
+                    + "API-1,30-11111111-1,2025-01-10,LP-3,2.5,UNIDAD,1,,\n"), FormatoImportacion.CSV);
+
+            assertEquals(3, resultado.getFilasLeidas());
+            assertEquals(List.of("L-API-1-25.01.10_10.00.00"), resultado.getCodigosLote());
+            assertEquals(2, resultado.getErrores().size());
+            assertEquals(3, resultado.getErrores().get(0).getFila());
+            assertTrue(resultado.getErrores().get(0).getError().contains("producto no existe"));
+            assertEquals(4, resultado.getErrores().get(1).getFila());
+            assertTrue(resultado.getErrores().get(1).getError().contains("número entero"));
+
+            ArgumentCaptor<LoteDTO> captor = ArgumentCaptor.forClass(LoteDTO.class);
+            verify(altaIngresoCompraService).persistirIngresoCompra(
+                captor.capture(), eq(producto), eq(proveedor), eq(null), any());
+            assertEquals(1L, captor.getValue().getProductoId());
+            assertEquals(2, captor.getValue().getCantidadesBultos().size());
+        }
+
+        @Test
+        @DisplayName("Si un bloque falla al persistir debe reintentar fila por fila y rechazar solo la fila con error")
+        void importar_bloqueConError_debeReintentarFilaPorFila() throws IOException {
+            when(altaIngresoCompraService.persistirIngresoCompra(
+                argThat(dto -> dto != null && "LP-1".equals(dto.getLoteProveedor())), any(), any(), any(), any()))
+                .thenReturn(lote("L-API-1-25.01.10_10.00.00"));
+            when(altaIngresoCompraService.persistirIngresoCompra(
+                argThat(dto -> dto != null && "LP-MAL".equals(dto.getLoteProveedor())), any(), any(), any(), any()))
+                .thenThrow(new IllegalStateException("violación de restricción"));
+
+            ResultadoImportacionDTO resultado = service.importar(csv(
+                "API-1,30-11111111-1,2025-01-10,LP-1,10,UNIDAD,1,,\n"
+                    + "API-1,30-11111111-1,2025-01-10,LP-MAL,10,UNIDAD,1,,\n"), FormatoImportacion.CSV);
+
+            assertEquals(List.of("L-API-1-25.01.10_10.00.00"), resultado.getCodigosLote());
+            assertEquals(1, resultado.getErrores().size());
+            assertEquals(3, resultado.getErrores().get(0).getFila());
+            verify(altaIngresoCompraService, times(2)).persistirIngresoCompra(
+                argThat(dto -> dto != null && "LP-1".equals(dto.getLoteProveedor())), any(), any(), any(), any());
+        }
+
+    }
+
+    @Nested
+    @DisplayName("importar() - JSON lines")
+    class ImportarJsonlTests {
+
+        @Test
+        @DisplayName("Debe rechazar las líneas mal formadas e ignorar las vacías")
+        void importar_jsonlConLineaMalFormada_debeRechazarSoloEsaLinea() throws IOException {
+            when(altaIngresoCompraService.persistirIngresoCompra(any(), any(), any(), any(), any()))
+                .thenReturn(lote("L-API-1-25.01.10_10.00.00"));
+
+            ResultadoImportacionDTO resultado = service.importar(stream(
+                "{\"codigoProducto\":\"API-1\",\"cuitProveedor\":\"30-11111111-1\",\"fechaIngreso\":\"2025-01-10\","
+                    + "\"loteProveedor\":\"LP-1\",\"cantidadInicial\":5,\"unidadMedida\":\"UNIDAD\",\"bultosTotales\":1}\n"
+                    + "\n"
+                    + "{\"codigoProducto\":\n"), FormatoImportacion.JSONL);
+
+            assertEquals(2, resultado.getFilasLeidas());
+            assertEquals(1, resultado.getCodigosLote().size());
+            assertEquals(3, resultado.getErrores().get(0).getFila());
+        }
+
+    }
+
+    private static InputStream csv(final String filas) {
+        return stream(ENCABEZADO + filas);
+    }
+
+    private static InputStream stream(final String contenido) {
+        return new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Lote lote(final String codigoLote) {
+        Lote lote = new Lote();
+        lote.setCodigoLote(codigoLote);
+        return lote;
+    }
+
+}
@@ -13,6 +13,7 @@ import com.mb.conitrack.enums.*;
 import com.mb.conitrack.repository.AnalisisRepository;
 import com.mb.conitrack.repository.LoteRepository;
 import com.mb.conitrack.repository.MovimientoRepository;
+import com.mb.conitrack.service.DashboardMetricsCache;
 import com.mb.conitrack.service.SecurityContextService;
 import com.mb.conitrack.utils.MovimientoModificacionUtils;
 import org.junit.jupiter.api.DisplayName;
@@ -56,6 +57,9 @@ class ModifAnulacionAnalisisServiceTest {
     @Mock
     MovimientoRepository movimientoRepository;
 
+    @Mock
+    DashboardMetricsCache dashboardMetricsCache;
+
     @Nested
     @DisplayName("persistirAnulacionAnalisis() - Tests")
     class PersistirAnulacionAnalisisTests {
@@ -12,6 +12,7 @@ import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.*;
 import com.mb.conitrack.repository.LoteRepository;
 import com.mb.conitrack.repository.MovimientoRepository;
+import com.mb.conitrack.service.DashboardMetricsCache;
 import com.mb.conitrack.service.SecurityContextService;
 import com.mb.conitrack.utils.MovimientoModificacionUtils;
 import org.junit.jupiter.api.DisplayName;
@@ -53,6 +54,9 @@ class ModifLiberacionVentasServiceTest {
     @Mock
     MovimientoRepository movimientoRepository;
 
+    @Mock
+    DashboardMetricsCache dashboardMetricsCache;
+
     @Nested
     @DisplayName("persistirLiberacionProducto() - Tests")
     class PersistirLiberacionProductoTests {
@@ -13,6 +13,7 @@ import com.mb.conitrack.enums.*;
 import com.mb.conitrack.repository.AnalisisRepository;
 import com.mb.conitrack.repository.LoteRepository;
 import com.mb.conitrack.repository.MovimientoRepository;
+import com.mb.conitrack.service.DashboardMetricsCache;
 import com.mb.conitrack.service.SecurityContextService;
 import com.mb.conitrack.utils.MovimientoModificacionUtils;
 import org.junit.jupiter.api.DisplayName;
@@ -55,6 +56,9 @@ class ModifReanalisisLoteServiceTest {
     @Mock
     MovimientoRepository movimientoRepository;
 
+    @Mock
+    DashboardMetricsCache dashboardMetricsCache;
+
     @Nested
     @DisplayName("persistirReanalisisLote() - Tests")
     class PersistirReanalisisLoteTests {
@@ -19,6 +19,7 @@ import com.mb.conitrack.enums.UnidadMedidaEnum;
 import com.mb.conitrack.repository.AnalisisRepository;
 import com.mb.conitrack.repository.LoteRepository;
 import com.mb.conitrack.repository.MovimientoRepository;
+import com.mb.conitrack.service.DashboardMetricsCache;
 import com.mb.conitrack.service.SecurityContextService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -72,6 +73,9 @@ class ModifResultadoAnalisisServiceTest {
     @Mock
     private SecurityContextService securityContextService;
 
+    @Mock
+    private DashboardMetricsCache dashboardMetricsCache;
+
     @Spy
     @InjectMocks
     private ModifResultadoAnalisisService service;
@@ -206,6 +210,7 @@ class ModifResultadoAnalisisServiceTest {
             verify(analisisRepository).save(analisisTest);
             verify(movimientoRepository).save(any(Movimiento.class));
             verify(loteRepository).save(loteTest);
+            verify(dashboardMetricsCache).invalidar();
         }
 
         @Test
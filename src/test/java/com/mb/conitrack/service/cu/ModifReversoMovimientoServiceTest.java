@@ -9,6 +9,7 @@ import com.mb.conitrack.entity.maestro.User;
 import com.mb.conitrack.enums.MotivoEnum;
 import com.mb.conitrack.enums.TipoMovimientoEnum;
 import com.mb.conitrack.repository.MovimientoRepository;
+import com.mb.conitrack.service.DashboardMetricsCache;
 import com.mb.conitrack.service.ReversoAuthorizationService;
 import com.mb.conitrack.service.SecurityContextService;
 import org.junit.jupiter.api.DisplayName;
@@ -54,6 +55,9 @@ class ModifReversoMovimientoServiceTest {
     @Mock
     MovimientoRepository movimientoRepository;
 
+    @Mock
+    DashboardMetricsCache dashboardMetricsCache;
+
     @Nested
     @DisplayName("persistirReversoMovmiento() - Tests")
     class PersistirReversoMovmientoTests {
@@ -33,10 +33,14 @@ import com.mb.conitrack.enums.UnidadMedidaEnum;
 import com.mb.conitrack.repository.LoteRepository;
 import com.mb.conitrack.repository.MovimientoRepository;
 import com.mb.conitrack.repository.TrazaRepository;
+import com.mb.conitrack.service.DashboardMetricsCache;
 import com.mb.conitrack.service.SecurityContextService;
+import com.mb.conitrack.service.TrazaNumeradorService;
+import com.mb.conitrack.service.TrazadoBulkService;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -59,6 +63,15 @@ class ModifTrazadoLoteServiceTest {
     @Mock
     SecurityContextService securityContextService;
 
+    @Mock
+    TrazadoBulkService trazadoBulkService;
+
+    @Mock
+    TrazaNumeradorService trazaNumeradorService;
+
+    @Mock
+    DashboardMetricsCache dashboardMetricsCache;
+
     MovimientoDTO movDto;
     BindingResult binding;
     Lote lote;
@@ -88,6 +101,7 @@ class ModifTrazadoLoteServiceTest {
         lote.setMovimientos(new ArrayList<>());
         lote.setTrazas(new HashSet<>());
         lote.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        lote.setCantidadInicial(BigDecimal.valueOf(100));
         lote.setCantidadActual(BigDecimal.valueOf(100));
 
         // Crear un bulto con unidades para soportar trazas
@@ -102,6 +116,7 @@ class ModifTrazadoLoteServiceTest {
         lote.setBultos(List.of(bulto));
 
         Producto producto = new Producto();
+        producto.setId(7L);
         producto.setTipoProducto(TipoProductoEnum.UNIDAD_VENTA);
         lote.setProducto(producto);
 
@@ -115,15 +130,49 @@ class ModifTrazadoLoteServiceTest {
         when(loteRepository.findByCodigoLoteAndActivoTrue(anyString())).thenReturn(Optional.of(lote));
         when(movimientoRepository.save(any(Movimiento.class))).thenReturn(new Movimiento());
         when(loteRepository.save(any(Lote.class))).thenReturn(lote);
+        when(trazaNumeradorService.registrarManual(7L, 1L, 100L)).thenReturn(1L);
 
         LoteDTO result = service.persistirTrazadoLote(movDto);
 
         assertNotNull(result);
-        verify(trazaRepository, atLeastOnce()).saveAll(any());
+        assertTrue(result.getTrazado());
+        assertEquals(1L, result.getTrazaInicial());
+        assertEquals(100L, result.getTrazaFinal());
+        assertTrue(result.getTrazaDTOs().isEmpty());
+        verify(trazadoBulkService).trazarLote(lote, 1L, movDto.getFechaYHoraCreacion());
+        verify(trazaNumeradorService, never()).reservar(any(), anyLong());
+        verify(trazaRepository, never()).saveAll(any());
         verify(movimientoRepository).save(any(Movimiento.class));
         verify(loteRepository).save(any(Lote.class));
     }
 
+    @Test
+    void testPersistirTrazadoLote_SinTrazaInicial_ReservaEnNumerador() {
+        movDto.setTrazaInicial(null);
+        when(securityContextService.getCurrentUser()).thenReturn(user);
+        when(loteRepository.findByCodigoLoteAndActivoTrue(anyString())).thenReturn(Optional.of(lote));
+        when(movimientoRepository.save(any(Movimiento.class))).thenReturn(new Movimiento());
+        when(loteRepository.save(any(Lote.class))).thenReturn(lote);
+        when(trazaNumeradorService.reservar(7L, 100L)).thenReturn(501L);
+
+        LoteDTO result = service.persistirTrazadoLote(movDto);
+
+        assertEquals(501L, result.getTrazaInicial());
+        assertEquals(600L, result.getTrazaFinal());
+        verify(trazadoBulkService).trazarLote(lote, 501L, movDto.getFechaYHoraCreacion());
+    }
+
+    @Test
+    void testPersistirTrazadoLote_TrazaManualYaAsignada() {
+        when(securityContextService.getCurrentUser()).thenReturn(user);
+        when(loteRepository.findByCodigoLoteAndActivoTrue(anyString())).thenReturn(Optional.of(lote));
+        when(trazaNumeradorService.registrarManual(7L, 1L, 100L))
+            .thenThrow(new IllegalArgumentException("El número de traza debe ser mayor al último registrado. 50"));
+
+        assertThrows(IllegalArgumentException.class, () -> service.persistirTrazadoLote(movDto));
+        verify(trazadoBulkService, never()).trazarLote(any(), anyLong(), any());
+    }
+
     @Test
     void testPersistirTrazadoLote_LoteNoExiste() {
         when(securityContextService.getCurrentUser()).thenReturn(user);
@@ -172,6 +221,18 @@ class ModifTrazadoLoteServiceTest {
         assertFalse(binding.hasErrors());
     }
 
+    @Test
+    void testValidarTrazadoLoteInput_TrazaInicialNoSuperaUltimoAsignado() {
+        movDto.setTrazaInicial(50L);
+        when(loteRepository.findByCodigoLoteAndActivoTrue(anyString())).thenReturn(Optional.of(lote));
+        when(trazaNumeradorService.ultimoAsignado(7L)).thenReturn(100L);
+
+        boolean result = service.validarTrazadoLoteInput(movDto, binding);
+
+        assertFalse(result);
+        assertNotNull(binding.getFieldError("trazaInicial"));
+    }
+
     @Test
     void testValidarTrazadoLoteInput_ConErroresBinding() {
         binding.rejectValue("codigoLote", "", "Error");
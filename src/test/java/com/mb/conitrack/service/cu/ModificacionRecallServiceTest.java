@@ -16,6 +16,8 @@ import com.mb.conitrack.repository.BultoRepository;
 import com.mb.conitrack.repository.LoteRepository;
 import com.mb.conitrack.repository.MovimientoRepository;
 import com.mb.conitrack.repository.TrazaRepository;
+import com.mb.conitrack.service.DashboardMetricsCache;
+import com.mb.conitrack.service.TrazaRangoService;
 import com.mb.conitrack.utils.MovimientoModificacionUtils;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -58,9 +60,15 @@ class ModificacionRecallServiceTest {
     @Mock
     TrazaRepository trazaRepository;
 
+    @Mock
+    TrazaRangoService trazaRangoService;
+
     @Mock
     AnalisisRepository analisisRepository;
 
+    @Mock
+    DashboardMetricsCache dashboardMetricsCache;
+
     @Nested
     @DisplayName("procesarModificacionRecall() - Tests")
     class ProcesarModificacionRecallTests {
@@ -23,6 +23,8 @@ import com.mb.conitrack.repository.BultoRepository;
 import com.mb.conitrack.repository.LoteRepository;
 import com.mb.conitrack.repository.MovimientoRepository;
 import com.mb.conitrack.repository.TrazaRepository;
+import com.mb.conitrack.service.DashboardMetricsCache;
+import com.mb.conitrack.service.TrazaRangoService;
 import com.mb.conitrack.dto.DTOUtils;
 import com.mb.conitrack.service.cu.validator.AnalisisValidator;
 import com.mb.conitrack.service.cu.validator.CantidadValidator;
@@ -83,9 +85,15 @@ class MuestreoTrazableServiceTest {
     @Mock
     private TrazaRepository trazaRepository;
 
+    @Mock
+    private TrazaRangoService trazaRangoService;
+
     @Mock
     private AnalisisRepository analisisRepository;
 
+    @Mock
+    private DashboardMetricsCache dashboardMetricsCache;
+
     @InjectMocks
     private MuestreoTrazableService service;
 
@@ -9,6 +9,8 @@ import com.mb.conitrack.enums.DictamenEnum;
 import com.mb.conitrack.enums.EstadoEnum;
 import com.mb.conitrack.enums.TipoMovimientoEnum;
 import com.mb.conitrack.repository.*;
+import com.mb.conitrack.service.SaldoRetornableService;
+import com.mb.conitrack.service.TrazaRangoService;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -49,6 +51,12 @@ class ReversoAltaServiceTest {
     @Mock
     private TrazaRepository trazaRepository;
 
+    @Mock
+    private TrazaRangoService trazaRangoService;
+
+    @Mock
+    private SaldoRetornableService saldoRetornableService;
+
     @Mock
     private AnalisisRepository analisisRepository;
 
@@ -330,6 +338,7 @@ class ReversoAltaServiceTest {
             verify(bultoRepository).saveAll(anyCollection());
             verify(movimientoRepository, times(2)).save(any(Movimiento.class));
             verify(loteRepository).save(lote);
+            verify(saldoRetornableService).reponer(movimientoOrigen);
         }
 
         @Test
@@ -568,6 +577,7 @@ class ReversoAltaServiceTest {
             verify(movimientoRepository, times(2)).save(any(Movimiento.class));
             verify(loteRepository).save(lote);
             verify(trazaRepository, never()).saveAll(any());
+            verify(saldoRetornableService).reponer(movimientoOrigen);
         }
 
         @Test
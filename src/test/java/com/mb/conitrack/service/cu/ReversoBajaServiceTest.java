@@ -13,6 +13,7 @@ import com.mb.conitrack.repository.BultoRepository;
 import com.mb.conitrack.repository.LoteRepository;
 import com.mb.conitrack.repository.MovimientoRepository;
 import com.mb.conitrack.repository.TrazaRepository;
+import com.mb.conitrack.service.TrazaRangoService;
 import com.mb.conitrack.utils.MovimientoModificacionUtils;
 import com.mb.conitrack.utils.UnidadMedidaUtils;
 import org.junit.jupiter.api.AfterEach;
@@ -57,6 +58,9 @@ class ReversoBajaServiceTest {
     @Mock
     private TrazaRepository trazaRepository;
 
+    @Mock
+    private TrazaRangoService trazaRangoService;
+
     @InjectMocks
     private ReversoBajaService service;
 
@@ -40,8 +40,8 @@ class TrazaValidatorTest {
         }
 
         @Test
-        @DisplayName("debe retornar false cuando trazaInicial es null")
-        void debe_retornarFalse_cuandoTrazaInicialNull() {
+        @DisplayName("debe retornar true cuando trazaInicial es null (asignación automática)")
+        void debe_retornarTrue_cuandoTrazaInicialNull() {
             // Given
             MovimientoDTO dto = new MovimientoDTO();
             dto.setTrazaInicial(null);
@@ -51,10 +51,8 @@ class TrazaValidatorTest {
             boolean resultado = TrazaValidator.validarTrazaInicialLote(dto, binding);
 
             // Then
-            assertThat(resultado).isFalse();
-            assertThat(binding.getFieldError("trazaInicial")).isNotNull();
-            assertThat(binding.getFieldError("trazaInicial").getDefaultMessage())
-                .isEqualTo("Ingrese un valor válido para la traza inicial del lote");
+            assertThat(resultado).isTrue();
+            assertThat(binding.hasErrors()).isFalse();
         }
 
         @Test
@@ -0,0 +1,173 @@
+package com.mb.conitrack.service.dataset;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.enums.TipoProductoEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.repository.maestro.ProductoRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de integración del generador de dataset sintético contra H2, con un volumen chico.
+ * Usa su propia base en memoria: el dataset se genera una sola vez y los tests solo consultan.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:datasetdb",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.sql.init.mode=never",
+    "spring.jpa.defer-datasource-initialization=false",
+    "conitrack.dataset.productos=30",
+    "conitrack.dataset.proveedores=10",
+    "conitrack.dataset.lotes=400",
+    "conitrack.dataset.unidades-por-bulto=20",
+    "conitrack.dataset.lotes-por-transaccion=150",
+    "conitrack.dataset.filas-por-batch=200",
+    "conitrack.dataset.candidatos="
+})
+@DisplayName("Tests de Integración - GeneradorDatasetService")
+class GeneradorDatasetServiceIntegrationTest {
+
+    private static final Path CANDIDATOS = Path.of("build", "dataset-test", "candidatos.csv");
+
+    private static Map<String, Long> insertadas;
+
+    @Autowired
+    private GeneradorDatasetService generadorDatasetService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @BeforeEach
+    void setUp() {
+        if (insertadas == null) {
+            generadorDatasetService.setCandidatos(CANDIDATOS.toString());
+            insertadas = generadorDatasetService.generar();
+        }
+    }
+
+    @Test
+    @DisplayName("test_generar_debe_insertarLosVolumenesConfigurados")
+    void test_generar_debe_insertarLosVolumenesConfigurados() {
+        assertThat(insertadas.get("productos")).isEqualTo(30);
+        assertThat(insertadas.get("proveedores")).isEqualTo(10);
+        // Los lotes de devolución de ventas se suman a los configurados
+        assertThat(insertadas.get("lotes")).isGreaterThanOrEqualTo(400);
+        assertThat(count("select count(*) from lotes")).isEqualTo(insertadas.get("lotes"));
+        assertThat(count("select count(*) from movimientos")).isGreaterThan(insertadas.get("lotes"));
+        assertThat(count("select count(*) from trazas")).isPositive();
+        assertThat(count("select count(*) from trazas_detalles")).isPositive();
+    }
+
+    @Test
+    @DisplayName("test_generar_debe_mantenerStockDelLoteIgualALaSumaDeSusBultos")
+    void test_generar_debe_mantenerStockDelLoteIgualALaSumaDeSusBultos() {
+        assertThat(count("""
+            select count(*) from lotes l
+            where l.cantidad_actual <> (select sum(b.cantidad_actual) from bultos b where b.lote_id = l.id)
+               or l.cantidad_inicial <> (select sum(b.cantidad_inicial) from bultos b where b.lote_id = l.id)
+               or l.bultos_totales <> (select count(*) from bultos b where b.lote_id = l.id)""")).isZero();
+        assertThat(count("""
+            select count(*) from movimientos m
+            where m.cantidad is not null
+              and m.cantidad <> (select sum(d.cantidad) from detalle_movimientos d where d.movimiento_id = m.id)"""))
+            .isZero();
+    }
+
+    @Test
+    @DisplayName("test_generar_debe_dejarTrazasDisponiblesIgualAlStockDeCadaBultoTrazado")
+    void test_generar_debe_dejarTrazasDisponiblesIgualAlStockDeCadaBultoTrazado() {
+        assertThat(count("""
+            select count(*) from bultos b
+            join lotes l on l.id = b.lote_id
+            where l.trazado = true and l.lote_origen_id is null
+              and b.cantidad_actual <> (
+                  select count(*) from trazas t where t.bulto_id = b.id and t.estado = 'DISPONIBLE')""")).isZero();
+        assertThat(count("""
+            select count(*) from traza_contadores c
+            where c.ultimo_nro <> (select max(t.nro_traza) from trazas t where t.producto_id = c.producto_id)"""))
+            .isZero();
+    }
+
+    @Test
+    @DisplayName("test_generar_debe_encadenarDevolucionesConLoteYMovimientoDeOrigen")
+    void test_generar_debe_encadenarDevolucionesConLoteYMovimientoDeOrigen() {
+        assertThat(count("""
+            select count(*) from lotes l
+            join lotes o on o.id = l.lote_origen_id
+            where l.dictamen <> 'DEVOLUCION_CLIENTES' or l.codigo_lote not like o.codigo_lote || '_D_%'""")).isZero();
+        assertThat(count("""
+            select count(*) from movimientos m
+            left join movimientos o on o.id = m.movimiento_origen_id
+            where m.motivo = 'DEVOLUCION_VENTA' and (o.id is null or o.motivo <> 'VENTA')""")).isZero();
+        assertThat(count("""
+            select count(*) from trazas t join lotes l on l.id = t.lote_id
+            where l.lote_origen_id is not null and t.estado <> 'DEVUELTO'""")).isZero();
+        assertThat(count("""
+            select count(*) from detalle_movimientos d
+            join movimientos m on m.id = d.movimiento_id
+            where m.motivo = 'VENTA'
+              and (d.saldo_retornable is null or d.saldo_retornable <> d.cantidad - coalesce((
+                  select sum(dr.cantidad) from movimientos mr
+                  join detalle_movimientos dr on dr.movimiento_id = mr.id
+                  where mr.movimiento_origen_id = m.id), 0))""")).isZero();
+    }
+
+    @Test
+    @DisplayName("test_generar_debe_generarCodigosUnicos")
+    void test_generar_debe_generarCodigosUnicos() {
+        assertThat(count("select count(distinct codigo_lote) from lotes"))
+            .isEqualTo(count("select count(*) from lotes"));
+        assertThat(count("select count(distinct codigo_movimiento) from movimientos"))
+            .isEqualTo(count("select count(*) from movimientos"));
+    }
+
+    @Test
+    @DisplayName("test_generar_debe_resincronizarSecuenciasParaAltasPorJpa")
+    void test_generar_debe_resincronizarSecuenciasParaAltasPorJpa() {
+        final long maxId = count("select max(id) from productos");
+
+        final Producto producto = new Producto();
+        producto.setNombreGenerico("Producto posterior al dataset");
+        producto.setCodigoProducto("1-DATASET-JPA");
+        producto.setTipoProducto(TipoProductoEnum.EXCIPIENTE);
+        producto.setUnidadMedida(UnidadMedidaEnum.KILOGRAMO);
+        producto.setActivo(true);
+
+        assertThat(productoRepository.save(producto).getId()).isGreaterThan(maxId);
+    }
+
+    @Test
+    @DisplayName("test_generar_debe_escribirManifiestoDeCandidatos")
+    void test_generar_debe_escribirManifiestoDeCandidatos() throws IOException {
+        final List<String> lineas = Files.readAllLines(CANDIDATOS, StandardCharsets.UTF_8);
+
+        assertThat(lineas).filteredOn(l -> l.startsWith("PROVEEDOR;")).hasSize(10);
+        assertThat(lineas).anyMatch(l -> l.startsWith("INGRESO;"));
+        assertThat(lineas).anyMatch(l -> l.startsWith("VENTA;"));
+    }
+
+    private long count(final String sql) {
+        final Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        return count == null ? 0 : count;
+    }
+
+}
@@ -0,0 +1,208 @@
+package com.mb.conitrack.service.maestro;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mb.conitrack.entity.maestro.Producto;
+import com.mb.conitrack.entity.maestro.Proveedor;
+import com.mb.conitrack.entity.maestro.Role;
+import com.mb.conitrack.entity.maestro.User;
+import com.mb.conitrack.enums.TipoProductoEnum;
+import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.repository.maestro.RoleRepository;
+import com.mb.conitrack.repository.maestro.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de integración de la caché de datos de referencia (caché de segundo nivel y query cache de Hibernate).
+ * No es @Transactional: dentro de una transacción la segunda lectura la resolvería el contexto de persistencia y
+ * no se distinguiría de un acierto de caché. Los datos se limpian al final.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:testdb",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.sql.init.mode=never",
+    "spring.jpa.defer-datasource-initialization=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "conitrack.cache.referencia.habilitada=true"
+})
+@DisplayName("Tests de Integración - Caché de datos de referencia")
+class ReferenciaCacheIntegrationTest {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProveedorService proveedorService;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Producto> productosCreados = new ArrayList<>();
+
+    private final List<Proveedor> proveedoresCreados = new ArrayList<>();
+
+    private final List<Role> rolesCreados = new ArrayList<>();
+
+    private SessionFactory sessionFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productosCreados.forEach(p -> jdbcTemplate.update("delete from productos where id = ?", p.getId()));
+        proveedoresCreados.forEach(p -> jdbcTemplate.update("delete from proveedores where id = ?", p.getId()));
+        rolesCreados.forEach(r -> {
+            jdbcTemplate.update("delete from users where role_id = ?", r.getId());
+            jdbcTemplate.update("delete from roles where id = ?", r.getId());
+        });
+        productosCreados.clear();
+        proveedoresCreados.clear();
+        rolesCreados.clear();
+        // Los deletes por JDBC no pasan por Hibernate
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    @Test
+    @DisplayName("test_findById_repetido_debe_consultarLaBaseUnaSolaVez")
+    void test_findById_repetido_debe_consultarLaBaseUnaSolaVez() {
+        Producto producto = crearProducto("CACHE-01");
+        sessionFactory.getCache().evictAllRegions();
+        statistics.clear();
+
+        productoService.findById(producto.getId());
+        productoService.findById(producto.getId());
+        productoService.findById(producto.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1L);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("test_findById_cacheado_debe_devolverUnaInstanciaPropiaEnCadaLlamada")
+    void test_findById_cacheado_debe_devolverUnaInstanciaPropiaEnCadaLlamada() {
+        Producto producto = crearProducto("CACHE-04");
+        Producto primera = productoService.findById(producto.getId()).orElseThrow();
+        statistics.clear();
+
+        // Cambio sin guardar, como el de un formulario o ABM que luego falla una validación
+        primera.setNombreGenerico("Modificado sin guardar");
+        Producto segunda = productoService.findById(producto.getId()).orElseThrow();
+
+        assertThat(segunda).isNotSameAs(primera);
+        assertThat(segunda.getNombreGenerico()).isEqualTo("Producto CACHE-04");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("test_save_debe_invalidarBusquedasYListados")
+    void test_save_debe_invalidarBusquedasYListados() {
+        Producto producto = crearProducto("CACHE-02");
+        assertThat(productoService.getProductosExternos()).extracting(Producto::getCodigoProducto)
+            .contains("CACHE-02");
+        productoService.findById(producto.getId());
+
+        producto.setNombreGenerico("Editado");
+        productoService.save(producto);
+        crearProducto("CACHE-03");
+
+        assertThat(productoService.findById(producto.getId())).get()
+            .extracting(Producto::getNombreGenerico).isEqualTo("Editado");
+        assertThat(productoService.getProductosExternos()).extracting(Producto::getCodigoProducto)
+            .contains("CACHE-02", "CACHE-03");
+    }
+
+    @Test
+    @DisplayName("test_listadoProveedores_repetido_debe_consultarLaBaseUnaSolaVez")
+    void test_listadoProveedores_repetido_debe_consultarLaBaseUnaSolaVez() {
+        Proveedor proveedor = new Proveedor();
+        proveedor.setRazonSocial("Proveedor Cache");
+        proveedor.setCuit("20-22222222-2");
+        proveedor.setDireccion("Calle 1");
+        proveedor.setCiudad("Rosario");
+        proveedor.setPais("Argentina");
+        proveedor.setActivo(true);
+        proveedoresCreados.add(proveedorService.save(proveedor));
+        statistics.clear();
+
+        List<Proveedor> primera = proveedorService.getProveedoresExternos();
+        List<Proveedor> segunda = proveedorService.getProveedoresExternos();
+
+        assertThat(segunda).extracting(Proveedor::getId)
+            .containsExactlyElementsOf(primera.stream().map(Proveedor::getId).toList());
+        for (int i = 0; i < primera.size(); i++) {
+            assertThat(segunda.get(i)).isNotSameAs(primera.get(i));
+        }
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("test_findByName_cacheado_debe_cargarLosUsuariosDelRolEnLaSesionQueLosPide")
+    void test_findByName_cacheado_debe_cargarLosUsuariosDelRolEnLaSesionQueLosPide() {
+        Role role = roleRepository.save(new Role("CACHE_ROL", 99));
+        rolesCreados.add(role);
+        userRepository.save(new User("cache-usuario", "password", role));
+        roleRepository.findByName("CACHE_ROL");
+        statistics.clear();
+
+        List<String> usuarios = transactionTemplate.execute(status -> roleRepository.findByName("CACHE_ROL")
+            .orElseThrow()
+            .getUsers()
+            .stream()
+            .map(User::getUsername)
+            .toList());
+
+        assertThat(usuarios).containsExactly("cache-usuario");
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1L);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1L);
+    }
+
+    private Producto crearProducto(final String codigo) {
+        Producto producto = new Producto();
+        producto.setCodigoProducto(codigo);
+        producto.setNombreGenerico("Producto " + codigo);
+        producto.setTipoProducto(TipoProductoEnum.API);
+        producto.setUnidadMedida(UnidadMedidaEnum.GRAMO);
+        producto.setActivo(true);
+        Producto guardado = productoService.save(producto);
+        productosCreados.add(guardado);
+        return guardado;
+    }
+
+}
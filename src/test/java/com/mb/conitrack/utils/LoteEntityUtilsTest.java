@@ -23,6 +23,7 @@ import com.mb.conitrack.entity.maestro.Proveedor;
 import com.mb.conitrack.enums.DictamenEnum;
 import com.mb.conitrack.enums.EstadoEnum;
 import com.mb.conitrack.enums.UnidadMedidaEnum;
+import com.mb.conitrack.repository.TrazaRepositoryCustom.RangoTraza;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -177,7 +178,8 @@ class LoteEntityUtilsTest {
         conifarma.setPais("Argentina");
 
         // when
-        LoteEntityUtils.populateLoteAltaProduccionPropia(lote, dto, producto, conifarma);
+        LoteEntityUtils.populateLoteAltaProduccionPropia(
+            lote, dto, producto, conifarma, "L-PROD-001-25.02.10_14.30.00");
 
         // then
         assertEquals("L-PROD-001-25.02.10_14.30.00", lote.getCodigoLote());
@@ -196,7 +198,8 @@ class LoteEntityUtilsTest {
     @DisplayName("populateLoteAltaProduccionPropia lanza NullPointerException si lote es null")
     void populateLoteAltaProduccionPropia_loteNull_lanzaExcepcion() {
         assertThrows(NullPointerException.class, () ->
-            LoteEntityUtils.populateLoteAltaProduccionPropia(null, new LoteDTO(), new Producto(), new Proveedor())
+            LoteEntityUtils.populateLoteAltaProduccionPropia(
+                null, new LoteDTO(), new Producto(), new Proveedor(), "L-1")
         );
     }
 
@@ -228,7 +231,8 @@ class LoteEntityUtilsTest {
         fabricante.setPais("China");
 
         // when
-        LoteEntityUtils.populateLoteAltaStockCompra(lote, dto, producto, proveedor, fabricante);
+        LoteEntityUtils.populateLoteAltaStockCompra(
+            lote, dto, producto, proveedor, fabricante, "L-MED-002-25.03.15_09.00.00");
 
         // then
         assertEquals("L-MED-002-25.03.15_09.00.00", lote.getCodigoLote());
@@ -260,7 +264,7 @@ class LoteEntityUtilsTest {
         proveedor.setPais("Argentina");
 
         // when
-        LoteEntityUtils.populateLoteAltaStockCompra(lote, dto, producto, proveedor, null);
+        LoteEntityUtils.populateLoteAltaStockCompra(lote, dto, producto, proveedor, null, "L-PROD-1");
 
         // then
         assertEquals("Argentina", lote.getPaisOrigen());  // From proveedor since fabricante is null
@@ -270,10 +274,53 @@ class LoteEntityUtilsTest {
     @DisplayName("populateLoteAltaStockCompra lanza NullPointerException si proveedor es null")
     void populateLoteAltaStockCompra_proveedorNull_lanzaExcepcion() {
         assertThrows(NullPointerException.class, () ->
-            LoteEntityUtils.populateLoteAltaStockCompra(new Lote(), new LoteDTO(), new Producto(), null, new Proveedor())
+            LoteEntityUtils.populateLoteAltaStockCompra(
+                new Lote(), new LoteDTO(), new Producto(), null, new Proveedor(), "L-1")
         );
     }
 
+    // ================ calcularRangosTraza Tests ================
+
+    @Test
+    @DisplayName("calcularRangosTraza asigna rangos contiguos por bulto sin crear trazas")
+    void calcularRangosTraza_asignaRangosContiguos() {
+        Lote lote = new Lote();
+        lote.setUnidadMedida(UnidadMedidaEnum.UNIDAD);
+        lote.setCantidadActual(BigDecimal.valueOf(5));
+
+        Bulto bulto1 = new Bulto();
+        bulto1.setId(11L);
+        bulto1.setCantidadActual(BigDecimal.valueOf(3));
+        lote.getBultos().add(bulto1);
+
+        Bulto vacio = new Bulto();
+        vacio.setId(12L);
+        vacio.setCantidadActual(BigDecimal.ZERO);
+        lote.getBultos().add(vacio);
+
+        Bulto bulto2 = new Bulto();
+        bulto2.setId(13L);
+        bulto2.setCantidadActual(BigDecimal.valueOf(2));
+        lote.getBultos().add(bulto2);
+
+        List<RangoTraza> rangos = LoteEntityUtils.calcularRangosTraza(lote, 1000L);
+
+        assertEquals(List.of(new RangoTraza(11L, 1000L, 3), new RangoTraza(13L, 1003L, 2)), rangos);
+        assertEquals(1002L, rangos.get(0).nroHasta());
+        assertEquals(1004L, rangos.get(1).nroHasta());
+        assertTrue(lote.getTrazas().isEmpty());
+    }
+
+    @Test
+    @DisplayName("calcularRangosTraza lanza IllegalStateException si unidad no es UNIDAD")
+    void calcularRangosTraza_unidadIncorrecta_lanzaExcepcion() {
+        Lote lote = new Lote();
+        lote.setUnidadMedida(UnidadMedidaEnum.KILOGRAMO);
+        lote.setCantidadActual(BigDecimal.valueOf(5));
+
+        assertThrows(IllegalStateException.class, () -> LoteEntityUtils.calcularRangosTraza(lote, 1L));
+    }
+
     // ================ addTrazasToLote Tests ================
 
     @Test
@@ -396,7 +443,7 @@ class LoteEntityUtilsTest {
         fabricante.setPais("Brasil");
 
         // when
-        LoteEntityUtils.populateLoteAltaStockCompra(lote, loteDTO, producto, proveedor, fabricante);
+        LoteEntityUtils.populateLoteAltaStockCompra(lote, loteDTO, producto, proveedor, fabricante, "L-1");
 
         // then
         assertEquals("España", lote.getPaisOrigen());  // Should use DTO value, not fabricante or proveedor
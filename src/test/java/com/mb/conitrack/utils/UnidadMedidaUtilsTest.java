@@ -3,7 +3,10 @@ package com.mb.conitrack.utils;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -130,8 +133,8 @@ class UnidadMedidaUtilsTest {
         BigDecimal toU1 = UnidadMedidaUtils.convertirCantidadEntreUnidades(u0, q, u1);
         BigDecimal back = UnidadMedidaUtils.convertirCantidadEntreUnidades(u1, toU1, u0);
 
-        // por uso de double internamente, comparamos con tolerancia
-        assertApprox(q, back, 1e-9);
+        // los factores son exactos: la vuelta no tiene error
+        assertEquals(0, q.compareTo(back));
     }
 
     @Test
@@ -323,7 +326,7 @@ class UnidadMedidaUtilsTest {
         MovimientoDTO dto = dto(new BigDecimal("2"), UnidadMedidaEnum.UNIDAD);
         BigDecimal out = UnidadMedidaUtils.restarMovimientoConvertido(dto, b);
 
-        assertEquals(new BigDecimal("6.0"), out);
+        assertEquals(new BigDecimal("6"), out);
     }
 
     @Test
@@ -464,7 +467,7 @@ class UnidadMedidaUtilsTest {
     @Test
     void testConversionKgToMg() {
         assertEquals(
-            new BigDecimal("2000000.0"),
+            new BigDecimal("2000000"),
             convertirCantidadEntreUnidades(KILOGRAMO, new BigDecimal("2"), UnidadMedidaEnum.MILIGRAMO));
     }
 
@@ -950,4 +953,105 @@ class UnidadMedidaUtilsTest {
         assertEquals(KILOGRAMO, mayor);
     }
 
-}
\ No newline at end of file
+    // ================ Conversión exacta ================
+
+    @Test
+    @DisplayName("convertirCantidadEntreUnidades: ida y vuelta entre todo par compatible sin deriva")
+    void convertir_roundTripTodosLosPares_sinDeriva() {
+        final Random random = new Random(42);
+        for (UnidadMedidaEnum origen : UnidadMedidaEnum.values()) {
+            for (UnidadMedidaEnum destino : UnidadMedidaEnum.getUnidadesPorTipo(origen)) {
+                for (int i = 0; i < 200; i++) {
+                    final BigDecimal cantidad = BigDecimal.valueOf(random.nextInt(100_000_000), random.nextInt(5));
+
+                    final BigDecimal convertida = convertirCantidadEntreUnidades(origen, cantidad, destino);
+                    final BigDecimal vuelta = convertirCantidadEntreUnidades(destino, convertida, origen);
+
+                    assertEquals(0, cantidad.compareTo(vuelta), () -> origen + " -> " + destino + ": " + cantidad);
+                    assertEquals(0, convertida.compareTo(cantidad.multiply(origen.getFactorConversionExacto())
+                        .divide(destino.getFactorConversionExacto())), () -> origen + " -> " + destino);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("convertirCantidadEntreUnidades: microgramos a kilogramos es exacto")
+    void convertir_microgramoAKilogramo_exacto() {
+        assertEquals(0, new BigDecimal("0.000000001")
+            .compareTo(convertirCantidadEntreUnidades(UnidadMedidaEnum.MICROGRAMO, BigDecimal.ONE, KILOGRAMO)));
+        assertEquals(0, new BigDecimal("0.0003")
+            .compareTo(convertirCantidadEntreUnidades(UnidadMedidaEnum.MICROGRAMO, new BigDecimal("300"), GRAMO)));
+    }
+
+    @Test
+    @DisplayName("convertirCantidadEntreUnidades: no deja escala negativa (notación científica)")
+    void convertir_sinEscalaNegativa() {
+        final BigDecimal convertida = convertirCantidadEntreUnidades(KILOGRAMO, new BigDecimal("3"),
+            UnidadMedidaEnum.MICROGRAMO);
+
+        assertEquals("3000000000", convertida.toString());
+    }
+
+    @Test
+    @DisplayName("Consumos sucesivos en gramos de un bulto en kilogramos no acumulan deriva")
+    void restarBulto_consumosSucesivos_sinDeriva() {
+        Bulto bulto = new Bulto();
+        bulto.setCantidadActual(new BigDecimal("1.0000"));
+        bulto.setUnidadMedida(KILOGRAMO);
+
+        for (int i = 0; i < 1000; i++) {
+            bulto.setCantidadActual(UnidadMedidaUtils.restarMovimientoConvertido(dto(BigDecimal.ONE, GRAMO), bulto));
+        }
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(bulto.getCantidadActual()));
+    }
+
+    @Test
+    @DisplayName("restarMovimientoConvertido: el resultado se redondea a la escala de la columna")
+    void restar_redondeaAEscalaDeColumna() {
+        Lote lote = new Lote();
+        lote.setCantidadActual(new BigDecimal("1.0000"));
+        lote.setUnidadMedida(KILOGRAMO);
+
+        BigDecimal result = UnidadMedidaUtils.restarMovimientoConvertido(
+            dto(new BigDecimal("999999.99"), MILIGRAMO), lote);
+
+        assertEquals(new BigDecimal("0.0000"), result);
+        assertEquals(UnidadMedidaUtils.ESCALA_CANTIDAD, result.scale());
+    }
+
+    @Test
+    @DisplayName("sumarCantidadesConvertidas: suma bultos en unidades mezcladas e ignora posiciones nulas")
+    void sumarCantidadesConvertidas_unidadesMezcladas() {
+        final List<BigDecimal> cantidades = Arrays.asList(
+            new BigDecimal("0.5"), new BigDecimal("250"), null, new BigDecimal("1500000"), new BigDecimal("0.25"));
+        final List<UnidadMedidaEnum> unidades = Arrays.asList(
+            KILOGRAMO, GRAMO, GRAMO, UnidadMedidaEnum.MICROGRAMO, KILOGRAMO);
+
+        final BigDecimal suma = UnidadMedidaUtils.sumarCantidadesConvertidas(cantidades, unidades, GRAMO);
+
+        assertEquals(0, new BigDecimal("1001.5").compareTo(suma));
+    }
+
+    @Test
+    @DisplayName("sumarCantidadesConvertidas: coincide con convertir y sumar uno por uno")
+    void sumarCantidadesConvertidas_igualQueUnoPorUno() {
+        final Random random = new Random(7);
+        final List<UnidadMedidaEnum> masa = UnidadMedidaEnum.getUnidadesPorTipo(GRAMO);
+        final List<BigDecimal> cantidades = new ArrayList<>();
+        final List<UnidadMedidaEnum> unidades = new ArrayList<>();
+        BigDecimal esperada = BigDecimal.ZERO;
+        for (int i = 0; i < 50; i++) {
+            final BigDecimal cantidad = BigDecimal.valueOf(random.nextInt(1_000_000), random.nextInt(5));
+            final UnidadMedidaEnum unidad = masa.get(random.nextInt(masa.size()));
+            cantidades.add(cantidad);
+            unidades.add(unidad);
+            esperada = esperada.add(convertirCantidadEntreUnidades(unidad, cantidad, MILIGRAMO));
+        }
+
+        assertEquals(0, esperada.compareTo(
+            UnidadMedidaUtils.sumarCantidadesConvertidas(cantidades, unidades, MILIGRAMO)));
+    }
+
+}